@@ -0,0 +1,18 @@
+-- Creates the change log of an OACC database on DB2 10.5.
+--
+-- OACC only writes to the change log of a store after it has been enabled for the store, e.g. with
+-- SQLAccessControlContextFactory.enableChangeLog(dataSource), so databases created before the change log
+-- was introduced keep working without it. Run this script once, in the schema of the other OACC tables,
+-- before enabling the change log; prune the log with SQLAccessControlContextFactory.pruneChangeLog().
+
+CREATE SEQUENCE OAC_ChangeSeq AS BIGINT START WITH 1 INCREMENT BY 1 NO CYCLE;
+
+CREATE TABLE OAC_ChangeLog (
+   ChangeSeq          BIGINT      NOT NULL,
+   ChangeKind         VARCHAR(40) NOT NULL,
+   AccessorResourceId BIGINT,
+   AccessedResourceId BIGINT,
+   AccessedDomainId   BIGINT,
+   ResourceClassId    BIGINT,
+   CONSTRAINT PK_CL PRIMARY KEY (ChangeSeq)
+);
@@ -0,0 +1,16 @@
+-- Creates the change log of an OACC database on MySQL 5.6.
+--
+-- OACC only writes to the change log of a store after it has been enabled for the store, e.g. with
+-- SQLAccessControlContextFactory.enableChangeLog(dataSource), so databases created before the change log
+-- was introduced keep working without it. Run this script once, in the schema of the other OACC tables,
+-- before enabling the change log; prune the log with SQLAccessControlContextFactory.pruneChangeLog().
+
+CREATE TABLE OAC_ChangeLog (
+   ChangeSeq          BIGINT      NOT NULL AUTO_INCREMENT,
+   ChangeKind         VARCHAR(40) NOT NULL,
+   AccessorResourceId BIGINT,
+   AccessedResourceId BIGINT,
+   AccessedDomainId   BIGINT,
+   ResourceClassId    BIGINT,
+   CONSTRAINT PK_CL PRIMARY KEY (ChangeSeq)
+) ENGINE = InnoDB;
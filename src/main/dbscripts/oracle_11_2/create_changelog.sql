@@ -0,0 +1,18 @@
+-- Creates the change log of an OACC database on Oracle 11.2.
+--
+-- OACC only writes to the change log of a store after it has been enabled for the store, e.g. with
+-- SQLAccessControlContextFactory.enableChangeLog(dataSource), so databases created before the change log
+-- was introduced keep working without it. Run this script once, in the schema of the other OACC tables,
+-- before enabling the change log; prune the log with SQLAccessControlContextFactory.pruneChangeLog().
+
+CREATE SEQUENCE OAC_ChangeSeq START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE TABLE OAC_ChangeLog (
+   ChangeSeq          NUMBER(19)   NOT NULL,
+   ChangeKind         VARCHAR2(40) NOT NULL,
+   AccessorResourceId NUMBER(19),
+   AccessedResourceId NUMBER(19),
+   AccessedDomainId   NUMBER(19),
+   ResourceClassId    NUMBER(19),
+   CONSTRAINT PK_CL PRIMARY KEY (ChangeSeq)
+);
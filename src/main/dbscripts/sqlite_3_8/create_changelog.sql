@@ -0,0 +1,17 @@
+-- Creates the change log of an OACC database on SQLite 3.8.
+--
+-- OACC only writes to the change log of a store after it has been enabled for the store, e.g. with
+-- SQLAccessControlContextFactory.enableChangeLog(dataSource), so databases created before the change log
+-- was introduced keep working without it. Run this script once, in the schema of the other OACC tables,
+-- before enabling the change log; prune the log with SQLAccessControlContextFactory.pruneChangeLog().
+
+-- SQLite has no sequences, so the sequence numbers are assigned by AUTOINCREMENT, which never reuses the
+-- number of a deleted entry.
+CREATE TABLE OAC_ChangeLog (
+   ChangeSeq          INTEGER PRIMARY KEY AUTOINCREMENT,
+   ChangeKind         TEXT    NOT NULL,
+   AccessorResourceId INTEGER,
+   AccessedResourceId INTEGER,
+   AccessedDomainId   INTEGER,
+   ResourceClassId    INTEGER
+);
@@ -17,6 +17,7 @@
  */
 package com.acciente.oacc;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -165,6 +166,28 @@ public interface AccessControlContext {
     */
    void setCredentials(Resource resource, Credentials newCredentials);
 
+   /**
+    * Sets the authentication credentials of each of the specified authenticatable resources.
+    * <p/>
+    * This method is equivalent to calling {@link #setCredentials(Resource, Credentials)} for each of the specified
+    * resources, but checks authorization and validates the credentials for all of them before any credentials are
+    * changed. The built-in authentication providers then encrypt the new passwords in parallel and store them in
+    * a single batched write.
+    *
+    * @param newCredentialsByResource a map of the resources for which the credentials should be updated, to their
+    *                                 respective new credentials
+    * @throws java.lang.IllegalArgumentException            if any of the resources does not exist, or
+    *                                                       if any of the resources is not of an authenticatable
+    *                                                       resource class, or
+    *                                                       if more than one of the specified references resolve to
+    *                                                       the same resource
+    * @throws java.lang.IllegalStateException               if called while impersonating another resource
+    * @throws com.acciente.oacc.InvalidCredentialsException if any of the new credentials is invalid
+    * @throws com.acciente.oacc.NotAuthorizedException      if the authenticated resource does not have permission to
+    *                                                       reset the credentials of any one of the specified resources
+    */
+   void setCredentials(Map<Resource, Credentials> newCredentialsByResource);
+
    /**
     * Checks if the specified accessor resource has the specified domain permissions on
     * the specified domain.
@@ -882,6 +905,61 @@ public interface AccessControlContext {
                                                    ResourcePermission resourcePermission,
                                                    ResourcePermission... resourcePermissions);
 
+   /**
+    * Returns an iterator over the resources (of the specified resource class) on which
+    * the specified accessor resource has the specified permissions, regardless of domain.
+    * <p/>
+    * This method returns the same resources as {@link #getResourcesByResourcePermissions}, but reads them
+    * lazily, in ascending order of their resource ids, one batch at a time as the iterator is advanced, so
+    * that arbitrarily large results can be processed in constant memory. A connection is only held while a
+    * batch is being read. The accessor, resource class and permissions are validated and the query is
+    * authorized when this method is called, not when the iterator is advanced.
+    * <p/>
+    * The iterator is weakly consistent: it reflects the permissions at the time each batch is read, and
+    * may or may not reflect permission changes made while it is in use. The iterator does not support
+    * <code>remove()</code>.
+    *
+    * @param accessorResource    the resource relative to which the set of accessible resources is computed
+    * @param resourceClassName   a string resource class name
+    * @param resourcePermissions the permissions to check
+    * @return an iterator over the resources, in ascending resource id order
+    * @throws java.lang.IllegalArgumentException if accessorResource does not exist, or
+    *                                            if no resource class of resourceClassName exists, or
+    *                                            if any resourcePermission is invalid for the specified resource class
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not the accessor resource and
+    *                                                  the session resource does not have query authorization on
+    *                                                  the accessor resource (explicitly via QUERY or implicitly via
+    *                                                  IMPERSONATE permissions)
+    */
+   Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                            String resourceClassName,
+                                                            Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Returns an iterator over the resources (of the specified resource class) on which
+    * the specified accessor resource has the specified permissions, regardless of domain.
+    * <p/>
+    * This method returns the same resources as {@link #getResourcesByResourcePermissions}, but reads them
+    * lazily, as described in {@link #iterateResourcesByResourcePermissions(Resource, String, Set)}.
+    *
+    * @param accessorResource    the resource relative to which the set of accessible resources is computed
+    * @param resourceClassName   a string resource class name
+    * @param resourcePermission  the permission to check
+    * @param resourcePermissions the other (optional) permissions to check
+    * @return an iterator over the resources, in ascending resource id order
+    * @throws java.lang.IllegalArgumentException if accessorResource does not exist, or
+    *                                            if no resource class of resourceClassName exists, or
+    *                                            if any resourcePermission is invalid for the specified resource class
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not the accessor resource and
+    *                                                  the session resource does not have query authorization on
+    *                                                  the accessor resource (explicitly via QUERY or implicitly via
+    *                                                  IMPERSONATE permissions)
+    */
+   Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                            String resourceClassName,
+                                                            ResourcePermission resourcePermission,
+                                                            ResourcePermission... resourcePermissions);
+
    /**
     * Returns a set of resources (of the specified resource class) on which
     * the specified accessor resource has the specified permissions, within the
@@ -988,6 +1066,54 @@ public interface AccessControlContext {
                                                            ResourcePermission resourcePermission,
                                                            ResourcePermission... resourcePermissions);
 
+   /**
+    * Returns an iterator over the resources that have the specified permissions to the specified accessed resource.
+    * <p/>
+    * This method returns the same resources as {@link #getAccessorResourcesByResourcePermissions}, but reads
+    * them lazily, in ascending order of their resource ids, as described in
+    * {@link #iterateResourcesByResourcePermissions(Resource, String, Set)}.
+    *
+    * @param accessedResource    the resource relative to which accessor resources are sought
+    * @param resourceClassName   a string resource class name
+    * @param resourcePermissions the permissions to check
+    * @return an iterator over the accessor resources to the accessedResource, in ascending resource id order
+    * @throws java.lang.IllegalArgumentException if accessorResource does not exist, or
+    *                                            if no resource class of resourceClassName exists, or
+    *                                            if any resourcePermission is invalid for the specified resource class
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not the accessed resource and
+    *                                                  the session resource does not have query authorization on
+    *                                                  the accessed resource (explicitly via QUERY or implicitly via
+    *                                                  IMPERSONATE permissions)
+    */
+   Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                    String resourceClassName,
+                                                                    Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Returns an iterator over the resources that have the specified permissions to the specified accessed resource.
+    * <p/>
+    * This method returns the same resources as {@link #getAccessorResourcesByResourcePermissions}, but reads
+    * them lazily, in ascending order of their resource ids, as described in
+    * {@link #iterateResourcesByResourcePermissions(Resource, String, Set)}.
+    *
+    * @param accessedResource    the resource relative to which accessor resources are sought
+    * @param resourceClassName   a string resource class name
+    * @param resourcePermission  the permission to check
+    * @param resourcePermissions the other (optional) permissions to check
+    * @return an iterator over the accessor resources to the accessedResource, in ascending resource id order
+    * @throws java.lang.IllegalArgumentException if accessorResource does not exist, or
+    *                                            if no resource class of resourceClassName exists, or
+    *                                            if any resourcePermission is invalid for the specified resource class
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not the accessed resource and
+    *                                                  the session resource does not have query authorization on
+    *                                                  the accessed resource (explicitly via QUERY or implicitly via
+    *                                                  IMPERSONATE permissions)
+    */
+   Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                    String resourceClassName,
+                                                                    ResourcePermission resourcePermission,
+                                                                    ResourcePermission... resourcePermissions);
+
    /**
     * Returns the domain to which the specified resource belongs.
     *
@@ -1010,6 +1136,20 @@ public interface AccessControlContext {
     */
    Set<String> getDomainDescendants(String domainName);
 
+   /**
+    * Returns an iterator over the domains which are descendants of the specified domain, including the
+    * specified domain itself.
+    * <p/>
+    * This method returns the same domain names as {@link #getDomainDescendants}, as an iterator for symmetry
+    * with the other <code>iterate</code> methods. Domain hierarchies are small compared to the number of
+    * resources they hold, so the descendants are read when this method is called. The iterator does not
+    * support <code>remove()</code>.
+    *
+    * @param domainName a domain name for which to retrieve the descendants
+    * @return an iterator over unique string domain names, including the domain queried about, or an empty iterator if the specified domain does not exist
+    */
+   Iterator<String> iterateDomainDescendants(String domainName);
+
    /**
     * Returns information about the specified resource class.
     *
@@ -1221,6 +1361,21 @@ public interface AccessControlContext {
     */
    boolean deleteResource(Resource obsoleteResource);
 
+   /**
+    * Deletes the specified resources.
+    * <p/>
+    * This method is equivalent to calling {@link #deleteResource(Resource)} for each of the specified resources,
+    * but checks authorization for all of them before anything is deleted, and removes the permissions and the
+    * resources themselves with a small number of bulk operations. Resources that do not exist are ignored.
+    *
+    * @param obsoleteResources the set of resources to be deleted
+    * @return <strong>true</strong> if at least one resource was deleted as a result of this call,
+    *         <strong>false</strong> if none of the specified resources existed
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not authorized to delete any one
+    *                                                  of the specified obsolete resources
+    */
+   boolean deleteResources(Set<Resource> obsoleteResources);
+
    /**
     * Sets the domain permissions the specified accessor resource will receive if it created a domain.
     * <p/>
@@ -2010,6 +2165,35 @@ public interface AccessControlContext {
                                  ResourcePermission resourcePermission,
                                  ResourcePermission... resourcePermissions);
 
+   /**
+    * Adds the specified resource permissions to the set of permissions that each of the specified accessor resources
+    * has to each of the specified accessed resources directly, that is not via inheritance or globally.
+    * <p/>
+    * This method is equivalent to calling {@link #grantResourcePermissions(Resource, Resource, java.util.Set)} for
+    * every combination of accessor and accessed resource, except that authorization of the session resource is
+    * only checked once per accessed resource, and the permissions are written in bulk.
+    * If any of the combinations fails validation or authorization, none of the permissions are granted.
+    *
+    * @param accessorResources   the resources to which the privilege should be granted
+    * @param accessedResources   the resources on which the privilege is granted
+    * @param resourcePermissions the resource permissions to be granted
+    * @throws java.lang.IllegalArgumentException if accessorResources or accessedResources is empty, or
+    *                                            if any accessorResources or accessedResources reference does not exist, or
+    *                                            if resourcePermissions is empty, or
+    *                                            if resourcePermissions contains permissions invalid for resource class
+    *                                            of any accessedResource (incl. RESET-CREDENTIALS or IMPERSONATE for
+    *                                            unauthenticatable resource classes), or
+    *                                            if resourcePermissions contains multiple instances of the same
+    *                                            permission that only differ in the 'withGrant' attribute
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not authorized to grant the
+    *                                                  specified permissions on any of the specified accessed resources
+    * @throws com.acciente.oacc.OaccException          if granting the specified permissions would introduce a cycle
+    *                                                  between any accessor and accessed resource via permission inheritance
+    */
+   void grantResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                       Set<Resource> accessedResources,
+                                       Set<ResourcePermission> resourcePermissions);
+
    /**
     * Revokes the specified resource permissions from the set of permissions that the specified accessor resource
     * has to the specified accessed resource directly, that is not via inheritance or globally.
@@ -2063,6 +2247,35 @@ public interface AccessControlContext {
                                   ResourcePermission resourcePermission,
                                   ResourcePermission... resourcePermissions);
 
+   /**
+    * Revokes the specified resource permissions from the set of permissions that each of the specified accessor
+    * resources has to each of the specified accessed resources directly, that is not via inheritance or globally.
+    * <p/>
+    * This method is equivalent to calling {@link #revokeResourcePermissions(Resource, Resource, java.util.Set)} for
+    * every combination of accessor and accessed resource, except that authorization of the session resource is
+    * only checked once per accessed resource, and the permissions are removed in bulk.
+    * This method is idempotent, that is, when a specified permission is no longer granted, repeated calls to
+    * this method will have no effect.
+    *
+    * @param accessorResources   the resources from which the privilege should be revoked
+    * @param accessedResources   the resources on which the privilege was originally granted
+    * @param resourcePermissions the resource permissions to be revoked
+    * @throws java.lang.IllegalArgumentException if accessorResources or accessedResources is empty, or
+    *                                            if any accessorResources or accessedResources reference does not exist, or
+    *                                            if resourcePermissions is empty, or
+    *                                            if resourcePermissions contains permissions invalid for resource class
+    *                                            of any accessedResource (incl. RESET-CREDENTIALS or IMPERSONATE for
+    *                                            unauthenticatable resource classes), or
+    *                                            if resourcePermissions contains multiple instances of the same
+    *                                            permission that only differ in the 'withGrant' attribute
+    * @throws com.acciente.oacc.NotAuthorizedException if the session resource is not authorized to grant (or in this case
+    *                                                  revoke) the specified permissions on any of the specified accessed
+    *                                                  resources
+    */
+   void revokeResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                        Set<Resource> accessedResources,
+                                        Set<ResourcePermission> resourcePermissions);
+
    /**
     * Gets the resource permissions that the specified accessor resource has directly to the
     * specified accessed resource.
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import java.util.concurrent.Future;
+
+/**
+ * The pending result of an operation submitted to an {@link AsyncAccessControlContext}.
+ * <p/>
+ * In addition to waiting for the result with one of the <code>get</code> methods, a caller can register
+ * listeners that are called once the operation completes, for example to hand the result to a
+ * callback-based or reactive framework without blocking a thread on it.
+ * <p/>
+ * When the operation fails, the <code>get</code> methods throw an {@link java.util.concurrent.ExecutionException}
+ * whose cause is the exception the corresponding method of {@link AccessControlContext} would have thrown.
+ *
+ * @param <T> the type of the result of the operation
+ */
+public interface AccessControlFuture<T> extends Future<T> {
+   /**
+    * Registers a listener to be called once the operation completes, whether it succeeded, failed or
+    * was cancelled.
+    * <p/>
+    * The listener is called on the thread that completes the operation, or right away on the calling thread
+    * if the operation has already completed, so a listener should not block; it would typically call
+    * {@link #get()}, which no longer waits at that point, and pass the result on. Listeners are called in the
+    * order in which they were registered, and an exception thrown by a listener does not prevent the other
+    * listeners from being called.
+    *
+    * @param listener the listener to be called when the operation completes
+    * @throws java.lang.NullPointerException if the listener is null
+    */
+   void addListener(Runnable listener);
+}
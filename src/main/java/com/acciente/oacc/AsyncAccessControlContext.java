@@ -0,0 +1,445 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The interface with which to query an OACC access control context without blocking the calling thread.
+ * <p/>
+ * An instance of this interface is obtained for an existing {@link AccessControlContext}, its <em>owning
+ * context</em>, and offers the permission checking and permission query methods of the owning context. Each method
+ * submits the corresponding operation for execution on an executor and returns an {@link AccessControlFuture}
+ * for its result; the operation throws the same exceptions as the corresponding method of the owning context,
+ * and reports them through that future.
+ * <p/>
+ * An operation is performed as the session of the owning context at the time the operation was submitted: the
+ * authenticated and session resources are captured when the method is called, so authenticating, impersonating
+ * or unauthenticating with the owning context afterwards does not affect operations that are already pending.
+ * The sets and arrays passed to a method should not be modified until the returned future has completed.
+ * <p/>
+ * Authentication is the exception: {@link #authenticate(Resource, Credentials)} authenticates the owning context
+ * itself, so that the (deliberately slow) password check of a login does not have to block the calling thread.
+ * <p/>
+ * The number of operations that run at the same time is bounded per store (for example, per data source), so
+ * that asynchronous checks cannot exhaust a connection pool; operations beyond that bound wait in submission
+ * order until a running operation completes.
+ */
+public interface AsyncAccessControlContext {
+   /**
+    * Returns the access control context whose session the operations of this instance are performed as.
+    *
+    * @return the owning access control context
+    */
+   AccessControlContext getAccessControlContext();
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#authenticate(Resource, Credentials)} on the owning
+    * context.
+    * <p/>
+    * The session of the owning context changes once the returned future completes successfully, so the owning
+    * context should not be used until then. When password hashing is bounded for the store, the future fails
+    * with a {@link java.util.concurrent.RejectedExecutionException} if too many hashes are already waiting.
+    */
+   AccessControlFuture<Void> authenticate(Resource resource, Credentials credentials);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertDomainPermissions(Resource, String, Set)}.
+    */
+   AccessControlFuture<Void> assertDomainPermissions(Resource accessorResource,
+                                                     String domainName,
+                                                     Set<DomainPermission> domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertDomainPermissions(Resource, String, DomainPermission, DomainPermission...)}.
+    */
+   AccessControlFuture<Void> assertDomainPermissions(Resource accessorResource,
+                                                     String domainName,
+                                                     DomainPermission domainPermission,
+                                                     DomainPermission... domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasDomainPermissions(Resource, String, Set)}.
+    */
+   AccessControlFuture<Boolean> hasDomainPermissions(Resource accessorResource,
+                                                     String domainName,
+                                                     Set<DomainPermission> domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasDomainPermissions(Resource, String, DomainPermission, DomainPermission...)}.
+    */
+   AccessControlFuture<Boolean> hasDomainPermissions(Resource accessorResource,
+                                                     String domainName,
+                                                     DomainPermission domainPermission,
+                                                     DomainPermission... domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertDomainCreatePermissions(Resource, Set)}.
+    */
+   AccessControlFuture<Void> assertDomainCreatePermissions(Resource accessorResource,
+                                                           Set<DomainCreatePermission> domainCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertDomainCreatePermissions(Resource, DomainCreatePermission, DomainCreatePermission...)}.
+    */
+   AccessControlFuture<Void> assertDomainCreatePermissions(Resource accessorResource,
+                                                           DomainCreatePermission domainCreatePermission,
+                                                           DomainCreatePermission... domainCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasDomainCreatePermissions(Resource, Set)}.
+    */
+   AccessControlFuture<Boolean> hasDomainCreatePermissions(Resource accessorResource,
+                                                           Set<DomainCreatePermission> domainCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasDomainCreatePermissions(Resource, DomainCreatePermission, DomainCreatePermission...)}.
+    */
+   AccessControlFuture<Boolean> hasDomainCreatePermissions(Resource accessorResource,
+                                                           DomainCreatePermission domainCreatePermission,
+                                                           DomainCreatePermission... domainCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertPostCreateDomainPermissions(Resource, Set)}.
+    */
+   AccessControlFuture<Void> assertPostCreateDomainPermissions(Resource accessorResource,
+                                                               Set<DomainPermission> domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertPostCreateDomainPermissions(Resource, DomainPermission, DomainPermission...)}.
+    */
+   AccessControlFuture<Void> assertPostCreateDomainPermissions(Resource accessorResource,
+                                                               DomainPermission domainPermission,
+                                                               DomainPermission... domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasPostCreateDomainPermissions(Resource, Set)}.
+    */
+   AccessControlFuture<Boolean> hasPostCreateDomainPermissions(Resource accessorResource,
+                                                               Set<DomainPermission> domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasPostCreateDomainPermissions(Resource, DomainPermission, DomainPermission...)}.
+    */
+   AccessControlFuture<Boolean> hasPostCreateDomainPermissions(Resource accessorResource,
+                                                               DomainPermission domainPermission,
+                                                               DomainPermission... domainPermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertGlobalResourcePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Void> assertGlobalResourcePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertGlobalResourcePermissions(Resource, String, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Void> assertGlobalResourcePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             ResourcePermission resourcePermission,
+                                                             ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasGlobalResourcePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Boolean> hasGlobalResourcePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasGlobalResourcePermissions(Resource, String, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Boolean> hasGlobalResourcePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             ResourcePermission resourcePermission,
+                                                             ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertResourcePermissions(Resource, Resource, Set)}.
+    */
+   AccessControlFuture<Void> assertResourcePermissions(Resource accessorResource,
+                                                       Resource accessedResource,
+                                                       Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertResourcePermissions(Resource, Resource, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Void> assertResourcePermissions(Resource accessorResource,
+                                                       Resource accessedResource,
+                                                       ResourcePermission resourcePermission,
+                                                       ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasResourcePermissions(Resource, Resource, Set)}.
+    */
+   AccessControlFuture<Boolean> hasResourcePermissions(Resource accessorResource,
+                                                       Resource accessedResource,
+                                                       Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasResourcePermissions(Resource, Resource, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Boolean> hasResourcePermissions(Resource accessorResource,
+                                                       Resource accessedResource,
+                                                       ResourcePermission resourcePermission,
+                                                       ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertResourceCreatePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Void> assertResourceCreatePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             Set<ResourceCreatePermission> resourceCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertResourceCreatePermissions(Resource, String, String, ResourceCreatePermission, ResourceCreatePermission...)}.
+    */
+   AccessControlFuture<Void> assertResourceCreatePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             ResourceCreatePermission resourceCreatePermission,
+                                                             ResourceCreatePermission... resourceCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasResourceCreatePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Boolean> hasResourceCreatePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             Set<ResourceCreatePermission> resourceCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasResourceCreatePermissions(Resource, String, String, ResourceCreatePermission, ResourceCreatePermission...)}.
+    */
+   AccessControlFuture<Boolean> hasResourceCreatePermissions(Resource accessorResource,
+                                                             String resourceClassName,
+                                                             String domainName,
+                                                             ResourceCreatePermission resourceCreatePermission,
+                                                             ResourceCreatePermission... resourceCreatePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertPostCreateResourcePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Void> assertPostCreateResourcePermissions(Resource accessorResource,
+                                                                 String resourceClassName,
+                                                                 String domainName,
+                                                                 Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#assertPostCreateResourcePermissions(Resource, String, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Void> assertPostCreateResourcePermissions(Resource accessorResource,
+                                                                 String resourceClassName,
+                                                                 String domainName,
+                                                                 ResourcePermission resourcePermission,
+                                                                 ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasPostCreateResourcePermissions(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Boolean> hasPostCreateResourcePermissions(Resource accessorResource,
+                                                                 String resourceClassName,
+                                                                 String domainName,
+                                                                 Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#hasPostCreateResourcePermissions(Resource, String, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Boolean> hasPostCreateResourcePermissions(Resource accessorResource,
+                                                                 String resourceClassName,
+                                                                 String domainName,
+                                                                 ResourcePermission resourcePermission,
+                                                                 ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcesByResourcePermissions(Resource, String, Set)}.
+    */
+   AccessControlFuture<Set<Resource>> getResourcesByResourcePermissions(Resource accessorResource,
+                                                                        String resourceClassName,
+                                                                        Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcesByResourcePermissions(Resource, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Set<Resource>> getResourcesByResourcePermissions(Resource accessorResource,
+                                                                        String resourceClassName,
+                                                                        ResourcePermission resourcePermission,
+                                                                        ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcesByResourcePermissionsAndDomain(Resource, String, String, Set)}.
+    */
+   AccessControlFuture<Set<Resource>> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                                 String resourceClassName,
+                                                                                 String domainName,
+                                                                                 Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcesByResourcePermissionsAndDomain(Resource, String, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Set<Resource>> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                                 String resourceClassName,
+                                                                                 String domainName,
+                                                                                 ResourcePermission resourcePermission,
+                                                                                 ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getAccessorResourcesByResourcePermissions(Resource, String, Set)}.
+    */
+   AccessControlFuture<Set<Resource>> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                                String resourceClassName,
+                                                                                Set<ResourcePermission> resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getAccessorResourcesByResourcePermissions(Resource, String, ResourcePermission, ResourcePermission...)}.
+    */
+   AccessControlFuture<Set<Resource>> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                                String resourceClassName,
+                                                                                ResourcePermission resourcePermission,
+                                                                                ResourcePermission... resourcePermissions);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getDomainNameByResource(Resource)}.
+    */
+   AccessControlFuture<String> getDomainNameByResource(Resource resource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getDomainDescendants(String)}.
+    */
+   AccessControlFuture<Set<String>> getDomainDescendants(String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourceClassInfo(String)}.
+    */
+   AccessControlFuture<ResourceClassInfo> getResourceClassInfo(String resourceClassName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourceClassInfoByResource(Resource)}.
+    */
+   AccessControlFuture<ResourceClassInfo> getResourceClassInfoByResource(Resource resource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourceClassNames()}.
+    */
+   AccessControlFuture<List<String>> getResourceClassNames();
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcePermissionNames(String)}.
+    */
+   AccessControlFuture<List<String>> getResourcePermissionNames(String resourceClassName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getDomainCreatePermissions(Resource)}.
+    */
+   AccessControlFuture<Set<DomainCreatePermission>> getDomainCreatePermissions(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveDomainCreatePermissions(Resource)}.
+    */
+   AccessControlFuture<Set<DomainCreatePermission>> getEffectiveDomainCreatePermissions(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getDomainPermissions(Resource, String)}.
+    */
+   AccessControlFuture<Set<DomainPermission>> getDomainPermissions(Resource accessorResource,
+                                                                   String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getDomainPermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Set<DomainPermission>>> getDomainPermissionsMap(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveDomainPermissions(Resource, String)}.
+    */
+   AccessControlFuture<Set<DomainPermission>> getEffectiveDomainPermissions(Resource accessorResource,
+                                                                            String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveDomainPermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Set<DomainPermission>>> getEffectiveDomainPermissionsMap(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourceCreatePermissions(Resource, String, String)}.
+    */
+   AccessControlFuture<Set<ResourceCreatePermission>> getResourceCreatePermissions(Resource accessorResource,
+                                                                                   String resourceClassName,
+                                                                                   String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveResourceCreatePermissions(Resource, String, String)}.
+    */
+   AccessControlFuture<Set<ResourceCreatePermission>> getEffectiveResourceCreatePermissions(Resource accessorResource,
+                                                                                            String resourceClassName,
+                                                                                            String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourceCreatePermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Map<String, Set<ResourceCreatePermission>>>> getResourceCreatePermissionsMap(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveResourceCreatePermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Map<String, Set<ResourceCreatePermission>>>> getEffectiveResourceCreatePermissionsMap(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getResourcePermissions(Resource, Resource)}.
+    */
+   AccessControlFuture<Set<ResourcePermission>> getResourcePermissions(Resource accessorResource,
+                                                                       Resource accessedResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveResourcePermissions(Resource, Resource)}.
+    */
+   AccessControlFuture<Set<ResourcePermission>> getEffectiveResourcePermissions(Resource accessorResource,
+                                                                                Resource accessedResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getGlobalResourcePermissions(Resource, String, String)}.
+    */
+   AccessControlFuture<Set<ResourcePermission>> getGlobalResourcePermissions(Resource accessorResource,
+                                                                             String resourceClassName,
+                                                                             String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveGlobalResourcePermissions(Resource, String, String)}.
+    */
+   AccessControlFuture<Set<ResourcePermission>> getEffectiveGlobalResourcePermissions(Resource accessorResource,
+                                                                                      String resourceClassName,
+                                                                                      String domainName);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getGlobalResourcePermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Map<String, Set<ResourcePermission>>>> getGlobalResourcePermissionsMap(Resource accessorResource);
+
+   /**
+    * Asynchronously performs {@link AccessControlContext#getEffectiveGlobalResourcePermissionsMap(Resource)}.
+    */
+   AccessControlFuture<Map<String, Map<String, Set<ResourcePermission>>>> getEffectiveGlobalResourcePermissionsMap(Resource accessorResource);
+}
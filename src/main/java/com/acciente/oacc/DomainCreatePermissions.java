@@ -29,9 +29,13 @@ public class DomainCreatePermissions {
    private static final SysPermission SYSPERMISSION_CREATE = new SysPermission(-300, "*CREATE");
    public static final  String        CREATE               = SYSPERMISSION_CREATE.getPermissionName();
 
-   private static final Map<String, SysPermission> sysPermissionsByName;
-   private static final Map<Long, String>          sysPermissionNamesById;
-   private static final List<String>               sysPermissionNames;
+   private static final Map<String, SysPermission>                        sysPermissionsByName;
+   private static final Map<Long, String>                                 sysPermissionNamesById;
+   private static final List<String>                                      sysPermissionNames;
+   private static final Map<String, DomainCreatePermissionImpl>           instancesByName;
+   private static final Map<String, DomainCreatePermissionImpl>           instancesWithGrantOptionByName;
+   private static final Map<DomainPermission, DomainCreatePermissionImpl> instancesByPostCreatePermission;
+   private static final Map<DomainPermission, DomainCreatePermissionImpl> instancesWithGrantOptionByPostCreatePermission;
    static {
       sysPermissionsByName = new HashMap<>();
       sysPermissionsByName.put(CREATE, SYSPERMISSION_CREATE);
@@ -42,6 +46,29 @@ public class DomainCreatePermissions {
       }
 
       sysPermissionNames = Collections.unmodifiableList(new ArrayList<>(sysPermissionNamesById.values()));
+
+      // there are only a few system and domain permissions, so every possible instance is created (and shared) up front
+      instancesByName = new HashMap<>(sysPermissionsByName.size());
+      instancesWithGrantOptionByName = new HashMap<>(sysPermissionsByName.size());
+      for (String sysPermissionName : sysPermissionsByName.keySet()) {
+         instancesByName.put(sysPermissionName, new DomainCreatePermissionImpl(sysPermissionName, false));
+         instancesWithGrantOptionByName.put(sysPermissionName, new DomainCreatePermissionImpl(sysPermissionName, true));
+      }
+
+      final List<String> domainSysPermissionNames = DomainPermissions.getSysPermissionNames();
+      instancesByPostCreatePermission = new HashMap<>(domainSysPermissionNames.size() * 2);
+      instancesWithGrantOptionByPostCreatePermission = new HashMap<>(domainSysPermissionNames.size() * 2);
+      for (String domainSysPermissionName : domainSysPermissionNames) {
+         for (DomainPermission postCreateDomainPermission
+               : new DomainPermission[]{DomainPermissions.getInstance(domainSysPermissionName),
+                                        DomainPermissions.getInstanceWithGrantOption(domainSysPermissionName)}) {
+            instancesByPostCreatePermission.put(postCreateDomainPermission,
+                                                new DomainCreatePermissionImpl(postCreateDomainPermission, false));
+            instancesWithGrantOptionByPostCreatePermission.put(postCreateDomainPermission,
+                                                               new DomainCreatePermissionImpl(postCreateDomainPermission,
+                                                                                              true));
+         }
+      }
    }
 
    public static List<String> getSysPermissionNames() {
@@ -59,7 +86,7 @@ public class DomainCreatePermissions {
    }
 
    public static DomainCreatePermission getInstanceWithGrantOption(String sysPermissionName) {
-      return new DomainCreatePermissionImpl(sysPermissionName, true);
+      return getInternedInstance(sysPermissionName, true);
    }
 
    /**
@@ -67,19 +94,19 @@ public class DomainCreatePermissions {
     */
    @Deprecated
    public static DomainCreatePermission getInstance(String sysPermissionName, boolean withGrant) {
-      return new DomainCreatePermissionImpl(sysPermissionName, withGrant);
+      return getInternedInstance(sysPermissionName, withGrant);
    }
 
    public static DomainCreatePermission getInstance(String sysPermissionName) {
-      return new DomainCreatePermissionImpl(sysPermissionName, false);
+      return getInternedInstance(sysPermissionName, false);
    }
 
    public static DomainCreatePermission getInstance(DomainPermission postCreateDomainPermission) {
-      return new DomainCreatePermissionImpl(postCreateDomainPermission, false);
+      return getInternedInstance(postCreateDomainPermission, false);
    }
 
    public static DomainCreatePermission getInstanceWithGrantOption(DomainPermission postCreateDomainPermission) {
-      return new DomainCreatePermissionImpl(postCreateDomainPermission, true);
+      return getInternedInstance(postCreateDomainPermission, true);
    }
 
    /**
@@ -87,7 +114,7 @@ public class DomainCreatePermissions {
     */
    @Deprecated
    public static DomainCreatePermission getInstance(DomainPermission domainPostCreatePermission, boolean withGrant) {
-      return new DomainCreatePermissionImpl(domainPostCreatePermission, withGrant);
+      return getInternedInstance(domainPostCreatePermission, withGrant);
    }
 
    public static DomainCreatePermission getInstance(DomainCreatePermission domainCreatePermission) {
@@ -123,6 +150,31 @@ public class DomainCreatePermissions {
       return verifiedPermission;
    }
 
+   private static DomainCreatePermission getInternedInstance(String sysPermissionName, boolean withGrantOption) {
+      final Map<String, DomainCreatePermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByName : instancesByName;
+      final DomainCreatePermissionImpl domainCreatePermission = instances.get(sysPermissionName);
+
+      if (domainCreatePermission != null) {
+         return domainCreatePermission;
+      }
+
+      // the name is not canonical (or not valid), so let the constructor validate and trim it
+      return instances.get(new DomainCreatePermissionImpl(sysPermissionName, withGrantOption).sysPermissionName);
+   }
+
+   private static DomainCreatePermission getInternedInstance(DomainPermission postCreateDomainPermission,
+                                                             boolean withGrantOption) {
+      // only a post-create permission obtained from DomainPermissions is known to be valid and shared itself
+      if (DomainPermissions.isInternedInstance(postCreateDomainPermission)) {
+         return (withGrantOption
+                 ? instancesWithGrantOptionByPostCreatePermission
+                 : instancesByPostCreatePermission).get(postCreateDomainPermission);
+      }
+
+      return new DomainCreatePermissionImpl(postCreateDomainPermission, withGrantOption);
+   }
+
    private static class DomainCreatePermissionImpl implements DomainCreatePermission, Serializable{
       // permission data
       private final long             systemPermissionId;
@@ -130,6 +182,9 @@ public class DomainCreatePermissions {
       private final DomainPermission postCreateDomainPermission;
       private final boolean          withGrantOption;
 
+      // instances are shared and immutable, so the hash code is computed once
+      private final transient int hashCode;
+
       private DomainCreatePermissionImpl(String sysPermissionName,
                                          boolean withGrantOption) {
          SysPermission sysPermission = getSysPermission(sysPermissionName);
@@ -138,6 +193,7 @@ public class DomainCreatePermissions {
          this.sysPermissionName = sysPermission.getPermissionName();
          this.postCreateDomainPermission = null;
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       private DomainCreatePermissionImpl(DomainPermission postCreateDomainPermission,
@@ -146,6 +202,7 @@ public class DomainCreatePermissions {
          this.sysPermissionName = null;
          this.postCreateDomainPermission = postCreateDomainPermission;
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       @Override
@@ -228,6 +285,9 @@ public class DomainCreatePermissions {
 
          DomainCreatePermissionImpl otherDomainCreatePermission = (DomainCreatePermissionImpl) other;
 
+         if (hashCode != otherDomainCreatePermission.hashCode) {
+            return false;
+         }
          if (systemPermissionId != otherDomainCreatePermission.systemPermissionId) {
             return false;
          }
@@ -286,6 +346,10 @@ public class DomainCreatePermissions {
 
       @Override
       public int hashCode() {
+         return hashCode;
+      }
+
+      private int computeHashCode() {
          int result = (int) (systemPermissionId ^ (systemPermissionId >>> 32));
          result = 31 * result + (sysPermissionName != null ? sysPermissionName.hashCode() : 0);
          result = 31 * result + (postCreateDomainPermission != null ? postCreateDomainPermission.hashCode() : 0);
@@ -293,6 +357,13 @@ public class DomainCreatePermissions {
          return result;
       }
 
+      // a deserialized permission is replaced by the shared instance, which also restores the transient hash code
+      private Object readResolve() {
+         return isSystemPermission()
+                ? getInternedInstance(sysPermissionName, withGrantOption)
+                : getInternedInstance(postCreateDomainPermission, withGrantOption);
+      }
+
       @Override
       public String toString() {
          if (postCreateDomainPermission == null) {
@@ -33,9 +33,11 @@ public class DomainPermissions {
    private static final SysPermission SYSPERMISSION_DELETE              = new SysPermission(-303, "*DELETE");
    public static final  String        DELETE                            = SYSPERMISSION_DELETE.getPermissionName();
 
-   private static final Map<String, SysPermission> sysPermissionsByName;
-   private static final Map<Long, String>          sysPermissionNamesById;
-   private static final List<String>               sysPermissionNames;
+   private static final Map<String, SysPermission>        sysPermissionsByName;
+   private static final Map<Long, String>                 sysPermissionNamesById;
+   private static final List<String>                      sysPermissionNames;
+   private static final Map<String, DomainPermissionImpl> instancesByName;
+   private static final Map<String, DomainPermissionImpl> instancesWithGrantOptionByName;
    static {
       sysPermissionsByName = new HashMap<>();
       sysPermissionsByName.put(SUPER_USER, SYSPERMISSION_SUPER_USER);
@@ -48,6 +50,14 @@ public class DomainPermissions {
       }
 
       sysPermissionNames = Collections.unmodifiableList(new ArrayList<>(sysPermissionNamesById.values()));
+
+      // domain permissions are all system permissions, so every possible instance is created (and shared) up front
+      instancesByName = new HashMap<>(sysPermissionsByName.size());
+      instancesWithGrantOptionByName = new HashMap<>(sysPermissionsByName.size());
+      for (String sysPermissionName : sysPermissionsByName.keySet()) {
+         instancesByName.put(sysPermissionName, new DomainPermissionImpl(sysPermissionName, false));
+         instancesWithGrantOptionByName.put(sysPermissionName, new DomainPermissionImpl(sysPermissionName, true));
+      }
    }
 
    public static List<String> getSysPermissionNames() {
@@ -65,11 +75,11 @@ public class DomainPermissions {
    }
 
    public static DomainPermission getInstance(String sysPermissionName) {
-      return new DomainPermissionImpl(sysPermissionName, false);
+      return getInternedInstance(sysPermissionName, false);
    }
 
    public static DomainPermission getInstanceWithGrantOption(String sysPermissionName) {
-      return new DomainPermissionImpl(sysPermissionName, true);
+      return getInternedInstance(sysPermissionName, true);
    }
 
    /**
@@ -77,7 +87,7 @@ public class DomainPermissions {
     */
    @Deprecated
    public static DomainPermission getInstance(String sysPermissionName, boolean withGrant) {
-      return new DomainPermissionImpl(sysPermissionName, withGrant);
+      return getInternedInstance(sysPermissionName, withGrant);
    }
 
    public static DomainPermission getInstance(DomainPermission domainPermission) {
@@ -102,18 +112,43 @@ public class DomainPermissions {
       return verifiedPermission;
    }
 
+   /**
+    * Returns true if the specified domain permission is one of the shared instances returned by the
+    * {@code getInstance} methods of this class
+    */
+   static boolean isInternedInstance(DomainPermission domainPermission) {
+      return domainPermission instanceof DomainPermissionImpl;
+   }
+
+   private static DomainPermission getInternedInstance(String sysPermissionName, boolean withGrantOption) {
+      final Map<String, DomainPermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByName : instancesByName;
+      final DomainPermissionImpl domainPermission = instances.get(sysPermissionName);
+
+      if (domainPermission != null) {
+         return domainPermission;
+      }
+
+      // the name is not canonical (or not valid), so let the constructor validate and trim it
+      return instances.get(new DomainPermissionImpl(sysPermissionName, withGrantOption).getPermissionName());
+   }
+
    private static class DomainPermissionImpl implements DomainPermission, Serializable {
       // permission data
       private final long    systemPermissionId;
       private final String  permissionName;
       private final boolean withGrantOption;
 
+      // instances are shared and immutable, so the hash code is computed once
+      private final transient int hashCode;
+
       private DomainPermissionImpl(String sysPermissionName, boolean withGrantOption) {
          SysPermission sysPermission = getSysPermission(sysPermissionName);
 
          this.systemPermissionId = sysPermission.getSystemPermissionId();
          this.permissionName = sysPermission.getPermissionName();
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       @Override
@@ -172,6 +207,9 @@ public class DomainPermissions {
 
          DomainPermissionImpl otherDomainPermission = (DomainPermissionImpl) other;
 
+         if (hashCode != otherDomainPermission.hashCode) {
+            return false;
+         }
          if (withGrantOption != otherDomainPermission.withGrantOption) {
             return false;
          }
@@ -208,11 +246,20 @@ public class DomainPermissions {
 
       @Override
       public int hashCode() {
+         return hashCode;
+      }
+
+      private int computeHashCode() {
          int result = permissionName.hashCode();
          result = 31 * result + (withGrantOption ? 1 : 0);
          return result;
       }
 
+      // a deserialized permission is replaced by the shared instance, which also restores the transient hash code
+      private Object readResolve() {
+         return getInternedInstance(permissionName, withGrantOption);
+      }
+
       @Override
       public String toString() {
          if (isSystemPermission()) {
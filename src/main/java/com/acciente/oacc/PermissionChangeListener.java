@@ -0,0 +1,132 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import java.util.Set;
+
+/**
+ * Receives notifications about changes to resources and to their direct permissions.
+ * <p/>
+ * An application can register an implementation of this interface for a store with the access control context
+ * factory, to be told about the changes made in that store by the access control contexts of this JVM, and
+ * maintain data derived from the permissions, for example the access control fields of a search index,
+ * without having to poll the access control context.
+ * <p/>
+ * Notifications are delivered asynchronously, on a single dispatcher thread per store, in the order in which the
+ * changes were made. A notification is issued after the corresponding change was written, but an
+ * access control context does not control transactions, so a change written with a connection whose
+ * transaction is later rolled back is still reported. The dispatcher buffers a bounded number of pending
+ * notifications and never blocks the operation that made the change; notifications that do not fit
+ * the buffer are discarded and reported through {@link #changesDiscarded(int)}.
+ * <p/>
+ * The added permissions include permissions whose granting rights changed, in their new form. Permissions
+ * that were not directly held, or were already held with the same granting rights, are not reported.
+ */
+public interface PermissionChangeListener {
+   /**
+    * Called after a resource was created.
+    *
+    * @param resource          the new resource
+    * @param resourceClassName the resource class of the new resource
+    * @param domainName        the domain of the new resource
+    */
+   void resourceCreated(Resource resource, String resourceClassName, String domainName);
+
+   /**
+    * Called after a resource, along with all permissions it held or that were held on it, was deleted.
+    *
+    * @param resource the deleted resource
+    */
+   void resourceDeleted(Resource resource);
+
+   /**
+    * Called after the direct resource permissions of an accessor on an accessed resource changed.
+    *
+    * @param accessorResource   the resource whose permissions changed
+    * @param accessedResource   the resource on which the permissions changed
+    * @param addedPermissions   the permissions that were added
+    * @param removedPermissions the permissions that were removed
+    */
+   void resourcePermissionsChanged(Resource accessorResource,
+                                   Resource accessedResource,
+                                   Set<ResourcePermission> addedPermissions,
+                                   Set<ResourcePermission> removedPermissions);
+
+   /**
+    * Called after the direct global resource permissions of an accessor changed.
+    *
+    * @param accessorResource   the resource whose permissions changed
+    * @param resourceClassName  the resource class to which the permissions apply
+    * @param domainName         the domain to which the permissions apply
+    * @param addedPermissions   the permissions that were added
+    * @param removedPermissions the permissions that were removed
+    */
+   void globalResourcePermissionsChanged(Resource accessorResource,
+                                         String resourceClassName,
+                                         String domainName,
+                                         Set<ResourcePermission> addedPermissions,
+                                         Set<ResourcePermission> removedPermissions);
+
+   /**
+    * Called after the direct resource create permissions of an accessor changed.
+    *
+    * @param accessorResource   the resource whose permissions changed
+    * @param resourceClassName  the resource class to which the permissions apply
+    * @param domainName         the domain to which the permissions apply
+    * @param addedPermissions   the permissions that were added
+    * @param removedPermissions the permissions that were removed
+    */
+   void resourceCreatePermissionsChanged(Resource accessorResource,
+                                         String resourceClassName,
+                                         String domainName,
+                                         Set<ResourceCreatePermission> addedPermissions,
+                                         Set<ResourceCreatePermission> removedPermissions);
+
+   /**
+    * Called after the direct domain permissions of an accessor changed.
+    *
+    * @param accessorResource   the resource whose permissions changed
+    * @param domainName         the domain to which the permissions apply
+    * @param addedPermissions   the permissions that were added
+    * @param removedPermissions the permissions that were removed
+    */
+   void domainPermissionsChanged(Resource accessorResource,
+                                 String domainName,
+                                 Set<DomainPermission> addedPermissions,
+                                 Set<DomainPermission> removedPermissions);
+
+   /**
+    * Called after the direct domain create permissions of an accessor changed.
+    *
+    * @param accessorResource   the resource whose permissions changed
+    * @param addedPermissions   the permissions that were added
+    * @param removedPermissions the permissions that were removed
+    */
+   void domainCreatePermissionsChanged(Resource accessorResource,
+                                       Set<DomainCreatePermission> addedPermissions,
+                                       Set<DomainCreatePermission> removedPermissions);
+
+   /**
+    * Called when notifications were discarded because more changes were made than the dispatcher could buffer.
+    * <p/>
+    * A listener that maintains derived data should rebuild it when this method is called.
+    *
+    * @param discardedChangeCount the number of notifications that were discarded
+    */
+   void changesDiscarded(int discardedChangeCount);
+}
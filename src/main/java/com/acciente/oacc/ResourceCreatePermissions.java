@@ -23,15 +23,25 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ResourceCreatePermissions {
    // constants for the important system permissions with pre-defined semantics
    private static final SysPermission SYSPERMISSION_CREATE = new SysPermission(-100, "*CREATE");
    public static final  String        CREATE               = SYSPERMISSION_CREATE.getPermissionName();
 
-   private static final Map<String, SysPermission> sysPermissionsByName;
-   private static final Map<Long, String>          sysPermissionNamesById;
-   private static final List<String>               sysPermissionNames;
+   private static final Map<String, SysPermission>                sysPermissionsByName;
+   private static final Map<Long, String>                         sysPermissionNamesById;
+   private static final List<String>                              sysPermissionNames;
+   private static final Map<String, ResourceCreatePermissionImpl> instancesByName;
+   private static final Map<String, ResourceCreatePermissionImpl> instancesWithGrantOptionByName;
+
+   // the shared post-create instances, by post-create permission; resource permissions are only known as they are used
+   private static final ConcurrentMap<ResourcePermission, ResourceCreatePermissionImpl> instancesByPostCreatePermission
+         = new ConcurrentHashMap<>();
+   private static final ConcurrentMap<ResourcePermission, ResourceCreatePermissionImpl> instancesWithGrantOptionByPostCreatePermission
+         = new ConcurrentHashMap<>();
    static {
       sysPermissionsByName = new HashMap<>();
       sysPermissionsByName.put(CREATE, SYSPERMISSION_CREATE);
@@ -42,6 +52,13 @@ public class ResourceCreatePermissions {
       }
 
       sysPermissionNames = Collections.unmodifiableList(new ArrayList<>(sysPermissionNamesById.values()));
+
+      instancesByName = new HashMap<>(sysPermissionsByName.size());
+      instancesWithGrantOptionByName = new HashMap<>(sysPermissionsByName.size());
+      for (String sysPermissionName : sysPermissionsByName.keySet()) {
+         instancesByName.put(sysPermissionName, new ResourceCreatePermissionImpl(sysPermissionName, false));
+         instancesWithGrantOptionByName.put(sysPermissionName, new ResourceCreatePermissionImpl(sysPermissionName, true));
+      }
    }
 
    public static List<String> getSysPermissionNames() {
@@ -66,7 +83,7 @@ public class ResourceCreatePermissions {
     * @return a resource create permission
     */
    public static ResourceCreatePermission getInstanceWithGrantOption(String sysPermissionName) {
-      return new ResourceCreatePermissionImpl(sysPermissionName, true);
+      return getInternedInstance(sysPermissionName, true);
    }
 
    /**
@@ -79,7 +96,7 @@ public class ResourceCreatePermissions {
     */
    @Deprecated
    public static ResourceCreatePermission getInstance(String sysPermissionName, boolean withGrant) {
-      return new ResourceCreatePermissionImpl(sysPermissionName, withGrant);
+      return getInternedInstance(sysPermissionName, withGrant);
    }
 
 
@@ -91,15 +108,15 @@ public class ResourceCreatePermissions {
     * @return a resource create permission
     */
    public static ResourceCreatePermission getInstance(String sysPermissionName) {
-      return new ResourceCreatePermissionImpl(sysPermissionName, false);
+      return getInternedInstance(sysPermissionName, false);
    }
 
    public static ResourceCreatePermission getInstance(ResourcePermission postCreateResourcePermission) {
-      return new ResourceCreatePermissionImpl(postCreateResourcePermission, false);
+      return getInternedInstance(postCreateResourcePermission, false);
    }
 
    public static ResourceCreatePermission getInstanceWithGrantOption(ResourcePermission postCreateResourcePermission) {
-      return new ResourceCreatePermissionImpl(postCreateResourcePermission, true);
+      return getInternedInstance(postCreateResourcePermission, true);
    }
 
    /**
@@ -109,7 +126,7 @@ public class ResourceCreatePermissions {
    @Deprecated
    public static ResourceCreatePermission getInstance(ResourcePermission postCreateResourcePermission,
                                                       boolean withGrant) {
-      return new ResourceCreatePermissionImpl(postCreateResourcePermission, withGrant);
+      return getInternedInstance(postCreateResourcePermission, withGrant);
    }
 
    public static ResourceCreatePermission getInstance(ResourceCreatePermission resourceCreatePermission) {
@@ -147,6 +164,43 @@ public class ResourceCreatePermissions {
       return verifiedPermission;
    }
 
+   private static ResourceCreatePermission getInternedInstance(String sysPermissionName, boolean withGrantOption) {
+      final Map<String, ResourceCreatePermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByName : instancesByName;
+      final ResourceCreatePermissionImpl resourceCreatePermission = instances.get(sysPermissionName);
+
+      if (resourceCreatePermission != null) {
+         return resourceCreatePermission;
+      }
+
+      // the name is not canonical (or not valid), so let the constructor validate and trim it
+      return instances.get(new ResourceCreatePermissionImpl(sysPermissionName, withGrantOption).sysPermissionName);
+   }
+
+   private static ResourceCreatePermission getInternedInstance(ResourcePermission postCreateResourcePermission,
+                                                               boolean withGrantOption) {
+      // only a post-create permission that is itself shared, i.e. one read back from a store, is known to be valid
+      // and to be bounded in number
+      if (!ResourcePermissions.isInternedInstance(postCreateResourcePermission)) {
+         return new ResourceCreatePermissionImpl(postCreateResourcePermission, withGrantOption);
+      }
+
+      final ConcurrentMap<ResourcePermission, ResourceCreatePermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByPostCreatePermission : instancesByPostCreatePermission;
+      final ResourceCreatePermissionImpl resourceCreatePermission = instances.get(postCreateResourcePermission);
+
+      if (resourceCreatePermission != null) {
+         return resourceCreatePermission;
+      }
+
+      final ResourceCreatePermissionImpl newResourceCreatePermission
+            = new ResourceCreatePermissionImpl(postCreateResourcePermission, withGrantOption);
+      final ResourceCreatePermissionImpl existingResourceCreatePermission
+            = instances.putIfAbsent(postCreateResourcePermission, newResourceCreatePermission);
+
+      return existingResourceCreatePermission != null ? existingResourceCreatePermission : newResourceCreatePermission;
+   }
+
    private static class ResourceCreatePermissionImpl implements ResourceCreatePermission, Serializable {
       // permission data
       private final long               systemPermissionId;
@@ -154,6 +208,9 @@ public class ResourceCreatePermissions {
       private final ResourcePermission postCreateResourcePermission;
       private final boolean            withGrantOption;
 
+      // instances are shared and immutable, so the hash code is computed once
+      private final transient int hashCode;
+
       private ResourceCreatePermissionImpl(String sysPermissionName,
                                            boolean withGrantOption) {
          SysPermission sysPermission = getSysPermission(sysPermissionName);
@@ -162,6 +219,7 @@ public class ResourceCreatePermissions {
          this.sysPermissionName = sysPermission.getPermissionName();
          this.postCreateResourcePermission = null;
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       private ResourceCreatePermissionImpl(ResourcePermission postCreateResourcePermission,
@@ -170,6 +228,7 @@ public class ResourceCreatePermissions {
          this.sysPermissionName = null;
          this.postCreateResourcePermission = postCreateResourcePermission;
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       @Override
@@ -251,6 +310,9 @@ public class ResourceCreatePermissions {
 
          ResourceCreatePermissionImpl otherResourceCreatePermission = (ResourceCreatePermissionImpl) other;
 
+         if (hashCode != otherResourceCreatePermission.hashCode) {
+            return false;
+         }
          if (systemPermissionId != otherResourceCreatePermission.systemPermissionId) {
             return false;
          }
@@ -307,6 +369,10 @@ public class ResourceCreatePermissions {
 
       @Override
       public int hashCode() {
+         return hashCode;
+      }
+
+      private int computeHashCode() {
          int result = (int) (systemPermissionId ^ (systemPermissionId >>> 32));
          result = 31 * result + (sysPermissionName != null ? sysPermissionName.hashCode() : 0);
          result = 31 * result + (postCreateResourcePermission != null ? postCreateResourcePermission.hashCode() : 0);
@@ -314,6 +380,13 @@ public class ResourceCreatePermissions {
          return result;
       }
 
+      // a deserialized permission is replaced by the shared instance, which also restores the transient hash code
+      private Object readResolve() {
+         return isSystemPermission()
+                ? getInternedInstance(sysPermissionName, withGrantOption)
+                : getInternedInstance(postCreateResourcePermission, withGrantOption);
+      }
+
       @Override
       public String toString() {
          if (postCreateResourcePermission == null) {
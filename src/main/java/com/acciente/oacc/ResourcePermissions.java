@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ResourcePermissions {
    // constants for the important system permissions with pre-defined semantics
@@ -40,6 +42,13 @@ public class ResourcePermissions {
    private static final Map<String, SysPermission> sysPermissionsByName;
    private static final Map<Long, String>          sysPermissionNamesById;
    private static final List<String>               sysPermissionNames;
+
+   // the shared instances, by permission name; besides the system permissions, these only ever hold the permissions
+   // read back from a store, whose names are bounded by the permissions defined for its resource classes
+   private static final ConcurrentMap<String, ResourcePermissionImpl> instancesByName
+         = new ConcurrentHashMap<>();
+   private static final ConcurrentMap<String, ResourcePermissionImpl> instancesWithGrantOptionByName
+         = new ConcurrentHashMap<>();
    static {
       sysPermissionsByName = new HashMap<>();
       sysPermissionsByName.put(INHERIT, SYSPERMISSION_INHERIT);
@@ -54,6 +63,11 @@ public class ResourcePermissions {
       }
 
       sysPermissionNames = Collections.unmodifiableList(new ArrayList<>(sysPermissionNamesById.values()));
+
+      for (String sysPermissionName : sysPermissionNames) {
+         instancesByName.put(sysPermissionName, new ResourcePermissionImpl(sysPermissionName, false));
+         instancesWithGrantOptionByName.put(sysPermissionName, new ResourcePermissionImpl(sysPermissionName, true));
+      }
    }
 
    public static List<String> getSysPermissionNames() {
@@ -71,11 +85,11 @@ public class ResourcePermissions {
    }
 
    public static ResourcePermission getInstance(String permissionName) {
-      return new ResourcePermissionImpl(permissionName, false);
+      return getSharedOrNewInstance(permissionName, false);
    }
 
    public static ResourcePermission getInstanceWithGrantOption(String permissionName) {
-      return new ResourcePermissionImpl(permissionName, true);
+      return getSharedOrNewInstance(permissionName, true);
    }
 
    /**
@@ -83,7 +97,7 @@ public class ResourcePermissions {
     */
    @Deprecated
    public static ResourcePermission getInstance(String permissionName, boolean withGrant) {
-      return new ResourcePermissionImpl(permissionName, withGrant);
+      return getSharedOrNewInstance(permissionName, withGrant);
    }
 
    public static ResourcePermission getInstance(ResourcePermission resourcePermission) {
@@ -109,12 +123,80 @@ public class ResourcePermissions {
       return verifiedPermission;
    }
 
+   /**
+    * Returns the shared instance of the specified permission, and makes it the shared instance if there is none yet.
+    * <p/>
+    * This method is meant for the permission names read back from a store, and is what keeps the permissions
+    * of query results from being allocated row by row. Shared instances are kept for the lifetime of the JVM,
+    * so permission names supplied by callers should be passed to {@link #getInstance(String)} instead.
+    *
+    * @param permissionName  the name of a permission defined in a store
+    * @param withGrantOption true if the permission is held with the grant option
+    * @return the shared resource permission
+    */
+   public static ResourcePermission getInternedInstance(String permissionName, boolean withGrantOption) {
+      final ConcurrentMap<String, ResourcePermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByName : instancesByName;
+
+      if (permissionName != null) {
+         final ResourcePermissionImpl resourcePermission = instances.get(permissionName);
+
+         if (resourcePermission != null) {
+            return resourcePermission;
+         }
+      }
+
+      // the constructor validates and trims the name, and the instance is only shared under the resulting name
+      final ResourcePermissionImpl newResourcePermission = new ResourcePermissionImpl(permissionName, withGrantOption);
+      final ResourcePermissionImpl resourcePermission
+            = instances.putIfAbsent(newResourcePermission.permissionName, newResourcePermission);
+
+      return resourcePermission != null ? resourcePermission : newResourcePermission;
+   }
+
+   /**
+    * Returns true if the specified resource permission is one of the shared instances of this class
+    */
+   static boolean isInternedInstance(ResourcePermission resourcePermission) {
+      if (!(resourcePermission instanceof ResourcePermissionImpl)) {
+         return false;
+      }
+
+      final ConcurrentMap<String, ResourcePermissionImpl> instances
+            = resourcePermission.isWithGrantOption() ? instancesWithGrantOptionByName : instancesByName;
+
+      return instances.get(resourcePermission.getPermissionName()) == resourcePermission;
+   }
+
+   // returns the shared instance of the specified permission if there is one, without ever adding one, so
+   // that names supplied by callers cannot grow the shared instances
+   private static ResourcePermission getSharedOrNewInstance(String permissionName, boolean withGrantOption) {
+      final ConcurrentMap<String, ResourcePermissionImpl> instances
+            = withGrantOption ? instancesWithGrantOptionByName : instancesByName;
+
+      if (permissionName != null) {
+         final ResourcePermissionImpl resourcePermission = instances.get(permissionName);
+
+         if (resourcePermission != null) {
+            return resourcePermission;
+         }
+      }
+
+      final ResourcePermissionImpl newResourcePermission = new ResourcePermissionImpl(permissionName, withGrantOption);
+      final ResourcePermissionImpl resourcePermission = instances.get(newResourcePermission.permissionName);
+
+      return resourcePermission != null ? resourcePermission : newResourcePermission;
+   }
+
    private static class ResourcePermissionImpl implements ResourcePermission, Serializable {
       // permission data
       private final long    systemPermissionId;
       private final String  permissionName;
       private final boolean withGrantOption;
 
+      // instances are shared and immutable, so the hash code is computed once
+      private final transient int hashCode;
+
       private ResourcePermissionImpl(String permissionName,
                                      boolean withGrantOption) {
          assertPermissionNameSpecified(permissionName);
@@ -133,6 +215,7 @@ public class ResourcePermissions {
          }
 
          this.withGrantOption = withGrantOption;
+         this.hashCode = computeHashCode();
       }
 
       @Override
@@ -189,6 +272,9 @@ public class ResourcePermissions {
 
          ResourcePermissionImpl otherResourcePermission = (ResourcePermissionImpl) other;
 
+         if (hashCode != otherResourcePermission.hashCode) {
+            return false;
+         }
          if (!permissionName.equals(otherResourcePermission.permissionName)) {
             return false;
          }
@@ -225,11 +311,21 @@ public class ResourcePermissions {
 
       @Override
       public int hashCode() {
+         return hashCode;
+      }
+
+      private int computeHashCode() {
          int result = permissionName.hashCode();
          result = 31 * result + (withGrantOption ? 1 : 0);
          return result;
       }
 
+      // a deserialized permission is replaced by the shared instance, if there is one, or else by a new instance,
+      // either of which restores the transient hash code
+      private Object readResolve() {
+         return getSharedOrNewInstance(permissionName, withGrantOption);
+      }
+
       @Override
       public String toString() {
          return (isSystemPermission() ? "SYS:" + permissionName : permissionName)
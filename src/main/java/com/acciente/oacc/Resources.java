@@ -68,6 +68,12 @@ public class Resources {
 
          ResourceImpl otherResource = (ResourceImpl) other;
 
+         // a reference by external id only can't be compared by resource id
+         if (resourceId == null || otherResource.resourceId == null) {
+            return resourceId == otherResource.resourceId
+                  && externalId != null && externalId.equals(otherResource.externalId);
+         }
+
          if (!resourceId.equals(otherResource.resourceId)) {
             return false;
          }
@@ -77,7 +83,7 @@ public class Resources {
 
       @Override
       public int hashCode() {
-         return resourceId.hashCode();
+         return resourceId != null ? resourceId.hashCode() : externalId.hashCode();
       }
 
       @Override
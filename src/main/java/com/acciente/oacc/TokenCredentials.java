@@ -0,0 +1,53 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+/**
+ * This is a {@link Credentials} implementation that holds a session token previously issued by the
+ * built-in {@link AuthenticationProvider} after a successful password-based authentication.
+ * <p/>
+ * A token lets a later session authenticate as the same resource without repeating the (deliberately slow)
+ * password check. Tokens expire, and any outstanding tokens of a resource are rejected once its credentials
+ * are changed. Token authentication is off by default, and has to be enabled for a store with a secret key
+ * via the access control context factory.
+ */
+public abstract class TokenCredentials implements Credentials {
+   /**
+    * Returns the token contained in this credentials instance
+    *
+    * @return a session token as a string
+    */
+   public abstract String getToken();
+
+   public static TokenCredentials newInstance(String token) {
+      return new Impl(token);
+   }
+
+   private static class Impl extends TokenCredentials {
+      private final String token;
+
+      private Impl(String token) {
+         this.token = token;
+      }
+
+      @Override
+      public String getToken() {
+         return token;
+      }
+   }
+}
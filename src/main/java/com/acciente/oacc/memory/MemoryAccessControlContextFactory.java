@@ -0,0 +1,130 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AsyncAccessControlContext;
+import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.PermissionChangeListener;
+import com.acciente.oacc.TokenCredentials;
+import com.acciente.oacc.memory.internal.MemoryAccessControlContext;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class MemoryAccessControlContextFactory {
+   public static AccessControlContext getAccessControlContext(MemoryStore memoryStore) {
+      return MemoryAccessControlContext.getAccessControlContext(memoryStore.getTables());
+   }
+
+   public static AccessControlContext getAccessControlContext(MemoryStore memoryStore,
+                                                              AuthenticationProvider authenticationProvider) {
+      return MemoryAccessControlContext.getAccessControlContext(memoryStore.getTables(),
+                                                                authenticationProvider);
+   }
+
+   public static void addPermissionChangeListener(MemoryStore memoryStore,
+                                                  PermissionChangeListener permissionChangeListener) {
+      MemoryAccessControlContext.addPermissionChangeListener(memoryStore.getTables(), permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(MemoryStore memoryStore,
+                                                     PermissionChangeListener permissionChangeListener) {
+      MemoryAccessControlContext.removePermissionChangeListener(memoryStore.getTables(), permissionChangeListener);
+   }
+
+   public static void setSessionMemoMaxAge(MemoryStore memoryStore, long maxAge, TimeUnit timeUnit) {
+      MemoryAccessControlContext.setSessionMemoMaxAge(memoryStore.getTables(), maxAge, timeUnit);
+   }
+
+   public static void enableInheritedPermissionCache(MemoryStore memoryStore, int maxEntries) {
+      MemoryAccessControlContext.enableInheritedPermissionCache(memoryStore.getTables(), maxEntries);
+   }
+
+   public static void disableInheritedPermissionCache(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disableInheritedPermissionCache(memoryStore.getTables());
+   }
+
+   public static void enableGrantSummary(MemoryStore memoryStore) {
+      MemoryAccessControlContext.enableGrantSummary(memoryStore.getTables());
+   }
+
+   public static void disableGrantSummary(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disableGrantSummary(memoryStore.getTables());
+   }
+
+   public static long getDeduplicatedLoadCount(MemoryStore memoryStore) {
+      return MemoryAccessControlContext.getDeduplicatedLoadCount(memoryStore.getTables());
+   }
+
+   public static void enableCheckCoalescing(MemoryStore memoryStore, int maxBatchSize, long maxWait, TimeUnit timeUnit) {
+      MemoryAccessControlContext.enableCheckCoalescing(memoryStore.getTables(), maxBatchSize, maxWait, timeUnit);
+   }
+
+   public static void disableCheckCoalescing(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disableCheckCoalescing(memoryStore.getTables());
+   }
+
+   public static void enableTokenAuthentication(MemoryStore memoryStore,
+                                                byte[] secretKey,
+                                                long maxAge,
+                                                TimeUnit timeUnit) {
+      MemoryAccessControlContext.enableTokenAuthentication(memoryStore.getTables(), secretKey, maxAge, timeUnit);
+   }
+
+   public static void disableTokenAuthentication(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disableTokenAuthentication(memoryStore.getTables());
+   }
+
+   public static void enablePasswordHashingLimit(MemoryStore memoryStore,
+                                                 int maxConcurrentHashes,
+                                                 int maxQueuedHashes) {
+      MemoryAccessControlContext.enablePasswordHashingLimit(memoryStore.getTables(),
+                                                            maxConcurrentHashes,
+                                                            maxQueuedHashes);
+   }
+
+   public static void disablePasswordHashingLimit(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disablePasswordHashingLimit(memoryStore.getTables());
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(MemoryStore memoryStore, int iterations) {
+      MemoryAccessControlContext.enablePBKDF2PasswordEncryptor(memoryStore.getTables(), iterations);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(MemoryStore memoryStore) {
+      MemoryAccessControlContext.disablePBKDF2PasswordEncryptor(memoryStore.getTables());
+   }
+
+   public static TokenCredentials getTokenCredentials(AccessControlContext accessControlContext) {
+      return MemoryAccessControlContext.getTokenCredentials(accessControlContext);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext) {
+      return MemoryAccessControlContext.getAsyncAccessControlContext(accessControlContext);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext,
+                                                                        Executor executor) {
+      return MemoryAccessControlContext.getAsyncAccessControlContext(accessControlContext, executor);
+   }
+
+   public static void setAsyncConcurrencyLimit(MemoryStore memoryStore, int maxConcurrentOperations) {
+      MemoryAccessControlContext.setAsyncConcurrencyLimit(memoryStore.getTables(), maxConcurrentOperations);
+   }
+}
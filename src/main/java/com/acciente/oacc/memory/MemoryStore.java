@@ -0,0 +1,119 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory;
+
+import com.acciente.oacc.memory.internal.MemoryAccessControlContext;
+import com.acciente.oacc.memory.internal.MemoryTables;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Holds the domains, resources, resource classes, credentials and grants of an in-memory OACC system.
+ * <p/>
+ * All access control contexts obtained for the same store share its data. The store can optionally be
+ * written to, and restored from, a snapshot file.
+ */
+public final class MemoryStore {
+   private final MemoryTables tables;
+
+   private MemoryStore(MemoryTables tables) {
+      this.tables = tables;
+
+      // the change log of a store is kept in memory and bounded, so it is always written
+      MemoryAccessControlContext.enableChangeLog(tables);
+   }
+
+   /**
+    * Creates a new, empty store, which needs to be initialized before use
+    *
+    * @return a new, uninitialized store
+    * @see MemoryAccessControlSystemInitializer#initializeOACC(MemoryStore, char[])
+    */
+   public static MemoryStore newInstance() {
+      return new MemoryStore(new MemoryTables());
+   }
+
+   /**
+    * Restores a store from a snapshot file previously written by {@link #writeSnapshot(File)}
+    *
+    * @param snapshotFile the snapshot file
+    * @return the restored store
+    * @throws IOException if the snapshot file could not be read
+    */
+   public static MemoryStore readSnapshot(File snapshotFile) throws IOException {
+      try (ObjectInputStream objectInputStream
+                 = new ObjectInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+         return new MemoryStore((MemoryTables) objectInputStream.readObject());
+      }
+      catch (ClassNotFoundException | ClassCastException e) {
+         throw new IOException("Not a valid snapshot file: " + snapshotFile, e);
+      }
+   }
+
+   /**
+    * Writes a consistent snapshot of this store to the specified file.
+    * <p/>
+    * The snapshot is first written to a temporary file which then replaces the specified file,
+    * so that a previous snapshot remains intact if writing fails.
+    *
+    * @param snapshotFile the snapshot file
+    * @throws IOException if the snapshot file could not be written
+    */
+   public void writeSnapshot(File snapshotFile) throws IOException {
+      final File absoluteSnapshotFile = snapshotFile.getAbsoluteFile();
+      final File temporaryFile = File.createTempFile(absoluteSnapshotFile.getName(),
+                                                     ".tmp",
+                                                     absoluteSnapshotFile.getParentFile());
+      try {
+         try (ObjectOutputStream objectOutputStream
+                    = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            // all updates to the tables lock on the tables, which keeps them unchanged while they are written
+            synchronized (tables) {
+               objectOutputStream.writeObject(tables);
+            }
+         }
+         Files.move(temporaryFile.toPath(),
+                    absoluteSnapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally {
+         Files.deleteIfExists(temporaryFile.toPath());
+      }
+   }
+
+   /**
+    * Returns the tables backing this store.
+    * <p/>
+    * For use by OACC internals only, such as the snapshot store, which reads the tables in full.
+    *
+    * @return the tables backing this store
+    */
+   public MemoryTables getTables() {
+      return tables;
+   }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class DomainEntry implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   private final long      domainId;
+   private final String    domainName;
+   private final Long      parentDomainId;
+   private final Set<Long> childDomainIds;
+
+   DomainEntry(long domainId, String domainName, Long parentDomainId) {
+      this.domainId = domainId;
+      this.domainName = domainName;
+      this.parentDomainId = parentDomainId;
+      this.childDomainIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+   }
+
+   long getDomainId() {
+      return domainId;
+   }
+
+   String getDomainName() {
+      return domainName;
+   }
+
+   Long getParentDomainId() {
+      return parentDomainId;
+   }
+
+   Set<Long> getChildDomainIds() {
+      return childDomainIds;
+   }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import java.io.Serializable;
+
+// identifies a single granted permission within the grants of an accessor to an accessed resource or domain
+class GrantKey implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   private final long   resourceClassId;
+   private final String permissionName;
+
+   GrantKey(long resourceClassId, String permissionName) {
+      this.resourceClassId = resourceClassId;
+      this.permissionName = permissionName;
+   }
+
+   long getResourceClassId() {
+      return resourceClassId;
+   }
+
+   String getPermissionName() {
+      return permissionName;
+   }
+
+   @Override
+   public boolean equals(Object other) {
+      if (this == other) {
+         return true;
+      }
+      if (other == null || getClass() != other.getClass()) {
+         return false;
+      }
+
+      GrantKey otherGrantKey = (GrantKey) other;
+
+      return resourceClassId == otherGrantKey.resourceClassId && permissionName.equals(otherGrantKey.permissionName);
+   }
+
+   @Override
+   public int hashCode() {
+      return 31 * (int) (resourceClassId ^ (resourceClassId >>> 32)) + permissionName.hashCode();
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory counterpart of a single OAC_Grant_* table.
+ *
+ * Grants are held per accessor resource id and then per accessed resource or domain id, so that all lookups
+ * made while evaluating permissions are plain hash lookups on the numeric ids. Reads never lock, while all
+ * updates are serialized on the lock of the owning store.
+ */
+class GrantTable implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   private final Object lock;
+
+   // accessor resource id -> accessed resource (or domain) id -> granted permissions
+   private final Map<Long, Map<Long, Map<GrantKey, GrantEntry>>> grantsByAccessorId;
+   // accessed resource (or domain) id -> ids of the accessors holding grants on it
+   private final Map<Long, Set<Long>>                            accessorIdsByAccessedId;
+
+   GrantTable(Object lock) {
+      this.lock = lock;
+      this.grantsByAccessorId = new ConcurrentHashMap<>();
+      this.accessorIdsByAccessedId = new ConcurrentHashMap<>();
+   }
+
+   Map<Long, Map<GrantKey, GrantEntry>> getGrants(long accessorId) {
+      final Map<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId = grantsByAccessorId.get(accessorId);
+      if (grantsByAccessedId == null) {
+         return Collections.emptyMap();
+      }
+      return grantsByAccessedId;
+   }
+
+   Map<GrantKey, GrantEntry> getGrants(long accessorId, long accessedId) {
+      final Map<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId = grantsByAccessorId.get(accessorId);
+      if (grantsByAccessedId == null) {
+         return Collections.emptyMap();
+      }
+      final Map<GrantKey, GrantEntry> grants = grantsByAccessedId.get(accessedId);
+      if (grants == null) {
+         return Collections.emptyMap();
+      }
+      return grants;
+   }
+
+   GrantEntry getGrant(long accessorId, long accessedId, long resourceClassId, String permissionName) {
+      return getGrants(accessorId, accessedId).get(new GrantKey(resourceClassId, permissionName));
+   }
+
+   // returns the ids of all accessors holding grants in this table
+   Set<Long> getAccessorIds() {
+      return Collections.unmodifiableSet(grantsByAccessorId.keySet());
+   }
+
+   Set<Long> getAccessorIds(long accessedId) {
+      final Set<Long> accessorIds = accessorIdsByAccessedId.get(accessedId);
+      if (accessorIds == null) {
+         return Collections.emptySet();
+      }
+      return accessorIds;
+   }
+
+   // returns true if any accessor holds any grant on the specified resource class, which requires a full scan
+   boolean hasGrants(long resourceClassId) {
+      for (Map<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId : grantsByAccessorId.values()) {
+         for (Map<GrantKey, GrantEntry> grants : grantsByAccessedId.values()) {
+            for (GrantKey grantKey : grants.keySet()) {
+               if (grantKey.getResourceClassId() == resourceClassId) {
+                  return true;
+               }
+            }
+         }
+      }
+      return false;
+   }
+
+   void putGrant(long accessorId,
+                 long accessedId,
+                 long resourceClassId,
+                 String permissionName,
+                 GrantEntry grantEntry) {
+      synchronized (lock) {
+         Map<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId = grantsByAccessorId.get(accessorId);
+         if (grantsByAccessedId == null) {
+            grantsByAccessedId = new ConcurrentHashMap<>();
+            grantsByAccessorId.put(accessorId, grantsByAccessedId);
+         }
+
+         Map<GrantKey, GrantEntry> grants = grantsByAccessedId.get(accessedId);
+         if (grants == null) {
+            grants = new ConcurrentHashMap<>();
+            grantsByAccessedId.put(accessedId, grants);
+
+            Set<Long> accessorIds = accessorIdsByAccessedId.get(accessedId);
+            if (accessorIds == null) {
+               accessorIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+               accessorIdsByAccessedId.put(accessedId, accessorIds);
+            }
+            accessorIds.add(accessorId);
+         }
+
+         grants.put(new GrantKey(resourceClassId, permissionName), grantEntry);
+      }
+   }
+
+   boolean removeGrant(long accessorId, long accessedId, long resourceClassId, String permissionName) {
+      synchronized (lock) {
+         final Map<GrantKey, GrantEntry> grants = getGrants(accessorId, accessedId);
+         final boolean isRemoved = grants.remove(new GrantKey(resourceClassId, permissionName)) != null;
+         if (isRemoved && grants.isEmpty()) {
+            removeGrants(accessorId, accessedId);
+         }
+         return isRemoved;
+      }
+   }
+
+   void removeGrants(long accessorId, long accessedId, long resourceClassId) {
+      synchronized (lock) {
+         final Map<GrantKey, GrantEntry> grants = getGrants(accessorId, accessedId);
+         final Iterator<GrantKey> grantKeyIterator = grants.keySet().iterator();
+         while (grantKeyIterator.hasNext()) {
+            if (grantKeyIterator.next().getResourceClassId() == resourceClassId) {
+               grantKeyIterator.remove();
+            }
+         }
+         if (grants.isEmpty()) {
+            removeGrants(accessorId, accessedId);
+         }
+      }
+   }
+
+   void removeGrants(long accessorId, long accessedId) {
+      synchronized (lock) {
+         final Map<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId = grantsByAccessorId.get(accessorId);
+         if (grantsByAccessedId != null) {
+            grantsByAccessedId.remove(accessedId);
+            if (grantsByAccessedId.isEmpty()) {
+               grantsByAccessorId.remove(accessorId);
+            }
+         }
+
+         final Set<Long> accessorIds = accessorIdsByAccessedId.get(accessedId);
+         if (accessorIds != null) {
+            accessorIds.remove(accessorId);
+            if (accessorIds.isEmpty()) {
+               accessorIdsByAccessedId.remove(accessedId);
+            }
+         }
+      }
+   }
+
+   void removeGrantsByAccessor(long accessorId) {
+      synchronized (lock) {
+         for (Long accessedId : new ArrayList<>(getGrants(accessorId).keySet())) {
+            removeGrants(accessorId, accessedId);
+         }
+      }
+   }
+
+   void removeGrantsByAccessed(long accessedId) {
+      synchronized (lock) {
+         for (Long accessorId : new ArrayList<>(getAccessorIds(accessedId))) {
+            removeGrants(accessorId, accessedId);
+         }
+      }
+   }
+}
@@ -0,0 +1,1103 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AsyncAccessControlContext;
+import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.Credentials;
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.PermissionChangeListener;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceClassInfo;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.TokenCredentials;
+import com.acciente.oacc.sql.internal.SQLAccessControlContext;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An access control context that keeps all its data in memory.
+ * <p/>
+ * The authorization logic is shared with the SQL-backed context; only the persisters differ.
+ * Unlike the SQL-backed context, this context is not serializable, since its data does not
+ * outlive the process (see {@link com.acciente.oacc.memory.MemoryStore} for persisting a snapshot).
+ */
+public class MemoryAccessControlContext implements AccessControlContext {
+   private final AccessControlContext accessControlContext;
+
+   public static AccessControlContext getAccessControlContext(MemoryTables tables) {
+      return new MemoryAccessControlContext(tables, new MemoryPasswordAuthenticationProvider(tables));
+   }
+
+   public static AccessControlContext getAccessControlContext(MemoryTables tables,
+                                                              AuthenticationProvider authenticationProvider) {
+      return new MemoryAccessControlContext(tables, authenticationProvider);
+   }
+
+   public static void addPermissionChangeListener(MemoryTables tables,
+                                                  PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.addPermissionChangeListener(tables, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(MemoryTables tables,
+                                                     PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.removePermissionChangeListener(tables, permissionChangeListener);
+   }
+
+   public static void setSessionMemoMaxAge(MemoryTables tables, long maxAge, TimeUnit timeUnit) {
+      SQLAccessControlContext.setSessionMemoMaxAge(tables, maxAge, timeUnit);
+   }
+
+   public static void enableInheritedPermissionCache(MemoryTables tables, int maxEntries) {
+      SQLAccessControlContext.enableInheritedPermissionCache(tables, maxEntries, 0, TimeUnit.NANOSECONDS);
+   }
+
+   public static void disableInheritedPermissionCache(MemoryTables tables) {
+      SQLAccessControlContext.disableInheritedPermissionCache(tables);
+   }
+
+   public static void enableGrantSummary(MemoryTables tables) {
+      SQLAccessControlContext.enableGrantSummary(tables, 0, TimeUnit.NANOSECONDS);
+   }
+
+   public static void disableGrantSummary(MemoryTables tables) {
+      SQLAccessControlContext.disableGrantSummary(tables);
+   }
+
+   public static long getDeduplicatedLoadCount(MemoryTables tables) {
+      return SQLAccessControlContext.getDeduplicatedLoadCount(tables);
+   }
+
+   public static void enableCheckCoalescing(MemoryTables tables, int maxBatchSize, long maxWait, TimeUnit timeUnit) {
+      SQLAccessControlContext.enableCheckCoalescing(tables, maxBatchSize, maxWait, timeUnit);
+   }
+
+   public static void disableCheckCoalescing(MemoryTables tables) {
+      SQLAccessControlContext.disableCheckCoalescing(tables);
+   }
+
+   public static void enableTokenAuthentication(MemoryTables tables, byte[] secretKey, long maxAge, TimeUnit timeUnit) {
+      SQLAccessControlContext.enableTokenAuthentication(tables, secretKey, maxAge, timeUnit);
+   }
+
+   public static void disableTokenAuthentication(MemoryTables tables) {
+      SQLAccessControlContext.disableTokenAuthentication(tables);
+   }
+
+   public static void enablePasswordHashingLimit(MemoryTables tables, int maxConcurrentHashes, int maxQueuedHashes) {
+      SQLAccessControlContext.enablePasswordHashingLimit(tables, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void disablePasswordHashingLimit(MemoryTables tables) {
+      SQLAccessControlContext.disablePasswordHashingLimit(tables);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(MemoryTables tables, int iterations) {
+      SQLAccessControlContext.enablePBKDF2PasswordEncryptor(tables, iterations);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(MemoryTables tables) {
+      SQLAccessControlContext.disablePBKDF2PasswordEncryptor(tables);
+   }
+
+   public static void enableChangeLog(MemoryTables tables) {
+      SQLAccessControlContext.enableChangeLog(tables);
+   }
+
+   public static TokenCredentials getTokenCredentials(AccessControlContext accessControlContext) {
+      return SQLAccessControlContext.getTokenCredentials(__unwrap(accessControlContext));
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext) {
+      return SQLAccessControlContext.getAsyncAccessControlContext(accessControlContext,
+                                                                  __unwrap(accessControlContext));
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext,
+                                                                        Executor executor) {
+      return SQLAccessControlContext.getAsyncAccessControlContext(accessControlContext,
+                                                                  __unwrap(accessControlContext),
+                                                                  executor);
+   }
+
+   public static void setAsyncConcurrencyLimit(MemoryTables tables, int maxConcurrentOperations) {
+      SQLAccessControlContext.setAsyncConcurrencyLimit(tables, maxConcurrentOperations);
+   }
+
+   // the asynchronous context performs its operations with the SQL-backed context this context delegates to
+   private static AccessControlContext __unwrap(AccessControlContext accessControlContext) {
+      if (accessControlContext instanceof MemoryAccessControlContext) {
+         return ((MemoryAccessControlContext) accessControlContext).accessControlContext;
+      }
+      return accessControlContext;
+   }
+
+   private MemoryAccessControlContext(MemoryTables tables,
+                                      AuthenticationProvider authenticationProvider) {
+      accessControlContext = SQLAccessControlContext.getAccessControlContext(new MemoryPersisterProvider(tables),
+                                                                             tables,
+                                                                             authenticationProvider);
+   }
+
+   @Override
+   public void authenticate(Resource resource,
+                            Credentials credentials) {
+      accessControlContext.authenticate(resource,
+                                        credentials);
+   }
+
+   @Override
+   public void authenticate(Resource resource) {
+      accessControlContext.authenticate(resource);
+   }
+
+   @Override
+   public void unauthenticate() {
+      accessControlContext.unauthenticate();
+   }
+
+   @Override
+   public Resource getAuthenticatedResource() {
+      return accessControlContext.getAuthenticatedResource();
+   }
+
+   @Override
+   public void impersonate(Resource resource) {
+      accessControlContext.impersonate(resource);
+   }
+
+   @Override
+   public void unimpersonate() {
+      accessControlContext.unimpersonate();
+   }
+
+   @Override
+   public Resource getSessionResource() {
+      return accessControlContext.getSessionResource();
+   }
+
+   @Override
+   public void setCredentials(Resource resource,
+                              Credentials newCredentials) {
+      accessControlContext.setCredentials(resource,
+                                          newCredentials);
+   }
+
+   @Override
+   public void setCredentials(Map<Resource, Credentials> newCredentialsByResource) {
+      accessControlContext.setCredentials(newCredentialsByResource);
+   }
+
+   @Override
+   public void assertDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      accessControlContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public void assertDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      accessControlContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermission,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public boolean hasDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      return accessControlContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermissions);
+   }
+
+   @Override
+   public boolean hasDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      return accessControlContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermission,
+                                                       domainPermissions);
+   }
+
+   @Override
+   public void assertDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      accessControlContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public void assertDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      accessControlContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermission,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public boolean hasDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      return accessControlContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermissions);
+   }
+
+   @Override
+   public boolean hasDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      return accessControlContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermission,
+                                                             domainCreatePermissions);
+   }
+
+   @Override
+   public void assertPostCreateDomainPermissions(Resource accessorResource,
+                                                 Set<DomainPermission> domainPermissions) {
+      accessControlContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermissions);
+   }
+
+   @Override
+   public void assertPostCreateDomainPermissions(Resource accessorResource,
+                                                 DomainPermission domainPermission,
+                                                 DomainPermission... domainPermissions) {
+      accessControlContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermission,
+                                                             domainPermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateDomainPermissions(Resource accessorResource,
+                                                 Set<DomainPermission> domainPermissions) {
+      return accessControlContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateDomainPermissions(Resource accessorResource,
+                                                 DomainPermission domainPermission,
+                                                 DomainPermission... domainPermissions) {
+      return accessControlContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermission,
+                                                                 domainPermissions);
+   }
+
+   @Override
+   public void assertGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public void assertGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      accessControlContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermission,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public boolean hasGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public boolean hasGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      return accessControlContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public void assertResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.assertResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermissions);
+   }
+
+   @Override
+   public void assertResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      accessControlContext.assertResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermission,
+                                                     resourcePermissions);
+   }
+
+   @Override
+   public boolean hasResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.hasResourcePermissions(accessorResource,
+                                                         accessedResource,
+                                                         resourcePermissions);
+   }
+
+   @Override
+   public boolean hasResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      return accessControlContext.hasResourcePermissions(accessorResource,
+                                                         accessedResource,
+                                                         resourcePermission,
+                                                         resourcePermissions);
+   }
+
+   @Override
+   public void assertResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      accessControlContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public void assertResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      accessControlContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermission,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public boolean hasResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      return accessControlContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermissions);
+   }
+
+   @Override
+   public boolean hasResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      return accessControlContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermission,
+                                                               resourceCreatePermissions);
+   }
+
+   @Override
+   public void assertPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public void assertPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   ResourcePermission resourcePermission,
+                                                   ResourcePermission... resourcePermissions) {
+      accessControlContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   ResourcePermission resourcePermission,
+                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermission,
+                                                                   resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissions(Resource accessorResource,
+                                                          String resourceClassName,
+                                                          Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissions(Resource accessorResource,
+                                                          String resourceClassName,
+                                                          ResourcePermission resourcePermission,
+                                                          ResourcePermission... resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermission,
+                                                                    resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.iterateResourcesByResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   ResourcePermission resourcePermission,
+                                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.iterateResourcesByResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        resourcePermission,
+                                                                        resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   String domainName,
+                                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   String domainName,
+                                                                   ResourcePermission resourcePermission,
+                                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermission,
+                                                                             resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                  String resourceClassName,
+                                                                  Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                  String resourceClassName,
+                                                                  ResourcePermission resourcePermission,
+                                                                  ResourcePermission... resourcePermissions) {
+      return accessControlContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermission,
+                                                                            resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.iterateAccessorResourcesByResourcePermissions(accessedResource,
+                                                                                resourceClassName,
+                                                                                resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           ResourcePermission resourcePermission,
+                                                                           ResourcePermission... resourcePermissions) {
+      return accessControlContext.iterateAccessorResourcesByResourcePermissions(accessedResource,
+                                                                                resourceClassName,
+                                                                                resourcePermission,
+                                                                                resourcePermissions);
+   }
+
+   @Override
+   public String getDomainNameByResource(Resource resource) {
+      return accessControlContext.getDomainNameByResource(resource);
+   }
+
+   @Override
+   public Set<String> getDomainDescendants(String domainName) {
+      return accessControlContext.getDomainDescendants(domainName);
+   }
+
+   @Override
+   public Iterator<String> iterateDomainDescendants(String domainName) {
+      return accessControlContext.iterateDomainDescendants(domainName);
+   }
+
+   @Override
+   public ResourceClassInfo getResourceClassInfo(String resourceClassName) {
+      return accessControlContext.getResourceClassInfo(resourceClassName);
+   }
+
+   @Override
+   public ResourceClassInfo getResourceClassInfoByResource(Resource resource) {
+      return accessControlContext.getResourceClassInfoByResource(resource);
+   }
+
+   @Override
+   public List<String> getResourceClassNames() {
+      return accessControlContext.getResourceClassNames();
+   }
+
+   @Override
+   public List<String> getResourcePermissionNames(String resourceClassName) {
+      return accessControlContext.getResourcePermissionNames(resourceClassName);
+   }
+
+   @Override
+   public void createResourceClass(String resourceClassName,
+                                   boolean authenticatable,
+                                   boolean unauthenticatedCreateAllowed) {
+      accessControlContext.createResourceClass(resourceClassName,
+                                               authenticatable,
+                                               unauthenticatedCreateAllowed);
+   }
+
+   @Override
+   public void createResourcePermission(String resourceClassName,
+                                        String permissionName) {
+      accessControlContext.createResourcePermission(resourceClassName,
+                                                    permissionName);
+   }
+
+   @Override
+   public void createDomain(String domainName) {
+      accessControlContext.createDomain(domainName);
+   }
+
+   @Override
+   public void createDomain(String domainName,
+                            String parentDomainName) {
+      accessControlContext.createDomain(domainName,
+                                        parentDomainName);
+   }
+
+   @Override
+   public boolean deleteDomain(String domainName) {
+      return accessControlContext.deleteDomain(domainName);
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName) {
+      return accessControlContext.createResource(resourceClassName,
+                                                 domainName);
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  Credentials credentials) {
+      return accessControlContext.createResource(resourceClassName,
+                                                 domainName,
+                                                 credentials);
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  String externalId) {
+      return accessControlContext.createResource(resourceClassName,
+                                                 domainName,
+                                                 externalId);
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  String externalId,
+                                  Credentials credentials) {
+      return accessControlContext.createResource(resourceClassName,
+                                                 domainName,
+                                                 externalId,
+                                                 credentials);
+   }
+
+   @Override
+   public Resource setExternalId(Resource resource,
+                                 String externalId) {
+      return accessControlContext.setExternalId(resource,
+                                                externalId);
+   }
+
+   @Override
+   public boolean deleteResource(Resource obsoleteResource) {
+      return accessControlContext.deleteResource(obsoleteResource);
+   }
+
+   @Override
+   public boolean deleteResources(Set<Resource> obsoleteResources) {
+      return accessControlContext.deleteResources(obsoleteResources);
+   }
+
+   @Override
+   public void setDomainCreatePermissions(Resource accessorResource,
+                                          Set<DomainCreatePermission> domainCreatePermissions) {
+      accessControlContext.setDomainCreatePermissions(accessorResource,
+                                                      domainCreatePermissions);
+   }
+
+   @Override
+   public void grantDomainCreatePermissions(Resource accessorResource,
+                                            Set<DomainCreatePermission> domainCreatePermissions) {
+      accessControlContext.grantDomainCreatePermissions(accessorResource,
+                                                        domainCreatePermissions);
+   }
+
+   @Override
+   public void grantDomainCreatePermissions(Resource accessorResource,
+                                            DomainCreatePermission domainCreatePermission,
+                                            DomainCreatePermission... domainCreatePermissions) {
+      accessControlContext.grantDomainCreatePermissions(accessorResource,
+                                                        domainCreatePermission,
+                                                        domainCreatePermissions);
+   }
+
+   @Override
+   public void revokeDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      accessControlContext.revokeDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public void revokeDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      accessControlContext.revokeDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermission,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreatePermissions(Resource accessorResource) {
+      return accessControlContext.getDomainCreatePermissions(accessorResource);
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getEffectiveDomainCreatePermissions(Resource accessorResource) {
+      return accessControlContext.getEffectiveDomainCreatePermissions(accessorResource);
+   }
+
+   @Override
+   public void setDomainPermissions(Resource accessorResource,
+                                    String domainName,
+                                    Set<DomainPermission> domainPermissions) {
+      accessControlContext.setDomainPermissions(accessorResource,
+                                                domainName,
+                                                domainPermissions);
+   }
+
+   @Override
+   public void grantDomainPermissions(Resource accessorResource,
+                                      String domainName,
+                                      Set<DomainPermission> domainPermissions) {
+      accessControlContext.grantDomainPermissions(accessorResource,
+                                                  domainName,
+                                                  domainPermissions);
+   }
+
+   @Override
+   public void grantDomainPermissions(Resource accessorResource,
+                                      String domainName,
+                                      DomainPermission domainPermission,
+                                      DomainPermission... domainPermissions) {
+      accessControlContext.grantDomainPermissions(accessorResource,
+                                                  domainName,
+                                                  domainPermission,
+                                                  domainPermissions);
+   }
+
+   @Override
+   public void revokeDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      accessControlContext.revokeDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public void revokeDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      accessControlContext.revokeDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermission,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public Set<DomainPermission> getDomainPermissions(Resource accessorResource,
+                                                     String domainName) {
+      return accessControlContext.getDomainPermissions(accessorResource,
+                                                       domainName);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getDomainPermissionsMap(Resource accessorResource) {
+      return accessControlContext.getDomainPermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Set<DomainPermission> getEffectiveDomainPermissions(Resource accessorResource,
+                                                              String domainName) {
+      return accessControlContext.getEffectiveDomainPermissions(accessorResource,
+                                                                domainName);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getEffectiveDomainPermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveDomainPermissionsMap(accessorResource);
+   }
+
+   @Override
+   public void setResourceCreatePermissions(Resource accessorResource,
+                                            String resourceClassName,
+                                            String domainName,
+                                            Set<ResourceCreatePermission> resourceCreatePermissions) {
+      accessControlContext.setResourceCreatePermissions(accessorResource,
+                                                        resourceClassName,
+                                                        domainName,
+                                                        resourceCreatePermissions);
+   }
+
+   @Override
+   public void grantResourceCreatePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              Set<ResourceCreatePermission> resourceCreatePermissions) {
+      accessControlContext.grantResourceCreatePermissions(accessorResource,
+                                                          resourceClassName,
+                                                          domainName,
+                                                          resourceCreatePermissions);
+   }
+
+   @Override
+   public void grantResourceCreatePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              ResourceCreatePermission resourceCreatePermission,
+                                              ResourceCreatePermission... resourceCreatePermissions) {
+      accessControlContext.grantResourceCreatePermissions(accessorResource,
+                                                          resourceClassName,
+                                                          domainName,
+                                                          resourceCreatePermission,
+                                                          resourceCreatePermissions);
+   }
+
+   @Override
+   public void revokeResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      accessControlContext.revokeResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public void revokeResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      accessControlContext.revokeResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermission,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreatePermissions(Resource accessorResource,
+                                                                     String resourceClassName,
+                                                                     String domainName) {
+      return accessControlContext.getResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getEffectiveResourceCreatePermissions(Resource accessorResource,
+                                                                              String resourceClassName,
+                                                                              String domainName) {
+      return accessControlContext.getEffectiveResourceCreatePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreatePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getResourceCreatePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getEffectiveResourceCreatePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveResourceCreatePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public void setResourcePermissions(Resource accessorResource,
+                                      Resource accessedResource,
+                                      Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  accessedResource,
+                                                  resourcePermissions);
+   }
+
+   @Override
+   public void grantResourcePermissions(Resource accessorResource,
+                                        Resource accessedResource,
+                                        Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.grantResourcePermissions(accessorResource,
+                                                    accessedResource,
+                                                    resourcePermissions);
+   }
+
+   @Override
+   public void grantResourcePermissions(Resource accessorResource,
+                                        Resource accessedResource,
+                                        ResourcePermission resourcePermission,
+                                        ResourcePermission... resourcePermissions) {
+      accessControlContext.grantResourcePermissions(accessorResource,
+                                                    accessedResource,
+                                                    resourcePermission,
+                                                    resourcePermissions);
+   }
+
+   @Override
+   public void grantResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                              Set<Resource> accessedResources,
+                                              Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.grantResourcePermissionsInBulk(accessorResources,
+                                                          accessedResources,
+                                                          resourcePermissions);
+   }
+
+   @Override
+   public void revokeResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.revokeResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermissions);
+   }
+
+   @Override
+   public void revokeResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      accessControlContext.revokeResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermission,
+                                                     resourcePermissions);
+   }
+
+   @Override
+   public void revokeResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                               Set<Resource> accessedResources,
+                                               Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.revokeResourcePermissionsInBulk(accessorResources,
+                                                           accessedResources,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourcePermissions(Resource accessorResource,
+                                                         Resource accessedResource) {
+      return accessControlContext.getResourcePermissions(accessorResource,
+                                                         accessedResource);
+   }
+
+   @Override
+   public Set<ResourcePermission> getEffectiveResourcePermissions(Resource accessorResource,
+                                                                  Resource accessedResource) {
+      return accessControlContext.getEffectiveResourcePermissions(accessorResource,
+                                                                  accessedResource);
+   }
+
+   @Override
+   public void setGlobalResourcePermissions(Resource accessorResource,
+                                            String resourceClassName,
+                                            String domainName,
+                                            Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.setGlobalResourcePermissions(accessorResource,
+                                                        resourceClassName,
+                                                        domainName,
+                                                        resourcePermissions);
+   }
+
+   @Override
+   public void grantGlobalResourcePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.grantGlobalResourcePermissions(accessorResource,
+                                                          resourceClassName,
+                                                          domainName,
+                                                          resourcePermissions);
+   }
+
+   @Override
+   public void grantGlobalResourcePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              ResourcePermission resourcePermission,
+                                              ResourcePermission... resourcePermissions) {
+      accessControlContext.grantGlobalResourcePermissions(accessorResource,
+                                                          resourceClassName,
+                                                          domainName,
+                                                          resourcePermission,
+                                                          resourcePermissions);
+   }
+
+   @Override
+   public void revokeGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.revokeGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public void revokeGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      accessControlContext.revokeGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermission,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public Set<ResourcePermission> getGlobalResourcePermissions(Resource accessorResource,
+                                                               String resourceClassName,
+                                                               String domainName) {
+      return accessControlContext.getGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+   }
+
+   @Override
+   public Set<ResourcePermission> getEffectiveGlobalResourcePermissions(Resource accessorResource,
+                                                                        String resourceClassName,
+                                                                        String domainName) {
+      return accessControlContext.getEffectiveGlobalResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getGlobalResourcePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getGlobalResourcePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getEffectiveGlobalResourcePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveGlobalResourcePermissionsMap(accessorResource);
+   }
+}
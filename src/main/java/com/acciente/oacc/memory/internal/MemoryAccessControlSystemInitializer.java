@@ -0,0 +1,79 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.DomainCreatePermissions;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.sql.internal.CleanablePasswordEncryptor;
+import com.acciente.oacc.sql.internal.PasswordUtils;
+import com.acciente.oacc.sql.internal.StrongCleanablePasswordEncryptor;
+
+public class MemoryAccessControlSystemInitializer {
+   private static final long SYSTEM_ID = 0;
+
+   public static void initializeOACC(MemoryTables tables,
+                                     char[] oaccRootPwd) {
+      CleanablePasswordEncryptor passwordEncryptor = new StrongCleanablePasswordEncryptor();
+
+      synchronized (tables) {
+         if (!tables.isEmpty()) {
+            throw new IllegalStateException("Cannot initialize, likely that this OACC is already initialized!");
+         }
+
+         // create an initial domain to hold the system user, a resource type for it, and the system user itself
+         tables.addDomain(AccessControlContext.SYSTEM_DOMAIN, null);
+         tables.addResourceClass(AccessControlContext.SYSTEM_RESOURCE_CLASS, true, false);
+         tables.addResource(SYSTEM_ID, SYSTEM_ID);
+
+         // set the system user's password
+         char[] boundPassword = null;
+         try {
+            boundPassword = PasswordUtils.computeBoundPassword(Resources.getInstance(SYSTEM_ID), oaccRootPwd);
+            tables.setEncryptedBoundPassword(SYSTEM_ID, passwordEncryptor.encryptPassword(boundPassword));
+         }
+         finally {
+            PasswordUtils.cleanPassword(boundPassword);
+         }
+
+         // grant the system user [super user w/ grant] to the system domain
+         tables.getGrantDomainPermissionSys().putGrant(SYSTEM_ID,
+                                                       SYSTEM_ID,
+                                                       SYSTEM_ID,
+                                                       DomainPermissions.SUPER_USER,
+                                                       new GrantEntry(true, false, SYSTEM_ID));
+
+         // grant the system user [create w/ grant], and [super user w/ grant] to any domains it creates
+         tables.getGrantDomainCreatePermissionSys().putGrant(SYSTEM_ID,
+                                                             SYSTEM_ID,
+                                                             SYSTEM_ID,
+                                                             DomainCreatePermissions.CREATE,
+                                                             new GrantEntry(true, false, SYSTEM_ID));
+         for (String postCreatePermissionName : new String[]{DomainPermissions.SUPER_USER,
+                                                             DomainPermissions.CREATE_CHILD_DOMAIN,
+                                                             DomainPermissions.DELETE}) {
+            tables.getGrantDomainCreatePermissionPostCreateSys().putGrant(SYSTEM_ID,
+                                                                          SYSTEM_ID,
+                                                                          SYSTEM_ID,
+                                                                          postCreatePermissionName,
+                                                                          new GrantEntry(true, true, SYSTEM_ID));
+         }
+      }
+   }
+}
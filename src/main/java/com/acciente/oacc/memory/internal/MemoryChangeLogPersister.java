@@ -0,0 +1,61 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.ChangeLogPersister;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.util.List;
+
+public class MemoryChangeLogPersister implements ChangeLogPersister {
+   private final MemoryTables tables;
+
+   public MemoryChangeLogPersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public void addChangeLogEntry(SQLConnection connection,
+                                 ChangeLogEntry.Kind kind,
+                                 Id<ResourceId> accessorResourceId,
+                                 Id<ResourceId> accessedResourceId,
+                                 Id<DomainId> accessedDomainId,
+                                 Id<ResourceClassId> resourceClassId) {
+      tables.addChangeLogEntry(kind, accessorResourceId, accessedResourceId, accessedDomainId, resourceClassId);
+   }
+
+   @Override
+   public long getLastChangeSequence(SQLConnection connection) {
+      return tables.getLastChangeSequence();
+   }
+
+   @Override
+   public List<ChangeLogEntry> getChangeLogEntries(SQLConnection connection, long afterChangeSequence, int maxEntries) {
+      return tables.getChangeLogEntries(afterChangeSequence, maxEntries);
+   }
+
+   @Override
+   public void pruneChangeLog(SQLConnection connection, int maxRetainedEntries) {
+      tables.pruneChangeLog(maxRetainedEntries);
+   }
+}
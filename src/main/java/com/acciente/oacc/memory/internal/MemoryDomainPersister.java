@@ -0,0 +1,108 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.DomainPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MemoryDomainPersister implements DomainPersister {
+   private final MemoryTables tables;
+
+   public MemoryDomainPersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public Id<DomainId> getResourceDomainId(SQLConnection connection,
+                                           String resourceDomainName) {
+      if (resourceDomainName == null) {
+         throw new IllegalArgumentException("Domain name must not be null");
+      }
+
+      final Long resourceDomainId = tables.getDomainId(resourceDomainName.trim());
+      return resourceDomainId == null ? null : Id.<DomainId>from(resourceDomainId);
+   }
+
+   @Override
+   public String getResourceDomainNameByResourceId(SQLConnection connection,
+                                                   Resource resource) {
+      final ResourceEntry resourceEntry = tables.getResource(resource.getId());
+      final String resourceDomainName = resourceEntry == null ? null : tables.getDomainName(resourceEntry.getDomainId());
+      if (resourceDomainName == null) {
+         throw new IllegalArgumentException("Could not determine domain for resource: " + resource);
+      }
+
+      return resourceDomainName;
+   }
+
+   @Override
+   public Set<String> getResourceDomainNameDescendants(SQLConnection connection,
+                                                       String resourceDomainName) {
+      final Id<DomainId> resourceDomainId = getResourceDomainId(connection, resourceDomainName);
+
+      // the set is empty if the domain is unknown
+      Set<String> descendantDomainNames = new HashSet<>();
+      if (resourceDomainId != null) {
+         final LongHashSet descendantDomainIds = tables.getDescendantDomainIds(resourceDomainId.getValue());
+         for (int i = 0; i < descendantDomainIds.size(); i++) {
+            descendantDomainNames.add(tables.getDomainName(descendantDomainIds.get(i)));
+         }
+      }
+      return descendantDomainNames;
+   }
+
+   @Override
+   public List<Id<DomainId>> getAncestorDomainIds(SQLConnection connection,
+                                                  Id<DomainId> domainId) {
+      final LongHashSet ancestorDomainIdValues = tables.getAncestorDomainIds(domainId.getValue());
+      final List<Id<DomainId>> ancestorDomainIds = new ArrayList<>(ancestorDomainIdValues.size());
+      for (int i = 0; i < ancestorDomainIdValues.size(); i++) {
+         ancestorDomainIds.add(Id.<DomainId>from(ancestorDomainIdValues.get(i)));
+      }
+      return ancestorDomainIds;
+   }
+
+   @Override
+   public void addResourceDomain(SQLConnection connection,
+                                 String resourceDomainName) {
+      tables.addDomain(resourceDomainName, null);
+   }
+
+   @Override
+   public void addResourceDomain(SQLConnection connection,
+                                 String resourceDomainName,
+                                 Id<DomainId> parentResourceDomainId) {
+      tables.addDomain(resourceDomainName, parentResourceDomainId.getValue());
+   }
+
+   @Override
+   public void deleteDomain(SQLConnection connection,
+                            Id<DomainId> domainId) {
+      // removes the domain along with all its descendants
+      tables.removeDomain(domainId.getValue());
+   }
+}
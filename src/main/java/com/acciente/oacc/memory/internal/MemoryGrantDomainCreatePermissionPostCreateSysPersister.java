@@ -0,0 +1,121 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainCreatePermissions;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionPostCreateSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class MemoryGrantDomainCreatePermissionPostCreateSysPersister extends MemoryGrantPersister<DomainCreatePermission>
+      implements GrantDomainCreatePermissionPostCreateSysPersister {
+
+   public MemoryGrantDomainCreatePermissionPostCreateSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantDomainCreatePermissionPostCreateSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(DomainCreatePermission domainCreatePermission) {
+      return !domainCreatePermission.isSystemPermission()
+            && domainCreatePermission.getPostCreateDomainPermission().isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(DomainCreatePermission domainCreatePermission) {
+      return domainCreatePermission.getPostCreateDomainPermission().getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(DomainCreatePermission domainCreatePermission, long grantorResourceId) {
+      return new GrantEntry(domainCreatePermission.isWithGrantOption(),
+                            domainCreatePermission.getPostCreateDomainPermission().isWithGrantOption(),
+                            grantorResourceId);
+   }
+
+   @Override
+   protected DomainCreatePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      final DomainPermission postCreatePermission;
+      if (grantEntry.isPostCreateWithGrant()) {
+         postCreatePermission = DomainPermissions.getInstanceWithGrantOption(permissionName);
+      }
+      else {
+         postCreatePermission = DomainPermissions.getInstance(permissionName);
+      }
+
+      if (grantEntry.isWithGrant()) {
+         return DomainCreatePermissions.getInstanceWithGrantOption(postCreatePermission);
+      }
+      else {
+         return DomainCreatePermissions.getInstance(postCreatePermission);
+      }
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreatePostCreateSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                              Resource accessorResource) {
+      return getPermissions(getInheritedAccessorIds(accessorResource), LongHashSet.of(UNSCOPED_ID), null);
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                                              Resource accessorResource) {
+      return getPermissions(accessorResource.getId(), UNSCOPED_ID, null);
+   }
+
+   @Override
+   public void addDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                       Resource accessorResource,
+                                                       Resource grantorResource,
+                                                       Set<DomainCreatePermission> domainCreatePermissions) {
+      putPermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions, grantorResource);
+   }
+
+   @Override
+   public void updateDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Resource grantorResource,
+                                                          Set<DomainCreatePermission> domainCreatePermissions) {
+      putPermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions, grantorResource);
+   }
+
+   @Override
+   public void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                          Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                          Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Set<DomainCreatePermission> domainCreatePermissions) {
+      removePermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions);
+   }
+}
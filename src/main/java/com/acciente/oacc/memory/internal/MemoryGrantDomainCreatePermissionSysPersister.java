@@ -0,0 +1,108 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainCreatePermissions;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class MemoryGrantDomainCreatePermissionSysPersister extends MemoryGrantPersister<DomainCreatePermission>
+      implements GrantDomainCreatePermissionSysPersister {
+
+   public MemoryGrantDomainCreatePermissionSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantDomainCreatePermissionSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(DomainCreatePermission domainCreatePermission) {
+      return domainCreatePermission.isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(DomainCreatePermission domainCreatePermission) {
+      return domainCreatePermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(DomainCreatePermission domainCreatePermission, long grantorResourceId) {
+      return new GrantEntry(domainCreatePermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected DomainCreatePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      if (grantEntry.isWithGrant()) {
+         return DomainCreatePermissions.getInstanceWithGrantOption(permissionName);
+      }
+      else {
+         return DomainCreatePermissions.getInstance(permissionName);
+      }
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreateSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                    Resource accessorResource) {
+      return getPermissions(getInheritedAccessorIds(accessorResource), LongHashSet.of(UNSCOPED_ID), null);
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreateSysPermissions(SQLConnection connection,
+                                                                    Resource accessorResource) {
+      return getPermissions(accessorResource.getId(), UNSCOPED_ID, null);
+   }
+
+   @Override
+   public void addDomainCreateSysPermissions(SQLConnection connection,
+                                             Resource accessorResource,
+                                             Resource grantorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      putPermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions, grantorResource);
+   }
+
+   @Override
+   public void updateDomainCreateSysPermissions(SQLConnection connection,
+                                                Resource accessorResource,
+                                                Resource grantorResource,
+                                                Set<DomainCreatePermission> domainCreatePermissions) {
+      putPermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions, grantorResource);
+   }
+
+   @Override
+   public void removeDomainCreateSysPermissions(SQLConnection connection,
+                                                Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeDomainCreateSysPermissions(SQLConnection connection,
+                                                Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeDomainCreateSysPermissions(SQLConnection connection,
+                                                Resource accessorResource,
+                                                Set<DomainCreatePermission> domainCreatePermissions) {
+      removePermissions(accessorResource.getId(), UNSCOPED_ID, UNSCOPED_ID, domainCreatePermissions);
+   }
+}
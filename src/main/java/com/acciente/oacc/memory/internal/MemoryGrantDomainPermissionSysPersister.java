@@ -0,0 +1,196 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.GrantDomainPermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantDomainPermissionSysPersister extends MemoryGrantPersister<DomainPermission>
+      implements GrantDomainPermissionSysPersister {
+
+   public MemoryGrantDomainPermissionSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantDomainPermissionSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(DomainPermission domainPermission) {
+      // on the domains only pre-defined system permissions are expected
+      return true;
+   }
+
+   @Override
+   protected String getPersistedPermissionName(DomainPermission domainPermission) {
+      return domainPermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(DomainPermission domainPermission, long grantorResourceId) {
+      return new GrantEntry(domainPermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected DomainPermission newPermission(String permissionName, GrantEntry grantEntry) {
+      if (grantEntry.isWithGrant()) {
+         return DomainPermissions.getInstanceWithGrantOption(permissionName);
+      }
+      else {
+         return DomainPermissions.getInstance(permissionName);
+      }
+   }
+
+   @Override
+   public Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                Resource accessorResource,
+                                                                Id<ResourceClassId> resourceClassId) {
+      // the super-user domains, along with all their descendants
+      final LongHashSet superUserDomainIds = getSuperUserDomainIds(accessorResource);
+
+      return getResources(superUserDomainIds, resourceClassId.getValue());
+   }
+
+   @Override
+   public List<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                 Resource accessorResource,
+                                                                 Id<ResourceClassId> resourceClassId,
+                                                                 long afterResourceId,
+                                                                 int maxResources) {
+      return getResourcePage(getResourcesByDomainSuperUserPermission(connection,
+                                                                     accessorResource,
+                                                                     resourceClassId),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                Resource accessorResource,
+                                                                Id<ResourceClassId> resourceClassId,
+                                                                Id<DomainId> resourceDomainId) {
+      // restrict the super-user domains to the requested domain and its descendants
+      final LongHashSet superUserDomainIds = getCommonIds(getSuperUserDomainIds(accessorResource),
+                                                          tables.getDescendantDomainIds(resourceDomainId.getValue()));
+
+      return getResources(superUserDomainIds, resourceClassId.getValue());
+   }
+
+   private LongHashSet getSuperUserDomainIds(Resource accessorResource) {
+      return tables.getDescendantDomainIds(getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                          UNSCOPED_ID,
+                                                          DomainPermissions.SUPER_USER,
+                                                          false));
+   }
+
+   @Override
+   public Set<DomainPermission> getDomainSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                        Resource accessorResource,
+                                                                        Id<DomainId> resourceDomainId) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            tables.getAncestorDomainIds(resourceDomainId.getValue()),
+                            null);
+   }
+
+   @Override
+   public Set<DomainPermission> getDomainSysPermissions(SQLConnection connection,
+                                                        Resource accessorResource,
+                                                        Id<DomainId> resourceDomainId) {
+      return getPermissions(accessorResource.getId(), resourceDomainId.getValue(), null);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getDomainSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                     Resource accessorResource) {
+      return getPermissionsByDomainName(getInheritedAccessorIds(accessorResource), true);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getDomainSysPermissions(SQLConnection connection,
+                                                                     Resource accessorResource) {
+      return getPermissionsByDomainName(LongHashSet.of(accessorResource.getId()), false);
+   }
+
+   @Override
+   public void addDomainSysPermissions(SQLConnection connection,
+                                       Resource accessorResource,
+                                       Resource grantorResource,
+                                       Id<DomainId> resourceDomainId,
+                                       Set<DomainPermission> requestedDomainPermissions) {
+      putPermissions(accessorResource.getId(),
+                     resourceDomainId.getValue(),
+                     UNSCOPED_ID,
+                     requestedDomainPermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateDomainSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Resource grantorResource,
+                                          Id<DomainId> resourceDomainId,
+                                          Set<DomainPermission> requestedDomainPermissions) {
+      putPermissions(accessorResource.getId(),
+                     resourceDomainId.getValue(),
+                     UNSCOPED_ID,
+                     requestedDomainPermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void removeAllDomainSysPermissions(SQLConnection connection,
+                                             Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeAllDomainSysPermissions(SQLConnection connection,
+                                             Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeAllDomainSysPermissions(SQLConnection connection,
+                                             Id<DomainId> domainId) {
+      removeAllPermissionsByDomain(domainId.getValue());
+   }
+
+   @Override
+   public void removeDomainSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Id<DomainId> resourceDomainId) {
+      grantTable.removeGrants(accessorResource.getId(), resourceDomainId.getValue());
+   }
+
+   @Override
+   public void removeDomainSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Id<DomainId> resourceDomainId,
+                                          Set<DomainPermission> requestedDomainPermissions) {
+      removePermissions(accessorResource.getId(), resourceDomainId.getValue(), UNSCOPED_ID, requestedDomainPermissions);
+   }
+}
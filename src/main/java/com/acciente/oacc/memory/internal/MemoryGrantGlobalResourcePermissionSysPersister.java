@@ -0,0 +1,223 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.sql.internal.persister.GrantGlobalResourcePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantGlobalResourcePermissionSysPersister extends MemoryGrantPersister<ResourcePermission>
+      implements GrantGlobalResourcePermissionSysPersister {
+
+   public MemoryGrantGlobalResourcePermissionSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantGlobalResourcePermissionSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(ResourcePermission resourcePermission) {
+      return resourcePermission.isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(ResourcePermission resourcePermission) {
+      return resourcePermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(ResourcePermission resourcePermission, long grantorResourceId) {
+      return new GrantEntry(resourcePermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected ResourcePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      return ResourcePermissions.getInternedInstance(permissionName, grantEntry.isWithGrant());
+   }
+
+   private void assertPersistedHere(ResourcePermission resourcePermission) {
+      if (!isPersistedHere(resourcePermission)) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+   }
+
+   // returns the domains in which the accessor effectively holds the specified global permission
+   private LongHashSet getGlobalDomainIds(Resource accessorResource,
+                                        Id<ResourceClassId> resourceClassId,
+                                        ResourcePermission resourcePermission) {
+      return tables.getDescendantDomainIds(getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                          resourceClassId.getValue(),
+                                                          resourcePermission.getPermissionName(),
+                                                          resourcePermission.isWithGrantOption()));
+   }
+
+   @Override
+   public Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          ResourcePermission resourcePermission) {
+      assertPersistedHere(resourcePermission);
+
+      return getResources(getGlobalDomainIds(accessorResource, resourceClassId, resourcePermission),
+                          resourceClassId.getValue());
+   }
+
+   @Override
+   public List<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                           Resource accessorResource,
+                                                           Id<ResourceClassId> resourceClassId,
+                                                           ResourcePermission resourcePermission,
+                                                           long afterResourceId,
+                                                           int maxResources) {
+      return getResourcePage(getResourcesByGlobalSysPermission(connection,
+                                                               accessorResource,
+                                                               resourceClassId,
+                                                               resourcePermission),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          Id<DomainId> resourceDomainId,
+                                                          ResourcePermission resourcePermission) {
+      assertPersistedHere(resourcePermission);
+
+      // restrict the global domains to the requested domain and its descendants
+      final LongHashSet globalDomainIds
+            = getCommonIds(getGlobalDomainIds(accessorResource, resourceClassId, resourcePermission),
+                           tables.getDescendantDomainIds(resourceDomainId.getValue()));
+
+      return getResources(globalDomainIds, resourceClassId.getValue());
+   }
+
+   @Override
+   public Set<ResourcePermission> getGlobalSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                          Resource accessorResource,
+                                                                          Id<ResourceClassId> resourceClassId,
+                                                                          Id<DomainId> resourceDomainId) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            tables.getAncestorDomainIds(resourceDomainId.getValue()),
+                            resourceClassId.getValue());
+   }
+
+   @Override
+   public Set<ResourcePermission> getGlobalSysPermissions(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          Id<DomainId> resourceDomainId) {
+      return getPermissions(accessorResource.getId(), resourceDomainId.getValue(), resourceClassId.getValue());
+   }
+
+   @Override
+   public boolean hasGlobalSysPermissions(SQLConnection connection,
+                                          Id<ResourceClassId> resourceClassId) {
+      return hasPermissions(resourceClassId.getValue());
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getGlobalSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                                    Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(getInheritedAccessorIds(accessorResource), true);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getGlobalSysPermissions(SQLConnection connection,
+                                                                                    Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(LongHashSet.of(accessorResource.getId()), false);
+   }
+
+   @Override
+   public void addGlobalSysPermissions(SQLConnection connection,
+                                       Resource accessorResource,
+                                       Id<ResourceClassId> accessedResourceClassId,
+                                       Id<DomainId> accessedResourceDomainId,
+                                       Set<ResourcePermission> requestedResourcePermissions,
+                                       Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateGlobalSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Id<ResourceClassId> accessedResourceClassId,
+                                          Id<DomainId> accessedResourceDomainId,
+                                          Set<ResourcePermission> requestedResourcePermissions,
+                                          Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void removeAllGlobalSysPermissions(SQLConnection connection,
+                                             Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeAllGlobalSysPermissions(SQLConnection connection,
+                                             Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeAllGlobalSysPermissions(SQLConnection connection,
+                                             Id<DomainId> accessedDomainId) {
+      removeAllPermissionsByDomain(accessedDomainId.getValue());
+   }
+
+   @Override
+   public void removeGlobalSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Id<ResourceClassId> accessedResourceClassId,
+                                          Id<DomainId> accessedResourceDomainId) {
+      grantTable.removeGrants(accessorResource.getId(),
+                              accessedResourceDomainId.getValue(),
+                              accessedResourceClassId.getValue());
+   }
+
+   @Override
+   public void removeGlobalSysPermissions(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Id<ResourceClassId> accessedResourceClassId,
+                                          Id<DomainId> accessedResourceDomainId,
+                                          Set<ResourcePermission> requestedResourcePermissions) {
+      removePermissions(accessorResource.getId(),
+                        accessedResourceDomainId.getValue(),
+                        accessedResourceClassId.getValue(),
+                        requestedResourcePermissions);
+   }
+}
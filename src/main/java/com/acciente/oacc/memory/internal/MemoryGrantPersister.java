@@ -0,0 +1,294 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Base class for the persisters that operate on a single in-memory grant table.
+ *
+ * @param <P> the type of permission held in the grant table
+ */
+abstract class MemoryGrantPersister<P> {
+   // the accessed id and resource class id used for grants that are not specific to a domain or resource class
+   protected static final long UNSCOPED_ID = 0;
+
+   protected final MemoryTables tables;
+   protected final GrantTable   grantTable;
+
+   protected MemoryGrantPersister(MemoryTables tables, GrantTable grantTable) {
+      this.tables = tables;
+      this.grantTable = grantTable;
+   }
+
+   // permission conversion, implemented by each persister to mirror the columns of its grant table
+
+   protected abstract boolean isPersistedHere(P permission);
+
+   protected abstract String getPersistedPermissionName(P permission);
+
+   protected abstract GrantEntry newGrantEntry(P permission, long grantorResourceId);
+
+   protected abstract P newPermission(String permissionName, GrantEntry grantEntry);
+
+   // queries
+
+   protected Set<P> getPermissions(LongHashSet accessorIds,
+                                   LongHashSet accessedIds,
+                                   Long resourceClassId) {
+      Set<P> permissions = new HashSet<>();
+      for (int i = 0; i < accessorIds.size(); i++) {
+         for (int j = 0; j < accessedIds.size(); j++) {
+            collectPermissions(grantTable.getGrants(accessorIds.get(i), accessedIds.get(j)), resourceClassId, permissions);
+         }
+      }
+      return permissions;
+   }
+
+   protected Set<P> getPermissions(long accessorId, long accessedId, Long resourceClassId) {
+      Set<P> permissions = new HashSet<>();
+      collectPermissions(grantTable.getGrants(accessorId, accessedId), resourceClassId, permissions);
+      return permissions;
+   }
+
+   private void collectPermissions(Map<GrantKey, GrantEntry> grants, Long resourceClassId, Set<P> permissions) {
+      for (Map.Entry<GrantKey, GrantEntry> grant : grants.entrySet()) {
+         if (resourceClassId == null || resourceClassId == grant.getKey().getResourceClassId()) {
+            permissions.add(newPermission(grant.getKey().getPermissionName(), grant.getValue()));
+         }
+      }
+   }
+
+   protected boolean hasPermissions(long resourceClassId) {
+      return grantTable.hasGrants(resourceClassId);
+   }
+
+   // returns the ids of the resources or domains on which any of the accessors directly holds the specified permission
+   protected LongHashSet getAccessedIds(LongHashSet accessorIds,
+                                        long resourceClassId,
+                                        String permissionName,
+                                        boolean withGrantRequired) {
+      final GrantKey grantKey = new GrantKey(resourceClassId, permissionName);
+      LongHashSet accessedIds = new LongHashSet();
+      for (int i = 0; i < accessorIds.size(); i++) {
+         for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId
+               : grantTable.getGrants(accessorIds.get(i)).entrySet()) {
+            final GrantEntry grantEntry = grantsByAccessedId.getValue().get(grantKey);
+            if (grantEntry != null && grantEntry.matches(withGrantRequired)) {
+               accessedIds.add(grantsByAccessedId.getKey());
+            }
+         }
+      }
+      return accessedIds;
+   }
+
+   protected Map<String, Set<P>> getPermissionsByDomainName(LongHashSet accessorIds,
+                                                            boolean isAppliedToDescendants) {
+      final Map<Long, Set<P>> permissionsByDomainId = new HashMap<>();
+      for (int i = 0; i < accessorIds.size(); i++) {
+         for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByDomainId
+               : grantTable.getGrants(accessorIds.get(i)).entrySet()) {
+            Set<P> permissions = permissionsByDomainId.get(grantsByDomainId.getKey());
+            if (permissions == null) {
+               permissionsByDomainId.put(grantsByDomainId.getKey(), permissions = new HashSet<>());
+            }
+            collectPermissions(grantsByDomainId.getValue(), null, permissions);
+         }
+      }
+
+      final Map<String, Set<P>> permissionsByDomainName = new HashMap<>();
+      for (Map.Entry<Long, Set<P>> permissionsForDomain : permissionsByDomainId.entrySet()) {
+         final LongHashSet domainIds = isAppliedToDescendants
+                                       ? tables.getDescendantDomainIds(permissionsForDomain.getKey())
+                                       : LongHashSet.of(permissionsForDomain.getKey());
+         for (int i = 0; i < domainIds.size(); i++) {
+            final String domainName = tables.getDomainName(domainIds.get(i));
+            if (domainName != null) {
+               Set<P> permissions = permissionsByDomainName.get(domainName);
+               if (permissions == null) {
+                  permissionsByDomainName.put(domainName, permissions = new HashSet<>());
+               }
+               permissions.addAll(permissionsForDomain.getValue());
+            }
+         }
+      }
+      return permissionsByDomainName;
+   }
+
+   protected Map<String, Map<String, Set<P>>> getPermissionsByDomainNameAndResourceClassName(LongHashSet accessorIds,
+                                                                                             boolean isAppliedToDescendants) {
+      final Map<Long, Map<Long, Set<P>>> permissionsByDomainIdAndResourceClassId = new HashMap<>();
+      for (int i = 0; i < accessorIds.size(); i++) {
+         for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByDomainId
+               : grantTable.getGrants(accessorIds.get(i)).entrySet()) {
+            Map<Long, Set<P>> permissionsByResourceClassId
+                  = permissionsByDomainIdAndResourceClassId.get(grantsByDomainId.getKey());
+            if (permissionsByResourceClassId == null) {
+               permissionsByDomainIdAndResourceClassId.put(grantsByDomainId.getKey(),
+                                                           permissionsByResourceClassId = new HashMap<>());
+            }
+            for (Map.Entry<GrantKey, GrantEntry> grant : grantsByDomainId.getValue().entrySet()) {
+               Set<P> permissions = permissionsByResourceClassId.get(grant.getKey().getResourceClassId());
+               if (permissions == null) {
+                  permissionsByResourceClassId.put(grant.getKey().getResourceClassId(),
+                                                   permissions = new HashSet<>());
+               }
+               permissions.add(newPermission(grant.getKey().getPermissionName(), grant.getValue()));
+            }
+         }
+      }
+
+      final Map<String, Map<String, Set<P>>> permissionsByDomainNameAndResourceClassName = new HashMap<>();
+      for (Map.Entry<Long, Map<Long, Set<P>>> permissionsForDomain : permissionsByDomainIdAndResourceClassId.entrySet()) {
+         final LongHashSet domainIds = isAppliedToDescendants
+                                       ? tables.getDescendantDomainIds(permissionsForDomain.getKey())
+                                       : LongHashSet.of(permissionsForDomain.getKey());
+         for (int i = 0; i < domainIds.size(); i++) {
+            final String domainName = tables.getDomainName(domainIds.get(i));
+            if (domainName == null) {
+               continue;
+            }
+            Map<String, Set<P>> permissionsByResourceClassName
+                  = permissionsByDomainNameAndResourceClassName.get(domainName);
+            if (permissionsByResourceClassName == null) {
+               permissionsByDomainNameAndResourceClassName.put(domainName,
+                                                               permissionsByResourceClassName = new HashMap<>());
+            }
+            for (Map.Entry<Long, Set<P>> permissionsForResourceClass : permissionsForDomain.getValue().entrySet()) {
+               final String resourceClassName = tables.getResourceClassName(permissionsForResourceClass.getKey());
+               Set<P> permissions = permissionsByResourceClassName.get(resourceClassName);
+               if (permissions == null) {
+                  permissionsByResourceClassName.put(resourceClassName, permissions = new HashSet<>());
+               }
+               permissions.addAll(permissionsForResourceClass.getValue());
+            }
+         }
+      }
+      return permissionsByDomainNameAndResourceClassName;
+   }
+
+   // returns the resources of the specified class in the specified domains
+   protected Set<Resource> getResources(LongHashSet domainIds, long resourceClassId) {
+      Set<Resource> resources = new HashSet<>();
+      for (int i = 0; i < domainIds.size(); i++) {
+         for (Long resourceId : tables.getResourceIds(domainIds.get(i), resourceClassId)) {
+            resources.add(getResource(resourceId));
+         }
+      }
+      return resources;
+   }
+
+   // returns the resources with an id above afterResourceId in ascending id order, at most maxResources of them;
+   // the tables are already in memory, so a page is simply cut from the full result
+   protected static List<Resource> getResourcePage(Set<Resource> resources, long afterResourceId, int maxResources) {
+      final TreeMap<Long, Resource> resourcesById = new TreeMap<>();
+      for (Resource resource : resources) {
+         if (resource.getId() > afterResourceId) {
+            resourcesById.put(resource.getId(), resource);
+            if (resourcesById.size() > maxResources) {
+               resourcesById.pollLastEntry();
+            }
+         }
+      }
+      return new ArrayList<>(resourcesById.values());
+   }
+
+   protected Resource getResource(long resourceId) {
+      final ResourceEntry resourceEntry = tables.getResource(resourceId);
+      return resourceEntry == null ? Resources.getInstance(resourceId) : resourceEntry.toResource();
+   }
+
+   protected LongHashSet getInheritedAccessorIds(Resource accessorResource) {
+      return tables.getInheritedAccessorIds(accessorResource.getId());
+   }
+
+   // returns the ids of the first set that are also in the second set, in the order of the first set
+   protected static LongHashSet getCommonIds(LongHashSet ids, LongHashSet otherIds) {
+      final LongHashSet commonIds = new LongHashSet();
+      for (int i = 0; i < ids.size(); i++) {
+         if (otherIds.contains(ids.get(i))) {
+            commonIds.add(ids.get(i));
+         }
+      }
+      return commonIds;
+   }
+
+   // updates
+
+   protected void putPermissions(long accessorId,
+                                 long accessedId,
+                                 long resourceClassId,
+                                 Set<P> permissions,
+                                 Resource grantorResource) {
+      synchronized (tables) {
+         for (P permission : permissions) {
+            if (isPersistedHere(permission)) {
+               grantTable.putGrant(accessorId,
+                                   accessedId,
+                                   resourceClassId,
+                                   getPersistedPermissionName(permission),
+                                   newGrantEntry(permission, grantorResource.getId()));
+            }
+         }
+      }
+   }
+
+   protected void removePermissions(long accessorId,
+                                    long accessedId,
+                                    long resourceClassId,
+                                    Set<P> permissions) {
+      synchronized (tables) {
+         for (P permission : permissions) {
+            if (isPersistedHere(permission)) {
+               grantTable.removeGrant(accessorId,
+                                      accessedId,
+                                      resourceClassId,
+                                      getPersistedPermissionName(permission));
+            }
+         }
+      }
+   }
+
+   protected void removeAllPermissionsByAccessors(Set<Resource> accessorResources) {
+      synchronized (tables) {
+         for (Resource accessorResource : accessorResources) {
+            grantTable.removeGrantsByAccessor(accessorResource.getId());
+         }
+      }
+   }
+
+   // removes the grants on the specified domain and all its descendants
+   protected void removeAllPermissionsByDomain(long domainId) {
+      synchronized (tables) {
+         final LongHashSet descendantDomainIds = tables.getDescendantDomainIds(domainId);
+         for (int i = 0; i < descendantDomainIds.size(); i++) {
+            grantTable.removeGrantsByAccessed(descendantDomainIds.get(i));
+         }
+      }
+   }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourceCreatePermissions;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionPostCreatePersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantResourceCreatePermissionPostCreatePersister extends MemoryGrantPersister<ResourceCreatePermission>
+      implements GrantResourceCreatePermissionPostCreatePersister {
+
+   public MemoryGrantResourceCreatePermissionPostCreatePersister(MemoryTables tables) {
+      super(tables, tables.getGrantResourceCreatePermissionPostCreate());
+   }
+
+   @Override
+   protected boolean isPersistedHere(ResourceCreatePermission resourceCreatePermission) {
+      return !(resourceCreatePermission.isSystemPermission()
+            || resourceCreatePermission.getPostCreateResourcePermission().isSystemPermission());
+   }
+
+   @Override
+   protected String getPersistedPermissionName(ResourceCreatePermission resourceCreatePermission) {
+      return resourceCreatePermission.getPostCreateResourcePermission().getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(ResourceCreatePermission resourceCreatePermission, long grantorResourceId) {
+      return new GrantEntry(resourceCreatePermission.isWithGrantOption(),
+                            resourceCreatePermission.getPostCreateResourcePermission().isWithGrantOption(),
+                            grantorResourceId);
+   }
+
+   @Override
+   protected ResourceCreatePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      final ResourcePermission postCreatePermission
+            = ResourcePermissions.getInternedInstance(permissionName, grantEntry.isPostCreateWithGrant());
+
+      if (grantEntry.isWithGrant()) {
+         return ResourceCreatePermissions.getInstanceWithGrantOption(postCreatePermission);
+      }
+      else {
+         return ResourceCreatePermissions.getInstance(postCreatePermission);
+      }
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreatePostCreatePermissionsIncludeInherited(SQLConnection connection,
+                                                                                               Resource accessorResource,
+                                                                                               Id<ResourceClassId> resourceClassId,
+                                                                                               Id<DomainId> resourceDomainId) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            tables.getAncestorDomainIds(resourceDomainId.getValue()),
+                            resourceClassId.getValue());
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreatePostCreatePermissionsIncludeInherited(SQLConnection connection,
+                                                                                                                         Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(getInheritedAccessorIds(accessorResource), true);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                                                                         Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(LongHashSet.of(accessorResource.getId()), false);
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                                               Resource accessorResource,
+                                                                               Id<ResourceClassId> resourceClassId,
+                                                                               Id<DomainId> resourceDomainId) {
+      return getPermissions(accessorResource.getId(), resourceDomainId.getValue(), resourceClassId.getValue());
+   }
+
+   @Override
+   public void addResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                      Resource accessorResource,
+                                                      Id<ResourceClassId> accessedResourceClassId,
+                                                      Id<DomainId> accessedResourceDomainId,
+                                                      Set<ResourceCreatePermission> requestedResourceCreatePermissions,
+                                                      Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourceCreatePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> accessedResourceClassId,
+                                                         Id<DomainId> accessedResourceDomainId,
+                                                         Set<ResourceCreatePermission> requestedResourceCreatePermissions,
+                                                         Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourceCreatePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                            Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                            Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                            Id<DomainId> accessedDomainId) {
+      removeAllPermissionsByDomain(accessedDomainId.getValue());
+   }
+
+   @Override
+   public void removeResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> accessedResourceClassId,
+                                                         Id<DomainId> accessedResourceDomainId) {
+      grantTable.removeGrants(accessorResource.getId(),
+                              accessedResourceDomainId.getValue(),
+                              accessedResourceClassId.getValue());
+   }
+
+   @Override
+   public void removeResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> accessedResourceClassId,
+                                                         Id<DomainId> accessedResourceDomainId,
+                                                         Set<ResourceCreatePermission> requestedResourceCreatePermissions) {
+      removePermissions(accessorResource.getId(),
+                        accessedResourceDomainId.getValue(),
+                        accessedResourceClassId.getValue(),
+                        requestedResourceCreatePermissions);
+   }
+}
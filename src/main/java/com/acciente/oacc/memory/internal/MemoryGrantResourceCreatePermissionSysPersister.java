@@ -0,0 +1,163 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourceCreatePermissions;
+import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantResourceCreatePermissionSysPersister extends MemoryGrantPersister<ResourceCreatePermission>
+      implements GrantResourceCreatePermissionSysPersister {
+
+   public MemoryGrantResourceCreatePermissionSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantResourceCreatePermissionSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(ResourceCreatePermission resourceCreatePermission) {
+      return resourceCreatePermission.isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(ResourceCreatePermission resourceCreatePermission) {
+      return resourceCreatePermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(ResourceCreatePermission resourceCreatePermission, long grantorResourceId) {
+      return new GrantEntry(resourceCreatePermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected ResourceCreatePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      if (grantEntry.isWithGrant()) {
+         return ResourceCreatePermissions.getInstanceWithGrantOption(permissionName);
+      }
+      else {
+         return ResourceCreatePermissions.getInstance(permissionName);
+      }
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreateSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                        Resource accessorResource,
+                                                                                        Id<ResourceClassId> resourceClassId,
+                                                                                        Id<DomainId> resourceDomainId) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            tables.getAncestorDomainIds(resourceDomainId.getValue()),
+                            resourceClassId.getValue());
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreateSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                                                  Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(getInheritedAccessorIds(accessorResource), true);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreateSysPermissions(SQLConnection connection,
+                                                                                                  Resource accessorResource) {
+      return getPermissionsByDomainNameAndResourceClassName(LongHashSet.of(accessorResource.getId()), false);
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreateSysPermissions(SQLConnection connection,
+                                                                        Resource accessorResource,
+                                                                        Id<ResourceClassId> resourceClassId,
+                                                                        Id<DomainId> resourceDomainId) {
+      return getPermissions(accessorResource.getId(), resourceDomainId.getValue(), resourceClassId.getValue());
+   }
+
+   @Override
+   public void addResourceCreateSysPermissions(SQLConnection connection,
+                                               Resource accessorResource,
+                                               Id<ResourceClassId> accessedResourceClassId,
+                                               Id<DomainId> accessedResourceDomainId,
+                                               Set<ResourceCreatePermission> requestedResourceCreatePermissions,
+                                               Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourceCreatePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateResourceCreateSysPermissions(SQLConnection connection,
+                                                  Resource accessorResource,
+                                                  Id<ResourceClassId> accessedResourceClassId,
+                                                  Id<DomainId> accessedResourceDomainId,
+                                                  Set<ResourceCreatePermission> requestedResourceCreatePermissions,
+                                                  Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResourceDomainId.getValue(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourceCreatePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void removeAllResourceCreateSysPermissions(SQLConnection connection,
+                                                     Resource accessorResource) {
+      removeAllPermissionsByAccessors(Collections.singleton(accessorResource));
+   }
+
+   @Override
+   public void removeAllResourceCreateSysPermissions(SQLConnection connection,
+                                                     Set<Resource> accessorResources) {
+      removeAllPermissionsByAccessors(accessorResources);
+   }
+
+   @Override
+   public void removeAllResourceCreateSysPermissions(SQLConnection connection,
+                                                     Id<DomainId> accessedDomainId) {
+      removeAllPermissionsByDomain(accessedDomainId.getValue());
+   }
+
+   @Override
+   public void removeResourceCreateSysPermissions(SQLConnection connection,
+                                                  Resource accessorResource,
+                                                  Id<ResourceClassId> accessedResourceClassId,
+                                                  Id<DomainId> accessedResourceDomainId) {
+      grantTable.removeGrants(accessorResource.getId(),
+                              accessedResourceDomainId.getValue(),
+                              accessedResourceClassId.getValue());
+   }
+
+   @Override
+   public void removeResourceCreateSysPermissions(SQLConnection connection,
+                                                  Resource accessorResource,
+                                                  Id<ResourceClassId> accessedResourceClassId,
+                                                  Id<DomainId> accessedResourceDomainId,
+                                                  Set<ResourceCreatePermission> requestedResourceCreatePermissions) {
+      removePermissions(accessorResource.getId(),
+                        accessedResourceDomainId.getValue(),
+                        accessedResourceClassId.getValue(),
+                        requestedResourceCreatePermissions);
+   }
+}
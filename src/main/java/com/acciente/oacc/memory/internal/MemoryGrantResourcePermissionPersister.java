@@ -0,0 +1,337 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantResourcePermissionPersister extends MemoryGrantPersister<ResourcePermission>
+      implements GrantResourcePermissionPersister {
+   private static final long serialVersionUID = 1L;
+
+   public MemoryGrantResourcePermissionPersister(MemoryTables tables) {
+      super(tables, tables.getGrantResourcePermission());
+   }
+
+   @Override
+   protected boolean isPersistedHere(ResourcePermission resourcePermission) {
+      return !resourcePermission.isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(ResourcePermission resourcePermission) {
+      return resourcePermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(ResourcePermission resourcePermission, long grantorResourceId) {
+      return new GrantEntry(resourcePermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected ResourcePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      return ResourcePermissions.getInternedInstance(permissionName, grantEntry.isWithGrant());
+   }
+
+   private void assertPersistedHere(ResourcePermission resourcePermission) {
+      if (!isPersistedHere(resourcePermission)) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> resourceClassId,
+                                                         ResourcePermission resourcePermission,
+                                                         Id<ResourcePermissionId> resourcePermissionId) {
+      assertPersistedHere(resourcePermission);
+
+      Set<Resource> resources = new HashSet<>();
+      final LongHashSet accessedResourceIds = getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                             resourceClassId.getValue(),
+                                                             resourcePermission.getPermissionName(),
+                                                             resourcePermission.isWithGrantOption());
+      for (int i = 0; i < accessedResourceIds.size(); i++) {
+         final long accessedResourceId = accessedResourceIds.get(i);
+         resources.add(getResource(accessedResourceId));
+      }
+      return resources;
+   }
+
+   @Override
+   public List<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          ResourcePermission resourcePermission,
+                                                          Id<ResourcePermissionId> resourcePermissionId,
+                                                          long afterResourceId,
+                                                          int maxResources) {
+      return getResourcePage(getResourcesByResourcePermission(connection,
+                                                              accessorResource,
+                                                              resourceClassId,
+                                                              resourcePermission,
+                                                              resourcePermissionId),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> resourceClassId,
+                                                         Id<DomainId> resourceDomainId,
+                                                         ResourcePermission resourcePermission,
+                                                         Id<ResourcePermissionId> resourcePermissionId) {
+      assertPersistedHere(resourcePermission);
+
+      final LongHashSet domainIds = tables.getDescendantDomainIds(resourceDomainId.getValue());
+      Set<Resource> resources = new HashSet<>();
+      final LongHashSet accessedResourceIds = getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                             resourceClassId.getValue(),
+                                                             resourcePermission.getPermissionName(),
+                                                             resourcePermission.isWithGrantOption());
+      for (int i = 0; i < accessedResourceIds.size(); i++) {
+         final long accessedResourceId = accessedResourceIds.get(i);
+         final ResourceEntry resourceEntry = tables.getResource(accessedResourceId);
+         if (resourceEntry != null && domainIds.contains(resourceEntry.getDomainId())) {
+            resources.add(resourceEntry.toResource());
+         }
+      }
+      return resources;
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourcePermission(SQLConnection connection,
+                                                                 Resource accessedResource,
+                                                                 Id<ResourceClassId> resourceClassId,
+                                                                 ResourcePermission resourcePermission,
+                                                                 Id<ResourcePermissionId> resourcePermissionId) {
+      assertPersistedHere(resourcePermission);
+
+      Set<Resource> resources = new HashSet<>();
+      for (Long accessorResourceId : grantTable.getAccessorIds(accessedResource.getId())) {
+         final GrantEntry grantEntry = grantTable.getGrant(accessorResourceId,
+                                                           accessedResource.getId(),
+                                                           resourceClassId.getValue(),
+                                                           resourcePermission.getPermissionName());
+         if (grantEntry != null && grantEntry.matches(resourcePermission.isWithGrantOption())) {
+            resources.add(getResource(accessorResourceId));
+         }
+      }
+      return resources;
+   }
+
+   @Override
+   public List<Resource> getAccessorResourcesByResourcePermission(SQLConnection connection,
+                                                                  Resource accessedResource,
+                                                                  Id<ResourceClassId> resourceClassId,
+                                                                  ResourcePermission resourcePermission,
+                                                                  Id<ResourcePermissionId> resourcePermissionId,
+                                                                  long afterResourceId,
+                                                                  int maxResources) {
+      return getResourcePage(getAccessorResourcesByResourcePermission(connection,
+                                                                      accessedResource,
+                                                                      resourceClassId,
+                                                                      resourcePermission,
+                                                                      resourcePermissionId),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                                        Resource accessorResource,
+                                                                                        Set<Resource> accessedResources) {
+      final LongHashSet inheritedAccessorIds = getInheritedAccessorIds(accessorResource);
+      Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+      for (Resource accessedResource : accessedResources) {
+         final Set<ResourcePermission> resourcePermissions
+               = getPermissions(inheritedAccessorIds, LongHashSet.of(accessedResource.getId()), null);
+         if (!resourcePermissions.isEmpty()) {
+            resourcePermissionsMap.put(Resources.getInstance(accessedResource.getId()), resourcePermissions);
+         }
+      }
+      return resourcePermissionsMap;
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                         Resource accessorResource,
+                                                                         Resource accessedResource) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            LongHashSet.of(accessedResource.getId()),
+                            null);
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourcePermissions(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Resource accessedResource) {
+      return getPermissions(accessorResource.getId(), accessedResource.getId(), null);
+   }
+
+   @Override
+   public boolean hasResourcePermissions(SQLConnection connection,
+                                         Id<ResourceClassId> resourceClassId) {
+      return hasPermissions(resourceClassId.getValue());
+   }
+
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getAccessorResourcePermissionsMap(SQLConnection connection,
+                                                                                   Resource accessedResource) {
+      Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+      for (Long accessorResourceId : grantTable.getAccessorIds(accessedResource.getId())) {
+         final Set<ResourcePermission> resourcePermissions
+               = getPermissions(accessorResourceId, accessedResource.getId(), null);
+         if (!resourcePermissions.isEmpty()) {
+            resourcePermissionsMap.put(Resources.getInstance(accessorResourceId), resourcePermissions);
+         }
+      }
+      return resourcePermissionsMap;
+   }
+
+   @Override
+   public void addResourcePermissions(SQLConnection connection,
+                                      Resource accessorResource,
+                                      Resource accessedResource,
+                                      Id<ResourceClassId> accessedResourceClassId,
+                                      Set<ResourcePermission> requestedResourcePermissions,
+                                      Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResource.getId(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void addResourcePermissions(SQLConnection connection,
+                                      Set<Resource> accessorResources,
+                                      Resource accessedResource,
+                                      Id<ResourceClassId> accessedResourceClassId,
+                                      Set<ResourcePermission> requestedResourcePermissions,
+                                      Resource grantorResource) {
+      for (Resource accessorResource : accessorResources) {
+         addResourcePermissions(connection,
+                                accessorResource,
+                                accessedResource,
+                                accessedResourceClassId,
+                                requestedResourcePermissions,
+                                grantorResource);
+      }
+   }
+
+   @Override
+   public void updateResourcePermissions(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResource.getId(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateResourcePermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      for (Resource accessorResource : accessorResources) {
+         updateResourcePermissions(connection,
+                                   accessorResource,
+                                   accessedResource,
+                                   accessedResourceClassId,
+                                   requestedResourcePermissions,
+                                   grantorResource);
+      }
+   }
+
+   @Override
+   public void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                Resource resource) {
+      removeAllResourcePermissionsAsAccessorOrAccessed(connection, Collections.singleton(resource));
+   }
+
+   @Override
+   public void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                Set<Resource> resources) {
+      synchronized (tables) {
+         for (Resource resource : resources) {
+            grantTable.removeGrantsByAccessor(resource.getId());
+            grantTable.removeGrantsByAccessed(resource.getId());
+         }
+      }
+   }
+
+   @Override
+   public void removeResourcePermissions(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Resource accessedResource) {
+      grantTable.removeGrants(accessorResource.getId(), accessedResource.getId());
+   }
+
+   @Override
+   public void removeResourcePermissions(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions) {
+      removePermissions(accessorResource.getId(),
+                        accessedResource.getId(),
+                        accessedResourceClassId.getValue(),
+                        requestedResourcePermissions);
+   }
+
+   @Override
+   public void removeResourcePermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions) {
+      for (Resource accessorResource : accessorResources) {
+         removeResourcePermissions(connection,
+                                   accessorResource,
+                                   accessedResource,
+                                   accessedResourceClassId,
+                                   requestedResourcePermissions);
+      }
+   }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryGrantResourcePermissionSysPersister extends MemoryGrantPersister<ResourcePermission>
+      implements GrantResourcePermissionSysPersister {
+
+   public MemoryGrantResourcePermissionSysPersister(MemoryTables tables) {
+      super(tables, tables.getGrantResourcePermissionSys());
+   }
+
+   @Override
+   protected boolean isPersistedHere(ResourcePermission resourcePermission) {
+      return resourcePermission.isSystemPermission();
+   }
+
+   @Override
+   protected String getPersistedPermissionName(ResourcePermission resourcePermission) {
+      return resourcePermission.getPermissionName();
+   }
+
+   @Override
+   protected GrantEntry newGrantEntry(ResourcePermission resourcePermission, long grantorResourceId) {
+      return new GrantEntry(resourcePermission.isWithGrantOption(), false, grantorResourceId);
+   }
+
+   @Override
+   protected ResourcePermission newPermission(String permissionName, GrantEntry grantEntry) {
+      return ResourcePermissions.getInternedInstance(permissionName, grantEntry.isWithGrant());
+   }
+
+   private void assertPersistedHere(ResourcePermission resourcePermission) {
+      if (!isPersistedHere(resourcePermission)) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                            Resource accessorResource,
+                                                            Id<ResourceClassId> resourceClassId,
+                                                            ResourcePermission resourcePermission) {
+      assertPersistedHere(resourcePermission);
+
+      Set<Resource> resources = new HashSet<>();
+      final LongHashSet accessedResourceIds = getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                             resourceClassId.getValue(),
+                                                             resourcePermission.getPermissionName(),
+                                                             resourcePermission.isWithGrantOption());
+      for (int i = 0; i < accessedResourceIds.size(); i++) {
+         final long accessedResourceId = accessedResourceIds.get(i);
+         resources.add(getResource(accessedResourceId));
+      }
+      return resources;
+   }
+
+   @Override
+   public List<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                             Resource accessorResource,
+                                                             Id<ResourceClassId> resourceClassId,
+                                                             ResourcePermission resourcePermission,
+                                                             long afterResourceId,
+                                                             int maxResources) {
+      return getResourcePage(getResourcesByResourceSysPermission(connection,
+                                                                 accessorResource,
+                                                                 resourceClassId,
+                                                                 resourcePermission),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                            Resource accessorResource,
+                                                            Id<ResourceClassId> resourceClassId,
+                                                            Id<DomainId> resourceDomainId,
+                                                            ResourcePermission resourcePermission) {
+      assertPersistedHere(resourcePermission);
+
+      final LongHashSet domainIds = tables.getDescendantDomainIds(resourceDomainId.getValue());
+      Set<Resource> resources = new HashSet<>();
+      final LongHashSet accessedResourceIds = getAccessedIds(getInheritedAccessorIds(accessorResource),
+                                                             resourceClassId.getValue(),
+                                                             resourcePermission.getPermissionName(),
+                                                             resourcePermission.isWithGrantOption());
+      for (int i = 0; i < accessedResourceIds.size(); i++) {
+         final long accessedResourceId = accessedResourceIds.get(i);
+         final ResourceEntry resourceEntry = tables.getResource(accessedResourceId);
+         if (resourceEntry != null && domainIds.contains(resourceEntry.getDomainId())) {
+            resources.add(resourceEntry.toResource());
+         }
+      }
+      return resources;
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourceSysPermission(SQLConnection connection,
+                                                                    Resource accessedResource,
+                                                                    Id<ResourceClassId> resourceClassId,
+                                                                    ResourcePermission resourcePermission) {
+      assertPersistedHere(resourcePermission);
+
+      Set<Resource> resources = new HashSet<>();
+      for (Long accessorResourceId : grantTable.getAccessorIds(accessedResource.getId())) {
+         final GrantEntry grantEntry = grantTable.getGrant(accessorResourceId,
+                                                           accessedResource.getId(),
+                                                           resourceClassId.getValue(),
+                                                           resourcePermission.getPermissionName());
+         if (grantEntry != null && grantEntry.matches(resourcePermission.isWithGrantOption())) {
+            resources.add(getResource(accessorResourceId));
+         }
+      }
+      return resources;
+   }
+
+   @Override
+   public List<Resource> getAccessorResourcesByResourceSysPermission(SQLConnection connection,
+                                                                     Resource accessedResource,
+                                                                     Id<ResourceClassId> resourceClassId,
+                                                                     ResourcePermission resourcePermission,
+                                                                     long afterResourceId,
+                                                                     int maxResources) {
+      return getResourcePage(getAccessorResourcesByResourceSysPermission(connection,
+                                                                         accessedResource,
+                                                                         resourceClassId,
+                                                                         resourcePermission),
+                             afterResourceId,
+                             maxResources);
+   }
+
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                           Resource accessorResource,
+                                                                                           Set<Resource> accessedResources) {
+      final LongHashSet inheritedAccessorIds = getInheritedAccessorIds(accessorResource);
+      Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+      for (Resource accessedResource : accessedResources) {
+         final Set<ResourcePermission> resourcePermissions
+               = getPermissions(inheritedAccessorIds, LongHashSet.of(accessedResource.getId()), null);
+         if (!resourcePermissions.isEmpty()) {
+            resourcePermissionsMap.put(Resources.getInstance(accessedResource.getId()), resourcePermissions);
+         }
+      }
+      return resourcePermissionsMap;
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                            Resource accessorResource,
+                                                                            Resource accessedResource) {
+      return getPermissions(getInheritedAccessorIds(accessorResource),
+                            LongHashSet.of(accessedResource.getId()),
+                            null);
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourceSysPermissions(SQLConnection connection,
+                                                            Resource accessorResource,
+                                                            Resource accessedResource) {
+      return getPermissions(accessorResource.getId(), accessedResource.getId(), null);
+   }
+
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getAccessorResourceSysPermissionsMap(SQLConnection connection,
+                                                                                      Resource accessedResource) {
+      Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+      for (Long accessorResourceId : grantTable.getAccessorIds(accessedResource.getId())) {
+         final Set<ResourcePermission> resourcePermissions
+               = getPermissions(accessorResourceId, accessedResource.getId(), null);
+         if (!resourcePermissions.isEmpty()) {
+            resourcePermissionsMap.put(Resources.getInstance(accessorResourceId), resourcePermissions);
+         }
+      }
+      return resourcePermissionsMap;
+   }
+
+   @Override
+   public Resource findInheritedResource(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Set<Resource> candidateResources) {
+      final LongHashSet inheritedAccessorIds = getInheritedAccessorIds(accessorResource);
+      for (Resource candidateResource : candidateResources) {
+         if (inheritedAccessorIds.contains(candidateResource.getId())) {
+            return candidateResource;
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public Set<Resource> getInheritedResources(SQLConnection connection,
+                                              Resource accessorResource) {
+      final Set<Resource> inheritedResources = new HashSet<>();
+      final LongHashSet inheritedAccessorIds = getInheritedAccessorIds(accessorResource);
+      for (int i = 0; i < inheritedAccessorIds.size(); i++) {
+         if (inheritedAccessorIds.get(i) != accessorResource.getId()) {
+            inheritedResources.add(getResource(inheritedAccessorIds.get(i)));
+         }
+      }
+      return inheritedResources;
+   }
+
+   @Override
+   public void addResourceSysPermissions(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResource.getId(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void addResourceSysPermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      for (Resource accessorResource : accessorResources) {
+         addResourceSysPermissions(connection,
+                                   accessorResource,
+                                   accessedResource,
+                                   accessedResourceClassId,
+                                   requestedResourcePermissions,
+                                   grantorResource);
+      }
+   }
+
+   @Override
+   public void updateResourceSysPermissions(SQLConnection connection,
+                                            Resource accessorResource,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions,
+                                            Resource grantorResource) {
+      putPermissions(accessorResource.getId(),
+                     accessedResource.getId(),
+                     accessedResourceClassId.getValue(),
+                     requestedResourcePermissions,
+                     grantorResource);
+   }
+
+   @Override
+   public void updateResourceSysPermissions(SQLConnection connection,
+                                            Set<Resource> accessorResources,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions,
+                                            Resource grantorResource) {
+      for (Resource accessorResource : accessorResources) {
+         updateResourceSysPermissions(connection,
+                                      accessorResource,
+                                      accessedResource,
+                                      accessedResourceClassId,
+                                      requestedResourcePermissions,
+                                      grantorResource);
+      }
+   }
+
+   @Override
+   public void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                   Resource resource) {
+      removeAllResourceSysPermissionsAsAccessorOrAccessed(connection, Collections.singleton(resource));
+   }
+
+   @Override
+   public void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                   Set<Resource> resources) {
+      synchronized (tables) {
+         for (Resource resource : resources) {
+            grantTable.removeGrantsByAccessor(resource.getId());
+            grantTable.removeGrantsByAccessed(resource.getId());
+         }
+      }
+   }
+
+   @Override
+   public void removeResourceSysPermissions(SQLConnection connection,
+                                            Resource accessorResource,
+                                            Resource accessedResource) {
+      grantTable.removeGrants(accessorResource.getId(), accessedResource.getId());
+   }
+
+   @Override
+   public void removeResourceSysPermissions(SQLConnection connection,
+                                            Resource accessorResource,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions) {
+      removePermissions(accessorResource.getId(),
+                        accessedResource.getId(),
+                        accessedResourceClassId.getValue(),
+                        requestedResourcePermissions);
+   }
+
+   @Override
+   public void removeResourceSysPermissions(SQLConnection connection,
+                                            Set<Resource> accessorResources,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions) {
+      for (Resource accessorResource : accessorResources) {
+         removeResourceSysPermissions(connection,
+                                      accessorResource,
+                                      accessedResource,
+                                      accessedResourceClassId,
+                                      requestedResourcePermissions);
+      }
+   }
+}
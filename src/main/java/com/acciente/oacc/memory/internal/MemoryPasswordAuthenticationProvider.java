@@ -0,0 +1,279 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.Credentials;
+import com.acciente.oacc.IncorrectCredentialsException;
+import com.acciente.oacc.InvalidCredentialsException;
+import com.acciente.oacc.PasswordCredentials;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.TokenCredentials;
+import com.acciente.oacc.UnsupportedCredentialsException;
+import com.acciente.oacc.sql.internal.BulkCredentialsDeleter;
+import com.acciente.oacc.sql.internal.BulkCredentialsSetter;
+import com.acciente.oacc.sql.internal.CleanablePasswordEncryptor;
+import com.acciente.oacc.sql.internal.PBKDF2CleanablePasswordEncryptor;
+import com.acciente.oacc.sql.internal.PasswordHashingExecutor;
+import com.acciente.oacc.sql.internal.PasswordUtils;
+import com.acciente.oacc.sql.internal.SessionTokens;
+import com.acciente.oacc.sql.internal.StrongCleanablePasswordEncryptor;
+import com.acciente.oacc.sql.internal.TokenCredentialsIssuer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+public class MemoryPasswordAuthenticationProvider implements AuthenticationProvider,
+                                                             TokenCredentialsIssuer,
+                                                             BulkCredentialsSetter,
+                                                             BulkCredentialsDeleter {
+   private final MemoryTables               tables;
+   private final CleanablePasswordEncryptor passwordEncryptor;
+
+   public MemoryPasswordAuthenticationProvider(MemoryTables tables) {
+      this.tables = tables;
+      this.passwordEncryptor = new StrongCleanablePasswordEncryptor();
+   }
+
+   @Override
+   public void authenticate(Resource resource, Credentials credentials) {
+      assertCredentialSpecified(credentials);
+
+      if (credentials instanceof TokenCredentials) {
+         authenticate(resource, (TokenCredentials) credentials);
+         return;
+      }
+
+      assertSupportedCredentials(credentials);
+
+      final PasswordCredentials passwordCredentials = ((PasswordCredentials) credentials);
+
+      if (passwordCredentials.getPassword() == null) {
+         throw new InvalidCredentialsException("Password required, none specified");
+      }
+
+      // first locate the resource
+      final String encryptedBoundPassword = getEncryptedBoundPassword(resource);
+
+      char[] plainBoundPassword = null;
+      try {
+         plainBoundPassword = PasswordUtils.computeBoundPassword(resource, passwordCredentials.getPassword());
+
+         if (!checkPassword(plainBoundPassword, encryptedBoundPassword)) {
+            throw new IncorrectCredentialsException("Invalid password for resource " + resource);
+         }
+
+         // upgrade a digest made with an older algorithm or iteration count, now that we know the password;
+         // a concurrent change of the credentials wins over the rehash
+         final PBKDF2CleanablePasswordEncryptor pbkdf2PasswordEncryptor
+               = PBKDF2CleanablePasswordEncryptor.getInstance(tables);
+         if (pbkdf2PasswordEncryptor != null && pbkdf2PasswordEncryptor.needsRehash(encryptedBoundPassword)) {
+            tables.replaceEncryptedBoundPassword(resource.getId(),
+                                                 encryptedBoundPassword,
+                                                 encryptPassword(plainBoundPassword));
+         }
+      }
+      finally {
+         PasswordUtils.cleanPassword(plainBoundPassword);
+      }
+   }
+
+   private void authenticate(Resource resource, TokenCredentials tokenCredentials) {
+      final SessionTokens sessionTokens = SessionTokens.getInstance(tables);
+      if (sessionTokens == null) {
+         throw new UnsupportedCredentialsException(tokenCredentials.getClass());
+      }
+
+      if (tokenCredentials.getToken() == null) {
+         throw new InvalidCredentialsException("Token required, none specified");
+      }
+
+      if (!sessionTokens.verify(resource, getEncryptedBoundPassword(resource), tokenCredentials.getToken())) {
+         throw new IncorrectCredentialsException("Invalid or expired token for resource " + resource);
+      }
+   }
+
+   @Override
+   public TokenCredentials issueTokenCredentials(Resource resource) {
+      final SessionTokens sessionTokens = SessionTokens.getInstance(tables);
+      if (sessionTokens == null) {
+         return null;
+      }
+      return sessionTokens.issue(resource, getEncryptedBoundPassword(resource));
+   }
+
+   @Override
+   public void authenticate(Resource resource) {
+      throw new UnsupportedOperationException("The built-in password authentication provider does not support authentication without credentials");
+   }
+
+   @Override
+   public void validateCredentials(String resourceClassName, String domainName, Credentials credentials) {
+      if (credentials == null) {
+         // instead of a NullPointerException we explicitly throw the InvalidCredentialsException
+         // to distinguish from a programming error the indication that this implementation
+         // does not support null credentials
+         throw new InvalidCredentialsException("Credentials required, none specified");
+      }
+
+      assertSupportedCredentials(credentials);
+
+      final char[] password = ((PasswordCredentials) credentials).getPassword();
+
+      if (password == null) {
+         throw new InvalidCredentialsException("Password required, none specified");
+      }
+
+      if (password.length == 0) {
+         throw new InvalidCredentialsException("Password cannot be zero length");
+      }
+
+      if (isBlank(password)) {
+         throw new InvalidCredentialsException("Password cannot be blank");
+      }
+   }
+
+   @Override
+   public void setCredentials(Resource resource, Credentials credentials) {
+      assertCredentialSpecified(credentials);
+      assertSupportedCredentials(credentials);
+
+      char[] newBoundPassword = null;
+      try {
+         newBoundPassword = PasswordUtils.computeBoundPassword(resource,
+                                                               ((PasswordCredentials) credentials).getPassword());
+         tables.setEncryptedBoundPassword(resource.getId(), encryptPassword(newBoundPassword));
+      }
+      finally {
+         PasswordUtils.cleanPassword(newBoundPassword);
+      }
+   }
+
+   @Override
+   public void setCredentials(Map<Resource, Credentials> newCredentialsByResource) {
+      final Map<Resource, char[]> passwordsByResource = new HashMap<>(newCredentialsByResource.size());
+      for (Map.Entry<Resource, Credentials> credentialsEntry : newCredentialsByResource.entrySet()) {
+         assertCredentialSpecified(credentialsEntry.getValue());
+         assertSupportedCredentials(credentialsEntry.getValue());
+
+         passwordsByResource.put(credentialsEntry.getKey(),
+                                 ((PasswordCredentials) credentialsEntry.getValue()).getPassword());
+      }
+
+      final Map<Resource, String> newEncryptedBoundPasswords
+            = PasswordHashingExecutor.encryptBoundPasswords(tables, getPasswordEncryptor(), passwordsByResource);
+
+      final Map<Long, String> newEncryptedBoundPasswordsByResourceId = new HashMap<>(newEncryptedBoundPasswords.size());
+      for (Map.Entry<Resource, String> encryptedBoundPasswordEntry : newEncryptedBoundPasswords.entrySet()) {
+         newEncryptedBoundPasswordsByResourceId.put(encryptedBoundPasswordEntry.getKey().getId(),
+                                                    encryptedBoundPasswordEntry.getValue());
+      }
+      tables.setEncryptedBoundPasswords(newEncryptedBoundPasswordsByResourceId);
+   }
+
+   @Override
+   public void deleteCredentials(Resource resource) {
+      if (!tables.removeEncryptedBoundPassword(resource.getId())) {
+         throw new IllegalStateException("Security table data update, 1 row expected, got: 0");
+      }
+   }
+
+   @Override
+   public void deleteCredentials(Set<Resource> resources) {
+      int rowCount = 0;
+      for (Resource resource : resources) {
+         if (tables.removeEncryptedBoundPassword(resource.getId())) {
+            rowCount++;
+         }
+      }
+      if (rowCount != resources.size()) {
+         throw new IllegalStateException("Security table data update, " + resources.size() + " rows expected, got: " + rowCount);
+      }
+   }
+
+   private CleanablePasswordEncryptor getPasswordEncryptor() {
+      final PBKDF2CleanablePasswordEncryptor pbkdf2PasswordEncryptor
+            = PBKDF2CleanablePasswordEncryptor.getInstance(tables);
+      return pbkdf2PasswordEncryptor != null ? pbkdf2PasswordEncryptor : passwordEncryptor;
+   }
+
+   private boolean checkPassword(final char[] plainBoundPassword, final String encryptedBoundPassword) {
+      final CleanablePasswordEncryptor effectivePasswordEncryptor = getPasswordEncryptor();
+      final PasswordHashingExecutor passwordHashingExecutor = PasswordHashingExecutor.getInstance(tables);
+      if (passwordHashingExecutor == null) {
+         return effectivePasswordEncryptor.checkPassword(plainBoundPassword, encryptedBoundPassword);
+      }
+
+      return passwordHashingExecutor.execute(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return effectivePasswordEncryptor.checkPassword(plainBoundPassword, encryptedBoundPassword);
+         }
+      });
+   }
+
+   private String encryptPassword(final char[] plainBoundPassword) {
+      final CleanablePasswordEncryptor effectivePasswordEncryptor = getPasswordEncryptor();
+      final PasswordHashingExecutor passwordHashingExecutor = PasswordHashingExecutor.getInstance(tables);
+      if (passwordHashingExecutor == null) {
+         return effectivePasswordEncryptor.encryptPassword(plainBoundPassword);
+      }
+
+      return passwordHashingExecutor.execute(new Callable<String>() {
+         @Override
+         public String call() {
+            return effectivePasswordEncryptor.encryptPassword(plainBoundPassword);
+         }
+      });
+   }
+
+   private String getEncryptedBoundPassword(Resource resource) {
+      if (tables.getResource(resource.getId()) == null) {
+         throw new IllegalArgumentException(resource + " not found!");
+      }
+
+      final String encryptedBoundPassword = tables.getEncryptedBoundPassword(resource.getId());
+      if (encryptedBoundPassword == null) {
+         throw new IllegalStateException(resource + " has no password set!");
+      }
+      return encryptedBoundPassword;
+   }
+
+   private void assertCredentialSpecified(Credentials credentials) {
+      if (credentials == null) {
+         throw new NullPointerException("Credentials required, none specified");
+      }
+   }
+
+   private void assertSupportedCredentials(Credentials credentials) {
+      if (!(credentials instanceof PasswordCredentials)) {
+         throw new UnsupportedCredentialsException(credentials.getClass());
+      }
+   }
+
+   private boolean isBlank(char[] charArray) {
+      for (char c : charArray) {
+         if (!Character.isWhitespace(c)) {
+            return false;
+         }
+      }
+      return true;
+   }
+}
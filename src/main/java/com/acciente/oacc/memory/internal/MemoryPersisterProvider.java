@@ -0,0 +1,171 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.sql.internal.persister.ChangeLogPersister;
+import com.acciente.oacc.sql.internal.persister.DomainPersister;
+import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionPostCreateSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantDomainPermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantGlobalResourcePermissionPersister;
+import com.acciente.oacc.sql.internal.persister.GrantGlobalResourcePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionPostCreatePersister;
+import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionPostCreateSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionPersister;
+import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionSysPersister;
+import com.acciente.oacc.sql.internal.persister.PersisterProvider;
+import com.acciente.oacc.sql.internal.persister.ResourceClassPermissionPersister;
+import com.acciente.oacc.sql.internal.persister.ResourceClassPersister;
+import com.acciente.oacc.sql.internal.persister.ResourcePersister;
+import com.acciente.oacc.sql.internal.persister.SnapshotPersister;
+
+public class MemoryPersisterProvider implements PersisterProvider {
+   private final ResourceClassPersister                              resourceClassPersister;
+   private final ResourceClassPermissionPersister                    resourceClassPermissionPersister;
+   private final DomainPersister                                     domainPersister;
+   private final GrantDomainCreatePermissionSysPersister             grantDomainCreatePermissionSysPersister;
+   private final GrantDomainCreatePermissionPostCreateSysPersister   grantDomainCreatePermissionPostCreateSysPersister;
+   private final GrantDomainPermissionSysPersister                   grantDomainPermissionSysPersister;
+   private final ResourcePersister                                   resourcePersister;
+   private final GrantResourceCreatePermissionSysPersister           grantResourceCreatePermissionSysPersister;
+   private final GrantResourceCreatePermissionPostCreateSysPersister grantResourceCreatePermissionPostCreateSysPersister;
+   private final GrantResourceCreatePermissionPostCreatePersister    grantResourceCreatePermissionPostCreatePersister;
+   private final GrantResourcePermissionSysPersister                 grantResourcePermissionSysPersister;
+   private final GrantGlobalResourcePermissionSysPersister           grantGlobalResourcePermissionSysPersister;
+   private final GrantResourcePermissionPersister                    grantResourcePermissionPersister;
+   private final GrantGlobalResourcePermissionPersister              grantGlobalResourcePermissionPersister;
+   private final SnapshotPersister                                   snapshotPersister;
+   private final ChangeLogPersister                                  changeLogPersister;
+
+   public MemoryPersisterProvider(MemoryTables tables) {
+      // all persisters operate on the same set of in-memory tables
+      resourceClassPersister
+            = new MemoryResourceClassPersister(tables);
+      resourceClassPermissionPersister
+            = new MemoryResourceClassPermissionPersister(tables);
+      domainPersister
+            = new MemoryDomainPersister(tables);
+      grantDomainCreatePermissionSysPersister
+            = new MemoryGrantDomainCreatePermissionSysPersister(tables);
+      grantDomainCreatePermissionPostCreateSysPersister
+            = new MemoryGrantDomainCreatePermissionPostCreateSysPersister(tables);
+      grantDomainPermissionSysPersister
+            = new MemoryGrantDomainPermissionSysPersister(tables);
+      resourcePersister
+            = new MemoryResourcePersister(tables);
+      grantResourceCreatePermissionSysPersister
+            = new MemoryGrantResourceCreatePermissionSysPersister(tables);
+      grantResourceCreatePermissionPostCreateSysPersister
+            = new MemoryGrantResourceCreatePermissionPostCreateSysPersister(tables);
+      grantResourceCreatePermissionPostCreatePersister
+            = new MemoryGrantResourceCreatePermissionPostCreatePersister(tables);
+      grantResourcePermissionSysPersister
+            = new MemoryGrantResourcePermissionSysPersister(tables);
+      grantGlobalResourcePermissionSysPersister
+            = new MemoryGrantGlobalResourcePermissionSysPersister(tables);
+      grantResourcePermissionPersister
+            = new MemoryGrantResourcePermissionPersister(tables);
+      grantGlobalResourcePermissionPersister
+            = new MemoryGrantGlobalResourcePermissionPersister(tables);
+      snapshotPersister
+            = new MemorySnapshotPersister(tables);
+      changeLogPersister
+            = new MemoryChangeLogPersister(tables);
+   }
+
+   @Override
+   public ResourceClassPersister getResourceClassPersister() {
+      return resourceClassPersister;
+   }
+
+   @Override
+   public ResourceClassPermissionPersister getResourceClassPermissionPersister() {
+      return resourceClassPermissionPersister;
+   }
+
+   @Override
+   public DomainPersister getDomainPersister() {
+      return domainPersister;
+   }
+
+   @Override
+   public GrantDomainCreatePermissionSysPersister getGrantDomainCreatePermissionSysPersister() {
+      return grantDomainCreatePermissionSysPersister;
+   }
+
+   @Override
+   public GrantDomainCreatePermissionPostCreateSysPersister getGrantDomainCreatePermissionPostCreateSysPersister() {
+      return grantDomainCreatePermissionPostCreateSysPersister;
+   }
+
+   @Override
+   public GrantDomainPermissionSysPersister getGrantDomainPermissionSysPersister() {
+      return grantDomainPermissionSysPersister;
+   }
+
+   @Override
+   public ResourcePersister getResourcePersister() {
+      return resourcePersister;
+   }
+
+   @Override
+   public GrantResourceCreatePermissionSysPersister getGrantResourceCreatePermissionSysPersister() {
+      return grantResourceCreatePermissionSysPersister;
+   }
+
+   @Override
+   public GrantResourceCreatePermissionPostCreateSysPersister getGrantResourceCreatePermissionPostCreateSysPersister() {
+      return grantResourceCreatePermissionPostCreateSysPersister;
+   }
+
+   @Override
+   public GrantResourceCreatePermissionPostCreatePersister getGrantResourceCreatePermissionPostCreatePersister() {
+      return grantResourceCreatePermissionPostCreatePersister;
+   }
+
+   @Override
+   public GrantResourcePermissionSysPersister getGrantResourcePermissionSysPersister() {
+      return grantResourcePermissionSysPersister;
+   }
+
+   @Override
+   public GrantGlobalResourcePermissionSysPersister getGrantGlobalResourcePermissionSysPersister() {
+      return grantGlobalResourcePermissionSysPersister;
+   }
+
+   @Override
+   public GrantResourcePermissionPersister getGrantResourcePermissionPersister() {
+      return grantResourcePermissionPersister;
+   }
+
+   @Override
+   public GrantGlobalResourcePermissionPersister getGrantGlobalResourcePermissionPersister() {
+      return grantGlobalResourcePermissionPersister;
+   }
+
+   @Override
+   public SnapshotPersister getSnapshotPersister() {
+      return snapshotPersister;
+   }
+
+   @Override
+   public ChangeLogPersister getChangeLogPersister() {
+      return changeLogPersister;
+   }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.sql.internal.persister.ResourceClassPermissionPersister;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
+
+import java.util.Collections;
+import java.util.List;
+
+public class MemoryResourceClassPermissionPersister implements ResourceClassPermissionPersister {
+   private final MemoryTables tables;
+
+   public MemoryResourceClassPermissionPersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public Id<ResourcePermissionId> getResourceClassPermissionId(SQLConnection connection,
+                                                                Id<ResourceClassId> resourceClassId,
+                                                                String permissionName) {
+      final ResourceClassEntry resourceClassEntry = tables.getResourceClass(resourceClassId.getValue());
+      if (resourceClassEntry == null) {
+         return null;
+      }
+
+      final Long permissionId = resourceClassEntry.getPermissionId(permissionName);
+      return permissionId == null ? null : Id.<ResourcePermissionId>from(permissionId);
+   }
+
+   @Override
+   public List<String> getPermissionNames(SQLConnection connection, String resourceClassName) {
+      final Long resourceClassId = tables.getResourceClassId(resourceClassName);
+      if (resourceClassId == null) {
+         return Collections.emptyList();
+      }
+
+      return tables.getResourceClass(resourceClassId).getPermissionNames();
+   }
+
+   @Override
+   public void addResourceClassPermission(SQLConnection connection,
+                                          Id<ResourceClassId> resourceClassId,
+                                          String permissionName) {
+      tables.addResourceClassPermission(resourceClassId.getValue(), permissionName);
+   }
+}
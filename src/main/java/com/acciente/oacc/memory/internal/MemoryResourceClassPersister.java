@@ -0,0 +1,110 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.ResourceClassInternalInfo;
+import com.acciente.oacc.sql.internal.persister.ResourceClassPersister;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryResourceClassPersister implements ResourceClassPersister {
+   private final MemoryTables tables;
+
+   public MemoryResourceClassPersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public Id<ResourceClassId> getResourceClassId(SQLConnection connection,
+                                                 String resourceClassName) {
+      final Long resourceClassId = tables.getResourceClassId(resourceClassName);
+      return resourceClassId == null ? null : Id.<ResourceClassId>from(resourceClassId);
+   }
+
+   @Override
+   public ResourceClassInternalInfo getResourceClassInfo(SQLConnection connection,
+                                                         String resourceClassName) {
+      if (resourceClassName == null) {
+         throw new IllegalArgumentException("Resource class name cannot be null");
+      }
+
+      final Long resourceClassId = tables.getResourceClassId(resourceClassName.trim());
+      return resourceClassId == null ? null : newResourceClassInternalInfo(tables.getResourceClass(resourceClassId));
+   }
+
+   @Override
+   public ResourceClassInternalInfo getResourceClassInfoByResourceId(SQLConnection connection,
+                                                                     Resource resource) {
+      final ResourceEntry resourceEntry = tables.getResource(resource.getId());
+      if (resourceEntry == null) {
+         throw new IllegalArgumentException("Could not determine resource class for resource: " + resource);
+      }
+
+      return newResourceClassInternalInfo(tables.getResourceClass(resourceEntry.getResourceClassId()));
+   }
+
+   @Override
+   public Map<Resource, ResourceClassInternalInfo> getResourceClassInfosByResourceIds(SQLConnection connection,
+                                                                                      Set<Resource> resources) {
+      // resources that do not exist are simply absent from the returned map
+      final Map<Resource, ResourceClassInternalInfo> resourceClassInternalInfos = new HashMap<>(resources.size());
+      for (Resource resource : resources) {
+         final ResourceEntry resourceEntry = tables.getResource(resource.getId());
+         if (resourceEntry != null) {
+            resourceClassInternalInfos.put(resourceEntry.toResource(),
+                                           newResourceClassInternalInfo(tables.getResourceClass(resourceEntry.getResourceClassId())));
+         }
+      }
+      return resourceClassInternalInfos;
+   }
+
+   @Override
+   public List<String> getResourceClassNames(SQLConnection connection) {
+      // the system resource class is not visible to clients
+      List<String> resourceClassNames = new ArrayList<>();
+      for (ResourceClassEntry resourceClassEntry : tables.getResourceClasses()) {
+         if (resourceClassEntry.getResourceClassId() != 0) {
+            resourceClassNames.add(resourceClassEntry.getResourceClassName());
+         }
+      }
+      return resourceClassNames;
+   }
+
+   @Override
+   public void addResourceClass(SQLConnection connection,
+                                String resourceClassName,
+                                boolean authenticatable,
+                                boolean nonAuthenticatedCreateAllowed) {
+      tables.addResourceClass(resourceClassName, authenticatable, nonAuthenticatedCreateAllowed);
+   }
+
+   private static ResourceClassInternalInfo newResourceClassInternalInfo(ResourceClassEntry resourceClassEntry) {
+      return new ResourceClassInternalInfo(Id.<ResourceClassId>from(resourceClassEntry.getResourceClassId()),
+                                           resourceClassEntry.getResourceClassName(),
+                                           resourceClassEntry.isAuthenticatable(),
+                                           resourceClassEntry.isUnauthenticatedCreateAllowed());
+   }
+}
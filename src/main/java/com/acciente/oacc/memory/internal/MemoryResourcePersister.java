@@ -0,0 +1,155 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.ResourcePersister;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class MemoryResourcePersister implements ResourcePersister {
+   private final MemoryTables tables;
+
+   public MemoryResourcePersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public void verifyResourceExists(SQLConnection connection,
+                                    Resource resource) {
+      if (tables.getResource(resource.getId()) == null) {
+         throw new IllegalArgumentException("Resource " + resource + " not found!");
+      }
+   }
+
+   @Override
+   public Resource createResource(SQLConnection connection,
+                                  Id<ResourceClassId> resourceClassId,
+                                  Id<DomainId> resourceDomainId,
+                                  String externalId) {
+      synchronized (tables) {
+         final long resourceId = tables.addResource(resourceClassId.getValue(), resourceDomainId.getValue());
+
+         // save the new resource's external id, if necessary, and return the new resource
+         if (externalId != null) {
+            return setExternalId(connection, Id.<ResourceId>from(resourceId), externalId);
+         }
+         else {
+            return tables.getResource(resourceId).toResource();
+         }
+      }
+   }
+
+   @Override
+   public Resource setExternalId(SQLConnection connection,
+                                 Id<ResourceId> resourceId,
+                                 String externalId) {
+      return tables.setExternalId(resourceId.getValue(), externalId).toResource();
+   }
+
+   @Override
+   public void deleteResource(SQLConnection connection,
+                              Resource resource) {
+      if (!tables.removeResource(resource.getId())) {
+         throw new IllegalStateException("Security table data update, 1 row expected, got: 0");
+      }
+   }
+
+   @Override
+   public void deleteResources(SQLConnection connection,
+                               Set<Resource> resources) {
+      int rowCount = 0;
+      synchronized (tables) {
+         for (Resource resource : resources) {
+            if (tables.removeResource(resource.getId())) {
+               rowCount++;
+            }
+         }
+      }
+
+      if (rowCount != resources.size()) {
+         throw new IllegalStateException("Security table data update, " + resources.size() + " rows expected, got: " + rowCount);
+      }
+   }
+
+   @Override
+   public Id<DomainId> getDomainIdByResource(SQLConnection connection,
+                                             Resource resource) {
+      final ResourceEntry resourceEntry = tables.getResource(resource.getId());
+      if (resourceEntry == null) {
+         throw new IllegalArgumentException("Could not determine domain for resource: " + resource);
+      }
+
+      return Id.from(resourceEntry.getDomainId());
+   }
+
+   @Override
+   public Map<Resource, Id<DomainId>> getDomainIdsByResources(SQLConnection connection,
+                                                              Set<Resource> resources) {
+      final Map<Resource, Id<DomainId>> domainIds = new HashMap<>(resources.size());
+      for (Resource resource : resources) {
+         domainIds.put(resource, getDomainIdByResource(connection, resource));
+      }
+      return domainIds;
+   }
+
+   @Override
+   public Id<ResourceId> getNextResourceId(SQLConnection connection) {
+      return Id.from(tables.peekNextResourceId());
+   }
+
+   @Override
+   public boolean isDomainEmpty(SQLConnection connection,
+                                Id<DomainId> resourceDomainId) {
+      // a domain is only empty if none of its descendants contain resources, either
+      final LongHashSet domainIds = tables.getDescendantDomainIds(resourceDomainId.getValue());
+      for (int i = 0; i < domainIds.size(); i++) {
+         if (tables.hasResources(domainIds.get(i))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public Resource resolveResourceByExternalId(SQLConnection connection,
+                                               String externalId) {
+      final Long resourceId = tables.getResourceIdByExternalId(externalId);
+      if (resourceId == null) {
+         return null;
+      }
+
+      final ResourceEntry resourceEntry = tables.getResource(resourceId);
+      return resourceEntry == null ? null : resourceEntry.toResource();
+   }
+
+   @Override
+   public Resource resolveResourceByResourceId(SQLConnection connection,
+                                               Resource resource) {
+      final ResourceEntry resourceEntry = tables.getResource(resource.getId());
+      return resourceEntry == null ? null : resourceEntry.toResource();
+   }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import com.acciente.oacc.sql.internal.persister.SnapshotPersister;
+import com.acciente.oacc.sql.internal.persister.SnapshotVisitor;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.util.Map;
+
+public class MemorySnapshotPersister implements SnapshotPersister {
+   private final MemoryTables tables;
+
+   public MemorySnapshotPersister(MemoryTables tables) {
+      this.tables = tables;
+   }
+
+   @Override
+   public void readSnapshot(SQLConnection connection, SnapshotVisitor snapshotVisitor) {
+      // all updates to the tables lock on the tables, which keeps them unchanged while they are read
+      synchronized (tables) {
+         for (DomainEntry domainEntry : tables.getDomains()) {
+            snapshotVisitor.visitDomain(Id.<DomainId>from(domainEntry.getDomainId()),
+                                        domainEntry.getDomainName(),
+                                        Id.<DomainId>from(domainEntry.getParentDomainId()));
+         }
+
+         for (ResourceClassEntry resourceClassEntry : tables.getResourceClasses()) {
+            snapshotVisitor.visitResourceClass(Id.<ResourceClassId>from(resourceClassEntry.getResourceClassId()),
+                                               resourceClassEntry.getResourceClassName(),
+                                               resourceClassEntry.isAuthenticatable());
+         }
+         for (ResourceClassEntry resourceClassEntry : tables.getResourceClasses()) {
+            final Id<ResourceClassId> resourceClassId = Id.from(resourceClassEntry.getResourceClassId());
+            for (String permissionName : resourceClassEntry.getPermissionNames()) {
+               snapshotVisitor.visitResourceClassPermission(resourceClassId, permissionName);
+            }
+         }
+
+         for (ResourceEntry resourceEntry : tables.getResources()) {
+            snapshotVisitor.visitResource(Id.<ResourceId>from(resourceEntry.getResourceId()),
+                                          Id.<ResourceClassId>from(resourceEntry.getResourceClassId()),
+                                          Id.<DomainId>from(resourceEntry.getDomainId()),
+                                          resourceEntry.getExternalId());
+         }
+
+         // direct resource permissions, system permissions first
+         for (GrantTable grantTable : new GrantTable[]{tables.getGrantResourcePermissionSys(),
+                                                       tables.getGrantResourcePermission()}) {
+            for (Long accessorId : grantTable.getAccessorIds()) {
+               final Id<ResourceId> accessorResourceId = Id.from(accessorId);
+               for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId
+                     : grantTable.getGrants(accessorId).entrySet()) {
+                  final Id<ResourceId> accessedResourceId = Id.from(grantsByAccessedId.getKey());
+                  for (Map.Entry<GrantKey, GrantEntry> grant : grantsByAccessedId.getValue().entrySet()) {
+                     snapshotVisitor.visitResourcePermission(accessorResourceId,
+                                                             accessedResourceId,
+                                                             ResourcePermissions
+                                                                   .getInternedInstance(grant.getKey().getPermissionName(),
+                                                                                        grant.getValue().isWithGrant()));
+                  }
+               }
+            }
+         }
+
+         // global resource permissions, system permissions first
+         for (GrantTable grantTable : new GrantTable[]{tables.getGrantGlobalResourcePermissionSys(),
+                                                       tables.getGrantGlobalResourcePermission()}) {
+            for (Long accessorId : grantTable.getAccessorIds()) {
+               final Id<ResourceId> accessorResourceId = Id.from(accessorId);
+               for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId
+                     : grantTable.getGrants(accessorId).entrySet()) {
+                  final Id<DomainId> accessedDomainId = Id.from(grantsByAccessedId.getKey());
+                  for (Map.Entry<GrantKey, GrantEntry> grant : grantsByAccessedId.getValue().entrySet()) {
+                     snapshotVisitor.visitGlobalResourcePermission(accessorResourceId,
+                                                                   accessedDomainId,
+                                                                   Id.<ResourceClassId>from(grant.getKey()
+                                                                                                  .getResourceClassId()),
+                                                                   ResourcePermissions
+                                                                         .getInternedInstance(grant.getKey().getPermissionName(),
+                                                                                              grant.getValue().isWithGrant()));
+                  }
+               }
+            }
+         }
+
+         // domain permissions
+         final GrantTable grantDomainPermissionSys = tables.getGrantDomainPermissionSys();
+         for (Long accessorId : grantDomainPermissionSys.getAccessorIds()) {
+            final Id<ResourceId> accessorResourceId = Id.from(accessorId);
+            for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId
+                  : grantDomainPermissionSys.getGrants(accessorId).entrySet()) {
+               final Id<DomainId> accessedDomainId = Id.from(grantsByAccessedId.getKey());
+               for (Map.Entry<GrantKey, GrantEntry> grant : grantsByAccessedId.getValue().entrySet()) {
+                  final DomainPermission domainPermission;
+                  if (grant.getValue().isWithGrant()) {
+                     domainPermission = DomainPermissions.getInstanceWithGrantOption(grant.getKey().getPermissionName());
+                  }
+                  else {
+                     domainPermission = DomainPermissions.getInstance(grant.getKey().getPermissionName());
+                  }
+                  snapshotVisitor.visitDomainPermission(accessorResourceId, accessedDomainId, domainPermission);
+               }
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.LongHashSet;
+import com.acciente.oacc.sql.internal.persister.PersisterStore;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory counterpart of the OACC database tables.
+ *
+ * All entities are keyed by their numeric ids, with secondary indexes by name and by domain where the
+ * persisters need them. Reads never lock; every update is serialized on this instance, which is also
+ * what a snapshot synchronizes on to capture a consistent state.
+ */
+public class MemoryTables implements PersisterStore, Serializable {
+   private static final long serialVersionUID = 1L;
+
+   // domains
+   private final Map<Long, DomainEntry> domainsById;
+   private final Map<String, Long>      domainIdsByName;
+   private long                         nextDomainId;
+
+   // resource classes and their permissions
+   private final Map<Long, ResourceClassEntry> resourceClassesById;
+   private final Map<String, Long>             resourceClassIdsByName;
+   private long                                nextResourceClassId;
+   private long                                nextResourceClassPermissionId;
+
+   // resources
+   private final Map<Long, ResourceEntry>        resourcesById;
+   private final Map<String, Long>               resourceIdsByExternalId;
+   private final Map<Long, Map<Long, Set<Long>>> resourceIdsByDomainIdAndResourceClassId;
+   private long                                  nextResourceId;
+
+   // credentials
+   private final Map<Long, String> encryptedBoundPasswordsByResourceId;
+
+   // grants
+   private final GrantTable grantDomainCreatePermissionSys;
+   private final GrantTable grantDomainCreatePermissionPostCreateSys;
+   private final GrantTable grantDomainPermissionSys;
+   private final GrantTable grantResourceCreatePermissionSys;
+   private final GrantTable grantResourceCreatePermissionPostCreateSys;
+   private final GrantTable grantResourceCreatePermissionPostCreate;
+   private final GrantTable grantResourcePermissionSys;
+   private final GrantTable grantResourcePermission;
+   private final GrantTable grantGlobalResourcePermissionSys;
+   private final GrantTable grantGlobalResourcePermission;
+
+   // change log, of which only the most recent entries are retained
+   private static final int CHANGE_LOG_CAPACITY = 4096;
+
+   private final Deque<ChangeLogEntry> changeLogEntries;
+   private long                        lastChangeSequence;
+
+   public MemoryTables() {
+      domainsById = new ConcurrentHashMap<>();
+      domainIdsByName = new ConcurrentHashMap<>();
+      resourceClassesById = new ConcurrentHashMap<>();
+      resourceClassIdsByName = new ConcurrentHashMap<>();
+      resourcesById = new ConcurrentHashMap<>();
+      resourceIdsByExternalId = new ConcurrentHashMap<>();
+      resourceIdsByDomainIdAndResourceClassId = new ConcurrentHashMap<>();
+      encryptedBoundPasswordsByResourceId = new ConcurrentHashMap<>();
+
+      grantDomainCreatePermissionSys = new GrantTable(this);
+      grantDomainCreatePermissionPostCreateSys = new GrantTable(this);
+      grantDomainPermissionSys = new GrantTable(this);
+      grantResourceCreatePermissionSys = new GrantTable(this);
+      grantResourceCreatePermissionPostCreateSys = new GrantTable(this);
+      grantResourceCreatePermissionPostCreate = new GrantTable(this);
+      grantResourcePermissionSys = new GrantTable(this);
+      grantResourcePermission = new GrantTable(this);
+      grantGlobalResourcePermissionSys = new GrantTable(this);
+      grantGlobalResourcePermission = new GrantTable(this);
+
+      changeLogEntries = new ArrayDeque<>();
+   }
+
+   public boolean isEmpty() {
+      return domainsById.isEmpty() && resourceClassesById.isEmpty() && resourcesById.isEmpty();
+   }
+
+   // domains
+
+   Long getDomainId(String domainName) {
+      return domainIdsByName.get(domainName);
+   }
+
+   DomainEntry getDomain(long domainId) {
+      return domainsById.get(domainId);
+   }
+
+   synchronized long addDomain(String domainName, Long parentDomainId) {
+      final long domainId = nextDomainId++;
+      domainsById.put(domainId, new DomainEntry(domainId, domainName, parentDomainId));
+      domainIdsByName.put(domainName, domainId);
+      if (parentDomainId != null) {
+         domainsById.get(parentDomainId).getChildDomainIds().add(domainId);
+      }
+      return domainId;
+   }
+
+   synchronized void removeDomain(long domainId) {
+      final DomainEntry domainEntry = domainsById.get(domainId);
+      if (domainEntry == null) {
+         return;
+      }
+
+      for (Long childDomainId : new ArrayList<>(domainEntry.getChildDomainIds())) {
+         removeDomain(childDomainId);
+      }
+
+      if (domainEntry.getParentDomainId() != null) {
+         final DomainEntry parentDomainEntry = domainsById.get(domainEntry.getParentDomainId());
+         if (parentDomainEntry != null) {
+            parentDomainEntry.getChildDomainIds().remove(domainId);
+         }
+      }
+      domainIdsByName.remove(domainEntry.getDomainName());
+      domainsById.remove(domainId);
+      resourceIdsByDomainIdAndResourceClassId.remove(domainId);
+   }
+
+   // returns the specified domain and all its ancestors, starting with the specified domain
+   LongHashSet getAncestorDomainIds(long domainId) {
+      final LongHashSet ancestorDomainIds = new LongHashSet();
+      DomainEntry domainEntry = domainsById.get(domainId);
+      while (domainEntry != null && ancestorDomainIds.add(domainEntry.getDomainId())) {
+         domainEntry = domainEntry.getParentDomainId() == null ? null : domainsById.get(domainEntry.getParentDomainId());
+      }
+      return ancestorDomainIds;
+   }
+
+   // returns the specified domain and all its descendants, ordered by ascending level
+   LongHashSet getDescendantDomainIds(long domainId) {
+      final LongHashSet descendantDomainIds = new LongHashSet();
+      __addDescendantDomainIds(domainId, descendantDomainIds);
+      return descendantDomainIds;
+   }
+
+   // returns the union of the specified domains and all their descendants
+   LongHashSet getDescendantDomainIds(LongHashSet domainIds) {
+      final LongHashSet descendantDomainIds = new LongHashSet(domainIds.size());
+      for (int i = 0; i < domainIds.size(); i++) {
+         __addDescendantDomainIds(domainIds.get(i), descendantDomainIds);
+      }
+      return descendantDomainIds;
+   }
+
+   // the set keeps its ids in insertion order, so the ids added from the specified domain onwards are also the
+   // queue of the breadth-first walk; a domain that is already in the set was walked before, with its descendants
+   private void __addDescendantDomainIds(long domainId, LongHashSet descendantDomainIds) {
+      if (!domainsById.containsKey(domainId) || !descendantDomainIds.add(domainId)) {
+         return;
+      }
+
+      for (int i = descendantDomainIds.size() - 1; i < descendantDomainIds.size(); i++) {
+         final DomainEntry domainEntry = domainsById.get(descendantDomainIds.get(i));
+         if (domainEntry != null) {
+            for (Long childDomainId : domainEntry.getChildDomainIds()) {
+               if (domainsById.containsKey(childDomainId)) {
+                  descendantDomainIds.add(childDomainId);
+               }
+            }
+         }
+      }
+   }
+
+   Collection<DomainEntry> getDomains() {
+      return Collections.unmodifiableCollection(domainsById.values());
+   }
+
+   String getDomainName(long domainId) {
+      final DomainEntry domainEntry = domainsById.get(domainId);
+      return domainEntry == null ? null : domainEntry.getDomainName();
+   }
+
+   // resource classes
+
+   Long getResourceClassId(String resourceClassName) {
+      return resourceClassIdsByName.get(resourceClassName);
+   }
+
+   ResourceClassEntry getResourceClass(long resourceClassId) {
+      return resourceClassesById.get(resourceClassId);
+   }
+
+   Collection<ResourceClassEntry> getResourceClasses() {
+      return Collections.unmodifiableCollection(resourceClassesById.values());
+   }
+
+   String getResourceClassName(long resourceClassId) {
+      final ResourceClassEntry resourceClassEntry = resourceClassesById.get(resourceClassId);
+      return resourceClassEntry == null ? null : resourceClassEntry.getResourceClassName();
+   }
+
+   synchronized long addResourceClass(String resourceClassName,
+                                      boolean authenticatable,
+                                      boolean unauthenticatedCreateAllowed) {
+      final long resourceClassId = nextResourceClassId++;
+      resourceClassesById.put(resourceClassId,
+                              new ResourceClassEntry(resourceClassId,
+                                                     resourceClassName,
+                                                     authenticatable,
+                                                     unauthenticatedCreateAllowed));
+      resourceClassIdsByName.put(resourceClassName, resourceClassId);
+      return resourceClassId;
+   }
+
+   synchronized long addResourceClassPermission(long resourceClassId, String permissionName) {
+      final long permissionId = nextResourceClassPermissionId++;
+      resourceClassesById.get(resourceClassId).addPermission(permissionId, permissionName);
+      return permissionId;
+   }
+
+   // resources
+
+   ResourceEntry getResource(long resourceId) {
+      return resourcesById.get(resourceId);
+   }
+
+   Collection<ResourceEntry> getResources() {
+      return Collections.unmodifiableCollection(resourcesById.values());
+   }
+
+   Long getResourceIdByExternalId(String externalId) {
+      return resourceIdsByExternalId.get(externalId);
+   }
+
+   Set<Long> getResourceIds(long domainId, long resourceClassId) {
+      final Map<Long, Set<Long>> resourceIdsByResourceClassId = resourceIdsByDomainIdAndResourceClassId.get(domainId);
+      if (resourceIdsByResourceClassId == null) {
+         return Collections.emptySet();
+      }
+      final Set<Long> resourceIds = resourceIdsByResourceClassId.get(resourceClassId);
+      if (resourceIds == null) {
+         return Collections.emptySet();
+      }
+      return resourceIds;
+   }
+
+   boolean hasResources(long domainId) {
+      final Map<Long, Set<Long>> resourceIdsByResourceClassId = resourceIdsByDomainIdAndResourceClassId.get(domainId);
+      if (resourceIdsByResourceClassId != null) {
+         for (Set<Long> resourceIds : resourceIdsByResourceClassId.values()) {
+            if (!resourceIds.isEmpty()) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   long peekNextResourceId() {
+      return nextResourceId;
+   }
+
+   synchronized long addResource(long resourceClassId, long domainId) {
+      final long resourceId = nextResourceId++;
+      resourcesById.put(resourceId, new ResourceEntry(resourceId, resourceClassId, domainId, null));
+
+      Map<Long, Set<Long>> resourceIdsByResourceClassId = resourceIdsByDomainIdAndResourceClassId.get(domainId);
+      if (resourceIdsByResourceClassId == null) {
+         resourceIdsByResourceClassId = new ConcurrentHashMap<>();
+         resourceIdsByDomainIdAndResourceClassId.put(domainId, resourceIdsByResourceClassId);
+      }
+      Set<Long> resourceIds = resourceIdsByResourceClassId.get(resourceClassId);
+      if (resourceIds == null) {
+         resourceIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+         resourceIdsByResourceClassId.put(resourceClassId, resourceIds);
+      }
+      resourceIds.add(resourceId);
+
+      return resourceId;
+   }
+
+   synchronized ResourceEntry setExternalId(long resourceId, String externalId) {
+      final ResourceEntry resourceEntry = resourcesById.get(resourceId);
+      if (resourceEntry == null) {
+         throw new IllegalArgumentException("Resource " + resourceId + " not found!");
+      }
+      if (resourceIdsByExternalId.containsKey(externalId)) {
+         throw new IllegalStateException("External id " + externalId + " maps to more than one resource!");
+      }
+
+      final ResourceEntry updatedResourceEntry = resourceEntry.withExternalId(externalId);
+      resourceIdsByExternalId.put(externalId, resourceId);
+      resourcesById.put(resourceId, updatedResourceEntry);
+      return updatedResourceEntry;
+   }
+
+   synchronized boolean removeResource(long resourceId) {
+      final ResourceEntry resourceEntry = resourcesById.remove(resourceId);
+      if (resourceEntry == null) {
+         return false;
+      }
+
+      if (resourceEntry.getExternalId() != null) {
+         resourceIdsByExternalId.remove(resourceEntry.getExternalId());
+      }
+      getResourceIds(resourceEntry.getDomainId(), resourceEntry.getResourceClassId()).remove(resourceId);
+      return true;
+   }
+
+   // credentials
+
+   String getEncryptedBoundPassword(long resourceId) {
+      return encryptedBoundPasswordsByResourceId.get(resourceId);
+   }
+
+   synchronized void setEncryptedBoundPassword(long resourceId, String encryptedBoundPassword) {
+      encryptedBoundPasswordsByResourceId.put(resourceId, encryptedBoundPassword);
+   }
+
+   synchronized void setEncryptedBoundPasswords(Map<Long, String> encryptedBoundPasswordsByResourceId) {
+      this.encryptedBoundPasswordsByResourceId.putAll(encryptedBoundPasswordsByResourceId);
+   }
+
+   synchronized boolean replaceEncryptedBoundPassword(long resourceId,
+                                                      String oldEncryptedBoundPassword,
+                                                      String newEncryptedBoundPassword) {
+      if (!oldEncryptedBoundPassword.equals(encryptedBoundPasswordsByResourceId.get(resourceId))) {
+         return false;
+      }
+      encryptedBoundPasswordsByResourceId.put(resourceId, newEncryptedBoundPassword);
+      return true;
+   }
+
+   synchronized boolean removeEncryptedBoundPassword(long resourceId) {
+      return encryptedBoundPasswordsByResourceId.remove(resourceId) != null;
+   }
+
+   // inheritance
+
+   // returns the specified accessor and all the resources it transitively inherits permissions from
+   LongHashSet getInheritedAccessorIds(long accessorResourceId) {
+      final LongHashSet accessorResourceIds = LongHashSet.of(accessorResourceId);
+
+      // the set keeps its ids in insertion order, so it is also the queue of the breadth-first walk
+      for (int i = 0; i < accessorResourceIds.size(); i++) {
+         for (Map.Entry<Long, Map<GrantKey, GrantEntry>> grantsByAccessedId
+               : grantResourcePermissionSys.getGrants(accessorResourceIds.get(i)).entrySet()) {
+            if (!accessorResourceIds.contains(grantsByAccessedId.getKey())
+                  && isInheritGranted(grantsByAccessedId.getValue())) {
+               accessorResourceIds.add(grantsByAccessedId.getKey());
+            }
+         }
+      }
+      return accessorResourceIds;
+   }
+
+   private static boolean isInheritGranted(Map<GrantKey, GrantEntry> grants) {
+      for (GrantKey grantKey : grants.keySet()) {
+         if (ResourcePermissions.INHERIT.equals(grantKey.getPermissionName())) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   // grants
+
+   GrantTable getGrantDomainCreatePermissionSys() {
+      return grantDomainCreatePermissionSys;
+   }
+
+   GrantTable getGrantDomainCreatePermissionPostCreateSys() {
+      return grantDomainCreatePermissionPostCreateSys;
+   }
+
+   GrantTable getGrantDomainPermissionSys() {
+      return grantDomainPermissionSys;
+   }
+
+   GrantTable getGrantResourceCreatePermissionSys() {
+      return grantResourceCreatePermissionSys;
+   }
+
+   GrantTable getGrantResourceCreatePermissionPostCreateSys() {
+      return grantResourceCreatePermissionPostCreateSys;
+   }
+
+   GrantTable getGrantResourceCreatePermissionPostCreate() {
+      return grantResourceCreatePermissionPostCreate;
+   }
+
+   GrantTable getGrantResourcePermissionSys() {
+      return grantResourcePermissionSys;
+   }
+
+   GrantTable getGrantResourcePermission() {
+      return grantResourcePermission;
+   }
+
+   GrantTable getGrantGlobalResourcePermissionSys() {
+      return grantGlobalResourcePermissionSys;
+   }
+
+   GrantTable getGrantGlobalResourcePermission() {
+      return grantGlobalResourcePermission;
+   }
+
+   // change log
+
+   synchronized void addChangeLogEntry(ChangeLogEntry.Kind kind,
+                                       Id<ResourceId> accessorResourceId,
+                                       Id<ResourceId> accessedResourceId,
+                                       Id<DomainId> accessedDomainId,
+                                       Id<ResourceClassId> resourceClassId) {
+      changeLogEntries.add(new ChangeLogEntry(++lastChangeSequence,
+                                              kind,
+                                              accessorResourceId,
+                                              accessedResourceId,
+                                              accessedDomainId,
+                                              resourceClassId));
+      if (changeLogEntries.size() > CHANGE_LOG_CAPACITY) {
+         changeLogEntries.remove();
+      }
+   }
+
+   synchronized long getLastChangeSequence() {
+      return lastChangeSequence;
+   }
+
+   synchronized void pruneChangeLog(int maxRetainedEntries) {
+      while (changeLogEntries.size() > maxRetainedEntries) {
+         changeLogEntries.remove();
+      }
+   }
+
+   // the sequence numbers have no gaps, so a missing successor of the specified one means it was discarded
+   synchronized List<ChangeLogEntry> getChangeLogEntries(long afterChangeSequence, int maxEntries) {
+      final List<ChangeLogEntry> entries = new ArrayList<>();
+      if (afterChangeSequence >= lastChangeSequence) {
+         return entries;
+      }
+      if (changeLogEntries.isEmpty() || changeLogEntries.peek().getChangeSequence() > afterChangeSequence + 1) {
+         return null;
+      }
+
+      for (ChangeLogEntry changeLogEntry : changeLogEntries) {
+         if (entries.size() >= maxEntries) {
+            break;
+         }
+         if (changeLogEntry.getChangeSequence() > afterChangeSequence) {
+            entries.add(changeLogEntry);
+         }
+      }
+      return entries;
+   }
+}
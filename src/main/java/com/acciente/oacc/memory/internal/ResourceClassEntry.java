@@ -0,0 +1,80 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ResourceClassEntry implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   private final long              resourceClassId;
+   private final String            resourceClassName;
+   private final boolean           authenticatable;
+   private final boolean           unauthenticatedCreateAllowed;
+   private final Map<String, Long> permissionIdsByName;
+   private final List<String>      permissionNames;
+
+   ResourceClassEntry(long resourceClassId,
+                      String resourceClassName,
+                      boolean authenticatable,
+                      boolean unauthenticatedCreateAllowed) {
+      this.resourceClassId = resourceClassId;
+      this.resourceClassName = resourceClassName;
+      this.authenticatable = authenticatable;
+      this.unauthenticatedCreateAllowed = unauthenticatedCreateAllowed;
+      this.permissionIdsByName = new ConcurrentHashMap<>();
+      this.permissionNames = new ArrayList<>();
+   }
+
+   long getResourceClassId() {
+      return resourceClassId;
+   }
+
+   String getResourceClassName() {
+      return resourceClassName;
+   }
+
+   boolean isAuthenticatable() {
+      return authenticatable;
+   }
+
+   boolean isUnauthenticatedCreateAllowed() {
+      return unauthenticatedCreateAllowed;
+   }
+
+   Long getPermissionId(String permissionName) {
+      return permissionIdsByName.get(permissionName);
+   }
+
+   List<String> getPermissionNames() {
+      synchronized (permissionNames) {
+         return new ArrayList<>(permissionNames);
+      }
+   }
+
+   void addPermission(long permissionId, String permissionName) {
+      synchronized (permissionNames) {
+         permissionNames.add(permissionName);
+      }
+      permissionIdsByName.put(permissionName, permissionId);
+   }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.Resources;
+
+import java.io.Serializable;
+
+class ResourceEntry implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   private final long   resourceId;
+   private final long   resourceClassId;
+   private final long   domainId;
+   private final String externalId;
+
+   ResourceEntry(long resourceId, long resourceClassId, long domainId, String externalId) {
+      this.resourceId = resourceId;
+      this.resourceClassId = resourceClassId;
+      this.domainId = domainId;
+      this.externalId = externalId;
+   }
+
+   long getResourceId() {
+      return resourceId;
+   }
+
+   long getResourceClassId() {
+      return resourceClassId;
+   }
+
+   long getDomainId() {
+      return domainId;
+   }
+
+   String getExternalId() {
+      return externalId;
+   }
+
+   ResourceEntry withExternalId(String externalId) {
+      return new ResourceEntry(resourceId, resourceClassId, domainId, externalId);
+   }
+
+   Resource toResource() {
+      return Resources.getInstance(resourceId, externalId);
+   }
+}
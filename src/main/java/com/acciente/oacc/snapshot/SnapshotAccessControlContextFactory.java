@@ -0,0 +1,35 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.snapshot.internal.SnapshotAccessControlContext;
+
+public class SnapshotAccessControlContextFactory {
+   public static AccessControlContext getAccessControlContext(SnapshotStore snapshotStore) {
+      return SnapshotAccessControlContext.getAccessControlContext(snapshotStore.newAccessControlContext(null),
+                                                                  snapshotStore.getSnapshotHolder());
+   }
+
+   public static AccessControlContext getAccessControlContext(SnapshotStore snapshotStore,
+                                                              AuthenticationProvider authenticationProvider) {
+      return SnapshotAccessControlContext.getAccessControlContext(snapshotStore.newAccessControlContext(authenticationProvider),
+                                                                  snapshotStore.getSnapshotHolder());
+   }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.memory.MemoryAccessControlContextFactory;
+import com.acciente.oacc.memory.MemoryStore;
+import com.acciente.oacc.memory.internal.MemoryPersisterProvider;
+import com.acciente.oacc.snapshot.internal.SnapshotHolder;
+import com.acciente.oacc.sql.SQLAccessControlContextFactory;
+import com.acciente.oacc.sql.SQLProfile;
+import com.acciente.oacc.sql.internal.ChangeLogListener;
+import com.acciente.oacc.sql.internal.ChangeLogPoller;
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.PersisterProvider;
+import com.acciente.oacc.sql.internal.persister.SQLPersisterProvider;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds an immutable snapshot of the resource permission grants of an OACC system, which
+ * read-only access control contexts evaluate resource permissions against without accessing the
+ * underlying store.
+ * <p/>
+ * The snapshot reflects the state of the underlying store at the time it was last read. It is only
+ * replaced when {@link #refresh()} is called, either explicitly after a known change or periodically
+ * via {@link #scheduleRefresh(ScheduledExecutorService, long, TimeUnit)}.
+ * <p/>
+ * Alternatively, a store can watch the change log that access control contexts append to, on any JVM, in the
+ * same transaction as their changes, and only refresh when that log shows a change, via
+ * {@link #refreshIfChanged()} or {@link #scheduleRefreshIfChanged(ScheduledExecutorService, long, TimeUnit)}.
+ * Polling the log costs a single indexed query, so it can be done far more often than a full refresh. The
+ * change log of a SQL store must have been enabled, with
+ * {@link com.acciente.oacc.sql.SQLAccessControlContextFactory#enableChangeLog(DataSource)}, on every JVM that
+ * changes the store.
+ * <p/>
+ * Instead of reading the underlying store, a snapshot store can also memory-map a snapshot file written by
+ * {@link #exportSnapshot(File)}, e.g. by a single exporting process per host. Mapping a file requires no
+ * parsing, so such a store is ready as soon as it is created, and all processes mapping the same file share
+ * its pages in the operating system's page cache.
+ */
+public final class SnapshotStore {
+   // the snapshot is refreshed as a whole on any change, so the change log entries themselves are not needed
+   private static final ChangeLogListener ANY_CHANGE_LISTENER = new ChangeLogListener() {
+      @Override
+      public void changeLogEntriesAppended(List<ChangeLogEntry> changeLogEntries) {
+      }
+
+      @Override
+      public void changeLogEntriesLost() {
+      }
+   };
+
+   private final SnapshotHolder    snapshotHolder;
+   private final PersisterProvider changeLogPersisterProvider;
+   private       ChangeLogPoller   changeLogPoller;
+
+   // where the read-only contexts send the operations that are not answered from the snapshot
+   private final DataSource  dataSource;
+   private final String      schemaName;
+   private final SQLProfile  sqlProfile;
+   private final MemoryStore memoryStore;
+
+   private SnapshotStore(SnapshotHolder snapshotHolder,
+                         PersisterProvider changeLogPersisterProvider,
+                         ChangeLogPoller changeLogPoller,
+                         DataSource dataSource,
+                         String schemaName,
+                         SQLProfile sqlProfile,
+                         MemoryStore memoryStore) {
+      this.snapshotHolder = snapshotHolder;
+      this.changeLogPersisterProvider = changeLogPersisterProvider;
+      this.changeLogPoller = changeLogPoller;
+      this.dataSource = dataSource;
+      this.schemaName = schemaName;
+      this.sqlProfile = sqlProfile;
+      this.memoryStore = memoryStore;
+   }
+
+   /**
+    * Creates a store with an initial snapshot read from the OACC tables of the specified data source
+    *
+    * @param dataSource the data source of the OACC database
+    * @param schemaName the database schema of the OACC tables, or null
+    * @param sqlProfile the SQL profile of the OACC database
+    * @return a new snapshot store
+    */
+   public static SnapshotStore newInstance(DataSource dataSource,
+                                           String schemaName,
+                                           SQLProfile sqlProfile) {
+      final PersisterProvider persisterProvider = new SQLPersisterProvider(schemaName, sqlProfile);
+
+      // the change log is only read once it is polled, since the database may not have a change log table
+      return new SnapshotStore(new SnapshotHolder(persisterProvider, dataSource),
+                               persisterProvider,
+                               null,
+                               dataSource,
+                               schemaName,
+                               sqlProfile,
+                               null);
+   }
+
+   /**
+    * Creates a store whose snapshot is memory-mapped from the specified snapshot file, and which sends the
+    * operations not answered from the snapshot to the OACC tables of the specified data source.
+    * <p/>
+    * Refreshing the store maps the snapshot file again, so that it picks up a newer export.
+    *
+    * @param dataSource   the data source of the OACC database
+    * @param schemaName   the database schema of the OACC tables, or null
+    * @param sqlProfile   the SQL profile of the OACC database
+    * @param snapshotFile a snapshot file written by {@link #exportSnapshot(File)}
+    * @return a new snapshot store
+    */
+   public static SnapshotStore newInstance(DataSource dataSource,
+                                           String schemaName,
+                                           SQLProfile sqlProfile,
+                                           File snapshotFile) {
+      return new SnapshotStore(new SnapshotHolder(snapshotFile), null, null, dataSource, schemaName, sqlProfile, null);
+   }
+
+   /**
+    * Creates a store with an initial snapshot read from the specified in-memory store
+    *
+    * @param memoryStore the in-memory store
+    * @return a new snapshot store
+    */
+   public static SnapshotStore newInstance(MemoryStore memoryStore) {
+      final PersisterProvider persisterProvider = new MemoryPersisterProvider(memoryStore.getTables());
+
+      // position the change log poller before the initial snapshot is read, so that no change falls in between
+      final ChangeLogPoller changeLogPoller = new ChangeLogPoller(persisterProvider, null);
+
+      return new SnapshotStore(new SnapshotHolder(persisterProvider, null),
+                               persisterProvider,
+                               changeLogPoller,
+                               null,
+                               null,
+                               null,
+                               memoryStore);
+   }
+
+   /**
+    * Creates a store whose snapshot is memory-mapped from the specified snapshot file, and which sends the
+    * operations not answered from the snapshot to the specified in-memory store
+    *
+    * @param memoryStore  the in-memory store
+    * @param snapshotFile a snapshot file written by {@link #exportSnapshot(File)}
+    * @return a new snapshot store
+    */
+   public static SnapshotStore newInstance(MemoryStore memoryStore, File snapshotFile) {
+      return new SnapshotStore(new SnapshotHolder(snapshotFile), null, null, null, null, null, memoryStore);
+   }
+
+   /**
+    * Reads a new snapshot from the underlying store, or maps the snapshot file again, and swaps it in
+    * for the current one.
+    * <p/>
+    * Permission checks running concurrently complete against the previous snapshot; all checks
+    * started after this method returns see the new one.
+    */
+   public void refresh() {
+      snapshotHolder.reload();
+   }
+
+   /**
+    * Reads the entries appended to the change log since the previous call, and refreshes the snapshot if
+    * there are any.
+    * <p/>
+    * Since the snapshot holds the grants of the whole system, any change to it requires a full refresh.
+    * The first call on a store that reads from a data source also refreshes, since that is when the store
+    * starts to track the change log.
+    *
+    * @return true if the snapshot was refreshed, false if there were no changes
+    * @throws UnsupportedOperationException if this store maps its snapshot from a snapshot file
+    */
+   public boolean refreshIfChanged() {
+      if (changeLogPersisterProvider == null) {
+         throw new UnsupportedOperationException("A snapshot mapped from a snapshot file does not track the change log");
+      }
+
+      final ChangeLogPoller changeLogPoller;
+      synchronized (this) {
+         if (this.changeLogPoller == null) {
+            // position the change log poller before the snapshot is read again, so that no change falls in between
+            this.changeLogPoller = new ChangeLogPoller(changeLogPersisterProvider, dataSource);
+            refresh();
+            return true;
+         }
+         changeLogPoller = this.changeLogPoller;
+      }
+
+      if (changeLogPoller.poll(ANY_CHANGE_LISTENER)) {
+         refresh();
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Writes the current snapshot to the specified snapshot file, for stores in other processes to map.
+    * <p/>
+    * The snapshot is written to a temporary file that is then atomically moved over the specified one, so
+    * that stores refreshing concurrently never map a partially written snapshot.
+    *
+    * @param snapshotFile the snapshot file to write
+    */
+   public void exportSnapshot(File snapshotFile) {
+      snapshotHolder.getSnapshot().writeTo(snapshotFile);
+   }
+
+   /**
+    * Schedules periodic refreshes of the snapshot on the specified executor.
+    * <p/>
+    * As with any periodic task, a refresh that throws an exception suppresses all subsequent refreshes,
+    * and the exception is reported through the returned future.
+    *
+    * @param executorService the executor to run the refreshes on
+    * @param period          the delay between the end of one refresh and the start of the next
+    * @param timeUnit        the time unit of the period
+    * @return a future that can be used to cancel the periodic refreshes
+    */
+   public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService executorService,
+                                             long period,
+                                             TimeUnit timeUnit) {
+      return executorService.scheduleWithFixedDelay(new Runnable() {
+                                                       @Override
+                                                       public void run() {
+                                                          refresh();
+                                                       }
+                                                    },
+                                                    period,
+                                                    period,
+                                                    timeUnit);
+   }
+
+   /**
+    * Schedules periodic polls of the change log on the specified executor, each of which refreshes the
+    * snapshot if the change log shows any change since the previous poll.
+    * <p/>
+    * As with any periodic task, a poll that throws an exception suppresses all subsequent polls,
+    * and the exception is reported through the returned future.
+    *
+    * @param executorService the executor to run the polls on
+    * @param period          the delay between the end of one poll and the start of the next
+    * @param timeUnit        the time unit of the period
+    * @return a future that can be used to cancel the periodic polls
+    * @throws UnsupportedOperationException if this store maps its snapshot from a snapshot file
+    */
+   public ScheduledFuture<?> scheduleRefreshIfChanged(ScheduledExecutorService executorService,
+                                                      long period,
+                                                      TimeUnit timeUnit) {
+      if (changeLogPersisterProvider == null) {
+         throw new UnsupportedOperationException("A snapshot mapped from a snapshot file does not track the change log");
+      }
+
+      return executorService.scheduleWithFixedDelay(new Runnable() {
+                                                       @Override
+                                                       public void run() {
+                                                          refreshIfChanged();
+                                                       }
+                                                    },
+                                                    period,
+                                                    period,
+                                                    timeUnit);
+   }
+
+   SnapshotHolder getSnapshotHolder() {
+      return snapshotHolder;
+   }
+
+   AccessControlContext newAccessControlContext(AuthenticationProvider authenticationProvider) {
+      if (memoryStore != null) {
+         return authenticationProvider == null
+                ? MemoryAccessControlContextFactory.getAccessControlContext(memoryStore)
+                : MemoryAccessControlContextFactory.getAccessControlContext(memoryStore, authenticationProvider);
+      }
+      return authenticationProvider == null
+             ? SQLAccessControlContextFactory.getAccessControlContext(dataSource, schemaName, sqlProfile)
+             : SQLAccessControlContextFactory.getAccessControlContext(dataSource,
+                                                                      schemaName,
+                                                                      sqlProfile,
+                                                                      authenticationProvider);
+   }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable image of the domains, resources and resource permission grants of an OACC system, laid out
+ * so that resource permissions can be evaluated without any database access.
+ * <p/>
+ * Domains, resource classes and resources are addressed by dense indexes, with resource indexes following
+ * the order of the resource ids. The domain hierarchy is held as an array of parent indexes. Inheritance
+ * edges, direct and global grants and super-user grants are each held in compressed sparse row form,
+ * keyed by the index of the accessor resource. The permissions of a grant are a bitmask over the
+ * permissions of the accessed resource class: the words of the granted permissions are followed by the
+ * words of the permissions granted with the grant option.
+ * <p/>
+ * All of these tables are views into a single {@link SnapshotImage}, which is either compiled in memory or
+ * memory-mapped from a snapshot file. Only the resource class and permission names are decoded up front;
+ * everything that grows with the number of resources and grants is read in place.
+ */
+public class AuthorizationSnapshot {
+   static final int NONE = -1;
+
+   private static final int          SMALL_CLOSURE_SIZE   = 32;
+   private static final List<String> SYS_PERMISSION_NAMES = ResourcePermissions.getSysPermissionNames();
+
+   private final ByteBuffer image;
+
+   // domains
+   private final IntBuffer parentDomainIndexes;
+
+   // resource classes, with the system permissions occupying the lowest bits of every class
+   private final String[]                   resourceClassNames;
+   private final String[][]                 permissionNames;
+   private final List<Map<String, Integer>> permissionBitsByName;
+   private final IntBuffer                  maskWordCounts;
+   private final IntBuffer                  applicableMaskOffsets;
+   private final LongBuffer                 applicableMasks;
+
+   // resources
+   private final LongBuffer resourceIds;
+   private final IntBuffer  resourceClassIndexes;
+   private final IntBuffer  resourceDomainIndexes;
+   private final IntBuffer  externalIdOffsets;
+   private final IntBuffer  externalIdLengths;
+   private final IntBuffer  externalIdResourceIndexes;
+   private final ByteBuffer externalIdBytes;
+
+   // accessor -> resources it inherits from
+   private final IntBuffer inheritOffsets;
+   private final IntBuffer inheritedResourceIndexes;
+
+   // accessor -> accessed resources, sorted by accessed index within each accessor
+   private final IntBuffer  directGrantOffsets;
+   private final IntBuffer  directGrantResourceIndexes;
+   private final IntBuffer  directGrantMaskOffsets;
+   private final LongBuffer directGrantMasks;
+
+   // accessor -> global grants
+   private final IntBuffer  globalGrantOffsets;
+   private final IntBuffer  globalGrantDomainIndexes;
+   private final IntBuffer  globalGrantResourceClassIndexes;
+   private final IntBuffer  globalGrantMaskOffsets;
+   private final LongBuffer globalGrantMasks;
+
+   // accessor -> domains it has super-user permission on
+   private final IntBuffer superUserOffsets;
+   private final IntBuffer superUserDomainIndexes;
+
+   AuthorizationSnapshot(ByteBuffer image) {
+      this.image = image;
+
+      final SnapshotImage.Cursor cursor = new SnapshotImage.Cursor(image);
+      final IntBuffer header = cursor.nextInts(SnapshotImage.HEADER_INT_COUNT);
+      if (header.get(0) != SnapshotImage.MAGIC) {
+         throw new IllegalArgumentException("Not an authorization snapshot image");
+      }
+      if (header.get(1) != SnapshotImage.VERSION) {
+         throw new IllegalArgumentException("Unsupported authorization snapshot image version: " + header.get(1));
+      }
+      if (header.get(2) != image.limit()) {
+         throw new IllegalArgumentException("Authorization snapshot image is truncated");
+      }
+      final int domainCount = header.get(3);
+      final int resourceClassCount = header.get(4);
+      final int resourceCount = header.get(5);
+
+      // resource classes
+      final ByteBuffer dictionary = cursor.nextBytes(header.get(6));
+      resourceClassNames = new String[resourceClassCount];
+      permissionNames = new String[resourceClassCount][];
+      permissionBitsByName = new ArrayList<>(resourceClassCount);
+      readDictionary(dictionary);
+
+      // domains, and the permission masks of the resource classes
+      parentDomainIndexes = cursor.nextInts(domainCount);
+      maskWordCounts = cursor.nextInts(resourceClassCount);
+      applicableMaskOffsets = cursor.nextInts(resourceClassCount);
+      applicableMasks = cursor.nextLongs(header.get(7));
+
+      // resources
+      resourceIds = cursor.nextLongs(resourceCount);
+      resourceClassIndexes = cursor.nextInts(resourceCount);
+      resourceDomainIndexes = cursor.nextInts(resourceCount);
+      externalIdOffsets = cursor.nextInts(resourceCount);
+      externalIdLengths = cursor.nextInts(resourceCount);
+      externalIdResourceIndexes = cursor.nextInts(header.get(8));
+      externalIdBytes = cursor.nextBytes(header.get(9));
+
+      // grants
+      inheritOffsets = cursor.nextInts(resourceCount + 1);
+      inheritedResourceIndexes = cursor.nextInts(header.get(10));
+
+      directGrantOffsets = cursor.nextInts(resourceCount + 1);
+      directGrantResourceIndexes = cursor.nextInts(header.get(11));
+      directGrantMaskOffsets = cursor.nextInts(header.get(11));
+      directGrantMasks = cursor.nextLongs(header.get(12));
+
+      globalGrantOffsets = cursor.nextInts(resourceCount + 1);
+      globalGrantDomainIndexes = cursor.nextInts(header.get(13));
+      globalGrantResourceClassIndexes = cursor.nextInts(header.get(13));
+      globalGrantMaskOffsets = cursor.nextInts(header.get(13));
+      globalGrantMasks = cursor.nextLongs(header.get(14));
+
+      superUserOffsets = cursor.nextInts(resourceCount + 1);
+      superUserDomainIndexes = cursor.nextInts(header.get(15));
+   }
+
+   // snapshot files
+
+   /**
+    * Memory-maps a snapshot file written by {@link #writeTo(File)}, without reading or parsing its contents.
+    * <p/>
+    * The mapping remains valid after the file is replaced by a newer snapshot, since the replacement is
+    * written to a new file and then moved over the old one.
+    *
+    * @param snapshotFile the snapshot file to map
+    * @return a snapshot backed by the mapped file
+    * @throws IllegalArgumentException if the file is not a complete snapshot image of the supported version
+    */
+   public static AuthorizationSnapshot map(File snapshotFile) {
+      try (FileChannel fileChannel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+         if (fileChannel.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Authorization snapshot file exceeds the maximum image size of 2GB: "
+                                                     + snapshotFile);
+         }
+         final ByteBuffer image = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+         return new AuthorizationSnapshot(image.order(SnapshotImage.BYTE_ORDER));
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Writes the image of this snapshot to the specified file.
+    * <p/>
+    * The image is first written to a temporary file in the same directory, which is then atomically moved
+    * over the specified file, so that concurrent readers only ever map a complete snapshot.
+    *
+    * @param snapshotFile the snapshot file to write
+    */
+   public void writeTo(File snapshotFile) {
+      final Path snapshotPath = snapshotFile.toPath().toAbsolutePath();
+      Path temporaryPath = null;
+
+      try {
+         temporaryPath = Files.createTempFile(snapshotPath.getParent(), snapshotPath.getFileName().toString(), ".tmp");
+         try (FileChannel fileChannel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+            final ByteBuffer source = image.duplicate();
+            source.clear();
+            while (source.hasRemaining()) {
+               fileChannel.write(source);
+            }
+            fileChannel.force(true);
+         }
+         Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         temporaryPath = null;
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         if (temporaryPath != null) {
+            try {
+               Files.deleteIfExists(temporaryPath);
+            }
+            catch (IOException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      }
+   }
+
+   // resources
+
+   public int getResourceIndex(long resourceId) {
+      final int resourceIndex = binarySearch(resourceIds, resourceId);
+      return resourceIndex < 0 ? NONE : resourceIndex;
+   }
+
+   public int getResourceIndex(String externalId) {
+      final byte[] encodedExternalId = externalId.getBytes(StandardCharsets.UTF_8);
+      int low = 0;
+      int high = externalIdResourceIndexes.limit() - 1;
+
+      while (low <= high) {
+         final int middle = (low + high) >>> 1;
+         final int resourceIndex = externalIdResourceIndexes.get(middle);
+         final int comparison = compareExternalId(resourceIndex, encodedExternalId);
+         if (comparison < 0) {
+            low = middle + 1;
+         }
+         else if (comparison > 0) {
+            high = middle - 1;
+         }
+         else {
+            return resourceIndex;
+         }
+      }
+      return NONE;
+   }
+
+   public Resource getResource(int resourceIndex) {
+      return Resources.getInstance(resourceIds.get(resourceIndex), getExternalId(resourceIndex));
+   }
+
+   public String getResourceClassName(int resourceIndex) {
+      return resourceClassNames[resourceClassIndexes.get(resourceIndex)];
+   }
+
+   // permissions
+
+   /**
+    * Returns the effective resource permissions the accessor has on the accessed resource, in the same
+    * collapsed form as the SQL-backed access control context, i.e. a permission held both with and without
+    * the grant option is only returned with it
+    */
+   public Set<ResourcePermission> getEffectiveResourcePermissions(int accessorResourceIndex, int accessedResourceIndex) {
+      final int[] accessorResourceIndexes = getInheritedAccessorIndexes(accessorResourceIndex);
+      final int resourceClassIndex = resourceClassIndexes.get(accessedResourceIndex);
+
+      if (isSuperUser(accessorResourceIndexes, resourceDomainIndexes.get(accessedResourceIndex))) {
+         return toResourcePermissions(resourceClassIndex, getSuperUserMask(resourceClassIndex));
+      }
+
+      return toResourcePermissions(resourceClassIndex,
+                                   getEffectiveMask(accessorResourceIndexes, accessedResourceIndex));
+   }
+
+   /**
+    * Checks if the accessor has all the specified permissions on the accessed resource, either through
+    * its effective resource permissions or as a super-user of the accessed resource's domain
+    *
+    * @throws IllegalArgumentException if any of the permissions is not valid for the accessed resource's class
+    */
+   public boolean hasResourcePermissions(int accessorResourceIndex,
+                                         int accessedResourceIndex,
+                                         Set<ResourcePermission> resourcePermissions) {
+      final int resourceClassIndex = resourceClassIndexes.get(accessedResourceIndex);
+      final int[] requestedBits = new int[resourcePermissions.size()];
+      final boolean[] requestedWithGrant = new boolean[resourcePermissions.size()];
+      int requestedCount = 0;
+      for (ResourcePermission resourcePermission : resourcePermissions) {
+         final int bit = getApplicablePermissionBit(resourceClassIndex, resourcePermission.getPermissionName());
+         if (bit == NONE) {
+            if (resourcePermission.isSystemPermission()) {
+               // currently the only invalid system permissions are for unauthenticatable resource classes
+               throw new IllegalArgumentException("Permission "
+                                                        + resourcePermission.getPermissionName()
+                                                        + " not valid for unauthenticatable resource class "
+                                                        + resourceClassNames[resourceClassIndex]);
+            }
+            else {
+               throw new IllegalArgumentException("Permission: "
+                                                        + resourcePermission.getPermissionName()
+                                                        + " is not defined for resource class: "
+                                                        + resourceClassNames[resourceClassIndex]);
+            }
+         }
+         requestedBits[requestedCount] = bit;
+         requestedWithGrant[requestedCount] = resourcePermission.isWithGrantOption();
+         requestedCount++;
+      }
+
+      final int[] accessorResourceIndexes = getInheritedAccessorIndexes(accessorResourceIndex);
+      final long[] effectiveMask = getEffectiveMask(accessorResourceIndexes, accessedResourceIndex);
+      final int wordCount = maskWordCounts.get(resourceClassIndex);
+
+      boolean hasPermission = true;
+      for (int i = 0; i < requestedCount; i++) {
+         if (!isBitSet(effectiveMask, requestedWithGrant[i] ? wordCount : 0, requestedBits[i])) {
+            hasPermission = false;
+            break;
+         }
+      }
+
+      return hasPermission || isSuperUser(accessorResourceIndexes, resourceDomainIndexes.get(accessedResourceIndex));
+   }
+
+   /**
+    * Checks if the accessor has any of the specified permissions on the accessed resource, with or without
+    * the grant option, either through its effective resource permissions or as a super-user
+    */
+   public boolean hasAnyResourcePermission(int accessorResourceIndex,
+                                           int accessedResourceIndex,
+                                           ResourcePermission... resourcePermissions) {
+      final int[] accessorResourceIndexes = getInheritedAccessorIndexes(accessorResourceIndex);
+      final int resourceClassIndex = resourceClassIndexes.get(accessedResourceIndex);
+      final long[] effectiveMask = getEffectiveMask(accessorResourceIndexes, accessedResourceIndex);
+
+      for (ResourcePermission resourcePermission : resourcePermissions) {
+         final int bit = getApplicablePermissionBit(resourceClassIndex, resourcePermission.getPermissionName());
+         if (bit != NONE && isBitSet(effectiveMask, 0, bit)) {
+            return true;
+         }
+      }
+
+      return isSuperUser(accessorResourceIndexes, resourceDomainIndexes.get(accessedResourceIndex));
+   }
+
+   /**
+    * Checks if the accessor has super-user permission on the domain of the accessed resource, directly or
+    * through inheritance, and on that domain itself or any of its ancestors
+    */
+   public boolean isSuperUserOfResource(int accessorResourceIndex, int accessedResourceIndex) {
+      return isSuperUser(getInheritedAccessorIndexes(accessorResourceIndex),
+                         resourceDomainIndexes.get(accessedResourceIndex));
+   }
+
+   // evaluation helpers
+
+   // returns the specified accessor and all the resources it transitively inherits permissions from
+   private int[] getInheritedAccessorIndexes(int accessorResourceIndex) {
+      int[] accessorResourceIndexes = new int[8];
+      int accessorCount = 0;
+      Set<Integer> visitedResourceIndexes = null;
+
+      accessorResourceIndexes[accessorCount++] = accessorResourceIndex;
+      for (int i = 0; i < accessorCount; i++) {
+         final int currentResourceIndex = accessorResourceIndexes[i];
+         final int edgeEnd = inheritOffsets.get(currentResourceIndex + 1);
+         for (int edge = inheritOffsets.get(currentResourceIndex); edge < edgeEnd; edge++) {
+            final int inheritedResourceIndex = inheritedResourceIndexes.get(edge);
+
+            // closures are usually tiny, so a linear scan beats hashing until they are not
+            if (visitedResourceIndexes == null && accessorCount >= SMALL_CLOSURE_SIZE) {
+               visitedResourceIndexes = new HashSet<>(accessorCount * 4);
+               for (int j = 0; j < accessorCount; j++) {
+                  visitedResourceIndexes.add(accessorResourceIndexes[j]);
+               }
+            }
+            final boolean isVisited = visitedResourceIndexes == null
+                                      ? contains(accessorResourceIndexes, accessorCount, inheritedResourceIndex)
+                                      : !visitedResourceIndexes.add(inheritedResourceIndex);
+            if (!isVisited) {
+               if (accessorCount == accessorResourceIndexes.length) {
+                  accessorResourceIndexes = Arrays.copyOf(accessorResourceIndexes, accessorCount * 2);
+               }
+               accessorResourceIndexes[accessorCount++] = inheritedResourceIndex;
+            }
+         }
+      }
+      return Arrays.copyOf(accessorResourceIndexes, accessorCount);
+   }
+
+   private long[] getEffectiveMask(int[] accessorResourceIndexes, int accessedResourceIndex) {
+      final int resourceClassIndex = resourceClassIndexes.get(accessedResourceIndex);
+      final int accessedDomainIndex = resourceDomainIndexes.get(accessedResourceIndex);
+      final int maskLength = 2 * maskWordCounts.get(resourceClassIndex);
+      final long[] effectiveMask = new long[maskLength];
+
+      for (int accessorResourceIndex : accessorResourceIndexes) {
+         // direct grants to the accessed resource
+         final int directGrant = binarySearch(directGrantResourceIndexes,
+                                              directGrantOffsets.get(accessorResourceIndex),
+                                              directGrantOffsets.get(accessorResourceIndex + 1),
+                                              accessedResourceIndex);
+         if (directGrant >= 0) {
+            or(effectiveMask, directGrantMasks, directGrantMaskOffsets.get(directGrant), maskLength);
+         }
+
+         // global grants to the accessed resource's class in its domain or any ancestor domain
+         final int globalGrantEnd = globalGrantOffsets.get(accessorResourceIndex + 1);
+         for (int globalGrant = globalGrantOffsets.get(accessorResourceIndex); globalGrant < globalGrantEnd; globalGrant++) {
+            if (globalGrantResourceClassIndexes.get(globalGrant) == resourceClassIndex
+                  && isSelfOrAncestor(globalGrantDomainIndexes.get(globalGrant), accessedDomainIndex)) {
+               or(effectiveMask, globalGrantMasks, globalGrantMaskOffsets.get(globalGrant), maskLength);
+            }
+         }
+      }
+      return effectiveMask;
+   }
+
+   private boolean isSuperUser(int[] accessorResourceIndexes, int accessedDomainIndex) {
+      for (int accessorResourceIndex : accessorResourceIndexes) {
+         final int superUserGrantEnd = superUserOffsets.get(accessorResourceIndex + 1);
+         for (int superUserGrant = superUserOffsets.get(accessorResourceIndex);
+              superUserGrant < superUserGrantEnd;
+              superUserGrant++) {
+            if (isSelfOrAncestor(superUserDomainIndexes.get(superUserGrant), accessedDomainIndex)) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private boolean isSelfOrAncestor(int candidateDomainIndex, int domainIndex) {
+      while (domainIndex != NONE) {
+         if (domainIndex == candidateDomainIndex) {
+            return true;
+         }
+         domainIndex = parentDomainIndexes.get(domainIndex);
+      }
+      return false;
+   }
+
+   // super-users hold all applicable permissions, and all of them with the grant option
+   private long[] getSuperUserMask(int resourceClassIndex) {
+      final int wordCount = maskWordCounts.get(resourceClassIndex);
+      final int applicableMaskOffset = applicableMaskOffsets.get(resourceClassIndex);
+      final long[] superUserMask = new long[2 * wordCount];
+      for (int word = 0; word < wordCount; word++) {
+         superUserMask[word] = applicableMasks.get(applicableMaskOffset + word);
+         superUserMask[wordCount + word] = superUserMask[word];
+      }
+      return superUserMask;
+   }
+
+   private Set<ResourcePermission> toResourcePermissions(int resourceClassIndex, long[] mask) {
+      final int wordCount = maskWordCounts.get(resourceClassIndex);
+      final String[] classPermissionNames = permissionNames[resourceClassIndex];
+      final Set<ResourcePermission> resourcePermissions = new HashSet<>();
+
+      for (int bit = 0; bit < classPermissionNames.length; bit++) {
+         if (isBitSet(mask, wordCount, bit)) {
+            resourcePermissions.add(ResourcePermissions.getInternedInstance(classPermissionNames[bit], true));
+         }
+         else if (isBitSet(mask, 0, bit)) {
+            resourcePermissions.add(ResourcePermissions.getInternedInstance(classPermissionNames[bit], false));
+         }
+      }
+      return resourcePermissions;
+   }
+
+   private int getApplicablePermissionBit(int resourceClassIndex, String permissionName) {
+      final Integer bit = permissionBitsByName.get(resourceClassIndex).get(permissionName);
+      if (bit == null) {
+         return NONE;
+      }
+      final long applicableWord = applicableMasks.get(applicableMaskOffsets.get(resourceClassIndex) + (bit >>> 6));
+      return (applicableWord & (1L << (bit & 63))) == 0 ? NONE : bit;
+   }
+
+   // image helpers
+
+   // decodes the resource class names and the names of their own permissions, which follow the system permissions
+   private void readDictionary(ByteBuffer dictionary) {
+      final byte[] dictionaryBytes = new byte[dictionary.remaining()];
+      dictionary.get(dictionaryBytes);
+
+      try (DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(dictionaryBytes))) {
+         for (int resourceClassIndex = 0; resourceClassIndex < resourceClassNames.length; resourceClassIndex++) {
+            resourceClassNames[resourceClassIndex] = dataInputStream.readUTF();
+
+            final int permissionCount = SYS_PERMISSION_NAMES.size() + dataInputStream.readInt();
+            final String[] classPermissionNames = SYS_PERMISSION_NAMES.toArray(new String[permissionCount]);
+            final Map<String, Integer> permissionBits = new HashMap<>(permissionCount * 2);
+            for (int bit = 0; bit < permissionCount; bit++) {
+               if (bit >= SYS_PERMISSION_NAMES.size()) {
+                  classPermissionNames[bit] = dataInputStream.readUTF();
+               }
+               permissionBits.put(classPermissionNames[bit], bit);
+            }
+            permissionNames[resourceClassIndex] = classPermissionNames;
+            permissionBitsByName.add(permissionBits);
+         }
+      }
+      catch (IOException e) {
+         throw new IllegalArgumentException("Authorization snapshot image has a corrupt dictionary", e);
+      }
+   }
+
+   private String getExternalId(int resourceIndex) {
+      final int externalIdLength = externalIdLengths.get(resourceIndex);
+      if (externalIdLength == NONE) {
+         return null;
+      }
+
+      final byte[] encodedExternalId = new byte[externalIdLength];
+      final ByteBuffer source = externalIdBytes.duplicate();
+      source.position(externalIdOffsets.get(resourceIndex));
+      source.get(encodedExternalId);
+      return new String(encodedExternalId, StandardCharsets.UTF_8);
+   }
+
+   // compares the UTF-8 bytes of the resource's external id with the specified ones, as unsigned bytes
+   private int compareExternalId(int resourceIndex, byte[] encodedExternalId) {
+      final int externalIdOffset = externalIdOffsets.get(resourceIndex);
+      final int externalIdLength = externalIdLengths.get(resourceIndex);
+      final int length = Math.min(externalIdLength, encodedExternalId.length);
+      for (int i = 0; i < length; i++) {
+         final int difference = (externalIdBytes.get(externalIdOffset + i) & 0xff) - (encodedExternalId[i] & 0xff);
+         if (difference != 0) {
+            return difference;
+         }
+      }
+      return externalIdLength - encodedExternalId.length;
+   }
+
+   // bitmask and search helpers
+
+   private static boolean isBitSet(long[] mask, int wordOffset, int bit) {
+      return (mask[wordOffset + (bit >>> 6)] & (1L << (bit & 63))) != 0;
+   }
+
+   private static void or(long[] targetMask, LongBuffer masks, int maskOffset, int maskLength) {
+      for (int word = 0; word < maskLength; word++) {
+         targetMask[word] |= masks.get(maskOffset + word);
+      }
+   }
+
+   private static boolean contains(int[] values, int valueCount, int value) {
+      for (int i = 0; i < valueCount; i++) {
+         if (values[i] == value) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static int binarySearch(LongBuffer values, long key) {
+      int low = 0;
+      int high = values.limit() - 1;
+
+      while (low <= high) {
+         final int middle = (low + high) >>> 1;
+         final long value = values.get(middle);
+         if (value < key) {
+            low = middle + 1;
+         }
+         else if (value > key) {
+            high = middle - 1;
+         }
+         else {
+            return middle;
+         }
+      }
+      return -(low + 1);
+   }
+
+   private static int binarySearch(IntBuffer values, int fromIndex, int toIndex, int key) {
+      int low = fromIndex;
+      int high = toIndex - 1;
+
+      while (low <= high) {
+         final int middle = (low + high) >>> 1;
+         final int value = values.get(middle);
+         if (value < key) {
+            low = middle + 1;
+         }
+         else if (value > key) {
+            high = middle - 1;
+         }
+         else {
+            return middle;
+         }
+      }
+      return -(low + 1);
+   }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.sql.internal.persister.SnapshotVisitor;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the rows read by a snapshot persister, which {@link SnapshotImageWriter} then compiles into
+ * the image of an immutable {@link AuthorizationSnapshot}.
+ * <p/>
+ * Domains and resource classes are assigned their dense indexes as they are visited; resources are only
+ * indexed once all of them are known, since their indexes follow the order of their ids.
+ */
+public class AuthorizationSnapshotBuilder implements SnapshotVisitor {
+   private static final int INITIAL_CAPACITY = 64;
+
+   // domains
+   final Map<Long, Integer> domainIndexesById = new HashMap<>();
+   final List<Long>         parentDomainIds   = new ArrayList<>();
+
+   // resource classes and their permissions
+   final Map<Long, Integer> resourceClassIndexesById = new HashMap<>();
+   final List<String>       resourceClassNames       = new ArrayList<>();
+   final List<Boolean>      authenticatables         = new ArrayList<>();
+   final List<List<String>> permissionNames          = new ArrayList<>();
+
+   // resources
+   int      resourceCount;
+   long[]   resourceIds           = new long[INITIAL_CAPACITY];
+   int[]    resourceClassIndexes  = new int[INITIAL_CAPACITY];
+   int[]    resourceDomainIndexes = new int[INITIAL_CAPACITY];
+   String[] externalIds           = new String[INITIAL_CAPACITY];
+
+   // direct resource permissions
+   int                  resourcePermissionCount;
+   long[]               resourcePermissionAccessorIds = new long[INITIAL_CAPACITY];
+   long[]               resourcePermissionAccessedIds = new long[INITIAL_CAPACITY];
+   ResourcePermission[] resourcePermissions           = new ResourcePermission[INITIAL_CAPACITY];
+
+   // global resource permissions
+   int                  globalPermissionCount;
+   long[]               globalPermissionAccessorIds          = new long[INITIAL_CAPACITY];
+   int[]                globalPermissionDomainIndexes        = new int[INITIAL_CAPACITY];
+   int[]                globalPermissionResourceClassIndexes = new int[INITIAL_CAPACITY];
+   ResourcePermission[] globalPermissions                    = new ResourcePermission[INITIAL_CAPACITY];
+
+   // super-user domain permissions, the only domain permissions the snapshot evaluates
+   int    superUserPermissionCount;
+   long[] superUserAccessorIds   = new long[INITIAL_CAPACITY];
+   int[]  superUserDomainIndexes = new int[INITIAL_CAPACITY];
+
+   public AuthorizationSnapshot build() {
+      return new AuthorizationSnapshot(new SnapshotImageWriter(this).write());
+   }
+
+   @Override
+   public void visitDomain(Id<DomainId> domainId, String domainName, Id<DomainId> parentDomainId) {
+      domainIndexesById.put(domainId.getValue(), parentDomainIds.size());
+      parentDomainIds.add(parentDomainId == null ? null : parentDomainId.getValue());
+   }
+
+   @Override
+   public void visitResourceClass(Id<ResourceClassId> resourceClassId,
+                                  String resourceClassName,
+                                  boolean isAuthenticatable) {
+      resourceClassIndexesById.put(resourceClassId.getValue(), resourceClassNames.size());
+      resourceClassNames.add(resourceClassName);
+      authenticatables.add(isAuthenticatable);
+      permissionNames.add(new ArrayList<String>());
+   }
+
+   @Override
+   public void visitResourceClassPermission(Id<ResourceClassId> resourceClassId, String permissionName) {
+      final Integer resourceClassIndex = resourceClassIndexesById.get(resourceClassId.getValue());
+      if (resourceClassIndex != null) {
+         permissionNames.get(resourceClassIndex).add(permissionName);
+      }
+   }
+
+   @Override
+   public void visitResource(Id<ResourceId> resourceId,
+                             Id<ResourceClassId> resourceClassId,
+                             Id<DomainId> domainId,
+                             String externalId) {
+      final Integer resourceClassIndex = resourceClassIndexesById.get(resourceClassId.getValue());
+      final Integer domainIndex = domainIndexesById.get(domainId.getValue());
+      if (resourceClassIndex == null || domainIndex == null) {
+         return;
+      }
+
+      if (resourceCount == resourceIds.length) {
+         final int newCapacity = resourceCount * 2;
+         resourceIds = Arrays.copyOf(resourceIds, newCapacity);
+         resourceClassIndexes = Arrays.copyOf(resourceClassIndexes, newCapacity);
+         resourceDomainIndexes = Arrays.copyOf(resourceDomainIndexes, newCapacity);
+         externalIds = Arrays.copyOf(externalIds, newCapacity);
+      }
+      resourceIds[resourceCount] = resourceId.getValue();
+      resourceClassIndexes[resourceCount] = resourceClassIndex;
+      resourceDomainIndexes[resourceCount] = domainIndex;
+      externalIds[resourceCount] = externalId;
+      resourceCount++;
+   }
+
+   @Override
+   public void visitResourcePermission(Id<ResourceId> accessorResourceId,
+                                       Id<ResourceId> accessedResourceId,
+                                       ResourcePermission resourcePermission) {
+      if (resourcePermissionCount == resourcePermissions.length) {
+         final int newCapacity = resourcePermissionCount * 2;
+         resourcePermissionAccessorIds = Arrays.copyOf(resourcePermissionAccessorIds, newCapacity);
+         resourcePermissionAccessedIds = Arrays.copyOf(resourcePermissionAccessedIds, newCapacity);
+         resourcePermissions = Arrays.copyOf(resourcePermissions, newCapacity);
+      }
+      resourcePermissionAccessorIds[resourcePermissionCount] = accessorResourceId.getValue();
+      resourcePermissionAccessedIds[resourcePermissionCount] = accessedResourceId.getValue();
+      resourcePermissions[resourcePermissionCount] = resourcePermission;
+      resourcePermissionCount++;
+   }
+
+   @Override
+   public void visitGlobalResourcePermission(Id<ResourceId> accessorResourceId,
+                                             Id<DomainId> accessedDomainId,
+                                             Id<ResourceClassId> resourceClassId,
+                                             ResourcePermission resourcePermission) {
+      final Integer domainIndex = domainIndexesById.get(accessedDomainId.getValue());
+      final Integer resourceClassIndex = resourceClassIndexesById.get(resourceClassId.getValue());
+      if (domainIndex == null || resourceClassIndex == null) {
+         return;
+      }
+
+      if (globalPermissionCount == globalPermissions.length) {
+         final int newCapacity = globalPermissionCount * 2;
+         globalPermissionAccessorIds = Arrays.copyOf(globalPermissionAccessorIds, newCapacity);
+         globalPermissionDomainIndexes = Arrays.copyOf(globalPermissionDomainIndexes, newCapacity);
+         globalPermissionResourceClassIndexes = Arrays.copyOf(globalPermissionResourceClassIndexes, newCapacity);
+         globalPermissions = Arrays.copyOf(globalPermissions, newCapacity);
+      }
+      globalPermissionAccessorIds[globalPermissionCount] = accessorResourceId.getValue();
+      globalPermissionDomainIndexes[globalPermissionCount] = domainIndex;
+      globalPermissionResourceClassIndexes[globalPermissionCount] = resourceClassIndex;
+      globalPermissions[globalPermissionCount] = resourcePermission;
+      globalPermissionCount++;
+   }
+
+   @Override
+   public void visitDomainPermission(Id<ResourceId> accessorResourceId,
+                                     Id<DomainId> accessedDomainId,
+                                     DomainPermission domainPermission) {
+      final Integer domainIndex = domainIndexesById.get(accessedDomainId.getValue());
+      if (domainIndex == null || !DomainPermissions.SUPER_USER.equals(domainPermission.getPermissionName())) {
+         return;
+      }
+
+      if (superUserPermissionCount == superUserAccessorIds.length) {
+         final int newCapacity = superUserPermissionCount * 2;
+         superUserAccessorIds = Arrays.copyOf(superUserAccessorIds, newCapacity);
+         superUserDomainIndexes = Arrays.copyOf(superUserDomainIndexes, newCapacity);
+      }
+      superUserAccessorIds[superUserPermissionCount] = accessorResourceId.getValue();
+      superUserDomainIndexes[superUserPermissionCount] = domainIndex;
+      superUserPermissionCount++;
+   }
+}
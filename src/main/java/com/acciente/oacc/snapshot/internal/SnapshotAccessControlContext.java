@@ -0,0 +1,1097 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.Credentials;
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.NotAuthorizedException;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceClassInfo;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only access control context that answers resource permission checks from an in-memory
+ * authorization snapshot.
+ * <p/>
+ * {@code hasResourcePermissions}, {@code assertResourcePermissions} and {@code getEffectiveResourcePermissions},
+ * including the super-user checks they imply, are evaluated entirely against the current snapshot of the
+ * {@link SnapshotHolder}, and so reflect the state of the underlying store at the time of the last snapshot.
+ * Authentication, impersonation and all other queries are passed on to an access control context on the
+ * underlying store. All operations that would modify the underlying store are rejected.
+ */
+public class SnapshotAccessControlContext implements AccessControlContext {
+   // resource permissions constants
+   private static final ResourcePermission ResourcePermission_IMPERSONATE
+         = ResourcePermissions.getInstance(ResourcePermissions.IMPERSONATE);
+   private static final ResourcePermission ResourcePermission_QUERY
+         = ResourcePermissions.getInstance(ResourcePermissions.QUERY);
+
+   private final AccessControlContext accessControlContext;
+   private final SnapshotHolder       snapshotHolder;
+
+   public static AccessControlContext getAccessControlContext(AccessControlContext accessControlContext,
+                                                              SnapshotHolder snapshotHolder) {
+      return new SnapshotAccessControlContext(accessControlContext, snapshotHolder);
+   }
+
+   private SnapshotAccessControlContext(AccessControlContext accessControlContext,
+                                        SnapshotHolder snapshotHolder) {
+      this.accessControlContext = accessControlContext;
+      this.snapshotHolder = snapshotHolder;
+   }
+
+   @Override
+   public void authenticate(Resource resource,
+                            Credentials credentials) {
+      accessControlContext.authenticate(resource,
+                                        credentials);
+   }
+
+   @Override
+   public void authenticate(Resource resource) {
+      accessControlContext.authenticate(resource);
+   }
+
+   @Override
+   public void unauthenticate() {
+      accessControlContext.unauthenticate();
+   }
+
+   @Override
+   public Resource getAuthenticatedResource() {
+      return accessControlContext.getAuthenticatedResource();
+   }
+
+   @Override
+   public void impersonate(Resource resource) {
+      accessControlContext.impersonate(resource);
+   }
+
+   @Override
+   public void unimpersonate() {
+      accessControlContext.unimpersonate();
+   }
+
+   @Override
+   public Resource getSessionResource() {
+      return accessControlContext.getSessionResource();
+   }
+
+   @Override
+   public void setCredentials(Resource resource,
+                              Credentials newCredentials) {
+      throw __newReadOnlyException("setCredentials");
+   }
+
+   @Override
+   public void setCredentials(Map<Resource, Credentials> newCredentialsByResource) {
+      throw __newReadOnlyException("setCredentials");
+   }
+
+   @Override
+   public void assertDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      accessControlContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public void assertDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      accessControlContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermission,
+                                                   domainPermissions);
+   }
+
+   @Override
+   public boolean hasDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      return accessControlContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermissions);
+   }
+
+   @Override
+   public boolean hasDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      return accessControlContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermission,
+                                                       domainPermissions);
+   }
+
+   @Override
+   public void assertDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      accessControlContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public void assertDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      accessControlContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermission,
+                                                         domainCreatePermissions);
+   }
+
+   @Override
+   public boolean hasDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      return accessControlContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermissions);
+   }
+
+   @Override
+   public boolean hasDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      return accessControlContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermission,
+                                                             domainCreatePermissions);
+   }
+
+   @Override
+   public void assertPostCreateDomainPermissions(Resource accessorResource,
+                                                 Set<DomainPermission> domainPermissions) {
+      accessControlContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermissions);
+   }
+
+   @Override
+   public void assertPostCreateDomainPermissions(Resource accessorResource,
+                                                 DomainPermission domainPermission,
+                                                 DomainPermission... domainPermissions) {
+      accessControlContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermission,
+                                                             domainPermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateDomainPermissions(Resource accessorResource,
+                                                 Set<DomainPermission> domainPermissions) {
+      return accessControlContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateDomainPermissions(Resource accessorResource,
+                                                 DomainPermission domainPermission,
+                                                 DomainPermission... domainPermissions) {
+      return accessControlContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermission,
+                                                                 domainPermissions);
+   }
+
+   @Override
+   public void assertGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public void assertGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      accessControlContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermission,
+                                                           resourcePermissions);
+   }
+
+   @Override
+   public boolean hasGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public boolean hasGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      return accessControlContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public void assertResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      if (!hasResourcePermissions(accessorResource, accessedResource, resourcePermissions)) {
+         throw NotAuthorizedException.newInstanceForResourcePermissions(accessorResource,
+                                                                        accessedResource,
+                                                                        resourcePermissions);
+      }
+   }
+
+   @Override
+   public void assertResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      if (!hasResourcePermissions(accessorResource, accessedResource, resourcePermission, resourcePermissions)) {
+         throw NotAuthorizedException.newInstanceForResourcePermissions(accessorResource,
+                                                                        accessedResource,
+                                                                        resourcePermission,
+                                                                        resourcePermissions);
+      }
+   }
+
+   @Override
+   public boolean hasResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      final Resource sessionResource = accessControlContext.getSessionResource();
+      __assertResourceSpecified(accessorResource);
+      __assertResourceSpecified(accessedResource);
+      __assertPermissionsSpecified(resourcePermissions);
+      __assertPermissionsSetNotEmpty(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermissions(resourcePermissions);
+
+      return __hasResourcePermissions(sessionResource,
+                                      accessorResource,
+                                      accessedResource,
+                                      normalizedResourcePermissions);
+   }
+
+   @Override
+   public boolean hasResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      final Resource sessionResource = accessControlContext.getSessionResource();
+      __assertResourceSpecified(accessorResource);
+      __assertResourceSpecified(accessedResource);
+      __assertPermissionSpecified(resourcePermission);
+      __assertVarargPermissionsSpecified(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions
+            = __normalizeResourcePermissions(__getSetWithoutNullsOrDuplicates(resourcePermission, resourcePermissions));
+
+      return __hasResourcePermissions(sessionResource,
+                                      accessorResource,
+                                      accessedResource,
+                                      normalizedResourcePermissions);
+   }
+
+   private boolean __hasResourcePermissions(Resource sessionResource,
+                                            Resource accessorResource,
+                                            Resource accessedResource,
+                                            Set<ResourcePermission> requestedResourcePermissions) {
+      // all lookups of a single check go against the same snapshot, even if it gets swapped out meanwhile
+      final AuthorizationSnapshot authorizationSnapshot = snapshotHolder.getSnapshot();
+      final int accessorResourceIndex = __resolveResource(authorizationSnapshot, accessorResource);
+      final int accessedResourceIndex = __resolveResource(authorizationSnapshot, accessedResource);
+      __assertQueryAuthorization(authorizationSnapshot, sessionResource, accessorResourceIndex);
+
+      return authorizationSnapshot.hasResourcePermissions(accessorResourceIndex,
+                                                          accessedResourceIndex,
+                                                          requestedResourcePermissions);
+   }
+
+   @Override
+   public void assertResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      accessControlContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public void assertResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      accessControlContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermission,
+                                                           resourceCreatePermissions);
+   }
+
+   @Override
+   public boolean hasResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      return accessControlContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermissions);
+   }
+
+   @Override
+   public boolean hasResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      return accessControlContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermission,
+                                                               resourceCreatePermissions);
+   }
+
+   @Override
+   public void assertPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> resourcePermissions) {
+      accessControlContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public void assertPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   ResourcePermission resourcePermission,
+                                                   ResourcePermission... resourcePermissions) {
+      accessControlContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermissions);
+   }
+
+   @Override
+   public boolean hasPostCreateResourcePermissions(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   ResourcePermission resourcePermission,
+                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermission,
+                                                                   resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissions(Resource accessorResource,
+                                                          String resourceClassName,
+                                                          Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissions(Resource accessorResource,
+                                                          String resourceClassName,
+                                                          ResourcePermission resourcePermission,
+                                                          ResourcePermission... resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermission,
+                                                                    resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.iterateResourcesByResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   ResourcePermission resourcePermission,
+                                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.iterateResourcesByResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        resourcePermission,
+                                                                        resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   String domainName,
+                                                                   Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getResourcesByResourcePermissionsAndDomain(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   String domainName,
+                                                                   ResourcePermission resourcePermission,
+                                                                   ResourcePermission... resourcePermissions) {
+      return accessControlContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermission,
+                                                                             resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                  String resourceClassName,
+                                                                  Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermissions);
+   }
+
+   @Override
+   public Set<Resource> getAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                  String resourceClassName,
+                                                                  ResourcePermission resourcePermission,
+                                                                  ResourcePermission... resourcePermissions) {
+      return accessControlContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermission,
+                                                                            resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           Set<ResourcePermission> resourcePermissions) {
+      return accessControlContext.iterateAccessorResourcesByResourcePermissions(accessedResource,
+                                                                                resourceClassName,
+                                                                                resourcePermissions);
+   }
+
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           ResourcePermission resourcePermission,
+                                                                           ResourcePermission... resourcePermissions) {
+      return accessControlContext.iterateAccessorResourcesByResourcePermissions(accessedResource,
+                                                                                resourceClassName,
+                                                                                resourcePermission,
+                                                                                resourcePermissions);
+   }
+
+   @Override
+   public String getDomainNameByResource(Resource resource) {
+      return accessControlContext.getDomainNameByResource(resource);
+   }
+
+   @Override
+   public Set<String> getDomainDescendants(String domainName) {
+      return accessControlContext.getDomainDescendants(domainName);
+   }
+
+   @Override
+   public Iterator<String> iterateDomainDescendants(String domainName) {
+      return accessControlContext.iterateDomainDescendants(domainName);
+   }
+
+   @Override
+   public ResourceClassInfo getResourceClassInfo(String resourceClassName) {
+      return accessControlContext.getResourceClassInfo(resourceClassName);
+   }
+
+   @Override
+   public ResourceClassInfo getResourceClassInfoByResource(Resource resource) {
+      return accessControlContext.getResourceClassInfoByResource(resource);
+   }
+
+   @Override
+   public List<String> getResourceClassNames() {
+      return accessControlContext.getResourceClassNames();
+   }
+
+   @Override
+   public List<String> getResourcePermissionNames(String resourceClassName) {
+      return accessControlContext.getResourcePermissionNames(resourceClassName);
+   }
+
+   @Override
+   public void createResourceClass(String resourceClassName,
+                                   boolean authenticatable,
+                                   boolean unauthenticatedCreateAllowed) {
+      throw __newReadOnlyException("createResourceClass");
+   }
+
+   @Override
+   public void createResourcePermission(String resourceClassName,
+                                        String permissionName) {
+      throw __newReadOnlyException("createResourcePermission");
+   }
+
+   @Override
+   public void createDomain(String domainName) {
+      throw __newReadOnlyException("createDomain");
+   }
+
+   @Override
+   public void createDomain(String domainName,
+                            String parentDomainName) {
+      throw __newReadOnlyException("createDomain");
+   }
+
+   @Override
+   public boolean deleteDomain(String domainName) {
+      throw __newReadOnlyException("deleteDomain");
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName) {
+      throw __newReadOnlyException("createResource");
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  Credentials credentials) {
+      throw __newReadOnlyException("createResource");
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  String externalId) {
+      throw __newReadOnlyException("createResource");
+   }
+
+   @Override
+   public Resource createResource(String resourceClassName,
+                                  String domainName,
+                                  String externalId,
+                                  Credentials credentials) {
+      throw __newReadOnlyException("createResource");
+   }
+
+   @Override
+   public Resource setExternalId(Resource resource,
+                                 String externalId) {
+      throw __newReadOnlyException("setExternalId");
+   }
+
+   @Override
+   public boolean deleteResource(Resource obsoleteResource) {
+      throw __newReadOnlyException("deleteResource");
+   }
+
+   @Override
+   public boolean deleteResources(Set<Resource> obsoleteResources) {
+      throw __newReadOnlyException("deleteResources");
+   }
+
+   @Override
+   public void setDomainCreatePermissions(Resource accessorResource,
+                                          Set<DomainCreatePermission> domainCreatePermissions) {
+      throw __newReadOnlyException("setDomainCreatePermissions");
+   }
+
+   @Override
+   public void grantDomainCreatePermissions(Resource accessorResource,
+                                            Set<DomainCreatePermission> domainCreatePermissions) {
+      throw __newReadOnlyException("grantDomainCreatePermissions");
+   }
+
+   @Override
+   public void grantDomainCreatePermissions(Resource accessorResource,
+                                            DomainCreatePermission domainCreatePermission,
+                                            DomainCreatePermission... domainCreatePermissions) {
+      throw __newReadOnlyException("grantDomainCreatePermissions");
+   }
+
+   @Override
+   public void revokeDomainCreatePermissions(Resource accessorResource,
+                                             Set<DomainCreatePermission> domainCreatePermissions) {
+      throw __newReadOnlyException("revokeDomainCreatePermissions");
+   }
+
+   @Override
+   public void revokeDomainCreatePermissions(Resource accessorResource,
+                                             DomainCreatePermission domainCreatePermission,
+                                             DomainCreatePermission... domainCreatePermissions) {
+      throw __newReadOnlyException("revokeDomainCreatePermissions");
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getDomainCreatePermissions(Resource accessorResource) {
+      return accessControlContext.getDomainCreatePermissions(accessorResource);
+   }
+
+   @Override
+   public Set<DomainCreatePermission> getEffectiveDomainCreatePermissions(Resource accessorResource) {
+      return accessControlContext.getEffectiveDomainCreatePermissions(accessorResource);
+   }
+
+   @Override
+   public void setDomainPermissions(Resource accessorResource,
+                                    String domainName,
+                                    Set<DomainPermission> domainPermissions) {
+      throw __newReadOnlyException("setDomainPermissions");
+   }
+
+   @Override
+   public void grantDomainPermissions(Resource accessorResource,
+                                      String domainName,
+                                      Set<DomainPermission> domainPermissions) {
+      throw __newReadOnlyException("grantDomainPermissions");
+   }
+
+   @Override
+   public void grantDomainPermissions(Resource accessorResource,
+                                      String domainName,
+                                      DomainPermission domainPermission,
+                                      DomainPermission... domainPermissions) {
+      throw __newReadOnlyException("grantDomainPermissions");
+   }
+
+   @Override
+   public void revokeDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       Set<DomainPermission> domainPermissions) {
+      throw __newReadOnlyException("revokeDomainPermissions");
+   }
+
+   @Override
+   public void revokeDomainPermissions(Resource accessorResource,
+                                       String domainName,
+                                       DomainPermission domainPermission,
+                                       DomainPermission... domainPermissions) {
+      throw __newReadOnlyException("revokeDomainPermissions");
+   }
+
+   @Override
+   public Set<DomainPermission> getDomainPermissions(Resource accessorResource,
+                                                     String domainName) {
+      return accessControlContext.getDomainPermissions(accessorResource,
+                                                       domainName);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getDomainPermissionsMap(Resource accessorResource) {
+      return accessControlContext.getDomainPermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Set<DomainPermission> getEffectiveDomainPermissions(Resource accessorResource,
+                                                              String domainName) {
+      return accessControlContext.getEffectiveDomainPermissions(accessorResource,
+                                                                domainName);
+   }
+
+   @Override
+   public Map<String, Set<DomainPermission>> getEffectiveDomainPermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveDomainPermissionsMap(accessorResource);
+   }
+
+   @Override
+   public void setResourceCreatePermissions(Resource accessorResource,
+                                            String resourceClassName,
+                                            String domainName,
+                                            Set<ResourceCreatePermission> resourceCreatePermissions) {
+      throw __newReadOnlyException("setResourceCreatePermissions");
+   }
+
+   @Override
+   public void grantResourceCreatePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              Set<ResourceCreatePermission> resourceCreatePermissions) {
+      throw __newReadOnlyException("grantResourceCreatePermissions");
+   }
+
+   @Override
+   public void grantResourceCreatePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              ResourceCreatePermission resourceCreatePermission,
+                                              ResourceCreatePermission... resourceCreatePermissions) {
+      throw __newReadOnlyException("grantResourceCreatePermissions");
+   }
+
+   @Override
+   public void revokeResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourceCreatePermission> resourceCreatePermissions) {
+      throw __newReadOnlyException("revokeResourceCreatePermissions");
+   }
+
+   @Override
+   public void revokeResourceCreatePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourceCreatePermission resourceCreatePermission,
+                                               ResourceCreatePermission... resourceCreatePermissions) {
+      throw __newReadOnlyException("revokeResourceCreatePermissions");
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getResourceCreatePermissions(Resource accessorResource,
+                                                                     String resourceClassName,
+                                                                     String domainName) {
+      return accessControlContext.getResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+   }
+
+   @Override
+   public Set<ResourceCreatePermission> getEffectiveResourceCreatePermissions(Resource accessorResource,
+                                                                              String resourceClassName,
+                                                                              String domainName) {
+      return accessControlContext.getEffectiveResourceCreatePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getResourceCreatePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getResourceCreatePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourceCreatePermission>>> getEffectiveResourceCreatePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveResourceCreatePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public void setResourcePermissions(Resource accessorResource,
+                                      Resource accessedResource,
+                                      Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("setResourcePermissions");
+   }
+
+   @Override
+   public void grantResourcePermissions(Resource accessorResource,
+                                        Resource accessedResource,
+                                        Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("grantResourcePermissions");
+   }
+
+   @Override
+   public void grantResourcePermissions(Resource accessorResource,
+                                        Resource accessedResource,
+                                        ResourcePermission resourcePermission,
+                                        ResourcePermission... resourcePermissions) {
+      throw __newReadOnlyException("grantResourcePermissions");
+   }
+
+   @Override
+   public void grantResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                              Set<Resource> accessedResources,
+                                              Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("grantResourcePermissionsInBulk");
+   }
+
+   @Override
+   public void revokeResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("revokeResourcePermissions");
+   }
+
+   @Override
+   public void revokeResourcePermissions(Resource accessorResource,
+                                         Resource accessedResource,
+                                         ResourcePermission resourcePermission,
+                                         ResourcePermission... resourcePermissions) {
+      throw __newReadOnlyException("revokeResourcePermissions");
+   }
+
+   @Override
+   public void revokeResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                               Set<Resource> accessedResources,
+                                               Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("revokeResourcePermissionsInBulk");
+   }
+
+   @Override
+   public Set<ResourcePermission> getResourcePermissions(Resource accessorResource,
+                                                         Resource accessedResource) {
+      return accessControlContext.getResourcePermissions(accessorResource,
+                                                         accessedResource);
+   }
+
+   @Override
+   public Set<ResourcePermission> getEffectiveResourcePermissions(Resource accessorResource,
+                                                                  Resource accessedResource) {
+      final Resource sessionResource = accessControlContext.getSessionResource();
+      __assertResourceSpecified(accessorResource);
+      __assertResourceSpecified(accessedResource);
+
+      final AuthorizationSnapshot authorizationSnapshot = snapshotHolder.getSnapshot();
+      final int accessorResourceIndex = __resolveResource(authorizationSnapshot, accessorResource);
+      final int accessedResourceIndex = __resolveResource(authorizationSnapshot, accessedResource);
+      __assertQueryAuthorization(authorizationSnapshot, sessionResource, accessorResourceIndex);
+
+      return authorizationSnapshot.getEffectiveResourcePermissions(accessorResourceIndex, accessedResourceIndex);
+   }
+
+   @Override
+   public void setGlobalResourcePermissions(Resource accessorResource,
+                                            String resourceClassName,
+                                            String domainName,
+                                            Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("setGlobalResourcePermissions");
+   }
+
+   @Override
+   public void grantGlobalResourcePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("grantGlobalResourcePermissions");
+   }
+
+   @Override
+   public void grantGlobalResourcePermissions(Resource accessorResource,
+                                              String resourceClassName,
+                                              String domainName,
+                                              ResourcePermission resourcePermission,
+                                              ResourcePermission... resourcePermissions) {
+      throw __newReadOnlyException("grantGlobalResourcePermissions");
+   }
+
+   @Override
+   public void revokeGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               Set<ResourcePermission> resourcePermissions) {
+      throw __newReadOnlyException("revokeGlobalResourcePermissions");
+   }
+
+   @Override
+   public void revokeGlobalResourcePermissions(Resource accessorResource,
+                                               String resourceClassName,
+                                               String domainName,
+                                               ResourcePermission resourcePermission,
+                                               ResourcePermission... resourcePermissions) {
+      throw __newReadOnlyException("revokeGlobalResourcePermissions");
+   }
+
+   @Override
+   public Set<ResourcePermission> getGlobalResourcePermissions(Resource accessorResource,
+                                                               String resourceClassName,
+                                                               String domainName) {
+      return accessControlContext.getGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+   }
+
+   @Override
+   public Set<ResourcePermission> getEffectiveGlobalResourcePermissions(Resource accessorResource,
+                                                                        String resourceClassName,
+                                                                        String domainName) {
+      return accessControlContext.getEffectiveGlobalResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getGlobalResourcePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getGlobalResourcePermissionsMap(accessorResource);
+   }
+
+   @Override
+   public Map<String, Map<String, Set<ResourcePermission>>> getEffectiveGlobalResourcePermissionsMap(Resource accessorResource) {
+      return accessControlContext.getEffectiveGlobalResourcePermissionsMap(accessorResource);
+   }
+
+
+   // private helper methods
+
+   private int __resolveResource(AuthorizationSnapshot authorizationSnapshot, Resource resource) {
+      final int resourceIndex;
+
+      if (resource.getId() != null) {
+         if (resource.getExternalId() != null) {
+            // the resource has both internal and external Ids, so let's see if they match
+            resourceIndex = authorizationSnapshot.getResourceIndex(resource.getExternalId());
+            if (resourceIndex == AuthorizationSnapshot.NONE
+                  || !resource.equals(authorizationSnapshot.getResource(resourceIndex))) {
+               throw new IllegalArgumentException("Resource " + resource + "'s id does not resolve to the specified externalId!");
+            }
+         }
+         else {
+            resourceIndex = authorizationSnapshot.getResourceIndex(resource.getId());
+            if (resourceIndex == AuthorizationSnapshot.NONE) {
+               throw new IllegalArgumentException("Resource " + resource + " not found!");
+            }
+         }
+      }
+      else if (resource.getExternalId() != null) {
+         resourceIndex = authorizationSnapshot.getResourceIndex(resource.getExternalId());
+         if (resourceIndex == AuthorizationSnapshot.NONE) {
+            throw new IllegalArgumentException("Resource " + resource + " not found!");
+         }
+      }
+      else {
+         throw new IllegalArgumentException("A resource id and/or external id is required, but neither was specified");
+      }
+
+      return resourceIndex;
+   }
+
+   private void __assertQueryAuthorization(AuthorizationSnapshot authorizationSnapshot,
+                                           Resource sessionResource,
+                                           int accessorResourceIndex) {
+      // a session resource created after the snapshot was taken has no permissions in it
+      final int sessionResourceIndex = authorizationSnapshot.getResourceIndex(sessionResource.getId());
+
+      if (sessionResourceIndex != accessorResourceIndex) {
+         if (sessionResourceIndex == AuthorizationSnapshot.NONE
+               || !authorizationSnapshot.hasAnyResourcePermission(sessionResourceIndex,
+                                                                  accessorResourceIndex,
+                                                                  ResourcePermission_QUERY,
+                                                                  ResourcePermission_IMPERSONATE)) {
+            throw NotAuthorizedException.newInstanceForActionOnResource(sessionResource,
+                                                                        "query",
+                                                                        authorizationSnapshot.getResource(accessorResourceIndex));
+         }
+      }
+   }
+
+   private static UnsupportedOperationException __newReadOnlyException(String operationName) {
+      return new UnsupportedOperationException("Operation " + operationName
+                                                     + " is not supported by a read-only snapshot access control context");
+   }
+
+   private static Set<ResourcePermission> __normalizeResourcePermissions(Set<ResourcePermission> resourcePermissions) {
+      Set<ResourcePermission> normalizedPermissions = new HashSet<>(resourcePermissions.size());
+      for (ResourcePermission resourcePermission : resourcePermissions) {
+         normalizedPermissions.add(ResourcePermissions.getInstance(resourcePermission));
+      }
+      return normalizedPermissions;
+   }
+
+   private static void __assertResourceSpecified(Resource resource) {
+      if (resource == null) {
+         throw new NullPointerException("Resource required, none specified");
+      }
+   }
+
+   private static void __assertPermissionSpecified(ResourcePermission resourcePermission) {
+      if (resourcePermission == null) {
+         throw new NullPointerException("Resource permission required, none specified");
+      }
+   }
+
+   private static void __assertVarargPermissionsSpecified(ResourcePermission... resourcePermissions) {
+      if (resourcePermissions == null) {
+         throw new NullPointerException("An array or a sequence of resource permissions are required, but the null value was specified");
+      }
+   }
+
+   private static void __assertPermissionsSpecified(Set<?> permissionSet) {
+      if (permissionSet == null) {
+         throw new NullPointerException("Set of permissions required, none specified");
+      }
+
+      if (permissionSet.contains(null)) {
+         throw new NullPointerException("Set of permissions contains null element");
+      }
+   }
+
+   private static void __assertPermissionsSetNotEmpty(Set<?> permissionSet) {
+      if (permissionSet.isEmpty()) {
+         throw new IllegalArgumentException("Set of permissions required, empty set specified");
+      }
+   }
+
+   private static Set<ResourcePermission> __getSetWithoutNullsOrDuplicates(ResourcePermission firstElement,
+                                                                           ResourcePermission... elements) {
+      // not null constraint
+      if (elements == null) {
+         throw new NullPointerException("An array or a sequence of arguments are required, but none were specified");
+      }
+
+      final HashSet<ResourcePermission> resultSet = new HashSet<>(elements.length + 1);
+      resultSet.add(firstElement);
+
+      for (ResourcePermission element : elements) {
+         // non-null elements constraint
+         if (element == null) {
+            throw new NullPointerException("A " + elements.getClass().getSimpleName()
+                                                 + " argument (or sequence of varargs) without null elements is required, but received: "
+                                                 + Arrays.asList(elements));
+         }
+
+         // duplicate elements get ignored silently
+         if (!resultSet.add(element)) {
+            throw new IllegalArgumentException("Duplicate element: " + element);
+         }
+      }
+
+      return resultSet;
+   }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import com.acciente.oacc.sql.internal.persister.PersisterProvider;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.SQLException;
+
+/**
+ * Holds the current authorization snapshot and replaces it with a freshly read one on every reload.
+ * <p/>
+ * A snapshot is either read from the persisters of a store, or mapped from a snapshot file written by
+ * {@link AuthorizationSnapshot#writeTo(File)}.
+ * <p/>
+ * Readers always see a complete snapshot: a reload builds the new snapshot off to the side and then
+ * swaps it in with a single volatile write, while checks already in progress finish on the old one.
+ */
+public class SnapshotHolder {
+   private final    PersisterProvider     persisterProvider;
+   private final    DataSource            dataSource;
+   private final    File                  snapshotFile;
+   private volatile AuthorizationSnapshot authorizationSnapshot;
+
+   /**
+    * Creates a holder and reads its initial snapshot
+    *
+    * @param persisterProvider the persisters to read the snapshot with
+    * @param dataSource        the data source to read from, or null if the persisters do not require a connection
+    */
+   public SnapshotHolder(PersisterProvider persisterProvider, DataSource dataSource) {
+      this.persisterProvider = persisterProvider;
+      this.dataSource = dataSource;
+      this.snapshotFile = null;
+      reload();
+   }
+
+   /**
+    * Creates a holder and maps its initial snapshot from the specified snapshot file
+    *
+    * @param snapshotFile the snapshot file to map on every reload
+    */
+   public SnapshotHolder(File snapshotFile) {
+      this.persisterProvider = null;
+      this.dataSource = null;
+      this.snapshotFile = snapshotFile;
+      reload();
+   }
+
+   public AuthorizationSnapshot getSnapshot() {
+      return authorizationSnapshot;
+   }
+
+   // reloads are serialized, so that a slow reload can never replace the result of a later one
+   public synchronized void reload() {
+      if (snapshotFile != null) {
+         authorizationSnapshot = AuthorizationSnapshot.map(snapshotFile);
+         return;
+      }
+
+      SQLConnection connection = null;
+
+      try {
+         if (dataSource != null) {
+            connection = new SQLConnection(dataSource.getConnection());
+         }
+
+         final AuthorizationSnapshotBuilder authorizationSnapshotBuilder = new AuthorizationSnapshotBuilder();
+         persisterProvider.getSnapshotPersister().readSnapshot(connection, authorizationSnapshotBuilder);
+         authorizationSnapshot = authorizationSnapshotBuilder.build();
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         if (connection != null) {
+            try {
+               connection.close();
+            }
+            catch (SQLException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Describes the binary image an {@link AuthorizationSnapshot} is backed by, both in memory and in a snapshot file.
+ * <p/>
+ * The image is a fixed-width, little-endian layout of a header of int counts followed by the sections of the
+ * snapshot, each an array of ints, longs or bytes starting on an 8-byte boundary. Since all section lengths
+ * follow from the header, a snapshot can use an image as is, e.g. a memory-mapped file, without parsing it.
+ */
+final class SnapshotImage {
+   static final int       MAGIC            = 0x4f414353;  // "OACS"
+   static final int       VERSION          = 1;
+   static final int       HEADER_INT_COUNT = 16;
+   static final ByteOrder BYTE_ORDER       = ByteOrder.LITTLE_ENDIAN;
+
+   private SnapshotImage() {
+   }
+
+   /**
+    * Reads or writes the header and the sections of an image in order.
+    * <p/>
+    * A cursor without a buffer only advances, which is used to size an image before writing it.
+    */
+   static class Cursor {
+      private final ByteBuffer buffer;
+      private       long       position;
+
+      Cursor(ByteBuffer buffer) {
+         this.buffer = buffer;
+      }
+
+      // the length of the image up to the current position, including the padding of the last section
+      int getLength() {
+         if (position > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Authorization snapshot exceeds the maximum image size of 2GB");
+         }
+         return (int) position;
+      }
+
+      IntBuffer nextInts(int count) {
+         return nextSection(4L * count).asIntBuffer();
+      }
+
+      LongBuffer nextLongs(int count) {
+         return nextSection(8L * count).asLongBuffer();
+      }
+
+      ByteBuffer nextBytes(int count) {
+         return nextSection(count);
+      }
+
+      void putInts(int[] values) {
+         final ByteBuffer section = nextSection(4L * values.length);
+         if (section != null) {
+            section.asIntBuffer().put(values);
+         }
+      }
+
+      void putLongs(long[] values) {
+         final ByteBuffer section = nextSection(8L * values.length);
+         if (section != null) {
+            section.asLongBuffer().put(values);
+         }
+      }
+
+      void putBytes(byte[] values) {
+         final ByteBuffer section = nextSection(values.length);
+         if (section != null) {
+            section.put(values);
+         }
+      }
+
+      // returns the next section as a zero-based view, and moves past it to the next 8-byte boundary
+      private ByteBuffer nextSection(long byteCount) {
+         final long sectionEnd = position + byteCount;
+         if (sectionEnd > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Authorization snapshot exceeds the maximum image size of 2GB");
+         }
+
+         ByteBuffer section = null;
+         if (buffer != null) {
+            if (sectionEnd > buffer.limit()) {
+               throw new IllegalArgumentException("Authorization snapshot image is truncated");
+            }
+            final ByteBuffer view = buffer.duplicate();
+            view.limit((int) sectionEnd);
+            view.position((int) position);
+            section = view.slice().order(BYTE_ORDER);
+         }
+         position = (sectionEnd + 7) & ~7L;
+         return section;
+      }
+   }
+}
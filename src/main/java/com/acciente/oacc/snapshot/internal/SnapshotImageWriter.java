@@ -0,0 +1,456 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot.internal;
+
+import com.acciente.oacc.ResourcePermissions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the rows collected by an {@link AuthorizationSnapshotBuilder} into a {@link SnapshotImage}.
+ * <p/>
+ * Resources are indexed in the order of their ids. Inheritance edges, direct and global grants and super-user
+ * grants are each laid out in compressed sparse row form, keyed by the index of the accessor resource. The
+ * permissions of a grant are a bitmask over the permissions of the accessed resource class, with the system
+ * permissions occupying the lowest bits of every class: the words of the granted permissions are followed by
+ * the words of the permissions granted with the grant option.
+ */
+class SnapshotImageWriter {
+   private static final int NONE = AuthorizationSnapshot.NONE;
+
+   private static final List<String> SYS_PERMISSION_NAMES  = ResourcePermissions.getSysPermissionNames();
+   private static final int          IMPERSONATE_BIT       = SYS_PERMISSION_NAMES.indexOf(ResourcePermissions.IMPERSONATE);
+   private static final int          RESET_CREDENTIALS_BIT = SYS_PERMISSION_NAMES.indexOf(ResourcePermissions.RESET_CREDENTIALS);
+   private static final int          INHERIT_BIT           = SYS_PERMISSION_NAMES.indexOf(ResourcePermissions.INHERIT);
+
+   // domains
+   private final int[] parentDomainIndexes;
+
+   // resource classes
+   private final byte[] dictionary;
+   private final int[]  maskWordCounts;
+   private final int[]  applicableMaskOffsets;
+   private final long[] applicableMasks;
+
+   // resources
+   private final long[] resourceIds;
+   private final int[]  resourceClassIndexes;
+   private final int[]  resourceDomainIndexes;
+   private final int[]  externalIdOffsets;
+   private final int[]  externalIdLengths;
+   private final int[]  externalIdResourceIndexes;
+   private final byte[] externalIdBytes;
+
+   // accessor -> resources it inherits from
+   private final int[] inheritOffsets;
+   private final int[] inheritedResourceIndexes;
+
+   // accessor -> accessed resources, sorted by accessed index within each accessor
+   private final int[]  directGrantOffsets;
+   private final int[]  directGrantResourceIndexes;
+   private final int[]  directGrantMaskOffsets;
+   private final long[] directGrantMasks;
+
+   // accessor -> global grants
+   private final int[]  globalGrantOffsets;
+   private final int[]  globalGrantDomainIndexes;
+   private final int[]  globalGrantResourceClassIndexes;
+   private final int[]  globalGrantMaskOffsets;
+   private final long[] globalGrantMasks;
+
+   // accessor -> domains it has super-user permission on
+   private final int[] superUserOffsets;
+   private final int[] superUserDomainIndexes;
+
+   SnapshotImageWriter(AuthorizationSnapshotBuilder builder) {
+      // domains
+      final int domainCount = builder.parentDomainIds.size();
+      parentDomainIndexes = new int[domainCount];
+      for (int domainIndex = 0; domainIndex < domainCount; domainIndex++) {
+         final Long parentDomainId = builder.parentDomainIds.get(domainIndex);
+         final Integer parentDomainIndex = parentDomainId == null ? null : builder.domainIndexesById.get(parentDomainId);
+         parentDomainIndexes[domainIndex] = parentDomainIndex == null ? NONE : parentDomainIndex;
+      }
+
+      // resource classes
+      final int resourceClassCount = builder.resourceClassNames.size();
+      final List<Map<String, Integer>> permissionBitsByName = new ArrayList<>(resourceClassCount);
+      maskWordCounts = new int[resourceClassCount];
+      applicableMaskOffsets = new int[resourceClassCount];
+      int applicableMaskLength = 0;
+      for (int resourceClassIndex = 0; resourceClassIndex < resourceClassCount; resourceClassIndex++) {
+         final List<String> classPermissionNames = new ArrayList<>(SYS_PERMISSION_NAMES);
+         classPermissionNames.addAll(builder.permissionNames.get(resourceClassIndex));
+
+         final Map<String, Integer> permissionBits = new HashMap<>(classPermissionNames.size() * 2);
+         for (int bit = 0; bit < classPermissionNames.size(); bit++) {
+            permissionBits.put(classPermissionNames.get(bit), bit);
+         }
+         permissionBitsByName.add(permissionBits);
+         maskWordCounts[resourceClassIndex] = (classPermissionNames.size() + 63) >>> 6;
+         applicableMaskOffsets[resourceClassIndex] = applicableMaskLength;
+         applicableMaskLength += maskWordCounts[resourceClassIndex];
+      }
+      applicableMasks = new long[applicableMaskLength];
+      for (int resourceClassIndex = 0; resourceClassIndex < resourceClassCount; resourceClassIndex++) {
+         final boolean isAuthenticatable = builder.authenticatables.get(resourceClassIndex);
+         final int permissionCount = SYS_PERMISSION_NAMES.size() + builder.permissionNames.get(resourceClassIndex).size();
+         for (int bit = 0; bit < permissionCount; bit++) {
+            // impersonation and credential resets only apply to authenticatable resource classes
+            if (isAuthenticatable || (bit != IMPERSONATE_BIT && bit != RESET_CREDENTIALS_BIT)) {
+               setBit(applicableMasks, applicableMaskOffsets[resourceClassIndex], 0, bit, false);
+            }
+         }
+      }
+      dictionary = getDictionary(builder.resourceClassNames, builder.permissionNames);
+
+      // resources, ordered by id so that an id resolves to its index with a binary search
+      final int resourceCount = builder.resourceCount;
+      resourceIds = Arrays.copyOf(builder.resourceIds, resourceCount);
+      Arrays.sort(resourceIds);
+      resourceClassIndexes = new int[resourceCount];
+      resourceDomainIndexes = new int[resourceCount];
+      final byte[][] encodedExternalIds = new byte[resourceCount][];
+      int externalIdCount = 0;
+      for (int i = 0; i < resourceCount; i++) {
+         final int resourceIndex = Arrays.binarySearch(resourceIds, builder.resourceIds[i]);
+         resourceClassIndexes[resourceIndex] = builder.resourceClassIndexes[i];
+         resourceDomainIndexes[resourceIndex] = builder.resourceDomainIndexes[i];
+         if (builder.externalIds[i] != null) {
+            encodedExternalIds[resourceIndex] = builder.externalIds[i].getBytes(StandardCharsets.UTF_8);
+            externalIdCount++;
+         }
+      }
+
+      // external ids, with the indexes of their resources ordered by external id for a binary search
+      externalIdOffsets = new int[resourceCount];
+      externalIdLengths = new int[resourceCount];
+      final Integer[] externalIdOrder = new Integer[externalIdCount];
+      final ByteArrayOutputStream externalIdStream = new ByteArrayOutputStream();
+      externalIdCount = 0;
+      for (int resourceIndex = 0; resourceIndex < resourceCount; resourceIndex++) {
+         final byte[] encodedExternalId = encodedExternalIds[resourceIndex];
+         if (encodedExternalId == null) {
+            externalIdLengths[resourceIndex] = NONE;
+         }
+         else {
+            externalIdOffsets[resourceIndex] = externalIdStream.size();
+            externalIdLengths[resourceIndex] = encodedExternalId.length;
+            externalIdStream.write(encodedExternalId, 0, encodedExternalId.length);
+            externalIdOrder[externalIdCount++] = resourceIndex;
+         }
+      }
+      Arrays.sort(externalIdOrder, new Comparator<Integer>() {
+         @Override
+         public int compare(Integer resourceIndex, Integer otherResourceIndex) {
+            return compareUnsigned(encodedExternalIds[resourceIndex], encodedExternalIds[otherResourceIndex]);
+         }
+      });
+      externalIdResourceIndexes = new int[externalIdCount];
+      for (int i = 0; i < externalIdCount; i++) {
+         externalIdResourceIndexes[i] = externalIdOrder[i];
+      }
+      externalIdBytes = externalIdStream.toByteArray();
+
+      // direct grants and the inheritance edges among them, keyed by accessor index * resource count + accessed index
+      final int directPermissionCount = builder.resourcePermissionCount;
+      final long[] directGrantKeys = new long[directPermissionCount];
+      final int[] directGrantBits = new int[directPermissionCount];
+      final long[] inheritKeys = new long[directPermissionCount];
+      int directGrantKeyCount = 0;
+      int inheritKeyCount = 0;
+      for (int i = 0; i < directPermissionCount; i++) {
+         final int accessorIndex = getResourceIndex(builder.resourcePermissionAccessorIds[i]);
+         final int accessedIndex = getResourceIndex(builder.resourcePermissionAccessedIds[i]);
+         final int bit = accessorIndex == NONE || accessedIndex == NONE
+                         ? NONE
+                         : getPermissionBit(permissionBitsByName.get(resourceClassIndexes[accessedIndex]),
+                                            builder.resourcePermissions[i].getPermissionName());
+         directGrantBits[i] = bit;
+         if (bit != NONE) {
+            final long key = (long) accessorIndex * resourceCount + accessedIndex;
+            directGrantKeys[directGrantKeyCount++] = key;
+            if (bit == INHERIT_BIT) {
+               inheritKeys[inheritKeyCount++] = key;
+            }
+         }
+      }
+
+      final long[] uniqueInheritKeys = getSortedUniqueKeys(inheritKeys, inheritKeyCount);
+      inheritOffsets = getRowOffsets(uniqueInheritKeys, resourceCount, resourceCount);
+      inheritedResourceIndexes = new int[uniqueInheritKeys.length];
+      for (int edge = 0; edge < uniqueInheritKeys.length; edge++) {
+         inheritedResourceIndexes[edge] = (int) (uniqueInheritKeys[edge] % resourceCount);
+      }
+
+      final long[] uniqueDirectGrantKeys = getSortedUniqueKeys(directGrantKeys, directGrantKeyCount);
+      directGrantOffsets = getRowOffsets(uniqueDirectGrantKeys, resourceCount, resourceCount);
+      directGrantResourceIndexes = new int[uniqueDirectGrantKeys.length];
+      directGrantMaskOffsets = new int[uniqueDirectGrantKeys.length];
+      int directGrantMaskLength = 0;
+      for (int edge = 0; edge < uniqueDirectGrantKeys.length; edge++) {
+         final int accessedIndex = (int) (uniqueDirectGrantKeys[edge] % resourceCount);
+         directGrantResourceIndexes[edge] = accessedIndex;
+         directGrantMaskOffsets[edge] = directGrantMaskLength;
+         directGrantMaskLength += 2 * maskWordCounts[resourceClassIndexes[accessedIndex]];
+      }
+      directGrantMasks = new long[directGrantMaskLength];
+      for (int i = 0; i < directPermissionCount; i++) {
+         if (directGrantBits[i] != NONE) {
+            final int accessorIndex = getResourceIndex(builder.resourcePermissionAccessorIds[i]);
+            final int accessedIndex = getResourceIndex(builder.resourcePermissionAccessedIds[i]);
+            final int edge = Arrays.binarySearch(uniqueDirectGrantKeys,
+                                                 (long) accessorIndex * resourceCount + accessedIndex);
+            setBit(directGrantMasks,
+                   directGrantMaskOffsets[edge],
+                   maskWordCounts[resourceClassIndexes[accessedIndex]],
+                   directGrantBits[i],
+                   builder.resourcePermissions[i].isWithGrantOption());
+         }
+      }
+
+      // global grants, keyed by (accessor index * domain count + domain index) * resource class count + class index
+      final int globalPermissionCount = builder.globalPermissionCount;
+      final long domainAndResourceClassCount = (long) domainCount * resourceClassCount;
+      final long[] globalGrantKeys = new long[globalPermissionCount];
+      final int[] globalGrantBits = new int[globalPermissionCount];
+      int globalGrantKeyCount = 0;
+      for (int i = 0; i < globalPermissionCount; i++) {
+         final int accessorIndex = getResourceIndex(builder.globalPermissionAccessorIds[i]);
+         final int bit = accessorIndex == NONE
+                         ? NONE
+                         : getPermissionBit(permissionBitsByName.get(builder.globalPermissionResourceClassIndexes[i]),
+                                            builder.globalPermissions[i].getPermissionName());
+         globalGrantBits[i] = bit;
+         if (bit != NONE) {
+            globalGrantKeys[globalGrantKeyCount++] = getGlobalGrantKey(accessorIndex,
+                                                                       builder.globalPermissionDomainIndexes[i],
+                                                                       builder.globalPermissionResourceClassIndexes[i],
+                                                                       domainCount,
+                                                                       resourceClassCount);
+         }
+      }
+
+      final long[] uniqueGlobalGrantKeys = getSortedUniqueKeys(globalGrantKeys, globalGrantKeyCount);
+      globalGrantOffsets = getRowOffsets(uniqueGlobalGrantKeys, domainAndResourceClassCount, resourceCount);
+      globalGrantDomainIndexes = new int[uniqueGlobalGrantKeys.length];
+      globalGrantResourceClassIndexes = new int[uniqueGlobalGrantKeys.length];
+      globalGrantMaskOffsets = new int[uniqueGlobalGrantKeys.length];
+      int globalGrantMaskLength = 0;
+      for (int edge = 0; edge < uniqueGlobalGrantKeys.length; edge++) {
+         final long domainAndResourceClass = uniqueGlobalGrantKeys[edge] % domainAndResourceClassCount;
+         final int resourceClassIndex = (int) (domainAndResourceClass % resourceClassCount);
+         globalGrantDomainIndexes[edge] = (int) (domainAndResourceClass / resourceClassCount);
+         globalGrantResourceClassIndexes[edge] = resourceClassIndex;
+         globalGrantMaskOffsets[edge] = globalGrantMaskLength;
+         globalGrantMaskLength += 2 * maskWordCounts[resourceClassIndex];
+      }
+      globalGrantMasks = new long[globalGrantMaskLength];
+      for (int i = 0; i < globalPermissionCount; i++) {
+         if (globalGrantBits[i] != NONE) {
+            final int resourceClassIndex = builder.globalPermissionResourceClassIndexes[i];
+            final int edge = Arrays.binarySearch(uniqueGlobalGrantKeys,
+                                                 getGlobalGrantKey(getResourceIndex(builder.globalPermissionAccessorIds[i]),
+                                                                   builder.globalPermissionDomainIndexes[i],
+                                                                   resourceClassIndex,
+                                                                   domainCount,
+                                                                   resourceClassCount));
+            setBit(globalGrantMasks,
+                   globalGrantMaskOffsets[edge],
+                   maskWordCounts[resourceClassIndex],
+                   globalGrantBits[i],
+                   builder.globalPermissions[i].isWithGrantOption());
+         }
+      }
+
+      // super-user grants, keyed by accessor index * domain count + domain index
+      final long[] superUserKeys = new long[builder.superUserPermissionCount];
+      int superUserKeyCount = 0;
+      for (int i = 0; i < builder.superUserPermissionCount; i++) {
+         final int accessorIndex = getResourceIndex(builder.superUserAccessorIds[i]);
+         if (accessorIndex != NONE) {
+            superUserKeys[superUserKeyCount++] = (long) accessorIndex * domainCount + builder.superUserDomainIndexes[i];
+         }
+      }
+
+      final long[] uniqueSuperUserKeys = getSortedUniqueKeys(superUserKeys, superUserKeyCount);
+      superUserOffsets = getRowOffsets(uniqueSuperUserKeys, domainCount, resourceCount);
+      superUserDomainIndexes = new int[uniqueSuperUserKeys.length];
+      for (int edge = 0; edge < uniqueSuperUserKeys.length; edge++) {
+         superUserDomainIndexes[edge] = (int) (uniqueSuperUserKeys[edge] % domainCount);
+      }
+   }
+
+   /**
+    * Writes the compiled snapshot into a new heap buffer, in the layout {@link AuthorizationSnapshot} reads it in
+    */
+   ByteBuffer write() {
+      // the first pass only sizes the image
+      final SnapshotImage.Cursor sizingCursor = new SnapshotImage.Cursor(null);
+      write(sizingCursor, 0);
+
+      final int imageLength = sizingCursor.getLength();
+      final ByteBuffer image = ByteBuffer.allocate(imageLength).order(SnapshotImage.BYTE_ORDER);
+      write(new SnapshotImage.Cursor(image), imageLength);
+      return image;
+   }
+
+   // the sections are written in the same order as AuthorizationSnapshot reads them
+   private void write(SnapshotImage.Cursor cursor, int imageLength) {
+      cursor.putInts(new int[]{SnapshotImage.MAGIC,
+                               SnapshotImage.VERSION,
+                               imageLength,
+                               parentDomainIndexes.length,
+                               maskWordCounts.length,
+                               resourceIds.length,
+                               dictionary.length,
+                               applicableMasks.length,
+                               externalIdResourceIndexes.length,
+                               externalIdBytes.length,
+                               inheritedResourceIndexes.length,
+                               directGrantResourceIndexes.length,
+                               directGrantMasks.length,
+                               globalGrantDomainIndexes.length,
+                               globalGrantMasks.length,
+                               superUserDomainIndexes.length});
+
+      cursor.putBytes(dictionary);
+      cursor.putInts(parentDomainIndexes);
+      cursor.putInts(maskWordCounts);
+      cursor.putInts(applicableMaskOffsets);
+      cursor.putLongs(applicableMasks);
+
+      cursor.putLongs(resourceIds);
+      cursor.putInts(resourceClassIndexes);
+      cursor.putInts(resourceDomainIndexes);
+      cursor.putInts(externalIdOffsets);
+      cursor.putInts(externalIdLengths);
+      cursor.putInts(externalIdResourceIndexes);
+      cursor.putBytes(externalIdBytes);
+
+      cursor.putInts(inheritOffsets);
+      cursor.putInts(inheritedResourceIndexes);
+
+      cursor.putInts(directGrantOffsets);
+      cursor.putInts(directGrantResourceIndexes);
+      cursor.putInts(directGrantMaskOffsets);
+      cursor.putLongs(directGrantMasks);
+
+      cursor.putInts(globalGrantOffsets);
+      cursor.putInts(globalGrantDomainIndexes);
+      cursor.putInts(globalGrantResourceClassIndexes);
+      cursor.putInts(globalGrantMaskOffsets);
+      cursor.putLongs(globalGrantMasks);
+
+      cursor.putInts(superUserOffsets);
+      cursor.putInts(superUserDomainIndexes);
+   }
+
+   private int getResourceIndex(long resourceId) {
+      final int resourceIndex = Arrays.binarySearch(resourceIds, resourceId);
+      return resourceIndex < 0 ? NONE : resourceIndex;
+   }
+
+   private static int getPermissionBit(Map<String, Integer> permissionBits, String permissionName) {
+      final Integer bit = permissionBits.get(permissionName);
+      return bit == null ? NONE : bit;
+   }
+
+   // the resource class names, each followed by the names of its own (i.e. non-system) permissions
+   private static byte[] getDictionary(List<String> resourceClassNames, List<List<String>> permissionNames) {
+      final ByteArrayOutputStream dictionaryStream = new ByteArrayOutputStream();
+      try (DataOutputStream dataOutputStream = new DataOutputStream(dictionaryStream)) {
+         for (int resourceClassIndex = 0; resourceClassIndex < resourceClassNames.size(); resourceClassIndex++) {
+            dataOutputStream.writeUTF(resourceClassNames.get(resourceClassIndex));
+            dataOutputStream.writeInt(permissionNames.get(resourceClassIndex).size());
+            for (String permissionName : permissionNames.get(resourceClassIndex)) {
+               dataOutputStream.writeUTF(permissionName);
+            }
+         }
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+      return dictionaryStream.toByteArray();
+   }
+
+   // bitmask and key helpers
+
+   private static void setBit(long[] masks, int maskOffset, int wordCount, int bit, boolean withGrant) {
+      final int word = bit >>> 6;
+      final long bitMask = 1L << (bit & 63);
+      masks[maskOffset + word] |= bitMask;
+      if (withGrant) {
+         masks[maskOffset + wordCount + word] |= bitMask;
+      }
+   }
+
+   private static int compareUnsigned(byte[] bytes, byte[] otherBytes) {
+      final int length = Math.min(bytes.length, otherBytes.length);
+      for (int i = 0; i < length; i++) {
+         final int difference = (bytes[i] & 0xff) - (otherBytes[i] & 0xff);
+         if (difference != 0) {
+            return difference;
+         }
+      }
+      return bytes.length - otherBytes.length;
+   }
+
+   private static long getGlobalGrantKey(int accessorResourceIndex,
+                                         int domainIndex,
+                                         int resourceClassIndex,
+                                         int domainCount,
+                                         int resourceClassCount) {
+      return ((long) accessorResourceIndex * domainCount + domainIndex) * resourceClassCount + resourceClassIndex;
+   }
+
+   private static long[] getSortedUniqueKeys(long[] keys, int keyCount) {
+      final long[] sortedKeys = Arrays.copyOf(keys, keyCount);
+      Arrays.sort(sortedKeys);
+
+      int uniqueKeyCount = 0;
+      for (int i = 0; i < keyCount; i++) {
+         if (uniqueKeyCount == 0 || sortedKeys[uniqueKeyCount - 1] != sortedKeys[i]) {
+            sortedKeys[uniqueKeyCount++] = sortedKeys[i];
+         }
+      }
+      return Arrays.copyOf(sortedKeys, uniqueKeyCount);
+   }
+
+   // computes the row offsets of a compressed sparse row structure from its sorted keys, where key / rowWidth is the row
+   private static int[] getRowOffsets(long[] sortedKeys, long rowWidth, int rowCount) {
+      final int[] rowOffsets = new int[rowCount + 1];
+      for (long key : sortedKeys) {
+         rowOffsets[(int) (key / rowWidth) + 1]++;
+      }
+      for (int row = 0; row < rowCount; row++) {
+         rowOffsets[row + 1] += rowOffsets[row];
+      }
+      return rowOffsets;
+   }
+}
@@ -18,11 +18,16 @@
 package com.acciente.oacc.sql;
 
 import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AsyncAccessControlContext;
 import com.acciente.oacc.AuthenticationProvider;
+import com.acciente.oacc.PermissionChangeListener;
+import com.acciente.oacc.TokenCredentials;
 import com.acciente.oacc.sql.internal.SQLAccessControlContext;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 public class SQLAccessControlContextFactory {
    public static AccessControlContext getAccessControlContext(Connection connection,
@@ -61,6 +66,178 @@ public class SQLAccessControlContextFactory {
                                                              authenticationProvider);
    }
 
+   public static void addPermissionChangeListener(DataSource dataSource,
+                                                  PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.addPermissionChangeListener(dataSource, permissionChangeListener);
+   }
+
+   public static void addPermissionChangeListener(Connection connection,
+                                                  PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.addPermissionChangeListener(connection, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(DataSource dataSource,
+                                                     PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.removePermissionChangeListener(dataSource, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(Connection connection,
+                                                     PermissionChangeListener permissionChangeListener) {
+      SQLAccessControlContext.removePermissionChangeListener(connection, permissionChangeListener);
+   }
+
+   public static void setSessionMemoMaxAge(DataSource dataSource, long maxAge, TimeUnit timeUnit) {
+      SQLAccessControlContext.setSessionMemoMaxAge(dataSource, maxAge, timeUnit);
+   }
+
+   public static void setSessionMemoMaxAge(Connection connection, long maxAge, TimeUnit timeUnit) {
+      SQLAccessControlContext.setSessionMemoMaxAge(connection, maxAge, timeUnit);
+   }
+
+   public static void enableInheritedPermissionCache(DataSource dataSource,
+                                                     int maxEntries,
+                                                     long maxAge,
+                                                     TimeUnit timeUnit) {
+      SQLAccessControlContext.enableInheritedPermissionCache(dataSource, maxEntries, maxAge, timeUnit);
+   }
+
+   public static void disableInheritedPermissionCache(DataSource dataSource) {
+      SQLAccessControlContext.disableInheritedPermissionCache(dataSource);
+   }
+
+   public static void enableGrantSummary(DataSource dataSource, long maxAge, TimeUnit timeUnit) {
+      SQLAccessControlContext.enableGrantSummary(dataSource, maxAge, timeUnit);
+   }
+
+   public static void disableGrantSummary(DataSource dataSource) {
+      SQLAccessControlContext.disableGrantSummary(dataSource);
+   }
+
+   public static long getDeduplicatedLoadCount(DataSource dataSource) {
+      return SQLAccessControlContext.getDeduplicatedLoadCount(dataSource);
+   }
+
+   public static void enableParallelQueries(DataSource dataSource, int maxBorrowedConnections) {
+      SQLAccessControlContext.enableParallelQueries(dataSource, maxBorrowedConnections);
+   }
+
+   public static void enableParallelQueries(DataSource dataSource, int maxBorrowedConnections, Executor executor) {
+      SQLAccessControlContext.enableParallelQueries(dataSource, maxBorrowedConnections, executor);
+   }
+
+   public static void disableParallelQueries(DataSource dataSource) {
+      SQLAccessControlContext.disableParallelQueries(dataSource);
+   }
+
+   public static void enableCheckCoalescing(DataSource dataSource, int maxBatchSize, long maxWait, TimeUnit timeUnit) {
+      SQLAccessControlContext.enableCheckCoalescing(dataSource, maxBatchSize, maxWait, timeUnit);
+   }
+
+   public static void disableCheckCoalescing(DataSource dataSource) {
+      SQLAccessControlContext.disableCheckCoalescing(dataSource);
+   }
+
+   public static void enableTokenAuthentication(DataSource dataSource,
+                                                byte[] secretKey,
+                                                long maxAge,
+                                                TimeUnit timeUnit) {
+      SQLAccessControlContext.enableTokenAuthentication(dataSource, secretKey, maxAge, timeUnit);
+   }
+
+   public static void enableTokenAuthentication(Connection connection,
+                                                byte[] secretKey,
+                                                long maxAge,
+                                                TimeUnit timeUnit) {
+      SQLAccessControlContext.enableTokenAuthentication(connection, secretKey, maxAge, timeUnit);
+   }
+
+   public static void disableTokenAuthentication(DataSource dataSource) {
+      SQLAccessControlContext.disableTokenAuthentication(dataSource);
+   }
+
+   public static void disableTokenAuthentication(Connection connection) {
+      SQLAccessControlContext.disableTokenAuthentication(connection);
+   }
+
+   public static void enablePasswordHashingLimit(DataSource dataSource, int maxConcurrentHashes, int maxQueuedHashes) {
+      SQLAccessControlContext.enablePasswordHashingLimit(dataSource, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void enablePasswordHashingLimit(Connection connection, int maxConcurrentHashes, int maxQueuedHashes) {
+      SQLAccessControlContext.enablePasswordHashingLimit(connection, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void disablePasswordHashingLimit(DataSource dataSource) {
+      SQLAccessControlContext.disablePasswordHashingLimit(dataSource);
+   }
+
+   public static void disablePasswordHashingLimit(Connection connection) {
+      SQLAccessControlContext.disablePasswordHashingLimit(connection);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(DataSource dataSource, int iterations) {
+      SQLAccessControlContext.enablePBKDF2PasswordEncryptor(dataSource, iterations);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(Connection connection, int iterations) {
+      SQLAccessControlContext.enablePBKDF2PasswordEncryptor(connection, iterations);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(DataSource dataSource) {
+      SQLAccessControlContext.disablePBKDF2PasswordEncryptor(dataSource);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(Connection connection) {
+      SQLAccessControlContext.disablePBKDF2PasswordEncryptor(connection);
+   }
+
+   public static void enableChangeLog(DataSource dataSource) {
+      SQLAccessControlContext.enableChangeLog(dataSource);
+   }
+
+   public static void enableChangeLog(Connection connection) {
+      SQLAccessControlContext.enableChangeLog(connection);
+   }
+
+   public static void disableChangeLog(DataSource dataSource) {
+      SQLAccessControlContext.disableChangeLog(dataSource);
+   }
+
+   public static void disableChangeLog(Connection connection) {
+      SQLAccessControlContext.disableChangeLog(connection);
+   }
+
+   public static void pruneChangeLog(DataSource dataSource,
+                                     String schemaName,
+                                     SQLProfile sqlProfile,
+                                     int maxRetainedEntries) {
+      SQLAccessControlContext.pruneChangeLog(dataSource, schemaName, sqlProfile, maxRetainedEntries);
+   }
+
+   public static void pruneChangeLog(Connection connection,
+                                     String schemaName,
+                                     SQLProfile sqlProfile,
+                                     int maxRetainedEntries) {
+      SQLAccessControlContext.pruneChangeLog(connection, schemaName, sqlProfile, maxRetainedEntries);
+   }
+
+   public static TokenCredentials getTokenCredentials(AccessControlContext accessControlContext) {
+      return SQLAccessControlContext.getTokenCredentials(accessControlContext);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext) {
+      return SQLAccessControlContext.getAsyncAccessControlContext(accessControlContext);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext,
+                                                                        Executor executor) {
+      return SQLAccessControlContext.getAsyncAccessControlContext(accessControlContext, executor);
+   }
+
+   public static void setAsyncConcurrencyLimit(DataSource dataSource, int maxConcurrentOperations) {
+      SQLAccessControlContext.setAsyncConcurrencyLimit(dataSource, maxConcurrentOperations);
+   }
+
    public static void preSerialize(AccessControlContext accessControlContext) {
       SQLAccessControlContext.preSerialize(accessControlContext);
    }
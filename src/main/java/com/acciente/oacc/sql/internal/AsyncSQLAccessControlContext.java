@@ -0,0 +1,908 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AccessControlFuture;
+import com.acciente.oacc.AsyncAccessControlContext;
+import com.acciente.oacc.Credentials;
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceClassInfo;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourcePermission;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Performs the operations of an access control context asynchronously, as copies of its session.
+ */
+class AsyncSQLAccessControlContext implements AsyncAccessControlContext {
+   private static Executor defaultExecutor;
+
+   private final AccessControlContext    owningAccessControlContext;
+   private final SQLAccessControlContext sqlAccessControlContext;
+   private final Executor                executor;
+   private final AsyncTaskLimiter        asyncTaskLimiter;
+
+   AsyncSQLAccessControlContext(AccessControlContext owningAccessControlContext,
+                                SQLAccessControlContext sqlAccessControlContext,
+                                Executor executor,
+                                AsyncTaskLimiter asyncTaskLimiter) {
+      this.owningAccessControlContext = owningAccessControlContext;
+      this.sqlAccessControlContext = sqlAccessControlContext;
+      this.executor = executor;
+      this.asyncTaskLimiter = asyncTaskLimiter;
+   }
+
+   static synchronized Executor getDefaultExecutor() {
+      if (defaultExecutor == null) {
+         defaultExecutor = __newVirtualThreadExecutor();
+         if (defaultExecutor == null) {
+            // the limiter bounds the number of running operations, so the pool does not need to
+            defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+               private final AtomicInteger threadCount = new AtomicInteger();
+
+               @Override
+               public Thread newThread(Runnable runnable) {
+                  final Thread thread = new Thread(runnable, "oacc-async-" + threadCount.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+               }
+            });
+         }
+      }
+      return defaultExecutor;
+   }
+
+   // virtual threads are looked up reflectively, since OACC also runs on JVMs that do not provide them
+   private static Executor __newVirtualThreadExecutor() {
+      try {
+         return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      }
+      catch (ReflectiveOperationException e) {
+         return null;
+      }
+   }
+
+   @Override
+   public AccessControlContext getAccessControlContext() {
+      return owningAccessControlContext;
+   }
+
+   @Override
+   public AccessControlFuture<Void> authenticate(final Resource resource, final Credentials credentials) {
+      // unlike the other operations, authenticating changes the session of the owning context, not of a copy
+      final AsyncTask<Void> task = new AsyncTask<>(new Callable<Void>() {
+         @Override
+         public Void call() {
+            owningAccessControlContext.authenticate(resource, credentials);
+            return null;
+         }
+      });
+      asyncTaskLimiter.execute(task, executor);
+      return task;
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertDomainPermissions(final Resource accessorResource,
+                                                            final String domainName,
+                                                            final Set<DomainPermission> domainPermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertDomainPermissions(final Resource accessorResource,
+                                                            final String domainName,
+                                                            final DomainPermission domainPermission,
+                                                            final DomainPermission... domainPermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertDomainPermissions(accessorResource,
+                                                   domainName,
+                                                   domainPermission,
+                                                   domainPermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasDomainPermissions(final Resource accessorResource,
+                                                            final String domainName,
+                                                            final Set<DomainPermission> domainPermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasDomainPermissions(final Resource accessorResource,
+                                                            final String domainName,
+                                                            final DomainPermission domainPermission,
+                                                            final DomainPermission... domainPermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasDomainPermissions(accessorResource,
+                                                       domainName,
+                                                       domainPermission,
+                                                       domainPermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertDomainCreatePermissions(final Resource accessorResource,
+                                                                  final Set<DomainCreatePermission> domainCreatePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertDomainCreatePermissions(final Resource accessorResource,
+                                                                  final DomainCreatePermission domainCreatePermission,
+                                                                  final DomainCreatePermission... domainCreatePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertDomainCreatePermissions(accessorResource,
+                                                         domainCreatePermission,
+                                                         domainCreatePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasDomainCreatePermissions(final Resource accessorResource,
+                                                                  final Set<DomainCreatePermission> domainCreatePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasDomainCreatePermissions(final Resource accessorResource,
+                                                                  final DomainCreatePermission domainCreatePermission,
+                                                                  final DomainCreatePermission... domainCreatePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasDomainCreatePermissions(accessorResource,
+                                                             domainCreatePermission,
+                                                             domainCreatePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertPostCreateDomainPermissions(final Resource accessorResource,
+                                                                      final Set<DomainPermission> domainPermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertPostCreateDomainPermissions(final Resource accessorResource,
+                                                                      final DomainPermission domainPermission,
+                                                                      final DomainPermission... domainPermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertPostCreateDomainPermissions(accessorResource,
+                                                             domainPermission,
+                                                             domainPermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasPostCreateDomainPermissions(final Resource accessorResource,
+                                                                      final Set<DomainPermission> domainPermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasPostCreateDomainPermissions(final Resource accessorResource,
+                                                                      final DomainPermission domainPermission,
+                                                                      final DomainPermission... domainPermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasPostCreateDomainPermissions(accessorResource,
+                                                                 domainPermission,
+                                                                 domainPermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertGlobalResourcePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertGlobalResourcePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final ResourcePermission resourcePermission,
+                                                                    final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertGlobalResourcePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourcePermission,
+                                                           resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasGlobalResourcePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasGlobalResourcePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final ResourcePermission resourcePermission,
+                                                                    final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertResourcePermissions(final Resource accessorResource,
+                                                              final Resource accessedResource,
+                                                              final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertResourcePermissions(final Resource accessorResource,
+                                                              final Resource accessedResource,
+                                                              final ResourcePermission resourcePermission,
+                                                              final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertResourcePermissions(accessorResource,
+                                                     accessedResource,
+                                                     resourcePermission,
+                                                     resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasResourcePermissions(final Resource accessorResource,
+                                                              final Resource accessedResource,
+                                                              final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasResourcePermissions(accessorResource,
+                                                         accessedResource,
+                                                         resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasResourcePermissions(final Resource accessorResource,
+                                                              final Resource accessedResource,
+                                                              final ResourcePermission resourcePermission,
+                                                              final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasResourcePermissions(accessorResource,
+                                                         accessedResource,
+                                                         resourcePermission,
+                                                         resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertResourceCreatePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final Set<ResourceCreatePermission> resourceCreatePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertResourceCreatePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final ResourceCreatePermission resourceCreatePermission,
+                                                                    final ResourceCreatePermission... resourceCreatePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertResourceCreatePermissions(accessorResource,
+                                                           resourceClassName,
+                                                           domainName,
+                                                           resourceCreatePermission,
+                                                           resourceCreatePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasResourceCreatePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final Set<ResourceCreatePermission> resourceCreatePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasResourceCreatePermissions(final Resource accessorResource,
+                                                                    final String resourceClassName,
+                                                                    final String domainName,
+                                                                    final ResourceCreatePermission resourceCreatePermission,
+                                                                    final ResourceCreatePermission... resourceCreatePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourceCreatePermission,
+                                                               resourceCreatePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertPostCreateResourcePermissions(final Resource accessorResource,
+                                                                        final String resourceClassName,
+                                                                        final String domainName,
+                                                                        final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Void> assertPostCreateResourcePermissions(final Resource accessorResource,
+                                                                        final String resourceClassName,
+                                                                        final String domainName,
+                                                                        final ResourcePermission resourcePermission,
+                                                                        final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Void>() {
+         @Override
+         Void perform(AccessControlContext sessionContext) {
+            sessionContext.assertPostCreateResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName,
+                                                               resourcePermission,
+                                                               resourcePermissions);
+            return null;
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasPostCreateResourcePermissions(final Resource accessorResource,
+                                                                        final String resourceClassName,
+                                                                        final String domainName,
+                                                                        final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Boolean> hasPostCreateResourcePermissions(final Resource accessorResource,
+                                                                        final String resourceClassName,
+                                                                        final String domainName,
+                                                                        final ResourcePermission resourcePermission,
+                                                                        final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Boolean>() {
+         @Override
+         Boolean perform(AccessControlContext sessionContext) {
+            return sessionContext.hasPostCreateResourcePermissions(accessorResource,
+                                                                   resourceClassName,
+                                                                   domainName,
+                                                                   resourcePermission,
+                                                                   resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getResourcesByResourcePermissions(final Resource accessorResource,
+                                                                               final String resourceClassName,
+                                                                               final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getResourcesByResourcePermissions(final Resource accessorResource,
+                                                                               final String resourceClassName,
+                                                                               final ResourcePermission resourcePermission,
+                                                                               final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcesByResourcePermissions(accessorResource,
+                                                                    resourceClassName,
+                                                                    resourcePermission,
+                                                                    resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getResourcesByResourcePermissionsAndDomain(final Resource accessorResource,
+                                                                                        final String resourceClassName,
+                                                                                        final String domainName,
+                                                                                        final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getResourcesByResourcePermissionsAndDomain(final Resource accessorResource,
+                                                                                        final String resourceClassName,
+                                                                                        final String domainName,
+                                                                                        final ResourcePermission resourcePermission,
+                                                                                        final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcesByResourcePermissionsAndDomain(accessorResource,
+                                                                             resourceClassName,
+                                                                             domainName,
+                                                                             resourcePermission,
+                                                                             resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getAccessorResourcesByResourcePermissions(final Resource accessedResource,
+                                                                                       final String resourceClassName,
+                                                                                       final Set<ResourcePermission> resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<Resource>> getAccessorResourcesByResourcePermissions(final Resource accessedResource,
+                                                                                       final String resourceClassName,
+                                                                                       final ResourcePermission resourcePermission,
+                                                                                       final ResourcePermission... resourcePermissions) {
+      return __submit(new Operation<Set<Resource>>() {
+         @Override
+         Set<Resource> perform(AccessControlContext sessionContext) {
+            return sessionContext.getAccessorResourcesByResourcePermissions(accessedResource,
+                                                                            resourceClassName,
+                                                                            resourcePermission,
+                                                                            resourcePermissions);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<String> getDomainNameByResource(final Resource resource) {
+      return __submit(new Operation<String>() {
+         @Override
+         String perform(AccessControlContext sessionContext) {
+            return sessionContext.getDomainNameByResource(resource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<String>> getDomainDescendants(final String domainName) {
+      return __submit(new Operation<Set<String>>() {
+         @Override
+         Set<String> perform(AccessControlContext sessionContext) {
+            return sessionContext.getDomainDescendants(domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<ResourceClassInfo> getResourceClassInfo(final String resourceClassName) {
+      return __submit(new Operation<ResourceClassInfo>() {
+         @Override
+         ResourceClassInfo perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourceClassInfo(resourceClassName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<ResourceClassInfo> getResourceClassInfoByResource(final Resource resource) {
+      return __submit(new Operation<ResourceClassInfo>() {
+         @Override
+         ResourceClassInfo perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourceClassInfoByResource(resource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<List<String>> getResourceClassNames() {
+      return __submit(new Operation<List<String>>() {
+         @Override
+         List<String> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourceClassNames();
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<List<String>> getResourcePermissionNames(final String resourceClassName) {
+      return __submit(new Operation<List<String>>() {
+         @Override
+         List<String> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcePermissionNames(resourceClassName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<DomainCreatePermission>> getDomainCreatePermissions(final Resource accessorResource) {
+      return __submit(new Operation<Set<DomainCreatePermission>>() {
+         @Override
+         Set<DomainCreatePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getDomainCreatePermissions(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<DomainCreatePermission>> getEffectiveDomainCreatePermissions(final Resource accessorResource) {
+      return __submit(new Operation<Set<DomainCreatePermission>>() {
+         @Override
+         Set<DomainCreatePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveDomainCreatePermissions(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<DomainPermission>> getDomainPermissions(final Resource accessorResource,
+                                                                          final String domainName) {
+      return __submit(new Operation<Set<DomainPermission>>() {
+         @Override
+         Set<DomainPermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getDomainPermissions(accessorResource,
+                                                       domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Set<DomainPermission>>> getDomainPermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Set<DomainPermission>>>() {
+         @Override
+         Map<String, Set<DomainPermission>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getDomainPermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<DomainPermission>> getEffectiveDomainPermissions(final Resource accessorResource,
+                                                                                   final String domainName) {
+      return __submit(new Operation<Set<DomainPermission>>() {
+         @Override
+         Set<DomainPermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveDomainPermissions(accessorResource,
+                                                                domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Set<DomainPermission>>> getEffectiveDomainPermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Set<DomainPermission>>>() {
+         @Override
+         Map<String, Set<DomainPermission>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveDomainPermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourceCreatePermission>> getResourceCreatePermissions(final Resource accessorResource,
+                                                                                          final String resourceClassName,
+                                                                                          final String domainName) {
+      return __submit(new Operation<Set<ResourceCreatePermission>>() {
+         @Override
+         Set<ResourceCreatePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourceCreatePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourceCreatePermission>> getEffectiveResourceCreatePermissions(final Resource accessorResource,
+                                                                                                   final String resourceClassName,
+                                                                                                   final String domainName) {
+      return __submit(new Operation<Set<ResourceCreatePermission>>() {
+         @Override
+         Set<ResourceCreatePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveResourceCreatePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Map<String, Set<ResourceCreatePermission>>>> getResourceCreatePermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Map<String, Set<ResourceCreatePermission>>>>() {
+         @Override
+         Map<String, Map<String, Set<ResourceCreatePermission>>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourceCreatePermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Map<String, Set<ResourceCreatePermission>>>> getEffectiveResourceCreatePermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Map<String, Set<ResourceCreatePermission>>>>() {
+         @Override
+         Map<String, Map<String, Set<ResourceCreatePermission>>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveResourceCreatePermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourcePermission>> getResourcePermissions(final Resource accessorResource,
+                                                                              final Resource accessedResource) {
+      return __submit(new Operation<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getResourcePermissions(accessorResource,
+                                                         accessedResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourcePermission>> getEffectiveResourcePermissions(final Resource accessorResource,
+                                                                                       final Resource accessedResource) {
+      return __submit(new Operation<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveResourcePermissions(accessorResource,
+                                                                  accessedResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourcePermission>> getGlobalResourcePermissions(final Resource accessorResource,
+                                                                                    final String resourceClassName,
+                                                                                    final String domainName) {
+      return __submit(new Operation<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getGlobalResourcePermissions(accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Set<ResourcePermission>> getEffectiveGlobalResourcePermissions(final Resource accessorResource,
+                                                                                             final String resourceClassName,
+                                                                                             final String domainName) {
+      return __submit(new Operation<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveGlobalResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        domainName);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Map<String, Set<ResourcePermission>>>> getGlobalResourcePermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Map<String, Set<ResourcePermission>>>>() {
+         @Override
+         Map<String, Map<String, Set<ResourcePermission>>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getGlobalResourcePermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   @Override
+   public AccessControlFuture<Map<String, Map<String, Set<ResourcePermission>>>> getEffectiveGlobalResourcePermissionsMap(final Resource accessorResource) {
+      return __submit(new Operation<Map<String, Map<String, Set<ResourcePermission>>>>() {
+         @Override
+         Map<String, Map<String, Set<ResourcePermission>>> perform(AccessControlContext sessionContext) {
+            return sessionContext.getEffectiveGlobalResourcePermissionsMap(accessorResource);
+         }
+      });
+   }
+
+   private <T> AccessControlFuture<T> __submit(final Operation<T> operation) {
+      // capture the session now, so that the operation is not affected by later changes to the owning session
+      final AccessControlContext sessionContext = sqlAccessControlContext.copySession();
+
+      final AsyncTask<T> task = new AsyncTask<>(new Callable<T>() {
+         @Override
+         public T call() {
+            return operation.perform(sessionContext);
+         }
+      });
+      asyncTaskLimiter.execute(task, executor);
+      return task;
+   }
+
+   private static abstract class Operation<T> {
+      abstract T perform(AccessControlContext sessionContext);
+   }
+}
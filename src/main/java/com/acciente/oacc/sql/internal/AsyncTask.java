@@ -0,0 +1,81 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.AccessControlFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An operation of an asynchronous access control context, along with its pending result.
+ */
+class AsyncTask<T> extends FutureTask<T> implements AccessControlFuture<T> {
+   private List<Runnable> listeners;
+   private boolean        isCompleted;
+
+   AsyncTask(Callable<T> callable) {
+      super(callable);
+      listeners = new ArrayList<>();
+   }
+
+   @Override
+   public void addListener(Runnable listener) {
+      if (listener == null) {
+         throw new NullPointerException("Listener required, none specified");
+      }
+
+      synchronized (this) {
+         if (!isCompleted) {
+            listeners.add(listener);
+            return;
+         }
+      }
+      __callListener(listener);
+   }
+
+   void reject(Throwable cause) {
+      setException(cause);
+   }
+
+   @Override
+   protected void done() {
+      final List<Runnable> completionListeners;
+      synchronized (this) {
+         isCompleted = true;
+         completionListeners = listeners;
+         listeners = null;
+      }
+      for (Runnable listener : completionListeners) {
+         __callListener(listener);
+      }
+   }
+
+   // a failing listener must neither keep the other listeners from being called nor fail the completing thread
+   private static void __callListener(Runnable listener) {
+      try {
+         listener.run();
+      }
+      catch (RuntimeException e) {
+         final Thread currentThread = Thread.currentThread();
+         currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+      }
+   }
+}
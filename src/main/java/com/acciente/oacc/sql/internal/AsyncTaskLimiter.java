@@ -0,0 +1,149 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bounds the number of asynchronous operations that run at the same time against a store.
+ * <p/>
+ * An operation is handed to its executor only while fewer than the maximum number of operations of the same
+ * store are running; otherwise it waits in submission order until a running operation of the store completes.
+ * Waiting operations therefore hold neither an executor thread nor a connection.
+ */
+class AsyncTaskLimiter {
+   static final int DEFAULT_MAX_CONCURRENT_TASKS = 8;
+
+   private static final Map<Object, AsyncTaskLimiter> instances = new WeakHashMap<>();
+
+   private final Queue<PendingTask> pendingTasks;
+   private       int                maxConcurrentTasks;
+   private       int                runningTaskCount;
+
+   private AsyncTaskLimiter(int maxConcurrentTasks) {
+      this.pendingTasks = new ArrayDeque<>();
+      this.maxConcurrentTasks = maxConcurrentTasks;
+   }
+
+   static synchronized AsyncTaskLimiter getInstance(Object storeKey, int defaultMaxConcurrentTasks) {
+      AsyncTaskLimiter asyncTaskLimiter = instances.get(storeKey);
+      if (asyncTaskLimiter == null) {
+         asyncTaskLimiter = new AsyncTaskLimiter(defaultMaxConcurrentTasks);
+         instances.put(storeKey, asyncTaskLimiter);
+      }
+      return asyncTaskLimiter;
+   }
+
+   static void setMaxConcurrentTasks(Object storeKey, int maxConcurrentTasks) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxConcurrentTasks < 1) {
+         throw new IllegalArgumentException("Max concurrent tasks must be positive: " + maxConcurrentTasks);
+      }
+      getInstance(storeKey, maxConcurrentTasks).__setMaxConcurrentTasks(maxConcurrentTasks);
+   }
+
+   void execute(AsyncTask<?> task, Executor executor) {
+      synchronized (this) {
+         if (runningTaskCount >= maxConcurrentTasks) {
+            pendingTasks.add(new PendingTask(task, executor));
+            return;
+         }
+         runningTaskCount++;
+      }
+      __start(task, executor);
+   }
+
+   private void __setMaxConcurrentTasks(int maxConcurrentTasks) {
+      final List<PendingTask> startableTasks = new ArrayList<>();
+      synchronized (this) {
+         this.maxConcurrentTasks = maxConcurrentTasks;
+         while (runningTaskCount < maxConcurrentTasks && !pendingTasks.isEmpty()) {
+            startableTasks.add(pendingTasks.remove());
+            runningTaskCount++;
+         }
+      }
+      for (PendingTask pendingTask : startableTasks) {
+         __start(pendingTask.task, pendingTask.executor);
+      }
+   }
+
+   // starts the task, which already counts as running, and - should its executor reject it - the tasks after it
+   private void __start(AsyncTask<?> task, Executor executor) {
+      while (true) {
+         final AsyncTask<?> runningTask = task;
+         try {
+            executor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     runningTask.run();
+                  }
+                  finally {
+                     final PendingTask nextTask = __finishTask();
+                     if (nextTask != null) {
+                        __start(nextTask.task, nextTask.executor);
+                     }
+                  }
+               }
+            });
+            return;
+         }
+         catch (RejectedExecutionException e) {
+            task.reject(e);
+         }
+
+         final PendingTask nextTask = __finishTask();
+         if (nextTask == null) {
+            return;
+         }
+         task = nextTask.task;
+         executor = nextTask.executor;
+      }
+   }
+
+   // hands the slot of a finished task to the next pending task, if there is one and the limit allows it
+   private synchronized PendingTask __finishTask() {
+      if (runningTaskCount <= maxConcurrentTasks) {
+         final PendingTask nextTask = pendingTasks.poll();
+         if (nextTask != null) {
+            return nextTask;
+         }
+      }
+      runningTaskCount--;
+      return null;
+   }
+
+   private static class PendingTask {
+      private final AsyncTask<?> task;
+      private final Executor     executor;
+
+      private PendingTask(AsyncTask<?> task, Executor executor) {
+         this.task = task;
+         this.executor = executor;
+      }
+   }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+
+import java.util.Set;
+
+/**
+ * Implemented by the built-in authentication providers, to let an access control context delete the credentials of
+ * many resources with one call, instead of calling {@link com.acciente.oacc.AuthenticationProvider#deleteCredentials}
+ * once per resource.
+ */
+public interface BulkCredentialsDeleter {
+   /**
+    * Deletes the credentials of each of the specified resources.
+    *
+    * @param resources a set of resolved resources that all have credentials
+    */
+   void deleteCredentials(Set<Resource> resources);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Credentials;
+import com.acciente.oacc.Resource;
+
+import java.util.Map;
+
+/**
+ * Implemented by the built-in authentication providers, to let an access control context set the credentials of
+ * many resources with one call, instead of calling {@link com.acciente.oacc.AuthenticationProvider#setCredentials}
+ * once per resource.
+ */
+public interface BulkCredentialsSetter {
+   /**
+    * Sets the credentials of each of the specified resources.
+    *
+    * @param newCredentialsByResource a map of resolved resources to their new credentials, which have already been
+    *                                 validated with {@link com.acciente.oacc.AuthenticationProvider#validateCredentials}
+    */
+   void setCredentials(Map<Resource, Credentials> newCredentialsByResource);
+}
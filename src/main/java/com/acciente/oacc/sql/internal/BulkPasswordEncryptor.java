@@ -0,0 +1,159 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Encrypts the bound passwords of many resources at once, in parallel, for the bulk credentials methods of the
+ * built-in authentication providers (see {@link PasswordHashingExecutor#encryptBoundPasswords}).
+ * <p/>
+ * When the password hashing of the store is limited, the passwords are hashed on its hashing executor, so that
+ * bulk provisioning stays within the limit. Otherwise they are hashed on a fork-join pool with one thread per
+ * processor that only lives for the duration of the call, since bulk provisioning is rare but would otherwise
+ * hash serially. The bound password computed for each resource is cleaned as soon as it has been hashed,
+ * whether or not hashing succeeded.
+ */
+final class BulkPasswordEncryptor {
+   private BulkPasswordEncryptor() {
+   }
+
+   static Map<Resource, String> encryptBoundPasswords(PasswordHashingExecutor passwordHashingExecutor,
+                                                      final CleanablePasswordEncryptor passwordEncryptor,
+                                                      Map<Resource, char[]> passwordsByResource) {
+      final List<Resource> resources = new ArrayList<>(passwordsByResource.keySet());
+      final List<Callable<String>> hashes = new ArrayList<>(resources.size());
+      for (final Resource resource : resources) {
+         final char[] password = passwordsByResource.get(resource);
+         hashes.add(new Callable<String>() {
+            @Override
+            public String call() {
+               return __encryptBoundPassword(passwordEncryptor, resource, password);
+            }
+         });
+      }
+
+      return __toMap(resources, passwordHashingExecutor.executeAll(hashes));
+   }
+
+   static Map<Resource, String> encryptBoundPasswords(CleanablePasswordEncryptor passwordEncryptor,
+                                                      Map<Resource, char[]> passwordsByResource) {
+      final List<Resource> resources = new ArrayList<>(passwordsByResource.keySet());
+      final List<char[]> passwords = new ArrayList<>(resources.size());
+      for (Resource resource : resources) {
+         passwords.add(passwordsByResource.get(resource));
+      }
+      final String[] encryptedBoundPasswords = new String[resources.size()];
+
+      final ForkJoinPool forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      try {
+         forkJoinPool.invoke(new EncryptionTask(passwordEncryptor,
+                                                resources,
+                                                passwords,
+                                                encryptedBoundPasswords,
+                                                0,
+                                                resources.size()));
+      }
+      finally {
+         forkJoinPool.shutdown();
+      }
+
+      return __toMap(resources, Arrays.asList(encryptedBoundPasswords));
+   }
+
+   private static String __encryptBoundPassword(CleanablePasswordEncryptor passwordEncryptor,
+                                                Resource resource,
+                                                char[] password) {
+      char[] boundPassword = null;
+      try {
+         boundPassword = PasswordUtils.computeBoundPassword(resource, password);
+         return passwordEncryptor.encryptPassword(boundPassword);
+      }
+      finally {
+         PasswordUtils.cleanPassword(boundPassword);
+      }
+   }
+
+   private static Map<Resource, String> __toMap(List<Resource> resources, List<String> encryptedBoundPasswords) {
+      final Map<Resource, String> encryptedBoundPasswordsByResource = new LinkedHashMap<>(resources.size());
+      for (int i = 0; i < resources.size(); i++) {
+         encryptedBoundPasswordsByResource.put(resources.get(i), encryptedBoundPasswords.get(i));
+      }
+      return encryptedBoundPasswordsByResource;
+   }
+
+   private static class EncryptionTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      private final CleanablePasswordEncryptor passwordEncryptor;
+      private final List<Resource>             resources;
+      private final List<char[]>               passwords;
+      private final String[]                   encryptedBoundPasswords;
+      private final int                        fromIndex;
+      private final int                        toIndex;
+
+      private EncryptionTask(CleanablePasswordEncryptor passwordEncryptor,
+                             List<Resource> resources,
+                             List<char[]> passwords,
+                             String[] encryptedBoundPasswords,
+                             int fromIndex,
+                             int toIndex) {
+         this.passwordEncryptor = passwordEncryptor;
+         this.resources = resources;
+         this.passwords = passwords;
+         this.encryptedBoundPasswords = encryptedBoundPasswords;
+         this.fromIndex = fromIndex;
+         this.toIndex = toIndex;
+      }
+
+      @Override
+      protected void compute() {
+         // each hash takes long enough that splitting down to single passwords costs next to nothing
+         if (toIndex - fromIndex <= 1) {
+            for (int i = fromIndex; i < toIndex; i++) {
+               encryptedBoundPasswords[i]
+                     = __encryptBoundPassword(passwordEncryptor, resources.get(i), passwords.get(i));
+            }
+         }
+         else {
+            final int middleIndex = (fromIndex + toIndex) >>> 1;
+            invokeAll(new EncryptionTask(passwordEncryptor,
+                                         resources,
+                                         passwords,
+                                         encryptedBoundPasswords,
+                                         fromIndex,
+                                         middleIndex),
+                      new EncryptionTask(passwordEncryptor,
+                                         resources,
+                                         passwords,
+                                         encryptedBoundPasswords,
+                                         middleIndex,
+                                         toIndex));
+         }
+      }
+   }
+}
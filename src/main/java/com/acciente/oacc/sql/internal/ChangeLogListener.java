@@ -0,0 +1,39 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+
+import java.util.List;
+
+/**
+ * Receives the changes a {@link ChangeLogPoller} reads from the change log
+ */
+public interface ChangeLogListener {
+   /**
+    * Called with the entries appended to the change log since the previous poll, in ascending order of
+    * their sequence numbers
+    */
+   void changeLogEntriesAppended(List<ChangeLogEntry> changeLogEntries);
+
+   /**
+    * Called instead of {@link #changeLogEntriesAppended(List)} when some of the entries appended since the
+    * previous poll were discarded before they could be read, so that any change must be assumed
+    */
+   void changeLogEntriesLost();
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.ChangeLogPersister;
+import com.acciente.oacc.sql.internal.persister.PersisterProvider;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Tails the change log of an OACC system, which every access control context that has it enabled appends to
+ * in the same transaction as its changes, and passes the entries appended since the previous poll on
+ * to a listener that evicts whatever it cached from the changed rows.
+ * <p/>
+ * A poller starts at the end of the log at the time it is created, so creating it before reading the
+ * state to be cached guarantees that no change is missed. Polls are serialized, and each one reads the
+ * log in batches until it has caught up.
+ */
+public class ChangeLogPoller {
+   private static final int MAX_ENTRIES_PER_READ = 1000;
+
+   private final ChangeLogPersister changeLogPersister;
+   private final DataSource         dataSource;
+   private       long               lastChangeSequence;
+
+   /**
+    * Creates a poller positioned at the current end of the change log
+    *
+    * @param persisterProvider the persisters to read the change log with
+    * @param dataSource        the data source to read from, or null if the persisters do not require a connection
+    */
+   public ChangeLogPoller(PersisterProvider persisterProvider,
+                          DataSource dataSource) {
+      this.changeLogPersister = persisterProvider.getChangeLogPersister();
+      this.dataSource = dataSource;
+
+      SQLConnection connection = null;
+      try {
+         connection = __getConnection();
+         lastChangeSequence = changeLogPersister.getLastChangeSequence(connection);
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   /**
+    * Reads the entries appended to the change log since the previous poll and passes them on to the listener
+    *
+    * @param changeLogListener the listener to pass the change log entries on to
+    * @return true if any entries were appended since the previous poll, false otherwise
+    */
+   public synchronized boolean poll(ChangeLogListener changeLogListener) {
+      SQLConnection connection = null;
+      boolean changed = false;
+
+      try {
+         connection = __getConnection();
+
+         while (true) {
+            final List<ChangeLogEntry> changeLogEntries
+                  = changeLogPersister.getChangeLogEntries(connection, lastChangeSequence, MAX_ENTRIES_PER_READ);
+
+            if (changeLogEntries == null) {
+               // skip to the end of the log, since the listener now has to assume that anything changed
+               lastChangeSequence = changeLogPersister.getLastChangeSequence(connection);
+               changeLogListener.changeLogEntriesLost();
+               return true;
+            }
+            if (changeLogEntries.isEmpty()) {
+               return changed;
+            }
+
+            lastChangeSequence = changeLogEntries.get(changeLogEntries.size() - 1).getChangeSequence();
+            changeLogListener.changeLogEntriesAppended(changeLogEntries);
+            changed = true;
+
+            if (changeLogEntries.size() < MAX_ENTRIES_PER_READ) {
+               return true;
+            }
+         }
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   public synchronized long getLastChangeSequence() {
+      return lastChangeSequence;
+   }
+
+   private SQLConnection __getConnection() {
+      if (dataSource == null) {
+         return null;
+      }
+      try {
+         return new SQLConnection(dataSource.getConnection());
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private void __closeConnection(SQLConnection connection) {
+      if (connection != null) {
+         try {
+            connection.close();
+         }
+         catch (SQLException e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+/**
+ * Records the stores whose access control contexts append their changes to the change log.
+ * <p/>
+ * Writing the change log is opt-in, since it requires the OAC_ChangeLog table (see the scripts under
+ * {@code src/main/dbscripts}), which installations created before the change log was introduced do not have.
+ * Every JVM that changes a store has to enable the log for its store key, or pollers in any JVM miss its changes.
+ */
+final class ChangeLogWriter {
+   private ChangeLogWriter() {
+   }
+
+   static void enable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).isChangeLogEnabled = true;
+   }
+
+   static void disable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).isChangeLogEnabled = false;
+   }
+
+   static boolean isEnabled(Object storeKey) {
+      return storeKey != null && StoreFeatures.getInstance(storeKey).isChangeLogEnabled;
+   }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the permission checks that the contexts of a store make concurrently into small batches, so that
+ * each batch is evaluated with a few set-based queries on a single connection, instead of with its own set of
+ * queries per check.
+ * <p/>
+ * The first check to arrive opens a batch and becomes its leader: it waits until either the batch holds the
+ * maximum number of checks, the maximum wait has elapsed, or no check outside the batch is in flight any more,
+ * then closes the batch and evaluates it on its own thread. The other checks of the batch simply wait for the
+ * leader to complete them. A check that arrives while no other check is in flight is therefore evaluated right
+ * away, and a check waits at most the maximum wait before it is evaluated, in exchange for fewer queries under
+ * load.
+ */
+class CheckCoalescer {
+   private final int   maxBatchSize;
+   private final long  maxWaitNanos;
+   private       Batch openBatch;
+   private       int   inFlightCheckCount;
+
+   private CheckCoalescer(int maxBatchSize, long maxWaitNanos) {
+      this.maxBatchSize = maxBatchSize;
+      this.maxWaitNanos = maxWaitNanos;
+   }
+
+   static void enable(Object storeKey, int maxBatchSize, long maxWaitNanos) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxBatchSize < 1) {
+         throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+      }
+      if (maxWaitNanos < 0) {
+         throw new IllegalArgumentException("Max wait must not be negative: " + maxWaitNanos);
+      }
+      StoreFeatures.getInstance(storeKey).checkCoalescer = new CheckCoalescer(maxBatchSize, maxWaitNanos);
+   }
+
+   static void disable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).checkCoalescer = null;
+   }
+
+   static CheckCoalescer getInstance(Object storeKey) {
+      return storeKey == null ? null : StoreFeatures.getInstance(storeKey).checkCoalescer;
+   }
+
+   boolean submit(Check check, BatchEvaluator batchEvaluator) {
+      final Batch batch;
+      final boolean isLeader;
+
+      synchronized (this) {
+         inFlightCheckCount++;
+         isLeader = openBatch == null;
+         if (isLeader) {
+            openBatch = new Batch();
+         }
+         batch = openBatch;
+         batch.checks.add(check);
+
+         if (batch.checks.size() >= maxBatchSize) {
+            // the batch is full, so close it and let its leader know
+            openBatch = null;
+            notifyAll();
+         }
+      }
+
+      try {
+         if (isLeader) {
+            __awaitBatch(batch);
+            __evaluateBatch(batch, batchEvaluator);
+         }
+         else {
+            __awaitCompletion(batch);
+         }
+      }
+      finally {
+         synchronized (this) {
+            // the leader of the open batch stops waiting once no check outside its batch is in flight
+            inFlightCheckCount--;
+            notifyAll();
+         }
+      }
+
+      return check.getResult();
+   }
+
+   private void __awaitBatch(Batch batch) {
+      synchronized (this) {
+         final long deadline = System.nanoTime() + maxWaitNanos;
+         long remainingNanos;
+
+         try {
+            // only checks in flight outside the batch hint at more concurrent checks that could join it
+            while (openBatch == batch
+                  && inFlightCheckCount > batch.checks.size()
+                  && (remainingNanos = deadline - System.nanoTime()) > 0) {
+               TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+         }
+         catch (InterruptedException e) {
+            // keep the interrupt for the caller, but still evaluate what was collected so far
+            Thread.currentThread().interrupt();
+         }
+
+         if (openBatch == batch) {
+            openBatch = null;
+         }
+      }
+   }
+
+   private static void __evaluateBatch(Batch batch, BatchEvaluator batchEvaluator) {
+      try {
+         batchEvaluator.evaluate(batch.checks);
+      }
+      catch (Throwable t) {
+         // a failure of the batch as a whole is the failure of every check it did not complete
+         for (Check check : batch.checks) {
+            if (!check.isCompleted()) {
+               check.fail(t);
+            }
+         }
+      }
+      finally {
+         batch.completion.countDown();
+      }
+   }
+
+   private static void __awaitCompletion(Batch batch) {
+      boolean isInterrupted = false;
+      while (true) {
+         try {
+            batch.completion.await();
+            break;
+         }
+         catch (InterruptedException e) {
+            // the leader completes the check shortly, so keep waiting for it and restore the interrupt after
+            isInterrupted = true;
+         }
+      }
+      if (isInterrupted) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   abstract static class BatchEvaluator {
+      abstract void evaluate(List<Check> checks);
+   }
+
+   abstract static class Check {
+      private boolean   isCompleted;
+      private boolean   result;
+      private Throwable failure;
+
+      void complete(boolean result) {
+         this.result = result;
+         this.isCompleted = true;
+      }
+
+      void fail(Throwable failure) {
+         this.failure = failure;
+         this.isCompleted = true;
+      }
+
+      boolean isCompleted() {
+         return isCompleted;
+      }
+
+      private boolean getResult() {
+         if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+         }
+         if (failure instanceof Error) {
+            throw (Error) failure;
+         }
+         if (failure != null) {
+            throw new RuntimeException(failure);
+         }
+         if (!isCompleted) {
+            throw new IllegalStateException("Check was not evaluated by its batch");
+         }
+         return result;
+      }
+   }
+
+   private static class Batch {
+      private final List<Check>    checks;
+      private final CountDownLatch completion;
+
+      private Batch() {
+         this.checks = new ArrayList<>();
+         this.completion = new CountDownLatch(1);
+      }
+   }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Summarizes which kinds of grants exist in a store, so that the access control contexts of the store can
+ * skip the persister queries that cannot contribute to a permission check.
+ * <p/>
+ * The summary records, per resource class, whether any global permissions or any direct non-system resource
+ * permissions have been granted on it, and per accessor, whether the accessor or any resource it inherits
+ * from holds any domain permissions. Each fact is looked up once and then kept until a change made through
+ * a context of the store could have falsified it, or until it reaches a fixed age, which bounds how long
+ * changes made outside this JVM may go unnoticed. A fact looked up while a change was being recorded is not
+ * kept, since it may have been read before the change. Concurrent lookups of the same unknown fact are
+ * loaded only once.
+ */
+class GrantSummary {
+   private static final int MAX_ACCESSOR_SUMMARIES = 10000;
+
+   private final long                            maxAgeNanos;
+   private final Map<Long, Fact>                 globalGrantsByResourceClassId;
+   private final Map<Long, Fact>                 resourceGrantsByResourceClassId;
+   private final LinkedHashMap<Long, DomainFact> domainGrantsByAccessorId;
+   // resource id -> ids of the accessors whose domain fact depends on the grants of that resource
+   private final Map<Long, Set<Long>>            accessorIdsByInheritedResourceId;
+   private final SingleFlight<Long, Boolean>     globalGrantLoads;
+   private final SingleFlight<Long, Boolean>     resourceGrantLoads;
+   private final SingleFlight<Long, Boolean>     domainGrantLoads;
+   private       long                            generation;
+
+   private GrantSummary(long maxAgeNanos) {
+      this.maxAgeNanos = maxAgeNanos;
+      this.globalGrantsByResourceClassId = new HashMap<>();
+      this.resourceGrantsByResourceClassId = new HashMap<>();
+      this.domainGrantsByAccessorId = new LinkedHashMap<Long, DomainFact>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Long, DomainFact> eldest) {
+            if (size() > MAX_ACCESSOR_SUMMARIES) {
+               __unindex(eldest.getKey(), eldest.getValue());
+               return true;
+            }
+            return false;
+         }
+      };
+      this.accessorIdsByInheritedResourceId = new HashMap<>();
+      this.globalGrantLoads = new SingleFlight<>();
+      this.resourceGrantLoads = new SingleFlight<>();
+      this.domainGrantLoads = new SingleFlight<>();
+   }
+
+   static void enable(Object storeKey, long maxAgeNanos) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxAgeNanos < 0) {
+         throw new IllegalArgumentException("Grant summary max age must not be negative: " + maxAgeNanos);
+      }
+      StoreFeatures.getInstance(storeKey).grantSummary = new GrantSummary(maxAgeNanos);
+   }
+
+   static void disable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).grantSummary = null;
+   }
+
+   static GrantSummary getInstance(Object storeKey) {
+      return storeKey == null ? null : StoreFeatures.getInstance(storeKey).grantSummary;
+   }
+
+   synchronized long getGeneration() {
+      return generation;
+   }
+
+   // returns null if it is not known whether the resource class has global grants
+   synchronized Boolean hasGlobalGrants(long resourceClassId) {
+      return __get(globalGrantsByResourceClassId, resourceClassId);
+   }
+
+   synchronized void putGlobalGrants(long generation, long resourceClassId, boolean hasGrants) {
+      if (generation == this.generation) {
+         globalGrantsByResourceClassId.put(resourceClassId, new Fact(hasGrants));
+      }
+   }
+
+   // loads an unknown fact, sharing the load with any other thread that concurrently loads the same fact
+   boolean loadGlobalGrants(long generation, long resourceClassId, SingleFlight.Loader<Boolean> loader) {
+      return globalGrantLoads.load(resourceClassId, generation, loader);
+   }
+
+   // returns null if it is not known whether the resource class has direct non-system resource grants
+   synchronized Boolean hasResourceGrants(long resourceClassId) {
+      return __get(resourceGrantsByResourceClassId, resourceClassId);
+   }
+
+   synchronized void putResourceGrants(long generation, long resourceClassId, boolean hasGrants) {
+      if (generation == this.generation) {
+         resourceGrantsByResourceClassId.put(resourceClassId, new Fact(hasGrants));
+      }
+   }
+
+   boolean loadResourceGrants(long generation, long resourceClassId, SingleFlight.Loader<Boolean> loader) {
+      return resourceGrantLoads.load(resourceClassId, generation, loader);
+   }
+
+   // returns null if it is not known whether the accessor holds or inherits any domain grants
+   synchronized Boolean hasDomainGrants(long accessorResourceId) {
+      return __get(domainGrantsByAccessorId, accessorResourceId);
+   }
+
+   synchronized void putDomainGrants(long generation,
+                                     long accessorResourceId,
+                                     Set<Long> inheritedResourceIds,
+                                     boolean hasGrants) {
+      if (generation == this.generation) {
+         final DomainFact previousDomainFact = domainGrantsByAccessorId.remove(accessorResourceId);
+         if (previousDomainFact != null) {
+            __unindex(accessorResourceId, previousDomainFact);
+         }
+
+         final DomainFact domainFact = new DomainFact(hasGrants, inheritedResourceIds);
+         domainGrantsByAccessorId.put(accessorResourceId, domainFact);
+         __index(accessorResourceId, domainFact);
+      }
+   }
+
+   boolean loadDomainGrants(long generation, long accessorResourceId, SingleFlight.Loader<Boolean> loader) {
+      return domainGrantLoads.load(accessorResourceId, generation, loader);
+   }
+
+   long getDeduplicatedLoadCount() {
+      return globalGrantLoads.getDeduplicatedLoadCount()
+            + resourceGrantLoads.getDeduplicatedLoadCount()
+            + domainGrantLoads.getDeduplicatedLoadCount();
+   }
+
+   // forgets the global grant facts of the specified resource class, or of all classes if none is specified
+   synchronized void forgetGlobalGrants(Long resourceClassId) {
+      generation++;
+      __forget(globalGrantsByResourceClassId, resourceClassId);
+   }
+
+   // forgets the resource grant facts of the specified resource class, or of all classes if none is specified
+   synchronized void forgetResourceGrants(Long resourceClassId) {
+      generation++;
+      __forget(resourceGrantsByResourceClassId, resourceClassId);
+   }
+
+   // forgets the domain grant facts of the specified resource and of all accessors that inherit from it
+   synchronized void forgetDomainGrants(long resourceId) {
+      generation++;
+      final Set<Long> accessorResourceIds = new HashSet<>();
+      accessorResourceIds.add(resourceId);
+      final Set<Long> inheritingAccessorIds = accessorIdsByInheritedResourceId.get(resourceId);
+      if (inheritingAccessorIds != null) {
+         accessorResourceIds.addAll(inheritingAccessorIds);
+      }
+
+      for (Long accessorResourceId : accessorResourceIds) {
+         final DomainFact domainFact = domainGrantsByAccessorId.remove(accessorResourceId);
+         if (domainFact != null) {
+            __unindex(accessorResourceId, domainFact);
+         }
+      }
+   }
+
+   private <F extends Fact> Boolean __get(Map<Long, F> facts, long id) {
+      final Fact fact = facts.get(id);
+      if (fact == null) {
+         return null;
+      }
+      if (maxAgeNanos > 0 && System.nanoTime() - fact.createdAtNanos > maxAgeNanos) {
+         return null;
+      }
+      return fact.hasGrants;
+   }
+
+   private static void __forget(Map<Long, Fact> facts, Long id) {
+      if (id == null) {
+         facts.clear();
+      }
+      else {
+         facts.remove(id);
+      }
+   }
+
+   private void __index(long accessorResourceId, DomainFact domainFact) {
+      for (Long inheritedResourceId : domainFact.inheritedResourceIds) {
+         Set<Long> accessorResourceIds = accessorIdsByInheritedResourceId.get(inheritedResourceId);
+         if (accessorResourceIds == null) {
+            accessorResourceIds = new HashSet<>();
+            accessorIdsByInheritedResourceId.put(inheritedResourceId, accessorResourceIds);
+         }
+         accessorResourceIds.add(accessorResourceId);
+      }
+   }
+
+   private void __unindex(long accessorResourceId, DomainFact domainFact) {
+      for (Long inheritedResourceId : domainFact.inheritedResourceIds) {
+         final Set<Long> accessorResourceIds = accessorIdsByInheritedResourceId.get(inheritedResourceId);
+         if (accessorResourceIds != null) {
+            accessorResourceIds.remove(accessorResourceId);
+            if (accessorResourceIds.isEmpty()) {
+               accessorIdsByInheritedResourceId.remove(inheritedResourceId);
+            }
+         }
+      }
+   }
+
+   private static class Fact {
+      private final boolean hasGrants;
+      private final long    createdAtNanos;
+
+      private Fact(boolean hasGrants) {
+         this.hasGrants = hasGrants;
+         this.createdAtNanos = System.nanoTime();
+      }
+   }
+
+   private static class DomainFact extends Fact {
+      // the resources the accessor inherited from when the fact was looked up
+      private final Set<Long> inheritedResourceIds;
+
+      private DomainFact(boolean hasGrants, Set<Long> inheritedResourceIds) {
+         super(hasGrants);
+         this.inheritedResourceIds = inheritedResourceIds;
+      }
+   }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.ResourcePermission;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the permissions that resources which are inherited from (i.e. "groups") grant to the resources
+ * that inherit from them, shared by all access control contexts of a store.
+ * <p/>
+ * An entry only holds the permissions granted directly to the inherited resource, either on an accessed
+ * resource (including the global permissions on the accessed resource's class in its domain and ancestor
+ * domains), or globally on a resource class in a domain and its ancestors. The effective permissions of an
+ * accessor are its own direct grants unioned with the entries of every resource it inherits from, so the
+ * number of entries grows with the number of groups rather than with the number of accessors, and a change
+ * to the grants of a resource only has to evict the entries of that resource.
+ * <p/>
+ * Entries are evicted in least-recently-used order once the cache is full, and expire after a fixed age,
+ * which bounds how long changes made outside this JVM may go unnoticed. A lookup that started before an
+ * eviction does not populate the cache, since it may have read the grants as they were before the change.
+ * Concurrent lookups of the same missing entry are loaded only once.
+ */
+class InheritedPermissionCache {
+   private final int                                        maxEntries;
+   private final long                                       maxAgeNanos;
+   private final LinkedHashMap<Key, Entry>                  entries;
+   private final Map<Long, Set<Key>>                        keysByInheritedResourceId;
+   private final SingleFlight<Key, Set<ResourcePermission>> loads;
+   private       long                                       generation;
+
+   private InheritedPermissionCache(int maxEntries, long maxAgeNanos) {
+      this.maxEntries = maxEntries;
+      this.maxAgeNanos = maxAgeNanos;
+      this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > InheritedPermissionCache.this.maxEntries) {
+               __unindex(eldest.getKey());
+               return true;
+            }
+            return false;
+         }
+      };
+      this.keysByInheritedResourceId = new HashMap<>();
+      this.loads = new SingleFlight<>();
+   }
+
+   static void enable(Object storeKey, int maxEntries, long maxAgeNanos) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxEntries < 1) {
+         throw new IllegalArgumentException("Inherited permission cache must hold at least one entry: " + maxEntries);
+      }
+      if (maxAgeNanos < 0) {
+         throw new IllegalArgumentException("Inherited permission cache max age must not be negative: " + maxAgeNanos);
+      }
+      StoreFeatures.getInstance(storeKey).inheritedPermissionCache = new InheritedPermissionCache(maxEntries, maxAgeNanos);
+   }
+
+   static void disable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).inheritedPermissionCache = null;
+   }
+
+   static InheritedPermissionCache getInstance(Object storeKey) {
+      return storeKey == null ? null : StoreFeatures.getInstance(storeKey).inheritedPermissionCache;
+   }
+
+   synchronized long getGeneration() {
+      return generation;
+   }
+
+   synchronized Set<ResourcePermission> getResourcePermissions(long inheritedResourceId,
+                                                               long accessedResourceId) {
+      return __get(new Key(inheritedResourceId, false, accessedResourceId, 0));
+   }
+
+   synchronized void putResourcePermissions(long generation,
+                                            long inheritedResourceId,
+                                            long accessedResourceId,
+                                            Set<ResourcePermission> resourcePermissions) {
+      __put(generation, new Key(inheritedResourceId, false, accessedResourceId, 0), resourcePermissions);
+   }
+
+   // loads a missing entry, sharing the load with any other thread that concurrently loads the same entry
+   Set<ResourcePermission> loadResourcePermissions(long generation,
+                                                   long inheritedResourceId,
+                                                   long accessedResourceId,
+                                                   SingleFlight.Loader<Set<ResourcePermission>> loader) {
+      return loads.load(new Key(inheritedResourceId, false, accessedResourceId, 0), generation, loader);
+   }
+
+   synchronized Set<ResourcePermission> getGlobalResourcePermissions(long inheritedResourceId,
+                                                                     long resourceClassId,
+                                                                     long domainId) {
+      return __get(new Key(inheritedResourceId, true, resourceClassId, domainId));
+   }
+
+   synchronized void putGlobalResourcePermissions(long generation,
+                                                  long inheritedResourceId,
+                                                  long resourceClassId,
+                                                  long domainId,
+                                                  Set<ResourcePermission> resourcePermissions) {
+      __put(generation, new Key(inheritedResourceId, true, resourceClassId, domainId), resourcePermissions);
+   }
+
+   Set<ResourcePermission> loadGlobalResourcePermissions(long generation,
+                                                         long inheritedResourceId,
+                                                         long resourceClassId,
+                                                         long domainId,
+                                                         SingleFlight.Loader<Set<ResourcePermission>> loader) {
+      return loads.load(new Key(inheritedResourceId, true, resourceClassId, domainId), generation, loader);
+   }
+
+   long getDeduplicatedLoadCount() {
+      return loads.getDeduplicatedLoadCount();
+   }
+
+   synchronized void evict(long inheritedResourceId) {
+      generation++;
+      final Set<Key> keys = keysByInheritedResourceId.remove(inheritedResourceId);
+      if (keys != null) {
+         entries.keySet().removeAll(keys);
+      }
+   }
+
+   synchronized void clear() {
+      generation++;
+      entries.clear();
+      keysByInheritedResourceId.clear();
+   }
+
+   private Set<ResourcePermission> __get(Key key) {
+      final Entry entry = entries.get(key);
+      if (entry == null) {
+         return null;
+      }
+      if (maxAgeNanos > 0 && System.nanoTime() - entry.createdAtNanos > maxAgeNanos) {
+         entries.remove(key);
+         __unindex(key);
+         return null;
+      }
+      return entry.resourcePermissions;
+   }
+
+   private void __put(long generation, Key key, Set<ResourcePermission> resourcePermissions) {
+      // the grants may have changed since they were read, so the caller must look them up again next time
+      if (generation != this.generation) {
+         return;
+      }
+
+      entries.put(key, new Entry(Collections.unmodifiableSet(new HashSet<>(resourcePermissions))));
+
+      Set<Key> keys = keysByInheritedResourceId.get(key.inheritedResourceId);
+      if (keys == null) {
+         keys = new HashSet<>();
+         keysByInheritedResourceId.put(key.inheritedResourceId, keys);
+      }
+      keys.add(key);
+   }
+
+   private void __unindex(Key key) {
+      final Set<Key> keys = keysByInheritedResourceId.get(key.inheritedResourceId);
+      if (keys != null) {
+         keys.remove(key);
+         if (keys.isEmpty()) {
+            keysByInheritedResourceId.remove(key.inheritedResourceId);
+         }
+      }
+   }
+
+   private static class Key {
+      private final long    inheritedResourceId;
+      private final boolean isGlobal;
+      private final long    accessedId;
+      private final long    domainId;
+
+      private Key(long inheritedResourceId, boolean isGlobal, long accessedId, long domainId) {
+         this.inheritedResourceId = inheritedResourceId;
+         this.isGlobal = isGlobal;
+         this.accessedId = accessedId;
+         this.domainId = domainId;
+      }
+
+      @Override
+      public boolean equals(Object other) {
+         if (this == other) {
+            return true;
+         }
+         if (other == null || getClass() != other.getClass()) {
+            return false;
+         }
+
+         Key otherKey = (Key) other;
+
+         return inheritedResourceId == otherKey.inheritedResourceId
+               && isGlobal == otherKey.isGlobal
+               && accessedId == otherKey.accessedId
+               && domainId == otherKey.domainId;
+      }
+
+      @Override
+      public int hashCode() {
+         int result = (int) (inheritedResourceId ^ (inheritedResourceId >>> 32));
+         result = 31 * result + (isGlobal ? 1 : 0);
+         result = 31 * result + (int) (accessedId ^ (accessedId >>> 32));
+         result = 31 * result + (int) (domainId ^ (domainId >>> 32));
+         return result;
+      }
+   }
+
+   private static class Entry {
+      private final Set<ResourcePermission> resourcePermissions;
+      private final long                    createdAtNanos;
+
+      private Entry(Set<ResourcePermission> resourcePermissions) {
+         this.resourcePermissions = resourcePermissions;
+         this.createdAtNanos = System.nanoTime();
+      }
+   }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import org.jasypt.contrib.org.apache.commons.codec_1_3.binary.Base64;
+import org.jasypt.normalization.Normalizer;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A password encryptor that derives the digest of a password with PBKDF2 (PBKDF2WithHmacSHA256), as an
+ * alternative to the jasypt-based {@link StrongCleanablePasswordEncryptor}.
+ * <p/>
+ * The key derivation is computed directly on a <code>HmacSHA256</code> MAC that each thread reuses, together with
+ * its block buffers, since the JDK's PBKDF2WithHmacSHA256 key factory is not available on Java 7; its digests are
+ * identical to those of that key factory. The copies of the password made along the way are cleared as soon as
+ * the digest is derived. A digest is encoded along with its iteration count and salt, as
+ * <code>$pbkdf2-sha256$iterations$salt$hash</code>, so the iteration count can be raised without invalidating
+ * existing digests. Digests made by the jasypt-based encryptor are still checked (and vice versa), and are
+ * reported by {@link #needsRehash(String)}, as are digests made with a different iteration count, so that the
+ * password of a resource can be rehashed the next time it is known, that is, when the resource authenticates.
+ */
+public final class PBKDF2CleanablePasswordEncryptor implements CleanablePasswordEncryptor {
+   private static final String MAC_ALGORITHM     = "HmacSHA256";
+   private static final String PREFIX            = "$pbkdf2-sha256$";
+   private static final char   SEPARATOR         = '$';
+   private static final int    SALT_SIZE_BYTES   = 16;
+   private static final int    HASH_SIZE_BYTES   = 32;
+   private static final byte[] FIRST_BLOCK_INDEX = {0, 0, 0, 1};
+
+   private static final Map<Object, PBKDF2CleanablePasswordEncryptor> instances = new WeakHashMap<>();
+
+   private static final ThreadLocal<DerivationState> derivationStates = new ThreadLocal<DerivationState>() {
+      @Override
+      protected DerivationState initialValue() {
+         return new DerivationState();
+      }
+   };
+
+   private final int                        iterations;
+   private final SecureRandom               secureRandom;
+   private final Base64                     base64;
+   private final CleanablePasswordEncryptor legacyPasswordEncryptor;
+
+   public PBKDF2CleanablePasswordEncryptor(int iterations) {
+      if (iterations < 1) {
+         throw new IllegalArgumentException("PBKDF2 iterations must be positive: " + iterations);
+      }
+      this.iterations = iterations;
+      this.secureRandom = new SecureRandom();
+      this.base64 = new Base64();
+      this.legacyPasswordEncryptor = new StrongCleanablePasswordEncryptor();
+   }
+
+   static synchronized void enable(Object storeKey, int iterations) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      instances.put(storeKey, new PBKDF2CleanablePasswordEncryptor(iterations));
+   }
+
+   static synchronized void disable(Object storeKey) {
+      instances.remove(storeKey);
+   }
+
+   public static synchronized PBKDF2CleanablePasswordEncryptor getInstance(Object storeKey) {
+      return storeKey == null ? null : instances.get(storeKey);
+   }
+
+   @Override
+   public String encryptPassword(final char[] password) {
+      if (password == null) {
+         return null;
+      }
+
+      final byte[] salt = new byte[SALT_SIZE_BYTES];
+      secureRandom.nextBytes(salt);
+
+      final DerivationState derivationState = derivationStates.get();
+      final byte[] hash;
+      try {
+         __deriveHash(password, salt, iterations, derivationState);
+         hash = derivationState.hash.clone();
+      }
+      finally {
+         Arrays.fill(derivationState.hash, (byte) 0);
+      }
+
+      return PREFIX + iterations
+            + SEPARATOR + new String(base64.encode(salt), StandardCharsets.US_ASCII)
+            + SEPARATOR + new String(base64.encode(hash), StandardCharsets.US_ASCII);
+   }
+
+   @Override
+   public boolean checkPassword(final char[] plainPassword,
+                                final String encryptedPassword) {
+      if (plainPassword == null) {
+         return (encryptedPassword == null);
+      }
+      else if (encryptedPassword == null) {
+         return false;
+      }
+
+      if (!isPBKDF2EncryptedPassword(encryptedPassword)) {
+         return legacyPasswordEncryptor.checkPassword(plainPassword, encryptedPassword);
+      }
+      return checkPBKDF2Password(plainPassword, encryptedPassword);
+   }
+
+   static boolean isPBKDF2EncryptedPassword(String encryptedPassword) {
+      return encryptedPassword.startsWith(PREFIX);
+   }
+
+   // a digest records its iteration count and salt, so it can be checked without an encryptor instance
+   static boolean checkPBKDF2Password(char[] plainPassword, String encryptedPassword) {
+      final int saltStart = encryptedPassword.indexOf(SEPARATOR, PREFIX.length()) + 1;
+      final int hashStart = encryptedPassword.indexOf(SEPARATOR, saltStart) + 1;
+      if (saltStart == 0 || hashStart == 0) {
+         return false;
+      }
+
+      final int encryptedIterations;
+      try {
+         encryptedIterations = Integer.parseInt(encryptedPassword.substring(PREFIX.length(), saltStart - 1));
+      }
+      catch (NumberFormatException e) {
+         return false;
+      }
+      if (encryptedIterations < 1) {
+         return false;
+      }
+
+      final Base64 base64 = new Base64();
+      final byte[] salt = base64.decode(encryptedPassword.substring(saltStart, hashStart - 1)
+                                              .getBytes(StandardCharsets.US_ASCII));
+      final byte[] expectedHash = base64.decode(encryptedPassword.substring(hashStart)
+                                                      .getBytes(StandardCharsets.US_ASCII));
+
+      final DerivationState derivationState = derivationStates.get();
+      try {
+         __deriveHash(plainPassword, salt, encryptedIterations, derivationState);
+         return MessageDigest.isEqual(derivationState.hash, expectedHash);
+      }
+      finally {
+         Arrays.fill(derivationState.hash, (byte) 0);
+      }
+   }
+
+   /**
+    * Checks if a digest was made with a different algorithm or iteration count than this encryptor uses.
+    *
+    * @param encryptedPassword a digest from an earlier encryption
+    * @return true if the password should be encrypted again once it is known, false otherwise
+    */
+   public boolean needsRehash(String encryptedPassword) {
+      if (encryptedPassword == null) {
+         return false;
+      }
+      return !encryptedPassword.startsWith(PREFIX + iterations + SEPARATOR);
+   }
+
+   // the password is normalized as the jasypt-based encryptor does it, and the UTF-8 bytes of the characters
+   // are digested, as that encryptor does, so that a rehash does not change which passwords are accepted; the
+   // derived key is a single block, as it is no longer than the output of the MAC, and is left in the hash
+   // buffer of the derivation state
+   private static void __deriveHash(char[] password, byte[] salt, int iterations, DerivationState derivationState) {
+      final Mac mac = derivationState.mac;
+      final byte[] block = derivationState.block;
+      final byte[] hash = derivationState.hash;
+      final PasswordKey passwordKey = new PasswordKey(__getCleanedBytes(password));
+      try {
+         mac.init(passwordKey);
+         mac.update(salt);
+         mac.update(FIRST_BLOCK_INDEX);
+         mac.doFinal(block, 0);
+         System.arraycopy(block, 0, hash, 0, HASH_SIZE_BYTES);
+         for (int i = 1; i < iterations; i++) {
+            mac.update(block);
+            mac.doFinal(block, 0);
+            for (int j = 0; j < HASH_SIZE_BYTES; j++) {
+               hash[j] ^= block[j];
+            }
+         }
+      }
+      catch (GeneralSecurityException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         passwordKey.destroy();
+         Arrays.fill(block, (byte) 0);
+         derivationState.clearKey();
+      }
+   }
+
+   private static byte[] __getCleanedBytes(char[] password) {
+      final char[] normalizedPassword = Normalizer.normalizeToNfc(password);
+      final ByteBuffer encodedPassword = StandardCharsets.UTF_8.encode(CharBuffer.wrap(normalizedPassword));
+      try {
+         return Arrays.copyOfRange(encodedPassword.array(), encodedPassword.position(), encodedPassword.limit());
+      }
+      finally {
+         Arrays.fill(encodedPassword.array(), (byte) 0);
+         if (normalizedPassword != password) {
+            Arrays.fill(normalizedPassword, (char) 0);
+         }
+      }
+   }
+
+   // the MAC and the buffers a thread reuses for each digest it derives
+   private static final class DerivationState {
+      private static final PasswordKey EMPTY_KEY = new PasswordKey(new byte[0]);
+
+      private final Mac    mac;
+      private final byte[] block = new byte[HASH_SIZE_BYTES];
+      private final byte[] hash  = new byte[HASH_SIZE_BYTES];
+
+      private DerivationState() {
+         try {
+            mac = Mac.getInstance(MAC_ALGORITHM);
+         }
+         catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+         }
+      }
+
+      // the MAC keeps the pads it derived from the last password until it is initialized again
+      private void clearKey() {
+         try {
+            mac.init(EMPTY_KEY);
+         }
+         catch (InvalidKeyException e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
+   // a key that hands the MAC the password bytes without copying them, so that clearing them leaves no copy
+   // behind (unlike a SecretKeySpec, which keeps a copy that cannot be cleared)
+   private static final class PasswordKey implements SecretKey {
+      private static final long serialVersionUID = 1L;
+
+      private final byte[] passwordBytes;
+
+      private PasswordKey(byte[] passwordBytes) {
+         this.passwordBytes = passwordBytes;
+      }
+
+      @Override
+      public String getAlgorithm() {
+         return MAC_ALGORITHM;
+      }
+
+      @Override
+      public String getFormat() {
+         return "RAW";
+      }
+
+      @Override
+      public byte[] getEncoded() {
+         return passwordBytes;
+      }
+
+      @Override
+      public void destroy() {
+         Arrays.fill(passwordBytes, (byte) 0);
+      }
+   }
+}
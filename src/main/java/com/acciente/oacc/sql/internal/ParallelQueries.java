@@ -0,0 +1,191 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the independent persister queries of a permission check concurrently, each on its own connection
+ * borrowed from the data source of the store, so that the check waits for the slowest of the queries rather
+ * than for all of them in turn.
+ * <p/>
+ * The number of connections that the checks of a store may borrow at the same time is bounded, and should be
+ * well below the size of the connection pool. A query that cannot get a connection of its own - because that
+ * bound is reached, or because the data source fails to provide a connection - runs on the connection of the
+ * check instead, so that a saturated pool degrades the checks to sequential evaluation rather than holding
+ * them up. Since the borrowed connections are separate, the queries only see committed grants, which is what
+ * a data source backed context sees anyway.
+ */
+class ParallelQueries {
+   private final Semaphore connectionPermits;
+   private final Executor  executor;
+
+   private ParallelQueries(int maxBorrowedConnections, Executor executor) {
+      this.connectionPermits = new Semaphore(maxBorrowedConnections);
+      this.executor = executor;
+   }
+
+   static void enable(Object storeKey, int maxBorrowedConnections, Executor executor) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (executor == null) {
+         throw new NullPointerException("Executor required, none specified");
+      }
+      if (maxBorrowedConnections < 1) {
+         throw new IllegalArgumentException("Max borrowed connections must be positive: " + maxBorrowedConnections);
+      }
+      StoreFeatures.getInstance(storeKey).parallelQueries = new ParallelQueries(maxBorrowedConnections, executor);
+   }
+
+   static void disable(Object storeKey) {
+      StoreFeatures.getInstance(storeKey).parallelQueries = null;
+   }
+
+   static ParallelQueries getInstance(Object storeKey) {
+      return storeKey == null ? null : StoreFeatures.getInstance(storeKey).parallelQueries;
+   }
+
+   static <T> List<T> executeSequentially(SQLConnection connection, List<Query<T>> queries) {
+      final List<T> results = new ArrayList<>(queries.size());
+      for (Query<T> query : queries) {
+         results.add(query.execute(connection));
+      }
+      return results;
+   }
+
+   <T> List<T> execute(DataSource dataSource, SQLConnection connection, List<Query<T>> queries) {
+      // the first query runs on the connection of the check, so only the others are forked
+      final List<ForkedQuery<T>> forkedQueries = new ArrayList<>(queries.size());
+      forkedQueries.add(null);
+      for (Query<T> query : queries.subList(1, queries.size())) {
+         forkedQueries.add(__fork(dataSource, query));
+      }
+
+      final List<T> results = new ArrayList<>(queries.size());
+      for (int i = 0; i < queries.size(); i++) {
+         results.add(forkedQueries.get(i) == null ? queries.get(i).execute(connection) : null);
+      }
+      for (int i = 0; i < queries.size(); i++) {
+         final ForkedQuery<T> forkedQuery = forkedQueries.get(i);
+         if (forkedQuery != null) {
+            results.set(i, forkedQuery.join(connection));
+         }
+      }
+      return results;
+   }
+
+   private <T> ForkedQuery<T> __fork(DataSource dataSource, Query<T> query) {
+      if (!connectionPermits.tryAcquire()) {
+         return null;
+      }
+
+      final ForkedQuery<T> forkedQuery = new ForkedQuery<>(dataSource, query, connectionPermits);
+      try {
+         executor.execute(forkedQuery);
+      }
+      catch (RejectedExecutionException e) {
+         connectionPermits.release();
+         return null;
+      }
+      return forkedQuery;
+   }
+
+   abstract static class Query<T> {
+      abstract T execute(SQLConnection connection);
+   }
+
+   private static class ForkedQuery<T> implements Runnable {
+      private final DataSource     dataSource;
+      private final Query<T>       query;
+      private final Semaphore      connectionPermits;
+      private final CountDownLatch completion;
+      private       T              result;
+      private       Throwable      failure;
+      private       boolean        isConnectionUnavailable;
+
+      private ForkedQuery(DataSource dataSource, Query<T> query, Semaphore connectionPermits) {
+         this.dataSource = dataSource;
+         this.query = query;
+         this.connectionPermits = connectionPermits;
+         this.completion = new CountDownLatch(1);
+      }
+
+      @Override
+      public void run() {
+         try {
+            final SQLConnection connection;
+            try {
+               connection = new SQLConnection(dataSource.getConnection());
+            }
+            catch (SQLException e) {
+               isConnectionUnavailable = true;
+               return;
+            }
+
+            try {
+               result = query.execute(connection);
+            }
+            finally {
+               connection.close();
+            }
+         }
+         catch (Throwable t) {
+            failure = t;
+         }
+         finally {
+            connectionPermits.release();
+            completion.countDown();
+         }
+      }
+
+      T join(SQLConnection connection) {
+         try {
+            completion.await();
+         }
+         catch (InterruptedException e) {
+            // keep the interrupt for the caller, but still answer the check, on the connection of the check
+            Thread.currentThread().interrupt();
+            return query.execute(connection);
+         }
+
+         if (isConnectionUnavailable) {
+            return query.execute(connection);
+         }
+         if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+         }
+         if (failure instanceof Error) {
+            throw (Error) failure;
+         }
+         if (failure != null) {
+            throw new RuntimeException(failure);
+         }
+         return result;
+      }
+   }
+}
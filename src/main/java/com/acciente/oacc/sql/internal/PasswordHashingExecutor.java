@@ -0,0 +1,237 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the password hashing of the built-in authentication providers of a store on a bounded pool of threads.
+ * <p/>
+ * Hashing a password is deliberately expensive, so a burst of logins would otherwise occupy as many CPU-bound
+ * threads as there are callers. With a hashing executor enabled, at most the configured number of passwords
+ * of a store are hashed at the same time, and at most the configured number of further hashes wait for a
+ * thread; a hash submitted beyond that is rejected right away with a {@link RejectedExecutionException},
+ * instead of queueing without bound while its caller holds a request thread. The caller waits for its hash,
+ * but holds no connection while doing so.
+ * <p/>
+ * The hashes of a bulk credentials update run on the same threads, with at most one hash per thread submitted
+ * at a time, so that a bulk update neither exceeds the bound nor fills the queue that the logins wait in.
+ */
+public class PasswordHashingExecutor {
+   private static final Map<Object, PasswordHashingExecutor> instances = new WeakHashMap<>();
+
+   private final ThreadPoolExecutor threadPoolExecutor;
+   private final int                maxConcurrentHashes;
+   private final int                maxQueuedHashes;
+
+   private PasswordHashingExecutor(int maxConcurrentHashes, int maxQueuedHashes) {
+      this.threadPoolExecutor
+            = new ThreadPoolExecutor(maxConcurrentHashes,
+                                     maxConcurrentHashes,
+                                     0L,
+                                     TimeUnit.MILLISECONDS,
+                                     maxQueuedHashes == 0
+                                     ? new SynchronousQueue<Runnable>()
+                                     : new ArrayBlockingQueue<Runnable>(maxQueuedHashes),
+                                     new ThreadFactory() {
+                                        private final AtomicInteger threadCount = new AtomicInteger();
+
+                                        @Override
+                                        public Thread newThread(Runnable runnable) {
+                                           final Thread thread
+                                                 = new Thread(runnable,
+                                                              "oacc-password-hashing-" + threadCount.incrementAndGet());
+                                           thread.setDaemon(true);
+                                           return thread;
+                                        }
+                                     });
+      this.maxConcurrentHashes = maxConcurrentHashes;
+      this.maxQueuedHashes = maxQueuedHashes;
+   }
+
+   static synchronized void enable(Object storeKey, int maxConcurrentHashes, int maxQueuedHashes) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxConcurrentHashes < 1) {
+         throw new IllegalArgumentException("Max concurrent hashes must be positive: " + maxConcurrentHashes);
+      }
+      if (maxQueuedHashes < 0) {
+         throw new IllegalArgumentException("Max queued hashes must not be negative: " + maxQueuedHashes);
+      }
+      __shutdown(instances.put(storeKey, new PasswordHashingExecutor(maxConcurrentHashes, maxQueuedHashes)));
+   }
+
+   static synchronized void disable(Object storeKey) {
+      __shutdown(instances.remove(storeKey));
+   }
+
+   public static synchronized PasswordHashingExecutor getInstance(Object storeKey) {
+      return storeKey == null ? null : instances.get(storeKey);
+   }
+
+   /**
+    * Encrypts the bound passwords of many resources at once, on the hashing executor of the specified store if
+    * one is enabled, and in parallel otherwise
+    *
+    * @param storeKey            the store whose hashing executor to use, if any
+    * @param passwordEncryptor   the encryptor to hash the bound passwords with
+    * @param passwordsByResource the plain passwords, by the resource they are bound to
+    * @return the encrypted bound passwords, by resource
+    */
+   public static Map<Resource, String> encryptBoundPasswords(Object storeKey,
+                                                             CleanablePasswordEncryptor passwordEncryptor,
+                                                             Map<Resource, char[]> passwordsByResource) {
+      final PasswordHashingExecutor passwordHashingExecutor = getInstance(storeKey);
+      if (passwordHashingExecutor == null) {
+         return BulkPasswordEncryptor.encryptBoundPasswords(passwordEncryptor, passwordsByResource);
+      }
+      return BulkPasswordEncryptor.encryptBoundPasswords(passwordHashingExecutor,
+                                                         passwordEncryptor,
+                                                         passwordsByResource);
+   }
+
+   // hashes that were already accepted by a replaced executor still complete
+   private static void __shutdown(PasswordHashingExecutor passwordHashingExecutor) {
+      if (passwordHashingExecutor != null) {
+         passwordHashingExecutor.threadPoolExecutor.shutdown();
+      }
+   }
+
+   public <T> T execute(Callable<T> hash) {
+      final Future<T> future = __submit(hash);
+      final boolean isInterrupted = __awaitCompletion(future);
+      try {
+         return __getResult(future);
+      }
+      finally {
+         if (isInterrupted) {
+            Thread.currentThread().interrupt();
+         }
+      }
+   }
+
+   <T> List<T> executeAll(List<? extends Callable<T>> hashes) {
+      final List<Future<T>> futures = new ArrayList<>(hashes.size());
+      boolean isInterrupted = false;
+      try {
+         int awaitedCount = 0;
+         for (Callable<T> hash : hashes) {
+            // keep at most one hash per thread submitted
+            while (futures.size() - awaitedCount >= maxConcurrentHashes) {
+               isInterrupted |= __awaitCompletion(futures.get(awaitedCount++));
+            }
+
+            while (true) {
+               try {
+                  futures.add(threadPoolExecutor.submit(hash));
+                  break;
+               }
+               catch (RejectedExecutionException e) {
+                  // the logins have filled the queue, so wait for a hash of our own, unless none is left to wait for
+                  if (awaitedCount == futures.size()) {
+                     throw __newOverloadedException(e);
+                  }
+                  isInterrupted |= __awaitCompletion(futures.get(awaitedCount++));
+               }
+            }
+         }
+         for (; awaitedCount < futures.size(); awaitedCount++) {
+            isInterrupted |= __awaitCompletion(futures.get(awaitedCount));
+         }
+
+         final List<T> results = new ArrayList<>(futures.size());
+         for (Future<T> future : futures) {
+            results.add(__getResult(future));
+         }
+         return results;
+      }
+      finally {
+         if (isInterrupted) {
+            Thread.currentThread().interrupt();
+         }
+      }
+   }
+
+   private <T> Future<T> __submit(Callable<T> hash) {
+      try {
+         return threadPoolExecutor.submit(hash);
+      }
+      catch (RejectedExecutionException e) {
+         throw __newOverloadedException(e);
+      }
+   }
+
+   private RejectedExecutionException __newOverloadedException(RejectedExecutionException e) {
+      return new RejectedExecutionException("Password hashing overloaded, more than " + maxQueuedHashes
+                                                  + " hashes waiting", e);
+   }
+
+   // the caller's password buffers must stay intact until the hash completes, so an interrupt does not end the
+   // wait, but is reported to the caller to restore
+   private static boolean __awaitCompletion(Future<?> future) {
+      boolean isInterrupted = false;
+      while (true) {
+         try {
+            future.get();
+            return isInterrupted;
+         }
+         catch (InterruptedException e) {
+            isInterrupted = true;
+         }
+         catch (ExecutionException e) {
+            return isInterrupted;
+         }
+      }
+   }
+
+   // only called once the hash completed
+   private static <T> T __getResult(Future<T> future) {
+      try {
+         return future.get();
+      }
+      catch (InterruptedException e) {
+         throw new IllegalStateException("Password hash was not completed", e);
+      }
+      catch (ExecutionException e) {
+         final Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         }
+         if (cause instanceof Error) {
+            throw (Error) cause;
+         }
+         throw new RuntimeException(cause);
+      }
+   }
+}
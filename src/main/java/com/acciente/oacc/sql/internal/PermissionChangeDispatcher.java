@@ -0,0 +1,297 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.PermissionChangeListener;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourcePermission;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the changes made by the access control contexts of this JVM to the permission change listeners
+ * registered for the store the changes were made in.
+ * <p/>
+ * Changes are queued in a bounded buffer and delivered by a single daemon thread, so that a slow listener
+ * never holds up the operation that made the change. When the buffer is full the change is discarded and
+ * counted, and the listeners are told how many changes they missed before the next one is delivered.
+ * Nothing is queued while no listener is registered, and the thread of a store ends when its last listener
+ * is removed.
+ */
+public class PermissionChangeDispatcher {
+   private static final int MAX_PENDING_CHANGES = 10000;
+
+   private final List<PermissionChangeListener> listeners;
+   private final BlockingQueue<Change>          pendingChanges;
+   private final AtomicInteger                  discardedChangeCount;
+   private       Thread                         dispatcherThread;
+
+   PermissionChangeDispatcher() {
+      listeners = new CopyOnWriteArrayList<>();
+      // a linked queue, so that a store without listeners does not allocate the full buffer
+      pendingChanges = new LinkedBlockingQueue<>(MAX_PENDING_CHANGES);
+      discardedChangeCount = new AtomicInteger();
+   }
+
+   public static PermissionChangeDispatcher getInstance(Object storeKey) {
+      return StoreFeatures.getInstance(storeKey).permissionChangeDispatcher;
+   }
+
+   public synchronized void addListener(PermissionChangeListener listener) {
+      if (listener == null) {
+         throw new NullPointerException("Permission change listener required, none specified");
+      }
+
+      listeners.add(listener);
+
+      if (dispatcherThread == null) {
+         dispatcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+               __dispatch();
+            }
+         }, "oacc-permission-change-dispatcher");
+         dispatcherThread.setDaemon(true);
+         dispatcherThread.start();
+      }
+   }
+
+   public synchronized void removeListener(PermissionChangeListener listener) {
+      listeners.remove(listener);
+
+      if (listeners.isEmpty() && dispatcherThread != null) {
+         // changes still pending were made for the removed listeners, and must not reach later ones
+         dispatcherThread.interrupt();
+         dispatcherThread = null;
+         pendingChanges.clear();
+         discardedChangeCount.set(0);
+      }
+   }
+
+   public boolean hasListeners() {
+      return !listeners.isEmpty();
+   }
+
+   public void resourceCreated(final Resource resource,
+                               final String resourceClassName,
+                               final String domainName) {
+      if (hasListeners()) {
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.resourceCreated(resource, resourceClassName, domainName);
+            }
+         });
+      }
+   }
+
+   public void resourceDeleted(final Resource resource) {
+      if (hasListeners()) {
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.resourceDeleted(resource);
+            }
+         });
+      }
+   }
+
+   public void resourcePermissionsChanged(final Resource accessorResource,
+                                          final Resource accessedResource,
+                                          Set<ResourcePermission> addPermissions,
+                                          Set<ResourcePermission> updatePermissions,
+                                          Set<ResourcePermission> removePermissions) {
+      if (hasListeners()) {
+         final Set<ResourcePermission> addedPermissions = __union(addPermissions, updatePermissions);
+         final Set<ResourcePermission> removedPermissions = __copy(removePermissions);
+
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.resourcePermissionsChanged(accessorResource,
+                                                   accessedResource,
+                                                   addedPermissions,
+                                                   removedPermissions);
+            }
+         });
+      }
+   }
+
+   public void globalResourcePermissionsChanged(final Resource accessorResource,
+                                                final String resourceClassName,
+                                                final String domainName,
+                                                Set<ResourcePermission> addPermissions,
+                                                Set<ResourcePermission> updatePermissions,
+                                                Set<ResourcePermission> removePermissions) {
+      if (hasListeners()) {
+         final Set<ResourcePermission> addedPermissions = __union(addPermissions, updatePermissions);
+         final Set<ResourcePermission> removedPermissions = __copy(removePermissions);
+
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.globalResourcePermissionsChanged(accessorResource,
+                                                         resourceClassName,
+                                                         domainName,
+                                                         addedPermissions,
+                                                         removedPermissions);
+            }
+         });
+      }
+   }
+
+   public void resourceCreatePermissionsChanged(final Resource accessorResource,
+                                                final String resourceClassName,
+                                                final String domainName,
+                                                Set<ResourceCreatePermission> addPermissions,
+                                                Set<ResourceCreatePermission> updatePermissions,
+                                                Set<ResourceCreatePermission> removePermissions) {
+      if (hasListeners()) {
+         final Set<ResourceCreatePermission> addedPermissions = __union(addPermissions, updatePermissions);
+         final Set<ResourceCreatePermission> removedPermissions = __copy(removePermissions);
+
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.resourceCreatePermissionsChanged(accessorResource,
+                                                         resourceClassName,
+                                                         domainName,
+                                                         addedPermissions,
+                                                         removedPermissions);
+            }
+         });
+      }
+   }
+
+   public void domainPermissionsChanged(final Resource accessorResource,
+                                        final String domainName,
+                                        Set<DomainPermission> addPermissions,
+                                        Set<DomainPermission> updatePermissions,
+                                        Set<DomainPermission> removePermissions) {
+      if (hasListeners()) {
+         final Set<DomainPermission> addedPermissions = __union(addPermissions, updatePermissions);
+         final Set<DomainPermission> removedPermissions = __copy(removePermissions);
+
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.domainPermissionsChanged(accessorResource, domainName, addedPermissions, removedPermissions);
+            }
+         });
+      }
+   }
+
+   public void domainCreatePermissionsChanged(final Resource accessorResource,
+                                              Set<DomainCreatePermission> addPermissions,
+                                              Set<DomainCreatePermission> updatePermissions,
+                                              Set<DomainCreatePermission> removePermissions) {
+      if (hasListeners()) {
+         final Set<DomainCreatePermission> addedPermissions = __union(addPermissions, updatePermissions);
+         final Set<DomainCreatePermission> removedPermissions = __copy(removePermissions);
+
+         __enqueue(new Change() {
+            @Override
+            void deliverTo(PermissionChangeListener listener) {
+               listener.domainCreatePermissionsChanged(accessorResource, addedPermissions, removedPermissions);
+            }
+         });
+      }
+   }
+
+   private void __enqueue(Change change) {
+      if (!pendingChanges.offer(change)) {
+         discardedChangeCount.incrementAndGet();
+      }
+   }
+
+   private void __dispatch() {
+      while (true) {
+         final Change change;
+         try {
+            change = pendingChanges.take();
+         }
+         catch (InterruptedException e) {
+            if (__isRetired()) {
+               return;
+            }
+            continue;
+         }
+
+         // report the changes that were discarded before this one was queued, if any
+         final int discardedCount = discardedChangeCount.getAndSet(0);
+         if (discardedCount > 0) {
+            for (PermissionChangeListener listener : listeners) {
+               try {
+                  listener.changesDiscarded(discardedCount);
+               }
+               catch (RuntimeException e) {
+                  __reportListenerFailure(e);
+               }
+            }
+         }
+
+         for (PermissionChangeListener listener : listeners) {
+            try {
+               change.deliverTo(listener);
+            }
+            catch (RuntimeException e) {
+               __reportListenerFailure(e);
+            }
+         }
+      }
+   }
+
+   // a thread is retired when the last listener was removed, even if a listener was added again since
+   private synchronized boolean __isRetired() {
+      return dispatcherThread != Thread.currentThread();
+   }
+
+   // a failing listener must neither stop the delivery to the other listeners nor end the dispatcher thread
+   private static void __reportListenerFailure(RuntimeException e) {
+      final Thread currentThread = Thread.currentThread();
+      currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+   }
+
+   private static <T> Set<T> __union(Set<T> firstSet, Set<T> secondSet) {
+      final Set<T> union = new HashSet<>(firstSet.size() + secondSet.size());
+      union.addAll(firstSet);
+      union.addAll(secondSet);
+      return Collections.unmodifiableSet(union);
+   }
+
+   private static <T> Set<T> __copy(Set<T> set) {
+      if (set.isEmpty()) {
+         return Collections.emptySet();
+      }
+      return Collections.unmodifiableSet(new HashSet<>(set));
+   }
+
+   private static abstract class Change {
+      abstract void deliverTo(PermissionChangeListener listener);
+   }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermissions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assigns the permission names of a resource class, or of domains, stable bit positions for use in a
+ * {@link PermissionMask}.
+ * <p/>
+ * The system permissions always occupy the lowest bits. All other permission names are assigned the next
+ * free bit the first time they are added to a mask, and keep it for the lifetime of the layout, so that
+ * masks built at different times remain comparable. Since the bits only ever exist in memory, a layout does
+ * not need to know the permissions of its resource class up front, nor be told about new ones. Only names
+ * read back from the store should be added to a mask, so that a layout never grows beyond the permissions
+ * defined for its resource class; requested names are only ever looked up.
+ * <p/>
+ * Resource class names are only unique within a store, so the resource permission layouts are kept per store,
+ * and are discarded along with the store key they were requested for.
+ */
+final class PermissionLayout {
+   private static final Map<Object, ConcurrentMap<String, PermissionLayout>> resourcePermissionLayoutsByStoreKey
+         = new WeakHashMap<>();
+
+   static final PermissionLayout DOMAIN_PERMISSION_LAYOUT = new PermissionLayout(DomainPermissions.getSysPermissionNames());
+
+   private final    ConcurrentMap<String, Integer> bitsByPermissionName = new ConcurrentHashMap<>();
+   private volatile String[]                       permissionNames      = new String[0];
+
+   private PermissionLayout(List<String> sysPermissionNames) {
+      for (String sysPermissionName : sysPermissionNames) {
+         getBit(sysPermissionName);
+      }
+   }
+
+   /**
+    * Returns the resource permission layouts of the store identified by the specified key, by resource class name
+    */
+   static synchronized ConcurrentMap<String, PermissionLayout> getResourcePermissionLayouts(Object storeKey) {
+      ConcurrentMap<String, PermissionLayout> resourcePermissionLayoutsByResourceClassName
+            = resourcePermissionLayoutsByStoreKey.get(storeKey);
+
+      if (resourcePermissionLayoutsByResourceClassName == null) {
+         resourcePermissionLayoutsByResourceClassName = new ConcurrentHashMap<>();
+         resourcePermissionLayoutsByStoreKey.put(storeKey, resourcePermissionLayoutsByResourceClassName);
+      }
+
+      return resourcePermissionLayoutsByResourceClassName;
+   }
+
+   static PermissionLayout getResourcePermissionLayout(ConcurrentMap<String, PermissionLayout> resourcePermissionLayoutsByResourceClassName,
+                                                       String resourceClassName) {
+      PermissionLayout permissionLayout = resourcePermissionLayoutsByResourceClassName.get(resourceClassName);
+
+      if (permissionLayout == null) {
+         final PermissionLayout newPermissionLayout = new PermissionLayout(ResourcePermissions.getSysPermissionNames());
+         permissionLayout = resourcePermissionLayoutsByResourceClassName.putIfAbsent(resourceClassName,
+                                                                                   newPermissionLayout);
+         if (permissionLayout == null) {
+            permissionLayout = newPermissionLayout;
+         }
+      }
+
+      return permissionLayout;
+   }
+
+   /**
+    * Returns the bit of the specified permission name, assigning it the next free bit if it does not have one yet
+    */
+   int getBit(String permissionName) {
+      final Integer bit = bitsByPermissionName.get(permissionName);
+
+      return bit == null ? __assignBit(permissionName) : bit;
+   }
+
+   /**
+    * Returns the bit of the specified permission name, or -1 if it has never been assigned one
+    */
+   int findBit(String permissionName) {
+      final Integer bit = bitsByPermissionName.get(permissionName);
+
+      return bit == null ? -1 : bit;
+   }
+
+   String getPermissionName(int bit) {
+      return permissionNames[bit];
+   }
+
+   private synchronized int __assignBit(String permissionName) {
+      Integer bit = bitsByPermissionName.get(permissionName);
+
+      if (bit == null) {
+         bit = permissionNames.length;
+
+         // publish the name before the bit, so that whoever sees a bit can also look up its name
+         final String[] newPermissionNames = Arrays.copyOf(permissionNames, bit + 1);
+         newPermissionNames[bit] = permissionName;
+         permissionNames = newPermissionNames;
+         bitsByPermissionName.put(permissionName, bit);
+      }
+
+      return bit;
+   }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A set of permissions of a single resource class, or of domains, held as two bitsets over the bits of a
+ * {@link PermissionLayout}: one of the permissions granted with or without the grant option, and one of
+ * the permissions granted with the grant option.
+ * <p/>
+ * Holding a permission with the grant option implies holding it without, so adding permissions collapses
+ * them as they are added, and checking if a requested permission is permissible, i.e. equal to or grantable
+ * from a held permission, is a single bit test. Masks are only converted back to permission sets at the
+ * boundary of the access control context.
+ */
+final class PermissionMask {
+   private static final long[] EMPTY_WORDS = new long[0];
+
+   private final PermissionLayout permissionLayout;
+   private       long[]           grantedWords   = EMPTY_WORDS;
+   private       long[]           grantableWords = EMPTY_WORDS;
+
+   PermissionMask(PermissionLayout permissionLayout) {
+      this.permissionLayout = permissionLayout;
+   }
+
+   static PermissionMask newResourcePermissionMask(ConcurrentMap<String, PermissionLayout> resourcePermissionLayouts,
+                                                   String resourceClassName) {
+      return new PermissionMask(PermissionLayout.getResourcePermissionLayout(resourcePermissionLayouts,
+                                                                             resourceClassName));
+   }
+
+   static PermissionMask newDomainPermissionMask() {
+      return new PermissionMask(PermissionLayout.DOMAIN_PERMISSION_LAYOUT);
+   }
+
+   // adding permissions
+
+   /**
+    * Adds the specified permission, which must be one read back from the store, since adding a permission
+    * name assigns it a bit in the layout of this mask if it does not have one yet
+    */
+   void add(String permissionName, boolean withGrantOption) {
+      final int bit = permissionLayout.getBit(permissionName);
+      final int word = bit >>> 6;
+
+      if (word >= grantedWords.length) {
+         grantedWords = Arrays.copyOf(grantedWords, word + 1);
+         grantableWords = Arrays.copyOf(grantableWords, word + 1);
+      }
+
+      grantedWords[word] |= 1L << bit;
+      if (withGrantOption) {
+         grantableWords[word] |= 1L << bit;
+      }
+   }
+
+   void addResourcePermissions(Collection<ResourcePermission> resourcePermissions) {
+      for (ResourcePermission resourcePermission : resourcePermissions) {
+         add(resourcePermission.getPermissionName(), resourcePermission.isWithGrantOption());
+      }
+   }
+
+   void addDomainPermissions(Collection<DomainPermission> domainPermissions) {
+      for (DomainPermission domainPermission : domainPermissions) {
+         add(domainPermission.getPermissionName(), domainPermission.isWithGrantOption());
+      }
+   }
+
+   // checking permissions
+
+   boolean isEmpty() {
+      for (long grantedWord : grantedWords) {
+         if (grantedWord != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Checks if the specified permission is held, or is grantable from a held permission
+    */
+   boolean isPermissible(String permissionName, boolean withGrantOption) {
+      final int bit = permissionLayout.findBit(permissionName);
+      final int word = bit >>> 6;
+
+      if (bit < 0 || word >= grantedWords.length) {
+         return false;
+      }
+
+      return ((withGrantOption ? grantableWords[word] : grantedWords[word]) & (1L << bit)) != 0;
+   }
+
+   boolean isPermissible(ResourcePermission resourcePermission) {
+      return isPermissible(resourcePermission.getPermissionName(), resourcePermission.isWithGrantOption());
+   }
+
+   boolean isPermissible(DomainPermission domainPermission) {
+      return isPermissible(domainPermission.getPermissionName(), domainPermission.isWithGrantOption());
+   }
+
+   /**
+    * Checks if every permission of the specified mask, which must share this mask's layout, is permissible
+    * from the permissions of this mask
+    */
+   boolean isPermissible(PermissionMask requestedPermissionMask) {
+      if (requestedPermissionMask.permissionLayout != permissionLayout) {
+         throw new IllegalArgumentException("Permission masks of different layouts cannot be compared");
+      }
+
+      for (int word = 0; word < requestedPermissionMask.grantedWords.length; word++) {
+         final long grantedWord = word < grantedWords.length ? grantedWords[word] : 0;
+         final long grantableWord = word < grantableWords.length ? grantableWords[word] : 0;
+
+         if ((requestedPermissionMask.grantedWords[word] & ~grantedWord) != 0
+               || (requestedPermissionMask.grantableWords[word] & ~grantableWord) != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Checks if every one of the specified resource permissions is permissible from the permissions of this mask
+    */
+   boolean isPermissibleResourcePermissions(Collection<ResourcePermission> requestedResourcePermissions) {
+      // the requested permissions are looked up one at a time, so that an undefined name is never assigned a bit
+      for (ResourcePermission requestedResourcePermission : requestedResourcePermissions) {
+         if (!isPermissible(requestedResourcePermission)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Checks if every one of the specified domain permissions is permissible from the permissions of this mask
+    */
+   boolean isPermissibleDomainPermissions(Collection<DomainPermission> requestedDomainPermissions) {
+      for (DomainPermission requestedDomainPermission : requestedDomainPermissions) {
+         if (!isPermissible(requestedDomainPermission)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   // converting to permission sets
+
+   /**
+    * Returns the held permissions in collapsed form, i.e. a permission held both with and without the grant
+    * option is only returned with it
+    */
+   Set<ResourcePermission> toResourcePermissions() {
+      final Set<ResourcePermission> resourcePermissions = new HashSet<>();
+
+      for (int bit = __nextGrantedBit(0); bit >= 0; bit = __nextGrantedBit(bit + 1)) {
+         final String permissionName = permissionLayout.getPermissionName(bit);
+         resourcePermissions.add(ResourcePermissions.getInternedInstance(permissionName, __isGrantable(bit)));
+      }
+      return resourcePermissions;
+   }
+
+   /**
+    * Returns the held permissions in collapsed form, i.e. a permission held both with and without the grant
+    * option is only returned with it
+    */
+   Set<DomainPermission> toDomainPermissions() {
+      final Set<DomainPermission> domainPermissions = new HashSet<>();
+
+      for (int bit = __nextGrantedBit(0); bit >= 0; bit = __nextGrantedBit(bit + 1)) {
+         final String permissionName = permissionLayout.getPermissionName(bit);
+         domainPermissions.add(__isGrantable(bit)
+                               ? DomainPermissions.getInstanceWithGrantOption(permissionName)
+                               : DomainPermissions.getInstance(permissionName));
+      }
+      return domainPermissions;
+   }
+
+   private int __nextGrantedBit(int fromBit) {
+      int word = fromBit >>> 6;
+
+      if (word >= grantedWords.length) {
+         return -1;
+      }
+
+      long remainingBits = grantedWords[word] & (-1L << fromBit);
+      while (remainingBits == 0) {
+         if (++word == grantedWords.length) {
+            return -1;
+         }
+         remainingBits = grantedWords[word];
+      }
+      return (word << 6) + Long.numberOfTrailingZeros(remainingBits);
+   }
+
+   private boolean __isGrantable(int bit) {
+      return (grantableWords[bit >>> 6] & (1L << bit)) != 0;
+   }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A cursor over a set of resources in ascending resource id order, that reads the resources from the persisters
+ * one page at a time instead of materializing the whole set.
+ * <p/>
+ * The leaves of a cursor tree page through the result of a single persister query, while the inner nodes compute
+ * the union or intersection of their children by seeking all of them to the same resource id, so that at most one
+ * page per leaf is held in memory at any time.
+ */
+abstract class ResourceCursor {
+   /**
+    * Returns the resource with the lowest id that is equal to or greater than the specified id, or null if
+    * there is no such resource. The ids passed to successive calls must not decrease.
+    */
+   abstract Resource seek(SQLConnection connection, long minResourceId);
+
+   /**
+    * A leaf that pages through the resources returned by a keyset-paged persister query.
+    */
+   abstract static class Page extends ResourceCursor {
+      private final int maxResources;
+
+      private List<Resource> page                  = Collections.emptyList();
+      private int            pageIndex;
+      private long           lastFetchedResourceId = -1;
+      private boolean        exhausted;
+
+      Page(int maxResources) {
+         this.maxResources = maxResources;
+      }
+
+      // returns up to maxResources resources with an id above afterResourceId, in ascending id order
+      abstract List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources);
+
+      @Override
+      Resource seek(SQLConnection connection, long minResourceId) {
+         while (true) {
+            while (pageIndex < page.size() && page.get(pageIndex).getId() < minResourceId) {
+               pageIndex++;
+            }
+            if (pageIndex < page.size()) {
+               return page.get(pageIndex);
+            }
+            if (exhausted) {
+               return null;
+            }
+
+            // the buffered page is used up, so fetch the next one, skipping straight to the requested id; the
+            // persisters collapse duplicates within a page only, so only an empty page marks the end
+            page = fetch(connection, Math.max(lastFetchedResourceId, minResourceId - 1), maxResources);
+            pageIndex = 0;
+            if (page.isEmpty()) {
+               exhausted = true;
+               return null;
+            }
+            lastFetchedResourceId = page.get(page.size() - 1).getId();
+         }
+      }
+   }
+
+   /**
+    * The resources found by any of the child cursors.
+    */
+   static class Union extends ResourceCursor {
+      private final List<ResourceCursor> cursors;
+
+      Union(List<ResourceCursor> cursors) {
+         this.cursors = cursors;
+      }
+
+      @Override
+      Resource seek(SQLConnection connection, long minResourceId) {
+         Resource lowestResource = null;
+         for (ResourceCursor cursor : cursors) {
+            final Resource resource = cursor.seek(connection, minResourceId);
+            if (resource != null && (lowestResource == null || resource.getId() < lowestResource.getId())) {
+               lowestResource = resource;
+            }
+         }
+         return lowestResource;
+      }
+   }
+
+   /**
+    * The resources found by all of the child cursors.
+    */
+   static class Intersection extends ResourceCursor {
+      private final List<ResourceCursor> cursors;
+
+      Intersection(List<ResourceCursor> cursors) {
+         this.cursors = cursors;
+      }
+
+      @Override
+      Resource seek(SQLConnection connection, long minResourceId) {
+         // leapfrog: seek each cursor to the highest id found so far, until all cursors agree on the same id
+         long candidateResourceId = minResourceId;
+         while (true) {
+            Resource candidateResource = null;
+            boolean agreed = true;
+            for (ResourceCursor cursor : cursors) {
+               final Resource resource = cursor.seek(connection, candidateResourceId);
+               if (resource == null) {
+                  return null;
+               }
+               if (resource.getId() != candidateResourceId) {
+                  candidateResourceId = resource.getId();
+                  agreed = false;
+               }
+               candidateResource = resource;
+            }
+            if (agreed) {
+               return candidateResource;
+            }
+         }
+      }
+   }
+}
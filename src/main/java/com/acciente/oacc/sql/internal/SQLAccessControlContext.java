@@ -18,6 +18,7 @@
 package com.acciente.oacc.sql.internal;
 
 import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.AsyncAccessControlContext;
 import com.acciente.oacc.AuthenticationProvider;
 import com.acciente.oacc.Credentials;
 import com.acciente.oacc.DomainCreatePermission;
@@ -27,13 +28,19 @@ import com.acciente.oacc.DomainPermissions;
 import com.acciente.oacc.NotAuthenticatedException;
 import com.acciente.oacc.NotAuthorizedException;
 import com.acciente.oacc.OaccException;
+import com.acciente.oacc.PasswordCredentials;
+import com.acciente.oacc.PermissionChangeListener;
 import com.acciente.oacc.Resource;
 import com.acciente.oacc.ResourceClassInfo;
 import com.acciente.oacc.ResourceCreatePermission;
 import com.acciente.oacc.ResourceCreatePermissions;
 import com.acciente.oacc.ResourcePermission;
 import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.TokenCredentials;
 import com.acciente.oacc.sql.SQLProfile;
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.ChangeLogPersister;
 import com.acciente.oacc.sql.internal.persister.DomainPersister;
 import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionPostCreateSysPersister;
 import com.acciente.oacc.sql.internal.persister.GrantDomainCreatePermissionSysPersister;
@@ -45,35 +52,13 @@ import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionPos
 import com.acciente.oacc.sql.internal.persister.GrantResourceCreatePermissionSysPersister;
 import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionPersister;
 import com.acciente.oacc.sql.internal.persister.GrantResourcePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveDomainPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantDomainCreatePermissionPostCreateSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantDomainCreatePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantDomainPermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantGlobalResourcePermissionPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantGlobalResourcePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantResourceCreatePermissionPostCreatePersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantResourceCreatePermissionPostCreateSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantResourceCreatePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantResourcePermissionPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveGrantResourcePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.NonRecursiveResourcePersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveDomainPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantDomainCreatePermissionPostCreateSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantDomainCreatePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantDomainPermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantGlobalResourcePermissionPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantGlobalResourcePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantResourceCreatePermissionPostCreatePersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantResourceCreatePermissionPostCreateSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantResourceCreatePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantResourcePermissionPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveGrantResourcePermissionSysPersister;
-import com.acciente.oacc.sql.internal.persister.RecursiveResourcePersister;
+import com.acciente.oacc.sql.internal.persister.PersisterProvider;
+import com.acciente.oacc.sql.internal.persister.PersisterStore;
 import com.acciente.oacc.sql.internal.persister.ResourceClassPermissionPersister;
 import com.acciente.oacc.sql.internal.persister.ResourceClassPersister;
 import com.acciente.oacc.sql.internal.persister.ResourcePersister;
 import com.acciente.oacc.sql.internal.persister.SQLConnection;
-import com.acciente.oacc.sql.internal.persister.SQLStrings;
+import com.acciente.oacc.sql.internal.persister.SQLPersisterProvider;
 import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
@@ -81,22 +66,39 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import javax.sql.DataSource;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings({"UnusedAssignment", "ThrowFromFinallyBlock"})
 public class SQLAccessControlContext implements AccessControlContext, Serializable {
    // services
    private DataSource dataSource;
    private Connection connection;
+   private boolean    isConnectionRequired;
+
+   // identifies the store of a context that is not backed by a data source, for looking up its shared caches
+   private transient Object storeKey;
+
+   // the schema and profile of a context backed by the SQL persisters, from which its serialized form is rebound
+   private transient String     schemaName;
+   private transient SQLProfile sqlProfile;
 
    // state
    private AuthenticationProvider authenticationProvider;
@@ -111,9 +113,24 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private Resource sessionResource;
    private String   sessionResourceDomainName;
 
+   // The memoized permissions of the session resource, when memoizing them is enabled
+   private transient SessionMemo sessionMemo;
+
+   // The session token issued when the authenticated resource authenticated with its password, if tokens are enabled
+   private transient TokenCredentials tokenCredentials;
+
+   // The bit layouts of the resource permissions of the store of this context, by resource class name
+   private transient ConcurrentMap<String, PermissionLayout> resourcePermissionLayouts;
+
+   // The caches and settings of the store of this context, looked up once so that reading them takes no lock
+   private transient StoreFeatures storeFeatures;
+
    // resource ID constants
    private static final Long SYSTEM_RESOURCE_ID = Long.valueOf(0);
 
+   // the number of resources that an iterator over a large query result reads per page and per batch
+   private static final int RESOURCE_ITERATOR_BATCH_SIZE = 1000;
+
    // domain permissions constants
    private static final DomainPermission DomainPermission_CREATE_CHILD_DOMAIN
          = DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN);
@@ -128,6 +145,12 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private static final DomainPermission DomainPermission_SUPER_USER_GRANT
          = DomainPermissions.getInstanceWithGrantOption(DomainPermissions.SUPER_USER);
 
+   // the domain permissions that super-user privileges on a domain imply (shared, hence unmodifiable)
+   private static final Set<DomainPermission> DomainPermissions_SUPER_USER_APPLICABLE
+         = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(DomainPermission_SUPER_USER_GRANT,
+                                                                   DomainPermission_CREATE_CHILD_DOMAIN_GRANT,
+                                                                   DomainPermission_DELETE_GRANT)));
+
    // resource permissions constants
    private static final ResourcePermission ResourcePermission_INHERIT
          = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
@@ -165,6 +188,7 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private final GrantGlobalResourcePermissionSysPersister           grantGlobalResourcePermissionSysPersister;
    private final GrantResourcePermissionPersister                    grantResourcePermissionPersister;
    private final GrantGlobalResourcePermissionPersister              grantGlobalResourcePermissionPersister;
+   private final ChangeLogPersister                                  changeLogPersister;
 
    public static AccessControlContext getAccessControlContext(Connection connection,
                                                               String schemaName,
@@ -192,6 +216,108 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return new SQLAccessControlContext(dataSource, schemaName, sqlProfile, authenticationProvider);
    }
 
+   public static AccessControlContext getAccessControlContext(PersisterProvider persisterProvider,
+                                                              AuthenticationProvider authenticationProvider) {
+      return new SQLAccessControlContext(persisterProvider, authenticationProvider);
+   }
+
+   public static AccessControlContext getAccessControlContext(PersisterProvider persisterProvider,
+                                                              PersisterStore persisterStore,
+                                                              AuthenticationProvider authenticationProvider) {
+      final SQLAccessControlContext sqlAccessControlContext
+            = new SQLAccessControlContext(persisterProvider, authenticationProvider);
+      sqlAccessControlContext.storeKey = persisterStore;
+      return sqlAccessControlContext;
+   }
+
+   public static void addPermissionChangeListener(DataSource dataSource,
+                                                  PermissionChangeListener permissionChangeListener) {
+      __addPermissionChangeListener(dataSource, permissionChangeListener);
+   }
+
+   public static void addPermissionChangeListener(Connection connection,
+                                                  PermissionChangeListener permissionChangeListener) {
+      __addPermissionChangeListener(connection, permissionChangeListener);
+   }
+
+   public static void addPermissionChangeListener(PersisterStore persisterStore,
+                                                  PermissionChangeListener permissionChangeListener) {
+      __addPermissionChangeListener(persisterStore, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(DataSource dataSource,
+                                                     PermissionChangeListener permissionChangeListener) {
+      __removePermissionChangeListener(dataSource, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(Connection connection,
+                                                     PermissionChangeListener permissionChangeListener) {
+      __removePermissionChangeListener(connection, permissionChangeListener);
+   }
+
+   public static void removePermissionChangeListener(PersisterStore persisterStore,
+                                                     PermissionChangeListener permissionChangeListener) {
+      __removePermissionChangeListener(persisterStore, permissionChangeListener);
+   }
+
+   public static void setSessionMemoMaxAge(DataSource dataSource, long maxAge, TimeUnit timeUnit) {
+      __setSessionMemoMaxAge(dataSource, maxAge, timeUnit);
+   }
+
+   public static void setSessionMemoMaxAge(Connection connection, long maxAge, TimeUnit timeUnit) {
+      __setSessionMemoMaxAge(connection, maxAge, timeUnit);
+   }
+
+   public static void setSessionMemoMaxAge(PersisterStore persisterStore, long maxAge, TimeUnit timeUnit) {
+      __setSessionMemoMaxAge(persisterStore, maxAge, timeUnit);
+   }
+
+   public static void enableInheritedPermissionCache(DataSource dataSource,
+                                                     int maxEntries,
+                                                     long maxAge,
+                                                     TimeUnit timeUnit) {
+      InheritedPermissionCache.enable(dataSource, maxEntries, timeUnit.toNanos(maxAge));
+   }
+
+   public static void enableInheritedPermissionCache(PersisterStore persisterStore,
+                                                     int maxEntries,
+                                                     long maxAge,
+                                                     TimeUnit timeUnit) {
+      InheritedPermissionCache.enable(persisterStore, maxEntries, timeUnit.toNanos(maxAge));
+   }
+
+   public static void disableInheritedPermissionCache(DataSource dataSource) {
+      InheritedPermissionCache.disable(dataSource);
+   }
+
+   public static void disableInheritedPermissionCache(PersisterStore persisterStore) {
+      InheritedPermissionCache.disable(persisterStore);
+   }
+
+   public static void enableGrantSummary(DataSource dataSource, long maxAge, TimeUnit timeUnit) {
+      GrantSummary.enable(dataSource, timeUnit.toNanos(maxAge));
+   }
+
+   public static void enableGrantSummary(PersisterStore persisterStore, long maxAge, TimeUnit timeUnit) {
+      GrantSummary.enable(persisterStore, timeUnit.toNanos(maxAge));
+   }
+
+   public static void disableGrantSummary(DataSource dataSource) {
+      GrantSummary.disable(dataSource);
+   }
+
+   public static void disableGrantSummary(PersisterStore persisterStore) {
+      GrantSummary.disable(persisterStore);
+   }
+
+   public static long getDeduplicatedLoadCount(DataSource dataSource) {
+      return __getDeduplicatedLoadCount(dataSource);
+   }
+
+   public static long getDeduplicatedLoadCount(PersisterStore persisterStore) {
+      return __getDeduplicatedLoadCount(persisterStore);
+   }
+
    public static void preSerialize(AccessControlContext accessControlContext) {
       if (accessControlContext instanceof SQLAccessControlContext) {
          SQLAccessControlContext sqlAccessControlContext = (SQLAccessControlContext) accessControlContext;
@@ -213,6 +339,254 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   public static void enableParallelQueries(DataSource dataSource, int maxBorrowedConnections) {
+      ParallelQueries.enable(dataSource, maxBorrowedConnections, AsyncSQLAccessControlContext.getDefaultExecutor());
+   }
+
+   public static void enableParallelQueries(DataSource dataSource, int maxBorrowedConnections, Executor executor) {
+      ParallelQueries.enable(dataSource, maxBorrowedConnections, executor);
+   }
+
+   public static void disableParallelQueries(DataSource dataSource) {
+      ParallelQueries.disable(dataSource);
+   }
+
+   public static void enableCheckCoalescing(DataSource dataSource, int maxBatchSize, long maxWait, TimeUnit timeUnit) {
+      CheckCoalescer.enable(dataSource, maxBatchSize, timeUnit.toNanos(maxWait));
+   }
+
+   public static void enableCheckCoalescing(PersisterStore persisterStore,
+                                            int maxBatchSize,
+                                            long maxWait,
+                                            TimeUnit timeUnit) {
+      CheckCoalescer.enable(persisterStore, maxBatchSize, timeUnit.toNanos(maxWait));
+   }
+
+   public static void disableCheckCoalescing(DataSource dataSource) {
+      CheckCoalescer.disable(dataSource);
+   }
+
+   public static void disableCheckCoalescing(PersisterStore persisterStore) {
+      CheckCoalescer.disable(persisterStore);
+   }
+
+   public static void enableTokenAuthentication(DataSource dataSource, byte[] secretKey, long maxAge, TimeUnit timeUnit) {
+      SessionTokens.enable(dataSource, secretKey, timeUnit.toMillis(maxAge));
+   }
+
+   public static void enableTokenAuthentication(Connection connection, byte[] secretKey, long maxAge, TimeUnit timeUnit) {
+      SessionTokens.enable(connection, secretKey, timeUnit.toMillis(maxAge));
+   }
+
+   public static void enableTokenAuthentication(PersisterStore persisterStore,
+                                                byte[] secretKey,
+                                                long maxAge,
+                                                TimeUnit timeUnit) {
+      SessionTokens.enable(persisterStore, secretKey, timeUnit.toMillis(maxAge));
+   }
+
+   public static void disableTokenAuthentication(DataSource dataSource) {
+      SessionTokens.disable(dataSource);
+   }
+
+   public static void disableTokenAuthentication(Connection connection) {
+      SessionTokens.disable(connection);
+   }
+
+   public static void disableTokenAuthentication(PersisterStore persisterStore) {
+      SessionTokens.disable(persisterStore);
+   }
+
+   public static void enablePasswordHashingLimit(DataSource dataSource, int maxConcurrentHashes, int maxQueuedHashes) {
+      PasswordHashingExecutor.enable(dataSource, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void enablePasswordHashingLimit(Connection connection, int maxConcurrentHashes, int maxQueuedHashes) {
+      PasswordHashingExecutor.enable(connection, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void enablePasswordHashingLimit(PersisterStore persisterStore,
+                                                 int maxConcurrentHashes,
+                                                 int maxQueuedHashes) {
+      PasswordHashingExecutor.enable(persisterStore, maxConcurrentHashes, maxQueuedHashes);
+   }
+
+   public static void disablePasswordHashingLimit(DataSource dataSource) {
+      PasswordHashingExecutor.disable(dataSource);
+   }
+
+   public static void disablePasswordHashingLimit(Connection connection) {
+      PasswordHashingExecutor.disable(connection);
+   }
+
+   public static void disablePasswordHashingLimit(PersisterStore persisterStore) {
+      PasswordHashingExecutor.disable(persisterStore);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(DataSource dataSource, int iterations) {
+      PBKDF2CleanablePasswordEncryptor.enable(dataSource, iterations);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(Connection connection, int iterations) {
+      PBKDF2CleanablePasswordEncryptor.enable(connection, iterations);
+   }
+
+   public static void enablePBKDF2PasswordEncryptor(PersisterStore persisterStore, int iterations) {
+      PBKDF2CleanablePasswordEncryptor.enable(persisterStore, iterations);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(DataSource dataSource) {
+      PBKDF2CleanablePasswordEncryptor.disable(dataSource);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(Connection connection) {
+      PBKDF2CleanablePasswordEncryptor.disable(connection);
+   }
+
+   public static void disablePBKDF2PasswordEncryptor(PersisterStore persisterStore) {
+      PBKDF2CleanablePasswordEncryptor.disable(persisterStore);
+   }
+
+   public static TokenCredentials getTokenCredentials(AccessControlContext accessControlContext) {
+      if (accessControlContext == null) {
+         throw new NullPointerException("Access control context required, none specified");
+      }
+      if (!(accessControlContext instanceof SQLAccessControlContext)) {
+         throw new IllegalArgumentException("Access control context of an unsupported type: "
+                                                  + accessControlContext.getClass().getName());
+      }
+
+      final SQLAccessControlContext sqlAccessControlContext = (SQLAccessControlContext) accessControlContext;
+      sqlAccessControlContext.__assertAuthenticated();
+      return sqlAccessControlContext.tokenCredentials;
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext) {
+      return getAsyncAccessControlContext(accessControlContext, accessControlContext);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext,
+                                                                        Executor executor) {
+      return getAsyncAccessControlContext(accessControlContext, accessControlContext, executor);
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext owningAccessControlContext,
+                                                                        AccessControlContext accessControlContext) {
+      return getAsyncAccessControlContext(owningAccessControlContext,
+                                          accessControlContext,
+                                          AsyncSQLAccessControlContext.getDefaultExecutor());
+   }
+
+   public static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext owningAccessControlContext,
+                                                                        AccessControlContext accessControlContext,
+                                                                        Executor executor) {
+      if (owningAccessControlContext == null || accessControlContext == null) {
+         throw new NullPointerException("Access control context required, none specified");
+      }
+      if (executor == null) {
+         throw new NullPointerException("Executor required, none specified");
+      }
+      if (!(accessControlContext instanceof SQLAccessControlContext)) {
+         throw new IllegalArgumentException("Access control context of an unsupported type: "
+                                                  + accessControlContext.getClass().getName());
+      }
+
+      final SQLAccessControlContext sqlAccessControlContext = (SQLAccessControlContext) accessControlContext;
+      return new AsyncSQLAccessControlContext(owningAccessControlContext,
+                                              sqlAccessControlContext,
+                                              executor,
+                                              sqlAccessControlContext.__getAsyncTaskLimiter());
+   }
+
+   public static void enableChangeLog(DataSource dataSource) {
+      ChangeLogWriter.enable(dataSource);
+   }
+
+   public static void enableChangeLog(Connection connection) {
+      ChangeLogWriter.enable(connection);
+   }
+
+   public static void enableChangeLog(PersisterStore persisterStore) {
+      ChangeLogWriter.enable(persisterStore);
+   }
+
+   public static void disableChangeLog(DataSource dataSource) {
+      ChangeLogWriter.disable(dataSource);
+   }
+
+   public static void disableChangeLog(Connection connection) {
+      ChangeLogWriter.disable(connection);
+   }
+
+   public static void disableChangeLog(PersisterStore persisterStore) {
+      ChangeLogWriter.disable(persisterStore);
+   }
+
+   public static void pruneChangeLog(DataSource dataSource,
+                                     String schemaName,
+                                     SQLProfile sqlProfile,
+                                     int maxRetainedEntries) {
+      if (dataSource == null) {
+         throw new NullPointerException("Data source required, none specified");
+      }
+      try (Connection connection = dataSource.getConnection()) {
+         pruneChangeLog(connection, schemaName, sqlProfile, maxRetainedEntries);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   public static void pruneChangeLog(Connection connection,
+                                     String schemaName,
+                                     SQLProfile sqlProfile,
+                                     int maxRetainedEntries) {
+      if (connection == null) {
+         throw new NullPointerException("Connection required, none specified");
+      }
+      if (maxRetainedEntries < 0) {
+         throw new IllegalArgumentException("Number of retained change log entries must not be negative: "
+                                                  + maxRetainedEntries);
+      }
+      SQLPersisterProvider.getInstance(schemaName, sqlProfile)
+            .getChangeLogPersister()
+            .pruneChangeLog(new SQLConnection(connection), maxRetainedEntries);
+   }
+
+   public static void setAsyncConcurrencyLimit(DataSource dataSource, int maxConcurrentOperations) {
+      AsyncTaskLimiter.setMaxConcurrentTasks(dataSource, maxConcurrentOperations);
+   }
+
+   public static void setAsyncConcurrencyLimit(PersisterStore persisterStore, int maxConcurrentOperations) {
+      AsyncTaskLimiter.setMaxConcurrentTasks(persisterStore, maxConcurrentOperations);
+   }
+
+   // the settings above are kept per store, which is identified by the data source, connection or persister store
+   private static void __addPermissionChangeListener(Object storeKey,
+                                                     PermissionChangeListener permissionChangeListener) {
+      PermissionChangeDispatcher.getInstance(storeKey).addListener(permissionChangeListener);
+   }
+
+   private static void __removePermissionChangeListener(Object storeKey,
+                                                        PermissionChangeListener permissionChangeListener) {
+      PermissionChangeDispatcher.getInstance(storeKey).removeListener(permissionChangeListener);
+   }
+
+   private static void __setSessionMemoMaxAge(Object storeKey, long maxAge, TimeUnit timeUnit) {
+      if (maxAge < 0) {
+         throw new IllegalArgumentException("Session memo max age must not be negative: " + maxAge);
+      }
+      SessionMemo.setMaxAge(storeKey, timeUnit.toNanos(maxAge));
+   }
+
+   private static long __getDeduplicatedLoadCount(Object storeKey) {
+      final InheritedPermissionCache inheritedPermissionCache = InheritedPermissionCache.getInstance(storeKey);
+      final GrantSummary grantSummary = GrantSummary.getInstance(storeKey);
+
+      return (inheritedPermissionCache == null ? 0 : inheritedPermissionCache.getDeduplicatedLoadCount())
+            + (grantSummary == null ? 0 : grantSummary.getDeduplicatedLoadCount());
+   }
+
    private SQLAccessControlContext(Connection connection,
                                    String schemaName,
                                    SQLProfile sqlProfile) {
@@ -255,69 +629,55 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       this.hasDefaultAuthenticationProvider = false;
    }
 
+   private SQLAccessControlContext(PersisterProvider persisterProvider,
+                                   AuthenticationProvider authenticationProvider) {
+      this(persisterProvider);
+      this.isConnectionRequired = false;
+      this.authenticationProvider = authenticationProvider;
+      this.hasDefaultAuthenticationProvider = false;
+   }
+
    private SQLAccessControlContext(String schemaName,
                                    SQLProfile sqlProfile) {
-      // generate all the SQLs the persisters need based on the database dialect
-      SQLStrings sqlStrings = SQLStrings.getSQLStrings(schemaName, sqlProfile);
+      this(SQLPersisterProvider.getInstance(schemaName, sqlProfile));
+      this.schemaName = schemaName;
+      this.sqlProfile = sqlProfile;
+   }
+
+   private SQLAccessControlContext(PersisterProvider persisterProvider) {
+      isConnectionRequired = true;
 
       // setup persisters
       resourceClassPersister
-            = new ResourceClassPersister(sqlProfile, sqlStrings);
+            = persisterProvider.getResourceClassPersister();
       resourceClassPermissionPersister
-            = new ResourceClassPermissionPersister(sqlProfile, sqlStrings);
-
-      if (sqlProfile.isRecursiveCTEEnabled()) {
-         grantDomainCreatePermissionSysPersister
-               = new RecursiveGrantDomainCreatePermissionSysPersister(sqlProfile, sqlStrings);
-         grantDomainCreatePermissionPostCreateSysPersister
-               = new RecursiveGrantDomainCreatePermissionPostCreateSysPersister(sqlProfile, sqlStrings);
-         grantDomainPermissionSysPersister
-               = new RecursiveGrantDomainPermissionSysPersister(sqlProfile, sqlStrings);
-         domainPersister
-               = new RecursiveDomainPersister(sqlProfile, sqlStrings);
-         resourcePersister
-               = new RecursiveResourcePersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionSysPersister
-               = new RecursiveGrantResourceCreatePermissionSysPersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionPostCreateSysPersister
-               = new RecursiveGrantResourceCreatePermissionPostCreateSysPersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionPostCreatePersister
-               = new RecursiveGrantResourceCreatePermissionPostCreatePersister(sqlProfile, sqlStrings);
-         grantResourcePermissionSysPersister
-               = new RecursiveGrantResourcePermissionSysPersister(sqlProfile, sqlStrings);
-         grantGlobalResourcePermissionSysPersister
-               = new RecursiveGrantGlobalResourcePermissionSysPersister(sqlProfile, sqlStrings);
-         grantResourcePermissionPersister
-               = new RecursiveGrantResourcePermissionPersister(sqlProfile, sqlStrings);
-         grantGlobalResourcePermissionPersister
-               = new RecursiveGrantGlobalResourcePermissionPersister(sqlProfile, sqlStrings);
-      }
-      else {
-         grantDomainCreatePermissionSysPersister
-               = new NonRecursiveGrantDomainCreatePermissionSysPersister(sqlProfile, sqlStrings);
-         grantDomainCreatePermissionPostCreateSysPersister
-               = new NonRecursiveGrantDomainCreatePermissionPostCreateSysPersister(sqlProfile, sqlStrings);
-         grantDomainPermissionSysPersister
-               = new NonRecursiveGrantDomainPermissionSysPersister(sqlProfile, sqlStrings);
-         domainPersister
-               = new NonRecursiveDomainPersister(sqlProfile, sqlStrings);
-         resourcePersister
-               = new NonRecursiveResourcePersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionSysPersister
-               = new NonRecursiveGrantResourceCreatePermissionSysPersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionPostCreateSysPersister
-               = new NonRecursiveGrantResourceCreatePermissionPostCreateSysPersister(sqlProfile, sqlStrings);
-         grantResourceCreatePermissionPostCreatePersister
-               = new NonRecursiveGrantResourceCreatePermissionPostCreatePersister(sqlProfile, sqlStrings);
-         grantResourcePermissionSysPersister
-               = new NonRecursiveGrantResourcePermissionSysPersister(sqlProfile, sqlStrings);
-         grantGlobalResourcePermissionSysPersister
-               = new NonRecursiveGrantGlobalResourcePermissionSysPersister(sqlProfile, sqlStrings);
-         grantResourcePermissionPersister
-               = new NonRecursiveGrantResourcePermissionPersister(sqlProfile, sqlStrings);
-         grantGlobalResourcePermissionPersister
-               = new NonRecursiveGrantGlobalResourcePermissionPersister(sqlProfile, sqlStrings);
-      }
+            = persisterProvider.getResourceClassPermissionPersister();
+      domainPersister
+            = persisterProvider.getDomainPersister();
+      grantDomainCreatePermissionSysPersister
+            = persisterProvider.getGrantDomainCreatePermissionSysPersister();
+      grantDomainCreatePermissionPostCreateSysPersister
+            = persisterProvider.getGrantDomainCreatePermissionPostCreateSysPersister();
+      grantDomainPermissionSysPersister
+            = persisterProvider.getGrantDomainPermissionSysPersister();
+      resourcePersister
+            = persisterProvider.getResourcePersister();
+      grantResourceCreatePermissionSysPersister
+            = persisterProvider.getGrantResourceCreatePermissionSysPersister();
+      grantResourceCreatePermissionPostCreateSysPersister
+            = persisterProvider.getGrantResourceCreatePermissionPostCreateSysPersister();
+      grantResourceCreatePermissionPostCreatePersister
+            = persisterProvider.getGrantResourceCreatePermissionPostCreatePersister();
+      grantResourcePermissionSysPersister
+            = persisterProvider.getGrantResourcePermissionSysPersister();
+      grantGlobalResourcePermissionSysPersister
+            = persisterProvider.getGrantGlobalResourcePermissionSysPersister();
+      grantResourcePermissionPersister
+            = persisterProvider.getGrantResourcePermissionPersister();
+      grantGlobalResourcePermissionPersister
+            = persisterProvider.getGrantGlobalResourcePermissionPersister();
+      changeLogPersister
+            = persisterProvider.getChangeLogPersister();
    }
 
    private void __preSerialize() {
@@ -331,6 +691,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private void __postDeserialize(DataSource dataSource) {
       this.dataSource = dataSource;
       this.connection = null;
+      this.resourcePermissionLayouts = null;
+      this.storeFeatures = null;
       if (hasDefaultAuthenticationProvider) {
          ((SQLPasswordAuthenticationProvider) authenticationProvider).postDeserialize(dataSource);
       }
@@ -339,11 +701,138 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private void __postDeserialize(Connection connection) {
       this.dataSource = null;
       this.connection = connection;
+      this.resourcePermissionLayouts = null;
+      this.storeFeatures = null;
       if (hasDefaultAuthenticationProvider) {
          ((SQLPasswordAuthenticationProvider) authenticationProvider).postDeserialize(connection);
       }
    }
 
+   // a context backed by the SQL persisters is written in a compact form that leaves out the persisters and their SQL
+   private Object writeReplace() throws ObjectStreamException {
+      if (sqlProfile == null) {
+         return this;
+      }
+      if (dataSource != null || connection != null) {
+         throw new NotSerializableException("Cannot serialize a context with a data source or connection,"
+                                                  + " perhaps missing call to preSerialize()?");
+      }
+      return new SerializedForm(this);
+   }
+
+   private static class SerializedForm implements Serializable {
+      // fixed, so that contexts serialized by one build can be deserialized by another
+      private static final long serialVersionUID = 1L;
+
+      private final String                 schemaName;
+      private final String                 sqlProfileName;
+      // null when the context uses the built-in authentication provider, which is rebuilt instead
+      private final AuthenticationProvider customAuthenticationProvider;
+      private final Long                   authenticatedResourceId;
+      private final String                 authenticatedResourceExternalId;
+      private final String                 authenticatedResourceDomainName;
+      private final Long                   sessionResourceId;
+      private final String                 sessionResourceExternalId;
+      private final String                 sessionResourceDomainName;
+
+      private SerializedForm(SQLAccessControlContext context) {
+         schemaName = context.schemaName;
+         sqlProfileName = SQLProfile.nameOf(context.sqlProfile);
+         customAuthenticationProvider
+               = context.hasDefaultAuthenticationProvider ? null : context.authenticationProvider;
+         authenticatedResourceId = context.authenticatedResource == null ? null : context.authenticatedResource.getId();
+         authenticatedResourceExternalId
+               = context.authenticatedResource == null ? null : context.authenticatedResource.getExternalId();
+         authenticatedResourceDomainName = context.authenticatedResourceDomainName;
+         sessionResourceId = context.sessionResource == null ? null : context.sessionResource.getId();
+         sessionResourceExternalId = context.sessionResource == null ? null : context.sessionResource.getExternalId();
+         sessionResourceDomainName = context.sessionResourceDomainName;
+      }
+
+      // the persisters are rebound from those shared by the schema and profile, while the data source or connection
+      // is still only supplied by a call to postDeserialize()
+      private Object readResolve() throws ObjectStreamException {
+         final SQLProfile sqlProfile = SQLProfile.valueOf(sqlProfileName);
+         if (sqlProfile == null) {
+            throw new InvalidObjectException("Unknown SQL profile: " + sqlProfileName);
+         }
+
+         final SQLAccessControlContext context = new SQLAccessControlContext(schemaName, sqlProfile);
+         if (customAuthenticationProvider == null) {
+            context.authenticationProvider
+                  = new SQLPasswordAuthenticationProvider(schemaName, sqlProfile.getSqlDialect());
+            context.hasDefaultAuthenticationProvider = true;
+         }
+         else {
+            context.authenticationProvider = customAuthenticationProvider;
+            context.hasDefaultAuthenticationProvider = false;
+         }
+         context.authenticatedResource = authenticatedResourceId == null
+                                         ? null
+                                         : Resources.getInstance(authenticatedResourceId,
+                                                                 authenticatedResourceExternalId);
+         context.authenticatedResourceDomainName = authenticatedResourceDomainName;
+         context.sessionResource = sessionResourceId == null
+                                   ? null
+                                   : Resources.getInstance(sessionResourceId, sessionResourceExternalId);
+         context.sessionResourceDomainName = sessionResourceDomainName;
+         return context;
+      }
+   }
+
+   // a copy of the given context in its current session, which is then independent of later changes to that session
+   private SQLAccessControlContext(SQLAccessControlContext sessionContext) {
+      dataSource = sessionContext.dataSource;
+      connection = sessionContext.connection;
+      isConnectionRequired = sessionContext.isConnectionRequired;
+      storeKey = sessionContext.storeKey;
+      resourcePermissionLayouts = sessionContext.resourcePermissionLayouts;
+      storeFeatures = sessionContext.storeFeatures;
+      schemaName = sessionContext.schemaName;
+      sqlProfile = sessionContext.sqlProfile;
+      authenticationProvider = sessionContext.authenticationProvider;
+      hasDefaultAuthenticationProvider = sessionContext.hasDefaultAuthenticationProvider;
+      authenticatedResource = sessionContext.authenticatedResource;
+      authenticatedResourceDomainName = sessionContext.authenticatedResourceDomainName;
+      sessionResource = sessionContext.sessionResource;
+      sessionResourceDomainName = sessionContext.sessionResourceDomainName;
+      tokenCredentials = sessionContext.tokenCredentials;
+
+      resourceClassPersister = sessionContext.resourceClassPersister;
+      resourceClassPermissionPersister = sessionContext.resourceClassPermissionPersister;
+      domainPersister = sessionContext.domainPersister;
+      grantDomainCreatePermissionSysPersister = sessionContext.grantDomainCreatePermissionSysPersister;
+      grantDomainCreatePermissionPostCreateSysPersister
+            = sessionContext.grantDomainCreatePermissionPostCreateSysPersister;
+      grantDomainPermissionSysPersister = sessionContext.grantDomainPermissionSysPersister;
+      resourcePersister = sessionContext.resourcePersister;
+      grantResourceCreatePermissionSysPersister = sessionContext.grantResourceCreatePermissionSysPersister;
+      grantResourceCreatePermissionPostCreateSysPersister
+            = sessionContext.grantResourceCreatePermissionPostCreateSysPersister;
+      grantResourceCreatePermissionPostCreatePersister
+            = sessionContext.grantResourceCreatePermissionPostCreatePersister;
+      grantResourcePermissionSysPersister = sessionContext.grantResourcePermissionSysPersister;
+      grantGlobalResourcePermissionSysPersister = sessionContext.grantGlobalResourcePermissionSysPersister;
+      grantResourcePermissionPersister = sessionContext.grantResourcePermissionPersister;
+      grantGlobalResourcePermissionPersister = sessionContext.grantGlobalResourcePermissionPersister;
+      changeLogPersister = sessionContext.changeLogPersister;
+   }
+
+   SQLAccessControlContext copySession() {
+      return new SQLAccessControlContext(this);
+   }
+
+   private AsyncTaskLimiter __getAsyncTaskLimiter() {
+      if (dataSource != null) {
+         return AsyncTaskLimiter.getInstance(dataSource, AsyncTaskLimiter.DEFAULT_MAX_CONCURRENT_TASKS);
+      }
+      if (connection != null) {
+         // a connection cannot be used by more than one operation at a time
+         return AsyncTaskLimiter.getInstance(connection, 1);
+      }
+      return AsyncTaskLimiter.getInstance(storeKey, AsyncTaskLimiter.DEFAULT_MAX_CONCURRENT_TASKS);
+   }
+
    @Override
    public void authenticate(Resource resource, Credentials credentials) {
       __assertResourceSpecified(resource);
@@ -401,17 +890,38 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          authenticationProvider.authenticate(resource);
       }
 
+      // only a password check earns a session token, so that a token cannot be used to renew itself
+      tokenCredentials = null;
+      if (credentials instanceof PasswordCredentials && authenticationProvider instanceof TokenCredentialsIssuer) {
+         tokenCredentials = ((TokenCredentialsIssuer) authenticationProvider).issueTokenCredentials(resource);
+      }
+
       authenticatedResource = resource;
       authenticatedResourceDomainName = resourceDomainForResource;
 
       sessionResource = authenticatedResource;
       sessionResourceDomainName = authenticatedResourceDomainName;
+
+      // prefetch the permissions of the new session resource, if they are memoized
+      sessionMemo = null;
+      final long sessionMemoMaxAgeNanos = __getStoreFeatures().sessionMemoMaxAgeNanos;
+      if (sessionMemoMaxAgeNanos > 0) {
+         try {
+            connection = __getConnection();
+            sessionMemo = __newSessionMemo(connection, sessionMemoMaxAgeNanos);
+         }
+         finally {
+            __closeConnection(connection);
+         }
+      }
    }
 
    @Override
    public void unauthenticate() {
       sessionResource = authenticatedResource = null;
       sessionResourceDomainName = authenticatedResourceDomainName = null;
+      sessionMemo = null;
+      tokenCredentials = null;
    }
 
    @Override
@@ -430,6 +940,10 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          // switch the session credentials to the new resource
          sessionResource = resource;
          sessionResourceDomainName = domainPersister.getResourceDomainNameByResourceId(connection, resource);
+
+         // prefetch the permissions of the impersonated resource, if they are memoized
+         final long sessionMemoMaxAgeNanos = __getStoreFeatures().sessionMemoMaxAgeNanos;
+         sessionMemo = sessionMemoMaxAgeNanos > 0 ? __newSessionMemo(connection, sessionMemoMaxAgeNanos) : null;
       }
       finally {
          __closeConnection(connection);
@@ -450,11 +964,10 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       boolean impersonatePermissionOK = false;
 
       // first check direct permissions
-      final Set<ResourcePermission>
-            resourcePermissions = __getEffectiveResourcePermissions(connection, authenticatedResource, resource);
+      final PermissionMask resourcePermissionMask
+            = __getEffectiveResourcePermissionMask(connection, authenticatedResource, resource);
 
-      if (resourcePermissions.contains(ResourcePermission_IMPERSONATE)
-            || resourcePermissions.contains(ResourcePermission_IMPERSONATE_GRANT)) {
+      if (resourcePermissionMask.isPermissible(ResourcePermission_IMPERSONATE)) {
          impersonatePermissionOK = true;
       }
 
@@ -462,14 +975,13 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          // next check global direct permissions
          final String
                domainName = domainPersister.getResourceDomainNameByResourceId(connection, resource);
-         final Set<ResourcePermission>
-               globalResourcePermissions = __getEffectiveGlobalResourcePermissions(connection,
-                                                                                   authenticatedResource,
-                                                                                   resourceClassInternalInfo.getResourceClassName(),
-                                                                                   domainName);
+         final PermissionMask
+               globalResourcePermissionMask = __getEffectiveGlobalResourcePermissionMask(connection,
+                                                                                         authenticatedResource,
+                                                                                         resourceClassInternalInfo.getResourceClassName(),
+                                                                                         domainName);
 
-         if (globalResourcePermissions.contains(ResourcePermission_IMPERSONATE)
-               || globalResourcePermissions.contains(ResourcePermission_IMPERSONATE_GRANT)) {
+         if (globalResourcePermissionMask.isPermissible(ResourcePermission_IMPERSONATE)) {
             impersonatePermissionOK = true;
          }
       }
@@ -490,6 +1002,7 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    public void unimpersonate() {
       sessionResource = authenticatedResource;
       sessionResourceDomainName = authenticatedResourceDomainName;
+      sessionMemo = null;
    }
 
    @Override
@@ -540,6 +1053,79 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       authenticationProvider.setCredentials(resource, newCredentials);
    }
 
+   @Override
+   public void setCredentials(Map<Resource, Credentials> newCredentialsByResource) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertCredentialsByResourceSpecified(newCredentialsByResource);
+      __assertCredentialsByResourceNotEmpty(newCredentialsByResource);
+
+      if (!authenticatedResource.equals(sessionResource)) {
+         throw new IllegalStateException("Calling setCredentials while impersonating another resource is not valid");
+      }
+
+      // resolve the resources and check for authorization on all of them before any credentials are changed
+      final Map<Resource, Credentials> resolvedCredentialsByResource = new HashMap<>(newCredentialsByResource.size());
+      final Map<Resource, ResourceClassInternalInfo> resourceClassInfos = new HashMap<>(newCredentialsByResource.size());
+      final Map<Resource, String> domainNames = new HashMap<>(newCredentialsByResource.size());
+      try {
+         connection = __getConnection();
+
+         for (Map.Entry<Resource, Credentials> credentialsEntry : newCredentialsByResource.entrySet()) {
+            final Resource resource = __resolveResource(connection, credentialsEntry.getKey());
+            final ResourceClassInternalInfo resourceClassInfo
+                  = resourceClassPersister.getResourceClassInfoByResourceId(connection, resource);
+
+            if (!resourceClassInfo.isAuthenticatable()) {
+               throw new IllegalArgumentException("Calling setCredentials for an unauthenticatable resource is not valid");
+            }
+
+            if (resolvedCredentialsByResource.containsKey(resource)) {
+               throw new IllegalArgumentException("Map of credentials contains more than one entry for resource "
+                                                        + resource);
+            }
+
+            final String domainName;
+            if (authenticatedResource.equals(resource)) {
+               domainName = authenticatedResourceDomainName;
+               // skip permission checks if the authenticated resource is trying to set its own credentials
+            }
+            else {
+               domainName = domainPersister.getResourceDomainNameByResourceId(connection, resource);
+               __assertResetCredentialsResourcePermission(connection,
+                                                          resource,
+                                                          resourceClassInfo.getResourceClassName(),
+                                                          domainName);
+            }
+
+            resolvedCredentialsByResource.put(resource, credentialsEntry.getValue());
+            resourceClassInfos.put(resource, resourceClassInfo);
+            domainNames.put(resource, domainName);
+         }
+      }
+      finally {
+         __closeConnection(connection);
+      }
+
+      for (Map.Entry<Resource, Credentials> credentialsEntry : resolvedCredentialsByResource.entrySet()) {
+         final Resource resource = credentialsEntry.getKey();
+         authenticationProvider.validateCredentials(resourceClassInfos.get(resource).getResourceClassName(),
+                                                    domainNames.get(resource),
+                                                    credentialsEntry.getValue());
+      }
+
+      if (authenticationProvider instanceof BulkCredentialsSetter) {
+         ((BulkCredentialsSetter) authenticationProvider).setCredentials(resolvedCredentialsByResource);
+      }
+      else {
+         // a custom authentication provider only knows how to set the credentials of one resource at a time
+         for (Map.Entry<Resource, Credentials> credentialsEntry : resolvedCredentialsByResource.entrySet()) {
+            authenticationProvider.setCredentials(credentialsEntry.getKey(), credentialsEntry.getValue());
+         }
+      }
+   }
+
    private void __assertResetCredentialsResourcePermission(SQLConnection connection,
                                                            Resource resource,
                                                            String resourceClassName,
@@ -547,24 +1133,22 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // first check direct permissions
       boolean hasResetCredentialsPermission = false;
 
-      final Set<ResourcePermission>
-            resourcePermissions = __getEffectiveResourcePermissions(connection, authenticatedResource, resource);
+      final PermissionMask resourcePermissionMask
+            = __getEffectiveResourcePermissionMask(connection, authenticatedResource, resource);
 
-      if (resourcePermissions.contains(ResourcePermission_RESET_CREDENTIALS)
-            || resourcePermissions.contains(ResourcePermission_RESET_CREDENTIALS_GRANT)) {
+      if (resourcePermissionMask.isPermissible(ResourcePermission_RESET_CREDENTIALS)) {
          hasResetCredentialsPermission = true;
       }
 
       if (!hasResetCredentialsPermission) {
          // next check global direct permissions
-         final Set<ResourcePermission>
-               globalResourcePermissions = __getEffectiveGlobalResourcePermissions(connection,
-                                                                                   authenticatedResource,
-                                                                                   resourceClassName,
-                                                                                   domainName);
+         final PermissionMask
+               globalResourcePermissionMask = __getEffectiveGlobalResourcePermissionMask(connection,
+                                                                                         authenticatedResource,
+                                                                                         resourceClassName,
+                                                                                         domainName);
 
-         if (globalResourcePermissions.contains(ResourcePermission_RESET_CREDENTIALS)
-               || globalResourcePermissions.contains(ResourcePermission_RESET_CREDENTIALS_GRANT)) {
+         if (globalResourcePermissionMask.isPermissible(ResourcePermission_RESET_CREDENTIALS)) {
             hasResetCredentialsPermission = true;
          }
       }
@@ -607,6 +1191,13 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                  resourceClassName,
                                                  authenticatable,
                                                  unauthenticatedCreateAllowed);
+
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_CLASS,
+                             null,
+                             null,
+                             null,
+                             resourceClassPersister.getResourceClassId(connection, resourceClassName));
       }
       finally {
          __closeConnection(connection);
@@ -644,6 +1235,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          }
 
          resourceClassPermissionPersister.addResourceClassPermission(connection, resourceClassId, permissionName);
+
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.RESOURCE_CLASS, null, null, null, resourceClassId);
       }
       finally {
          __closeConnection(connection);
@@ -742,6 +1335,13 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          domainPersister.addResourceDomain(connection, domainName, parentDomainId);
       }
 
+      __addChangeLogEntry(connection,
+                          ChangeLogEntry.Kind.DOMAIN,
+                          null,
+                          null,
+                          domainPersister.getResourceDomainId(connection, domainName),
+                          null);
+
       if (newDomainPermissions.size() > 0) {
          // grant the currently authenticated resource the privileges to the new domain
          __setDirectDomainPermissions(connection,
@@ -805,6 +1405,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // remove the domain
       domainPersister.deleteDomain(connection, domainId);
 
+      __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN, null, null, domainId, null);
+
       return true;
    }
 
@@ -971,6 +1573,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                     domainId,
                                                                     externalId);
 
+      __addChangeLogEntry(connection,
+                          ChangeLogEntry.Kind.RESOURCE,
+                          null,
+                          newResource,
+                          domainId,
+                          Id.<ResourceClassId>from(resourceClassInternalInfo.getResourceClassId()));
+      __getPermissionChangeDispatcher().resourceCreated(newResource, resourceClassName, domainName);
+
       // set permissions on the new resource, if applicable
       if (newResourcePermissions != null && newResourcePermissions.size() > 0) {
          if (sessionResource != null) {
@@ -1064,7 +1674,12 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          throw NotAuthorizedException.newInstanceForAction(sessionResource, "set external id of resource " + resource);
       }
 
-      return resourcePersister.setExternalId(connection, Id.<ResourceId>from(resource.getId()), externalId);
+      final Resource updatedResource
+            = resourcePersister.setExternalId(connection, Id.<ResourceId>from(resource.getId()), externalId);
+
+      __addChangeLogEntry(connection, ChangeLogEntry.Kind.RESOURCE, null, resource, domainId, resourceClassId);
+
+      return updatedResource;
    }
 
    @Override
@@ -1139,6 +1754,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // remove the resource
       resourcePersister.deleteResource(connection, obsoleteResource);
 
+      __addChangeLogEntry(connection,
+                          ChangeLogEntry.Kind.RESOURCE,
+                          obsoleteResource,
+                          obsoleteResource,
+                          null,
+                          Id.<ResourceClassId>from(resourceClassInternalInfo.getResourceClassId()));
+      __getPermissionChangeDispatcher().resourceDeleted(obsoleteResource);
+
       // handle special case where deleted resource is the session or authenticated resource
       if (authenticatedResource.equals(obsoleteResource)) {
          unauthenticate();
@@ -1151,32 +1774,212 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    }
 
    @Override
-   public void setDomainPermissions(Resource accessorResource,
-                                    String domainName,
-                                    Set<DomainPermission> permissions) {
+   public boolean deleteResources(Set<Resource> obsoleteResources) {
       SQLConnection connection = null;
 
       __assertAuthenticated();
-      __assertResourceSpecified(accessorResource);
-      __assertDomainSpecified(domainName);
-      __assertPermissionsSpecified(permissions);
-
-      final Set<DomainPermission> normalizedDomainPermissions = __normalizeDomainPermissions(permissions);
+      __assertResourcesSpecified(obsoleteResources);
+      __assertResourcesSetNotEmpty(obsoleteResources);
 
       try {
          connection = __getConnection();
-         accessorResource = __resolveResource(connection, accessorResource);
 
-         __setDirectDomainPermissions(connection, accessorResource, domainName, normalizedDomainPermissions, false);
+         // as in deleteResource(), we deliberately don't resolve the resources before calling the handler
+         // method, because resources that do not resolve/exist are simply skipped
+         return __deleteResources(connection, obsoleteResources);
       }
       finally {
          __closeConnection(connection);
       }
    }
-   private void __setDirectDomainPermissions(SQLConnection connection,
-                                             Resource accessorResource,
-                                             String domainName,
-                                             Set<DomainPermission> requestedDomainPermissions,
+
+   private boolean __deleteResources(SQLConnection connection,
+                                     Set<Resource> obsoleteResources) {
+      final Set<Resource> candidateResources = new HashSet<>(obsoleteResources.size());
+
+      for (Resource obsoleteResource : obsoleteResources) {
+         if (obsoleteResource.getId() != null && obsoleteResource.getExternalId() == null) {
+            // the existence of resources specified only by id is verified by the bulk lookup below
+            candidateResources.add(obsoleteResource);
+         }
+         else {
+            try {
+               candidateResources.add(__resolveResource(connection, obsoleteResource));
+            }
+            catch (IllegalArgumentException e) {
+               // skip the specified resource if it does not exist/resolve
+               // NOTE that this will still throw an exception if a resource does not match its
+               // specified external id
+               if (!e.getMessage().toLowerCase().contains("not found")) {
+                  throw e;
+               }
+            }
+         }
+      }
+
+      if (candidateResources.isEmpty()) {
+         return false;
+      }
+
+      // look up the resource classes of all resources at once, which also filters out and resolves the resources
+      final Map<Resource, ResourceClassInternalInfo> resourceClassInternalInfos
+            = resourceClassPersister.getResourceClassInfosByResourceIds(connection, candidateResources);
+
+      if (resourceClassInternalInfos.isEmpty()) {
+         return false;
+      }
+
+      final Set<Resource> resolvedObsoleteResources = new HashSet<>(resourceClassInternalInfos.keySet());
+
+      // check for authorization of all resources before anything is deleted: the super-user check is
+      // made once per domain, the direct *DELETE permissions of the remaining resources are looked up with
+      // one query per chunk of resources, and the global *DELETE permission once per resource class and domain
+      final Map<Resource, Id<DomainId>> domainIds
+            = resourcePersister.getDomainIdsByResources(connection, resolvedObsoleteResources);
+      final Map<Id<DomainId>, Boolean> isSuperUserByDomainId = new HashMap<>();
+      final Set<Resource> nonSuperUserResources = new HashSet<>();
+
+      for (Map.Entry<Resource, Id<DomainId>> domainIdEntry : domainIds.entrySet()) {
+         Boolean isSuperUser = isSuperUserByDomainId.get(domainIdEntry.getValue());
+
+         if (isSuperUser == null) {
+            isSuperUser = __isSuperUserOfDomain(connection, sessionResource, domainIdEntry.getValue());
+            isSuperUserByDomainId.put(domainIdEntry.getValue(), isSuperUser);
+         }
+
+         if (!isSuperUser) {
+            nonSuperUserResources.add(domainIdEntry.getKey());
+         }
+      }
+
+      if (!nonSuperUserResources.isEmpty()) {
+         final Map<Resource, Set<ResourcePermission>> resourceSysPermissionsMap
+               = grantResourcePermissionSysPersister.getResourceSysPermissionsIncludeInherited(connection,
+                                                                                               sessionResource,
+                                                                                               nonSuperUserResources);
+         final Map<Id<ResourceClassId>, Map<Id<DomainId>, Boolean>> isGloballyDeletableMap = new HashMap<>();
+
+         for (Resource obsoleteResource : nonSuperUserResources) {
+            final Set<ResourcePermission> resourceSysPermissions = resourceSysPermissionsMap.get(obsoleteResource);
+            if (resourceSysPermissions != null
+                  && (resourceSysPermissions.contains(ResourcePermission_DELETE)
+                  || resourceSysPermissions.contains(ResourcePermission_DELETE_GRANT))) {
+               continue;
+            }
+
+            final Id<ResourceClassId> resourceClassId
+                  = Id.from(resourceClassInternalInfos.get(obsoleteResource).getResourceClassId());
+            final Id<DomainId> domainId = domainIds.get(obsoleteResource);
+
+            Map<Id<DomainId>, Boolean> isGloballyDeletableByDomainId = isGloballyDeletableMap.get(resourceClassId);
+            if (isGloballyDeletableByDomainId == null) {
+               isGloballyDeletableByDomainId = new HashMap<>();
+               isGloballyDeletableMap.put(resourceClassId, isGloballyDeletableByDomainId);
+            }
+
+            Boolean isGloballyDeletable = isGloballyDeletableByDomainId.get(domainId);
+            if (isGloballyDeletable == null) {
+               final Set<ResourcePermission> globalSysPermissions
+                     = grantGlobalResourcePermissionSysPersister.getGlobalSysPermissionsIncludeInherited(connection,
+                                                                                                        sessionResource,
+                                                                                                        resourceClassId,
+                                                                                                        domainId);
+               isGloballyDeletable = globalSysPermissions.contains(ResourcePermission_DELETE)
+                     || globalSysPermissions.contains(ResourcePermission_DELETE_GRANT);
+               isGloballyDeletableByDomainId.put(domainId, isGloballyDeletable);
+            }
+
+            if (!isGloballyDeletable) {
+               throw NotAuthorizedException.newInstanceForActionOnResource(sessionResource, "delete", obsoleteResource);
+            }
+         }
+      }
+
+      // remove the resources' credentials, if necessary
+      final Set<Resource> authenticatableResources = new HashSet<>();
+      for (Map.Entry<Resource, ResourceClassInternalInfo> resourceClassEntry : resourceClassInternalInfos.entrySet()) {
+         if (resourceClassEntry.getValue().isAuthenticatable()) {
+            authenticatableResources.add(resourceClassEntry.getKey());
+         }
+      }
+
+      if (!authenticatableResources.isEmpty()) {
+         if (authenticationProvider instanceof BulkCredentialsDeleter) {
+            ((BulkCredentialsDeleter) authenticationProvider).deleteCredentials(authenticatableResources);
+         }
+         else {
+            // a custom authentication provider only knows how to delete the credentials of one resource at a time
+            for (Resource authenticatableResource : authenticatableResources) {
+               authenticationProvider.deleteCredentials(authenticatableResource);
+            }
+         }
+      }
+
+      // remove any permissions the obsolete resources have as accessor resources
+      grantDomainCreatePermissionPostCreateSysPersister.removeDomainCreatePostCreateSysPermissions(connection, resolvedObsoleteResources);
+      grantDomainCreatePermissionSysPersister.removeDomainCreateSysPermissions(connection, resolvedObsoleteResources);
+      grantDomainPermissionSysPersister.removeAllDomainSysPermissions(connection, resolvedObsoleteResources);
+      grantResourceCreatePermissionPostCreatePersister.removeAllResourceCreatePostCreatePermissions(connection, resolvedObsoleteResources);
+      grantResourceCreatePermissionPostCreateSysPersister.removeAllResourceCreatePostCreateSysPermissions(connection, resolvedObsoleteResources);
+      grantResourceCreatePermissionSysPersister.removeAllResourceCreateSysPermissions(connection, resolvedObsoleteResources);
+      grantGlobalResourcePermissionPersister.removeAllGlobalResourcePermissions(connection, resolvedObsoleteResources);
+      grantGlobalResourcePermissionSysPersister.removeAllGlobalSysPermissions(connection, resolvedObsoleteResources);
+
+      // remove any permissions the obsolete resources have as accessor resources OR as accessed resources
+      grantResourcePermissionPersister.removeAllResourcePermissionsAsAccessorOrAccessed(connection, resolvedObsoleteResources);
+      grantResourcePermissionSysPersister.removeAllResourceSysPermissionsAsAccessorOrAccessed(connection, resolvedObsoleteResources);
+
+      // remove the resources
+      resourcePersister.deleteResources(connection, resolvedObsoleteResources);
+
+      for (Map.Entry<Resource, ResourceClassInternalInfo> resourceClassEntry : resourceClassInternalInfos.entrySet()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE,
+                             resourceClassEntry.getKey(),
+                             resourceClassEntry.getKey(),
+                             domainIds.get(resourceClassEntry.getKey()),
+                             Id.<ResourceClassId>from(resourceClassEntry.getValue().getResourceClassId()));
+         __getPermissionChangeDispatcher().resourceDeleted(resourceClassEntry.getKey());
+      }
+
+      // handle special case where the deleted resources include the session or authenticated resource
+      if (resolvedObsoleteResources.contains(authenticatedResource)) {
+         unauthenticate();
+      }
+      else if (resolvedObsoleteResources.contains(sessionResource)) {
+         unimpersonate();
+      }
+
+      return true;
+   }
+
+   @Override
+   public void setDomainPermissions(Resource accessorResource,
+                                    String domainName,
+                                    Set<DomainPermission> permissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourceSpecified(accessorResource);
+      __assertDomainSpecified(domainName);
+      __assertPermissionsSpecified(permissions);
+
+      final Set<DomainPermission> normalizedDomainPermissions = __normalizeDomainPermissions(permissions);
+
+      try {
+         connection = __getConnection();
+         accessorResource = __resolveResource(connection, accessorResource);
+
+         __setDirectDomainPermissions(connection, accessorResource, domainName, normalizedDomainPermissions, false);
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+   private void __setDirectDomainPermissions(SQLConnection connection,
+                                             Resource accessorResource,
+                                             String domainName,
+                                             Set<DomainPermission> requestedDomainPermissions,
                                              boolean newDomainMode) {
       // determine the domain ID of the domain, for use in the grant below
       Id<DomainId> domainId = domainPersister.getResourceDomainId(connection, domainName);
@@ -1190,7 +1993,17 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          throw new IllegalArgumentException("Set of requested domain permissions may not be null");
       }
 
+      __assertUniqueDomainPermissionsNames(requestedDomainPermissions);
+
+      final Set<DomainPermission> addPermissions;
+      final Set<DomainPermission> updatePermissions;
+      final Set<DomainPermission> removePermissions;
+
       if (!newDomainMode) {
+         final Set<DomainPermission>
+               directAccessorPermissions
+               = __getDirectDomainPermissions(connection, accessorResource, domainId);
+
          // check if the grantor (=session resource) has permissions to grant the requested permissions
          final Set<DomainPermission>
                grantorPermissions
@@ -1202,10 +2015,6 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          if (!grantorPermissions.contains(DomainPermission_SUPER_USER)
                && !grantorPermissions.contains(DomainPermission_SUPER_USER_GRANT)) {
 
-            final Set<DomainPermission>
-                  directAccessorPermissions
-                  = __getDirectDomainPermissions(connection, accessorResource, domainId);
-
             final Set<DomainPermission>
                   requestedAddPermissions
                   = __subtract(requestedDomainPermissions, directAccessorPermissions);
@@ -1237,16 +2046,57 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
             }
          }
 
-         // revoke any existing permissions that accessor to has to this domain directly
-         grantDomainPermissionSysPersister.removeDomainSysPermissions(connection, accessorResource, domainId);
+         // only write the rows that actually change between the existing and the requested direct permissions
+         addPermissions = new HashSet<>(requestedDomainPermissions.size());
+         updatePermissions = new HashSet<>(requestedDomainPermissions.size());
+         removePermissions = new HashSet<>(directAccessorPermissions.size());
+         __diffDirectPermissions(__mapDomainPermissionsByGrantRow(requestedDomainPermissions),
+                                 __mapDomainPermissionsByGrantRow(directAccessorPermissions),
+                                 addPermissions,
+                                 updatePermissions,
+                                 removePermissions);
+      }
+      else {
+         // a newly created domain has no direct permissions yet
+         addPermissions = requestedDomainPermissions;
+         updatePermissions = Collections.emptySet();
+         removePermissions = Collections.emptySet();
       }
 
-      // add the new permissions
-      grantDomainPermissionSysPersister.addDomainSysPermissions(connection,
-                                                                accessorResource,
-                                                                sessionResource,
-                                                                domainId,
-                                                                requestedDomainPermissions);
+      if (!removePermissions.isEmpty()) {
+         // revoke the permissions to this domain that are no longer requested
+         grantDomainPermissionSysPersister.removeDomainSysPermissions(connection,
+                                                                      accessorResource,
+                                                                      domainId,
+                                                                      removePermissions);
+      }
+
+      if (!updatePermissions.isEmpty()) {
+         // update the permissions whose granting rights changed
+         grantDomainPermissionSysPersister.updateDomainSysPermissions(connection,
+                                                                      accessorResource,
+                                                                      sessionResource,
+                                                                      domainId,
+                                                                      updatePermissions);
+      }
+
+      if (!addPermissions.isEmpty()) {
+         // add the new permissions
+         grantDomainPermissionSysPersister.addDomainSysPermissions(connection,
+                                                                   accessorResource,
+                                                                   sessionResource,
+                                                                   domainId,
+                                                                   addPermissions);
+      }
+
+      if (!removePermissions.isEmpty() || !updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_PERMISSION, accessorResource, null, domainId, null);
+         __getPermissionChangeDispatcher().domainPermissionsChanged(accessorResource,
+                                                                    domainName,
+                                                                    addPermissions,
+                                                                    updatePermissions,
+                                                                    removePermissions);
+      }
    }
 
    private Set<DomainPermission> __getDirectDomainPermissions(SQLConnection connection,
@@ -1405,6 +2255,15 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                 sessionResource,
                                                                 domainId,
                                                                 addPermissions);
+
+      if (!updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_PERMISSION, accessorResource, null, domainId, null);
+         __getPermissionChangeDispatcher().domainPermissionsChanged(accessorResource,
+                                                                    domainName,
+                                                                    addPermissions,
+                                                                    updatePermissions,
+                                                                    Collections.<DomainPermission>emptySet());
+      }
    }
 
    private void __assertUniqueDomainPermissionsNames(Set<DomainPermission> domainPermissions) {
@@ -1531,6 +2390,15 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                    accessorResource,
                                                                    domainId,
                                                                    removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_PERMISSION, accessorResource, null, domainId, null);
+         __getPermissionChangeDispatcher().domainPermissionsChanged(accessorResource,
+                                                                    domainName,
+                                                                    Collections.<DomainPermission>emptySet(),
+                                                                    Collections.<DomainPermission>emptySet(),
+                                                                    removePermissions);
+      }
    }
 
    @Override
@@ -1605,46 +2473,62 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private Set<DomainPermission> __getEffectiveDomainPermissions(SQLConnection connection,
                                                                  Resource accessorResource,
                                                                  String domainName) {
+      return __getEffectiveDomainPermissionMask(connection, accessorResource, domainName).toDomainPermissions();
+   }
+
+   private Set<DomainPermission> __getEffectiveDomainPermissions(SQLConnection connection,
+                                                                 Resource accessorResource,
+                                                                 Id<DomainId> domainId) {
+      return __getEffectiveDomainPermissionMask(connection, accessorResource, domainId).toDomainPermissions();
+   }
+
+   private PermissionMask __getEffectiveDomainPermissionMask(SQLConnection connection,
+                                                             Resource accessorResource,
+                                                             String domainName) {
+      final SessionMemo validSessionMemo = __getSessionMemo(connection, accessorResource);
+      if (validSessionMemo != null) {
+         final PermissionMask domainPermissionMask = validSessionMemo.getDomainPermissionMask(domainName);
+         if (domainPermissionMask != null) {
+            return domainPermissionMask;
+         }
+      }
+
       Id<DomainId> domainId = domainPersister.getResourceDomainId(connection, domainName);
 
       if (domainId == null) {
          throw new IllegalArgumentException("Could not find domain: " + domainName);
       }
 
-      return __getEffectiveDomainPermissions(connection, accessorResource, domainId);
+      return __getEffectiveDomainPermissionMask(connection, accessorResource, domainId);
    }
 
-   private Set<DomainPermission> __getEffectiveDomainPermissions(SQLConnection connection,
-                                                                 Resource accessorResource,
-                                                                 Id<DomainId> domainId) {
+   private PermissionMask __getEffectiveDomainPermissionMask(SQLConnection connection,
+                                                             Resource accessorResource,
+                                                             Id<DomainId> domainId) {
       // only system permissions are possible on a domain
-      final Set<DomainPermission> domainSysPermissionsIncludingInherited
-            = grantDomainPermissionSysPersister.getDomainSysPermissionsIncludeInherited(connection,
-                                                                                        accessorResource,
-                                                                                        domainId);
-      for (DomainPermission permission : domainSysPermissionsIncludingInherited) {
-         // check if super-user privileges apply and construct set of all possible permissions, if necessary
-         if (DomainPermissions.SUPER_USER.equals(permission.getPermissionName())) {
-            return __getApplicableDomainPermissions();
-         }
+      final PermissionMask domainPermissionMask = PermissionMask.newDomainPermissionMask();
+      if (!__mayHaveDomainPermissions(connection, accessorResource)) {
+         return domainPermissionMask;
       }
 
-      return __collapseDomainPermissions(domainSysPermissionsIncludingInherited);
+      domainPermissionMask.addDomainPermissions(grantDomainPermissionSysPersister
+                                                      .getDomainSysPermissionsIncludeInherited(connection,
+                                                                                               accessorResource,
+                                                                                               domainId));
+
+      // check if super-user privileges apply and construct set of all possible permissions, if necessary
+      if (domainPermissionMask.isPermissible(DomainPermissions.SUPER_USER, false)) {
+         return __getApplicableDomainPermissionMask();
+      }
+
+      return domainPermissionMask;
    }
 
    private Set<DomainPermission> __collapseDomainPermissions(Set<DomainPermission> domainPermissions) {
-      final Set<DomainPermission> collapsedPermissions = new HashSet<>(domainPermissions);
-
-      for (DomainPermission permission : domainPermissions) {
-         for (DomainPermission grantEquivalentPermission : domainPermissions) {
-            if (permission.isGrantableFrom(grantEquivalentPermission) && !permission.equals(grantEquivalentPermission)) {
-               collapsedPermissions.remove(permission);
-               break;
-            }
-         }
-      }
+      final PermissionMask domainPermissionMask = PermissionMask.newDomainPermissionMask();
+      domainPermissionMask.addDomainPermissions(domainPermissions);
 
-      return collapsedPermissions;
+      return domainPermissionMask.toDomainPermissions();
    }
 
    @Override
@@ -1687,12 +2571,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    }
 
    private static Set<DomainPermission> __getApplicableDomainPermissions() {
-      Set<DomainPermission> superDomainPermissions = new HashSet<>(3);
-      superDomainPermissions.add(DomainPermission_SUPER_USER_GRANT);
-      superDomainPermissions.add(DomainPermission_CREATE_CHILD_DOMAIN_GRANT);
-      superDomainPermissions.add(DomainPermission_DELETE_GRANT);
+      return DomainPermissions_SUPER_USER_APPLICABLE;
+   }
+
+   private static PermissionMask __getApplicableDomainPermissionMask() {
+      final PermissionMask superDomainPermissionMask = PermissionMask.newDomainPermissionMask();
+      superDomainPermissionMask.addDomainPermissions(__getApplicableDomainPermissions());
 
-      return superDomainPermissions;
+      return superDomainPermissionMask;
    }
 
    private Map<String, Set<DomainPermission>> __collapseDomainPermissions(Map<String, Set<DomainPermission>> domainPermissionsMap) {
@@ -1776,23 +2662,62 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
 
       // NOTE: our current data model only support system permissions for domains
 
-      // revoke any existing domain system permission (*CREATE) this accessor has to this domain
-      grantDomainCreatePermissionSysPersister.removeDomainCreateSysPermissions(connection, accessorResource);
-      // revoke any existing domain post create system permissions this accessor has to this domain
-      grantDomainCreatePermissionPostCreateSysPersister.removeDomainCreatePostCreateSysPermissions(connection,
-                                                                                                   accessorResource);
+      // only write the rows that actually change between the existing and the requested direct permissions
+      final Set<DomainCreatePermission> addPermissions = new HashSet<>(requestedDomainCreatePermissions.size());
+      final Set<DomainCreatePermission> updatePermissions = new HashSet<>(requestedDomainCreatePermissions.size());
+      final Set<DomainCreatePermission> removePermissions = new HashSet<>(directAccessorPermissions.size());
+      __diffDirectPermissions(__mapDomainCreatePermissionsByGrantRow(requestedDomainCreatePermissions),
+                              __mapDomainCreatePermissionsByGrantRow(directAccessorPermissions),
+                              addPermissions,
+                              updatePermissions,
+                              removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         // revoke the domain system permission (*CREATE), if it is no longer requested
+         grantDomainCreatePermissionSysPersister.removeDomainCreateSysPermissions(connection,
+                                                                                  accessorResource,
+                                                                                  removePermissions);
+         // revoke the domain post create system permissions that are no longer requested
+         grantDomainCreatePermissionPostCreateSysPersister.removeDomainCreatePostCreateSysPermissions(connection,
+                                                                                                      accessorResource,
+                                                                                                      removePermissions);
+      }
 
-      // add the domain system permissions (*CREATE)
-      grantDomainCreatePermissionSysPersister.addDomainCreateSysPermissions(connection,
-                                                                            accessorResource,
-                                                                            sessionResource,
-                                                                            requestedDomainCreatePermissions);
-      // add the domain post create system permissions
-      grantDomainCreatePermissionPostCreateSysPersister
-            .addDomainCreatePostCreateSysPermissions(connection,
-                                                     accessorResource,
-                                                     sessionResource,
-                                                     requestedDomainCreatePermissions);
+      if (!updatePermissions.isEmpty()) {
+         // update the domain system permission (*CREATE), if its granting rights changed
+         grantDomainCreatePermissionSysPersister.updateDomainCreateSysPermissions(connection,
+                                                                                  accessorResource,
+                                                                                  sessionResource,
+                                                                                  updatePermissions);
+         // update the domain post create system permissions whose granting rights changed
+         grantDomainCreatePermissionPostCreateSysPersister
+               .updateDomainCreatePostCreateSysPermissions(connection,
+                                                           accessorResource,
+                                                           sessionResource,
+                                                           updatePermissions);
+      }
+
+      if (!addPermissions.isEmpty()) {
+         // add the domain system permission (*CREATE), if it is new
+         grantDomainCreatePermissionSysPersister.addDomainCreateSysPermissions(connection,
+                                                                               accessorResource,
+                                                                               sessionResource,
+                                                                               addPermissions);
+         // add the new domain post create system permissions
+         grantDomainCreatePermissionPostCreateSysPersister
+               .addDomainCreatePostCreateSysPermissions(connection,
+                                                        accessorResource,
+                                                        sessionResource,
+                                                        addPermissions);
+      }
+
+      if (!removePermissions.isEmpty() || !updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_CREATE_PERMISSION, accessorResource, null, null, null);
+         __getPermissionChangeDispatcher().domainCreatePermissionsChanged(accessorResource,
+                                                                          addPermissions,
+                                                                          updatePermissions,
+                                                                          removePermissions);
+      }
    }
 
    private void __assertSetContainsDomainCreateSystemPermission(Set<DomainCreatePermission> domainCreatePermissions) {
@@ -2010,6 +2935,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                      accessorResource,
                                                      sessionResource,
                                                      addPermissions);
+
+      if (!updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_CREATE_PERMISSION, accessorResource, null, null, null);
+         __getPermissionChangeDispatcher().domainCreatePermissionsChanged(accessorResource,
+                                                                          addPermissions,
+                                                                          updatePermissions,
+                                                                          Collections.<DomainCreatePermission>emptySet());
+      }
    }
 
    private void __assertUniqueSystemOrPostCreateDomainPermissionNames(Set<DomainCreatePermission> domainCreatePermissions) {
@@ -2158,6 +3091,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       grantDomainCreatePermissionPostCreateSysPersister.removeDomainCreatePostCreateSysPermissions(connection,
                                                                                                    accessorResource,
                                                                                                    removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         __addChangeLogEntry(connection, ChangeLogEntry.Kind.DOMAIN_CREATE_PERMISSION, accessorResource, null, null, null);
+         __getPermissionChangeDispatcher().domainCreatePermissionsChanged(accessorResource,
+                                                                          Collections.<DomainCreatePermission>emptySet(),
+                                                                          Collections.<DomainCreatePermission>emptySet(),
+                                                                          removePermissions);
+      }
    }
 
    @Override
@@ -2281,6 +3222,13 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // ensure that the post create permissions are all in the correct resource class
       __assertUniquePostCreatePermissionsNamesForResourceClass(connection, requestedResourceCreatePermissions, resourceClassInfo);
 
+      final Set<ResourceCreatePermission>
+            directAccessorPermissions
+            = __getDirectResourceCreatePermissions(connection,
+                                                   accessorResource,
+                                                   resourceClassId,
+                                                   domainId);
+
       // check if the grantor (=session resource) is authorized to grant the requested permissions
       if (!__isSuperUserOfDomain(connection, sessionResource, domainName)) {
          final Set<ResourceCreatePermission>
@@ -2290,13 +3238,6 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                     resourceClassName,
                                                                                     domainName);
 
-         final Set<ResourceCreatePermission>
-               directAccessorPermissions
-               = __getDirectResourceCreatePermissions(connection,
-                                                      accessorResource,
-                                                      resourceClassId,
-                                                      domainId);
-
          final Set<ResourceCreatePermission>
                requestedAddPermissions
                = __subtract(requestedResourceCreatePermissions, directAccessorPermissions);
@@ -2328,48 +3269,105 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          }
       }
 
-      // revoke any existing *CREATE system permissions this accessor has to this resource class
-      grantResourceCreatePermissionSysPersister.removeResourceCreateSysPermissions(connection,
+      // only write the rows that actually change between the existing and the requested direct permissions
+      final Set<ResourceCreatePermission> addPermissions = new HashSet<>(requestedResourceCreatePermissions.size());
+      final Set<ResourceCreatePermission> updatePermissions = new HashSet<>(requestedResourceCreatePermissions.size());
+      final Set<ResourceCreatePermission> removePermissions = new HashSet<>(directAccessorPermissions.size());
+      __diffDirectPermissions(__mapResourceCreatePermissionsByGrantRow(requestedResourceCreatePermissions),
+                              __mapResourceCreatePermissionsByGrantRow(directAccessorPermissions),
+                              addPermissions,
+                              updatePermissions,
+                              removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         // revoke the *CREATE system permission, if it is no longer requested
+         grantResourceCreatePermissionSysPersister.removeResourceCreateSysPermissions(connection,
+                                                                                      accessorResource,
+                                                                                      resourceClassId,
+                                                                                      domainId,
+                                                                                      removePermissions);
+
+         // revoke the post create system permissions that are no longer requested
+         grantResourceCreatePermissionPostCreateSysPersister.removeResourceCreatePostCreateSysPermissions(connection,
+                                                                                                          accessorResource,
+                                                                                                          resourceClassId,
+                                                                                                          domainId,
+                                                                                                          removePermissions);
+
+         // revoke the post create non-system permissions that are no longer requested
+         grantResourceCreatePermissionPostCreatePersister.removeResourceCreatePostCreatePermissions(connection,
+                                                                                                    accessorResource,
+                                                                                                    resourceClassId,
+                                                                                                    domainId,
+                                                                                                    removePermissions);
+      }
+
+      if (!updatePermissions.isEmpty()) {
+         // update the *CREATE system permission, if its granting rights changed
+         grantResourceCreatePermissionSysPersister.updateResourceCreateSysPermissions(connection,
+                                                                                      accessorResource,
+                                                                                      resourceClassId,
+                                                                                      domainId,
+                                                                                      updatePermissions,
+                                                                                      sessionResource);
+
+         // update the post create system permissions whose granting rights changed
+         grantResourceCreatePermissionPostCreateSysPersister.updateResourceCreatePostCreateSysPermissions(connection,
+                                                                                                          accessorResource,
+                                                                                                          resourceClassId,
+                                                                                                          domainId,
+                                                                                                          updatePermissions,
+                                                                                                          sessionResource);
+
+         // update the post create non-system permissions whose granting rights changed
+         grantResourceCreatePermissionPostCreatePersister.updateResourceCreatePostCreatePermissions(connection,
+                                                                                                    accessorResource,
+                                                                                                    resourceClassId,
+                                                                                                    domainId,
+                                                                                                    updatePermissions,
+                                                                                                    sessionResource);
+      }
+
+      if (!addPermissions.isEmpty()) {
+         // grant the *CREATE system permission, if it is new
+         grantResourceCreatePermissionSysPersister.addResourceCreateSysPermissions(connection,
                                                                                    accessorResource,
                                                                                    resourceClassId,
-                                                                                   domainId);
-
+                                                                                   domainId,
+                                                                                   addPermissions,
+                                                                                   sessionResource);
 
-      // revoke any existing post create system permissions this accessor has to this resource class
-      grantResourceCreatePermissionPostCreateSysPersister.removeResourceCreatePostCreateSysPermissions(connection,
+         // grant the new post create system permissions
+         grantResourceCreatePermissionPostCreateSysPersister.addResourceCreatePostCreateSysPermissions(connection,
                                                                                                        accessorResource,
                                                                                                        resourceClassId,
-                                                                                                       domainId);
+                                                                                                       domainId,
+                                                                                                       addPermissions,
+                                                                                                       sessionResource);
 
-      // revoke any existing post create non-system permissions this accessor has to this resource class
-      grantResourceCreatePermissionPostCreatePersister.removeResourceCreatePostCreatePermissions(connection,
+         // grant the new post create non-system permissions
+         grantResourceCreatePermissionPostCreatePersister.addResourceCreatePostCreatePermissions(connection,
                                                                                                  accessorResource,
                                                                                                  resourceClassId,
-                                                                                                 domainId);
-
-      // grant the *CREATE system permissions
-      grantResourceCreatePermissionSysPersister.addResourceCreateSysPermissions(connection,
-                                                                                accessorResource,
-                                                                                resourceClassId,
-                                                                                domainId,
-                                                                                requestedResourceCreatePermissions,
-                                                                                sessionResource);
-
-      // grant the post create system permissions
-      grantResourceCreatePermissionPostCreateSysPersister.addResourceCreatePostCreateSysPermissions(connection,
-                                                                                                    accessorResource,
-                                                                                                    resourceClassId,
-                                                                                                    domainId,
-                                                                                                    requestedResourceCreatePermissions,
-                                                                                                    sessionResource);
+                                                                                                 domainId,
+                                                                                                 addPermissions,
+                                                                                                 sessionResource);
+      }
 
-      // grant the post create non-system permissions
-      grantResourceCreatePermissionPostCreatePersister.addResourceCreatePostCreatePermissions(connection,
-                                                                                              accessorResource,
-                                                                                              resourceClassId,
-                                                                                              domainId,
-                                                                                              requestedResourceCreatePermissions,
-                                                                                              sessionResource);
+      if (!removePermissions.isEmpty() || !updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_CREATE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().resourceCreatePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            addPermissions,
+                                                                            updatePermissions,
+                                                                            removePermissions);
+      }
    }
 
    private void __assertSetContainsResourceCreateSystemPermission(Set<ResourceCreatePermission> resourceCreatePermissions) {
@@ -2725,6 +3723,21 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                               domainId,
                                                                                               addPermissions,
                                                                                               sessionResource);
+
+      if (!updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_CREATE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().resourceCreatePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            addPermissions,
+                                                                            updatePermissions,
+                                                                            Collections.<ResourceCreatePermission>emptySet());
+      }
    }
 
    @Override
@@ -2900,6 +3913,21 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                                  resourceClassId,
                                                                                                  domainId,
                                                                                                  removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_CREATE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().resourceCreatePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            Collections.<ResourceCreatePermission>emptySet(),
+                                                                            Collections.<ResourceCreatePermission>emptySet(),
+                                                                            removePermissions);
+      }
    }
 
    private boolean __setContainsResourceCreateSystemPermission(Set<ResourceCreatePermission> resourceCreatePermissions) {
@@ -3056,32 +4084,7 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          throw new IllegalArgumentException("Could not find domain: " + domainName);
       }
 
-      // collect the create permissions that this resource has to this resource class
-      Set<ResourceCreatePermission> resourceCreatePermissions = new HashSet<>();
-
-      // first read the *CREATE system permission the accessor has to the specified resource class
-      resourceCreatePermissions.addAll(
-            grantResourceCreatePermissionSysPersister.getResourceCreateSysPermissionsIncludeInherited(connection,
-                                                                                                      accessorResource,
-                                                                                                      resourceClassId,
-                                                                                                      domainId));
-
-      // next read the post create system permissions the accessor has to the specified resource class
-      resourceCreatePermissions
-            .addAll(grantResourceCreatePermissionPostCreateSysPersister
-                          .getResourceCreatePostCreateSysPermissionsIncludeInherited(connection,
-                                                                                     accessorResource,
-                                                                                     resourceClassId,
-                                                                                     domainId));
-
-      // next read the post create non-system permissions the accessor has to the specified resource class
-      resourceCreatePermissions
-            .addAll(grantResourceCreatePermissionPostCreatePersister
-                          .getResourceCreatePostCreatePermissionsIncludeInherited(connection,
-                                                                                  accessorResource,
-                                                                                  resourceClassId,
-                                                                                  domainId));
-      return __collapseResourceCreatePermissions(resourceCreatePermissions);
+      return __getResourceCreatePermissionsIncludeInherited(connection, accessorResource, resourceClassId, domainId);
    }
 
    private Set<ResourceCreatePermission> __getEffectiveResourceCreatePermissions(SQLConnection connection,
@@ -3105,31 +4108,56 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
 
       Id<ResourceClassId> resourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
 
-      // collect the create permissions that this resource has to this resource class
-      Set<ResourceCreatePermission> resourceCreatePermissions = new HashSet<>();
+      return __getResourceCreatePermissionsIncludeInherited(connection, accessorResource, resourceClassId, domainId);
+   }
+
+   private Set<ResourceCreatePermission> __getResourceCreatePermissionsIncludeInherited(SQLConnection connection,
+                                                                                        final Resource accessorResource,
+                                                                                        final Id<ResourceClassId> resourceClassId,
+                                                                                        final Id<DomainId> domainId) {
+      final List<ParallelQueries.Query<Set<ResourceCreatePermission>>> queries = new ArrayList<>(3);
 
       // first read the *CREATE system permission the accessor has to the specified resource class
-      resourceCreatePermissions.addAll(
-            grantResourceCreatePermissionSysPersister.getResourceCreateSysPermissionsIncludeInherited(connection,
-                                                                                                      accessorResource,
-                                                                                                      resourceClassId,
-                                                                                                      domainId));
+      queries.add(new ParallelQueries.Query<Set<ResourceCreatePermission>>() {
+         @Override
+         Set<ResourceCreatePermission> execute(SQLConnection queryConnection) {
+            return grantResourceCreatePermissionSysPersister
+                  .getResourceCreateSysPermissionsIncludeInherited(queryConnection,
+                                                                   accessorResource,
+                                                                   resourceClassId,
+                                                                   domainId);
+         }
+      });
 
       // next read the post create system permissions the accessor has to the specified resource class
-      resourceCreatePermissions
-            .addAll(grantResourceCreatePermissionPostCreateSysPersister
-                          .getResourceCreatePostCreateSysPermissionsIncludeInherited(connection,
-                                                                                     accessorResource,
-                                                                                     resourceClassId,
-                                                                                     domainId));
+      queries.add(new ParallelQueries.Query<Set<ResourceCreatePermission>>() {
+         @Override
+         Set<ResourceCreatePermission> execute(SQLConnection queryConnection) {
+            return grantResourceCreatePermissionPostCreateSysPersister
+                  .getResourceCreatePostCreateSysPermissionsIncludeInherited(queryConnection,
+                                                                             accessorResource,
+                                                                             resourceClassId,
+                                                                             domainId);
+         }
+      });
 
       // next read the post create non-system permissions the accessor has to the specified resource class
-      resourceCreatePermissions
-            .addAll(grantResourceCreatePermissionPostCreatePersister
-                          .getResourceCreatePostCreatePermissionsIncludeInherited(connection,
-                                                                                  accessorResource,
-                                                                                  resourceClassId,
-                                                                                  domainId));
+      queries.add(new ParallelQueries.Query<Set<ResourceCreatePermission>>() {
+         @Override
+         Set<ResourceCreatePermission> execute(SQLConnection queryConnection) {
+            return grantResourceCreatePermissionPostCreatePersister
+                  .getResourceCreatePostCreatePermissionsIncludeInherited(queryConnection,
+                                                                          accessorResource,
+                                                                          resourceClassId,
+                                                                          domainId);
+         }
+      });
+
+      // collect the create permissions that this resource has to this resource class
+      final Set<ResourceCreatePermission> resourceCreatePermissions = new HashSet<>();
+      for (Set<ResourceCreatePermission> queriedPermissions : __executeQueries(connection, queries)) {
+         resourceCreatePermissions.addAll(queriedPermissions);
+      }
       return __collapseResourceCreatePermissions(resourceCreatePermissions);
    }
 
@@ -3322,9 +4350,21 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                              requestedResourcePermissions,
                                                              accessedResourceClassInternalInfo);
 
+      final Id<ResourceClassId> accessedResourceClassId = Id.from(accessedResourceClassInternalInfo.getResourceClassId());
+
+      final Set<ResourcePermission> addPermissions;
+      final Set<ResourcePermission> updatePermissions;
+      final Set<ResourcePermission> removePermissions;
+
       // if this method is being called to set the post create permissions on a newly created resource
       // we do not perform the security checks below, since it would be incorrect
       if (!newResourceMode) {
+         final Set<ResourcePermission>
+               directAccessorResourcePermissions
+               = __getDirectResourcePermissions(connection,
+                                                accessorResource,
+                                                accessedResource);
+
          if (!__isSuperUserOfResource(connection, grantorResource, accessedResource)) {
             // next check if the grantor (i.e. session resource) has permissions to grant the requested permissions
             final Set<ResourcePermission>
@@ -3333,12 +4373,6 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                  grantorResource,
                                                                                  accessedResource);
 
-            final Set<ResourcePermission>
-                  directAccessorResourcePermissions
-                  = __getDirectResourcePermissions(connection,
-                                                   accessorResource,
-                                                   accessedResource);
-
             final Set<ResourcePermission>
                   requestedAddPermissions
                   = __subtract(requestedResourcePermissions, directAccessorResourcePermissions);
@@ -3373,14 +4407,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          // if inherit permissions are about to be granted, first check for cycles
          if (requestedResourcePermissions.contains(ResourcePermission_INHERIT)
                || requestedResourcePermissions.contains(ResourcePermission_INHERIT_GRANT)) {
-            Set<ResourcePermission> reversePathResourcePermissions
-                  = __getEffectiveResourcePermissionsIgnoringSuperUserPrivileges(connection,
-                                                                                 accessedResource,
-                                                                                 accessorResource);
-
-            if (reversePathResourcePermissions.contains(ResourcePermission_INHERIT)
-                  || reversePathResourcePermissions.contains(ResourcePermission_INHERIT_GRANT)
-                  || accessorResource.equals(accessedResource)) {
+            if (accessorResource.equals(accessedResource)
+                  || __isInheritPathPresent(connection, accessedResource, accessorResource)) {
                throw new OaccException("Granting the requested permission(s): "
                                              + requestedResourcePermissions
                                              + " will cause a cycle between: "
@@ -3390,33 +4418,171 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
             }
          }
 
-         // revoke any existing direct system permissions between the accessor and the accessed resource
+         // only write the rows that actually change between the existing and the requested direct permissions
+         addPermissions = new HashSet<>(requestedResourcePermissions.size());
+         updatePermissions = new HashSet<>(requestedResourcePermissions.size());
+         removePermissions = new HashSet<>(directAccessorResourcePermissions.size());
+         __diffDirectPermissions(__mapResourcePermissionsByGrantRow(requestedResourcePermissions),
+                                 __mapResourcePermissionsByGrantRow(directAccessorResourcePermissions),
+                                 addPermissions,
+                                 updatePermissions,
+                                 removePermissions);
+      }
+      else {
+         // a newly created resource has no direct permissions yet
+         addPermissions = requestedResourcePermissions;
+         updatePermissions = Collections.emptySet();
+         removePermissions = Collections.emptySet();
+      }
+
+      if (!removePermissions.isEmpty()) {
+         // revoke the direct system permissions that are no longer requested
          grantResourcePermissionSysPersister.removeResourceSysPermissions(connection,
                                                                           accessorResource,
-                                                                          accessedResource);
+                                                                          accessedResource,
+                                                                          accessedResourceClassId,
+                                                                          removePermissions);
 
-         // revoke any existing direct non-system permissions between the accessor and the accessed resource
-         grantResourcePermissionPersister.removeResourcePermissions(connection, accessorResource, accessedResource);
+         // revoke the direct non-system permissions that are no longer requested
+         grantResourcePermissionPersister.removeResourcePermissions(connection,
+                                                                    accessorResource,
+                                                                    accessedResource,
+                                                                    accessedResourceClassId,
+                                                                    removePermissions);
       }
 
-      // add the new direct system permissions
-      grantResourcePermissionSysPersister.addResourceSysPermissions(connection,
+      if (!updatePermissions.isEmpty()) {
+         // update the direct system permissions whose granting rights changed
+         grantResourcePermissionSysPersister.updateResourceSysPermissions(connection,
+                                                                          accessorResource,
+                                                                          accessedResource,
+                                                                          accessedResourceClassId,
+                                                                          updatePermissions,
+                                                                          grantorResource);
+
+         // update the direct non-system permissions whose granting rights changed
+         grantResourcePermissionPersister.updateResourcePermissions(connection,
                                                                     accessorResource,
                                                                     accessedResource,
-                                                                    Id.<ResourceClassId>from(
-                                                                          accessedResourceClassInternalInfo
-                                                                                .getResourceClassId()),
-                                                                    requestedResourcePermissions,
+                                                                    accessedResourceClassId,
+                                                                    updatePermissions,
                                                                     grantorResource);
+      }
 
-      // add the new direct non-system permissions
-      grantResourcePermissionPersister.addResourcePermissions(connection,
-                                                              accessorResource,
-                                                              accessedResource,
-                                                              Id.<ResourceClassId>from(accessedResourceClassInternalInfo
-                                                                                             .getResourceClassId()),
-                                                              requestedResourcePermissions,
-                                                              grantorResource);
+      if (!addPermissions.isEmpty()) {
+         // add the new direct system permissions
+         grantResourcePermissionSysPersister.addResourceSysPermissions(connection,
+                                                                       accessorResource,
+                                                                       accessedResource,
+                                                                       accessedResourceClassId,
+                                                                       addPermissions,
+                                                                       grantorResource);
+
+         // add the new direct non-system permissions
+         grantResourcePermissionPersister.addResourcePermissions(connection,
+                                                                 accessorResource,
+                                                                 accessedResource,
+                                                                 accessedResourceClassId,
+                                                                 addPermissions,
+                                                                 grantorResource);
+      }
+
+      if (!removePermissions.isEmpty() || !updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_PERMISSION,
+                             accessorResource,
+                             accessedResource,
+                             null,
+                             accessedResourceClassId);
+         __getPermissionChangeDispatcher().resourcePermissionsChanged(accessorResource,
+                                                                      accessedResource,
+                                                                      addPermissions,
+                                                                      updatePermissions,
+                                                                      removePermissions);
+      }
+   }
+
+   // computes the changes needed to turn the direct permissions into the requested permissions, given both sets
+   // keyed by the grant table row each permission is stored in, i.e. by the permission without any granting rights
+   private static <T> void __diffDirectPermissions(Map<T, T> requestedPermissionsByGrantRow,
+                                                   Map<T, T> directPermissionsByGrantRow,
+                                                   Set<T> addPermissions,
+                                                   Set<T> updatePermissions,
+                                                   Set<T> removePermissions) {
+      for (Map.Entry<T, T> requestedPermissionEntry : requestedPermissionsByGrantRow.entrySet()) {
+         final T directPermission = directPermissionsByGrantRow.get(requestedPermissionEntry.getKey());
+
+         if (directPermission == null) {
+            addPermissions.add(requestedPermissionEntry.getValue());
+         }
+         else if (!directPermission.equals(requestedPermissionEntry.getValue())) {
+            // same row, but different granting rights
+            updatePermissions.add(requestedPermissionEntry.getValue());
+         }
+      }
+
+      for (Map.Entry<T, T> directPermissionEntry : directPermissionsByGrantRow.entrySet()) {
+         if (!requestedPermissionsByGrantRow.containsKey(directPermissionEntry.getKey())) {
+            removePermissions.add(directPermissionEntry.getValue());
+         }
+      }
+   }
+
+   private static Map<ResourcePermission, ResourcePermission> __mapResourcePermissionsByGrantRow(Set<ResourcePermission> resourcePermissions) {
+      final Map<ResourcePermission, ResourcePermission> resourcePermissionsByGrantRow
+            = new HashMap<>(resourcePermissions.size());
+
+      for (ResourcePermission resourcePermission : resourcePermissions) {
+         resourcePermissionsByGrantRow.put(ResourcePermissions.getInstance(resourcePermission.getPermissionName()),
+                                           resourcePermission);
+      }
+      return resourcePermissionsByGrantRow;
+   }
+
+   private static Map<DomainPermission, DomainPermission> __mapDomainPermissionsByGrantRow(Set<DomainPermission> domainPermissions) {
+      final Map<DomainPermission, DomainPermission> domainPermissionsByGrantRow = new HashMap<>(domainPermissions.size());
+
+      for (DomainPermission domainPermission : domainPermissions) {
+         domainPermissionsByGrantRow.put(DomainPermissions.getInstance(domainPermission.getPermissionName()),
+                                         domainPermission);
+      }
+      return domainPermissionsByGrantRow;
+   }
+
+   private static Map<DomainCreatePermission, DomainCreatePermission> __mapDomainCreatePermissionsByGrantRow(Set<DomainCreatePermission> domainCreatePermissions) {
+      final Map<DomainCreatePermission, DomainCreatePermission> domainCreatePermissionsByGrantRow
+            = new HashMap<>(domainCreatePermissions.size());
+
+      for (DomainCreatePermission domainCreatePermission : domainCreatePermissions) {
+         if (domainCreatePermission.isSystemPermission()) {
+            domainCreatePermissionsByGrantRow.put(DomainCreatePermissions.getInstance(domainCreatePermission.getPermissionName()),
+                                                  domainCreatePermission);
+         }
+         else {
+            final String postCreatePermissionName = domainCreatePermission.getPostCreateDomainPermission().getPermissionName();
+            domainCreatePermissionsByGrantRow.put(DomainCreatePermissions.getInstance(DomainPermissions.getInstance(postCreatePermissionName)),
+                                                  domainCreatePermission);
+         }
+      }
+      return domainCreatePermissionsByGrantRow;
+   }
+
+   private static Map<ResourceCreatePermission, ResourceCreatePermission> __mapResourceCreatePermissionsByGrantRow(Set<ResourceCreatePermission> resourceCreatePermissions) {
+      final Map<ResourceCreatePermission, ResourceCreatePermission> resourceCreatePermissionsByGrantRow
+            = new HashMap<>(resourceCreatePermissions.size());
+
+      for (ResourceCreatePermission resourceCreatePermission : resourceCreatePermissions) {
+         if (resourceCreatePermission.isSystemPermission()) {
+            resourceCreatePermissionsByGrantRow.put(ResourceCreatePermissions.getInstance(resourceCreatePermission.getPermissionName()),
+                                                    resourceCreatePermission);
+         }
+         else {
+            final String postCreatePermissionName = resourceCreatePermission.getPostCreateResourcePermission().getPermissionName();
+            resourceCreatePermissionsByGrantRow.put(ResourceCreatePermissions.getInstance(ResourcePermissions.getInstance(postCreatePermissionName)),
+                                                    resourceCreatePermission);
+         }
+      }
+      return resourceCreatePermissionsByGrantRow;
    }
 
    private void __assertUniqueResourcePermissionsNamesForResourceClass(SQLConnection connection,
@@ -3523,6 +4689,262 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   @Override
+   public void grantResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                              Set<Resource> accessedResources,
+                                              Set<ResourcePermission> resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourcesSpecified(accessorResources);
+      __assertResourcesSetNotEmpty(accessorResources);
+      __assertResourcesSpecified(accessedResources);
+      __assertResourcesSetNotEmpty(accessedResources);
+      __assertPermissionsSpecified(resourcePermissions);
+      __assertPermissionsSetNotEmpty(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermission(resourcePermissions);
+
+      try {
+         connection = __getConnection();
+         final Set<Resource> resolvedAccessorResources = __resolveResources(connection, accessorResources);
+         final Set<Resource> resolvedAccessedResources = __resolveResources(connection, accessedResources);
+
+         __grantDirectResourcePermissions(connection,
+                                          resolvedAccessorResources,
+                                          resolvedAccessedResources,
+                                          normalizedResourcePermissions);
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   private void __grantDirectResourcePermissions(SQLConnection connection,
+                                                 Set<Resource> accessorResources,
+                                                 Set<Resource> accessedResources,
+                                                 Set<ResourcePermission> requestedResourcePermissions) {
+      final Map<Resource, ResourceClassInternalInfo> accessedResourceClassInternalInfos
+            = new HashMap<>(accessedResources.size());
+
+      // validate and check for authorization only once per accessed resource, before anything is written
+      for (Resource accessedResource : accessedResources) {
+         final ResourceClassInternalInfo accessedResourceClassInternalInfo
+               = resourceClassPersister.getResourceClassInfoByResourceId(connection, accessedResource);
+
+         // next ensure that the requested permissions are all in the correct resource class
+         __assertUniqueResourcePermissionsNamesForResourceClass(connection,
+                                                                requestedResourcePermissions,
+                                                                accessedResourceClassInternalInfo);
+
+         if (!__isSuperUserOfResource(connection, sessionResource, accessedResource)) {
+            final Set<ResourcePermission>
+                  grantorResourcePermissions
+                  = __getEffectiveResourcePermissionsIgnoringSuperUserPrivileges(connection,
+                                                                                 sessionResource,
+                                                                                 accessedResource);
+
+            final Set<ResourcePermission>
+                  unauthorizedPermissions
+                  = __subtractResourcePermissionsIfGrantableFrom(requestedResourcePermissions, grantorResourcePermissions);
+
+            if (unauthorizedPermissions.size() > 0) {
+               throw NotAuthorizedException.newInstanceForAction(sessionResource,
+                                                                 "grant the following permission(s): " + unauthorizedPermissions);
+            }
+         }
+
+         accessedResourceClassInternalInfos.put(accessedResource, accessedResourceClassInternalInfo);
+      }
+
+      // if inherit permissions are about to be granted, first check for cycles across the whole set
+      if (requestedResourcePermissions.contains(ResourcePermission_INHERIT)
+            || requestedResourcePermissions.contains(ResourcePermission_INHERIT_GRANT)) {
+         __assertNoInheritCycles(connection, accessorResources, accessedResources, requestedResourcePermissions);
+      }
+
+      for (Resource accessedResource : accessedResources) {
+         final Id<ResourceClassId> accessedResourceClassId
+               = Id.from(accessedResourceClassInternalInfos.get(accessedResource).getResourceClassId());
+
+         final Map<Resource, Set<ResourcePermission>> directResourcePermissionsMap
+               = __getDirectResourcePermissionsMapByAccessedResource(connection, accessedResource);
+
+         // group the accessors by the permissions we need to add or update, so that each group is written in one batch
+         final Map<Set<ResourcePermission>, Set<Resource>> addPermissionsMap = new HashMap<>();
+         final Map<Set<ResourcePermission>, Set<Resource>> updatePermissionsMap = new HashMap<>();
+
+         for (Resource accessorResource : accessorResources) {
+            Set<ResourcePermission> directAccessorResourcePermissions = directResourcePermissionsMap.get(accessorResource);
+            if (directAccessorResourcePermissions == null) {
+               directAccessorResourcePermissions = Collections.emptySet();
+            }
+
+            final Set<ResourcePermission> addPermissions = new HashSet<>(requestedResourcePermissions.size());
+            final Set<ResourcePermission> updatePermissions = new HashSet<>(requestedResourcePermissions.size());
+
+            for (ResourcePermission requestedPermission : requestedResourcePermissions) {
+               boolean existingPermission = false;
+
+               for (ResourcePermission existingDirectPermission : directAccessorResourcePermissions) {
+                  if (requestedPermission.equalsIgnoreGrantOption(existingDirectPermission)) {
+                     // found a match by name - now let's see if we need to update existing or leave it unchanged
+                     if (!requestedPermission.equals(existingDirectPermission) &&
+                           !requestedPermission.isGrantableFrom(existingDirectPermission)) {
+                        // requested permission has higher granting rights than the already existing direct permission,
+                        // so we need to update it
+                        updatePermissions.add(requestedPermission);
+                     }
+
+                     existingPermission = true;
+                     break;
+                  }
+               }
+
+               if (!existingPermission) {
+                  // couldn't find requested permission in set of already existing direct permissions, by name, so we need to add it
+                  addPermissions.add(requestedPermission);
+               }
+            }
+
+            __addToResourceGroup(addPermissionsMap, addPermissions, accessorResource);
+            __addToResourceGroup(updatePermissionsMap, updatePermissions, accessorResource);
+         }
+
+         for (Map.Entry<Set<ResourcePermission>, Set<Resource>> updatePermissionsEntry : updatePermissionsMap.entrySet()) {
+            // update any necessary direct system permissions between the accessors and the accessed resource
+            grantResourcePermissionSysPersister.updateResourceSysPermissions(connection,
+                                                                             updatePermissionsEntry.getValue(),
+                                                                             accessedResource,
+                                                                             accessedResourceClassId,
+                                                                             updatePermissionsEntry.getKey(),
+                                                                             sessionResource);
+
+            // update any necessary direct non-system permissions between the accessors and the accessed resource
+            grantResourcePermissionPersister.updateResourcePermissions(connection,
+                                                                       updatePermissionsEntry.getValue(),
+                                                                       accessedResource,
+                                                                       accessedResourceClassId,
+                                                                       updatePermissionsEntry.getKey(),
+                                                                       sessionResource);
+         }
+
+         for (Map.Entry<Set<ResourcePermission>, Set<Resource>> addPermissionsEntry : addPermissionsMap.entrySet()) {
+            // add the new direct system permissions
+            grantResourcePermissionSysPersister.addResourceSysPermissions(connection,
+                                                                          addPermissionsEntry.getValue(),
+                                                                          accessedResource,
+                                                                          accessedResourceClassId,
+                                                                          addPermissionsEntry.getKey(),
+                                                                          sessionResource);
+
+            // add the new direct non-system permissions
+            grantResourcePermissionPersister.addResourcePermissions(connection,
+                                                                    addPermissionsEntry.getValue(),
+                                                                    accessedResource,
+                                                                    accessedResourceClassId,
+                                                                    addPermissionsEntry.getKey(),
+                                                                    sessionResource);
+         }
+
+         // record each accessor whose permissions on the accessed resource changed
+         final Set<Resource> changedAccessorResources = new HashSet<>();
+         for (Set<Resource> updatedAccessorResources : updatePermissionsMap.values()) {
+            changedAccessorResources.addAll(updatedAccessorResources);
+         }
+         for (Set<Resource> addedAccessorResources : addPermissionsMap.values()) {
+            changedAccessorResources.addAll(addedAccessorResources);
+         }
+         for (Resource changedAccessorResource : changedAccessorResources) {
+            __addChangeLogEntry(connection,
+                                ChangeLogEntry.Kind.RESOURCE_PERMISSION,
+                                changedAccessorResource,
+                                accessedResource,
+                                null,
+                                accessedResourceClassId);
+         }
+         final PermissionChangeDispatcher permissionChangeDispatcher = __getPermissionChangeDispatcher();
+         if (permissionChangeDispatcher.hasListeners()) {
+            for (Resource changedAccessorResource : changedAccessorResources) {
+               permissionChangeDispatcher.resourcePermissionsChanged(changedAccessorResource,
+                                                                     accessedResource,
+                                                                     __getResourceGroupPermissions(addPermissionsMap,
+                                                                                                   changedAccessorResource),
+                                                                     __getResourceGroupPermissions(updatePermissionsMap,
+                                                                                                   changedAccessorResource),
+                                                                     Collections.<ResourcePermission>emptySet());
+            }
+         }
+      }
+   }
+
+   private void __assertNoInheritCycles(SQLConnection connection,
+                                        Set<Resource> accessorResources,
+                                        Set<Resource> accessedResources,
+                                        Set<ResourcePermission> requestedResourcePermissions) {
+      for (Resource accessedResource : accessedResources) {
+         if (accessorResources.contains(accessedResource)) {
+            throw new OaccException("Granting the requested permission(s): "
+                                          + requestedResourcePermissions
+                                          + " will cause a cycle between: "
+                                          + accessedResource
+                                          + " and: "
+                                          + accessedResource);
+         }
+      }
+
+      // all new inherit grants point from an accessor to an accessed resource, so any cycle they could close has to
+      // contain an existing inherit path from one of the accessed resources back to one of the accessors
+      for (Resource accessedResource : accessedResources) {
+         final Resource reversePathResource
+               = grantResourcePermissionSysPersister.findInheritedResource(connection,
+                                                                           accessedResource,
+                                                                           accessorResources);
+
+         if (reversePathResource != null) {
+            throw new OaccException("Granting the requested permission(s): "
+                                          + requestedResourcePermissions
+                                          + " will cause a cycle between: "
+                                          + reversePathResource
+                                          + " and: "
+                                          + accessedResource);
+         }
+      }
+   }
+
+   // returns true if the accessor resource already inherits from the accessed resource, directly or transitively
+   private boolean __isInheritPathPresent(SQLConnection connection,
+                                          Resource accessorResource,
+                                          Resource accessedResource) {
+      return grantResourcePermissionSysPersister.findInheritedResource(connection,
+                                                                       accessorResource,
+                                                                       Collections.singleton(accessedResource)) != null;
+   }
+
+   private static void __addToResourceGroup(Map<Set<ResourcePermission>, Set<Resource>> resourceGroups,
+                                            Set<ResourcePermission> resourcePermissions,
+                                            Resource resource) {
+      if (!resourcePermissions.isEmpty()) {
+         Set<Resource> resources = resourceGroups.get(resourcePermissions);
+         if (resources == null) {
+            resources = new HashSet<>();
+            resourceGroups.put(resourcePermissions, resources);
+         }
+         resources.add(resource);
+      }
+   }
+
+   // returns the permissions of the group that contains the specified resource, or an empty set if none does
+   private static Set<ResourcePermission> __getResourceGroupPermissions(Map<Set<ResourcePermission>, Set<Resource>> resourceGroups,
+                                                                        Resource resource) {
+      for (Map.Entry<Set<ResourcePermission>, Set<Resource>> resourceGroup : resourceGroups.entrySet()) {
+         if (resourceGroup.getValue().contains(resource)) {
+            return resourceGroup.getKey();
+         }
+      }
+      return Collections.emptySet();
+   }
+
    private void __grantDirectResourcePermissions(SQLConnection connection,
                                                  Resource accessorResource,
                                                  Resource accessedResource,
@@ -3586,14 +5008,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // if inherit permissions are about to be granted, first check for cycles
       if (addPermissions.contains(ResourcePermission_INHERIT)
             || addPermissions.contains(ResourcePermission_INHERIT_GRANT)) {
-         Set<ResourcePermission> reversePathResourcePermissions
-               = __getEffectiveResourcePermissionsIgnoringSuperUserPrivileges(connection,
-                                                                              accessedResource,
-                                                                              accessorResource);
-
-         if (reversePathResourcePermissions.contains(ResourcePermission_INHERIT)
-               || reversePathResourcePermissions.contains(ResourcePermission_INHERIT_GRANT)
-               || accessorResource.equals(accessedResource)) {
+         if (accessorResource.equals(accessedResource)
+               || __isInheritPathPresent(connection, accessedResource, accessorResource)) {
             throw new OaccException("Granting the requested permission(s): "
                                           + requestedResourcePermissions
                                           + " will cause a cycle between: "
@@ -3637,6 +5053,20 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                               Id.<ResourceClassId>from(accessedResourceClassInternalInfo.getResourceClassId()),
                                                               addPermissions,
                                                               sessionResource);
+
+      if (!updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_PERMISSION,
+                             accessorResource,
+                             accessedResource,
+                             null,
+                             Id.<ResourceClassId>from(accessedResourceClassInternalInfo.getResourceClassId()));
+         __getPermissionChangeDispatcher().resourcePermissionsChanged(accessorResource,
+                                                                      accessedResource,
+                                                                      addPermissions,
+                                                                      updatePermissions,
+                                                                      Collections.<ResourcePermission>emptySet());
+      }
    }
 
    @Override
@@ -3693,6 +5123,138 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   @Override
+   public void revokeResourcePermissionsInBulk(Set<Resource> accessorResources,
+                                               Set<Resource> accessedResources,
+                                               Set<ResourcePermission> resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourcesSpecified(accessorResources);
+      __assertResourcesSetNotEmpty(accessorResources);
+      __assertResourcesSpecified(accessedResources);
+      __assertResourcesSetNotEmpty(accessedResources);
+      __assertPermissionsSpecified(resourcePermissions);
+      __assertPermissionsSetNotEmpty(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermission(resourcePermissions);
+
+      try {
+         connection = __getConnection();
+         final Set<Resource> resolvedAccessorResources = __resolveResources(connection, accessorResources);
+         final Set<Resource> resolvedAccessedResources = __resolveResources(connection, accessedResources);
+
+         __revokeDirectResourcePermissions(connection,
+                                           resolvedAccessorResources,
+                                           resolvedAccessedResources,
+                                           normalizedResourcePermissions);
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   private void __revokeDirectResourcePermissions(SQLConnection connection,
+                                                  Set<Resource> accessorResources,
+                                                  Set<Resource> accessedResources,
+                                                  Set<ResourcePermission> obsoleteResourcePermissions) {
+      final Map<Resource, ResourceClassInternalInfo> accessedResourceClassInternalInfos
+            = new HashMap<>(accessedResources.size());
+
+      // validate and check for authorization only once per accessed resource, before anything is removed
+      for (Resource accessedResource : accessedResources) {
+         final ResourceClassInternalInfo accessedResourceClassInternalInfo
+               = resourceClassPersister.getResourceClassInfoByResourceId(connection, accessedResource);
+
+         // next ensure that the requested permissions are unique in name
+         __assertUniqueResourcePermissionsNamesForResourceClass(connection,
+                                                                obsoleteResourcePermissions,
+                                                                accessedResourceClassInternalInfo);
+
+         if (!__isSuperUserOfResource(connection, sessionResource, accessedResource)) {
+            final Set<ResourcePermission>
+                  grantorResourcePermissions
+                  = __getEffectiveResourcePermissionsIgnoringSuperUserPrivileges(connection,
+                                                                                 sessionResource,
+                                                                                 accessedResource);
+
+            final Set<ResourcePermission>
+                  unauthorizedPermissions
+                  = __subtractResourcePermissionsIfGrantableFrom(obsoleteResourcePermissions, grantorResourcePermissions);
+
+            if (unauthorizedPermissions.size() > 0) {
+               throw NotAuthorizedException.newInstanceForAction(sessionResource,
+                                                                 "revoke the following permission(s): " + unauthorizedPermissions);
+            }
+         }
+
+         accessedResourceClassInternalInfos.put(accessedResource, accessedResourceClassInternalInfo);
+      }
+
+      for (Resource accessedResource : accessedResources) {
+         final Id<ResourceClassId> accessedResourceClassId
+               = Id.from(accessedResourceClassInternalInfos.get(accessedResource).getResourceClassId());
+
+         final Map<Resource, Set<ResourcePermission>> directResourcePermissionsMap
+               = __getDirectResourcePermissionsMapByAccessedResource(connection, accessedResource);
+
+         // group the accessors by the permissions we need to remove, so that each group is removed in one batch
+         final Map<Set<ResourcePermission>, Set<Resource>> removePermissionsMap = new HashMap<>();
+
+         for (Resource accessorResource : accessorResources) {
+            final Set<ResourcePermission> directAccessorResourcePermissions
+                  = directResourcePermissionsMap.get(accessorResource);
+
+            if (directAccessorResourcePermissions != null) {
+               final Set<ResourcePermission> removePermissions = new HashSet<>(obsoleteResourcePermissions.size());
+
+               for (ResourcePermission requestedPermission : obsoleteResourcePermissions) {
+                  for (ResourcePermission existingDirectPermission : directAccessorResourcePermissions) {
+                     if (requestedPermission.equalsIgnoreGrantOption(existingDirectPermission)) {
+                        // requested permission has same name and regardless of granting rights we need to remove it
+                        removePermissions.add(requestedPermission);
+                        break;
+                     }
+                  }
+               }
+
+               __addToResourceGroup(removePermissionsMap, removePermissions, accessorResource);
+            }
+         }
+
+         final PermissionChangeDispatcher permissionChangeDispatcher = __getPermissionChangeDispatcher();
+         for (Map.Entry<Set<ResourcePermission>, Set<Resource>> removePermissionsEntry : removePermissionsMap.entrySet()) {
+            // remove any necessary direct system permissions between the accessors and the accessed resource
+            grantResourcePermissionSysPersister.removeResourceSysPermissions(connection,
+                                                                             removePermissionsEntry.getValue(),
+                                                                             accessedResource,
+                                                                             accessedResourceClassId,
+                                                                             removePermissionsEntry.getKey());
+
+            // remove any necessary direct non-system permissions between the accessors and the accessed resource
+            grantResourcePermissionPersister.removeResourcePermissions(connection,
+                                                                       removePermissionsEntry.getValue(),
+                                                                       accessedResource,
+                                                                       accessedResourceClassId,
+                                                                       removePermissionsEntry.getKey());
+
+            for (Resource changedAccessorResource : removePermissionsEntry.getValue()) {
+               __addChangeLogEntry(connection,
+                                   ChangeLogEntry.Kind.RESOURCE_PERMISSION,
+                                   changedAccessorResource,
+                                   accessedResource,
+                                   null,
+                                   accessedResourceClassId);
+               permissionChangeDispatcher.resourcePermissionsChanged(changedAccessorResource,
+                                                                     accessedResource,
+                                                                     Collections.<ResourcePermission>emptySet(),
+                                                                     Collections.<ResourcePermission>emptySet(),
+                                                                     removePermissionsEntry.getKey());
+            }
+         }
+      }
+   }
+
    private void __revokeDirectResourcePermissions(SQLConnection connection,
                                                   Resource accessorResource,
                                                   Resource accessedResource,
@@ -3755,6 +5317,20 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                        accessedResourceClassInternalInfo
                                                                              .getResourceClassId()),
                                                                  removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.RESOURCE_PERMISSION,
+                             accessorResource,
+                             accessedResource,
+                             null,
+                             Id.<ResourceClassId>from(accessedResourceClassInternalInfo.getResourceClassId()));
+         __getPermissionChangeDispatcher().resourcePermissionsChanged(accessorResource,
+                                                                      accessedResource,
+                                                                      Collections.<ResourcePermission>emptySet(),
+                                                                      Collections.<ResourcePermission>emptySet(),
+                                                                      removePermissions);
+      }
    }
 
    @Override
@@ -3797,6 +5373,27 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return resourcePermissions;
    }
 
+   private Map<Resource, Set<ResourcePermission>> __getDirectResourcePermissionsMapByAccessedResource(SQLConnection connection,
+                                                                                                      Resource accessedResource) {
+      final Map<Resource, Set<ResourcePermission>> resourcePermissionsMap
+            = grantResourcePermissionSysPersister.getAccessorResourceSysPermissionsMap(connection, accessedResource);
+
+      // merge the direct non-system permissions into the map of direct system permissions
+      for (Map.Entry<Resource, Set<ResourcePermission>> resourcePermissionsEntry
+            : grantResourcePermissionPersister.getAccessorResourcePermissionsMap(connection, accessedResource).entrySet()) {
+         final Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(resourcePermissionsEntry.getKey());
+
+         if (resourcePermissions == null) {
+            resourcePermissionsMap.put(resourcePermissionsEntry.getKey(), resourcePermissionsEntry.getValue());
+         }
+         else {
+            resourcePermissions.addAll(resourcePermissionsEntry.getValue());
+         }
+      }
+
+      return resourcePermissionsMap;
+   }
+
    @Override
    public Set<ResourcePermission> getEffectiveResourcePermissions(Resource accessorResource, Resource accessedResource) {
       SQLConnection connection = null;
@@ -3821,81 +5418,135 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private Set<ResourcePermission> __getEffectiveResourcePermissions(SQLConnection connection,
                                                                      Resource accessorResource,
                                                                      Resource accessedResource) {
-      Set<ResourcePermission> resourcePermissions = new HashSet<>();
+      return __getEffectiveResourcePermissionMask(connection, accessorResource, accessedResource).toResourcePermissions();
+   }
 
+   private PermissionMask __getEffectiveResourcePermissionMask(SQLConnection connection,
+                                                               Resource accessorResource,
+                                                               Resource accessedResource) {
       final Id<DomainId> accessedDomainId = resourcePersister.getDomainIdByResource(connection, accessedResource);
       final ResourceClassInternalInfo resourceClassInternalInfo
             = resourceClassPersister.getResourceClassInfoByResourceId(connection, accessedResource);
 
       if (__isSuperUserOfDomain(connection, accessorResource, accessedDomainId)) {
-         return __getApplicableResourcePermissions(connection, resourceClassInternalInfo);
+         return __getApplicableResourcePermissionMask(connection, resourceClassInternalInfo);
       }
 
-      // collect the system permissions that the accessor resource has to the accessed resource
-      resourcePermissions.addAll(grantResourcePermissionSysPersister
-                                       .getResourceSysPermissionsIncludeInherited(connection,
-                                                                                  accessorResource,
-                                                                                  accessedResource));
-
-      // collect the non-system permissions that the accessor has to the accessed resource
-      resourcePermissions.addAll(grantResourcePermissionPersister.getResourcePermissionsIncludeInherited(connection,
-                                                                                                         accessorResource,
-                                                                                                         accessedResource));
-
-      final Id<ResourceClassId> accessedResourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
-
-      // collect the global system permissions that the accessor has to the accessed resource's domain
-      resourcePermissions
-            .addAll(grantGlobalResourcePermissionSysPersister.getGlobalSysPermissionsIncludeInherited(connection,
-                                                                                                      accessorResource,
-                                                                                                      accessedResourceClassId,
-                                                                                                      accessedDomainId));
-
-      // first collect the global non-system permissions that the accessor this resource has to the accessed resource's domain
-      resourcePermissions
-            .addAll(grantGlobalResourcePermissionPersister.getGlobalResourcePermissionsIncludeInherited(connection,
-                                                                                                        accessorResource,
-                                                                                                        accessedResourceClassId,
-                                                                                                        accessedDomainId));
-      return __collapseResourcePermissions(resourcePermissions);
+      return __getEffectiveResourcePermissionMaskIgnoringSuperUserPrivileges(connection,
+                                                                             accessorResource,
+                                                                             accessedResource,
+                                                                             accessedDomainId,
+                                                                             resourceClassInternalInfo);
    }
 
    private Set<ResourcePermission> __getEffectiveResourcePermissionsIgnoringSuperUserPrivileges(SQLConnection connection,
                                                                                                 Resource accessorResource,
                                                                                                 Resource accessedResource) {
-      Set<ResourcePermission> resourcePermissions = new HashSet<>();
+      return __getEffectiveResourcePermissionMaskIgnoringSuperUserPrivileges(connection,
+                                                                             accessorResource,
+                                                                             accessedResource,
+                                                                             resourcePersister
+                                                                                   .getDomainIdByResource(connection,
+                                                                                                          accessedResource),
+                                                                             resourceClassPersister
+                                                                                   .getResourceClassInfoByResourceId(connection,
+                                                                                                                     accessedResource))
+            .toResourcePermissions();
+   }
+
+   private PermissionMask __getEffectiveResourcePermissionMaskIgnoringSuperUserPrivileges(SQLConnection connection,
+                                                                                          final Resource accessorResource,
+                                                                                          final Resource accessedResource,
+                                                                                          final Id<DomainId> accessedDomainId,
+                                                                                          ResourceClassInternalInfo resourceClassInternalInfo) {
+      final PermissionMask resourcePermissionMask
+            = __newResourcePermissionMask(resourceClassInternalInfo.getResourceClassName());
+
+      final InheritedPermissionCache inheritedPermissionCache = __getInheritedPermissionCache();
+      if (inheritedPermissionCache != null) {
+         final Id<ResourceClassId> accessedResourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
+         final List<Id<DomainId>> ancestorDomainIds = domainPersister.getAncestorDomainIds(connection, accessedDomainId);
+
+         // the accessor's own grants are read directly, those it inherits come from the shared entries
+         resourcePermissionMask.addResourcePermissions(__getDirectResourcePermissionsIncludeGlobal(connection,
+                                                                                                  accessorResource,
+                                                                                                  accessedResource,
+                                                                                                  accessedResourceClassId,
+                                                                                                  ancestorDomainIds));
+
+         for (Resource inheritedResource : grantResourcePermissionSysPersister.getInheritedResources(connection,
+                                                                                                    accessorResource)) {
+            final long generation = inheritedPermissionCache.getGeneration();
+            Set<ResourcePermission> inheritedResourcePermissions
+                  = inheritedPermissionCache.getResourcePermissions(inheritedResource.getId(), accessedResource.getId());
+
+            if (inheritedResourcePermissions == null) {
+               inheritedResourcePermissions = __loadInheritedResourcePermissions(connection,
+                                                                                 inheritedPermissionCache,
+                                                                                 generation,
+                                                                                 inheritedResource,
+                                                                                 accessedResource,
+                                                                                 accessedResourceClassId,
+                                                                                 ancestorDomainIds);
+            }
+            resourcePermissionMask.addResourcePermissions(inheritedResourcePermissions);
+         }
+         return resourcePermissionMask;
+      }
+
+      final Id<ResourceClassId> accessedResourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
+      final List<ParallelQueries.Query<Set<ResourcePermission>>> queries = new ArrayList<>(4);
 
       // collect the system permissions that the accessor resource has to the accessed resource
-      resourcePermissions.addAll(grantResourcePermissionSysPersister
-                                       .getResourceSysPermissionsIncludeInherited(connection,
-                                                                                  accessorResource,
-                                                                                  accessedResource));
+      queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> execute(SQLConnection queryConnection) {
+            return grantResourcePermissionSysPersister.getResourceSysPermissionsIncludeInherited(queryConnection,
+                                                                                                 accessorResource,
+                                                                                                 accessedResource);
+         }
+      });
 
       // collect the non-system permissions that the accessor has to the accessed resource
-      resourcePermissions.addAll(grantResourcePermissionPersister.getResourcePermissionsIncludeInherited(connection,
-                                                                                                         accessorResource,
-                                                                                                         accessedResource));
+      if (__mayHaveNonSysResourcePermissions(connection, accessedResourceClassId)) {
+         queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+            @Override
+            Set<ResourcePermission> execute(SQLConnection queryConnection) {
+               return grantResourcePermissionPersister.getResourcePermissionsIncludeInherited(queryConnection,
+                                                                                              accessorResource,
+                                                                                              accessedResource);
+            }
+         });
+      }
 
-      final Id<DomainId> accessedDomainId = resourcePersister.getDomainIdByResource(connection, accessedResource);
-      final Id<ResourceClassId> accessedResourceClassId
-            = Id.from(resourceClassPersister
-                            .getResourceClassInfoByResourceId(connection, accessedResource)
-                            .getResourceClassId());
-
-      // collect the global system permissions that the accessor has to the accessed resource's domain
-      resourcePermissions
-            .addAll(grantGlobalResourcePermissionSysPersister.getGlobalSysPermissionsIncludeInherited(connection,
-                                                                                                      accessorResource,
-                                                                                                      accessedResourceClassId,
-                                                                                                      accessedDomainId));
+      if (__mayHaveGlobalResourcePermissions(connection, accessedResourceClassId)) {
+         // collect the global system permissions that the accessor has to the accessed resource's domain
+         queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+            @Override
+            Set<ResourcePermission> execute(SQLConnection queryConnection) {
+               return grantGlobalResourcePermissionSysPersister.getGlobalSysPermissionsIncludeInherited(queryConnection,
+                                                                                                       accessorResource,
+                                                                                                       accessedResourceClassId,
+                                                                                                       accessedDomainId);
+            }
+         });
+
+         // collect the global non-system permissions that the accessor has to the accessed resource's domain
+         queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+            @Override
+            Set<ResourcePermission> execute(SQLConnection queryConnection) {
+               return grantGlobalResourcePermissionPersister.getGlobalResourcePermissionsIncludeInherited(queryConnection,
+                                                                                                          accessorResource,
+                                                                                                          accessedResourceClassId,
+                                                                                                          accessedDomainId);
+            }
+         });
+      }
 
-      // first collect the global non-system permissions that the accessor this resource has to the accessed resource's domain
-      resourcePermissions
-            .addAll(grantGlobalResourcePermissionPersister.getGlobalResourcePermissionsIncludeInherited(connection,
-                                                                                                        accessorResource,
-                                                                                                        accessedResourceClassId,
-                                                                                                        accessedDomainId));
-      return __collapseResourcePermissions(resourcePermissions);
+      for (Set<ResourcePermission> resourcePermissions : __executeQueries(connection, queries)) {
+         resourcePermissionMask.addResourcePermissions(resourcePermissions);
+      }
+      return resourcePermissionMask;
    }
 
    @Override
@@ -3954,6 +5605,13 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       // next ensure that the requested permissions are all in the correct resource class
       __assertUniqueGlobalResourcePermissionNamesForResourceClass(connection, requestedResourcePermissions, resourceClassInternalInfo);
 
+      final Set<ResourcePermission>
+            directAccessorPermissions
+            = __getDirectGlobalResourcePermissions(connection,
+                                                   accessorResource,
+                                                   resourceClassId,
+                                                   domainId);
+
       if (!__isSuperUserOfDomain(connection, sessionResource, domainName)) {
          // check if the grantor (=session resource) is authorized to grant the requested permissions
          final Set<ResourcePermission>
@@ -3962,13 +5620,6 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                     sessionResource,
                                                                                     resourceClassName,
                                                                                     domainName);
-         final Set<ResourcePermission>
-               directAccessorPermissions
-               = __getDirectGlobalResourcePermissions(connection,
-                                                      accessorResource,
-                                                      resourceClassId,
-                                                      domainId);
-
          final Set<ResourcePermission>
                requestedAddPermissions
                = __subtract(requestedResourcePermissions, directAccessorPermissions);
@@ -4000,33 +5651,82 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          }
       }
 
-      // revoke any existing system permissions this accessor has to this domain + resource class
-      grantGlobalResourcePermissionSysPersister.removeGlobalSysPermissions(connection,
+      // only write the rows that actually change between the existing and the requested direct permissions
+      final Set<ResourcePermission> addPermissions = new HashSet<>(requestedResourcePermissions.size());
+      final Set<ResourcePermission> updatePermissions = new HashSet<>(requestedResourcePermissions.size());
+      final Set<ResourcePermission> removePermissions = new HashSet<>(directAccessorPermissions.size());
+      __diffDirectPermissions(__mapResourcePermissionsByGrantRow(requestedResourcePermissions),
+                              __mapResourcePermissionsByGrantRow(directAccessorPermissions),
+                              addPermissions,
+                              updatePermissions,
+                              removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         // revoke the system permissions to this domain + resource class that are no longer requested
+         grantGlobalResourcePermissionSysPersister.removeGlobalSysPermissions(connection,
+                                                                              accessorResource,
+                                                                              resourceClassId,
+                                                                              domainId,
+                                                                              removePermissions);
+
+         // revoke the non-system permissions to this domain + resource class that are no longer requested
+         grantGlobalResourcePermissionPersister.removeGlobalResourcePermissions(connection,
+                                                                                accessorResource,
+                                                                                resourceClassId,
+                                                                                domainId,
+                                                                                removePermissions);
+      }
+
+      if (!updatePermissions.isEmpty()) {
+         // update the system permissions whose granting rights changed
+         grantGlobalResourcePermissionSysPersister.updateGlobalSysPermissions(connection,
+                                                                              accessorResource,
+                                                                              resourceClassId,
+                                                                              domainId,
+                                                                              updatePermissions,
+                                                                              sessionResource);
+
+         // update the non-system permissions whose granting rights changed
+         grantGlobalResourcePermissionPersister.updateGlobalResourcePermissions(connection,
+                                                                                accessorResource,
+                                                                                resourceClassId,
+                                                                                domainId,
+                                                                                updatePermissions,
+                                                                                sessionResource);
+      }
+
+      if (!addPermissions.isEmpty()) {
+         // add the new system permissions
+         grantGlobalResourcePermissionSysPersister.addGlobalSysPermissions(connection,
                                                                            accessorResource,
                                                                            resourceClassId,
-                                                                           domainId);
+                                                                           domainId,
+                                                                           addPermissions,
+                                                                           sessionResource);
 
-      // revoke any existing non-system permissions that this grantor gave this accessor to this domain to the resource class
-      grantGlobalResourcePermissionPersister.removeGlobalResourcePermissions(connection,
+         // add the new non-system permissions
+         grantGlobalResourcePermissionPersister.addGlobalResourcePermissions(connection,
                                                                              accessorResource,
                                                                              resourceClassId,
-                                                                             domainId);
-
-      // add the new system permissions
-      grantGlobalResourcePermissionSysPersister.addGlobalSysPermissions(connection,
-                                                                        accessorResource,
-                                                                        resourceClassId,
-                                                                        domainId,
-                                                                        requestedResourcePermissions,
-                                                                        sessionResource);
+                                                                             domainId,
+                                                                             addPermissions,
+                                                                             sessionResource);
+      }
 
-      // add the new non-system permissions
-      grantGlobalResourcePermissionPersister.addGlobalResourcePermissions(connection,
-                                                                          accessorResource,
-                                                                          resourceClassId,
-                                                                          domainId,
-                                                                          requestedResourcePermissions,
-                                                                          sessionResource);
+      if (!removePermissions.isEmpty() || !updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.GLOBAL_RESOURCE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().globalResourcePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            addPermissions,
+                                                                            updatePermissions,
+                                                                            removePermissions);
+      }
    }
 
    private Set<ResourcePermission> __getDirectGlobalResourcePermissions(SQLConnection connection,
@@ -4264,6 +5964,21 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                           domainId,
                                                                           addPermissions,
                                                                           sessionResource);
+
+      if (!updatePermissions.isEmpty() || !addPermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.GLOBAL_RESOURCE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().globalResourcePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            addPermissions,
+                                                                            updatePermissions,
+                                                                            Collections.<ResourcePermission>emptySet());
+      }
    }
 
    @Override
@@ -4402,6 +6117,21 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                              resourceClassId,
                                                                              domainId,
                                                                              removePermissions);
+
+      if (!removePermissions.isEmpty()) {
+         __addChangeLogEntry(connection,
+                             ChangeLogEntry.Kind.GLOBAL_RESOURCE_PERMISSION,
+                             accessorResource,
+                             null,
+                             domainId,
+                             resourceClassId);
+         __getPermissionChangeDispatcher().globalResourcePermissionsChanged(accessorResource,
+                                                                            resourceClassName,
+                                                                            domainName,
+                                                                            Collections.<ResourcePermission>emptySet(),
+                                                                            Collections.<ResourcePermission>emptySet(),
+                                                                            removePermissions);
+      }
    }
 
    @Override
@@ -4491,12 +6221,41 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                                                                                       String resourceClassName,
                                                                                                       String domainName) {
       // verify that resource class is defined
-      final Id<ResourceClassId> resourceClassId = resourceClassPersister.getResourceClassId(connection, resourceClassName);
+      final ResourceClassInternalInfo resourceClassInternalInfo = __getResourceClassInternalInfo(connection,
+                                                                                                 resourceClassName);
 
-      if (resourceClassId == null) {
-         throw new IllegalArgumentException("Could not find resource class: " + resourceClassName);
+      // verify the domain
+      final Id<DomainId> domainId = domainPersister.getResourceDomainId(connection, domainName);
+
+      if (domainId == null) {
+         throw new IllegalArgumentException("Could not find domain: " + domainName);
       }
 
+      return __getEffectiveGlobalResourcePermissionMaskIgnoringSuperUserPrivileges(connection,
+                                                                                   accessorResource,
+                                                                                   resourceClassInternalInfo,
+                                                                                   domainId)
+            .toResourcePermissions();
+   }
+
+   private Set<ResourcePermission> __getEffectiveGlobalResourcePermissions(SQLConnection connection,
+                                                                           Resource accessorResource,
+                                                                           String resourceClassName,
+                                                                           String domainName) {
+      return __getEffectiveGlobalResourcePermissionMask(connection,
+                                                        accessorResource,
+                                                        resourceClassName,
+                                                        domainName).toResourcePermissions();
+   }
+
+   private PermissionMask __getEffectiveGlobalResourcePermissionMask(SQLConnection connection,
+                                                                     Resource accessorResource,
+                                                                     String resourceClassName,
+                                                                     String domainName) {
+      // verify that resource class is defined
+      final ResourceClassInternalInfo resourceClassInternalInfo = __getResourceClassInternalInfo(connection,
+                                                                                                 resourceClassName);
+
       // verify the domain
       final Id<DomainId> domainId = domainPersister.getResourceDomainId(connection, domainName);
 
@@ -4504,74 +6263,210 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
          throw new IllegalArgumentException("Could not find domain: " + domainName);
       }
 
-      Set<ResourcePermission> resourcePermissions = new HashSet<>();
+      if (__isSuperUserOfDomain(connection, accessorResource, domainName)) {
+         return __getApplicableResourcePermissionMask(connection, resourceClassInternalInfo);
+      }
+
+      return __getEffectiveGlobalResourcePermissionMaskIgnoringSuperUserPrivileges(connection,
+                                                                                   accessorResource,
+                                                                                   resourceClassInternalInfo,
+                                                                                   domainId);
+   }
+
+   private PermissionMask __getEffectiveGlobalResourcePermissionMaskIgnoringSuperUserPrivileges(SQLConnection connection,
+                                                                                                final Resource accessorResource,
+                                                                                                ResourceClassInternalInfo resourceClassInternalInfo,
+                                                                                                final Id<DomainId> domainId) {
+      final Id<ResourceClassId> resourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
+      final PermissionMask resourcePermissionMask
+            = __newResourcePermissionMask(resourceClassInternalInfo.getResourceClassName());
+
+      final InheritedPermissionCache inheritedPermissionCache = __getInheritedPermissionCache();
+      if (inheritedPermissionCache != null) {
+         final List<Id<DomainId>> ancestorDomainIds = domainPersister.getAncestorDomainIds(connection, domainId);
+
+         // the accessor's own grants are read directly, those it inherits come from the shared entries
+         resourcePermissionMask.addResourcePermissions(__getDirectGlobalResourcePermissions(connection,
+                                                                                           accessorResource,
+                                                                                           resourceClassId,
+                                                                                           ancestorDomainIds));
+
+         for (Resource inheritedResource : grantResourcePermissionSysPersister.getInheritedResources(connection,
+                                                                                                    accessorResource)) {
+            final long generation = inheritedPermissionCache.getGeneration();
+            Set<ResourcePermission> inheritedResourcePermissions
+                  = inheritedPermissionCache.getGlobalResourcePermissions(inheritedResource.getId(),
+                                                                          resourceClassId.getValue(),
+                                                                          domainId.getValue());
+
+            if (inheritedResourcePermissions == null) {
+               inheritedResourcePermissions = __loadInheritedGlobalResourcePermissions(connection,
+                                                                                       inheritedPermissionCache,
+                                                                                       generation,
+                                                                                       inheritedResource,
+                                                                                       resourceClassId,
+                                                                                       domainId,
+                                                                                       ancestorDomainIds);
+            }
+            resourcePermissionMask.addResourcePermissions(inheritedResourcePermissions);
+         }
+         return resourcePermissionMask;
+      }
+
+      if (!__mayHaveGlobalResourcePermissions(connection, resourceClassId)) {
+         return resourcePermissionMask;
+      }
+
+      final List<ParallelQueries.Query<Set<ResourcePermission>>> queries = new ArrayList<>(2);
 
       // first collect the system permissions that the accessor has to the accessed resource
-      resourcePermissions.addAll(grantGlobalResourcePermissionSysPersister
-                                       .getGlobalSysPermissionsIncludeInherited(connection,
-                                                                                accessorResource,
-                                                                                resourceClassId,
-                                                                                domainId));
+      queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> execute(SQLConnection queryConnection) {
+            return grantGlobalResourcePermissionSysPersister.getGlobalSysPermissionsIncludeInherited(queryConnection,
+                                                                                                    accessorResource,
+                                                                                                    resourceClassId,
+                                                                                                    domainId);
+         }
+      });
+
+      // then collect the non-system permissions that the accessor has to the accessed resource
+      queries.add(new ParallelQueries.Query<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> execute(SQLConnection queryConnection) {
+            return grantGlobalResourcePermissionPersister.getGlobalResourcePermissionsIncludeInherited(queryConnection,
+                                                                                                       accessorResource,
+                                                                                                       resourceClassId,
+                                                                                                       domainId);
+         }
+      });
 
-      // first collect the non-system permissions that the accessor this resource has to the accessor resource
-      resourcePermissions.addAll(grantGlobalResourcePermissionPersister
-                                       .getGlobalResourcePermissionsIncludeInherited(connection,
-                                                                                     accessorResource,
-                                                                                     resourceClassId,
-                                                                                     domainId));
-      return __collapseResourcePermissions(resourcePermissions);
+      for (Set<ResourcePermission> resourcePermissions : __executeQueries(connection, queries)) {
+         resourcePermissionMask.addResourcePermissions(resourcePermissions);
+      }
+      return resourcePermissionMask;
    }
 
-   private Set<ResourcePermission> __getEffectiveGlobalResourcePermissions(SQLConnection connection,
-                                                                           Resource accessorResource,
-                                                                           String resourceClassName,
-                                                                           String domainName) {
-      // verify that resource class is defined
-      final ResourceClassInternalInfo resourceClassInternalInfo = __getResourceClassInternalInfo(connection,
-                                                                                                 resourceClassName);
+   private Set<ResourcePermission> __getDirectResourcePermissionsIncludeGlobal(SQLConnection connection,
+                                                                               Resource accessorResource,
+                                                                               Resource accessedResource,
+                                                                               Id<ResourceClassId> accessedResourceClassId,
+                                                                               List<Id<DomainId>> ancestorDomainIds) {
+      final Set<ResourcePermission> resourcePermissions = new HashSet<>();
 
-      // verify the domain
-      final Id<DomainId> domainId = domainPersister.getResourceDomainId(connection, domainName);
+      resourcePermissions.addAll(grantResourcePermissionSysPersister.getResourceSysPermissions(connection,
+                                                                                              accessorResource,
+                                                                                              accessedResource));
+      if (__mayHaveNonSysResourcePermissions(connection, accessedResourceClassId)) {
+         resourcePermissions.addAll(grantResourcePermissionPersister.getResourcePermissions(connection,
+                                                                                           accessorResource,
+                                                                                           accessedResource));
+      }
+      resourcePermissions.addAll(__getDirectGlobalResourcePermissions(connection,
+                                                                      accessorResource,
+                                                                      accessedResourceClassId,
+                                                                      ancestorDomainIds));
+      return resourcePermissions;
+   }
 
-      if (domainId == null) {
-         throw new IllegalArgumentException("Could not find domain: " + domainName);
+   private Set<ResourcePermission> __getDirectGlobalResourcePermissions(SQLConnection connection,
+                                                                        Resource accessorResource,
+                                                                        Id<ResourceClassId> resourceClassId,
+                                                                        List<Id<DomainId>> ancestorDomainIds) {
+      final Set<ResourcePermission> resourcePermissions = new HashSet<>();
+      if (!__mayHaveGlobalResourcePermissions(connection, resourceClassId)) {
+         return resourcePermissions;
       }
 
-      if (__isSuperUserOfDomain(connection, accessorResource, domainName)) {
-         return __getApplicableResourcePermissions(connection, resourceClassInternalInfo);
+      // global permissions on a domain also apply to all its descendant domains
+      for (Id<DomainId> ancestorDomainId : ancestorDomainIds) {
+         resourcePermissions.addAll(grantGlobalResourcePermissionSysPersister.getGlobalSysPermissions(connection,
+                                                                                                     accessorResource,
+                                                                                                     resourceClassId,
+                                                                                                     ancestorDomainId));
+         resourcePermissions.addAll(grantGlobalResourcePermissionPersister.getGlobalResourcePermissions(connection,
+                                                                                                       accessorResource,
+                                                                                                       resourceClassId,
+                                                                                                       ancestorDomainId));
       }
+      return resourcePermissions;
+   }
 
-      final Id<ResourceClassId> resourceClassId = Id.from(resourceClassInternalInfo.getResourceClassId());
-      Set<ResourcePermission> resourcePermissions = new HashSet<>();
-
-      // first collect the system permissions that the accessor has to the accessed resource
-      resourcePermissions.addAll(grantGlobalResourcePermissionSysPersister
-                                       .getGlobalSysPermissionsIncludeInherited(connection,
-                                                                                accessorResource,
-                                                                                resourceClassId,
-                                                                                domainId));
-
-      // first collect the non-system permissions that the accessor this resource has to the accessor resource
-      resourcePermissions.addAll(grantGlobalResourcePermissionPersister
-                                       .getGlobalResourcePermissionsIncludeInherited(connection,
-                                                                                     accessorResource,
-                                                                                     resourceClassId,
-                                                                                     domainId));
-      return __collapseResourcePermissions(resourcePermissions);
+   // concurrent checks that miss the same cache entry share a single lookup of the inherited grants
+   private Set<ResourcePermission> __loadInheritedResourcePermissions(final SQLConnection connection,
+                                                                      final InheritedPermissionCache inheritedPermissionCache,
+                                                                      final long generation,
+                                                                      final Resource inheritedResource,
+                                                                      final Resource accessedResource,
+                                                                      final Id<ResourceClassId> accessedResourceClassId,
+                                                                      final List<Id<DomainId>> ancestorDomainIds) {
+      final SingleFlight.Loader<Set<ResourcePermission>> loader = new SingleFlight.Loader<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> load() {
+            final Set<ResourcePermission> resourcePermissions
+                  = __getDirectResourcePermissionsIncludeGlobal(connection,
+                                                                inheritedResource,
+                                                                accessedResource,
+                                                                accessedResourceClassId,
+                                                                ancestorDomainIds);
+            inheritedPermissionCache.putResourcePermissions(generation,
+                                                            inheritedResource.getId(),
+                                                            accessedResource.getId(),
+                                                            resourcePermissions);
+            return resourcePermissions;
+         }
+      };
+      return inheritedPermissionCache.loadResourcePermissions(generation,
+                                                              inheritedResource.getId(),
+                                                              accessedResource.getId(),
+                                                              loader);
+   }
+
+   private Set<ResourcePermission> __loadInheritedGlobalResourcePermissions(final SQLConnection connection,
+                                                                            final InheritedPermissionCache inheritedPermissionCache,
+                                                                            final long generation,
+                                                                            final Resource inheritedResource,
+                                                                            final Id<ResourceClassId> resourceClassId,
+                                                                            final Id<DomainId> domainId,
+                                                                            final List<Id<DomainId>> ancestorDomainIds) {
+      final SingleFlight.Loader<Set<ResourcePermission>> loader = new SingleFlight.Loader<Set<ResourcePermission>>() {
+         @Override
+         Set<ResourcePermission> load() {
+            final Set<ResourcePermission> resourcePermissions
+                  = __getDirectGlobalResourcePermissions(connection,
+                                                         inheritedResource,
+                                                         resourceClassId,
+                                                         ancestorDomainIds);
+            inheritedPermissionCache.putGlobalResourcePermissions(generation,
+                                                                  inheritedResource.getId(),
+                                                                  resourceClassId.getValue(),
+                                                                  domainId.getValue(),
+                                                                  resourcePermissions);
+            return resourcePermissions;
+         }
+      };
+      return inheritedPermissionCache.loadGlobalResourcePermissions(generation,
+                                                                    inheritedResource.getId(),
+                                                                    resourceClassId.getValue(),
+                                                                    domainId.getValue(),
+                                                                    loader);
    }
 
    private Set<ResourcePermission> __getApplicableResourcePermissions(SQLConnection connection,
                                                                       ResourceClassInternalInfo resourceClassInternalInfo) {
-      final List<String> resourcePermissionNames
-            = __getApplicableResourcePermissionNames(connection, resourceClassInternalInfo);
+      return __getApplicableResourcePermissionMask(connection, resourceClassInternalInfo).toResourcePermissions();
+   }
 
-      Set<ResourcePermission> superResourcePermissions = new HashSet<>(resourcePermissionNames.size());
+   private PermissionMask __getApplicableResourcePermissionMask(SQLConnection connection,
+                                                                ResourceClassInternalInfo resourceClassInternalInfo) {
+      final PermissionMask superResourcePermissionMask
+            = __newResourcePermissionMask(resourceClassInternalInfo.getResourceClassName());
 
-      for (String permissionName : resourcePermissionNames) {
-         superResourcePermissions.add(ResourcePermissions.getInstanceWithGrantOption(permissionName));
+      for (String permissionName : __getApplicableResourcePermissionNames(connection, resourceClassInternalInfo)) {
+         superResourcePermissionMask.add(permissionName, true);
       }
 
-      return superResourcePermissions;
+      return superResourcePermissionMask;
    }
 
    private Set<ResourceCreatePermission> __getApplicableResourceCreatePermissions(SQLConnection connection,
@@ -4593,19 +6488,12 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return superResourceCreatePermissions;
    }
 
-   private Set<ResourcePermission> __collapseResourcePermissions(Set<ResourcePermission> resourcePermissions) {
-      final Set<ResourcePermission> collapsedPermissions = new HashSet<>(resourcePermissions);
+   private Set<ResourcePermission> __collapseResourcePermissions(String resourceClassName,
+                                                                 Set<ResourcePermission> resourcePermissions) {
+      final PermissionMask resourcePermissionMask = __newResourcePermissionMask(resourceClassName);
+      resourcePermissionMask.addResourcePermissions(resourcePermissions);
 
-      for (ResourcePermission permission : resourcePermissions) {
-         for (ResourcePermission grantEquivalentPermission : resourcePermissions) {
-            if (permission.isGrantableFrom(grantEquivalentPermission) && !permission.equals(grantEquivalentPermission)) {
-               collapsedPermissions.remove(permission);
-               break;
-            }
-         }
-      }
-
-      return collapsedPermissions;
+      return resourcePermissionMask.toResourcePermissions();
    }
 
    @Override
@@ -4757,6 +6645,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                resourcePermissionsByResourceClassEntry : resourcePermissionsByResourceClassMap.entrySet()) {
             resourcePermissionsByResourceClassMap.put(resourcePermissionsByResourceClassEntry.getKey(),
                                                       __collapseResourcePermissions(resourcePermissionsByResourceClassEntry
+                                                                                          .getKey(),
+                                                                                    resourcePermissionsByResourceClassEntry
                                                                                           .getValue()));
          }
       }
@@ -4807,6 +6697,12 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   @Override
+   public Iterator<String> iterateDomainDescendants(String domainName) {
+      // domain hierarchies are small, so the descendants are read eagerly and only handed out one by one
+      return Collections.unmodifiableSet(getDomainDescendants(domainName)).iterator();
+   }
+
    @Override
    public ResourceClassInfo getResourceClassInfo(String resourceClassName) {
       SQLConnection connection = null;
@@ -4956,35 +6852,19 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
 
       if (hasPermission) {
          // check if the requested permissions are permissible from the set of effective post-create permissions
-         final Set<DomainPermission> postCreateDomainPermissions
-               = __getPostCreateDomainPermissions(effectiveDomainCreatePermissions);
+         final PermissionMask postCreateDomainPermissionMask = PermissionMask.newDomainPermissionMask();
+         postCreateDomainPermissionMask
+               .addDomainPermissions(__getPostCreateDomainPermissions(effectiveDomainCreatePermissions));
 
-         for (DomainPermission requestedDomainPermission : requestedDomainPermissions) {
-            if (!__isPermissible(requestedDomainPermission, postCreateDomainPermissions)) {
-               hasPermission = false;
-               break;
-            }
-         }
+         hasPermission = postCreateDomainPermissionMask.isPermissibleDomainPermissions(requestedDomainPermissions);
 
          if (!hasPermission) {
-            hasPermission = postCreateDomainPermissions.contains(DomainPermission_SUPER_USER)
-                  || postCreateDomainPermissions.contains(DomainPermission_SUPER_USER_GRANT);
+            hasPermission = postCreateDomainPermissionMask.isPermissible(DomainPermissions.SUPER_USER, false);
          }
       }
       return hasPermission;
    }
 
-   private boolean __isPermissible(DomainPermission queriedDomainPermission,
-                                   Set<DomainPermission> domainPermissions) {
-      for (DomainPermission domainPermission : domainPermissions) {
-         if (queriedDomainPermission.equals(domainPermission)
-               || queriedDomainPermission.isGrantableFrom(domainPermission)) {
-            return true;
-         }
-      }
-      return false;
-   }
-
    @Override
    public void assertDomainPermissions(Resource accessorResource,
                                        String domainName,
@@ -5068,17 +6948,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       __assertQueryAuthorization(connection, accessorResource);
 
       // first check for effective permissions
-      final Set<DomainPermission> effectiveDomainPermissions = __getEffectiveDomainPermissions(connection,
-                                                                                               accessorResource,
-                                                                                               domainName);
-      boolean hasPermission = true;
-
-      for (DomainPermission domainPermission : requestedDomainPermissions) {
-         if (!__isPermissible(domainPermission, effectiveDomainPermissions)) {
-            hasPermission = false;
-            break;
-         }
-      }
+      boolean hasPermission = __getEffectiveDomainPermissionMask(connection, accessorResource, domainName)
+            .isPermissibleDomainPermissions(requestedDomainPermissions);
 
       // next check super-user permissions to the domain of the accessed resource
       if (!hasPermission) {
@@ -5316,28 +7187,30 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
 
       if (hasPermission) {
          // check if the requested permission is permissible from the set of effective post-create permissions
-         final Set<ResourcePermission> postCreateResourcePermissions
-               = __getPostCreateResourcePermissions(effectiveResourceCreatePermissions);
+         final PermissionMask postCreateResourcePermissionMask
+               = __newResourcePermissionMask(resourceClassName);
+         postCreateResourcePermissionMask
+               .addResourcePermissions(__getPostCreateResourcePermissions(effectiveResourceCreatePermissions));
 
          final Set<ResourcePermission> nonPostCreateResourcePermissions
                = new HashSet<>(requestedResourcePermissions.size());
 
          for (ResourcePermission requestedResourcePermission : requestedResourcePermissions) {
-            if (!__isPermissible(requestedResourcePermission, postCreateResourcePermissions)) {
+            if (!postCreateResourcePermissionMask.isPermissible(requestedResourcePermission)) {
                nonPostCreateResourcePermissions.add(requestedResourcePermission);
             }
          }
 
          if (!nonPostCreateResourcePermissions.isEmpty()) {
             // check if the requested permission is permissible from the set of effective global permissions
-            final Set<ResourcePermission> globalResourcePermissions
-                  = __getEffectiveGlobalResourcePermissions(connection,
-                                                            accessorResource,
-                                                            resourceClassName,
-                                                            domainName);
+            final PermissionMask globalResourcePermissionMask
+                  = __getEffectiveGlobalResourcePermissionMask(connection,
+                                                               accessorResource,
+                                                               resourceClassName,
+                                                               domainName);
 
             for (ResourcePermission requestedResourcePermission : nonPostCreateResourcePermissions) {
-               if (!__isPermissible(requestedResourcePermission, globalResourcePermissions)) {
+               if (!globalResourcePermissionMask.isPermissible(requestedResourcePermission)) {
                   hasPermission = false;
                   break;
                }
@@ -5352,17 +7225,6 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return hasPermission;
    }
 
-   private boolean __isPermissible(ResourcePermission queriedResourcePermission,
-                                   Set<ResourcePermission> resourcePermissions) {
-      for (ResourcePermission resourcePermission : resourcePermissions) {
-         if (queriedResourcePermission.equals(resourcePermission)
-               || queriedResourcePermission.isGrantableFrom(resourcePermission)) {
-            return true;
-         }
-      }
-      return false;
-   }
-
    @Override
    public void assertGlobalResourcePermissions(Resource accessorResource,
                                                String resourceClassName,
@@ -5474,19 +7336,12 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       __assertPermissionsValid(connection, resourceClassName, requestedResourcePermissions);
       __assertQueryAuthorization(connection, accessorResource);
 
-      final Set<ResourcePermission>
-            globalResourcePermissions = __getEffectiveGlobalResourcePermissions(connection,
-                                                                                accessorResource,
-                                                                                resourceClassName,
-                                                                                domainName);
-      boolean hasPermission = true;
-
-      for (ResourcePermission requestedResourcePermission : requestedResourcePermissions) {
-         if (!__isPermissible(requestedResourcePermission, globalResourcePermissions)) {
-            hasPermission = false;
-            break;
-         }
-      }
+      final PermissionMask
+            globalResourcePermissionMask = __getEffectiveGlobalResourcePermissionMask(connection,
+                                                                                      accessorResource,
+                                                                                      resourceClassName,
+                                                                                      domainName);
+      boolean hasPermission = globalResourcePermissionMask.isPermissibleResourcePermissions(requestedResourcePermissions);
 
       if (!hasPermission) {
          hasPermission = __isSuperUserOfDomain(connection, accessorResource, domainName);
@@ -5532,6 +7387,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
 
       final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermission(resourcePermissions);
 
+      final CheckCoalescer checkCoalescer = __getCheckCoalescer();
+      if (checkCoalescer != null) {
+         return __hasResourcePermissionsCoalesced(checkCoalescer,
+                                                  accessorResource,
+                                                  accessedResource,
+                                                  normalizedResourcePermissions);
+      }
+
       try {
          connection = __getConnection();
          accessorResource = __resolveResource(connection, accessorResource);
@@ -5560,6 +7423,14 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       final Set<ResourcePermission> normalizedResourcePermissions
             = __normalizeResourcePermission(__getSetWithoutNullsOrDuplicates(resourcePermission, resourcePermissions));
 
+      final CheckCoalescer checkCoalescer = __getCheckCoalescer();
+      if (checkCoalescer != null) {
+         return __hasResourcePermissionsCoalesced(checkCoalescer,
+                                                  accessorResource,
+                                                  accessedResource,
+                                                  normalizedResourcePermissions);
+      }
+
       try {
          connection = __getConnection();
          accessorResource = __resolveResource(connection, accessorResource);
@@ -5572,6 +7443,213 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   private boolean __hasResourcePermissionsCoalesced(CheckCoalescer checkCoalescer,
+                                                     Resource accessorResource,
+                                                     Resource accessedResource,
+                                                     Set<ResourcePermission> requestedResourcePermissions) {
+      return checkCoalescer.submit(new ResourcePermissionCheck(this,
+                                                               accessorResource,
+                                                               accessedResource,
+                                                               requestedResourcePermissions),
+                                   new CheckCoalescer.BatchEvaluator() {
+                                      @Override
+                                      void evaluate(List<CheckCoalescer.Check> checks) {
+                                         __hasResourcePermissionsInBatch(checks);
+                                      }
+                                   });
+   }
+
+   private void __hasResourcePermissionsInBatch(List<CheckCoalescer.Check> checks) {
+      SQLConnection connection = null;
+
+      try {
+         connection = __getConnection();
+
+         // resolve the resources of each check on behalf of the context that made it, except for accessed
+         // resources specified only by id, which are resolved by the bulk lookup of their resource classes
+         final Set<Resource> accessedResources = new HashSet<>(checks.size());
+         for (CheckCoalescer.Check check : checks) {
+            final ResourcePermissionCheck resourcePermissionCheck = (ResourcePermissionCheck) check;
+            final SQLAccessControlContext context = resourcePermissionCheck.context;
+            try {
+               resourcePermissionCheck.accessorResource
+                     = context.__resolveResource(connection, resourcePermissionCheck.accessorResource);
+               if (resourcePermissionCheck.accessedResource.getId() == null
+                     || resourcePermissionCheck.accessedResource.getExternalId() != null) {
+                  resourcePermissionCheck.accessedResource
+                        = context.__resolveResource(connection, resourcePermissionCheck.accessedResource);
+               }
+               accessedResources.add(resourcePermissionCheck.accessedResource);
+            }
+            catch (RuntimeException e) {
+               check.fail(e);
+            }
+         }
+
+         final Map<Resource, ResourceClassInternalInfo> resourceClassInternalInfos
+               = resourceClassPersister.getResourceClassInfosByResourceIds(connection, accessedResources);
+
+         // validate each check as the context that made it would, and group the valid checks by accessor
+         final Map<Resource, List<ResourcePermissionCheck>> checksByAccessorResource = new HashMap<>();
+         for (CheckCoalescer.Check check : checks) {
+            if (check.isCompleted()) {
+               continue;
+            }
+
+            final ResourcePermissionCheck resourcePermissionCheck = (ResourcePermissionCheck) check;
+            try {
+               resourcePermissionCheck.resourceClassInternalInfo
+                     = resourceClassInternalInfos.get(resourcePermissionCheck.accessedResource);
+               if (resourcePermissionCheck.resourceClassInternalInfo == null) {
+                  throw new IllegalArgumentException("Resource " + resourcePermissionCheck.accessedResource
+                                                           + " not found!");
+               }
+               resourcePermissionCheck.context.__assertQueryAuthorization(connection,
+                                                                          resourcePermissionCheck.accessorResource);
+               __assertPermissionsValid(connection,
+                                        resourcePermissionCheck.resourceClassInternalInfo.getResourceClassName(),
+                                        resourcePermissionCheck.requestedResourcePermissions);
+            }
+            catch (RuntimeException e) {
+               check.fail(e);
+               continue;
+            }
+
+            List<ResourcePermissionCheck> accessorChecks
+                  = checksByAccessorResource.get(resourcePermissionCheck.accessorResource);
+            if (accessorChecks == null) {
+               accessorChecks = new ArrayList<>();
+               checksByAccessorResource.put(resourcePermissionCheck.accessorResource, accessorChecks);
+            }
+            accessorChecks.add(resourcePermissionCheck);
+         }
+
+         for (Map.Entry<Resource, List<ResourcePermissionCheck>> accessorChecksEntry
+               : checksByAccessorResource.entrySet()) {
+            try {
+               __hasResourcePermissionsInBatch(connection, accessorChecksEntry.getKey(), accessorChecksEntry.getValue());
+            }
+            catch (RuntimeException e) {
+               for (ResourcePermissionCheck resourcePermissionCheck : accessorChecksEntry.getValue()) {
+                  if (!resourcePermissionCheck.isCompleted()) {
+                     resourcePermissionCheck.fail(e);
+                  }
+               }
+            }
+         }
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   private void __hasResourcePermissionsInBatch(SQLConnection connection,
+                                                Resource accessorResource,
+                                                List<ResourcePermissionCheck> checks) {
+      final Set<Resource> accessedResources = new HashSet<>(checks.size());
+      for (ResourcePermissionCheck check : checks) {
+         accessedResources.add(check.accessedResource);
+      }
+      final Map<Resource, Id<DomainId>> domainIds = resourcePersister.getDomainIdsByResources(connection,
+                                                                                             accessedResources);
+
+      // the super-user check is made once per domain, and only the resources outside of those domains are queried
+      final Map<Id<DomainId>, Boolean> isSuperUserByDomainId = new HashMap<>();
+      final List<ResourcePermissionCheck> remainingChecks = new ArrayList<>(checks.size());
+      final Set<Resource> remainingAccessedResources = new HashSet<>(checks.size());
+      final Set<Resource> nonSysAccessedResources = new HashSet<>(checks.size());
+
+      for (ResourcePermissionCheck check : checks) {
+         final Id<DomainId> accessedDomainId = domainIds.get(check.accessedResource);
+         Boolean isSuperUser = isSuperUserByDomainId.get(accessedDomainId);
+
+         if (isSuperUser == null) {
+            isSuperUser = __isSuperUserOfDomain(connection, accessorResource, accessedDomainId);
+            isSuperUserByDomainId.put(accessedDomainId, isSuperUser);
+         }
+
+         if (isSuperUser) {
+            check.complete(true);
+         }
+         else {
+            remainingChecks.add(check);
+            remainingAccessedResources.add(check.accessedResource);
+            if (__mayHaveNonSysResourcePermissions(connection,
+                                                   Id.<ResourceClassId>from(check.resourceClassInternalInfo
+                                                                                  .getResourceClassId()))) {
+               nonSysAccessedResources.add(check.accessedResource);
+            }
+         }
+      }
+
+      if (remainingChecks.isEmpty()) {
+         return;
+      }
+
+      // collect the permissions that the accessor has to all the remaining accessed resources with one query each
+      final Map<Resource, Set<ResourcePermission>> resourceSysPermissionsMap
+            = grantResourcePermissionSysPersister.getResourceSysPermissionsIncludeInherited(connection,
+                                                                                            accessorResource,
+                                                                                            remainingAccessedResources);
+      final Map<Resource, Set<ResourcePermission>> resourcePermissionsMap
+            = nonSysAccessedResources.isEmpty()
+              ? Collections.<Resource, Set<ResourcePermission>>emptyMap()
+              : grantResourcePermissionPersister.getResourcePermissionsIncludeInherited(connection,
+                                                                                        accessorResource,
+                                                                                        nonSysAccessedResources);
+
+      // the global permissions are collected once per resource class and domain
+      final Map<Id<ResourceClassId>, Map<Id<DomainId>, Set<ResourcePermission>>> globalResourcePermissionsMap
+            = new HashMap<>();
+
+      for (ResourcePermissionCheck check : remainingChecks) {
+         final PermissionMask resourcePermissionMask
+               = __newResourcePermissionMask(check.resourceClassInternalInfo.getResourceClassName());
+
+         final Set<ResourcePermission> resourceSysPermissions = resourceSysPermissionsMap.get(check.accessedResource);
+         if (resourceSysPermissions != null) {
+            resourcePermissionMask.addResourcePermissions(resourceSysPermissions);
+         }
+
+         final Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(check.accessedResource);
+         if (resourcePermissions != null) {
+            resourcePermissionMask.addResourcePermissions(resourcePermissions);
+         }
+
+         final Id<ResourceClassId> accessedResourceClassId
+               = Id.from(check.resourceClassInternalInfo.getResourceClassId());
+         if (__mayHaveGlobalResourcePermissions(connection, accessedResourceClassId)) {
+            final Id<DomainId> accessedDomainId = domainIds.get(check.accessedResource);
+
+            Map<Id<DomainId>, Set<ResourcePermission>> globalResourcePermissionsByDomainId
+                  = globalResourcePermissionsMap.get(accessedResourceClassId);
+            if (globalResourcePermissionsByDomainId == null) {
+               globalResourcePermissionsByDomainId = new HashMap<>();
+               globalResourcePermissionsMap.put(accessedResourceClassId, globalResourcePermissionsByDomainId);
+            }
+
+            Set<ResourcePermission> globalResourcePermissions = globalResourcePermissionsByDomainId.get(accessedDomainId);
+            if (globalResourcePermissions == null) {
+               globalResourcePermissions = new HashSet<>();
+               globalResourcePermissions.addAll(grantGlobalResourcePermissionSysPersister
+                                                      .getGlobalSysPermissionsIncludeInherited(connection,
+                                                                                               accessorResource,
+                                                                                               accessedResourceClassId,
+                                                                                               accessedDomainId));
+               globalResourcePermissions.addAll(grantGlobalResourcePermissionPersister
+                                                      .getGlobalResourcePermissionsIncludeInherited(connection,
+                                                                                                    accessorResource,
+                                                                                                    accessedResourceClassId,
+                                                                                                    accessedDomainId));
+               globalResourcePermissionsByDomainId.put(accessedDomainId, globalResourcePermissions);
+            }
+            resourcePermissionMask.addResourcePermissions(globalResourcePermissions);
+         }
+
+         check.complete(resourcePermissionMask.isPermissibleResourcePermissions(check.requestedResourcePermissions));
+      }
+   }
+
    private boolean __hasResourcePermissions(SQLConnection connection,
                                             Resource accessorResource,
                                             Resource accessedResource,
@@ -5585,19 +7663,8 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
                                requestedResourcePermissions);
 
       // first check for effective permissions
-      final Set<ResourcePermission> effectiveResourcePermissions
-            = __getEffectiveResourcePermissions(connection,
-                                                accessorResource,
-                                                accessedResource);
-
-      boolean hasPermission = true;
-
-      for (ResourcePermission requestedResourcePermission : requestedResourcePermissions) {
-         if (!__isPermissible(requestedResourcePermission, effectiveResourcePermissions)) {
-            hasPermission = false;
-            break;
-         }
-      }
+      boolean hasPermission = __getEffectiveResourcePermissionMask(connection, accessorResource, accessedResource)
+            .isPermissibleResourcePermissions(requestedResourcePermissions);
 
       // next check super-user permissions to the domain of the accessed resource
       if (!hasPermission) {
@@ -5803,22 +7870,189 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       final Set<ResourcePermission> normalizedResourcePermissions
             = __normalizeResourcePermission(__getSetWithoutNullsOrDuplicates(resourcePermission, resourcePermissions));
 
-      try {
-         connection = __getConnection();
+      try {
+         connection = __getConnection();
+
+         accessorResource = __resolveResource(connection, accessorResource);
+         __assertQueryAuthorization(connection, accessorResource);
+
+         resourceClassName = resourceClassName.trim();
+
+         return __getResourcesByPermissions(connection,
+                                            accessorResource,
+                                            resourceClassName,
+                                            normalizedResourcePermissions);
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   Set<ResourcePermission> resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourceSpecified(accessorResource);
+      __assertResourceClassSpecified(resourceClassName);
+      __assertPermissionsSpecified(resourcePermissions);
+      __assertPermissionsSetNotEmpty(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermission(resourcePermissions);
+
+      try {
+         connection = __getConnection();
+
+         accessorResource = __resolveResource(connection, accessorResource);
+         __assertQueryAuthorization(connection, accessorResource);
+
+         resourceClassName = resourceClassName.trim();
+
+         return new ResourceCursorIterator(__getResourceCursorByPermissions(connection,
+                                                                            accessorResource,
+                                                                            resourceClassName,
+                                                                            normalizedResourcePermissions));
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   @Override
+   public Iterator<Resource> iterateResourcesByResourcePermissions(Resource accessorResource,
+                                                                   String resourceClassName,
+                                                                   ResourcePermission resourcePermission,
+                                                                   ResourcePermission... resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourceSpecified(accessorResource);
+      __assertResourceClassSpecified(resourceClassName);
+      __assertPermissionSpecified(resourcePermission);
+      __assertVarargPermissionsSpecified(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions
+            = __normalizeResourcePermission(__getSetWithoutNullsOrDuplicates(resourcePermission, resourcePermissions));
+
+      try {
+         connection = __getConnection();
+
+         accessorResource = __resolveResource(connection, accessorResource);
+         __assertQueryAuthorization(connection, accessorResource);
+
+         resourceClassName = resourceClassName.trim();
+
+         return new ResourceCursorIterator(__getResourceCursorByPermissions(connection,
+                                                                            accessorResource,
+                                                                            resourceClassName,
+                                                                            normalizedResourcePermissions));
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   private ResourceCursor __getResourceCursorByPermissions(SQLConnection connection,
+                                                           final Resource accessorResource,
+                                                           String resourceClassName,
+                                                           Set<ResourcePermission> requestedResourcePermissions) {
+      // first verify that resource class is defined
+      final Id<ResourceClassId> resourceClassId = resourceClassPersister.getResourceClassId(connection,
+                                                                                            resourceClassName);
+
+      if (resourceClassId == null) {
+         throw new IllegalArgumentException("Could not find resource class: " + resourceClassName);
+      }
+
+      // verify permissions are valid for resource class
+      __assertPermissionsValid(connection, resourceClassName, requestedResourcePermissions);
+
+      // the resources reachable by each permission are those reachable via direct or via global permissions
+      final List<ResourceCursor> permissionCursors = new ArrayList<>(requestedResourcePermissions.size());
+
+      for (final ResourcePermission resourcePermission : requestedResourcePermissions) {
+         final List<ResourceCursor> grantCursors = new ArrayList<>(2);
 
-         accessorResource = __resolveResource(connection, accessorResource);
-         __assertQueryAuthorization(connection, accessorResource);
+         if (resourcePermission.isSystemPermission()) {
+            grantCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantResourcePermissionSysPersister.getResourcesByResourceSysPermission(connection,
+                                                                                                 accessorResource,
+                                                                                                 resourceClassId,
+                                                                                                 resourcePermission,
+                                                                                                 afterResourceId,
+                                                                                                 maxResources);
+               }
+            });
+            grantCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantGlobalResourcePermissionSysPersister.getResourcesByGlobalSysPermission(connection,
+                                                                                                     accessorResource,
+                                                                                                     resourceClassId,
+                                                                                                     resourcePermission,
+                                                                                                     afterResourceId,
+                                                                                                     maxResources);
+               }
+            });
+         }
+         else {
+            // check if the non-system permission name is valid
+            final Id<ResourcePermissionId> permissionId
+                  = resourceClassPermissionPersister.getResourceClassPermissionId(connection,
+                                                                                  resourceClassId,
+                                                                                  resourcePermission.getPermissionName());
 
-         resourceClassName = resourceClassName.trim();
+            if (permissionId == null) {
+               throw new IllegalArgumentException("Permission: " + resourcePermission + " is not defined for resource class: " + resourceClassName);
+            }
 
-         return __getResourcesByPermissions(connection,
-                                            accessorResource,
-                                            resourceClassName,
-                                            normalizedResourcePermissions);
-      }
-      finally {
-         __closeConnection(connection);
+            grantCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantResourcePermissionPersister.getResourcesByResourcePermission(connection,
+                                                                                           accessorResource,
+                                                                                           resourceClassId,
+                                                                                           resourcePermission,
+                                                                                           permissionId,
+                                                                                           afterResourceId,
+                                                                                           maxResources);
+               }
+            });
+            grantCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantGlobalResourcePermissionPersister.getResourcesByGlobalResourcePermission(connection,
+                                                                                                       accessorResource,
+                                                                                                       resourceClassId,
+                                                                                                       resourcePermission,
+                                                                                                       permissionId,
+                                                                                                       afterResourceId,
+                                                                                                       maxResources);
+               }
+            });
+         }
+
+         permissionCursors.add(new ResourceCursor.Union(grantCursors));
       }
+
+      // the resources reachable by all the permissions, plus those reachable via super user permissions
+      final ResourceCursor superUserCursor = new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+         @Override
+         List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+            return grantDomainPermissionSysPersister.getResourcesByDomainSuperUserPermission(connection,
+                                                                                             accessorResource,
+                                                                                             resourceClassId,
+                                                                                             afterResourceId,
+                                                                                             maxResources);
+         }
+      };
+
+      return new ResourceCursor.Union(Arrays.asList(new ResourceCursor.Intersection(permissionCursors),
+                                                    superUserCursor));
    }
 
    private Set<Resource> __getResourcesByPermissions(SQLConnection connection,
@@ -6157,6 +8391,133 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           Set<ResourcePermission> resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourceSpecified(accessedResource);
+      __assertResourceClassSpecified(resourceClassName);
+      __assertPermissionsSpecified(resourcePermissions);
+      __assertPermissionsSetNotEmpty(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions = __normalizeResourcePermission(resourcePermissions);
+
+      try {
+         connection = __getConnection();
+
+         accessedResource = __resolveResource(connection, accessedResource);
+         __assertQueryAuthorization(connection, accessedResource);
+
+         resourceClassName = resourceClassName.trim();
+
+         return new ResourceCursorIterator(__getAccessorResourceCursorByResourcePermissions(connection,
+                                                                                            accessedResource,
+                                                                                            resourceClassName,
+                                                                                            normalizedResourcePermissions));
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   @Override
+   public Iterator<Resource> iterateAccessorResourcesByResourcePermissions(Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           ResourcePermission resourcePermission,
+                                                                           ResourcePermission... resourcePermissions) {
+      SQLConnection connection = null;
+
+      __assertAuthenticated();
+      __assertResourceSpecified(accessedResource);
+      __assertResourceClassSpecified(resourceClassName);
+      __assertPermissionSpecified(resourcePermission);
+      __assertVarargPermissionsSpecified(resourcePermissions);
+
+      final Set<ResourcePermission> normalizedResourcePermissions
+            = __normalizeResourcePermission(__getSetWithoutNullsOrDuplicates(resourcePermission, resourcePermissions));
+
+      try {
+         connection = __getConnection();
+
+         accessedResource = __resolveResource(connection, accessedResource);
+         __assertQueryAuthorization(connection, accessedResource);
+
+         resourceClassName = resourceClassName.trim();
+
+         return new ResourceCursorIterator(__getAccessorResourceCursorByResourcePermissions(connection,
+                                                                                            accessedResource,
+                                                                                            resourceClassName,
+                                                                                            normalizedResourcePermissions));
+      }
+      finally {
+         __closeConnection(connection);
+      }
+   }
+
+   private ResourceCursor __getAccessorResourceCursorByResourcePermissions(SQLConnection connection,
+                                                                           final Resource accessedResource,
+                                                                           String resourceClassName,
+                                                                           Set<ResourcePermission> requestedResourcePermissions) {
+      // first verify that resource class is defined
+      final Id<ResourceClassId> resourceClassId = resourceClassPersister.getResourceClassId(connection,
+                                                                                            resourceClassName);
+
+      if (resourceClassId == null) {
+         throw new IllegalArgumentException("Could not find resource class: " + resourceClassName);
+      }
+
+      // verify permissions are valid for the resource class
+      __assertPermissionsValid(connection, resourceClassName, requestedResourcePermissions);
+
+      // only direct permissions are taken into account, so each permission is a single page of accessors
+      final List<ResourceCursor> permissionCursors = new ArrayList<>(requestedResourcePermissions.size());
+
+      for (final ResourcePermission resourcePermission : requestedResourcePermissions) {
+         if (resourcePermission.isSystemPermission()) {
+            permissionCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantResourcePermissionSysPersister.getAccessorResourcesByResourceSysPermission(connection,
+                                                                                                         accessedResource,
+                                                                                                         resourceClassId,
+                                                                                                         resourcePermission,
+                                                                                                         afterResourceId,
+                                                                                                         maxResources);
+               }
+            });
+         }
+         else {
+            // check if the non-system permission name is valid
+            final Id<ResourcePermissionId> permissionId
+                  = resourceClassPermissionPersister.getResourceClassPermissionId(connection,
+                                                                                  resourceClassId,
+                                                                                  resourcePermission.getPermissionName());
+
+            if (permissionId == null) {
+               throw new IllegalArgumentException("Permission: " + resourcePermission + " is not defined for resource class: " + resourceClassName);
+            }
+
+            permissionCursors.add(new ResourceCursor.Page(RESOURCE_ITERATOR_BATCH_SIZE) {
+               @Override
+               List<Resource> fetch(SQLConnection connection, long afterResourceId, int maxResources) {
+                  return grantResourcePermissionPersister.getAccessorResourcesByResourcePermission(connection,
+                                                                                                   accessedResource,
+                                                                                                   resourceClassId,
+                                                                                                   resourcePermission,
+                                                                                                   permissionId,
+                                                                                                   afterResourceId,
+                                                                                                   maxResources);
+               }
+            });
+         }
+      }
+
+      return new ResourceCursor.Intersection(permissionCursors);
+   }
+
    private Set<Resource> __getAccessorResourcesByResourcePermissions(SQLConnection connection,
                                                                      Resource accessedResource,
                                                                      String resourceClassName,
@@ -6342,6 +8703,16 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return resolvedResource;
    }
 
+   private Set<Resource> __resolveResources(SQLConnection connection,
+                                            Set<Resource> resources) {
+      final Set<Resource> resolvedResources = new HashSet<>(resources.size());
+
+      for (Resource resource : resources) {
+         resolvedResources.add(__resolveResource(connection, resource));
+      }
+      return resolvedResources;
+   }
+
    private static boolean __isEqual(Resource resource1, Resource resource2) {
       if (resource1 == resource2) {
          return true;
@@ -6420,21 +8791,20 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private boolean __isSuperUserOfDomain(SQLConnection connection,
                                          Resource accessorResource,
                                          String queriedDomain) {
-      Set<DomainPermission> domainPermissions = __getEffectiveDomainPermissions(connection, accessorResource, queriedDomain);
+      final SessionMemo validSessionMemo = __getSessionMemo(connection, accessorResource);
+      if (validSessionMemo != null && validSessionMemo.isSuperUserOfDomain(queriedDomain)) {
+         return true;
+      }
 
-      return domainPermissions.contains(DomainPermission_SUPER_USER)
-            || domainPermissions.contains(DomainPermission_SUPER_USER_GRANT);
+      return __getEffectiveDomainPermissionMask(connection, accessorResource, queriedDomain)
+            .isPermissible(DomainPermissions.SUPER_USER, false);
    }
 
    private boolean __isSuperUserOfDomain(SQLConnection connection,
                                          Resource accessorResource,
                                          Id<DomainId> queriedDomainId) {
-      Set<DomainPermission> domainPermissions = __getEffectiveDomainPermissions(connection,
-                                                                                accessorResource,
-                                                                                queriedDomainId);
-
-      return domainPermissions.contains(DomainPermission_SUPER_USER)
-            || domainPermissions.contains(DomainPermission_SUPER_USER_GRANT);
+      return __getEffectiveDomainPermissionMask(connection, accessorResource, queriedDomainId)
+            .isPermissible(DomainPermissions.SUPER_USER, false);
    }
 
    private Set<DomainPermission> __getPostCreateDomainPermissions(Set<DomainCreatePermission> domainCreatePermissions) {
@@ -6467,12 +8837,47 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       }
    }
 
+   private void __assertResourcesSpecified(Set<Resource> resources) {
+      if (resources == null) {
+         throw new NullPointerException("Set of resources required, none specified");
+      }
+
+      if (resources.contains(null)) {
+         throw new NullPointerException("Set of resources contains null element");
+      }
+   }
+
+   private void __assertResourcesSetNotEmpty(Set<Resource> resources) {
+      if (resources.isEmpty()) {
+         throw new IllegalArgumentException("Set of resources required, empty set specified");
+      }
+   }
+
    private void __assertCredentialsSpecified(Credentials credentials) {
       if (credentials == null) {
          throw new NullPointerException("Credentials required, none specified");
       }
    }
 
+   private void __assertCredentialsByResourceSpecified(Map<Resource, Credentials> credentialsByResource) {
+      if (credentialsByResource == null) {
+         throw new NullPointerException("Map of credentials required, none specified");
+      }
+
+      for (Map.Entry<Resource, Credentials> credentialsEntry : credentialsByResource.entrySet()) {
+         if (credentialsEntry.getKey() == null) {
+            throw new NullPointerException("Map of credentials contains null resource");
+         }
+         __assertCredentialsSpecified(credentialsEntry.getValue());
+      }
+   }
+
+   private void __assertCredentialsByResourceNotEmpty(Map<Resource, Credentials> credentialsByResource) {
+      if (credentialsByResource.isEmpty()) {
+         throw new IllegalArgumentException("Map of credentials required, empty map specified");
+      }
+   }
+
    private void __assertCredentialsNotSpecified(Credentials credentials) {
       if (credentials != null) {
          throw new IllegalArgumentException("Credentials not supported, but specified for unauthenticatable resource class");
@@ -6641,17 +9046,24 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
    private void __assertQueryAuthorization(SQLConnection connection,
                                            Resource accessorResource) {
       if (!sessionResource.equals(accessorResource)) {
-         final Set<ResourcePermission> effectiveResourcePermissions = __getEffectiveResourcePermissions(connection,
-                                                                                                        sessionResource,
-                                                                                                        accessorResource);
-         if (!effectiveResourcePermissions.contains(ResourcePermission_QUERY)
-               && !effectiveResourcePermissions.contains(ResourcePermission_QUERY_GRANT)
-               && !effectiveResourcePermissions.contains(ResourcePermission_IMPERSONATE)
-               && !effectiveResourcePermissions.contains(ResourcePermission_IMPERSONATE_GRANT)) {
+         final SessionMemo validSessionMemo = __getSessionMemo(connection, sessionResource);
+         if (validSessionMemo != null && validSessionMemo.isQueryAuthorized(accessorResource)) {
+            return;
+         }
+
+         final PermissionMask effectiveResourcePermissionMask = __getEffectiveResourcePermissionMask(connection,
+                                                                                                     sessionResource,
+                                                                                                     accessorResource);
+         if (!effectiveResourcePermissionMask.isPermissible(ResourcePermission_QUERY)
+               && !effectiveResourcePermissionMask.isPermissible(ResourcePermission_IMPERSONATE)) {
             throw NotAuthorizedException.newInstanceForActionOnResource(sessionResource,
                                                                         "query",
                                                                         accessorResource);
          }
+
+         if (validSessionMemo != null) {
+            validSessionMemo.addQueryAuthorized(accessorResource);
+         }
       }
    }
 
@@ -6682,6 +9094,320 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       return resultSet;
    }
 
+   // private session memo helper methods
+
+   // returns the memo of the session resource if the specified accessor is the session resource and
+   // memoizing is enabled, after replacing the memo if it was discarded or has expired
+   private SessionMemo __getSessionMemo(SQLConnection connection, Resource accessorResource) {
+      if (!accessorResource.equals(sessionResource)) {
+         return null;
+      }
+      final long sessionMemoMaxAgeNanos = __getStoreFeatures().sessionMemoMaxAgeNanos;
+      if (sessionMemoMaxAgeNanos == 0) {
+         return null;
+      }
+
+      if (sessionMemo == null || !sessionMemo.isValidFor(sessionResource)) {
+         sessionMemo = __newSessionMemo(connection, sessionMemoMaxAgeNanos);
+      }
+      return sessionMemo;
+   }
+
+   private SessionMemo __newSessionMemo(SQLConnection connection, long sessionMemoMaxAgeNanos) {
+      return new SessionMemo(sessionResource,
+                             __getEffectiveDomainPermissionsMap(connection, sessionResource),
+                             sessionMemoMaxAgeNanos);
+   }
+
+   // private change log helper methods
+
+   private void __addChangeLogEntry(SQLConnection connection,
+                                    ChangeLogEntry.Kind kind,
+                                    Resource accessorResource,
+                                    Resource accessedResource,
+                                    Id<DomainId> accessedDomainId,
+                                    Id<ResourceClassId> resourceClassId) {
+      // every change made through this context passes through here, so this is where the session memo goes stale
+      sessionMemo = null;
+
+      // the shared entries only hold direct grants, so only changes to the grants of the accessor invalidate them,
+      // except for deleted resources and domains, whose ids the entries may refer to as accessed or ancestor ids
+      final InheritedPermissionCache inheritedPermissionCache = __getInheritedPermissionCache();
+      if (inheritedPermissionCache != null) {
+         if (kind == ChangeLogEntry.Kind.RESOURCE_PERMISSION || kind == ChangeLogEntry.Kind.GLOBAL_RESOURCE_PERMISSION) {
+            inheritedPermissionCache.evict(accessorResource.getId());
+         }
+         else if (kind == ChangeLogEntry.Kind.DOMAIN
+               || (kind == ChangeLogEntry.Kind.RESOURCE && accessorResource != null)) {
+            inheritedPermissionCache.clear();
+         }
+      }
+
+      // forget the summarized facts the change may have falsified; grants are never added without being logged here
+      final GrantSummary grantSummary = __getGrantSummary();
+      if (grantSummary != null) {
+         final Long resourceClassIdValue = resourceClassId == null ? null : resourceClassId.getValue();
+         switch (kind) {
+            case GLOBAL_RESOURCE_PERMISSION:
+               grantSummary.forgetGlobalGrants(resourceClassIdValue);
+               break;
+            case RESOURCE_PERMISSION:
+               // the change may also have been to an inherit permission of the accessor
+               grantSummary.forgetResourceGrants(resourceClassIdValue);
+               grantSummary.forgetDomainGrants(accessorResource.getId());
+               break;
+            case DOMAIN_PERMISSION:
+               grantSummary.forgetDomainGrants(accessorResource.getId());
+               break;
+            case RESOURCE:
+               // creating a resource grants the post-create permissions to the session resource
+               grantSummary.forgetResourceGrants(resourceClassIdValue);
+               if (sessionResource != null) {
+                  grantSummary.forgetDomainGrants(sessionResource.getId());
+               }
+               break;
+            case DOMAIN:
+               // creating a domain grants the post-create permissions to the session resource
+               if (sessionResource != null) {
+                  grantSummary.forgetDomainGrants(sessionResource.getId());
+               }
+               break;
+            default:
+               break;
+         }
+      }
+
+      // the change log is opt-in, since older installations have no table to write it to
+      if (!__getStoreFeatures().isChangeLogEnabled) {
+         return;
+      }
+
+      changeLogPersister.addChangeLogEntry(connection,
+                                           kind,
+                                           accessorResource == null ? null : Id.<ResourceId>from(accessorResource.getId()),
+                                           accessedResource == null ? null : Id.<ResourceId>from(accessedResource.getId()),
+                                           accessedDomainId,
+                                           resourceClassId);
+   }
+
+   // returns the key of the store of this context, under which the caches and settings shared by the contexts of
+   // that store are registered
+   private Object __getStoreKey() {
+      if (dataSource != null) {
+         return dataSource;
+      }
+      return connection != null ? connection : storeKey;
+   }
+
+   private StoreFeatures __getStoreFeatures() {
+      if (storeFeatures == null) {
+         // a context without a store key has features of its own, since its store cannot be told apart from others
+         final Object storeKey = __getStoreKey();
+         storeFeatures = storeKey != null ? StoreFeatures.getInstance(storeKey) : new StoreFeatures();
+      }
+      return storeFeatures;
+   }
+
+   private InheritedPermissionCache __getInheritedPermissionCache() {
+      return __getStoreFeatures().inheritedPermissionCache;
+   }
+
+   private GrantSummary __getGrantSummary() {
+      return __getStoreFeatures().grantSummary;
+   }
+
+   private PermissionChangeDispatcher __getPermissionChangeDispatcher() {
+      return __getStoreFeatures().permissionChangeDispatcher;
+   }
+
+   private PermissionMask __newResourcePermissionMask(String resourceClassName) {
+      if (resourcePermissionLayouts == null) {
+         // a context without a store key has layouts of its own, since its store cannot be told apart from others
+         final Object storeKey = __getStoreKey();
+         resourcePermissionLayouts = PermissionLayout.getResourcePermissionLayouts(storeKey != null ? storeKey : this);
+      }
+      return PermissionMask.newResourcePermissionMask(resourcePermissionLayouts, resourceClassName);
+   }
+
+   private ParallelQueries __getParallelQueries() {
+      // the queries are only forked for a data source, from which they can borrow connections of their own
+      return dataSource != null ? __getStoreFeatures().parallelQueries : null;
+   }
+
+   private CheckCoalescer __getCheckCoalescer() {
+      // checks are not coalesced for a context bound to a connection, whose transaction they would have to share
+      return connection == null ? __getStoreFeatures().checkCoalescer : null;
+   }
+
+   private <T> List<T> __executeQueries(SQLConnection connection, List<ParallelQueries.Query<T>> queries) {
+      final ParallelQueries parallelQueries = __getParallelQueries();
+      if (parallelQueries != null && queries.size() > 1) {
+         return parallelQueries.execute(dataSource, connection, queries);
+      }
+      return ParallelQueries.executeSequentially(connection, queries);
+   }
+
+   // private grant summary helper methods
+
+   private boolean __mayHaveGlobalResourcePermissions(final SQLConnection connection,
+                                                      final Id<ResourceClassId> resourceClassId) {
+      final GrantSummary grantSummary = __getGrantSummary();
+      if (grantSummary == null) {
+         return true;
+      }
+
+      final Boolean knownHasGrants = grantSummary.hasGlobalGrants(resourceClassId.getValue());
+      if (knownHasGrants != null) {
+         return knownHasGrants;
+      }
+
+      // concurrent checks that miss the same fact share a single lookup of it
+      final long generation = grantSummary.getGeneration();
+      return grantSummary.loadGlobalGrants(generation, resourceClassId.getValue(), new SingleFlight.Loader<Boolean>() {
+         @Override
+         Boolean load() {
+            final boolean hasGrants
+                  = grantGlobalResourcePermissionSysPersister.hasGlobalSysPermissions(connection, resourceClassId)
+                  || grantGlobalResourcePermissionPersister.hasGlobalResourcePermissions(connection, resourceClassId);
+            grantSummary.putGlobalGrants(generation, resourceClassId.getValue(), hasGrants);
+            return hasGrants;
+         }
+      });
+   }
+
+   private boolean __mayHaveNonSysResourcePermissions(final SQLConnection connection,
+                                                      final Id<ResourceClassId> resourceClassId) {
+      final GrantSummary grantSummary = __getGrantSummary();
+      if (grantSummary == null) {
+         return true;
+      }
+
+      final Boolean knownHasGrants = grantSummary.hasResourceGrants(resourceClassId.getValue());
+      if (knownHasGrants != null) {
+         return knownHasGrants;
+      }
+
+      final long generation = grantSummary.getGeneration();
+      return grantSummary.loadResourceGrants(generation, resourceClassId.getValue(), new SingleFlight.Loader<Boolean>() {
+         @Override
+         Boolean load() {
+            final boolean hasGrants = grantResourcePermissionPersister.hasResourcePermissions(connection, resourceClassId);
+            grantSummary.putResourceGrants(generation, resourceClassId.getValue(), hasGrants);
+            return hasGrants;
+         }
+      });
+   }
+
+   private boolean __mayHaveDomainPermissions(final SQLConnection connection,
+                                              final Resource accessorResource) {
+      final GrantSummary grantSummary = __getGrantSummary();
+      if (grantSummary == null) {
+         return true;
+      }
+
+      final Boolean knownHasGrants = grantSummary.hasDomainGrants(accessorResource.getId());
+      if (knownHasGrants != null) {
+         return knownHasGrants;
+      }
+
+      final long generation = grantSummary.getGeneration();
+      return grantSummary.loadDomainGrants(generation, accessorResource.getId(), new SingleFlight.Loader<Boolean>() {
+         @Override
+         Boolean load() {
+            final Set<Long> inheritedResourceIds = new HashSet<>();
+            for (Resource inheritedResource : grantResourcePermissionSysPersister.getInheritedResources(connection,
+                                                                                                       accessorResource)) {
+               inheritedResourceIds.add(inheritedResource.getId());
+            }
+            final boolean hasGrants
+                  = !grantDomainPermissionSysPersister.getDomainSysPermissionsIncludeInherited(connection,
+                                                                                               accessorResource)
+                  .isEmpty();
+            grantSummary.putDomainGrants(generation, accessorResource.getId(), inheritedResourceIds, hasGrants);
+            return hasGrants;
+         }
+      });
+   }
+
+   // an iterator over a resource cursor, that reads the resources in batches and only holds a connection while
+   // a batch is being read
+   private class ResourceCursorIterator implements Iterator<Resource> {
+      private final ResourceCursor resourceCursor;
+      private final List<Resource> batch = new ArrayList<>(RESOURCE_ITERATOR_BATCH_SIZE);
+
+      private int     batchIndex;
+      private long    nextResourceId;
+      private boolean exhausted;
+
+      ResourceCursorIterator(ResourceCursor resourceCursor) {
+         this.resourceCursor = resourceCursor;
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (batchIndex == batch.size() && !exhausted) {
+            __readBatch();
+         }
+         return batchIndex < batch.size();
+      }
+
+      @Override
+      public Resource next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return batch.get(batchIndex++);
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException("Resources cannot be removed through this iterator");
+      }
+
+      private void __readBatch() {
+         SQLConnection connection = null;
+
+         batch.clear();
+         batchIndex = 0;
+
+         try {
+            connection = __getConnection();
+
+            while (batch.size() < RESOURCE_ITERATOR_BATCH_SIZE) {
+               final Resource resource = resourceCursor.seek(connection, nextResourceId);
+               if (resource == null) {
+                  exhausted = true;
+                  break;
+               }
+               batch.add(resource);
+               nextResourceId = resource.getId() + 1;
+            }
+         }
+         finally {
+            __closeConnection(connection);
+         }
+      }
+   }
+
+   // a check made by a context on behalf of its session, which a batch evaluates on the connection of its leader
+   private static class ResourcePermissionCheck extends CheckCoalescer.Check {
+      private final SQLAccessControlContext   context;
+      private final Set<ResourcePermission>   requestedResourcePermissions;
+      private       Resource                  accessorResource;
+      private       Resource                  accessedResource;
+      private       ResourceClassInternalInfo resourceClassInternalInfo;
+
+      private ResourcePermissionCheck(SQLAccessControlContext context,
+                                      Resource accessorResource,
+                                      Resource accessedResource,
+                                      Set<ResourcePermission> requestedResourcePermissions) {
+         this.context = context;
+         this.accessorResource = accessorResource;
+         this.accessedResource = accessedResource;
+         this.requestedResourcePermissions = requestedResourcePermissions;
+      }
+   }
+
    // private connection management helper methods
 
    private SQLConnection __getConnection() {
@@ -6696,6 +9422,10 @@ public class SQLAccessControlContext implements AccessControlContext, Serializab
       else if (connection != null) {
          return new SQLConnection(connection);
       }
+      else if (!isConnectionRequired) {
+         // the persisters manage their own storage, e.g. when they are backed by an in-memory store
+         return null;
+      }
       else {
          throw new IllegalStateException("Not initialized! No data source or connection, perhaps missing call to postDeserialize()?");
       }
@@ -6,6 +6,7 @@ import com.acciente.oacc.IncorrectCredentialsException;
 import com.acciente.oacc.InvalidCredentialsException;
 import com.acciente.oacc.PasswordCredentials;
 import com.acciente.oacc.Resource;
+import com.acciente.oacc.TokenCredentials;
 import com.acciente.oacc.UnsupportedCredentialsException;
 import com.acciente.oacc.sql.SQLDialect;
 import com.acciente.oacc.sql.internal.persister.ResourcePasswordPersister;
@@ -16,8 +17,16 @@ import javax.sql.DataSource;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
-
-public class SQLPasswordAuthenticationProvider implements AuthenticationProvider, Serializable {
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+public class SQLPasswordAuthenticationProvider implements AuthenticationProvider,
+                                                          TokenCredentialsIssuer,
+                                                          BulkCredentialsSetter,
+                                                          BulkCredentialsDeleter,
+                                                          Serializable {
    // services
    private DataSource                 dataSource;
    private Connection                 connection;
@@ -41,7 +50,8 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
       this.dataSource = dataSource;
    }
 
-   private SQLPasswordAuthenticationProvider(String schemaName, SQLDialect sqlDialect) {
+   // package-private for the compact serialized form of the access control context, which rebuilds its provider
+   SQLPasswordAuthenticationProvider(String schemaName, SQLDialect sqlDialect) {
       this.passwordEncryptor = new StrongCleanablePasswordEncryptor();
 
       // generate all the SQLs the persisters need based on the database dialect
@@ -72,6 +82,12 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
    @Override
    public void authenticate(Resource resource, Credentials credentials) {
       assertCredentialSpecified(credentials);
+
+      if (credentials instanceof TokenCredentials) {
+         __authenticate(resource, (TokenCredentials) credentials);
+         return;
+      }
+
       assertSupportedCredentials(credentials);
 
       final PasswordCredentials passwordCredentials = ((PasswordCredentials) credentials);
@@ -80,15 +96,19 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
          throw new InvalidCredentialsException("Password required, none specified");
       }
 
+      // the connection is released before the password is checked, so that no connection is held while waiting to hash
+      final String encryptedBoundPassword;
       SQLConnection connection = null;
       try {
          connection = getConnection();
 
-         __authenticate(connection, resource, passwordCredentials.getPassword());
+         encryptedBoundPassword = resourcePasswordPersister.getEncryptedBoundPasswordByResourceId(connection, resource);
       }
       finally {
          closeConnection(connection);
       }
+
+      __authenticate(resource, passwordCredentials.getPassword(), encryptedBoundPassword);
    }
 
    @Override
@@ -96,23 +116,92 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
       throw new UnsupportedOperationException("The built-in password authentication provider does not support authentication without credentials");
    }
 
-   private void __authenticate(SQLConnection connection, Resource resource, char[] password) {
-      // first locate the resource
-      final String encryptedBoundPassword = resourcePasswordPersister.getEncryptedBoundPasswordByResourceId(connection, resource);
-
+   private void __authenticate(Resource resource, char[] password, String encryptedBoundPassword) {
       char[] plainBoundPassword = null;
       try {
          plainBoundPassword = PasswordUtils.computeBoundPassword(resource, password);
 
-         if (!passwordEncryptor.checkPassword(plainBoundPassword, encryptedBoundPassword)) {
+         if (!__checkPassword(plainBoundPassword, encryptedBoundPassword)) {
             throw new IncorrectCredentialsException("Invalid password for resource " + resource);
          }
+
+         // upgrade a digest made with an older algorithm or iteration count, now that we know the password
+         final PBKDF2CleanablePasswordEncryptor pbkdf2PasswordEncryptor
+               = PBKDF2CleanablePasswordEncryptor.getInstance(getStoreKey());
+         if (pbkdf2PasswordEncryptor != null && pbkdf2PasswordEncryptor.needsRehash(encryptedBoundPassword)) {
+            __rehashPassword(resource, plainBoundPassword, encryptedBoundPassword);
+         }
       }
       finally {
          PasswordUtils.cleanPassword(plainBoundPassword);
       }
    }
 
+   private void __rehashPassword(Resource resource, char[] plainBoundPassword, String oldEncryptedBoundPassword) {
+      final String newEncryptedBoundPassword = __encryptPassword(plainBoundPassword);
+
+      SQLConnection connection = null;
+      try {
+         connection = getConnection();
+
+         // a concurrent change of the credentials wins over the rehash
+         resourcePasswordPersister.replaceEncryptedBoundPasswordByResourceId(connection,
+                                                                             resource,
+                                                                             oldEncryptedBoundPassword,
+                                                                             newEncryptedBoundPassword);
+      }
+      finally {
+         closeConnection(connection);
+      }
+   }
+
+   private void __authenticate(Resource resource, TokenCredentials tokenCredentials) {
+      final SessionTokens sessionTokens = SessionTokens.getInstance(getStoreKey());
+      if (sessionTokens == null) {
+         throw new UnsupportedCredentialsException(tokenCredentials.getClass());
+      }
+
+      if (tokenCredentials.getToken() == null) {
+         throw new InvalidCredentialsException("Token required, none specified");
+      }
+
+      SQLConnection connection = null;
+      try {
+         connection = getConnection();
+
+         final String encryptedBoundPassword
+               = resourcePasswordPersister.getEncryptedBoundPasswordByResourceId(connection, resource);
+
+         if (!sessionTokens.verify(resource, encryptedBoundPassword, tokenCredentials.getToken())) {
+            throw new IncorrectCredentialsException("Invalid or expired token for resource " + resource);
+         }
+      }
+      finally {
+         closeConnection(connection);
+      }
+   }
+
+   @Override
+   public TokenCredentials issueTokenCredentials(Resource resource) {
+      // tokens are only issued for contexts backed by a data source, since only those are shared across sessions
+      final SessionTokens sessionTokens = SessionTokens.getInstance(getStoreKey());
+      if (sessionTokens == null) {
+         return null;
+      }
+
+      SQLConnection connection = null;
+      try {
+         connection = getConnection();
+
+         return sessionTokens.issue(resource,
+                                    resourcePasswordPersister.getEncryptedBoundPasswordByResourceId(connection,
+                                                                                                    resource));
+      }
+      finally {
+         closeConnection(connection);
+      }
+   }
+
    @Override
    public void validateCredentials(String resourceClassName, String domainName, Credentials credentials) {
       if (credentials == null) {
@@ -146,13 +235,44 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
 
       final PasswordCredentials passwordCredentials = ((PasswordCredentials) credentials);
 
+      // the password is hashed before a connection is obtained, so that no connection is held while waiting to hash
+      final String newEncryptedBoundPassword = __encryptBoundPassword(resource, passwordCredentials.getPassword());
+
+      SQLConnection connection = null;
+      try {
+         connection = getConnection();
+
+         resourcePasswordPersister.setEncryptedBoundPasswordByResourceId(connection,
+                                                                         resource,
+                                                                         newEncryptedBoundPassword);
+      }
+      finally {
+         closeConnection(connection);
+      }
+   }
+
+   @Override
+   public void setCredentials(Map<Resource, Credentials> newCredentialsByResource) {
+      final Map<Resource, char[]> passwordsByResource = new HashMap<>(newCredentialsByResource.size());
+      for (Map.Entry<Resource, Credentials> credentialsEntry : newCredentialsByResource.entrySet()) {
+         assertCredentialSpecified(credentialsEntry.getValue());
+         assertSupportedCredentials(credentialsEntry.getValue());
+
+         passwordsByResource.put(credentialsEntry.getKey(),
+                                 ((PasswordCredentials) credentialsEntry.getValue()).getPassword());
+      }
+
+      // as above, all passwords are hashed before a connection is obtained
+      final Map<Resource, String> newEncryptedBoundPasswords
+            = PasswordHashingExecutor.encryptBoundPasswords(getStoreKey(),
+                                                            __getPasswordEncryptor(),
+                                                            passwordsByResource);
+
       SQLConnection connection = null;
       try {
          connection = getConnection();
 
-         __setResourcePassword(connection,
-                               resource,
-                               passwordCredentials.getPassword());
+         resourcePasswordPersister.setEncryptedBoundPasswordsByResourceId(connection, newEncryptedBoundPasswords);
       }
       finally {
          closeConnection(connection);
@@ -172,20 +292,68 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
       }
    }
 
-   private void __setResourcePassword(SQLConnection connection, Resource resource, char[] newPassword) {
+   @Override
+   public void deleteCredentials(Set<Resource> resources) {
+      SQLConnection connection = null;
+      try {
+         connection = getConnection();
+
+         resourcePasswordPersister.removeEncryptedBoundPasswordsByResourceId(connection, resources);
+      }
+      finally {
+         closeConnection(connection);
+      }
+   }
+
+   private String __encryptBoundPassword(Resource resource, char[] newPassword) {
       char[] newBoundPassword = null;
       try {
          newBoundPassword = PasswordUtils.computeBoundPassword(resource, newPassword);
-         final String newEncryptedBoundPassword = passwordEncryptor.encryptPassword(newBoundPassword);
-         resourcePasswordPersister.setEncryptedBoundPasswordByResourceId(connection,
-                                                                         resource,
-                                                                         newEncryptedBoundPassword);
+         return __encryptPassword(newBoundPassword);
       }
       finally {
          PasswordUtils.cleanPassword(newBoundPassword);
       }
    }
 
+   // private password hashing helper methods
+
+   private CleanablePasswordEncryptor __getPasswordEncryptor() {
+      final PBKDF2CleanablePasswordEncryptor pbkdf2PasswordEncryptor
+            = PBKDF2CleanablePasswordEncryptor.getInstance(getStoreKey());
+      return pbkdf2PasswordEncryptor != null ? pbkdf2PasswordEncryptor : passwordEncryptor;
+   }
+
+   private boolean __checkPassword(final char[] plainBoundPassword, final String encryptedBoundPassword) {
+      final CleanablePasswordEncryptor effectivePasswordEncryptor = __getPasswordEncryptor();
+      final PasswordHashingExecutor passwordHashingExecutor = PasswordHashingExecutor.getInstance(getStoreKey());
+      if (passwordHashingExecutor == null) {
+         return effectivePasswordEncryptor.checkPassword(plainBoundPassword, encryptedBoundPassword);
+      }
+
+      return passwordHashingExecutor.execute(new Callable<Boolean>() {
+         @Override
+         public Boolean call() {
+            return effectivePasswordEncryptor.checkPassword(plainBoundPassword, encryptedBoundPassword);
+         }
+      });
+   }
+
+   private String __encryptPassword(final char[] plainBoundPassword) {
+      final CleanablePasswordEncryptor effectivePasswordEncryptor = __getPasswordEncryptor();
+      final PasswordHashingExecutor passwordHashingExecutor = PasswordHashingExecutor.getInstance(getStoreKey());
+      if (passwordHashingExecutor == null) {
+         return effectivePasswordEncryptor.encryptPassword(plainBoundPassword);
+      }
+
+      return passwordHashingExecutor.execute(new Callable<String>() {
+         @Override
+         public String call() {
+            return effectivePasswordEncryptor.encryptPassword(plainBoundPassword);
+         }
+      });
+   }
+
    private void assertCredentialSpecified(Credentials credentials) {
       if (credentials == null) {
          throw new NullPointerException("Credentials required, none specified");
@@ -207,6 +375,11 @@ public class SQLPasswordAuthenticationProvider implements AuthenticationProvider
       return true;
    }
 
+   // the per-store features are enabled for the data source or the connection that the store is accessed with
+   private Object getStoreKey() {
+      return dataSource != null ? dataSource : connection;
+   }
+
    // private connection management helper methods
 
    private SQLConnection getConnection() {
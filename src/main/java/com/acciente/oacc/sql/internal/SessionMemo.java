@@ -0,0 +1,108 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.Resource;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memoizes what an access control context checks about its session resource on nearly every call: the
+ * effective permissions of the session on each domain, the domains of which the session is a super-user,
+ * and the accessor resources the session was found to be authorized to query (which depends on the
+ * resources the session inherits from).
+ * <p/>
+ * A memo belongs to a single session resource and expires after a fixed age, which bounds how long changes
+ * made through other contexts may go unnoticed. Domains that are not in the memo are not known to be free of
+ * permissions (the domain might not exist), so lookups of such domains must fall through to the persisters.
+ * <p/>
+ * The maximum age is set per store, and session permissions are not memoized for stores that have none set.
+ */
+final class SessionMemo {
+   private final Resource                    sessionResource;
+   private final long                        expiresAtNanos;
+   private final Map<String, PermissionMask> domainPermissionMasks;
+   private final Set<String>                 superUserDomainNames;
+   private final Set<Resource>               queryAuthorizedResources;
+
+   SessionMemo(Resource sessionResource,
+               Map<String, Set<DomainPermission>> effectiveDomainPermissionsMap,
+               long maxAgeNanos) {
+      this.sessionResource = sessionResource;
+      this.expiresAtNanos = System.nanoTime() + maxAgeNanos;
+      this.domainPermissionMasks = new HashMap<>(effectiveDomainPermissionsMap.size());
+      this.superUserDomainNames = new HashSet<>();
+      this.queryAuthorizedResources = new HashSet<>();
+
+      for (Map.Entry<String, Set<DomainPermission>> domainPermissionsEntry : effectiveDomainPermissionsMap.entrySet()) {
+         final PermissionMask domainPermissionMask = PermissionMask.newDomainPermissionMask();
+         domainPermissionMask.addDomainPermissions(domainPermissionsEntry.getValue());
+         domainPermissionMasks.put(domainPermissionsEntry.getKey(), domainPermissionMask);
+
+         if (domainPermissionMask.isPermissible(DomainPermissions.SUPER_USER, false)) {
+            superUserDomainNames.add(domainPermissionsEntry.getKey());
+         }
+      }
+   }
+
+   static void setMaxAge(Object storeKey, long maxAgeNanos) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (maxAgeNanos < 0) {
+         throw new IllegalArgumentException("Session memo max age must not be negative: " + maxAgeNanos);
+      }
+      StoreFeatures.getInstance(storeKey).sessionMemoMaxAgeNanos = maxAgeNanos;
+   }
+
+   /**
+    * Returns the maximum age of the memos of the specified store, or zero if its session permissions are not memoized
+    */
+   static long getMaxAgeNanos(Object storeKey) {
+      return storeKey == null ? 0 : StoreFeatures.getInstance(storeKey).sessionMemoMaxAgeNanos;
+   }
+
+   boolean isValidFor(Resource resource) {
+      return sessionResource.equals(resource) && System.nanoTime() - expiresAtNanos < 0;
+   }
+
+   /**
+    * Returns the effective permissions of the session resource on the specified domain, or null if the
+    * session holds no permissions on it or the domain does not exist. The returned mask must not be modified.
+    */
+   PermissionMask getDomainPermissionMask(String domainName) {
+      return domainPermissionMasks.get(domainName);
+   }
+
+   boolean isSuperUserOfDomain(String domainName) {
+      return superUserDomainNames.contains(domainName);
+   }
+
+   boolean isQueryAuthorized(Resource accessorResource) {
+      return queryAuthorizedResources.contains(accessorResource);
+   }
+
+   void addQueryAuthorized(Resource accessorResource) {
+      queryAuthorizedResources.add(accessorResource);
+   }
+}
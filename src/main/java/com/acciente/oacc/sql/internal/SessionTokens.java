@@ -0,0 +1,134 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.TokenCredentials;
+import org.jasypt.contrib.org.apache.commons.codec_1_3.binary.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Issues and verifies the session tokens of a store, which let a resource that authenticated with its password
+ * authenticate again without repeating the password check.
+ * <p/>
+ * A token names the resource and the time it expires, and is signed with an HMAC-SHA256 of the secret key the
+ * store was enabled with. The signature also covers the encrypted password of the resource, which is salted
+ * anew whenever its credentials are set, so that changing (or deleting) the credentials of a resource revokes
+ * all its outstanding tokens without having to record them. Since expiry is checked against the wall clock,
+ * tokens can be verified by any process that shares the store and the secret key.
+ */
+public class SessionTokens {
+   private static final String MAC_ALGORITHM         = "HmacSHA256";
+   private static final int    MIN_SECRET_KEY_LENGTH = 32;
+   private static final char   SEPARATOR             = ':';
+
+   private static final Map<Object, SessionTokens> instances = new WeakHashMap<>();
+
+   private final SecretKeySpec secretKey;
+   private final long          maxAgeMillis;
+
+   private SessionTokens(byte[] secretKey, long maxAgeMillis) {
+      this.secretKey = new SecretKeySpec(secretKey, MAC_ALGORITHM);
+      this.maxAgeMillis = maxAgeMillis;
+   }
+
+   static synchronized void enable(Object storeKey, byte[] secretKey, long maxAgeMillis) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+      if (secretKey == null) {
+         throw new NullPointerException("Secret key required, none specified");
+      }
+      if (secretKey.length < MIN_SECRET_KEY_LENGTH) {
+         throw new IllegalArgumentException("Secret key must be at least " + MIN_SECRET_KEY_LENGTH
+                                                  + " bytes long, got: " + secretKey.length);
+      }
+      if (maxAgeMillis <= 0) {
+         throw new IllegalArgumentException("Session token max age must be positive: " + maxAgeMillis);
+      }
+      instances.put(storeKey, new SessionTokens(secretKey, maxAgeMillis));
+   }
+
+   static synchronized void disable(Object storeKey) {
+      instances.remove(storeKey);
+   }
+
+   public static synchronized SessionTokens getInstance(Object storeKey) {
+      return storeKey == null ? null : instances.get(storeKey);
+   }
+
+   public TokenCredentials issue(Resource resource, String encryptedBoundPassword) {
+      final long expiresAt = System.currentTimeMillis() + maxAgeMillis;
+      return TokenCredentials.newInstance(__sign(resource.getId(), expiresAt, encryptedBoundPassword));
+   }
+
+   public boolean verify(Resource resource, String encryptedBoundPassword, String token) {
+      if (token == null || encryptedBoundPassword == null) {
+         return false;
+      }
+
+      final int expiresAtStart = token.indexOf(SEPARATOR) + 1;
+      final int signatureStart = token.indexOf(SEPARATOR, expiresAtStart) + 1;
+      if (expiresAtStart == 0 || signatureStart == 0) {
+         return false;
+      }
+
+      final long expiresAt;
+      try {
+         expiresAt = Long.parseLong(token.substring(expiresAtStart, signatureStart - 1));
+      }
+      catch (NumberFormatException e) {
+         return false;
+      }
+      if (expiresAt <= System.currentTimeMillis()) {
+         return false;
+      }
+
+      // the resource id is compared as part of the signed token, so that a token of one resource cannot be
+      // used to authenticate as another
+      return MessageDigest.isEqual(__sign(resource.getId(), expiresAt, encryptedBoundPassword)
+                                         .getBytes(StandardCharsets.US_ASCII),
+                                   token.getBytes(StandardCharsets.US_ASCII));
+   }
+
+   private String __sign(long resourceId, long expiresAt, String encryptedBoundPassword) {
+      final String payload = String.valueOf(resourceId) + SEPARATOR + expiresAt;
+
+      final byte[] signature;
+      try {
+         // a Mac instance is not thread-safe, and cheap to create compared to the password check it saves
+         final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+         mac.init(secretKey);
+         mac.update(payload.getBytes(StandardCharsets.US_ASCII));
+         mac.update((byte) SEPARATOR);
+         signature = mac.doFinal(encryptedBoundPassword.getBytes(StandardCharsets.US_ASCII));
+      }
+      catch (GeneralSecurityException e) {
+         throw new RuntimeException(e);
+      }
+
+      return payload + SEPARATOR + new String(new Base64().encode(signature), StandardCharsets.US_ASCII);
+   }
+}
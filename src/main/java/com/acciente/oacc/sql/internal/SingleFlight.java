@@ -0,0 +1,125 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates concurrent loads of the same key into a shared cache, so that when an entry is missing - e.g.
+ * right after a change to the grants of a popular resource evicted it - only the first thread to miss it runs
+ * the queries, and the other threads that miss it meanwhile wait for and share that thread's result.
+ * <p/>
+ * A load only serves the threads that started looking up the key in the same generation of the cache or a
+ * later one, so that a thread never receives a result that was read before a change it has already seen.
+ */
+class SingleFlight<K, V> {
+   private final Map<K, Flight<V>> flights;
+   private final AtomicLong        deduplicatedLoadCount;
+
+   SingleFlight() {
+      this.flights = new HashMap<>();
+      this.deduplicatedLoadCount = new AtomicLong();
+   }
+
+   V load(K key, long generation, Loader<V> loader) {
+      final Flight<V> flight;
+      final boolean isLeader;
+
+      synchronized (flights) {
+         final Flight<V> inFlight = flights.get(key);
+         isLeader = inFlight == null || inFlight.generation < generation;
+         if (isLeader) {
+            flight = new Flight<>(generation);
+            flights.put(key, flight);
+         }
+         else {
+            flight = inFlight;
+         }
+      }
+
+      if (!isLeader) {
+         deduplicatedLoadCount.incrementAndGet();
+         return flight.join();
+      }
+
+      try {
+         flight.result = loader.load();
+         return flight.result;
+      }
+      catch (RuntimeException | Error e) {
+         flight.failure = e;
+         throw e;
+      }
+      finally {
+         synchronized (flights) {
+            if (flights.get(key) == flight) {
+               flights.remove(key);
+            }
+         }
+         flight.completion.countDown();
+      }
+   }
+
+   long getDeduplicatedLoadCount() {
+      return deduplicatedLoadCount.get();
+   }
+
+   abstract static class Loader<V> {
+      abstract V load();
+   }
+
+   private static class Flight<V> {
+      private final long           generation;
+      private final CountDownLatch completion;
+      private       V              result;
+      private       Throwable      failure;
+
+      private Flight(long generation) {
+         this.generation = generation;
+         this.completion = new CountDownLatch(1);
+      }
+
+      private V join() {
+         boolean isInterrupted = false;
+         while (true) {
+            try {
+               completion.await();
+               break;
+            }
+            catch (InterruptedException e) {
+               // the loading thread completes shortly, so keep waiting for it and restore the interrupt after
+               isInterrupted = true;
+            }
+         }
+         if (isInterrupted) {
+            Thread.currentThread().interrupt();
+         }
+
+         if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+         }
+         if (failure instanceof Error) {
+            throw (Error) failure;
+         }
+         return result;
+      }
+   }
+}
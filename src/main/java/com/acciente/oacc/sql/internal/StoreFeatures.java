@@ -0,0 +1,60 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Holds the caches and settings of a store that its access control contexts consult on nearly every call.
+ * <p/>
+ * A context looks up the features of its store once, when it first needs them, and keeps them in a field; the
+ * features themselves are read without taking a lock, so a check does not synchronize on the registry of all
+ * stores, while enabling or disabling a feature of a store still takes effect for contexts that already exist.
+ */
+final class StoreFeatures {
+   // the features are looked up by their store, and must not keep a discarded store reachable
+   private static final Map<Object, StoreFeatures> instances = new WeakHashMap<>();
+
+   final PermissionChangeDispatcher permissionChangeDispatcher;
+
+   // zero if the session permissions of the store are not memoized
+   volatile long                     sessionMemoMaxAgeNanos;
+   volatile InheritedPermissionCache inheritedPermissionCache;
+   volatile GrantSummary             grantSummary;
+   volatile ParallelQueries          parallelQueries;
+   volatile CheckCoalescer           checkCoalescer;
+   volatile boolean                  isChangeLogEnabled;
+
+   StoreFeatures() {
+      permissionChangeDispatcher = new PermissionChangeDispatcher();
+   }
+
+   static synchronized StoreFeatures getInstance(Object storeKey) {
+      if (storeKey == null) {
+         throw new NullPointerException("Store required, none specified");
+      }
+
+      StoreFeatures storeFeatures = instances.get(storeKey);
+      if (storeFeatures == null) {
+         storeFeatures = new StoreFeatures();
+         instances.put(storeKey, storeFeatures);
+      }
+      return storeFeatures;
+   }
+}
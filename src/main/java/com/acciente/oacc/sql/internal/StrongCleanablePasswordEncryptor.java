@@ -60,6 +60,11 @@ public final class StrongCleanablePasswordEncryptor implements CleanablePassword
          return false;
       }
 
+      // digests rehashed with PBKDF2 remain valid even if the PBKDF2 encryptor is no longer used
+      if (PBKDF2CleanablePasswordEncryptor.isPBKDF2EncryptedPassword(encryptedPassword)) {
+         return PBKDF2CleanablePasswordEncryptor.checkPBKDF2Password(plainPassword, encryptedPassword);
+      }
+
       return this.digester.matches(getCleanedBytes(plainPassword),
                                    this.base64.decode(encryptedPassword.getBytes(StandardCharsets.US_ASCII)));
    }
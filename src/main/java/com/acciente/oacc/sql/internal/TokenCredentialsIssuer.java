@@ -0,0 +1,35 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.TokenCredentials;
+
+/**
+ * Implemented by the built-in authentication providers, to let an access control context obtain a session token
+ * for a resource that just authenticated with its password.
+ */
+public interface TokenCredentialsIssuer {
+   /**
+    * Issues a session token for the specified resource, if session tokens are enabled for its store.
+    *
+    * @param resource a resource that has just been authenticated with its password
+    * @return the token credentials, or null if session tokens are not enabled
+    */
+   TokenCredentials issueTokenCredentials(Resource resource);
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.io.Serializable;
+
+/**
+ * A row of the change log, which records every change to the resource classes, domains, resources
+ * and permission grants of an OACC system.
+ * <p/>
+ * The ids identify the rows that were changed directly; any of them may be null, in which case the
+ * change applies to all values of that id. Changes to the permissions of an accessor also affect
+ * the accessors that inherit from it, so consumers of the log must widen the scope of an entry to
+ * match whatever they derived from the changed rows.
+ */
+public final class ChangeLogEntry implements Serializable {
+   private static final long serialVersionUID = 1L;
+
+   public enum Kind {
+      RESOURCE_CLASS,
+      DOMAIN,
+      RESOURCE,
+      DOMAIN_PERMISSION,
+      DOMAIN_CREATE_PERMISSION,
+      RESOURCE_CREATE_PERMISSION,
+      RESOURCE_PERMISSION,
+      GLOBAL_RESOURCE_PERMISSION,
+   }
+
+   private final long changeSequence;
+   private final Kind kind;
+   private final Long accessorResourceId;
+   private final Long accessedResourceId;
+   private final Long accessedDomainId;
+   private final Long resourceClassId;
+
+   public ChangeLogEntry(long changeSequence,
+                         Kind kind,
+                         Id<ResourceId> accessorResourceId,
+                         Id<ResourceId> accessedResourceId,
+                         Id<DomainId> accessedDomainId,
+                         Id<ResourceClassId> resourceClassId) {
+      this.changeSequence = changeSequence;
+      this.kind = kind;
+      this.accessorResourceId = accessorResourceId == null ? null : accessorResourceId.getValue();
+      this.accessedResourceId = accessedResourceId == null ? null : accessedResourceId.getValue();
+      this.accessedDomainId = accessedDomainId == null ? null : accessedDomainId.getValue();
+      this.resourceClassId = resourceClassId == null ? null : resourceClassId.getValue();
+   }
+
+   public long getChangeSequence() {
+      return changeSequence;
+   }
+
+   public Kind getKind() {
+      return kind;
+   }
+
+   public Id<ResourceId> getAccessorResourceId() {
+      return Id.from(accessorResourceId);
+   }
+
+   public Id<ResourceId> getAccessedResourceId() {
+      return Id.from(accessedResourceId);
+   }
+
+   public Id<DomainId> getAccessedDomainId() {
+      return Id.from(accessedDomainId);
+   }
+
+   public Id<ResourceClassId> getResourceClassId() {
+      return Id.from(resourceClassId);
+   }
+
+   @Override
+   public String toString() {
+      return "ChangeLogEntry{" +
+            "changeSequence=" + changeSequence +
+            ", kind=" + kind +
+            ", accessorResourceId=" + accessorResourceId +
+            ", accessedResourceId=" + accessedResourceId +
+            ", accessedDomainId=" + accessedDomainId +
+            ", resourceClassId=" + resourceClassId +
+            '}';
+   }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.util.List;
+
+public interface ChangeLogPersister {
+   /**
+    * Appends an entry to the change log, on the same connection (and hence in the same transaction) as
+    * the change it records
+    */
+   void addChangeLogEntry(SQLConnection connection,
+                          ChangeLogEntry.Kind kind,
+                          Id<ResourceId> accessorResourceId,
+                          Id<ResourceId> accessedResourceId,
+                          Id<DomainId> accessedDomainId,
+                          Id<ResourceClassId> resourceClassId);
+
+   /**
+    * Returns the sequence number of the latest entry in the change log, or 0 if the log is empty
+    */
+   long getLastChangeSequence(SQLConnection connection);
+
+   /**
+    * Returns up to the specified number of change log entries after the specified sequence number, in
+    * ascending order of their sequence numbers, or null if entries after the specified sequence number
+    * are known to have been discarded from the log
+    */
+   List<ChangeLogEntry> getChangeLogEntries(SQLConnection connection, long afterChangeSequence, int maxEntries);
+
+   /**
+    * Discards all but the specified number of the latest entries of the change log, so that readers that
+    * have fallen behind the discarded entries are told that entries were lost
+    */
+   void pruneChangeLog(SQLConnection connection, int maxRetainedEntries);
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.sql.SQLProfile;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the OAC_ChangeLog table, which is created by the {@code create_changelog.sql} script of the
+ * dialect under {@code src/main/dbscripts} (shown here for HSQLDB):
+ * <pre>
+ *   CREATE SEQUENCE OAC_ChangeSeq AS BIGINT START WITH 1;  -- not for dialects that auto-increment instead
+ *   CREATE TABLE OAC_ChangeLog (
+ *      ChangeSeq          BIGINT NOT NULL,
+ *      ChangeKind         VARCHAR(40) NOT NULL,
+ *      AccessorResourceId BIGINT,
+ *      AccessedResourceId BIGINT,
+ *      AccessedDomainId   BIGINT,
+ *      ResourceClassId    BIGINT,
+ *      CONSTRAINT PK_CL PRIMARY KEY (ChangeSeq)
+ *   );
+ * </pre>
+ * The table is only written while the change log is enabled for a store, and grows until it is pruned.
+ * Pruning turns the latest discarded entry into a marker, since the sequence numbers may have gaps and so
+ * cannot tell a reader on their own whether entries after its position were discarded.
+ */
+public class CommonChangeLogPersister extends Persister implements ChangeLogPersister {
+   private static final long serialVersionUID = 1L;
+
+   protected final SQLProfile sqlProfile;
+   private final   SQLStrings sqlStrings;
+
+   // the kind of the entry that marks the latest entry discarded by pruning the change log
+   private static final String PRUNED_CHANGE_KIND = "PRUNED";
+
+   public CommonChangeLogPersister(SQLProfile sqlProfile,
+                                   SQLStrings sqlStrings) {
+      this.sqlProfile = sqlProfile;
+      this.sqlStrings = sqlStrings;
+   }
+
+   @Override
+   public void addChangeLogEntry(SQLConnection connection,
+                                 ChangeLogEntry.Kind kind,
+                                 Id<ResourceId> accessorResourceId,
+                                 Id<ResourceId> accessedResourceId,
+                                 Id<DomainId> accessedDomainId,
+                                 Id<ResourceClassId> resourceClassId) {
+      SQLStatement statement = null;
+
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_createInChangeLog_WITH_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID);
+         statement.setString(1, kind.name());
+         if (accessorResourceId == null) {
+            statement.setNull(2, Types.BIGINT);
+         }
+         else {
+            statement.setResourceId(2, accessorResourceId);
+         }
+         if (accessedResourceId == null) {
+            statement.setNull(3, Types.BIGINT);
+         }
+         else {
+            statement.setResourceId(3, accessedResourceId);
+         }
+         if (accessedDomainId == null) {
+            statement.setNull(4, Types.BIGINT);
+         }
+         else {
+            statement.setResourceDomainId(4, accessedDomainId);
+         }
+         if (resourceClassId == null) {
+            statement.setNull(5, Types.BIGINT);
+         }
+         else {
+            statement.setResourceClassId(5, resourceClassId);
+         }
+
+         assertOneRowInserted(statement.executeUpdate());
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public long getLastChangeSequence(SQLConnection connection) {
+      SQLStatement statement = null;
+
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_findInChangeLog_MaxChangeSeq);
+         SQLResult resultSet = statement.executeQuery();
+
+         // MAX() of an empty table is NULL, which reads as 0
+         long lastChangeSequence = 0;
+         if (resultSet.next()) {
+            lastChangeSequence = resultSet.getLong("ChangeSeq");
+         }
+         resultSet.close();
+
+         return lastChangeSequence;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public List<ChangeLogEntry> getChangeLogEntries(SQLConnection connection, long afterChangeSequence, int maxEntries) {
+      SQLStatement statement = null;
+
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_findInChangeLog_ChangeSeq_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID_BY_ChangeSeq);
+         statement.setChangeSequence(1, afterChangeSequence);
+         statement.setMaxRows(maxEntries);
+         SQLResult resultSet = statement.executeQuery();
+
+         final List<ChangeLogEntry> changeLogEntries = new ArrayList<>();
+         while (resultSet.next()) {
+            if (PRUNED_CHANGE_KIND.equals(resultSet.getString("ChangeKind"))) {
+               // entries after the specified sequence number, up to the marker, may have been discarded
+               resultSet.close();
+               return null;
+            }
+            changeLogEntries.add(new ChangeLogEntry(resultSet.getLong("ChangeSeq"),
+                                                    ChangeLogEntry.Kind.valueOf(resultSet.getString("ChangeKind")),
+                                                    resultSet.getNullableResourceId("AccessorResourceId"),
+                                                    resultSet.getNullableResourceId("AccessedResourceId"),
+                                                    resultSet.getNullableResourceDomainId("AccessedDomainId"),
+                                                    resultSet.getNullableResourceClassId("ResourceClassId")));
+         }
+         resultSet.close();
+
+         return changeLogEntries;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public void pruneChangeLog(SQLConnection connection, int maxRetainedEntries) {
+      SQLStatement statement = null;
+
+      try {
+         // find the latest entry to discard, which is preceded by at most the entries to retain
+         statement = connection.prepareStatement(sqlStrings.SQL_findInChangeLog_ChangeSeq_ORDER_BY_ChangeSeq_DESC);
+         statement.setMaxRows(maxRetainedEntries + 1);
+         SQLResult resultSet = statement.executeQuery();
+
+         int entryCount = 0;
+         long latestDiscardedChangeSequence = 0;
+         while (resultSet.next()) {
+            entryCount++;
+            latestDiscardedChangeSequence = resultSet.getLong("ChangeSeq");
+         }
+         resultSet.close();
+         closeStatement(statement);
+         statement = null;
+
+         if (entryCount <= maxRetainedEntries) {
+            return;
+         }
+
+         // mark the entry before discarding the ones preceding it, so that a reader never misses the pruning
+         statement = connection.prepareStatement(sqlStrings.SQL_updateInChangeLog_SET_ChangeKind_BY_ChangeSeq);
+         statement.setString(1, PRUNED_CHANGE_KIND);
+         statement.setChangeSequence(2, latestDiscardedChangeSequence);
+         assertOneRowUpdated(statement.executeUpdate());
+         closeStatement(statement);
+         statement = null;
+
+         statement = connection.prepareStatement(sqlStrings.SQL_removeInChangeLog_BY_ChangeSeq_BEFORE);
+         statement.setChangeSequence(1, latestDiscardedChangeSequence);
+         statement.executeUpdate();
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+}
@@ -23,6 +23,7 @@ import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Set;
 
 public abstract class CommonDomainPersister extends Persister implements DomainPersister {
@@ -99,6 +100,10 @@ public abstract class CommonDomainPersister extends Persister implements DomainP
    public abstract Set<String> getResourceDomainNameDescendants(SQLConnection connection,
                                                                 String resourceDomainName);
 
+   @Override
+   public abstract List<Id<DomainId>> getAncestorDomainIds(SQLConnection connection,
+                                                           Id<DomainId> domainId);
+
    @Override
    public void addResourceDomain(SQLConnection connection,
                                  String resourceDomainName) {
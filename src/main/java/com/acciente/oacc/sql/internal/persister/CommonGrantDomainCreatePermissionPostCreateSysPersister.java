@@ -107,6 +107,19 @@ public abstract class CommonGrantDomainCreatePermissionPostCreateSysPersister ex
       }
    }
 
+   @Override
+   public void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                          Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
                                                           Resource accessorResource,
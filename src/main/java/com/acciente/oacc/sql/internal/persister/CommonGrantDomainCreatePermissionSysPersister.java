@@ -153,6 +153,19 @@ public abstract class CommonGrantDomainCreatePermissionSysPersister extends Pers
       }
    }
 
+   @Override
+   public void removeDomainCreateSysPermissions(SQLConnection connection,
+                                                Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public void removeDomainCreateSysPermissions(SQLConnection connection,
                                                 Resource accessorResource,
@@ -28,6 +28,7 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -49,6 +50,13 @@ public abstract class CommonGrantDomainPermissionSysPersister extends Persister
                                                                          Resource accessorResource,
                                                                          Id<ResourceClassId> resourceClassId);
 
+   @Override
+   public abstract List<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                          Resource accessorResource,
+                                                                          Id<ResourceClassId> resourceClassId,
+                                                                          long afterResourceId,
+                                                                          int maxResources);
+
    @Override
    public abstract Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
                                                                          Resource accessorResource,
@@ -219,6 +227,19 @@ public abstract class CommonGrantDomainPermissionSysPersister extends Persister
       }
    }
 
+   @Override
+   public void removeAllDomainSysPermissions(SQLConnection connection,
+                                             Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantDomainPermissionSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllDomainSysPermissions(SQLConnection connection, Id<DomainId> domainId) ;
 
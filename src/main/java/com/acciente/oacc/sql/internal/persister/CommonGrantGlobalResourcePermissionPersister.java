@@ -29,6 +29,7 @@ import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -49,6 +50,15 @@ public abstract class CommonGrantGlobalResourcePermissionPersister extends Persi
                                                                         ResourcePermission resourcePermission,
                                                                         Id<ResourcePermissionId> resourcePermissionId);
 
+   @Override
+   public abstract List<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
+                                                                         Resource accessorResource,
+                                                                         Id<ResourceClassId> resourceClassId,
+                                                                         ResourcePermission resourcePermission,
+                                                                         Id<ResourcePermissionId> resourcePermissionId,
+                                                                         long afterResourceId,
+                                                                         int maxResources);
+
    @Override
    public abstract Set<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
                                                                         Resource accessorResource,
@@ -95,14 +105,37 @@ public abstract class CommonGrantGlobalResourcePermissionPersister extends Persi
       }
    }
 
+   @Override
+   public boolean hasGlobalResourcePermissions(SQLConnection connection,
+                                               Id<ResourceClassId> resourceClassId) {
+      SQLStatement statement = null;
+      try {
+         // any single grant will do, so we only read the first row
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_AccessorID_BY_ResourceClassID);
+         statement.setResourceClassId(1, resourceClassId);
+         SQLResult resultSet = statement.executeQuery();
+
+         final boolean hasPermissions = resultSet.next();
+         resultSet.close();
+
+         return hasPermissions;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    protected static ResourcePermission getResourcePermission(SQLResult resultSet) throws SQLException {
       final String permissionName = resultSet.getString("PermissionName");
 
       if (resultSet.getBoolean("IsWithGrant")) {
-         return ResourcePermissions.getInstanceWithGrantOption(permissionName);
+         return ResourcePermissions.getInternedInstance(permissionName, true);
       }
       else {
-         return ResourcePermissions.getInstance(permissionName);
+         return ResourcePermissions.getInternedInstance(permissionName, false);
       }
    }
 
@@ -239,6 +272,19 @@ public abstract class CommonGrantGlobalResourcePermissionPersister extends Persi
       }
    }
 
+   @Override
+   public void removeAllGlobalResourcePermissions(SQLConnection connection,
+                                                  Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantGlobalResourcePermission_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllGlobalResourcePermissions(SQLConnection connection,
                                                            Id<DomainId> accessedDomainId);
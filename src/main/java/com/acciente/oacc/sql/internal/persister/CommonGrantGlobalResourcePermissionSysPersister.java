@@ -28,6 +28,7 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,6 +48,14 @@ public abstract class CommonGrantGlobalResourcePermissionSysPersister extends Pe
                                                                    Id<ResourceClassId> resourceClassId,
                                                                    ResourcePermission resourcePermission);
 
+   @Override
+   public abstract List<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                                    Resource accessorResource,
+                                                                    Id<ResourceClassId> resourceClassId,
+                                                                    ResourcePermission resourcePermission,
+                                                                    long afterResourceId,
+                                                                    int maxResources);
+
    @Override
    public abstract Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
                                                                    Resource accessorResource,
@@ -92,6 +101,29 @@ public abstract class CommonGrantGlobalResourcePermissionSysPersister extends Pe
       }
    }
 
+   @Override
+   public boolean hasGlobalSysPermissions(SQLConnection connection,
+                                          Id<ResourceClassId> resourceClassId) {
+      SQLStatement statement = null;
+      try {
+         // any single grant will do, so we only read the first row
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_AccessorID_BY_ResourceClassID);
+         statement.setResourceClassId(1, resourceClassId);
+         SQLResult resultSet = statement.executeQuery();
+
+         final boolean hasPermissions = resultSet.next();
+         resultSet.close();
+
+         return hasPermissions;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    protected static ResourcePermission getResourceSysPermission(SQLResult resultSet) throws SQLException {
       final String sysPermissionName = resultSet.getResourceSysPermissionName("SysPermissionId");
 
@@ -236,6 +268,19 @@ public abstract class CommonGrantGlobalResourcePermissionSysPersister extends Pe
       }
    }
 
+   @Override
+   public void removeAllGlobalSysPermissions(SQLConnection connection,
+                                             Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllGlobalSysPermissions(SQLConnection connection,
                                                       Id<DomainId> accessedDomainId);
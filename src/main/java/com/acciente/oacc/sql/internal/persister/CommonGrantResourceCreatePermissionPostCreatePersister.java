@@ -106,10 +106,10 @@ public abstract class CommonGrantResourceCreatePermissionPostCreatePersister ext
       final String postCreatePermissionName = resultSet.getString("PostCreatePermissionName");
 
       if (resultSet.getBoolean("PostCreateIsWithGrant")) {
-         postCreatePermission = ResourcePermissions.getInstanceWithGrantOption(postCreatePermissionName);
+         postCreatePermission = ResourcePermissions.getInternedInstance(postCreatePermissionName, true);
       }
       else {
-         postCreatePermission = ResourcePermissions.getInstance(postCreatePermissionName);
+         postCreatePermission = ResourcePermissions.getInternedInstance(postCreatePermissionName, false);
       }
 
       if (resultSet.getBoolean("IsWithGrant")) {
@@ -238,6 +238,19 @@ public abstract class CommonGrantResourceCreatePermissionPostCreatePersister ext
       }
    }
 
+   @Override
+   public void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                            Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
                                                             Id<DomainId> accessedDomainId);
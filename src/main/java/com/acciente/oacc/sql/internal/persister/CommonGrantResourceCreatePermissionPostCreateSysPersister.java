@@ -238,6 +238,19 @@ public abstract class CommonGrantResourceCreatePermissionPostCreateSysPersister
       }
    }
 
+   @Override
+   public void removeAllResourceCreatePostCreateSysPermissions(SQLConnection connection,
+                                                               Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllResourceCreatePostCreateSysPermissions(SQLConnection connection,
                                                                         Id<DomainId> accessedDomainId);
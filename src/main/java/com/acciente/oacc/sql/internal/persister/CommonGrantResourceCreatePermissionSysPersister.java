@@ -223,6 +223,19 @@ public abstract class CommonGrantResourceCreatePermissionSysPersister extends Pe
       }
    }
 
+   @Override
+   public void removeAllResourceCreateSysPermissions(SQLConnection connection,
+                                                     Set<Resource> accessorResources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorIDs,
+                                          accessorResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public abstract void removeAllResourceCreateSysPermissions(SQLConnection connection,
                                                               Id<DomainId> accessedDomainId);
@@ -27,7 +27,10 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public abstract class CommonGrantResourcePermissionPersister extends Persister implements GrantResourcePermissionPersister {
@@ -47,6 +50,15 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
                                                                   ResourcePermission resourcePermission,
                                                                   Id<ResourcePermissionId> resourcePermissionId);
 
+   @Override
+   public abstract List<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                                   Resource accessorResource,
+                                                                   Id<ResourceClassId> resourceClassId,
+                                                                   ResourcePermission resourcePermission,
+                                                                   Id<ResourcePermissionId> resourcePermissionId,
+                                                                   long afterResourceId,
+                                                                   int maxResources);
+
    @Override
    public abstract Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
                                                                   Resource accessorResource,
@@ -93,6 +105,43 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
       }
    }
 
+   @Override
+   public List<Resource> getAccessorResourcesByResourcePermission(SQLConnection connection,
+                                                                  Resource accessedResource,
+                                                                  Id<ResourceClassId> resourceClassId,
+                                                                  ResourcePermission resourcePermission,
+                                                                  Id<ResourcePermissionId> resourcePermissionId,
+                                                                  long afterResourceId,
+                                                                  int maxResources) {
+      if (resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of resources of the specified type that direct permissions to the specified accessed resource
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID);
+         statement.setResourceId(1, accessedResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourcePermissionId(3, resourcePermissionId);
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceId(5, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public abstract Map<Resource, Set<ResourcePermission>> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                                                 Resource accessorResource,
+                                                                                                 Set<Resource> accessedResources);
+
    @Override
    public abstract Set<ResourcePermission> getResourcePermissionsIncludeInherited(SQLConnection connection,
                                                                                   Resource accessorResource,
@@ -127,14 +176,72 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
       }
    }
 
+   @Override
+   public boolean hasResourcePermissions(SQLConnection connection,
+                                         Id<ResourceClassId> resourceClassId) {
+      SQLStatement statement = null;
+      try {
+         // any single grant will do, so we only read the first row
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_AccessorID_BY_ResourceClassID);
+         statement.setResourceClassId(1, resourceClassId);
+         SQLResult resultSet = statement.executeQuery();
+
+         final boolean hasPermissions = resultSet.next();
+         resultSet.close();
+
+         return hasPermissions;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getAccessorResourcePermissionsMap(SQLConnection connection,
+                                                                                   Resource accessedResource) {
+      SQLStatement statement = null;
+      try {
+         SQLResult resultSet;
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+
+         // collect the direct non-system permissions that any accessor has to the accessed resource
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_AccessorID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessedID);
+         statement.setResourceId(1, accessedResource);
+         resultSet = statement.executeQuery();
+
+         while (resultSet.next()) {
+            final Resource accessorResource = resultSet.getResource("AccessorResourceId");
+
+            Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessorResource);
+            if (resourcePermissions == null) {
+               resourcePermissions = new HashSet<>();
+               resourcePermissionsMap.put(accessorResource, resourcePermissions);
+            }
+            resourcePermissions.add(getResourcePermission(resultSet));
+         }
+         resultSet.close();
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    protected static ResourcePermission getResourcePermission(SQLResult resultSet) throws SQLException {
       final String permissionName = resultSet.getString("PermissionName");
 
       if (resultSet.getBoolean("IsWithGrant")) {
-         return ResourcePermissions.getInstanceWithGrantOption(permissionName);
+         return ResourcePermissions.getInternedInstance(permissionName, true);
       }
       else {
-         return ResourcePermissions.getInstance(permissionName);
+         return ResourcePermissions.getInternedInstance(permissionName, false);
       }
    }
 
@@ -169,6 +276,44 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
       }
    }
 
+   @Override
+   public void addResourcePermissions(SQLConnection connection,
+                                      Set<Resource> accessorResources,
+                                      Resource accessedResource,
+                                      Id<ResourceClassId> accessedResourceClassId,
+                                      Set<ResourcePermission> requestedResourcePermissions,
+                                      Resource grantorResource) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_createInGrantResourcePermission_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_PermissionName);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (!resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, accessorResource);
+                  statement.setResourceId(2, grantorResource);
+                  statement.setResourceId(3, accessedResource);
+                  statement.setBoolean(4, resourcePermission.isWithGrantOption());
+                  statement.setResourceClassId(5, accessedResourceClassId);
+                  statement.setString(6, resourcePermission.getPermissionName());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowInsertedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public void updateResourcePermissions(SQLConnection connection,
                                          Resource accessorResource,
@@ -200,6 +345,44 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
       }
    }
 
+   @Override
+   public void updateResourcePermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_updateInGrantResourcePermission_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedID_ResourceClassID_PermissionName);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (!resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, grantorResource);
+                  statement.setBoolean(2, resourcePermission.isWithGrantOption());
+                  statement.setResourceId(3, accessorResource);
+                  statement.setResourceId(4, accessedResource);
+                  statement.setResourceClassId(5, accessedResourceClassId);
+                  statement.setString(6, resourcePermission.getPermissionName());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowUpdatedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
                                                                 Resource resource) {
@@ -218,6 +401,19 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
       }
    }
 
+   @Override
+   public void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                Set<Resource> resources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantResourcePermission_BY_AccessorIDs_OR_AccessedIDs,
+                                          resources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public void removeResourcePermissions(SQLConnection connection,
                                          Resource accessorResource,
@@ -264,4 +460,39 @@ public abstract class CommonGrantResourcePermissionPersister extends Persister i
          closeStatement(statement);
       }
    }
+
+   @Override
+   public void removeResourcePermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantResourcePermission_BY_AccessorID_AccessedID_ResourceClassID_PermissionName);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (!resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, accessorResource);
+                  statement.setResourceId(2, accessedResource);
+                  statement.setResourceClassId(3, accessedResourceClassId);
+                  statement.setString(4, resourcePermission.getPermissionName());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowUpdatedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
 }
@@ -26,7 +26,10 @@ import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public abstract class CommonGrantResourcePermissionSysPersister extends Persister implements GrantResourcePermissionSysPersister {
@@ -45,6 +48,14 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
                                                                      Id<ResourceClassId> resourceClassId,
                                                                      ResourcePermission resourcePermission);
 
+   @Override
+   public abstract List<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                                      Resource accessorResource,
+                                                                      Id<ResourceClassId> resourceClassId,
+                                                                      ResourcePermission resourcePermission,
+                                                                      long afterResourceId,
+                                                                      int maxResources);
+
    @Override
    public abstract Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
                                                                      Resource accessorResource,
@@ -89,11 +100,56 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
       }
    }
 
+   @Override
+   public List<Resource> getAccessorResourcesByResourceSysPermission(SQLConnection connection,
+                                                                     Resource accessedResource,
+                                                                     Id<ResourceClassId> resourceClassId,
+                                                                     ResourcePermission resourcePermission,
+                                                                     long afterResourceId,
+                                                                     int maxResources) {
+      if (!resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of resources of the specified type that direct permissions to the specified accessed resource
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID);
+         statement.setResourceId(1, accessedResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceId(5, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public abstract Map<Resource, Set<ResourcePermission>> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                                    Resource accessorResource,
+                                                                                                    Set<Resource> accessedResources);
+
    @Override
    public abstract Set<ResourcePermission> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
                                                                                      Resource accessorResource,
                                                                                      Resource accessedResource);
 
+   @Override
+   public abstract Resource findInheritedResource(SQLConnection connection,
+                                                  Resource accessorResource,
+                                                  Set<Resource> candidateResources);
+
+   @Override
+   public abstract Set<Resource> getInheritedResources(SQLConnection connection,
+                                                       Resource accessorResource);
+
    @Override
    public Set<ResourcePermission> getResourceSysPermissions(SQLConnection connection,
                                                             Resource accessorResource,
@@ -124,6 +180,41 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
       }
    }
 
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getAccessorResourceSysPermissionsMap(SQLConnection connection,
+                                                                                      Resource accessedResource) {
+      SQLStatement statement = null;
+      try {
+         SQLResult resultSet;
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+
+         // collect the direct system permissions that any accessor has to the accessed resource
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessorID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessedID);
+         statement.setResourceId(1, accessedResource);
+         resultSet = statement.executeQuery();
+
+         while (resultSet.next()) {
+            final Resource accessorResource = resultSet.getResource("AccessorResourceId");
+
+            Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessorResource);
+            if (resourcePermissions == null) {
+               resourcePermissions = new HashSet<>();
+               resourcePermissionsMap.put(accessorResource, resourcePermissions);
+            }
+            resourcePermissions.add(getResourceSysPermission(resultSet));
+         }
+         resultSet.close();
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    protected static ResourcePermission getResourceSysPermission(SQLResult resultSet) throws SQLException {
       final String sysPermissionName = resultSet.getResourceSysPermissionName("SysPermissionId");
 
@@ -167,6 +258,44 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
       }
    }
 
+   @Override
+   public void addResourceSysPermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources,
+                                         Resource accessedResource,
+                                         Id<ResourceClassId> accessedResourceClassId,
+                                         Set<ResourcePermission> requestedResourcePermissions,
+                                         Resource grantorResource) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_createInGrantResourcePermissionSys_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_SysPermissionID);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, accessorResource);
+                  statement.setResourceId(2, grantorResource);
+                  statement.setResourceId(3, accessedResource);
+                  statement.setBoolean(4, resourcePermission.isWithGrantOption());
+                  statement.setResourceClassId(5, accessedResourceClassId);
+                  statement.setResourceSystemPermissionId(6, resourcePermission.getSystemPermissionId());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowInsertedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public void updateResourceSysPermissions(SQLConnection connection,
                                             Resource accessorResource,
@@ -199,6 +328,44 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
       }
    }
 
+   @Override
+   public void updateResourceSysPermissions(SQLConnection connection,
+                                            Set<Resource> accessorResources,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions,
+                                            Resource grantorResource) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_updateInGrantResourcePermissionSys_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedID_ResourceClassID_SysPermissionID);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, grantorResource);
+                  statement.setBoolean(2, resourcePermission.isWithGrantOption());
+                  statement.setResourceId(3, accessorResource);
+                  statement.setResourceId(4, accessedResource);
+                  statement.setResourceClassId(5, accessedResourceClassId);
+                  statement.setResourceSystemPermissionId(6, resourcePermission.getSystemPermissionId());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowUpdatedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
                                                                    Resource resource) {
@@ -217,6 +384,19 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
       }
    }
 
+   @Override
+   public void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                                   Set<Resource> resources) {
+      try {
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInGrantResourcePermissionSys_BY_AccessorIDs_OR_AccessedIDs,
+                                          resources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public void removeResourceSysPermissions(SQLConnection connection,
                                             Resource accessorResource,
@@ -263,4 +443,39 @@ public abstract class CommonGrantResourcePermissionSysPersister extends Persiste
          closeStatement(statement);
       }
    }
+
+   @Override
+   public void removeResourceSysPermissions(SQLConnection connection,
+                                            Set<Resource> accessorResources,
+                                            Resource accessedResource,
+                                            Id<ResourceClassId> accessedResourceClassId,
+                                            Set<ResourcePermission> requestedResourcePermissions) {
+      SQLStatement statement = null;
+      try {
+         boolean hasBatchEntries = false;
+         statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantResourcePermissionSys_BY_AccessorID_AccessedID_ResourceClassID_SysPermissionID);
+         for (ResourcePermission resourcePermission : requestedResourcePermissions) {
+            if (resourcePermission.isSystemPermission()) {
+               for (Resource accessorResource : accessorResources) {
+                  statement.setResourceId(1, accessorResource);
+                  statement.setResourceId(2, accessedResource);
+                  statement.setResourceClassId(3, accessedResourceClassId);
+                  statement.setResourceSystemPermissionId(4, resourcePermission.getSystemPermissionId());
+                  statement.addBatch();
+                  hasBatchEntries = true;
+               }
+            }
+         }
+
+         if (hasBatchEntries) {
+            assertOneRowUpdatedPerBatchEntry(statement.executeBatch());
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
 }
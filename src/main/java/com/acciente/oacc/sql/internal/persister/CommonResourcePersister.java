@@ -26,6 +26,10 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class CommonResourcePersister extends Persister implements ResourcePersister {
    protected static final String[] GENERATED_KEY_COLUMNS = new String[]{"ResourceId"};
@@ -183,6 +187,28 @@ public abstract class CommonResourcePersister extends Persister implements Resou
       }
    }
 
+   @Override
+   public void deleteResources(SQLConnection connection,
+                               Set<Resource> resources) {
+      try {
+         // delete the resources' external id mappings, if they exist
+         executeUpdateByResourcesInChunks(connection,
+                                          sqlStrings.SQL_removeInResourceExternalId_BY_ResourceIDs,
+                                          resources);
+
+         // delete resources
+         final int rowCount = executeUpdateByResourcesInChunks(connection,
+                                                               sqlStrings.SQL_removeInResource_BY_ResourceIDs,
+                                                               resources);
+         if (rowCount != resources.size()) {
+            throw new IllegalStateException("Security table data update, " + resources.size() + " rows expected, got: " + rowCount);
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public Id<DomainId> getDomainIdByResource(SQLConnection connection,
                                              Resource resource) {
@@ -213,6 +239,43 @@ public abstract class CommonResourcePersister extends Persister implements Resou
       }
    }
 
+   @Override
+   public Map<Resource, Id<DomainId>> getDomainIdsByResources(SQLConnection connection,
+                                                              Set<Resource> resources) {
+      final Map<Resource, Id<DomainId>> domainIds = new HashMap<>(resources.size());
+
+      try {
+         for (List<Resource> chunk : chunkForInList(resources)) {
+            SQLStatement statement = null;
+            try {
+               statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInResource_ResourceID_DomainID_BY_ResourceIDs,
+                                                                    chunk.size()));
+               setInListResourceIds(statement, 1, chunk);
+               SQLResult resultSet = statement.executeQuery();
+
+               while (resultSet.next()) {
+                  domainIds.put(resultSet.getResource("ResourceId"), resultSet.getResourceDomainId("DomainId"));
+               }
+               resultSet.close();
+            }
+            finally {
+               closeStatement(statement);
+            }
+         }
+
+         for (Resource resource : resources) {
+            if (!domainIds.containsKey(resource)) {
+               throw new IllegalArgumentException("Could not determine domain for resource: " + resource);
+            }
+         }
+
+         return domainIds;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    public Id<ResourceId> getNextResourceId(SQLConnection connection) {
       SQLStatement statement = null;
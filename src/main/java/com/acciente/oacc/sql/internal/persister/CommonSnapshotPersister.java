@@ -0,0 +1,165 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.sql.SQLProfile;
+
+import java.sql.SQLException;
+
+public class CommonSnapshotPersister extends Persister implements SnapshotPersister {
+   private static final long serialVersionUID = 1L;
+
+   protected final SQLProfile sqlProfile;
+   private final   SQLStrings sqlStrings;
+
+   public CommonSnapshotPersister(SQLProfile sqlProfile,
+                                  SQLStrings sqlStrings) {
+      this.sqlProfile = sqlProfile;
+      this.sqlStrings = sqlStrings;
+   }
+
+   @Override
+   public void readSnapshot(SQLConnection connection, SnapshotVisitor snapshotVisitor) {
+      SQLStatement statement = null;
+
+      try {
+         SQLResult resultSet;
+
+         // domains
+         statement = connection.prepareStatement(sqlStrings.SQL_findInDomain_DomainID_ResourceDomainName_ParentDomainID_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitDomain(resultSet.getResourceDomainId("DomainId"),
+                                        resultSet.getString("DomainName"),
+                                        resultSet.getNullableResourceDomainId("ParentDomainId"));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         // resource classes and their permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitResourceClass(resultSet.getResourceClassId("ResourceClassId"),
+                                               resultSet.getString("ResourceClassName"),
+                                               resultSet.getBoolean("IsAuthenticatable"));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClassPermission_ResourceClassID_PermissionName_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitResourceClassPermission(resultSet.getResourceClassId("ResourceClassId"),
+                                                         resultSet.getString("PermissionName"));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         // resources
+         statement = connection.prepareStatement(sqlStrings.SQL_findInResource_ResourceID_ResourceClassID_DomainID_ExternalID_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitResource(resultSet.getResourceId("ResourceId"),
+                                          resultSet.getResourceClassId("ResourceClassId"),
+                                          resultSet.getResourceDomainId("DomainId"),
+                                          resultSet.getString("ExternalId"));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         // direct resource permissions, system permissions first
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_AccessorID_AccessedID_SysPermissionID_IsWithGrant_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitResourcePermission(resultSet.getResourceId("AccessorResourceId"),
+                                                    resultSet.getResourceId("AccessedResourceId"),
+                                                    ResourcePermissions
+                                                          .getInternedInstance(resultSet.getResourceSysPermissionName("SysPermissionId"),
+                                                                               resultSet.getBoolean("IsWithGrant")));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_AccessorID_AccessedID_PermissionName_IsWithGrant_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitResourcePermission(resultSet.getResourceId("AccessorResourceId"),
+                                                    resultSet.getResourceId("AccessedResourceId"),
+                                                    ResourcePermissions.getInternedInstance(resultSet.getString("PermissionName"),
+                                                                                            resultSet.getBoolean("IsWithGrant")));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         // global resource permissions, system permissions first
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID_IsWithGrant_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitGlobalResourcePermission(resultSet.getResourceId("AccessorResourceId"),
+                                                          resultSet.getResourceDomainId("AccessedDomainId"),
+                                                          resultSet.getResourceClassId("ResourceClassId"),
+                                                          ResourcePermissions
+                                                                .getInternedInstance(resultSet.getResourceSysPermissionName("SysPermissionId"),
+                                                                                     resultSet.getBoolean("IsWithGrant")));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_AccessorID_AccessedDomainID_ResourceClassID_PermissionName_IsWithGrant_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            snapshotVisitor.visitGlobalResourcePermission(resultSet.getResourceId("AccessorResourceId"),
+                                                          resultSet.getResourceDomainId("AccessedDomainId"),
+                                                          resultSet.getResourceClassId("ResourceClassId"),
+                                                          ResourcePermissions
+                                                                .getInternedInstance(resultSet.getString("PermissionName"),
+                                                                                     resultSet.getBoolean("IsWithGrant")));
+         }
+         resultSet.close();
+         closeStatement(statement);
+
+         // domain permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_AccessorID_AccessedDomainID_SysPermissionID_IsWithGrant_BY_ALL);
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            final String domainPermissionName = resultSet.getDomainSysPermissionName("SysPermissionId");
+            final DomainPermission domainPermission;
+            if (resultSet.getBoolean("IsWithGrant")) {
+               domainPermission = DomainPermissions.getInstanceWithGrantOption(domainPermissionName);
+            }
+            else {
+               domainPermission = DomainPermissions.getInstance(domainPermissionName);
+            }
+            snapshotVisitor.visitDomainPermission(resultSet.getResourceId("AccessorResourceId"),
+                                                  resultSet.getResourceDomainId("AccessedDomainId"),
+                                                  domainPermission);
+         }
+         resultSet.close();
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+}
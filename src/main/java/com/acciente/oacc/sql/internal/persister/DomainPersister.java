@@ -21,6 +21,7 @@ import com.acciente.oacc.Resource;
 import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 
+import java.util.List;
 import java.util.Set;
 
 public interface DomainPersister {
@@ -33,6 +34,9 @@ public interface DomainPersister {
    Set<String> getResourceDomainNameDescendants(SQLConnection connection,
                                                 String resourceDomainName);
 
+   List<Id<DomainId>> getAncestorDomainIds(SQLConnection connection,
+                                           Id<DomainId> domainId);
+
    void addResourceDomain(SQLConnection connection,
                           String resourceDomainName);
 
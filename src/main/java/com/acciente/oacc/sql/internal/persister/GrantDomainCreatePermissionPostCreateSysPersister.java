@@ -15,6 +15,9 @@ public interface GrantDomainCreatePermissionPostCreateSysPersister {
    void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
                                                    Resource accessorResource);
 
+   void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
+                                                   Set<Resource> accessorResources);
+
    void removeDomainCreatePostCreateSysPermissions(SQLConnection connection,
                                                    Resource accessorResource,
                                                    Set<DomainCreatePermission> domainCreatePermissions);
@@ -42,6 +42,9 @@ public interface GrantDomainCreatePermissionSysPersister {
    void removeDomainCreateSysPermissions(SQLConnection connection,
                                          Resource accessorResource);
 
+   void removeDomainCreateSysPermissions(SQLConnection connection,
+                                         Set<Resource> accessorResources);
+
    void removeDomainCreateSysPermissions(SQLConnection connection,
                                          Resource accessorResource,
                                          Set<DomainCreatePermission> domainCreatePermissions);
@@ -23,6 +23,7 @@ import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,6 +32,12 @@ public interface GrantDomainPermissionSysPersister {
                                                          Resource accessorResource,
                                                          Id<ResourceClassId> resourceClassId);
 
+   List<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          long afterResourceId,
+                                                          int maxResources);
+
    Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
                                                          Resource accessorResource,
                                                          Id<ResourceClassId> resourceClassId,
@@ -65,6 +72,9 @@ public interface GrantDomainPermissionSysPersister {
    void removeAllDomainSysPermissions(SQLConnection connection,
                                       Resource accessorResource);
 
+   void removeAllDomainSysPermissions(SQLConnection connection,
+                                      Set<Resource> accessorResources);
+
    void removeAllDomainSysPermissions(SQLConnection connection,
                                       Id<DomainId> domainId);
 
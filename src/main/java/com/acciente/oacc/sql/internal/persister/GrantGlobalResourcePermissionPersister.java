@@ -24,6 +24,7 @@ import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,6 +35,14 @@ public interface GrantGlobalResourcePermissionPersister {
                                                         ResourcePermission resourcePermission,
                                                         Id<ResourcePermissionId> resourcePermissionId);
 
+   List<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
+                                                         Resource accessorResource,
+                                                         Id<ResourceClassId> resourceClassId,
+                                                         ResourcePermission resourcePermission,
+                                                         Id<ResourcePermissionId> resourcePermissionId,
+                                                         long afterResourceId,
+                                                         int maxResources);
+
    Set<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
                                                         Resource accessorResource,
                                                         Id<ResourceClassId> resourceClassId,
@@ -51,6 +60,9 @@ public interface GrantGlobalResourcePermissionPersister {
                                                         Id<ResourceClassId> resourceClassId,
                                                         Id<DomainId> resourceDomainId);
 
+   boolean hasGlobalResourcePermissions(SQLConnection connection,
+                                        Id<ResourceClassId> resourceClassId);
+
    Map<String, Map<String, Set<ResourcePermission>>> getGlobalResourcePermissionsIncludeInherited(SQLConnection connection,
                                                                                                   Resource accessorResource);
 
@@ -74,6 +86,9 @@ public interface GrantGlobalResourcePermissionPersister {
    void removeAllGlobalResourcePermissions(SQLConnection connection,
                                            Resource accessorResource);
 
+   void removeAllGlobalResourcePermissions(SQLConnection connection,
+                                           Set<Resource> accessorResources);
+
    void removeAllGlobalResourcePermissions(SQLConnection connection,
                                            Id<DomainId> accessedDomainId);
 
@@ -23,6 +23,7 @@ import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +33,13 @@ public interface GrantGlobalResourcePermissionSysPersister {
                                                    Id<ResourceClassId> resourceClassId,
                                                    ResourcePermission resourcePermission);
 
+   List<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                    Resource accessorResource,
+                                                    Id<ResourceClassId> resourceClassId,
+                                                    ResourcePermission resourcePermission,
+                                                    long afterResourceId,
+                                                    int maxResources);
+
    Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
                                                    Resource accessorResource,
                                                    Id<ResourceClassId> resourceClassId,
@@ -48,6 +56,9 @@ public interface GrantGlobalResourcePermissionSysPersister {
                                                    Id<ResourceClassId> resourceClassId,
                                                    Id<DomainId> resourceDomainId);
 
+   boolean hasGlobalSysPermissions(SQLConnection connection,
+                                   Id<ResourceClassId> resourceClassId);
+
    Map<String, Map<String, Set<ResourcePermission>>> getGlobalSysPermissionsIncludeInherited(SQLConnection connection,
                                                                                              Resource accessorResource);
 
@@ -71,6 +82,9 @@ public interface GrantGlobalResourcePermissionSysPersister {
    void removeAllGlobalSysPermissions(SQLConnection connection,
                                       Resource accessorResource);
 
+   void removeAllGlobalSysPermissions(SQLConnection connection,
+                                      Set<Resource> accessorResources);
+
    void removeAllGlobalSysPermissions(SQLConnection connection,
                                       Id<DomainId> accessedDomainId);
 
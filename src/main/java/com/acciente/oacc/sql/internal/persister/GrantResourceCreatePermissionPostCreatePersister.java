@@ -61,6 +61,9 @@ public interface GrantResourceCreatePermissionPostCreatePersister {
    void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
                                                      Resource accessorResource);
 
+   void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
+                                                     Set<Resource> accessorResources);
+
    void removeAllResourceCreatePostCreatePermissions(SQLConnection connection,
                                                      Id<DomainId> accessedDomainId);
 
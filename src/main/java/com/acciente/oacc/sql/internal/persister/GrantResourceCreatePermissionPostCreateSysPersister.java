@@ -61,6 +61,9 @@ public interface GrantResourceCreatePermissionPostCreateSysPersister {
    void removeAllResourceCreatePostCreateSysPermissions(SQLConnection connection,
                                                         Resource accessorResource);
 
+   void removeAllResourceCreatePostCreateSysPermissions(SQLConnection connection,
+                                                        Set<Resource> accessorResources);
+
    void removeAllResourceCreatePostCreateSysPermissions(SQLConnection connection,
                                                         Id<DomainId> accessedDomainId);
 
@@ -60,6 +60,9 @@ public interface GrantResourceCreatePermissionSysPersister {
    void removeAllResourceCreateSysPermissions(SQLConnection connection,
                                               Resource accessorResource);
 
+   void removeAllResourceCreateSysPermissions(SQLConnection connection,
+                                              Set<Resource> accessorResources);
+
    void removeAllResourceCreateSysPermissions(SQLConnection connection,
                                               Id<DomainId> accessedDomainId);
 
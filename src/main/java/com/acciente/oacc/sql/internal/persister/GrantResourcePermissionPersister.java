@@ -25,6 +25,8 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface GrantResourcePermissionPersister extends Serializable {
@@ -34,6 +36,14 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                                   ResourcePermission resourcePermission,
                                                   Id<ResourcePermissionId> resourcePermissionId);
 
+   List<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                   Resource accessorResource,
+                                                   Id<ResourceClassId> resourceClassId,
+                                                   ResourcePermission resourcePermission,
+                                                   Id<ResourcePermissionId> resourcePermissionId,
+                                                   long afterResourceId,
+                                                   int maxResources);
+
    Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
                                                   Resource accessorResource,
                                                   Id<ResourceClassId> resourceClassId,
@@ -47,6 +57,18 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                                           ResourcePermission resourcePermission,
                                                           Id<ResourcePermissionId> resourcePermissionId);
 
+   List<Resource> getAccessorResourcesByResourcePermission(SQLConnection connection,
+                                                           Resource accessedResource,
+                                                           Id<ResourceClassId> resourceClassId,
+                                                           ResourcePermission resourcePermission,
+                                                           Id<ResourcePermissionId> resourcePermissionId,
+                                                           long afterResourceId,
+                                                           int maxResources);
+
+   Map<Resource, Set<ResourcePermission>> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                                 Resource accessorResource,
+                                                                                 Set<Resource> accessedResources);
+
    Set<ResourcePermission> getResourcePermissionsIncludeInherited(SQLConnection connection,
                                                                   Resource accessorResource,
                                                                   Resource accessedResource);
@@ -55,6 +77,12 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                                   Resource accessorResource,
                                                   Resource accessedResource);
 
+   boolean hasResourcePermissions(SQLConnection connection,
+                                  Id<ResourceClassId> resourceClassId);
+
+   Map<Resource, Set<ResourcePermission>> getAccessorResourcePermissionsMap(SQLConnection connection,
+                                                                            Resource accessedResource);
+
    void addResourcePermissions(SQLConnection connection,
                                Resource accessorResource,
                                Resource accessedResource,
@@ -62,6 +90,13 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                Set<ResourcePermission> requestedResourcePermissions,
                                Resource grantorResource);
 
+   void addResourcePermissions(SQLConnection connection,
+                               Set<Resource> accessorResources,
+                               Resource accessedResource,
+                               Id<ResourceClassId> accessedResourceClassId,
+                               Set<ResourcePermission> requestedResourcePermissions,
+                               Resource grantorResource);
+
    void updateResourcePermissions(SQLConnection connection,
                                   Resource accessorResource,
                                   Resource accessedResource,
@@ -69,9 +104,19 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                   Set<ResourcePermission> requestedResourcePermissions,
                                   Resource grantorResource);
 
+   void updateResourcePermissions(SQLConnection connection,
+                                  Set<Resource> accessorResources,
+                                  Resource accessedResource,
+                                  Id<ResourceClassId> accessedResourceClassId,
+                                  Set<ResourcePermission> requestedResourcePermissions,
+                                  Resource grantorResource);
+
    void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
                                                          Resource resource);
 
+   void removeAllResourcePermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                         Set<Resource> resources);
+
    void removeResourcePermissions(SQLConnection connection,
                                   Resource accessorResource,
                                   Resource accessedResource);
@@ -81,4 +126,10 @@ public interface GrantResourcePermissionPersister extends Serializable {
                                   Resource accessedResource,
                                   Id<ResourceClassId> accessedResourceClassId,
                                   Set<ResourcePermission> requestedResourcePermissions);
+
+   void removeResourcePermissions(SQLConnection connection,
+                                  Set<Resource> accessorResources,
+                                  Resource accessedResource,
+                                  Id<ResourceClassId> accessedResourceClassId,
+                                  Set<ResourcePermission> requestedResourcePermissions);
 }
@@ -23,6 +23,8 @@ import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface GrantResourcePermissionSysPersister {
@@ -31,6 +33,13 @@ public interface GrantResourcePermissionSysPersister {
                                                      Id<ResourceClassId> resourceClassId,
                                                      ResourcePermission resourcePermission);
 
+   List<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                      Resource accessorResource,
+                                                      Id<ResourceClassId> resourceClassId,
+                                                      ResourcePermission resourcePermission,
+                                                      long afterResourceId,
+                                                      int maxResources);
+
    Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
                                                      Resource accessorResource,
                                                      Id<ResourceClassId> resourceClassId,
@@ -42,6 +51,17 @@ public interface GrantResourcePermissionSysPersister {
                                                              Id<ResourceClassId> resourceClassId,
                                                              ResourcePermission resourcePermission);
 
+   List<Resource> getAccessorResourcesByResourceSysPermission(SQLConnection connection,
+                                                              Resource accessedResource,
+                                                              Id<ResourceClassId> resourceClassId,
+                                                              ResourcePermission resourcePermission,
+                                                              long afterResourceId,
+                                                              int maxResources);
+
+   Map<Resource, Set<ResourcePermission>> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                    Resource accessorResource,
+                                                                                    Set<Resource> accessedResources);
+
    Set<ResourcePermission> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
                                                                      Resource accessorResource,
                                                                      Resource accessedResource);
@@ -50,6 +70,16 @@ public interface GrantResourcePermissionSysPersister {
                                                      Resource accessorResource,
                                                      Resource accessedResource);
 
+   Map<Resource, Set<ResourcePermission>> getAccessorResourceSysPermissionsMap(SQLConnection connection,
+                                                                               Resource accessedResource);
+
+   Resource findInheritedResource(SQLConnection connection,
+                                  Resource accessorResource,
+                                  Set<Resource> candidateResources);
+
+   Set<Resource> getInheritedResources(SQLConnection connection,
+                                       Resource accessorResource);
+
    void addResourceSysPermissions(SQLConnection connection,
                                   Resource accessorResource,
                                   Resource accessedResource,
@@ -57,6 +87,13 @@ public interface GrantResourcePermissionSysPersister {
                                   Set<ResourcePermission> requestedResourcePermissions,
                                   Resource grantorResource);
 
+   void addResourceSysPermissions(SQLConnection connection,
+                                  Set<Resource> accessorResources,
+                                  Resource accessedResource,
+                                  Id<ResourceClassId> accessedResourceClassId,
+                                  Set<ResourcePermission> requestedResourcePermissions,
+                                  Resource grantorResource);
+
    void updateResourceSysPermissions(SQLConnection connection,
                                      Resource accessorResource,
                                      Resource accessedResource,
@@ -64,9 +101,19 @@ public interface GrantResourcePermissionSysPersister {
                                      Set<ResourcePermission> requestedResourcePermissions,
                                      Resource grantorResource);
 
+   void updateResourceSysPermissions(SQLConnection connection,
+                                     Set<Resource> accessorResources,
+                                     Resource accessedResource,
+                                     Id<ResourceClassId> accessedResourceClassId,
+                                     Set<ResourcePermission> requestedResourcePermissions,
+                                     Resource grantorResource);
+
    void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
                                                             Resource resource);
 
+   void removeAllResourceSysPermissionsAsAccessorOrAccessed(SQLConnection connection,
+                                                            Set<Resource> resources);
+
    void removeResourceSysPermissions(SQLConnection connection,
                                      Resource accessorResource,
                                      Resource accessedResource);
@@ -76,4 +123,10 @@ public interface GrantResourcePermissionSysPersister {
                                      Resource accessedResource,
                                      Id<ResourceClassId> accessedResourceClassId,
                                      Set<ResourcePermission> requestedResourcePermissions);
+
+   void removeResourceSysPermissions(SQLConnection connection,
+                                     Set<Resource> accessorResources,
+                                     Resource accessedResource,
+                                     Id<ResourceClassId> accessedResourceClassId,
+                                     Set<ResourcePermission> requestedResourcePermissions);
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import java.util.Arrays;
+
+/**
+ * An insertion-ordered set of primitive long ids.
+ * <p/>
+ * The persisters expand accessor and domain hierarchies into sets of ids that are only ever used to bind
+ * further statements, so this set keeps the ids unboxed: they are appended to a dense array in insertion order,
+ * and an open-addressed table of array positions (probed linearly) answers membership. Iterate with
+ * {@link #size()} and {@link #get(int)}; elements are never removed. The memory store expands its hierarchies
+ * into the same sets.
+ */
+public final class LongHashSet {
+   private static final int DEFAULT_EXPECTED_SIZE = 8;
+
+   private long[] elements;
+   private int[]  slots;
+   private int    size;
+
+   public LongHashSet() {
+      this(DEFAULT_EXPECTED_SIZE);
+   }
+
+   public LongHashSet(int expectedSize) {
+      elements = new long[Math.max(expectedSize, 1)];
+      slots = new int[tableSizeFor(elements.length)];
+   }
+
+   public static LongHashSet of(long value) {
+      final LongHashSet longHashSet = new LongHashSet(1);
+      longHashSet.add(value);
+      return longHashSet;
+   }
+
+   /**
+    * Adds the specified value
+    *
+    * @param value the value to add
+    * @return true if the value was not already present
+    */
+   public boolean add(long value) {
+      final int mask = slots.length - 1;
+      int slot = hash(value) & mask;
+
+      // a slot holds the position of its element plus one, so that zero marks an empty slot
+      while (slots[slot] != 0) {
+         if (elements[slots[slot] - 1] == value) {
+            return false;
+         }
+         slot = (slot + 1) & mask;
+      }
+
+      if (size == elements.length) {
+         elements = Arrays.copyOf(elements, size * 2);
+      }
+      elements[size++] = value;
+      slots[slot] = size;
+
+      // keep the table at most half full, so that probe sequences stay short
+      if (size * 2 > slots.length) {
+         __rehash(slots.length * 2);
+      }
+      return true;
+   }
+
+   public void addAll(LongHashSet other) {
+      for (int i = 0; i < other.size; i++) {
+         add(other.elements[i]);
+      }
+   }
+
+   public boolean contains(long value) {
+      return indexOf(value) >= 0;
+   }
+
+   /**
+    * Returns the position of the specified value in insertion order
+    *
+    * @param value the value to look up
+    * @return the position of the value, or -1 if the value is not present
+    */
+   public int indexOf(long value) {
+      final int mask = slots.length - 1;
+      int slot = hash(value) & mask;
+
+      while (slots[slot] != 0) {
+         if (elements[slots[slot] - 1] == value) {
+            return slots[slot] - 1;
+         }
+         slot = (slot + 1) & mask;
+      }
+      return -1;
+   }
+
+   /**
+    * Returns the value at the specified position in insertion order
+    *
+    * @param index a position from zero (inclusive) to {@link #size()} (exclusive)
+    * @return the value added in that position
+    */
+   public long get(int index) {
+      if (index >= size) {
+         throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+      }
+      return elements[index];
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   @Override
+   public String toString() {
+      return Arrays.toString(Arrays.copyOf(elements, size));
+   }
+
+   // spreads the bits of the id (which are mostly sequential) across the table
+   private static int hash(long value) {
+      final int h = (int) (value ^ (value >>> 32)) * 0x9E3779B9;
+      return h ^ (h >>> 16);
+   }
+
+   private void __rehash(int tableSize) {
+      final int mask = tableSize - 1;
+      slots = new int[tableSize];
+
+      for (int i = 0; i < size; i++) {
+         int slot = hash(elements[i]) & mask;
+         while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+         }
+         slots[slot] = i + 1;
+      }
+   }
+
+   // returns the smallest power of two that keeps the specified number of elements at most half the table
+   private static int tableSizeFor(int expectedSize) {
+      int tableSize = 4;
+      while (tableSize < expectedSize * 2) {
+         tableSize <<= 1;
+      }
+      return tableSize;
+   }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive long ids to primitive long values.
+ * <p/>
+ * The keys are held in a {@link LongHashSet}, and each value is stored in a parallel array at the insertion
+ * position of its key, so neither keys nor values are boxed. Entries are never removed.
+ */
+final class LongLongHashMap {
+   private final LongHashSet keys;
+   private       long[]      values;
+
+   LongLongHashMap() {
+      this(8);
+   }
+
+   LongLongHashMap(int expectedSize) {
+      keys = new LongHashSet(expectedSize);
+      values = new long[Math.max(expectedSize, 1)];
+   }
+
+   /**
+    * Maps the specified key to the specified value, unless the key is already mapped
+    *
+    * @param key   the key to map
+    * @param value the value to map the key to
+    * @return true if the key was not already mapped
+    */
+   boolean putIfAbsent(long key, long value) {
+      if (!keys.add(key)) {
+         return false;
+      }
+
+      final int index = keys.size() - 1;
+      if (index == values.length) {
+         values = Arrays.copyOf(values, index * 2);
+      }
+      values[index] = value;
+      return true;
+   }
+
+   boolean containsKey(long key) {
+      return keys.contains(key);
+   }
+
+   /**
+    * Returns the value mapped to the specified key
+    *
+    * @param key          the key to look up
+    * @param defaultValue the value to return if the key is not mapped
+    * @return the value mapped to the key, or the default value
+    */
+   long get(long key, long defaultValue) {
+      final int index = keys.indexOf(key);
+      return index < 0 ? defaultValue : values[index];
+   }
+
+   int size() {
+      return keys.size();
+   }
+}
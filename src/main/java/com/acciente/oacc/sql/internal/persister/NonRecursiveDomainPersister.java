@@ -46,7 +46,7 @@ public class NonRecursiveDomainPersister extends CommonDomainPersister {
          }
 
          Set<String> allDescendantDomainNames = new HashSet<>();
-         Set<Id<DomainId>> previousDescendantDomainIds = new HashSet<>();
+         LongHashSet descendantDomainIds = new LongHashSet();
 
          allDescendantDomainNames.add(resourceDomainName);
 
@@ -58,30 +58,25 @@ public class NonRecursiveDomainPersister extends CommonDomainPersister {
 
          while (resultSet.next()) {
             allDescendantDomainNames.add(resultSet.getString("DomainName"));
-            previousDescendantDomainIds.add(resultSet.getResourceDomainId("DomainId"));
+            descendantDomainIds.add(resultSet.getResourceDomainIdValue("DomainId"));
          }
          statement.close();
 
-         // find second-level and higher descendants, if necessary
-         if (allDescendantDomainNames.size() > 1) {
-            Set<Id<DomainId>> newestDescendantDomainIds = new HashSet<>();
-            int prevTotalOfDescendantDomains = 1;
-            while (allDescendantDomainNames.size() > prevTotalOfDescendantDomains) {
-               prevTotalOfDescendantDomains = allDescendantDomainNames.size();
-
-               for (Id<DomainId> descendantDomainId : previousDescendantDomainIds) {
-                  statement = connection
-                        .prepareStatement(sqlStrings.SQL_findInDomain_DirectDescendantResourceDomainName_BY_DomainID);
-                  statement.setResourceDomainId(1, descendantDomainId);
-                  resultSet = statement.executeQuery();
-
-                  while (resultSet.next()) {
-                     allDescendantDomainNames.add(resultSet.getString("DomainName"));
-                     newestDescendantDomainIds.add(resultSet.getResourceDomainId("DomainId"));
-                  }
-                  statement.close();
+         // find second-level and higher descendants, if necessary (the ids found are appended to the set
+         // being iterated, so each descendant is queried exactly once)
+         if (!descendantDomainIds.isEmpty()) {
+            statement = connection
+                  .prepareStatement(sqlStrings.SQL_findInDomain_DirectDescendantResourceDomainName_BY_DomainID);
+
+            for (int i = 0; i < descendantDomainIds.size(); i++) {
+               statement.setResourceDomainId(1, descendantDomainIds.get(i));
+               resultSet = statement.executeQuery();
+
+               while (resultSet.next()) {
+                  allDescendantDomainNames.add(resultSet.getString("DomainName"));
+                  descendantDomainIds.add(resultSet.getResourceDomainIdValue("DomainId"));
                }
-               previousDescendantDomainIds = newestDescendantDomainIds;
+               resultSet.close();
             }
          }
 
@@ -95,6 +90,19 @@ public class NonRecursiveDomainPersister extends CommonDomainPersister {
       }
    }
 
+   @Override
+   public List<Id<DomainId>> getAncestorDomainIds(SQLConnection connection,
+                                                  Id<DomainId> domainId) {
+      final LongHashSet ancestorDomainIdValues
+            = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, domainId);
+
+      List<Id<DomainId>> ancestorDomainIds = new ArrayList<>(ancestorDomainIdValues.size());
+      for (int i = 0; i < ancestorDomainIdValues.size(); i++) {
+         ancestorDomainIds.add(Id.<DomainId>from(ancestorDomainIdValues.get(i)));
+      }
+      return ancestorDomainIds;
+   }
+
    @Override
    public void deleteDomain(SQLConnection connection,
                             Id<DomainId> domainId) {
@@ -102,10 +110,10 @@ public class NonRecursiveDomainPersister extends CommonDomainPersister {
 
       try {
          // get descendant domain Ids
-         List<Id<DomainId>> descendantDomainIds
-               = new ArrayList<>(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                           connection,
-                                                                                                           domainId));
+         final LongHashSet descendantDomainIds
+               = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                           connection,
+                                                                                           domainId);
 
          // delete descendant domains one at a time, in reverse order of domainLevel, to preserve FK constraints
          statement = connection.prepareStatement(sqlStrings.SQL_removeInDomain_BY_DomainID);
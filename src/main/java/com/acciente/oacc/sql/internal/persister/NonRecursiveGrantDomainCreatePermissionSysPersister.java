@@ -20,8 +20,6 @@ package com.acciente.oacc.sql.internal.persister;
 import com.acciente.oacc.DomainCreatePermission;
 import com.acciente.oacc.Resource;
 import com.acciente.oacc.sql.SQLProfile;
-import com.acciente.oacc.sql.internal.persister.id.Id;
-import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
 import java.util.HashSet;
@@ -40,15 +38,15 @@ public class NonRecursiveGrantDomainCreatePermissionSysPersister extends CommonG
 
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // now accumulate the domain create permissions from each of the (inherited) accessors
          Set<DomainCreatePermission> domainCreatePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainCreatePermissionSys_withoutInheritance_SysPermissionID_BY_AccessorID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             SQLResult resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -26,7 +26,6 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -46,43 +45,43 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // secondly get all the domains the accessors directly have access to
          SQLResult resultSet;
-         final Set<Id<DomainId>> directDomainIds = new HashSet<>();
+         final LongHashSet directDomainIds = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_withoutInheritance_ResourceDomainId_BY_AccessorID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setDomainSystemPermissionId(2, DOMAIN_PERMISSION_SUPER_USER.getSystemPermissionId());
             statement.setBoolean(3, false);
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directDomainIds.add(resultSet.getResourceDomainId("AccessedDomainId"));
+               directDomainIds.add(resultSet.getResourceDomainIdValue("AccessedDomainId"));
             }
             resultSet.close();
          }
          closeStatement(statement);
 
          // then get all the descendants of the directly accessible domains
-         final Set<Id<DomainId>> accessibleDomainIds = new HashSet<>();
-         for (Id<DomainId> directDomainId : directDomainIds) {
+         final LongHashSet accessibleDomainIds = new LongHashSet();
+         for (int i = 0; i < directDomainIds.size(); i++) {
             accessibleDomainIds
                   .addAll(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                                     connection,
-                                                                                                    directDomainId));
+                                                                                                    directDomainIds.get(i)));
          }
 
          // now get resources of the specified class that the session has access to via domain super user permissions
          final Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
 
-         for (Id<DomainId> domainId : accessibleDomainIds) {
+         for (int i = 0; i < accessibleDomainIds.size(); i++) {
             statement.setResourceClassId(1, resourceClassId);
-            statement.setResourceDomainId(2, domainId);
+            statement.setResourceDomainId(2, accessibleDomainIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -101,6 +100,60 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                 Resource accessorResource,
+                                                                 Id<ResourceClassId> resourceClassId,
+                                                                 long afterResourceId,
+                                                                 int maxResources) {
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // second, get all the domains the accessors directly have super user permission to
+         SQLResult resultSet;
+         final LongHashSet directDomainIds = new LongHashSet();
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_withoutInheritance_ResourceDomainId_BY_AccessorID_SysPermissionID_IsWithGrant);
+
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
+            statement.setDomainSystemPermissionId(1, DOMAIN_PERMISSION_SUPER_USER.getSystemPermissionId());
+            statement.setBoolean(2, false);
+            resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+               directDomainIds.add(resultSet.getResourceDomainIdValue("AccessedDomainId"));
+            }
+            resultSet.close();
+         }
+
+         // then get all the descendants of the directly accessible domains
+         final LongHashSet accessibleDomainIds = new LongHashSet();
+         for (int i = 0; i < directDomainIds.size(); i++) {
+            accessibleDomainIds
+                  .addAll(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                                    connection,
+                                                                                                    directDomainIds.get(i)));
+         }
+
+         // finally get the next page of resources of the specified class in any of the accessible domains
+         return NonRecursivePersisterHelper.getResourcePageByDomainIds(sqlStrings,
+                                                                       connection,
+                                                                       resourceClassId,
+                                                                       accessibleDomainIds,
+                                                                       afterResourceId,
+                                                                       maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
                                                                 Resource accessorResource,
@@ -109,52 +162,54 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // secondly get all the domains the accessors directly have access to
          SQLResult resultSet;
-         final Set<Id<DomainId>> directDomainIds = new HashSet<>();
+         final LongHashSet directDomainIds = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_withoutInheritance_ResourceDomainId_BY_AccessorID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setDomainSystemPermissionId(2, DOMAIN_PERMISSION_SUPER_USER.getSystemPermissionId());
             statement.setBoolean(3, false);
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directDomainIds.add(resultSet.getResourceDomainId("AccessedDomainId"));
+               directDomainIds.add(resultSet.getResourceDomainIdValue("AccessedDomainId"));
             }
             resultSet.close();
          }
          closeStatement(statement);
 
-         // then get all the descendants of the directly accessible domains
-         final Set<Id<DomainId>> accessibleDomainIds = new HashSet<>();
-         for (Id<DomainId> directDomainId : directDomainIds) {
-            accessibleDomainIds
-                  .addAll(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                    connection,
-                                                                                                    directDomainId));
-         }
-
-         // also get the descendents of the specified domain
-         final Set<Id<DomainId>> descendantDomainIds
+         // get the descendents of the specified domain
+         final LongHashSet descendantDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            resourceDomainId);
 
-         // next, filter the accessible domains by the specified sub-domains
-         accessibleDomainIds.retainAll(descendantDomainIds);
+         // then get all the descendants of the directly accessible domains, filtered by the specified sub-domains
+         final LongHashSet accessibleDomainIds = new LongHashSet();
+         for (int i = 0; i < directDomainIds.size(); i++) {
+            final LongHashSet directDescendantDomainIds
+                  = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                              connection,
+                                                                                              directDomainIds.get(i));
+            for (int j = 0; j < directDescendantDomainIds.size(); j++) {
+               if (descendantDomainIds.contains(directDescendantDomainIds.get(j))) {
+                  accessibleDomainIds.add(directDescendantDomainIds.get(j));
+               }
+            }
+         }
 
          // now get resources of the specified class that the session has access to via domain super user permissions
          final Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
 
-         for (Id<DomainId> domainId : accessibleDomainIds) {
+         for (int i = 0; i < accessibleDomainIds.size(); i++) {
             statement.setResourceClassId(1, resourceClassId);
-            statement.setResourceDomainId(2, domainId);
+            statement.setResourceDomainId(2, accessibleDomainIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -181,22 +236,22 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
 
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // get the ancestors of the specified domain, to which the accessors could also have permissions
-         final Set<Id<DomainId>> ancestorDomainIds = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings,
-                                                                                                      connection,
-                                                                                                      resourceDomainId);
+         final LongHashSet ancestorDomainIds = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings,
+                                                                                                connection,
+                                                                                                resourceDomainId);
 
          // now collect the sys-permissions any accessor resource has to the specified domain or its ancestors
          Set<DomainPermission> domainPermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_withoutInheritance_SysPermissionID_IsWithGrant_BY_AccessorID_DomainID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> domainId : ancestorDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, domainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < ancestorDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, ancestorDomainIds.get(j));
                SQLResult resultSet = statement.executeQuery();
 
                while (resultSet.next()) {
@@ -224,7 +279,7 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
 
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the domain permissions the accessors directly have access to
@@ -233,8 +288,8 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
 
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_withoutInheritance_ResourceDomainName_SysPermissionID_IsWithGrant_BY_AccessorID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -293,10 +348,10 @@ public class NonRecursiveGrantDomainPermissionSysPersister extends CommonGrantDo
 
       try {
          // get descendant domain Ids
-         List<Id<DomainId>> descendantDomainIds
-               = new ArrayList<>(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                           connection,
-                                                                                                           domainId));
+         final LongHashSet descendantDomainIds
+               = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                           connection,
+                                                                                           domainId);
 
          // delete domains' accessors (in reverse order of domainLevel, to preserve FK constraints)
          statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantDomainPermissionSys_BY_AccessedDomainID);
@@ -27,8 +27,6 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,23 +52,23 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the domains the accessors directly have the specified global permission to
          SQLResult resultSet;
-         Set<Id<DomainId>> directGlobalDomains = new HashSet<>();
+         LongHashSet directGlobalDomains = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourcePermissionId(3, resourcePermissionId);
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directGlobalDomains.add(resultSet.getResourceDomainId("DomainId"));
+               directGlobalDomains.add(resultSet.getResourceDomainIdValue("DomainId"));
             }
             resultSet.close();
          }
@@ -80,14 +78,14 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
 
-         for (Id<DomainId> directDomainId: directGlobalDomains) {
-            Set<Id<DomainId>> descendentDomainIds
+         for (int i = 0; i < directGlobalDomains.size(); i++) {
+            LongHashSet descendentDomainIds
                   = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                               connection,
-                                                                                              directDomainId);
-            for (Id<DomainId> descendentDomainId : descendentDomainIds) {
+                                                                                              directGlobalDomains.get(i));
+            for (int j = 0; j < descendentDomainIds.size(); j++) {
                statement.setResourceClassId(1, resourceClassId);
-               statement.setResourceDomainId(2, descendentDomainId);
+               statement.setResourceDomainId(2, descendentDomainIds.get(j));
                resultSet = statement.executeQuery();
 
                while (resultSet.next()) {
@@ -107,6 +105,67 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
+                                                                Resource accessorResource,
+                                                                Id<ResourceClassId> resourceClassId,
+                                                                ResourcePermission resourcePermission,
+                                                                Id<ResourcePermissionId> resourcePermissionId,
+                                                                long afterResourceId,
+                                                                int maxResources) {
+      if (resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // second, get all the domains the accessors directly have the specified global permission to
+         SQLResult resultSet;
+         final LongHashSet directGlobalDomainIds = new LongHashSet();
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant);
+
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
+            statement.setResourceClassId(1, resourceClassId);
+            statement.setResourcePermissionId(2, resourcePermissionId);
+            statement.setBoolean(3, resourcePermission.isWithGrantOption());
+            resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+               directGlobalDomainIds.add(resultSet.getResourceDomainIdValue("DomainId"));
+            }
+            resultSet.close();
+         }
+
+         // then get all the descendants of the directly accessible domains
+         final LongHashSet accessibleDomainIds = new LongHashSet();
+         for (int i = 0; i < directGlobalDomainIds.size(); i++) {
+            accessibleDomainIds
+                  .addAll(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                                    connection,
+                                                                                                    directGlobalDomainIds.get(i)));
+         }
+
+         // finally get the next page of resources of the specified class in any of the accessible domains
+         return NonRecursivePersisterHelper.getResourcePageByDomainIds(sqlStrings,
+                                                                       connection,
+                                                                       resourceClassId,
+                                                                       accessibleDomainIds,
+                                                                       afterResourceId,
+                                                                       maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
                                                                Resource accessorResource,
@@ -121,39 +180,39 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the domains the accessors directly have the specified global permission to
          SQLResult resultSet;
-         Set<Id<DomainId>> directGlobalDomains = new HashSet<>();
+         LongHashSet directGlobalDomains = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourcePermissionId(3, resourcePermissionId);
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directGlobalDomains.add(resultSet.getResourceDomainId("DomainId"));
+               directGlobalDomains.add(resultSet.getResourceDomainIdValue("DomainId"));
             }
             resultSet.close();
          }
          closeStatement(statement);
 
-         Set<Id<DomainId>> requestedAncestorDomainIds
+         LongHashSet requestedAncestorDomainIds
                = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, resourceDomainId);
-         Set<Id<DomainId>> requestedDescendentDomainIds
+         LongHashSet requestedDescendentDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            resourceDomainId);
-         Set<Id<DomainId>> effectiveDomainIds = Collections.emptySet();
+         LongHashSet effectiveDomainIds = new LongHashSet();
 
          // let's see if we have global permissions on an ancestor of the requested domain, first
-         for (Id<DomainId> directDomainId: directGlobalDomains) {
-            if (requestedAncestorDomainIds.contains(directDomainId)) {
+         for (int i = 0; i < directGlobalDomains.size(); i++) {
+            if (requestedAncestorDomainIds.contains(directGlobalDomains.get(i))) {
                // because we have global permissions on an ancestor of the requested domain,
                // we have access to all resources of any sub-domain of the requested domain
                effectiveDomainIds = requestedDescendentDomainIds;
@@ -164,12 +223,12 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
          if (effectiveDomainIds.isEmpty()){
             // we did not have global permission on an ancestor of the requested domain, so let's
             // find the highest level sub-domain of the requested domain to which we have global permission
-            for (Id<DomainId> requestedDescendentDomainId : requestedDescendentDomainIds) {
-               if (directGlobalDomains.contains(requestedDescendentDomainId)) {
+            for (int i = 0; i < requestedDescendentDomainIds.size(); i++) {
+               if (directGlobalDomains.contains(requestedDescendentDomainIds.get(i))) {
                   effectiveDomainIds
                         = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                                     connection,
-                                                                                                    requestedDescendentDomainId);
+                                                                                                    requestedDescendentDomainIds.get(i));
                   break;
                }
             }
@@ -178,9 +237,9 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
          // now let's collect all the resources for those sub-domains to which we effectively have global permissions
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
-         for (Id<DomainId> effectiveDomainId : effectiveDomainIds) {
+         for (int i = 0; i < effectiveDomainIds.size(); i++) {
             statement.setResourceClassId(1, resourceClassId);
-            statement.setResourceDomainId(2, effectiveDomainId);
+            statement.setResourceDomainId(2, effectiveDomainIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -207,11 +266,11 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // get the ancestors of the specified domain, to which the accessors could also have permissions
-         final Set<Id<DomainId>> ancestorDomainIds
+         final LongHashSet ancestorDomainIds
                = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, resourceDomainId);
 
          // now collect the global permissions any accessor resource has to the specified domain or its ancestors
@@ -219,10 +278,10 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
          Set<ResourcePermission> resourcePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_withoutInheritance_PermissionName_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> domainId : ancestorDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, domainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < ancestorDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, ancestorDomainIds.get(j));
                statement.setResourceClassId(3, resourceClassId);
                resultSet = statement.executeQuery();
 
@@ -249,7 +308,7 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the global resource permissions the accessors directly have access to
@@ -258,8 +317,8 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
 
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_withoutInheritance_ResourceDomainName_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -337,10 +396,10 @@ public class NonRecursiveGrantGlobalResourcePermissionPersister extends CommonGr
       SQLStatement statement = null;
       try {
          // get descendant domain Ids
-         List<Id<DomainId>> descendantDomainIds
-               = new ArrayList<>(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                           connection,
-                                                                                                           accessedDomainId));
+         final LongHashSet descendantDomainIds
+               = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                           connection,
+                                                                                           accessedDomainId);
 
          // delete domains' accessors (in reverse order of domainLevel, to preserve FK constraints)
          statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantGlobalResourcePermission_BY_AccessedDomainId);
@@ -26,8 +26,6 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -52,23 +50,23 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the domains the accessors directly have the specified global permission to
          SQLResult resultSet;
-         Set<Id<DomainId>> directGlobalDomains = new HashSet<>();
+         LongHashSet directGlobalDomains = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directGlobalDomains.add(resultSet.getResourceDomainId("DomainId"));
+               directGlobalDomains.add(resultSet.getResourceDomainIdValue("DomainId"));
             }
             resultSet.close();
          }
@@ -78,14 +76,14 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
 
-         for (Id<DomainId> directDomainId: directGlobalDomains) {
-            Set<Id<DomainId>> descendentDomainIds
+         for (int i = 0; i < directGlobalDomains.size(); i++) {
+            LongHashSet descendentDomainIds
                   = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                               connection,
-                                                                                              directDomainId);
-            for (Id<DomainId> descendentDomainId : descendentDomainIds) {
+                                                                                              directGlobalDomains.get(i));
+            for (int j = 0; j < descendentDomainIds.size(); j++) {
                statement.setResourceClassId(1, resourceClassId);
-               statement.setResourceDomainId(2, descendentDomainId);
+               statement.setResourceDomainId(2, descendentDomainIds.get(j));
                resultSet = statement.executeQuery();
 
                while (resultSet.next()) {
@@ -105,6 +103,66 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                           Resource accessorResource,
+                                                           Id<ResourceClassId> resourceClassId,
+                                                           ResourcePermission resourcePermission,
+                                                           long afterResourceId,
+                                                           int maxResources) {
+      if (!resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // second, get all the domains the accessors directly have the specified global permission to
+         SQLResult resultSet;
+         final LongHashSet directGlobalDomainIds = new LongHashSet();
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant);
+
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
+            statement.setResourceClassId(1, resourceClassId);
+            statement.setResourceSystemPermissionId(2, resourcePermission.getSystemPermissionId());
+            statement.setBoolean(3, resourcePermission.isWithGrantOption());
+            resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+               directGlobalDomainIds.add(resultSet.getResourceDomainIdValue("DomainId"));
+            }
+            resultSet.close();
+         }
+
+         // then get all the descendants of the directly accessible domains
+         final LongHashSet accessibleDomainIds = new LongHashSet();
+         for (int i = 0; i < directGlobalDomainIds.size(); i++) {
+            accessibleDomainIds
+                  .addAll(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                                    connection,
+                                                                                                    directGlobalDomainIds.get(i)));
+         }
+
+         // finally get the next page of resources of the specified class in any of the accessible domains
+         return NonRecursivePersisterHelper.getResourcePageByDomainIds(sqlStrings,
+                                                                       connection,
+                                                                       resourceClassId,
+                                                                       accessibleDomainIds,
+                                                                       afterResourceId,
+                                                                       maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
                                                           Resource accessorResource,
@@ -118,39 +176,39 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the domains the accessors directly have the specified global permission to
          SQLResult resultSet;
-         Set<Id<DomainId>> directGlobalDomains = new HashSet<>();
+         LongHashSet directGlobalDomains = new LongHashSet();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-               directGlobalDomains.add(resultSet.getResourceDomainId("DomainId"));
+               directGlobalDomains.add(resultSet.getResourceDomainIdValue("DomainId"));
             }
             resultSet.close();
          }
          closeStatement(statement);
 
-         Set<Id<DomainId>> requestedAncestorDomainIds
+         LongHashSet requestedAncestorDomainIds
                = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, resourceDomainId);
-         Set<Id<DomainId>> requestedDescendentDomainIds
+         LongHashSet requestedDescendentDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            resourceDomainId);
-         Set<Id<DomainId>> effectiveDomainIds = Collections.emptySet();
+         LongHashSet effectiveDomainIds = new LongHashSet();
 
          // let's see if we have global permissions on an ancestor of the requested domain, first
-         for (Id<DomainId> directDomainId: directGlobalDomains) {
-            if (requestedAncestorDomainIds.contains(directDomainId)) {
+         for (int i = 0; i < directGlobalDomains.size(); i++) {
+            if (requestedAncestorDomainIds.contains(directGlobalDomains.get(i))) {
                // because we have global permissions on an ancestor of the requested domain,
                // we have access to all resources of any sub-domain of the requested domain
                effectiveDomainIds = requestedDescendentDomainIds;
@@ -161,12 +219,12 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
          if (effectiveDomainIds.isEmpty()){
             // we did not have global permission on an ancestor of the requested domain, so let's
             // find the highest level sub-domain of the requested domain to which we have global permission
-            for (Id<DomainId> requestedDescendentDomainId : requestedDescendentDomainIds) {
-               if (directGlobalDomains.contains(requestedDescendentDomainId)) {
+            for (int i = 0; i < requestedDescendentDomainIds.size(); i++) {
+               if (directGlobalDomains.contains(requestedDescendentDomainIds.get(i))) {
                   effectiveDomainIds
                         = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                                     connection,
-                                                                                                    requestedDescendentDomainId);
+                                                                                                    requestedDescendentDomainIds.get(i));
                   break;
                }
             }
@@ -175,9 +233,9 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
          // now let's collect all the resources for those sub-domains to which we effectively have global permissions
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID);
-         for (Id<DomainId> effectiveDomainId : effectiveDomainIds) {
+         for (int i = 0; i < effectiveDomainIds.size(); i++) {
             statement.setResourceClassId(1, resourceClassId);
-            statement.setResourceDomainId(2, effectiveDomainId);
+            statement.setResourceDomainId(2, effectiveDomainIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -204,11 +262,11 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // get the ancestors of the specified domain, to which the accessors could also have permissions
-         final Set<Id<DomainId>> ancestorDomainIds
+         final LongHashSet ancestorDomainIds
                = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, resourceDomainId);
 
          // now collect the sys-permissions any accessor resource has to the specified domain or its ancestors
@@ -216,10 +274,10 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
          Set<ResourcePermission> resourcePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_withoutInheritance_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> domainId : ancestorDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, domainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < ancestorDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, ancestorDomainIds.get(j));
                statement.setResourceClassId(3, resourceClassId);
                resultSet = statement.executeQuery();
 
@@ -245,7 +303,7 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the global resource permissions the accessors directly have access to
@@ -254,8 +312,8 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
 
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_withoutInheritance_ResourceDomainName_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -333,10 +391,10 @@ public class NonRecursiveGrantGlobalResourcePermissionSysPersister extends Commo
       SQLStatement statement = null;
       try {
          // get descendant domain Ids
-         List<Id<DomainId>> descendantDomainIds
-               = new ArrayList<>(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                           connection,
-                                                                                                           accessedDomainId));
+         final LongHashSet descendantDomainIds
+               = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                           connection,
+                                                                                           accessedDomainId);
 
          // delete domains' accessors (in reverse order of domainLevel, to preserve FK constraints)
          statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessedDomainId);
@@ -23,13 +23,10 @@ import com.acciente.oacc.sql.SQLProfile;
 import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
-import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,11 +45,11 @@ public class NonRecursiveGrantResourceCreatePermissionPostCreatePersister extend
 
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // get the ancestors of the specified domain, to which the accessors could also have permissions
-         final Set<Id<DomainId>> ancestorDomainIds
+         final LongHashSet ancestorDomainIds
                = NonRecursivePersisterHelper.getAncestorDomainIds(sqlStrings, connection, resourceDomainId);
 
          // now collect the sys-permissions any accessor resource has to the specified domain or its ancestors
@@ -60,10 +57,10 @@ public class NonRecursiveGrantResourceCreatePermissionPostCreatePersister extend
          Set<ResourceCreatePermission> resourceCreatePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourceCreatePermissionPostCreate_withoutInheritance_PostCreatePermissionName_PostCreateIsWithGrant_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> domainId : ancestorDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, domainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < ancestorDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, ancestorDomainIds.get(j));
                statement.setResourceClassId(3, resourceClassId);
                resultSet = statement.executeQuery();
 
@@ -92,7 +89,7 @@ public class NonRecursiveGrantResourceCreatePermissionPostCreatePersister extend
 
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // second, get all the resource create permissions the accessors directly have access to
@@ -101,8 +98,8 @@ public class NonRecursiveGrantResourceCreatePermissionPostCreatePersister extend
 
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourceCreatePermissionPostCreate_withoutInheritance_ResourceDomainName_ResourceClassName_PostCreatePermissionName_PostCreateIsWithGrant_IsWithGrant_BY_AccessorID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
@@ -180,10 +177,10 @@ public class NonRecursiveGrantResourceCreatePermissionPostCreatePersister extend
       SQLStatement statement = null;
       try {
          // get descendant domain Ids
-         List<Id<DomainId>> descendantDomainIds
-               = new ArrayList<>(NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
-                                                                                                           connection,
-                                                                                                           accessedDomainId));
+         final LongHashSet descendantDomainIds
+               = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
+                                                                                           connection,
+                                                                                           accessedDomainId);
 
          // delete domains' accessors (in reverse order of domainLevel, to preserve FK constraints)
          statement = connection.prepareStatement(sqlStrings.SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessedDomainId);
@@ -27,8 +27,14 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantResourcePermissionPersister {
    public NonRecursiveGrantResourcePermissionPersister(SQLProfile sqlProfile,
@@ -49,7 +55,7 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // now accumulate the objects of the specified type that each (inherited) accessor has the specified permission to
@@ -57,8 +63,8 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourcePermissionId(3, resourcePermissionId);
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
@@ -79,6 +85,47 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          ResourcePermission resourcePermission,
+                                                          Id<ResourcePermissionId> resourcePermissionId,
+                                                          long afterResourceId,
+                                                          int maxResources) {
+      if (resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // now merge the next page of objects of the specified type that each (inherited) accessor has the specified permission to
+         final SortedMap<Long, Resource> resources = new TreeMap<>();
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID);
+
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
+            statement.setResourceClassId(2, resourceClassId);
+            statement.setResourcePermissionId(3, resourcePermissionId);
+            statement.setBoolean(4, resourcePermission.isWithGrantOption());
+            statement.setResourceId(5, afterResourceId);
+            mergeResourcePage(resources, getResourcePage(statement, maxResources), maxResources);
+         }
+
+         return new ArrayList<>(resources.values());
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
                                                          Resource accessorResource,
@@ -93,11 +140,11 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // then get all the descendants of the specified domain
-         final Set<Id<DomainId>> descendantDomainIds
+         final LongHashSet descendantDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            resourceDomainId);
@@ -108,10 +155,10 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> descendantDomainId : descendantDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, descendantDomainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < descendantDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, descendantDomainIds.get(j));
                statement.setResourceClassId(3, resourceClassId);
                statement.setResourcePermissionId(4, resourcePermissionId);
                statement.setBoolean(5, resourcePermission.isWithGrantOption());
@@ -134,6 +181,53 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
       }
    }
 
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                                        Resource accessorResource,
+                                                                                        Set<Resource> accessedResources) {
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // now accumulate the permissions of each (inherited) accessor on each chunk of accessed resources
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+         for (List<Resource> chunk : chunkForInList(accessedResources)) {
+            statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs,
+                                                                 chunk.size()));
+
+            for (int i = 0; i < accessorResourceIds.size(); i++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               setInListResourceIds(statement, 2, chunk);
+               SQLResult resultSet = statement.executeQuery();
+
+               while (resultSet.next()) {
+                  final Resource accessedResource = resultSet.getResource("AccessedResourceId");
+
+                  Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessedResource);
+                  if (resourcePermissions == null) {
+                     resourcePermissions = new HashSet<>();
+                     resourcePermissionsMap.put(accessedResource, resourcePermissions);
+                  }
+                  resourcePermissions.add(getResourcePermission(resultSet));
+               }
+               resultSet.close();
+            }
+            closeStatement(statement);
+            statement = null;
+         }
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<ResourcePermission> getResourcePermissionsIncludeInherited(SQLConnection connection,
                                                                          Resource accessorResource,
@@ -141,7 +235,7 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // now accumulate the permissions on the accessed resource from each of the (inherited) accessors
@@ -149,8 +243,8 @@ public class NonRecursiveGrantResourcePermissionPersister extends CommonGrantRes
          Set<ResourcePermission> resourcePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_withoutInheritance_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceId(2, accessedResource);
             resultSet = statement.executeQuery();
 
@@ -19,6 +19,7 @@ package com.acciente.oacc.sql.internal.persister;
 
 import com.acciente.oacc.Resource;
 import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.Resources;
 import com.acciente.oacc.sql.SQLProfile;
 import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
@@ -26,8 +27,14 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrantResourcePermissionSysPersister {
    public NonRecursiveGrantResourcePermissionSysPersister(SQLProfile sqlProfile,
@@ -47,7 +54,7 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // now accumulate the objects of the specified type that each (inherited) accessor has the specified permission to
@@ -55,8 +62,8 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceClassId(2, resourceClassId);
             statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
             statement.setBoolean(4, resourcePermission.isWithGrantOption());
@@ -78,6 +85,46 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                             Resource accessorResource,
+                                                             Id<ResourceClassId> resourceClassId,
+                                                             ResourcePermission resourcePermission,
+                                                             long afterResourceId,
+                                                             int maxResources) {
+      if (!resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // now merge the next page of objects of the specified type that each (inherited) accessor has the specified permission to
+         final SortedMap<Long, Resource> resources = new TreeMap<>();
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID);
+
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
+            statement.setResourceClassId(2, resourceClassId);
+            statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
+            statement.setBoolean(4, resourcePermission.isWithGrantOption());
+            statement.setResourceId(5, afterResourceId);
+            mergeResourcePage(resources, getResourcePage(statement, maxResources), maxResources);
+         }
+
+         return new ArrayList<>(resources.values());
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
                                                             Resource accessorResource,
@@ -91,11 +138,11 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // then get all the descendants of the specified domain
-         final Set<Id<DomainId>> descendantDomainIds
+         final LongHashSet descendantDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            resourceDomainId);
@@ -106,10 +153,10 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
          Set<Resource> resources = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            for (Id<DomainId> descendantDomainId : descendantDomainIds) {
-               statement.setResourceId(1, accessorResourceId);
-               statement.setResourceDomainId(2, descendantDomainId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            for (int j = 0; j < descendantDomainIds.size(); j++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               statement.setResourceDomainId(2, descendantDomainIds.get(j));
                statement.setResourceClassId(3, resourceClassId);
                statement.setResourceSystemPermissionId(4, resourcePermission.getSystemPermissionId());
                statement.setBoolean(5, resourcePermission.isWithGrantOption());
@@ -132,6 +179,53 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
       }
    }
 
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                           Resource accessorResource,
+                                                                                           Set<Resource> accessedResources) {
+      SQLStatement statement = null;
+      try {
+         // first get all the resources from which the accessor inherits any permissions
+         final LongHashSet accessorResourceIds
+               = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+         // now accumulate the system permissions of each (inherited) accessor on each chunk of accessed resources
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+         for (List<Resource> chunk : chunkForInList(accessedResources)) {
+            statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs,
+                                                                 chunk.size()));
+
+            for (int i = 0; i < accessorResourceIds.size(); i++) {
+               statement.setResourceId(1, accessorResourceIds.get(i));
+               setInListResourceIds(statement, 2, chunk);
+               SQLResult resultSet = statement.executeQuery();
+
+               while (resultSet.next()) {
+                  final Resource accessedResource = resultSet.getResource("AccessedResourceId");
+
+                  Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessedResource);
+                  if (resourcePermissions == null) {
+                     resourcePermissions = new HashSet<>();
+                     resourcePermissionsMap.put(accessedResource, resourcePermissions);
+                  }
+                  resourcePermissions.add(getResourceSysPermission(resultSet));
+               }
+               resultSet.close();
+            }
+            closeStatement(statement);
+            statement = null;
+         }
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<ResourcePermission> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
                                                                             Resource accessorResource,
@@ -139,7 +233,7 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
       SQLStatement statement = null;
       try {
          // first get all the resources from which the accessor inherits any permissions
-         final Set<Id<ResourceId>> accessorResourceIds
+         final LongHashSet accessorResourceIds
                = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
 
          // now accumulate the objects of the specified type that each (inherited) accessor has the specified permission to
@@ -147,8 +241,8 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
          Set<ResourcePermission> resourcePermissions = new HashSet<>();
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedID);
 
-         for (Id<ResourceId> accessorResourceId : accessorResourceIds) {
-            statement.setResourceId(1, accessorResourceId);
+         for (int i = 0; i < accessorResourceIds.size(); i++) {
+            statement.setResourceId(1, accessorResourceIds.get(i));
             statement.setResourceId(2, accessedResource);
             resultSet = statement.executeQuery();
 
@@ -167,4 +261,28 @@ public class NonRecursiveGrantResourcePermissionSysPersister extends CommonGrant
          closeStatement(statement);
       }
    }
+
+   @Override
+   public Resource findInheritedResource(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Set<Resource> candidateResources) {
+      return NonRecursivePersisterHelper.findInheritedResource(sqlStrings,
+                                                               connection,
+                                                               accessorResource,
+                                                               candidateResources);
+   }
+
+   @Override
+   public Set<Resource> getInheritedResources(SQLConnection connection,
+                                              Resource accessorResource) {
+      final LongHashSet accessorResourceIds
+            = NonRecursivePersisterHelper.getInheritedAccessorResourceIds(sqlStrings, connection, accessorResource);
+
+      // the accessor itself is always the first element, so skip it
+      Set<Resource> inheritedResources = new HashSet<>(accessorResourceIds.size());
+      for (int i = 1; i < accessorResourceIds.size(); i++) {
+         inheritedResources.add(Resources.getInstance(accessorResourceIds.get(i)));
+      }
+      return inheritedResources;
+   }
 }
@@ -20,39 +20,41 @@ package com.acciente.oacc.sql.internal.persister;
 import com.acciente.oacc.Resource;
 import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class NonRecursivePersisterHelper {
-   protected static Set<Id<ResourceId>> getInheritedAccessorResourceIds(SQLStrings sqlStrings,
-                                                                        SQLConnection connection,
-                                                                        Resource accessorResource) {
+   // the expansions below return their ids as primitive longs in insertion order: callers only bind them to further
+   // statements, so boxing each id into an Id object (and hashing it into a HashSet) is left to the API boundaries
+
+   // returns the accessor resource id followed by the ids of all the resources it inherits from, in breadth-first
+   // order; the set doubles as the queue of the search, so each resource is queried exactly once
+   protected static LongHashSet getInheritedAccessorResourceIds(SQLStrings sqlStrings,
+                                                                SQLConnection connection,
+                                                                Resource accessorResource) {
       SQLStatement statement = null;
-      Set<Id<ResourceId>> allAccessorResourceIds = new HashSet<>();
-      allAccessorResourceIds.add(Id.<ResourceId>from(accessorResource.getId()));
-      Set<Id<ResourceId>> previousAccessorResourceIds = new HashSet<>(allAccessorResourceIds);
+      LongHashSet allAccessorResourceIds = new LongHashSet();
+      allAccessorResourceIds.add(accessorResource.getId());
 
       try {
          statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorID);
 
-         while (!previousAccessorResourceIds.isEmpty()) {
-            Set<Id<ResourceId>> newestAccessorResourceIds = new HashSet<>();
-
-            for (Id<ResourceId> accessorResourceId : previousAccessorResourceIds) {
-               statement.setResourceId(1, accessorResourceId);
-               SQLResult resultSet = statement.executeQuery();
+         for (int i = 0; i < allAccessorResourceIds.size(); i++) {
+            statement.setResourceId(1, allAccessorResourceIds.get(i));
+            SQLResult resultSet = statement.executeQuery();
 
-               while (resultSet.next()) {
-                  newestAccessorResourceIds.add(resultSet.getResourceId("ResourceId"));
-               }
-               resultSet.close();
+            while (resultSet.next()) {
+               allAccessorResourceIds.add(resultSet.getResourceIdValue("ResourceId"));
             }
-            allAccessorResourceIds.addAll(newestAccessorResourceIds);
-            previousAccessorResourceIds = newestAccessorResourceIds;
+            resultSet.close();
          }
       }
       catch (SQLException e) {
@@ -65,31 +67,32 @@ public class NonRecursivePersisterHelper {
       return allAccessorResourceIds;
    }
 
-   protected static Set<Id<DomainId>> getDescendantDomainIdsOrderedByAscendingLevel(SQLStrings sqlStrings,
-                                                                                    SQLConnection connection,
-                                                                                    Id<DomainId> parentDomainId) {
+   // returns the parent domain id followed by the ids of all its descendants; the breadth-first search appends each
+   // level after the previous one, so the ids are ordered by ascending level
+   protected static LongHashSet getDescendantDomainIdsOrderedByAscendingLevel(SQLStrings sqlStrings,
+                                                                            SQLConnection connection,
+                                                                            Id<DomainId> parentDomainId) {
+      return getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings, connection, parentDomainId.getValue());
+   }
+
+   protected static LongHashSet getDescendantDomainIdsOrderedByAscendingLevel(SQLStrings sqlStrings,
+                                                                            SQLConnection connection,
+                                                                            long parentDomainId) {
       SQLStatement statement = null;
-      Set<Id<DomainId>> allDomainIds = new LinkedHashSet<>();
+      LongHashSet allDomainIds = new LongHashSet();
       allDomainIds.add(parentDomainId);
-      Set<Id<DomainId>> previousDomainIds = new HashSet<>(allDomainIds);
 
       try {
          statement = connection.prepareStatement(sqlStrings.SQL_findInDomain_DirectDescendantResourceDomainName_BY_DomainID);
 
-         while (!previousDomainIds.isEmpty()) {
-            Set<Id<DomainId>> newestDomainIds = new HashSet<>();
-
-            for (Id<DomainId> domainId : previousDomainIds) {
-               statement.setResourceDomainId(1, domainId);
-               SQLResult resultSet = statement.executeQuery();
+         for (int i = 0; i < allDomainIds.size(); i++) {
+            statement.setResourceDomainId(1, allDomainIds.get(i));
+            SQLResult resultSet = statement.executeQuery();
 
-               while (resultSet.next()) {
-                  newestDomainIds.add(resultSet.getResourceDomainId("DomainId"));
-               }
-               resultSet.close();
+            while (resultSet.next()) {
+               allDomainIds.add(resultSet.getResourceDomainIdValue("DomainId"));
             }
-            allDomainIds.addAll(newestDomainIds);
-            previousDomainIds = newestDomainIds;
+            resultSet.close();
          }
       }
       catch (SQLException e) {
@@ -102,6 +105,37 @@ public class NonRecursivePersisterHelper {
       return allDomainIds;
    }
 
+   // returns the next page of resources of the specified class in any of the specified domains; the resources of each
+   // domain are paged by a query of their own, and these are merged into a single page in ascending resource id order
+   protected static List<Resource> getResourcePageByDomainIds(SQLStrings sqlStrings,
+                                                              SQLConnection connection,
+                                                              Id<ResourceClassId> resourceClassId,
+                                                              LongHashSet domainIds,
+                                                              long afterResourceId,
+                                                              int maxResources) {
+      SQLStatement statement = null;
+      final SortedMap<Long, Resource> resources = new TreeMap<>();
+
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID_AfterResourceID);
+
+         for (int i = 0; i < domainIds.size(); i++) {
+            statement.setResourceClassId(1, resourceClassId);
+            statement.setResourceDomainId(2, domainIds.get(i));
+            statement.setResourceId(3, afterResourceId);
+            Persister.mergeResourcePage(resources, Persister.getResourcePage(statement, maxResources), maxResources);
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         Persister.closeStatement(statement);
+      }
+
+      return new ArrayList<>(resources.values());
+   }
+
    protected static Set<String> getDescendantDomainNames(SQLStrings sqlStrings,
                                                          SQLConnection connection,
                                                          String parentDomainName) {
@@ -139,17 +173,17 @@ public class NonRecursivePersisterHelper {
       return allDomainNames;
    }
 
-   protected static Set<Id<DomainId>> getAncestorDomainIds(SQLStrings sqlStrings,
-                                                           SQLConnection connection,
-                                                           Id<DomainId> domainId) {
+   protected static LongHashSet getAncestorDomainIds(SQLStrings sqlStrings,
+                                                     SQLConnection connection,
+                                                     Id<DomainId> domainId) {
       SQLStatement statement = null;
-      Set<Id<DomainId>> ancestorDomainIds = new HashSet<>();
-      ancestorDomainIds.add(domainId);
+      LongHashSet ancestorDomainIds = new LongHashSet();
+      ancestorDomainIds.add(domainId.getValue());
       int previousSize = 0;
 
       try {
          statement = connection.prepareStatement(sqlStrings.SQL_findInDomain_ParentResourceDomainName_BY_DomainID);
-         Id<DomainId> parentDomainId = domainId;
+         long parentDomainId = domainId.getValue();
 
          while (previousSize < ancestorDomainIds.size()) {
             previousSize = ancestorDomainIds.size();
@@ -157,7 +191,7 @@ public class NonRecursivePersisterHelper {
             SQLResult resultSet = statement.executeQuery();
 
             if (resultSet.next()) {
-               parentDomainId = resultSet.getResourceDomainId("DomainId");
+               parentDomainId = resultSet.getResourceDomainIdValue("DomainId");
                ancestorDomainIds.add(parentDomainId);
             }
             resultSet.close();
@@ -172,4 +206,109 @@ public class NonRecursivePersisterHelper {
 
       return ancestorDomainIds;
    }
+
+   // returns one of the candidate resources from which the accessor inherits (directly, transitively, or by being
+   // that resource), or null if there is none; the search runs a level at a time from both ends of the inheritance
+   // graph, always expanding the smaller frontier with one query per chunk of it, and stops at the first meeting point
+   protected static Resource findInheritedResource(SQLStrings sqlStrings,
+                                                   SQLConnection connection,
+                                                   Resource accessorResource,
+                                                   Set<Resource> candidateResources) {
+      // the ids of the resources the accessor inherits from, and the ids of the resources inheriting from a
+      // candidate mapped to the position of that candidate
+      final List<Resource> candidates = new ArrayList<>(candidateResources);
+      LongHashSet forwardResourceIds = new LongHashSet();
+      forwardResourceIds.add(accessorResource.getId());
+      LongLongHashMap backwardResourceIds = new LongLongHashMap(candidates.size());
+      for (int i = 0; i < candidates.size(); i++) {
+         backwardResourceIds.putIfAbsent(candidates.get(i).getId(), i);
+      }
+
+      if (backwardResourceIds.containsKey(accessorResource.getId())) {
+         return candidates.get((int) backwardResourceIds.get(accessorResource.getId(), -1));
+      }
+
+      LongHashSet forwardFrontier = new LongHashSet();
+      forwardFrontier.add(accessorResource.getId());
+      LongHashSet backwardFrontier = new LongHashSet(candidates.size());
+      for (Resource candidate : candidates) {
+         backwardFrontier.add(candidate.getId());
+      }
+      int inheritedCandidate = -1;
+
+      try {
+         while (inheritedCandidate < 0 && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()) {
+            LongHashSet newestResourceIds = new LongHashSet();
+
+            if (forwardFrontier.size() <= backwardFrontier.size()) {
+               for (int chunkStart = 0; chunkStart < forwardFrontier.size(); chunkStart += Persister.IN_LIST_CHUNK_SIZE) {
+                  final int chunkEnd = Math.min(chunkStart + Persister.IN_LIST_CHUNK_SIZE, forwardFrontier.size());
+                  SQLStatement statement = null;
+                  try {
+                     statement = connection.prepareStatement(Persister.expandInList(sqlStrings.SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorIDs,
+                                                                                    chunkEnd - chunkStart));
+                     Persister.setInListResourceIds(statement, 1, forwardFrontier, chunkStart, chunkEnd);
+                     SQLResult resultSet = statement.executeQuery();
+
+                     while (inheritedCandidate < 0 && resultSet.next()) {
+                        final long resourceId = resultSet.getResourceIdValue("ResourceId");
+                        if (backwardResourceIds.containsKey(resourceId)) {
+                           inheritedCandidate = (int) backwardResourceIds.get(resourceId, -1);
+                        }
+                        else if (forwardResourceIds.add(resourceId)) {
+                           newestResourceIds.add(resourceId);
+                        }
+                     }
+                     resultSet.close();
+                  }
+                  finally {
+                     Persister.closeStatement(statement);
+                  }
+
+                  if (inheritedCandidate >= 0) {
+                     break;
+                  }
+               }
+               forwardFrontier = newestResourceIds;
+            }
+            else {
+               for (int chunkStart = 0; chunkStart < backwardFrontier.size(); chunkStart += Persister.IN_LIST_CHUNK_SIZE) {
+                  final int chunkEnd = Math.min(chunkStart + Persister.IN_LIST_CHUNK_SIZE, backwardFrontier.size());
+                  SQLStatement statement = null;
+                  try {
+                     statement = connection.prepareStatement(Persister.expandInList(sqlStrings.SQL_findInGrantResourcePermissionSys_directInheritance_AccessorID_AccessedID_BY_AccessedIDs,
+                                                                                    chunkEnd - chunkStart));
+                     Persister.setInListResourceIds(statement, 1, backwardFrontier, chunkStart, chunkEnd);
+                     SQLResult resultSet = statement.executeQuery();
+
+                     while (inheritedCandidate < 0 && resultSet.next()) {
+                        final long resourceId = resultSet.getResourceIdValue("AccessorResourceId");
+                        final long candidate = backwardResourceIds.get(resultSet.getResourceIdValue("AccessedResourceId"), -1);
+                        if (forwardResourceIds.contains(resourceId)) {
+                           inheritedCandidate = (int) candidate;
+                        }
+                        else if (backwardResourceIds.putIfAbsent(resourceId, candidate)) {
+                           newestResourceIds.add(resourceId);
+                        }
+                     }
+                     resultSet.close();
+                  }
+                  finally {
+                     Persister.closeStatement(statement);
+                  }
+
+                  if (inheritedCandidate >= 0) {
+                     break;
+                  }
+               }
+               backwardFrontier = newestResourceIds;
+            }
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+
+      return inheritedCandidate < 0 ? null : candidates.get(inheritedCandidate);
+   }
 }
@@ -22,7 +22,6 @@ import com.acciente.oacc.sql.internal.persister.id.DomainId;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 
 import java.sql.SQLException;
-import java.util.Set;
 
 public class NonRecursiveResourcePersister extends CommonResourcePersister {
    public NonRecursiveResourcePersister(SQLProfile sqlProfile,
@@ -38,14 +37,14 @@ public class NonRecursiveResourcePersister extends CommonResourcePersister {
          boolean isEmpty = true;
          SQLResult resultSet;
 
-         final Set<Id<DomainId>> descendantDomainIds
+         final LongHashSet descendantDomainIds
                = NonRecursivePersisterHelper.getDescendantDomainIdsOrderedByAscendingLevel(sqlStrings,
                                                                                            connection,
                                                                                            domainId);
 
          statement = connection.prepareStatement(sqlStrings.SQL_findInResource_withoutInheritance_COUNTResourceID_BY_DomainID);
-         for (Id<DomainId> descendantDomainId : descendantDomainIds) {
-            statement.setResourceDomainId(1, descendantDomainId);
+         for (int i = 0; i < descendantDomainIds.size(); i++) {
+            statement.setResourceDomainId(1, descendantDomainIds.get(i));
             resultSet = statement.executeQuery();
 
             if (!resultSet.next()) {
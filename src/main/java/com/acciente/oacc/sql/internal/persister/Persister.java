@@ -17,13 +17,23 @@
  */
 package com.acciente.oacc.sql.internal.persister;
 
+import com.acciente.oacc.Resource;
+
 import java.io.Serializable;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
 
 /**
  * Base class for persisters
  */
 public abstract class Persister implements Serializable {
+   // max number of ids bound into a single IN list, to stay well within the bind parameter limits of all drivers
+   protected static final int IN_LIST_CHUNK_SIZE = 500;
+
    protected static void closeStatement(SQLStatement statement) {
       try {
          if (statement != null) {
@@ -48,4 +58,142 @@ public abstract class Persister implements Serializable {
          throw new IllegalStateException("Security table data update, 1 row expected, got: " + rowCount);
       }
    }
+
+   protected void assertOneRowInsertedPerBatchEntry(int[] rowCounts) {
+      for (int rowCount : rowCounts) {
+         // some drivers do not report the row count of batched statements
+         if (rowCount != Statement.SUCCESS_NO_INFO) {
+            assertOneRowInserted(rowCount);
+         }
+      }
+   }
+
+   protected void assertOneRowUpdatedPerBatchEntry(int[] rowCounts) {
+      for (int rowCount : rowCounts) {
+         // some drivers do not report the row count of batched statements
+         if (rowCount != Statement.SUCCESS_NO_INFO) {
+            assertOneRowUpdated(rowCount);
+         }
+      }
+   }
+
+   // IN list helpers
+
+   protected static List<List<Resource>> chunkForInList(Collection<Resource> resources) {
+      final List<List<Resource>> chunks = new ArrayList<>((resources.size() + IN_LIST_CHUNK_SIZE - 1) / IN_LIST_CHUNK_SIZE);
+      List<Resource> chunk = null;
+
+      for (Resource resource : resources) {
+         if (chunk == null || chunk.size() == IN_LIST_CHUNK_SIZE) {
+            chunk = new ArrayList<>(Math.min(IN_LIST_CHUNK_SIZE, resources.size()));
+            chunks.add(chunk);
+         }
+         chunk.add(resource);
+      }
+
+      return chunks;
+   }
+
+   protected static String expandInList(String sqlTemplate, int inListSize) {
+      final StringBuilder bindMarkers = new StringBuilder(inListSize * 3);
+
+      for (int i = 0; i < inListSize; i++) {
+         if (i > 0) {
+            bindMarkers.append(", ");
+         }
+         bindMarkers.append('?');
+      }
+
+      return sqlTemplate.replace(SQLStrings.IN_LIST, bindMarkers);
+   }
+
+   protected static int setInListResourceIds(SQLStatement statement,
+                                             int parameterIndex,
+                                             List<Resource> resources) throws SQLException {
+      for (Resource resource : resources) {
+         statement.setResourceId(parameterIndex++, resource);
+      }
+      return parameterIndex;
+   }
+
+   protected static int setInListResourceIds(SQLStatement statement,
+                                             int parameterIndex,
+                                             LongHashSet resourceIds,
+                                             int fromIndex,
+                                             int toIndex) throws SQLException {
+      for (int i = fromIndex; i < toIndex; i++) {
+         statement.setResourceId(parameterIndex++, resourceIds.get(i));
+      }
+      return parameterIndex;
+   }
+
+   // executes the update once per chunk of resources, binding the chunk to every IN list in the
+   // SQL template, and returns the total number of rows updated
+   protected static int executeUpdateByResourcesInChunks(SQLConnection connection,
+                                                         String sqlTemplate,
+                                                         Collection<Resource> resources) throws SQLException {
+      final int inListCount = (sqlTemplate.length() - sqlTemplate.replace(SQLStrings.IN_LIST, "").length())
+            / SQLStrings.IN_LIST.length();
+      int rowCount = 0;
+
+      for (List<Resource> chunk : chunkForInList(resources)) {
+         SQLStatement statement = null;
+         try {
+            statement = connection.prepareStatement(expandInList(sqlTemplate, chunk.size()));
+
+            int parameterIndex = 1;
+            for (int i = 0; i < inListCount; i++) {
+               parameterIndex = setInListResourceIds(statement, parameterIndex, chunk);
+            }
+
+            rowCount += statement.executeUpdate();
+         }
+         finally {
+            closeStatement(statement);
+         }
+      }
+
+      return rowCount;
+   }
+
+   // page helpers
+
+   // reads up to maxResources rows of a query ordered by resource id, collapsing the adjacent duplicate
+   // rows that a join over inherited accessors or nested domains can produce; a page may therefore hold
+   // fewer than maxResources resources, and only an empty page means that no more resources remain
+   protected static List<Resource> getResourcePage(SQLStatement statement, int maxResources) throws SQLException {
+      statement.setMaxRows(maxResources);
+      final SQLResult resultSet = statement.executeQuery();
+
+      final List<Resource> resources = new ArrayList<>();
+      while (resultSet.next()) {
+         final Resource resource = resultSet.getResource("ResourceId", "ExternalId");
+         if (resources.isEmpty() || !resources.get(resources.size() - 1).getId().equals(resource.getId())) {
+            resources.add(resource);
+         }
+      }
+      resultSet.close();
+
+      return resources;
+   }
+
+   // merges a page of one sub-query into the page accumulated across several sub-queries, keeping only
+   // the lowest maxResources resource ids; each sub-query page must be free of duplicates for the merge
+   // to remain a gap-free prefix of the union
+   protected static void mergeResourcePage(SortedMap<Long, Resource> mergedPage,
+                                           List<Resource> page,
+                                           int maxResources) {
+      for (Resource resource : page) {
+         if (mergedPage.containsKey(resource.getId())) {
+            continue;
+         }
+         if (mergedPage.size() == maxResources) {
+            if (resource.getId() >= mergedPage.lastKey()) {
+               break;
+            }
+            mergedPage.remove(mergedPage.lastKey());
+         }
+         mergedPage.put(resource.getId(), resource);
+      }
+   }
 }
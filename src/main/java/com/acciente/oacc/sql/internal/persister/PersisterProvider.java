@@ -0,0 +1,55 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+/**
+ * Supplies the set of persisters an access control context operates on
+ */
+public interface PersisterProvider {
+   ResourceClassPersister getResourceClassPersister();
+
+   ResourceClassPermissionPersister getResourceClassPermissionPersister();
+
+   DomainPersister getDomainPersister();
+
+   GrantDomainCreatePermissionSysPersister getGrantDomainCreatePermissionSysPersister();
+
+   GrantDomainCreatePermissionPostCreateSysPersister getGrantDomainCreatePermissionPostCreateSysPersister();
+
+   GrantDomainPermissionSysPersister getGrantDomainPermissionSysPersister();
+
+   ResourcePersister getResourcePersister();
+
+   GrantResourceCreatePermissionSysPersister getGrantResourceCreatePermissionSysPersister();
+
+   GrantResourceCreatePermissionPostCreateSysPersister getGrantResourceCreatePermissionPostCreateSysPersister();
+
+   GrantResourceCreatePermissionPostCreatePersister getGrantResourceCreatePermissionPostCreatePersister();
+
+   GrantResourcePermissionSysPersister getGrantResourcePermissionSysPersister();
+
+   GrantGlobalResourcePermissionSysPersister getGrantGlobalResourcePermissionSysPersister();
+
+   GrantResourcePermissionPersister getGrantResourcePermissionPersister();
+
+   GrantGlobalResourcePermissionPersister getGrantGlobalResourcePermissionPersister();
+
+   SnapshotPersister getSnapshotPersister();
+
+   ChangeLogPersister getChangeLogPersister();
+}
@@ -61,6 +61,32 @@ public class RecursiveDomainPersister extends CommonDomainPersister {
       }
    }
 
+   @Override
+   public List<Id<DomainId>> getAncestorDomainIds(SQLConnection connection,
+                                                  Id<DomainId> domainId) {
+      SQLStatement statement = null;
+
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_findInDomain_AncestorDomainID_BY_DomainID);
+         statement.setResourceDomainId(1, domainId);
+         SQLResult resultSet = statement.executeQuery();
+
+         List<Id<DomainId>> ancestorDomainIds = new ArrayList<>();
+         while (resultSet.next()) {
+            ancestorDomainIds.add(resultSet.getResourceDomainId("DomainId"));
+         }
+         resultSet.close();
+
+         return ancestorDomainIds;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public void deleteDomain(SQLConnection connection,
                             Id<DomainId> domainId) {
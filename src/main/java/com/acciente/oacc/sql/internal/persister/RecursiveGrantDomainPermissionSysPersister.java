@@ -70,6 +70,32 @@ public class RecursiveGrantDomainPermissionSysPersister extends CommonGrantDomai
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
+                                                                 Resource accessorResource,
+                                                                 Id<ResourceClassId> resourceClassId,
+                                                                 long afterResourceId,
+                                                                 int maxResources) {
+      SQLStatement statement = null;
+      try {
+         // get the next page of objects of the specified type that the session has access to via domain super user permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantDomainPermissionSys_ResourceID_ExternalId_BY_AccessorID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID);
+         statement.setResourceId(1, accessorResource);
+         statement.setDomainSystemPermissionId(2, DOMAIN_PERMISSION_SUPER_USER.getSystemPermissionId());
+         statement.setBoolean(3, false);
+         statement.setResourceClassId(4, resourceClassId);
+         statement.setResourceId(5, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByDomainSuperUserPermission(SQLConnection connection,
                                                                 Resource accessorResource,
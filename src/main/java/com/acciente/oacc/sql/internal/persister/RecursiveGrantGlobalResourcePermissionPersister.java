@@ -78,6 +78,39 @@ public class RecursiveGrantGlobalResourcePermissionPersister extends CommonGrant
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
+                                                                Resource accessorResource,
+                                                                Id<ResourceClassId> resourceClassId,
+                                                                ResourcePermission resourcePermission,
+                                                                Id<ResourcePermissionId> resourcePermissionId,
+                                                                long afterResourceId,
+                                                                int maxResources) {
+      if (resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of objects of the specified type that the session has access to via global permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID_AfterResourceID);
+         statement.setResourceId(1, accessorResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourcePermissionId(3, resourcePermissionId);
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceClassId(5, resourceClassId);
+         statement.setResourceId(6, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByGlobalResourcePermission(SQLConnection connection,
                                                                Resource accessorResource,
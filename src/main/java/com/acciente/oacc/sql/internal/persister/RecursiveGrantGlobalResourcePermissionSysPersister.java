@@ -76,6 +76,38 @@ public class RecursiveGrantGlobalResourcePermissionSysPersister extends CommonGr
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
+                                                           Resource accessorResource,
+                                                           Id<ResourceClassId> resourceClassId,
+                                                           ResourcePermission resourcePermission,
+                                                           long afterResourceId,
+                                                           int maxResources) {
+      if (!resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of objects of the specified type that the session has access to via global permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID);
+         statement.setResourceId(1, accessorResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceClassId(5, resourceClassId);
+         statement.setResourceId(6, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByGlobalSysPermission(SQLConnection connection,
                                                           Resource accessorResource,
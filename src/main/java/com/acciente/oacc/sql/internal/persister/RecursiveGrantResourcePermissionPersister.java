@@ -26,7 +26,10 @@ import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourcePermissionId;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class RecursiveGrantResourcePermissionPersister extends CommonGrantResourcePermissionPersister {
@@ -74,6 +77,38 @@ public class RecursiveGrantResourcePermissionPersister extends CommonGrantResour
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByResourcePermission(SQLConnection connection,
+                                                          Resource accessorResource,
+                                                          Id<ResourceClassId> resourceClassId,
+                                                          ResourcePermission resourcePermission,
+                                                          Id<ResourcePermissionId> resourcePermissionId,
+                                                          long afterResourceId,
+                                                          int maxResources) {
+      if (resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a non-system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of objects of the specified type that the session has access to via direct permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID);
+         statement.setResourceId(1, accessorResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourcePermissionId(3, resourcePermissionId);
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceId(5, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByResourcePermission(SQLConnection connection,
                                                          Resource accessorResource,
@@ -114,6 +149,47 @@ public class RecursiveGrantResourcePermissionPersister extends CommonGrantResour
       }
    }
 
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourcePermissionsIncludeInherited(SQLConnection connection,
+                                                                                        Resource accessorResource,
+                                                                                        Set<Resource> accessedResources) {
+      SQLStatement statement = null;
+      try {
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+
+         // collect the permissions that the accessor has to each chunk of accessed resources with a single query
+         for (List<Resource> chunk : chunkForInList(accessedResources)) {
+            statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInGrantResourcePermission_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs,
+                                                                 chunk.size()));
+            statement.setResourceId(1, accessorResource);
+            setInListResourceIds(statement, 2, chunk);
+            SQLResult resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+               final Resource accessedResource = resultSet.getResource("AccessedResourceId");
+
+               Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessedResource);
+               if (resourcePermissions == null) {
+                  resourcePermissions = new HashSet<>();
+                  resourcePermissionsMap.put(accessedResource, resourcePermissions);
+               }
+               resourcePermissions.add(getResourcePermission(resultSet));
+            }
+            resultSet.close();
+            closeStatement(statement);
+            statement = null;
+         }
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<ResourcePermission> getResourcePermissionsIncludeInherited(SQLConnection connection,
                                                                          Resource accessorResource,
@@ -25,7 +25,10 @@ import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class RecursiveGrantResourcePermissionSysPersister extends CommonGrantResourcePermissionSysPersister {
@@ -72,6 +75,37 @@ public class RecursiveGrantResourcePermissionSysPersister extends CommonGrantRes
       }
    }
 
+   @Override
+   public List<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
+                                                             Resource accessorResource,
+                                                             Id<ResourceClassId> resourceClassId,
+                                                             ResourcePermission resourcePermission,
+                                                             long afterResourceId,
+                                                             int maxResources) {
+      if (!resourcePermission.isSystemPermission()) {
+         throw new IllegalArgumentException("Permission: " + resourcePermission + " is not a system permission");
+      }
+
+      SQLStatement statement = null;
+      try {
+         // get the next page of objects of the specified type that the session has access to via direct permissions
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID);
+         statement.setResourceId(1, accessorResource);
+         statement.setResourceClassId(2, resourceClassId);
+         statement.setResourceSystemPermissionId(3, resourcePermission.getSystemPermissionId());
+         statement.setBoolean(4, resourcePermission.isWithGrantOption());
+         statement.setResourceId(5, afterResourceId);
+
+         return getResourcePage(statement, maxResources);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<Resource> getResourcesByResourceSysPermission(SQLConnection connection,
                                                             Resource accessorResource,
@@ -111,6 +145,47 @@ public class RecursiveGrantResourcePermissionSysPersister extends CommonGrantRes
       }
    }
 
+   @Override
+   public Map<Resource, Set<ResourcePermission>> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
+                                                                                           Resource accessorResource,
+                                                                                           Set<Resource> accessedResources) {
+      SQLStatement statement = null;
+      try {
+         Map<Resource, Set<ResourcePermission>> resourcePermissionsMap = new HashMap<>();
+
+         // collect the system permissions that the accessor has to each chunk of accessed resources with a single query
+         for (List<Resource> chunk : chunkForInList(accessedResources)) {
+            statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInGrantResourcePermissionSys_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs,
+                                                                 chunk.size()));
+            statement.setResourceId(1, accessorResource);
+            setInListResourceIds(statement, 2, chunk);
+            SQLResult resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+               final Resource accessedResource = resultSet.getResource("AccessedResourceId");
+
+               Set<ResourcePermission> resourcePermissions = resourcePermissionsMap.get(accessedResource);
+               if (resourcePermissions == null) {
+                  resourcePermissions = new HashSet<>();
+                  resourcePermissionsMap.put(accessedResource, resourcePermissions);
+               }
+               resourcePermissions.add(getResourceSysPermission(resultSet));
+            }
+            resultSet.close();
+            closeStatement(statement);
+            statement = null;
+         }
+
+         return resourcePermissionsMap;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    @Override
    public Set<ResourcePermission> getResourceSysPermissionsIncludeInherited(SQLConnection connection,
                                                                             Resource accessorResource,
@@ -140,4 +215,71 @@ public class RecursiveGrantResourcePermissionSysPersister extends CommonGrantRes
          closeStatement(statement);
       }
    }
+
+   @Override
+   public Resource findInheritedResource(SQLConnection connection,
+                                         Resource accessorResource,
+                                         Set<Resource> candidateResources) {
+      SQLStatement statement = null;
+      try {
+         // the inheritance closure of the accessor is computed by the database, so we only read the first match
+         for (List<Resource> chunk : chunkForInList(candidateResources)) {
+            statement = connection.prepareStatement(expandInList(sqlStrings.SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID_ResourceIDs,
+                                                                 chunk.size()));
+            statement.setResourceId(1, accessorResource);
+            setInListResourceIds(statement, 2, chunk);
+            SQLResult resultSet = statement.executeQuery();
+
+            Resource inheritedResource = null;
+            if (resultSet.next()) {
+               inheritedResource = resultSet.getResource("ResourceId");
+            }
+            resultSet.close();
+            closeStatement(statement);
+            statement = null;
+
+            if (inheritedResource != null) {
+               // return the candidate as specified, not just its id
+               return chunk.get(chunk.indexOf(inheritedResource));
+            }
+         }
+
+         return null;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
+   @Override
+   public Set<Resource> getInheritedResources(SQLConnection connection,
+                                              Resource accessorResource) {
+      SQLStatement statement = null;
+      try {
+         statement = connection.prepareStatement(sqlStrings.SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID);
+         statement.setResourceId(1, accessorResource);
+         SQLResult resultSet = statement.executeQuery();
+
+         // the inheritance closure includes the accessor itself, which we exclude
+         Set<Resource> inheritedResources = new HashSet<>();
+         while (resultSet.next()) {
+            final Resource inheritedResource = resultSet.getResource("ResourceId");
+            if (inheritedResource.getId().longValue() != accessorResource.getId().longValue()) {
+               inheritedResources.add(inheritedResource);
+            }
+         }
+         resultSet.close();
+
+         return inheritedResources;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
 }
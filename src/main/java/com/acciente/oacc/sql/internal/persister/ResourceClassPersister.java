@@ -18,156 +18,31 @@
 package com.acciente.oacc.sql.internal.persister;
 
 import com.acciente.oacc.Resource;
-import com.acciente.oacc.sql.SQLProfile;
 import com.acciente.oacc.sql.internal.ResourceClassInternalInfo;
 import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 
-import java.sql.SQLException;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class ResourceClassPersister extends Persister {
-   protected final SQLProfile sqlProfile;
-   private final   SQLStrings sqlStrings;
+public interface ResourceClassPersister {
+   Id<ResourceClassId> getResourceClassId(SQLConnection connection,
+                                          String resourceClassName);
 
-   public ResourceClassPersister(SQLProfile sqlProfile,
-                                 SQLStrings sqlStrings) {
-      this.sqlProfile = sqlProfile;
-      this.sqlStrings = sqlStrings;
-   }
+   ResourceClassInternalInfo getResourceClassInfo(SQLConnection connection,
+                                                  String resourceClassName);
 
-   public Id<ResourceClassId> getResourceClassId(SQLConnection connection,
-                                                 String resourceClassName) {
-      SQLStatement statement = null;
+   ResourceClassInternalInfo getResourceClassInfoByResourceId(SQLConnection connection,
+                                                              Resource resource);
 
-      try {
-         Id<ResourceClassId> resourceClassId = null;
+   Map<Resource, ResourceClassInternalInfo> getResourceClassInfosByResourceIds(SQLConnection connection,
+                                                                               Set<Resource> resources);
 
-         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClass_ResourceClassID_BY_ResourceClassName);
-         statement.setString(1, resourceClassName);
-         SQLResult resultSet = statement.executeQuery();
+   List<String> getResourceClassNames(SQLConnection connection);
 
-         if (resultSet.next()) {
-            resourceClassId = resultSet.getResourceClassId("ResourceClassId");
-         }
-
-         return resourceClassId;
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
-      finally {
-         closeStatement(statement);
-      }
-   }
-
-   public ResourceClassInternalInfo getResourceClassInfo(SQLConnection connection,
-                                                         String resourceClassName) {
-      SQLStatement statement = null;
-
-      if (resourceClassName == null) {
-         throw new IllegalArgumentException("Resource class name cannot be null");
-      }
-
-      try {
-         ResourceClassInternalInfo resourceClassInternalInfo = null;
-
-         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceClassName);
-         statement.setString(1, resourceClassName.trim());
-         SQLResult resultSet = statement.executeQuery();
-
-         if (resultSet.next()) {
-            resourceClassInternalInfo = new ResourceClassInternalInfo(resultSet.getResourceClassId("ResourceClassId"),
-                                                                      resultSet.getString("ResourceClassName"),
-                                                                      resultSet.getBoolean("IsAuthenticatable"),
-                                                                      resultSet.getBoolean("IsUnauthenticatedCreateAllowed"));
-         }
-
-         return resourceClassInternalInfo;
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
-      finally {
-         closeStatement(statement);
-      }
-   }
-
-   public ResourceClassInternalInfo getResourceClassInfoByResourceId(SQLConnection connection,
-                                                                     Resource resource) {
-      SQLStatement statement = null;
-
-      try {
-         ResourceClassInternalInfo resourceClassInternalInfo = null;
-
-         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceID);
-         statement.setResourceId(1, resource);
-         SQLResult resultSet = statement.executeQuery();
-
-         if (resultSet.next()) {
-            resourceClassInternalInfo = new ResourceClassInternalInfo(resultSet.getResourceClassId("ResourceClassId"),
-                                                                      resultSet.getString("ResourceClassName"),
-                                                                      resultSet.getBoolean("IsAuthenticatable"),
-                                                                      resultSet.getBoolean("IsUnauthenticatedCreateAllowed"));
-         }
-
-         if (resourceClassInternalInfo == null) {
-            throw new IllegalArgumentException("Could not determine resource class for resource: " + resource);
-         }
-
-         return resourceClassInternalInfo;
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
-      finally {
-         closeStatement(statement);
-      }
-   }
-
-   public List<String> getResourceClassNames(SQLConnection connection) {
-      SQLStatement statement = null;
-
-      try {
-         List<String> resourceClassNames = new LinkedList<>();
-
-         statement = connection.prepareStatement(sqlStrings.SQL_findInResourceClass_ResourceClassName_BY_ALL);
-         SQLResult resultSet = statement.executeQuery();
-
-         while (resultSet.next()) {
-            resourceClassNames.add(resultSet.getString("ResourceClassName"));
-         }
-
-         return resourceClassNames;
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
-      finally {
-         closeStatement(statement);
-      }
-   }
-
-   public void addResourceClass(SQLConnection connection,
-                                String resourceClassName,
-                                boolean authenticatable,
-                                boolean nonAuthenticatedCreateAllowed) {
-      SQLStatement statement = null;
-
-      try {
-         // create the new resource class
-         statement = connection.prepareStatement(sqlStrings.SQL_createInResourceClass_WITH_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed);
-         statement.setString(1, resourceClassName);
-         statement.setBoolean(2, authenticatable);
-         statement.setBoolean(3, nonAuthenticatedCreateAllowed);
-         assertOneRowInserted(statement.executeUpdate());
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
-      finally {
-         closeStatement(statement);
-      }
-   }
+   void addResourceClass(SQLConnection connection,
+                         String resourceClassName,
+                         boolean authenticatable,
+                         boolean nonAuthenticatedCreateAllowed);
 }
@@ -22,6 +22,10 @@ import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class ResourcePasswordPersister extends Persister {
    private final SQLPasswordStrings sqlPasswordStrings;
@@ -125,6 +129,117 @@ public class ResourcePasswordPersister extends Persister {
       }
    }
 
+   // writes the encrypted passwords with one batch of updates and one batch of inserts per chunk of resources, all
+   // in a single transaction, unless the connection is already part of a transaction managed by the caller
+   public void setEncryptedBoundPasswordsByResourceId(SQLConnection connection,
+                                                      Map<Resource, String> newEncryptedBoundPasswords) {
+      try {
+         final boolean isAutoCommit = connection.getAutoCommit();
+         if (isAutoCommit) {
+            connection.setAutoCommit(false);
+         }
+         try {
+            for (List<Resource> chunk : chunkForInList(newEncryptedBoundPasswords.keySet())) {
+               __setEncryptedBoundPasswordsByResourceId(connection, chunk, newEncryptedBoundPasswords);
+            }
+            if (isAutoCommit) {
+               connection.commit();
+            }
+         }
+         catch (SQLException | RuntimeException e) {
+            if (isAutoCommit) {
+               connection.rollback();
+            }
+            throw e;
+         }
+         finally {
+            if (isAutoCommit) {
+               connection.setAutoCommit(true);
+            }
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private void __setEncryptedBoundPasswordsByResourceId(SQLConnection connection,
+                                                         List<Resource> resources,
+                                                         Map<Resource, String> newEncryptedBoundPasswords)
+         throws SQLException {
+      SQLStatement finderStatement = null;
+      SQLStatement insertStatement = null;
+      SQLStatement updateStatement = null;
+
+      try {
+         // find which of the resources already have a password
+         final Set<Long> resourceIdsWithPassword = new HashSet<>(resources.size());
+         finderStatement
+               = connection.prepareStatement(expandInList(sqlPasswordStrings.SQL_findInResourcePassword_ResourceID_BY_ResourceIDs,
+                                                          resources.size()));
+         setInListResourceIds(finderStatement, 1, resources);
+         final SQLResult resultSet = finderStatement.executeQuery();
+         while (resultSet.next()) {
+            resourceIdsWithPassword.add(resultSet.getResourceIdValue("ResourceId"));
+         }
+         resultSet.close();
+
+         boolean hasInsertBatchEntries = false;
+         boolean hasUpdateBatchEntries = false;
+         insertStatement = connection.prepareStatement(sqlPasswordStrings.SQL_createInResourcePassword_WITH_ResourceID_Password);
+         updateStatement = connection.prepareStatement(sqlPasswordStrings.SQL_updateInResourcePassword_Password_BY_ResourceID);
+         for (Resource resource : resources) {
+            if (resourceIdsWithPassword.contains(resource.getId())) {
+               updateStatement.setString(1, newEncryptedBoundPasswords.get(resource));
+               updateStatement.setResourceId(2, resource);
+               updateStatement.addBatch();
+               hasUpdateBatchEntries = true;
+            }
+            else {
+               insertStatement.setResourceId(1, resource);
+               insertStatement.setString(2, newEncryptedBoundPasswords.get(resource));
+               insertStatement.addBatch();
+               hasInsertBatchEntries = true;
+            }
+         }
+
+         if (hasUpdateBatchEntries) {
+            assertOneRowUpdatedPerBatchEntry(updateStatement.executeBatch());
+         }
+         if (hasInsertBatchEntries) {
+            assertOneRowInsertedPerBatchEntry(insertStatement.executeBatch());
+         }
+      }
+      finally {
+         closeStatement(finderStatement);
+         closeStatement(insertStatement);
+         closeStatement(updateStatement);
+      }
+   }
+
+   // only replaces the encrypted password if it has not been changed since it was read, and returns whether it did
+   public boolean replaceEncryptedBoundPasswordByResourceId(SQLConnection connection,
+                                                            Resource resource,
+                                                            String oldEncryptedBoundPassword,
+                                                            String newEncryptedBoundPassword) {
+      SQLStatement statement = null;
+
+      try {
+         statement = connection.prepareStatement(sqlPasswordStrings.SQL_updateInResourcePassword_Password_BY_ResourceID_Password);
+         statement.setString(1, newEncryptedBoundPassword);
+         statement.setResourceId(2, resource);
+         statement.setString(3, oldEncryptedBoundPassword);
+
+         return statement.executeUpdate() == 1;
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+      finally {
+         closeStatement(statement);
+      }
+   }
+
    public void removeEncryptedBoundPasswordByResourceId(SQLConnection connection, Resource resource) {
       SQLStatement statement = null;
 
@@ -142,4 +257,18 @@ public class ResourcePasswordPersister extends Persister {
       }
    }
 
+   // removes the encrypted passwords with one statement per chunk of resources
+   public void removeEncryptedBoundPasswordsByResourceId(SQLConnection connection, Set<Resource> resources) {
+      try {
+         final int rowCount = executeUpdateByResourcesInChunks(connection,
+                                                               sqlPasswordStrings.SQL_removeInResourcePassword_BY_ResourceIDs,
+                                                               resources);
+         if (rowCount != resources.size()) {
+            throw new IllegalStateException("Security table data update, " + resources.size() + " rows expected, got: " + rowCount);
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
 }
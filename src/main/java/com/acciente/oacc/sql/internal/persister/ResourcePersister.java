@@ -23,6 +23,9 @@ import com.acciente.oacc.sql.internal.persister.id.Id;
 import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
 import com.acciente.oacc.sql.internal.persister.id.ResourceId;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface ResourcePersister {
    void verifyResourceExists(SQLConnection connection,
                              Resource resource);
@@ -39,9 +42,15 @@ public interface ResourcePersister {
    void deleteResource(SQLConnection connection,
                        Resource resource);
 
+   void deleteResources(SQLConnection connection,
+                        Set<Resource> resources);
+
    Id<DomainId> getDomainIdByResource(SQLConnection connection,
                                       Resource resource);
 
+   Map<Resource, Id<DomainId>> getDomainIdsByResources(SQLConnection connection,
+                                                       Set<Resource> resources);
+
    Id<ResourceId> getNextResourceId(SQLConnection connection);
 
    boolean isDomainEmpty(SQLConnection connection,
@@ -35,6 +35,22 @@ public class SQLConnection {
       return new SQLStatement(connection.prepareStatement(sql, generatedKeyColumns));
    }
 
+   public boolean getAutoCommit() throws SQLException {
+      return connection.getAutoCommit();
+   }
+
+   public void setAutoCommit(boolean autoCommit) throws SQLException {
+      connection.setAutoCommit(autoCommit);
+   }
+
+   public void commit() throws SQLException {
+      connection.commit();
+   }
+
+   public void rollback() throws SQLException {
+      connection.rollback();
+   }
+
    public void close() throws SQLException {
       this.connection.close();
    }
@@ -24,9 +24,12 @@ public class SQLPasswordStrings implements Serializable {
 
    // ResourcePassword
    public final String SQL_findInResourcePassword_Password_BY_ResourceID;
+   public final String SQL_findInResourcePassword_ResourceID_BY_ResourceIDs;
    public final String SQL_createInResourcePassword_WITH_ResourceID_Password;
    public final String SQL_updateInResourcePassword_Password_BY_ResourceID;
+   public final String SQL_updateInResourcePassword_Password_BY_ResourceID_Password;
    public final String SQL_removeInResourcePassword_BY_ResourceID;
+   public final String SQL_removeInResourcePassword_BY_ResourceIDs;
 
    public static SQLPasswordStrings getSQLPasswordStrings(String schemaName) {
       return new SQLPasswordStrings(schemaName);
@@ -41,6 +44,13 @@ public class SQLPasswordStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "ResourcePassword WHERE ResourceId = ?";
 
+      SQL_findInResourcePassword_ResourceID_BY_ResourceIDs
+            = "SELECT ResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "ResourcePassword WHERE ResourceId IN ( "
+            + SQLStrings.IN_LIST
+            + " )";
+
       SQL_createInResourcePassword_WITH_ResourceID_Password
             = "INSERT INTO "
             + schemaNameAndTablePrefix
@@ -49,7 +59,17 @@ public class SQLPasswordStrings implements Serializable {
       SQL_updateInResourcePassword_Password_BY_ResourceID
             = "UPDATE " + schemaNameAndTablePrefix + "ResourcePassword SET Password = ? WHERE ResourceId = ?";
 
+      SQL_updateInResourcePassword_Password_BY_ResourceID_Password
+            = "UPDATE " + schemaNameAndTablePrefix + "ResourcePassword SET Password = ? WHERE ResourceId = ? AND Password = ?";
+
       SQL_removeInResourcePassword_BY_ResourceID
             = "DELETE FROM " + schemaNameAndTablePrefix + "ResourcePassword WHERE ResourceId = ?";
+
+      SQL_removeInResourcePassword_BY_ResourceIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "ResourcePassword WHERE ResourceId IN ( "
+            + SQLStrings.IN_LIST
+            + " )";
    }
 }
@@ -43,6 +43,10 @@ public class SQLResult {
       return Id.from(resultSet.getLong(columnLabel));
    }
 
+   public long getResourceIdValue(String columnLabel) throws SQLException {
+      return resultSet.getLong(columnLabel);
+   }
+
    public Resource getResource(String columnLabel) throws SQLException {
       return Resources.getInstance(resultSet.getLong(columnLabel));
    }
@@ -56,6 +60,11 @@ public class SQLResult {
       return Id.from(resultSet.getLong(columnIndex));
    }
 
+   public Id<ResourceId> getNullableResourceId(String columnLabel) throws SQLException {
+      final long resourceId = resultSet.getLong(columnLabel);
+      return resultSet.wasNull() ? null : Id.<ResourceId>from(resourceId);
+   }
+
    public Id<ResourceClassId> getResourceClassId(String columnLabel) throws SQLException {
       return Id.from(resultSet.getLong(columnLabel));
    }
@@ -64,6 +73,20 @@ public class SQLResult {
       return Id.from(resultSet.getLong(columnLabel));
    }
 
+   public long getResourceDomainIdValue(String columnLabel) throws SQLException {
+      return resultSet.getLong(columnLabel);
+   }
+
+   public Id<DomainId> getNullableResourceDomainId(String columnLabel) throws SQLException {
+      final long domainId = resultSet.getLong(columnLabel);
+      return resultSet.wasNull() ? null : Id.<DomainId>from(domainId);
+   }
+
+   public Id<ResourceClassId> getNullableResourceClassId(String columnLabel) throws SQLException {
+      final long resourceClassId = resultSet.getLong(columnLabel);
+      return resultSet.wasNull() ? null : Id.<ResourceClassId>from(resourceClassId);
+   }
+
    public Id<ResourcePermissionId> getResourcePermissionId(String columnLabel) throws SQLException {
       return Id.from(resultSet.getLong(columnLabel));
    }
@@ -92,6 +115,10 @@ public class SQLResult {
       return int2bool(resultSet.getInt(columnLabel));
    }
 
+   public long getLong(String columnLabel) throws SQLException {
+      return resultSet.getLong(columnLabel);
+   }
+
    public int getInteger(String columnLabel) throws SQLException {
       return resultSet.getInt(columnLabel);
    }
@@ -42,6 +42,10 @@ public class SQLStatement {
       statement.setLong(parameterIndex, resource.getId());
    }
 
+   public void setResourceId(int parameterIndex, long resourceId) throws SQLException {
+      statement.setLong(parameterIndex, resourceId);
+   }
+
    public void setResourceClassId(int parameterIndex, Id<ResourceClassId> id) throws SQLException {
       statement.setLong(parameterIndex, id.getValue());
    }
@@ -50,6 +54,10 @@ public class SQLStatement {
       statement.setLong(parameterIndex, id.getValue());
    }
 
+   public void setResourceDomainId(int parameterIndex, long domainId) throws SQLException {
+      statement.setLong(parameterIndex, domainId);
+   }
+
    public void setResourceCreateSystemPermissionId(int parameterIndex, long resourceCreateSystemPermissionId) throws SQLException {
       statement.setLong(parameterIndex, resourceCreateSystemPermissionId);
    }
@@ -71,6 +79,10 @@ public class SQLStatement {
       statement.setLong(parameterIndex, domainSystemPermissionId);
    }
 
+   public void setChangeSequence(int parameterIndex, long changeSequence) throws SQLException {
+      statement.setLong(parameterIndex, changeSequence);
+   }
+
    public void setBoolean(int parameterIndex, boolean value) throws SQLException {
       statement.setInt(parameterIndex, bool2int(value));
    }
@@ -83,6 +95,10 @@ public class SQLStatement {
       statement.setNull(parameterIndex, sqlType);
    }
 
+   void setMaxRows(int maxRows) throws SQLException {
+      statement.setMaxRows(maxRows);
+   }
+
    SQLResult executeQuery() throws SQLException {
       return new SQLResult(statement.executeQuery());
    }
@@ -91,6 +107,14 @@ public class SQLStatement {
       return statement.executeUpdate();
    }
 
+   void addBatch() throws SQLException {
+      statement.addBatch();
+   }
+
+   int[] executeBatch() throws SQLException {
+      return statement.executeBatch();
+   }
+
    public SQLResult getGeneratedKeys() throws SQLException {
       return new SQLResult(statement.getGeneratedKeys());
    }
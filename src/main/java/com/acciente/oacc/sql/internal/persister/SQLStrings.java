@@ -25,12 +25,16 @@ import com.acciente.oacc.sql.SQLProfile;
 import java.io.Serializable;
 
 public class SQLStrings implements Serializable {
+   // placeholder for the bind markers of an IN list, expanded to the size of each chunk of ids at execution time
+   public static final String IN_LIST = "#IN_LIST#";
+
    // SQL string constants
 
    // ResourceClass - common
    public final String SQL_findInResourceClass_ResourceClassID_BY_ResourceClassName;
    public final String SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceClassName;
    public final String SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceID;
+   public final String SQL_findInResourceClass_ResourceID_ExternalID_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceIDs;
    public final String SQL_findInResourceClass_ResourceClassName_BY_ALL;
    public final String SQL_createInResourceClass_WITH_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed;
 
@@ -48,6 +52,7 @@ public class SQLStrings implements Serializable {
    // Domain - recursive
    public final String SQL_findInDomain_DescendantResourceDomainName_BY_ResourceDomainName;
    public final String SQL_findInDomain_DescendantResourceDomainID_BY_DomainID_ORDERBY_DomainLevel;
+   public final String SQL_findInDomain_AncestorDomainID_BY_DomainID;
    public final String SQL_removeInDomain_withDescendants_BY_DomainID;
    // Domain - non-recursive
    public final String SQL_findInDomain_DirectDescendantResourceDomainName_BY_ResourceDomainName;
@@ -59,6 +64,7 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantDomainCreatePermissionSys_WITH_AccessorID_GrantorID_IsWithGrant_SysPermissionID;
    public final String SQL_updateInGrantDomainCreatePermissionSys_SET_GrantorID_IsWithGrant_BY_AccessorID_SysPermissionID;
    public final String SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorID;
+   public final String SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorIDs;
    public final String SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorID_SysPermissionID;
    // GrantDomainCreatePermissionSys - recursive
    public final String SQL_findInGrantDomainCreatePermissionSys_SysPermissionID_IsWithGrant_BY_AccessorID;
@@ -66,6 +72,7 @@ public class SQLStrings implements Serializable {
    // GrantDomainCreatePermissionPostCreateSys - common
    public final String SQL_findInGrantDomainCreatePermissionPostCreateSys_withoutInheritance_PostCreateSysPermissionID_PostCreateIsWithGrant_IsWithGrant_BY_AccessorID;
    public final String SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorID;
+   public final String SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorIDs;
    public final String SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorID_PostCreateSysPermissionID;
    public final String SQL_createInGrantDomainCreatePermissionPostCreateSys_WITH_AccessorID_GrantorID_IsWithGrant_PostCreateIsWithGrant_PostCreateSysPermissionID;
    public final String SQL_updateInGrantDomainCreatePermissionPostCreateSys_SET_GrantorID_IsWithGrant_PostCreateIsWithGrant_BY_AccessorID_PostCreateSysPermissionID;
@@ -78,11 +85,13 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantDomainPermissionSys_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_SysPermissionID;
    public final String SQL_updateInGrantDomainPermissionSys_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedDomainID_SysPermissionID;
    public final String SQL_removeInGrantDomainPermissionSys_BY_AccessorID;
+   public final String SQL_removeInGrantDomainPermissionSys_BY_AccessorIDs;
    public final String SQL_removeInGrantDomainPermissionSys_BY_AccessedDomainID;
    public final String SQL_removeInGrantDomainPermissionSys_BY_AccessorID_AccessedDomainID;
    public final String SQL_removeInGrantDomainPermissionSys_BY_AccessorID_AccessedDomainID_SysPermissionID;
    // GrantDomainPermissionSys - recursive
    public final String SQL_findInGrantDomainPermissionSys_ResourceID_ExternalId_BY_AccessorID_SysPermissionID_IsWithGrant_ResourceClassID;
+   public final String SQL_findInGrantDomainPermissionSys_ResourceID_ExternalId_BY_AccessorID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID;
    public final String SQL_findInGrantDomainPermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_SysPermissionID_IsWithGrant_ResourceClassID;
    public final String SQL_findInGrantDomainPermissionSys_SysPermissionID_IsWithGrant_BY_AccessorID_DomainID;
    public final String SQL_findInGrantDomainPermissionSys_ResourceDomainName_SysPermissionID_IsWithGrant_BY_AccessorID;
@@ -95,12 +104,16 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInResource_WITH_ResourceID_ResourceClassID_DomainID;
    public final String SQL_createInResource_WITH_ResourceClassID_DomainID;
    public final String SQL_removeInResource_BY_ResourceID;
+   public final String SQL_removeInResource_BY_ResourceIDs;
    public final String SQL_findInResource_ResourceId_BY_ResourceID;
    public final String SQL_findInResource_ResourceId_ExternalId_BY_ResourceID;
    public final String SQL_findInResource_DomainID_BY_ResourceID;
+   public final String SQL_findInResource_ResourceID_DomainID_BY_ResourceIDs;
    public final String SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID;
+   public final String SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID_AfterResourceID;
    public final String SQL_createInResourceExternalId_WITH_ResourceID_ExternalID;
    public final String SQL_removeInResourceExternalId_BY_ResourceID;
+   public final String SQL_removeInResourceExternalId_BY_ResourceIDs;
    public final String SQL_findInResourceExternalId_ResourceId_ExternalId_BY_ExternalID;
    // Resource - recursive
    public final String SQL_findInResource_COUNTResourceID_BY_DomainID;
@@ -113,6 +126,7 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantResourceCreatePermissionSys_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_ResourceClassID_SysPermissionId;
    public final String SQL_updateInGrantResourceCreatePermissionSys_SET_GrantorID_IsWithGrant_BY__AccessorID_AccessedDomainID_ResourceClassID_SysPermissionId;
    public final String SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorID;
+   public final String SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorIDs;
    public final String SQL_removeInGrantResourceCreatePermissionSys_BY_AccessedDomainId;
    public final String SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID;
@@ -127,6 +141,7 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantResourceCreatePermissionPostCreateSys_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_PostCreateIsWithGrant_ResourceClassID_PostCreateSysPermissionID;
    public final String SQL_updateInGrantResourceCreatePermissionPostCreateSys_SET_GrantorID_IsWithGrant_PostCreateIsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID_PostCreateSysPermissionID;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorID;
+   public final String SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorIDs;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessedDomainID;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorID_AccessedDomainID_ResourceClassID_PostCreateSysPermissionID;
@@ -141,6 +156,7 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantResourceCreatePermissionPostCreate_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_PostCreateIsWithGrant_ResourceClassID_PostCreatePermissionName;
    public final String SQL_updateInGrantResourceCreatePermissionPostCreate_SET_GrantorID_IsWithGrant_PostCreateIsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID_PostCreatePermissionName;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorID;
+   public final String SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorIDs;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessedDomainId;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorID_AccessedDomainID_ResourceClassID_PostCreatePermissionName;
@@ -151,35 +167,54 @@ public class SQLStrings implements Serializable {
 
    // GrantResourcePermissionSys - common
    public final String SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_SysPermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedID;
+   public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs;
+   public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessorID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessedID;
    public final String SQL_createInGrantResourcePermissionSys_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_SysPermissionID;
    public final String SQL_updateInGrantResourcePermissionSys_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedID_ResourceClassID_SysPermissionID;
    public final String SQL_removeInGrantResourcePermissionSys_BY_AccessorID_OR_AccessedID;
+   public final String SQL_removeInGrantResourcePermissionSys_BY_AccessorIDs_OR_AccessedIDs;
    public final String SQL_removeInGrantResourcePermissionSys_BY_AccessorID_AccessedID;
    public final String SQL_removeInGrantResourcePermissionSys_BY_AccessorID_AccessedID_ResourceClassID_SysPermissionID;
    // GrantResourcePermissionSys - recursive
    public final String SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant;
    public final String SQL_findInGrantResourcePermissionSys_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedID;
+   public final String SQL_findInGrantResourcePermissionSys_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs;
+   public final String SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID_ResourceIDs;
+   public final String SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID;
    // GrantResourcePermissionSys - non-recursive
    public final String SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorID;
+   public final String SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorIDs;
+   public final String SQL_findInGrantResourcePermissionSys_directInheritance_AccessorID_AccessedID_BY_AccessedIDs;
    public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant;
 
    // GrantResourcePermission - common
    public final String SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_PermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermission_withoutInheritance_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedID;
+   public final String SQL_findInGrantResourcePermission_withoutInheritance_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs;
+   public final String SQL_findInGrantResourcePermission_withoutInheritance_AccessorID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessedID;
    public final String SQL_createInGrantResourcePermission_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_PermissionName;
    public final String SQL_updateInGrantResourcePermission_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedID_ResourceClassID_PermissionName;
    public final String SQL_removeInGrantResourcePermission_BY_AccessorID_OR_AccessedID;
+   public final String SQL_removeInGrantResourcePermission_BY_AccessorIDs_OR_AccessedIDs;
    public final String SQL_removeInGrantResourcePermission_BY_AccessorID_AccessedID;
    public final String SQL_removeInGrantResourcePermission_BY_AccessorID_AccessedID_ResourceClassID_PermissionName;
+   public final String SQL_findInGrantResourcePermission_AccessorID_BY_ResourceClassID;
    // GrantResourcePermission - recursive
    public final String SQL_findInGrantResourcePermission_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedID;
+   public final String SQL_findInGrantResourcePermission_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs;
    public final String SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant;
    // GrantResourcePermission - non-recursive
    public final String SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant;
+   public final String SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID;
    public final String SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant;
 
    // GrantGlobalResourcePermissionSys - common
@@ -188,11 +223,14 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantGlobalResourcePermissionSys_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_ResourceClassID_SysPermissionID;
    public final String SQL_updateInGrantGlobalResourcePermissionSys_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID;
    public final String SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorID;
+   public final String SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorIDs;
    public final String SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessedDomainId;
    public final String SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID;
+   public final String SQL_findInGrantGlobalResourcePermissionSys_AccessorID_BY_ResourceClassID;
    // GrantGlobalResourcePermissionSys - recursive
    public final String SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID;
+   public final String SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID;
    public final String SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID;
    public final String SQL_findInGrantGlobalResourcePermissionSys_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_findInGrantGlobalResourcePermissionSys_ResourceDomainName_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID;
@@ -206,11 +244,14 @@ public class SQLStrings implements Serializable {
    public final String SQL_createInGrantGlobalResourcePermission_WITH_AccessorID_GrantorID_AccessedDomainID_IsWithGrant_ResourceClassID_PermissionName;
    public final String SQL_updateInGrantGlobalResourcePermission_SET_GrantorID_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID_PermissionName;
    public final String SQL_removeInGrantGlobalResourcePermission_BY_AccessorID;
+   public final String SQL_removeInGrantGlobalResourcePermission_BY_AccessorIDs;
    public final String SQL_removeInGrantGlobalResourcePermission_BY_AccessedDomainId;
    public final String SQL_removeInGrantGlobalResourcePermission_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_removeInGrantGlobalResourcePermission_BY_AccessorID_AccessedDomainID_ResourceClassID_PermissionName;
+   public final String SQL_findInGrantGlobalResourcePermission_AccessorID_BY_ResourceClassID;
    // GrantGlobalResourcePermission - recursive
    public final String SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID;
+   public final String SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID_AfterResourceID;
    public final String SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID;
    public final String SQL_findInGrantGlobalResourcePermission_PermissionName_IsWithGrant_BY_AccessorID_AccessedDomainID_ResourceClassID;
    public final String SQL_findInGrantGlobalResourcePermission_ResourceDomainName_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID;
@@ -218,6 +259,25 @@ public class SQLStrings implements Serializable {
    // GrantGlobalResourcePermission - non-recursive
    public final String SQL_findInGrantGlobalResourcePermission_withoutInheritance_ResourceDomainID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant;
 
+   // Snapshot - common
+   public final String SQL_findInDomain_DomainID_ResourceDomainName_ParentDomainID_BY_ALL;
+   public final String SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_BY_ALL;
+   public final String SQL_findInResourceClassPermission_ResourceClassID_PermissionName_BY_ALL;
+   public final String SQL_findInResource_ResourceID_ResourceClassID_DomainID_ExternalID_BY_ALL;
+   public final String SQL_findInGrantResourcePermissionSys_AccessorID_AccessedID_SysPermissionID_IsWithGrant_BY_ALL;
+   public final String SQL_findInGrantResourcePermission_AccessorID_AccessedID_PermissionName_IsWithGrant_BY_ALL;
+   public final String SQL_findInGrantGlobalResourcePermissionSys_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID_IsWithGrant_BY_ALL;
+   public final String SQL_findInGrantGlobalResourcePermission_AccessorID_AccessedDomainID_ResourceClassID_PermissionName_IsWithGrant_BY_ALL;
+   public final String SQL_findInGrantDomainPermissionSys_AccessorID_AccessedDomainID_SysPermissionID_IsWithGrant_BY_ALL;
+
+   // ChangeLog - common
+   public final String SQL_createInChangeLog_WITH_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID;
+   public final String SQL_findInChangeLog_MaxChangeSeq;
+   public final String SQL_findInChangeLog_ChangeSeq_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID_BY_ChangeSeq;
+   public final String SQL_findInChangeLog_ChangeSeq_ORDER_BY_ChangeSeq_DESC;
+   public final String SQL_updateInChangeLog_SET_ChangeKind_BY_ChangeSeq;
+   public final String SQL_removeInChangeLog_BY_ChangeSeq_BEFORE;
+
    // Key generators
    public final String SQL_nextResourceID;
 
@@ -290,6 +350,13 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Resource WHERE ResourceId = ? )";
 
+      SQL_findInResourceClass_ResourceID_ExternalID_ResourceClassID_ResourceClassName_IsAuthenticatable_IsUnauthenticatedCreateAllowed_BY_ResourceIDs
+            = "SELECT A.ResourceId, C.ExternalId, B.ResourceClassId, B.ResourceClassName, B.IsAuthenticatable, B.IsUnauthenticatedCreateAllowed FROM "
+            + schemaNameAndTablePrefix + "Resource A JOIN "
+            + schemaNameAndTablePrefix + "ResourceClass B ON B.ResourceClassId = A.ResourceClassId LEFT JOIN "
+            + schemaNameAndTablePrefix + "ResourceExternalId C ON C.ResourceId = A.ResourceId "
+            + "WHERE A.ResourceId IN ( " + IN_LIST + " )";
+
       SQL_findInResourceClass_ResourceClassName_BY_ALL
             = "SELECT ResourceClassName FROM "
             + schemaNameAndTablePrefix
@@ -398,6 +465,19 @@ public class SQLStrings implements Serializable {
             + "WHERE Splus1.ParentDomainId IS NOT NULL AND Splus1.ParentDomainId = S.DomainId ) "
             + "SELECT DomainId, DomainName FROM S ORDER BY DomainLevel";
 
+      // recursive query to return the specified domain and all its ancestors
+      SQL_findInDomain_AncestorDomainID_BY_DomainID
+            = withClause + " R( DomainId, ParentDomainId ) AS "
+            + "( SELECT DomainId, ParentDomainId FROM "
+            + schemaNameAndTablePrefix
+            + "Domain WHERE DomainId = ? "
+            + unionClause + " "
+            + "SELECT Rplus1.DomainId, Rplus1.ParentDomainId FROM "
+            + schemaNameAndTablePrefix
+            + "Domain Rplus1, R "
+            + "WHERE R.ParentDomainId IS NOT NULL AND Rplus1.DomainId = R.ParentDomainId ) "
+            + "SELECT DomainId FROM R";
+
       SQL_removeInDomain_withDescendants_BY_DomainID
             = sqlProfile.isRecursiveDeleteEnabled()
               ? (SQLDialect.Oracle_11_2.equals(sqlProfile.getSqlDialect()))
@@ -459,6 +539,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_DomCrPerm_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_DomCrPerm_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantDomainCreatePermissionSys_BY_AccessorID_SysPermissionID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -496,6 +581,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_DomCrPerm_PostCr_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_DomCrPerm_PostCr_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantDomainCreatePermissionPostCreateSys_BY_AccessorID_PostCreateSysPermissionID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -540,6 +630,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_DomPerm_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantDomainPermissionSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_DomPerm_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantDomainPermissionSys_BY_AccessedDomainID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -582,6 +677,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.ResourceId "
             + "WHERE A.ResourceClassId = ?";
 
+      SQL_findInGrantDomainPermissionSys_ResourceID_ExternalId_BY_AccessorID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID
+            = SQL_findInGrantDomainPermissionSys_ResourceID_ExternalId_BY_AccessorID_SysPermissionID_IsWithGrant_ResourceClassID
+            + " AND A.ResourceId > ? ORDER BY A.ResourceId";
+
       SQL_findInGrantDomainPermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_SysPermissionID_IsWithGrant_ResourceClassID
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
             + ", " + SQL_findDescendantsRecursiveInDomain_DomainID_BY_DomainID
@@ -665,6 +764,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.AccessorResourceId "
             + "WHERE A.AccessedResourceId = ? AND A.ResourceClassId = ? AND A.SysPermissionId = ? AND ( ? IN ( 0, A.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_SysPermissionID_IsWithGrant
+            + " AND A.AccessorResourceId > ? ORDER BY A.AccessorResourceId";
+
       // Resource - common
       SQL_findInResource_COUNTResourceID_BY_ResourceClassID_DomainID
             = "SELECT COUNT( ResourceId ) COUNTResourceID FROM "
@@ -684,6 +787,9 @@ public class SQLStrings implements Serializable {
       SQL_removeInResource_BY_ResourceID
             = "DELETE FROM " + schemaNameAndTablePrefix + "Resource WHERE ResourceId = ?";
 
+      SQL_removeInResource_BY_ResourceIDs
+            = "DELETE FROM " + schemaNameAndTablePrefix + "Resource WHERE ResourceId IN ( " + IN_LIST + " )";
+
       SQL_findInResource_ResourceId_BY_ResourceID
             = "SELECT ResourceId FROM " + schemaNameAndTablePrefix + "Resource WHERE ResourceId = ?";
 
@@ -695,12 +801,19 @@ public class SQLStrings implements Serializable {
       SQL_findInResource_DomainID_BY_ResourceID
             = "SELECT DomainId FROM " + schemaNameAndTablePrefix + "Resource WHERE ResourceId = ? ";
 
+      SQL_findInResource_ResourceID_DomainID_BY_ResourceIDs
+            = "SELECT ResourceId, DomainId FROM " + schemaNameAndTablePrefix + "Resource WHERE ResourceId IN ( " + IN_LIST + " )";
+
       SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID
             = "SELECT A.ResourceId, E.ExternalId FROM "
             + schemaNameAndTablePrefix + "Resource A  LEFT JOIN "
             + schemaNameAndTablePrefix + "ResourceExternalId E ON E.ResourceId = A.ResourceId "
             + "WHERE A.ResourceClassId = ? AND A.DomainId = ?";
 
+      SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID_AfterResourceID
+            = SQL_findInResource_withoutInheritance_ResourceId_ExternalId_BY_ResourceClassID_DomainID
+            + " AND A.ResourceId > ? ORDER BY A.ResourceId";
+
       SQL_createInResourceExternalId_WITH_ResourceID_ExternalID
             = "INSERT INTO "
             + schemaNameAndTablePrefix
@@ -709,6 +822,9 @@ public class SQLStrings implements Serializable {
       SQL_removeInResourceExternalId_BY_ResourceID
             = "DELETE FROM " + schemaNameAndTablePrefix + "ResourceExternalId WHERE ResourceId = ?";
 
+      SQL_removeInResourceExternalId_BY_ResourceIDs
+            = "DELETE FROM " + schemaNameAndTablePrefix + "ResourceExternalId WHERE ResourceId IN ( " + IN_LIST + " )";
+
       SQL_findInResourceExternalId_ResourceId_ExternalId_BY_ExternalID
             = "SELECT ResourceId, ExternalId FROM "
             + schemaNameAndTablePrefix + "ResourceExternalId WHERE ExternalId = ?";
@@ -761,6 +877,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_ResCrPerm_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantResourceCreatePermissionSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResCrPerm_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantResourceCreatePermissionSys_BY_AccessedDomainId
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -855,6 +976,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_ResCrPerm_PostCr_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResCrPerm_PostCr_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantResourceCreatePermissionPostCreateSys_BY_AccessedDomainID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -958,6 +1084,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_ResCrPerm_PostCr WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResCrPerm_PostCr WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantResourceCreatePermissionPostCreate_BY_AccessedDomainId
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -1036,6 +1167,22 @@ public class SQLStrings implements Serializable {
             + "ResourceClass B ON B.ResourceClassId = A.ResourceClassId "
             + "WHERE A.AccessorResourceId = ? AND A.AccessedResourceId = ?";
 
+      SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs
+            = "SELECT A.AccessedResourceId, B.ResourceClassName, A.SysPermissionId, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass B ON B.ResourceClassId = A.ResourceClassId "
+            + "WHERE A.AccessorResourceId = ? AND A.AccessedResourceId IN ( " + IN_LIST + " )";
+
+      SQL_findInGrantResourcePermissionSys_withoutInheritance_AccessorID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessedID
+            = "SELECT A.AccessorResourceId, B.ResourceClassName, A.SysPermissionId, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass B ON B.ResourceClassId = A.ResourceClassId "
+            + "WHERE A.AccessedResourceId = ?";
+
       SQL_createInGrantResourcePermissionSys_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_SysPermissionID
             = "INSERT INTO "
             + schemaNameAndTablePrefix
@@ -1053,6 +1200,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_ResPerm_Sys WHERE AccessorResourceId = ? OR AccessedResourceId = ?";
 
+      SQL_removeInGrantResourcePermissionSys_BY_AccessorIDs_OR_AccessedIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " ) OR AccessedResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantResourcePermissionSys_BY_AccessorID_AccessedID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -1074,6 +1226,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = B.AccessedResourceId "
             + "WHERE B.ResourceClassId = ? AND B.SysPermissionId = ? AND ( ? IN ( 0, B.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant
+            + " AND B.AccessedResourceId > ? ORDER BY B.AccessedResourceId";
+
       SQL_findInGrantResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
             + ", " + SQL_findDescendantsRecursiveInDomain_DomainID_BY_DomainID
@@ -1098,6 +1254,25 @@ public class SQLStrings implements Serializable {
             + "JOIN N ON N.AccessorResourceId = A.AccessorResourceId "
             + "WHERE A.AccessedResourceId = ?";
 
+      SQL_findInGrantResourcePermissionSys_AccessedID_ResourceClassName_SysPermissionID_IsWithGrant_BY_AccessorID_AccessedIDs
+            = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
+            + "SELECT A.AccessedResourceId, B.ResourceClassName, A.SysPermissionId, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass B ON B.ResourceClassId = A.ResourceClassId "
+            + "JOIN N ON N.AccessorResourceId = A.AccessorResourceId "
+            + "WHERE A.AccessedResourceId IN ( " + IN_LIST + " )";
+
+      SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID_ResourceIDs
+            = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
+            + "SELECT AccessorResourceId ResourceId FROM N "
+            + "WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
+      SQL_findInGrantResourcePermissionSys_inheritance_ResourceID_BY_AccessorID
+            = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
+            + "SELECT AccessorResourceId ResourceId FROM N";
+
       // GrantResourcePermissionSys - non-recursive
       SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorID
             = "SELECT AccessedResourceId ResourceId FROM "
@@ -1106,6 +1281,20 @@ public class SQLStrings implements Serializable {
             + "WHERE AccessorResourceId = ? AND SysPermissionId = "
             + ResourcePermission_INHERIT.getSystemPermissionId();
 
+      SQL_findInGrantResourcePermissionSys_directInheritance_ResourceID_BY_AccessorIDs
+            = "SELECT AccessedResourceId ResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys "
+            + "WHERE AccessorResourceId IN ( " + IN_LIST + " ) AND SysPermissionId = "
+            + ResourcePermission_INHERIT.getSystemPermissionId();
+
+      SQL_findInGrantResourcePermissionSys_directInheritance_AccessorID_AccessedID_BY_AccessedIDs
+            = "SELECT AccessorResourceId, AccessedResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys "
+            + "WHERE AccessedResourceId IN ( " + IN_LIST + " ) AND SysPermissionId = "
+            + ResourcePermission_INHERIT.getSystemPermissionId();
+
       SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant
             = "SELECT B.AccessedResourceId ResourceId, E.ExternalId FROM "
             + schemaNameAndTablePrefix
@@ -1114,6 +1303,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = B.AccessedResourceId "
             + "WHERE B.AccessorResourceId = ? AND B.ResourceClassId = ? AND B.SysPermissionId = ? AND ( ? IN ( 0, B.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant
+            + " AND B.AccessedResourceId > ? ORDER BY B.AccessedResourceId";
+
       SQL_findInGrantResourcePermissionSys_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant
             = "SELECT B.AccessedResourceId ResourceId, E.ExternalId FROM "
             + schemaNameAndTablePrefix
@@ -1133,6 +1326,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.AccessorResourceId "
             + "WHERE A.AccessedResourceId = ? AND A.ResourceClassId = ? AND A.PermissionId = ? AND ( ? IN ( 0, A.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessedID_ResourceClassID_PermissionID_IsWithGrant
+            + " AND A.AccessorResourceId > ? ORDER BY A.AccessorResourceId";
+
       SQL_findInGrantResourcePermission_withoutInheritance_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedID
             = "SELECT C.ResourceClassName, B.PermissionName, A.IsWithGrant FROM "
             + schemaNameAndTablePrefix
@@ -1143,6 +1340,26 @@ public class SQLStrings implements Serializable {
             + "ResourceClass C ON C.ResourceClassId = A.ResourceClassId "
             + "WHERE A.AccessorResourceId = ? AND A.AccessedResourceId = ?";
 
+      SQL_findInGrantResourcePermission_withoutInheritance_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs
+            = "SELECT A.AccessedResourceId, C.ResourceClassName, B.PermissionName, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission B ON B.ResourceClassId = A.ResourceClassId AND B.PermissionId = A.PermissionId JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass C ON C.ResourceClassId = A.ResourceClassId "
+            + "WHERE A.AccessorResourceId = ? AND A.AccessedResourceId IN ( " + IN_LIST + " )";
+
+      SQL_findInGrantResourcePermission_withoutInheritance_AccessorID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessedID
+            = "SELECT A.AccessorResourceId, C.ResourceClassName, B.PermissionName, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission B ON B.ResourceClassId = A.ResourceClassId AND B.PermissionId = A.PermissionId JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass C ON C.ResourceClassId = A.ResourceClassId "
+            + "WHERE A.AccessedResourceId = ?";
+
       SQL_createInGrantResourcePermission_WITH_AccessorID_GrantorID_AccessedID_IsWithGrant_ResourceClassID_PermissionName
             = "INSERT INTO "
             + schemaNameAndTablePrefix
@@ -1165,6 +1382,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_ResPerm WHERE AccessorResourceId = ? OR AccessedResourceId = ?";
 
+      SQL_removeInGrantResourcePermission_BY_AccessorIDs_OR_AccessedIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm WHERE AccessorResourceId IN ( " + IN_LIST + " ) OR AccessedResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantResourcePermission_BY_AccessorID_AccessedID
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -1178,6 +1400,12 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "ResourceClassPermission A WHERE A.ResourceClassId = ResourceClassId AND A.PermissionName = ? )";
 
+      SQL_findInGrantResourcePermission_AccessorID_BY_ResourceClassID
+            = "SELECT AccessorResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm "
+            + "WHERE ResourceClassId = ?";
+
       // GrantResourcePermission - recursive
       SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
@@ -1189,6 +1417,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = B.AccessedResourceId "
             + "WHERE B.ResourceClassId = ? AND B.PermissionId = ? AND ( ? IN ( 0, B.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant
+            + " AND B.AccessedResourceId > ? ORDER BY B.AccessedResourceId";
+
       SQL_findInGrantResourcePermission_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
             + ", " + SQL_findDescendantsRecursiveInDomain_DomainID_BY_DomainID
@@ -1215,6 +1447,18 @@ public class SQLStrings implements Serializable {
             + "JOIN N ON N.AccessorResourceId = A.AccessorResourceId "
             + "WHERE A.AccessedResourceId = ?";
 
+      SQL_findInGrantResourcePermission_AccessedID_ResourceClassName_PermissionName_IsWithGrant_BY_AccessorID_AccessedIDs
+            = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
+            + "SELECT A.AccessedResourceId, C.ResourceClassName, B.PermissionName, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission B ON B.ResourceClassId = A.ResourceClassId AND B.PermissionId = A.PermissionId JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClass C ON C.ResourceClassId = A.ResourceClassId "
+            + "JOIN N ON N.AccessorResourceId = A.AccessorResourceId "
+            + "WHERE A.AccessedResourceId IN ( " + IN_LIST + " )";
+
       // GrantResourcePermission - non-recursive
       SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant
             = "SELECT A.AccessedResourceId ResourceId, E.ExternalId FROM "
@@ -1224,6 +1468,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.AccessedResourceId "
             + "WHERE A.AccessorResourceId = ? AND A.ResourceClassId = ? AND A.PermissionId = ? AND ( ? IN ( 0, A.IsWithGrant ) )";
 
+      SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_AfterResourceID
+            = SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant
+            + " AND A.AccessedResourceId > ? ORDER BY A.AccessedResourceId";
+
       SQL_findInGrantResourcePermission_withoutInheritance_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant
             = "SELECT A.AccessedResourceId ResourceId, E.ExternalId FROM "
             + schemaNameAndTablePrefix
@@ -1268,6 +1516,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_Global_ResPerm_Sys WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm_Sys WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantGlobalResourcePermissionSys_BY_AccessedDomainId
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -1283,6 +1536,12 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_Global_ResPerm_Sys WHERE AccessorResourceId = ? AND AccessedDomainId = ? AND ResourceClassId = ? AND SysPermissionId = ?";
 
+      SQL_findInGrantGlobalResourcePermissionSys_AccessorID_BY_ResourceClassID
+            = "SELECT AccessorResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm_Sys "
+            + "WHERE ResourceClassId = ?";
+
       // GrantGlobalResourcePermissionSys - recursive
       SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
@@ -1308,6 +1567,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.ResourceId "
             + "WHERE A.ResourceClassId = ?";
 
+      SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID_AfterResourceID
+            = SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID
+            + " AND A.ResourceId > ? ORDER BY A.ResourceId";
+
       SQL_findInGrantGlobalResourcePermissionSys_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_SysPermissionID_IsWithGrant_ResourceClassID
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
             + ", " + SQL_findDescendantsRecursiveInDomain_DomainID_BY_DomainID
@@ -1428,6 +1691,11 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "Grant_Global_ResPerm WHERE AccessorResourceId = ?";
 
+      SQL_removeInGrantGlobalResourcePermission_BY_AccessorIDs
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm WHERE AccessorResourceId IN ( " + IN_LIST + " )";
+
       SQL_removeInGrantGlobalResourcePermission_BY_AccessedDomainId
             = "DELETE FROM "
             + schemaNameAndTablePrefix
@@ -1446,6 +1714,12 @@ public class SQLStrings implements Serializable {
             + schemaNameAndTablePrefix
             + "ResourceClassPermission A WHERE A.ResourceClassId = ResourceClassId AND A.PermissionName = ? )";
 
+      SQL_findInGrantGlobalResourcePermission_AccessorID_BY_ResourceClassID
+            = "SELECT AccessorResourceId FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm "
+            + "WHERE ResourceClassId = ?";
+
       // GrantGlobalResourcePermission - recursive
       SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
@@ -1471,6 +1745,10 @@ public class SQLStrings implements Serializable {
             + "ResourceExternalId E ON E.ResourceId = A.ResourceId "
             + "WHERE A.ResourceClassId = ?";
 
+      SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID_AfterResourceID
+            = SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID
+            + " AND A.ResourceId > ? ORDER BY A.ResourceId";
+
       SQL_findInGrantGlobalResourcePermission_ResourceID_ExternalID_BY_AccessorID_DomainID_ResourceClassID_PermissionID_IsWithGrant_ResourceClassID
             = SQL_findRecursiveInGrantResourcePermissionSys_AccessorID_BY_AccessorID
             + ", " + SQL_findDescendantsRecursiveInDomain_DomainID_BY_DomainID
@@ -1552,6 +1830,98 @@ public class SQLStrings implements Serializable {
             + "Grant_Global_ResPerm "
             + "WHERE AccessorResourceId = ? AND ResourceClassId = ? AND PermissionId = ? AND ( ? IN ( 0, IsWithGrant ) )";
 
+      // Snapshot - common
+      SQL_findInDomain_DomainID_ResourceDomainName_ParentDomainID_BY_ALL
+            = "SELECT DomainId, DomainName, ParentDomainId FROM "
+            + schemaNameAndTablePrefix
+            + "Domain";
+
+      SQL_findInResourceClass_ResourceClassID_ResourceClassName_IsAuthenticatable_BY_ALL
+            = "SELECT ResourceClassId, ResourceClassName, IsAuthenticatable FROM "
+            + schemaNameAndTablePrefix
+            + "ResourceClass";
+
+      SQL_findInResourceClassPermission_ResourceClassID_PermissionName_BY_ALL
+            = "SELECT ResourceClassId, PermissionName FROM "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission";
+
+      SQL_findInResource_ResourceID_ResourceClassID_DomainID_ExternalID_BY_ALL
+            = "SELECT A.ResourceId, A.ResourceClassId, A.DomainId, B.ExternalId FROM "
+            + schemaNameAndTablePrefix
+            + "Resource A LEFT JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceExternalId B ON B.ResourceId = A.ResourceId";
+
+      SQL_findInGrantResourcePermissionSys_AccessorID_AccessedID_SysPermissionID_IsWithGrant_BY_ALL
+            = "SELECT AccessorResourceId, AccessedResourceId, SysPermissionId, IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm_Sys";
+
+      SQL_findInGrantResourcePermission_AccessorID_AccessedID_PermissionName_IsWithGrant_BY_ALL
+            = "SELECT A.AccessorResourceId, A.AccessedResourceId, B.PermissionName, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_ResPerm A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission B ON B.ResourceClassId = A.ResourceClassId AND B.PermissionId = A.PermissionId";
+
+      SQL_findInGrantGlobalResourcePermissionSys_AccessorID_AccessedDomainID_ResourceClassID_SysPermissionID_IsWithGrant_BY_ALL
+            = "SELECT AccessorResourceId, AccessedDomainId, ResourceClassId, SysPermissionId, IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm_Sys";
+
+      SQL_findInGrantGlobalResourcePermission_AccessorID_AccessedDomainID_ResourceClassID_PermissionName_IsWithGrant_BY_ALL
+            = "SELECT A.AccessorResourceId, A.AccessedDomainId, A.ResourceClassId, B.PermissionName, A.IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_Global_ResPerm A JOIN "
+            + schemaNameAndTablePrefix
+            + "ResourceClassPermission B ON B.ResourceClassId = A.ResourceClassId AND B.PermissionId = A.PermissionId";
+
+      SQL_findInGrantDomainPermissionSys_AccessorID_AccessedDomainID_SysPermissionID_IsWithGrant_BY_ALL
+            = "SELECT AccessorResourceId, AccessedDomainId, SysPermissionId, IsWithGrant FROM "
+            + schemaNameAndTablePrefix
+            + "Grant_DomPerm_Sys";
+
+      // ChangeLog - common
+      SQL_createInChangeLog_WITH_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID
+            = sqlProfile.isSequenceEnabled()
+              ? "INSERT INTO "
+                    + schemaNameAndTablePrefix
+                    + "ChangeLog ( ChangeSeq, ChangeKind, AccessorResourceId, AccessedResourceId, AccessedDomainId, ResourceClassId ) "
+                    + "VALUES ( "
+                    + dialectSpecificSQLGenerator.nextSequenceValueFragment(schemaNameAndTablePrefix + "ChangeSeq")
+                    + ", ?, ?, ?, ?, ? )"
+              : "INSERT INTO "
+                    + schemaNameAndTablePrefix
+                    + "ChangeLog ( ChangeKind, AccessorResourceId, AccessedResourceId, AccessedDomainId, ResourceClassId ) "
+                    + "VALUES ( ?, ?, ?, ?, ? )";
+
+      SQL_findInChangeLog_MaxChangeSeq
+            = "SELECT MAX( ChangeSeq ) ChangeSeq FROM "
+            + schemaNameAndTablePrefix
+            + "ChangeLog";
+
+      SQL_findInChangeLog_ChangeSeq_ChangeKind_AccessorID_AccessedID_AccessedDomainID_ResourceClassID_BY_ChangeSeq
+            = "SELECT ChangeSeq, ChangeKind, AccessorResourceId, AccessedResourceId, AccessedDomainId, ResourceClassId FROM "
+            + schemaNameAndTablePrefix
+            + "ChangeLog WHERE ChangeSeq > ? ORDER BY ChangeSeq";
+
+      SQL_findInChangeLog_ChangeSeq_ORDER_BY_ChangeSeq_DESC
+            = "SELECT ChangeSeq FROM "
+            + schemaNameAndTablePrefix
+            + "ChangeLog ORDER BY ChangeSeq DESC";
+
+      SQL_updateInChangeLog_SET_ChangeKind_BY_ChangeSeq
+            = "UPDATE "
+            + schemaNameAndTablePrefix
+            + "ChangeLog SET ChangeKind = ?, AccessorResourceId = NULL, AccessedResourceId = NULL, AccessedDomainId = NULL, ResourceClassId = NULL"
+            + " WHERE ChangeSeq = ?";
+
+      SQL_removeInChangeLog_BY_ChangeSeq_BEFORE
+            = "DELETE FROM "
+            + schemaNameAndTablePrefix
+            + "ChangeLog WHERE ChangeSeq < ?";
+
       // Key generators
       SQL_nextResourceID
             = dialectSpecificSQLGenerator.nextSequenceValueStatement(schemaNameAndTablePrefix + "ResourceId");
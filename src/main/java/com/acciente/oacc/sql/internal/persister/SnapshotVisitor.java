@@ -0,0 +1,57 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceClassId;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+
+/**
+ * Receives the rows of the OACC tables read by a {@link SnapshotPersister}.
+ * <p/>
+ * The rows are visited in the order of the methods below, i.e. all domains, resource classes, resource class
+ * permissions and resources are visited before any of the grants that refer to them.
+ */
+public interface SnapshotVisitor {
+   void visitDomain(Id<DomainId> domainId, String domainName, Id<DomainId> parentDomainId);
+
+   void visitResourceClass(Id<ResourceClassId> resourceClassId, String resourceClassName, boolean isAuthenticatable);
+
+   void visitResourceClassPermission(Id<ResourceClassId> resourceClassId, String permissionName);
+
+   void visitResource(Id<ResourceId> resourceId,
+                      Id<ResourceClassId> resourceClassId,
+                      Id<DomainId> domainId,
+                      String externalId);
+
+   void visitResourcePermission(Id<ResourceId> accessorResourceId,
+                                Id<ResourceId> accessedResourceId,
+                                ResourcePermission resourcePermission);
+
+   void visitGlobalResourcePermission(Id<ResourceId> accessorResourceId,
+                                      Id<DomainId> accessedDomainId,
+                                      Id<ResourceClassId> resourceClassId,
+                                      ResourcePermission resourcePermission);
+
+   void visitDomainPermission(Id<ResourceId> accessorResourceId,
+                              Id<DomainId> accessedDomainId,
+                              DomainPermission domainPermission);
+}
@@ -28,6 +28,10 @@ public class Id<T> {
       return idValue;
    }
 
+   public static <T> Id<T> from(long idValue) {
+      return new Id<>(idValue);
+   }
+
    public static <T> Id<T> from(Long idValue) {
       if (idValue == null) {
          return null;
@@ -19,6 +19,9 @@ package com.acciente.oacc;
 
 import com.acciente.oacc.helper.SQLAccessControlSystemResetUtil;
 import com.acciente.oacc.helper.TestConfigLoader;
+import com.acciente.oacc.memory.MemoryAccessControlContextFactory;
+import com.acciente.oacc.memory.MemoryAccessControlSystemInitializer;
+import com.acciente.oacc.memory.MemoryStore;
 import com.acciente.oacc.sql.SQLAccessControlContextFactory;
 import com.acciente.oacc.sql.SQLProfile;
 import org.junit.After;
@@ -29,6 +32,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 public class TestAccessControlBase {
    public static final Resource SYS_RESOURCE = Resources.getInstance(0);
@@ -37,28 +42,54 @@ public class TestAccessControlBase {
    private static   DataSource           dataSource;
    protected static AccessControlContext systemAccessControlContext;
    private static   boolean              isDBCaseSensitive;
+   private static   MemoryStore          memoryStore;
 
    static {
       sqlProfile = TestConfigLoader.getSQLProfile();
       dataSource = TestConfigLoader.getDataSource();
       isDBCaseSensitive = TestConfigLoader.isDatabaseCaseSensitive();
-      systemAccessControlContext
-            = SQLAccessControlContextFactory.getAccessControlContext(dataSource,
-                                                                     TestConfigLoader.getDatabaseSchema(),
-                                                                     sqlProfile);
+      if (TestConfigLoader.isMemoryStore()) {
+         resetMemoryStore();
+      }
+      systemAccessControlContext = newAccessControlContext();
    }
 
    protected AccessControlContext accessControlContext;
 
    @Before
    public void setUpTest() throws Exception {
-      SQLAccessControlSystemResetUtil.resetOACC(dataSource,
-                                                TestConfigLoader.getDatabaseSchema(),
-                                                TestConfigLoader.getOaccRootPassword());
-      accessControlContext
-            = SQLAccessControlContextFactory.getAccessControlContext(dataSource,
-                                                                     TestConfigLoader.getDatabaseSchema(),
-                                                                     sqlProfile);
+      if (TestConfigLoader.isMemoryStore()) {
+         // a fresh store for every test, which the system access control context needs to operate on, too
+         resetMemoryStore();
+         systemAccessControlContext = newAccessControlContext();
+      }
+      else {
+         SQLAccessControlSystemResetUtil.resetOACC(dataSource,
+                                                   TestConfigLoader.getDatabaseSchema(),
+                                                   TestConfigLoader.getOaccRootPassword());
+      }
+      accessControlContext = newAccessControlContext();
+   }
+
+   private static void resetMemoryStore() {
+      memoryStore = MemoryStore.newInstance();
+      MemoryAccessControlSystemInitializer.initializeOACC(memoryStore, TestConfigLoader.getOaccRootPassword());
+   }
+
+   protected static AccessControlContext newAccessControlContext() {
+      if (memoryStore != null) {
+         return MemoryAccessControlContextFactory.getAccessControlContext(memoryStore);
+      }
+      return SQLAccessControlContextFactory.getAccessControlContext(dataSource,
+                                                                    TestConfigLoader.getDatabaseSchema(),
+                                                                    sqlProfile);
+   }
+
+   protected static AccessControlContext newAuthenticatedAccessControlContext() {
+      final AccessControlContext accessControlContext = newAccessControlContext();
+      accessControlContext.authenticate(SYS_RESOURCE,
+                                        PasswordCredentials.newInstance(TestConfigLoader.getOaccRootPassword()));
+      return accessControlContext;
    }
 
    @After
@@ -75,6 +106,186 @@ public class TestAccessControlBase {
       return isDBCaseSensitive;
    }
 
+   // the settings below apply to the store that the access control contexts of the tests operate on, and
+   // are kept beyond the test that changes them, so every test has to restore the defaults when done
+
+   protected static Object getStoreKey() {
+      return memoryStore != null ? memoryStore.getTables() : dataSource;
+   }
+
+   protected static void addPermissionChangeListener(PermissionChangeListener permissionChangeListener) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.addPermissionChangeListener(memoryStore, permissionChangeListener);
+      }
+      else {
+         SQLAccessControlContextFactory.addPermissionChangeListener(dataSource, permissionChangeListener);
+      }
+   }
+
+   protected static void removePermissionChangeListener(PermissionChangeListener permissionChangeListener) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.removePermissionChangeListener(memoryStore, permissionChangeListener);
+      }
+      else {
+         SQLAccessControlContextFactory.removePermissionChangeListener(dataSource, permissionChangeListener);
+      }
+   }
+
+   protected static void setSessionMemoMaxAge(long maxAge, TimeUnit timeUnit) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.setSessionMemoMaxAge(memoryStore, maxAge, timeUnit);
+      }
+      else {
+         SQLAccessControlContextFactory.setSessionMemoMaxAge(dataSource, maxAge, timeUnit);
+      }
+   }
+
+   protected static void enableInheritedPermissionCache(int maxEntries) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enableInheritedPermissionCache(memoryStore, maxEntries);
+      }
+      else {
+         SQLAccessControlContextFactory.enableInheritedPermissionCache(dataSource, maxEntries, 1, TimeUnit.HOURS);
+      }
+   }
+
+   protected static void disableInheritedPermissionCache() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disableInheritedPermissionCache(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disableInheritedPermissionCache(dataSource);
+      }
+   }
+
+   protected static void enableGrantSummary() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enableGrantSummary(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.enableGrantSummary(dataSource, 1, TimeUnit.HOURS);
+      }
+   }
+
+   protected static void disableGrantSummary() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disableGrantSummary(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disableGrantSummary(dataSource);
+      }
+   }
+
+   protected static long getDeduplicatedLoadCount() {
+      if (memoryStore != null) {
+         return MemoryAccessControlContextFactory.getDeduplicatedLoadCount(memoryStore);
+      }
+      return SQLAccessControlContextFactory.getDeduplicatedLoadCount(dataSource);
+   }
+
+   protected static void enableCheckCoalescing(int maxBatchSize, long maxWait, TimeUnit timeUnit) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enableCheckCoalescing(memoryStore, maxBatchSize, maxWait, timeUnit);
+      }
+      else {
+         SQLAccessControlContextFactory.enableCheckCoalescing(dataSource, maxBatchSize, maxWait, timeUnit);
+      }
+   }
+
+   protected static void disableCheckCoalescing() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disableCheckCoalescing(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disableCheckCoalescing(dataSource);
+      }
+   }
+
+   protected static void enableTokenAuthentication(byte[] secretKey, long maxAge, TimeUnit timeUnit) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enableTokenAuthentication(memoryStore, secretKey, maxAge, timeUnit);
+      }
+      else {
+         SQLAccessControlContextFactory.enableTokenAuthentication(dataSource, secretKey, maxAge, timeUnit);
+      }
+   }
+
+   protected static void disableTokenAuthentication() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disableTokenAuthentication(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disableTokenAuthentication(dataSource);
+      }
+   }
+
+   protected static TokenCredentials getTokenCredentials(AccessControlContext accessControlContext) {
+      if (memoryStore != null) {
+         return MemoryAccessControlContextFactory.getTokenCredentials(accessControlContext);
+      }
+      return SQLAccessControlContextFactory.getTokenCredentials(accessControlContext);
+   }
+
+   protected static void enablePasswordHashingLimit(int maxConcurrentHashes, int maxQueuedHashes) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enablePasswordHashingLimit(memoryStore, maxConcurrentHashes, maxQueuedHashes);
+      }
+      else {
+         SQLAccessControlContextFactory.enablePasswordHashingLimit(dataSource, maxConcurrentHashes, maxQueuedHashes);
+      }
+   }
+
+   protected static void disablePasswordHashingLimit() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disablePasswordHashingLimit(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disablePasswordHashingLimit(dataSource);
+      }
+   }
+
+   protected static void enablePBKDF2PasswordEncryptor(int iterations) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.enablePBKDF2PasswordEncryptor(memoryStore, iterations);
+      }
+      else {
+         SQLAccessControlContextFactory.enablePBKDF2PasswordEncryptor(dataSource, iterations);
+      }
+   }
+
+   protected static void disablePBKDF2PasswordEncryptor() {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.disablePBKDF2PasswordEncryptor(memoryStore);
+      }
+      else {
+         SQLAccessControlContextFactory.disablePBKDF2PasswordEncryptor(dataSource);
+      }
+   }
+
+   protected static void setAsyncConcurrencyLimit(int maxConcurrentOperations) {
+      if (memoryStore != null) {
+         MemoryAccessControlContextFactory.setAsyncConcurrencyLimit(memoryStore, maxConcurrentOperations);
+      }
+      else {
+         SQLAccessControlContextFactory.setAsyncConcurrencyLimit(dataSource, maxConcurrentOperations);
+      }
+   }
+
+   protected static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext) {
+      if (memoryStore != null) {
+         return MemoryAccessControlContextFactory.getAsyncAccessControlContext(accessControlContext);
+      }
+      return SQLAccessControlContextFactory.getAsyncAccessControlContext(accessControlContext);
+   }
+
+   protected static AsyncAccessControlContext getAsyncAccessControlContext(AccessControlContext accessControlContext,
+                                                                           Executor executor) {
+      if (memoryStore != null) {
+         return MemoryAccessControlContextFactory.getAsyncAccessControlContext(accessControlContext, executor);
+      }
+      return SQLAccessControlContextFactory.getAsyncAccessControlContext(accessControlContext, executor);
+   }
+
    protected static <T> Set<T> setOf(T... elements) {
       final HashSet<T> resultSet = new HashSet<>(Arrays.asList(elements));
 
@@ -32,15 +32,21 @@ public class TestAccessControlSuite  {
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_assertPostCreateResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_assertResourceCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_assertResourcePermissions.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_asyncAccessControlContext.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_authenticate.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_changeLog.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_checkCoalescing.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_connectionContextFeatures.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_createAuthenticatableResource.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_createDomain.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_createResource.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_createResourceClass.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_createResourcePermission.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_customAuthenticationProvider.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_deduplicatedLoads.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_deleteDomain.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_deleteResource.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_deleteResources.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_getAccessorResourcesByResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_getAuthenticatedResource.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_getDomainCreatePermissions.class));
@@ -67,6 +73,8 @@ public class TestAccessControlSuite  {
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_grantGlobalResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_grantResourceCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_grantResourcePermissions.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_grantResourcePermissionsInBulk.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_grantSummary.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_hasDomainCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_hasDomainPermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_hasGlobalResourcePermissions.class));
@@ -75,19 +83,29 @@ public class TestAccessControlSuite  {
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_hasResourceCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_hasResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_impersonate.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_inheritedPermissionCache.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_iterateResources.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_parallelQueries.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_passwordHashingLimit.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_pbkdf2PasswordEncryptor.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_permissionChangeListener.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeDomainCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeDomainPermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeResourceCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeResourcePermissions.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeResourcePermissionsInBulk.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_revokeGlobalResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_serialize.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_sessionMemo.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setCredentials.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_setCredentialsInBulk.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setDomainCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setDomainPermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setExternalId.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setGlobalResourcePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setResourceCreatePermissions.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_setResourcePermissions.class));
+      suite.addTest(new JUnit4TestAdapter(TestAccessControl_tokenAuthentication.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_unauthenticate.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_unauthenticatedApiCalls.class));
       suite.addTest(new JUnit4TestAdapter(TestAccessControl_unimpersonate.class));
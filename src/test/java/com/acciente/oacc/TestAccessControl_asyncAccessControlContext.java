@@ -0,0 +1,111 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_asyncAccessControlContext extends TestAccessControlBase {
+   @Test
+   public void asyncAccessControlContext_checksAsSubmittingSessionWithinLimit() throws Exception {
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createDomain("asyncDomain");
+      final Resource user = accessControlContext.createResource("document", "asyncDomain");
+      final Resource document = accessControlContext.createResource("document", "asyncDomain");
+      accessControlContext.grantResourcePermissions(user, document, view);
+
+      // an executor that only runs the operations it was handed when told to
+      final Queue<Runnable> handedOperations = new ArrayDeque<>();
+      final Executor executor = new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            handedOperations.add(command);
+         }
+      };
+      setAsyncConcurrencyLimit(1);
+      try {
+         final AsyncAccessControlContext asyncAccessControlContext
+               = getAsyncAccessControlContext(accessControlContext, executor);
+         assertThat(asyncAccessControlContext.getAccessControlContext(), is(accessControlContext));
+
+         // the operations are performed as the session that submitted them, even after that session ends
+         final AccessControlFuture<Boolean> hasPermissionsFuture
+               = asyncAccessControlContext.hasResourcePermissions(user, document, view);
+         final AccessControlFuture<Set<ResourcePermission>> getPermissionsFuture
+               = asyncAccessControlContext.getResourcePermissions(user, document);
+         accessControlContext.unauthenticate();
+         final AccessControlFuture<Void> assertPermissionsFuture
+               = asyncAccessControlContext.assertResourcePermissions(user, document, view);
+
+         final BlockingQueue<String> completions = new LinkedBlockingQueue<>();
+         hasPermissionsFuture.addListener(new Runnable() {
+            @Override
+            public void run() {
+               completions.add("completed");
+            }
+         });
+
+         // only one operation of the store may run at a time, so the others wait for it
+         assertThat(handedOperations.size(), is(1));
+         handedOperations.remove().run();
+         assertThat(hasPermissionsFuture.get(), is(true));
+         assertThat(completions.poll(), is("completed"));
+         assertThat(handedOperations.size(), is(1));
+         handedOperations.remove().run();
+         assertThat(getPermissionsFuture.get(), is(Collections.singleton(view)));
+         handedOperations.remove().run();
+         assertThat(handedOperations.isEmpty(), is(true));
+         try {
+            assertPermissionsFuture.get();
+            fail("asserting permissions as an unauthenticated session should have failed");
+         }
+         catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof NotAuthenticatedException, is(true));
+         }
+
+         // listeners registered after completion are called right away
+         hasPermissionsFuture.addListener(new Runnable() {
+            @Override
+            public void run() {
+               completions.add("completed");
+            }
+         });
+         assertThat(completions.poll(), is("completed"));
+      }
+      finally {
+         // the limit is kept by the store beyond this test, so restore the default
+         setAsyncConcurrencyLimit(8);
+      }
+   }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import com.acciente.oacc.helper.TestConfigLoader;
+import com.acciente.oacc.sql.SQLAccessControlContextFactory;
+import com.acciente.oacc.sql.internal.ChangeLogListener;
+import com.acciente.oacc.sql.internal.ChangeLogPoller;
+import com.acciente.oacc.sql.internal.persister.ChangeLogEntry;
+import com.acciente.oacc.sql.internal.persister.SQLPersisterProvider;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_changeLog extends TestAccessControlBase {
+   @BeforeClass
+   public static void setUpClass() {
+      // the change log of a memory store is always written, and cannot be pruned from a context
+      Assume.assumeTrue(!TestConfigLoader.isMemoryStore());
+   }
+
+   @Before
+   public void enableChangeLog() {
+      SQLAccessControlContextFactory.enableChangeLog(TestConfigLoader.getDataSource());
+   }
+
+   @After
+   public void disableChangeLog() {
+      SQLAccessControlContextFactory.disableChangeLog(TestConfigLoader.getDataSource());
+   }
+
+   @Test
+   public void changeLog_changeByOtherContext_isSeenByPoller() {
+      final ChangeLogPoller changeLogPoller = newChangeLogPoller();
+
+      // make changes through a context other than the one the poller is tied to
+      final AccessControlContext otherAccessControlContext = newSQLAccessControlContext();
+      otherAccessControlContext.authenticate(getSystemResource(),
+                                             PasswordCredentials.newInstance(TestConfigLoader.getOaccRootPassword()));
+      final String domainName = generateUniqueDomainName();
+      otherAccessControlContext.createDomain(domainName);
+      final String resourceClassName = generateResourceClass(false, false);
+      final Resource accessorResource = otherAccessControlContext.createResource(resourceClassName, domainName);
+      final Resource accessedResource = otherAccessControlContext.createResource(resourceClassName, domainName);
+      otherAccessControlContext.setResourcePermissions(accessorResource,
+                                                       accessedResource,
+                                                       setOf(ResourcePermissions
+                                                                   .getInstance(ResourcePermissions.INHERIT)));
+
+      // verify
+      final RecordingChangeLogListener changeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(changeLogListener), is(true));
+      assertThat(changeLogListener.entriesLost, is(false));
+      assertThat(changeLogListener.getKinds(), hasItems(ChangeLogEntry.Kind.RESOURCE_CLASS,
+                                                        ChangeLogEntry.Kind.DOMAIN,
+                                                        ChangeLogEntry.Kind.RESOURCE,
+                                                        ChangeLogEntry.Kind.RESOURCE_PERMISSION));
+
+      // a second poll has nothing left to read
+      final RecordingChangeLogListener secondChangeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(secondChangeLogListener), is(false));
+      assertThat(secondChangeLogListener.changeLogEntries.isEmpty(), is(true));
+   }
+
+   @Test
+   public void changeLog_disabled_isNotWritten() {
+      SQLAccessControlContextFactory.disableChangeLog(TestConfigLoader.getDataSource());
+      final ChangeLogPoller changeLogPoller = newChangeLogPoller();
+
+      authenticateSystemResource();
+      accessControlContext.createDomain(generateUniqueDomainName());
+
+      // verify
+      final RecordingChangeLogListener changeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(changeLogListener), is(false));
+      assertThat(changeLogListener.changeLogEntries.isEmpty(), is(true));
+   }
+
+   @Test
+   public void pruneChangeLog_laggingPoller_losesEntries() {
+      final ChangeLogPoller changeLogPoller = newChangeLogPoller();
+
+      authenticateSystemResource();
+      accessControlContext.createDomain(generateUniqueDomainName());
+      accessControlContext.createDomain(generateUniqueDomainName());
+      accessControlContext.createDomain(generateUniqueDomainName());
+      SQLAccessControlContextFactory.pruneChangeLog(TestConfigLoader.getDataSource(),
+                                                    TestConfigLoader.getDatabaseSchema(),
+                                                    TestConfigLoader.getSQLProfile(),
+                                                    1);
+
+      // verify
+      final RecordingChangeLogListener changeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(changeLogListener), is(true));
+      assertThat(changeLogListener.entriesLost, is(true));
+
+      // the poller has skipped to the end of the log, and only sees what is appended from now on
+      accessControlContext.createDomain(generateUniqueDomainName());
+      final RecordingChangeLogListener secondChangeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(secondChangeLogListener), is(true));
+      assertThat(secondChangeLogListener.entriesLost, is(false));
+      assertThat(secondChangeLogListener.getKinds(), hasItems(ChangeLogEntry.Kind.DOMAIN));
+   }
+
+   @Test
+   public void pruneChangeLog_currentPoller_losesNothing() {
+      authenticateSystemResource();
+      accessControlContext.createDomain(generateUniqueDomainName());
+      accessControlContext.createDomain(generateUniqueDomainName());
+      final ChangeLogPoller changeLogPoller = newChangeLogPoller();
+
+      SQLAccessControlContextFactory.pruneChangeLog(TestConfigLoader.getDataSource(),
+                                                    TestConfigLoader.getDatabaseSchema(),
+                                                    TestConfigLoader.getSQLProfile(),
+                                                    0);
+      accessControlContext.createDomain(generateUniqueDomainName());
+
+      // verify
+      final RecordingChangeLogListener changeLogListener = new RecordingChangeLogListener();
+      assertThat(changeLogPoller.poll(changeLogListener), is(true));
+      assertThat(changeLogListener.entriesLost, is(false));
+      assertThat(changeLogListener.getKinds(), hasItems(ChangeLogEntry.Kind.DOMAIN));
+   }
+
+   @Test
+   public void pruneChangeLog_negativeRetainedEntries_shouldFail() {
+      try {
+         SQLAccessControlContextFactory.pruneChangeLog(TestConfigLoader.getDataSource(),
+                                                       TestConfigLoader.getDatabaseSchema(),
+                                                       TestConfigLoader.getSQLProfile(),
+                                                       -1);
+         fail("pruning the change log to a negative number of entries should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("must not be negative"));
+      }
+   }
+
+   private static ChangeLogPoller newChangeLogPoller() {
+      return new ChangeLogPoller(SQLPersisterProvider.getInstance(TestConfigLoader.getDatabaseSchema(),
+                                                                  TestConfigLoader.getSQLProfile()),
+                                 TestConfigLoader.getDataSource());
+   }
+
+   private static AccessControlContext newSQLAccessControlContext() {
+      return SQLAccessControlContextFactory.getAccessControlContext(TestConfigLoader.getDataSource(),
+                                                                    TestConfigLoader.getDatabaseSchema(),
+                                                                    TestConfigLoader.getSQLProfile());
+   }
+
+   private static class RecordingChangeLogListener implements ChangeLogListener {
+      private final List<ChangeLogEntry> changeLogEntries = new ArrayList<>();
+      private       boolean              entriesLost;
+
+      @Override
+      public void changeLogEntriesAppended(List<ChangeLogEntry> changeLogEntries) {
+         this.changeLogEntries.addAll(changeLogEntries);
+      }
+
+      @Override
+      public void changeLogEntriesLost() {
+         entriesLost = true;
+      }
+
+      private Set<ChangeLogEntry.Kind> getKinds() {
+         final Set<ChangeLogEntry.Kind> kinds = EnumSet.noneOf(ChangeLogEntry.Kind.class);
+         for (ChangeLogEntry changeLogEntry : changeLogEntries) {
+            kinds.add(changeLogEntry.getKind());
+         }
+         return kinds;
+      }
+   }
+}
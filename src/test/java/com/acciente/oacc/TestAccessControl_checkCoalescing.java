@@ -0,0 +1,107 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_checkCoalescing extends TestAccessControlBase {
+   @Test
+   public void checkCoalescing_evaluatesConcurrentChecksInOneBatch() throws Exception {
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createDomain("batchDomain");
+      accessControlContext.createDomain("batchSuperUserDomain");
+      final Resource group = accessControlContext.createResource("group", "batchDomain");
+      final Resource user = accessControlContext.createResource("group", "batchDomain");
+      final Resource grantedDocument = accessControlContext.createResource("document", "batchDomain");
+      final Resource inheritedDocument = accessControlContext.createResource("document", "batchDomain", "inheritedDoc");
+      final Resource ungrantedDocument = accessControlContext.createResource("document", "batchDomain");
+      final Resource superUserDocument = accessControlContext.createResource("document", "batchSuperUserDomain");
+      accessControlContext.grantResourcePermissions(user, grantedDocument, view);
+      accessControlContext.grantResourcePermissions(user, group, ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      accessControlContext.grantResourcePermissions(group, inheritedDocument, view);
+      accessControlContext.grantDomainPermissions(user,
+                                                  "batchSuperUserDomain",
+                                                  DomainPermissions.getInstance(DomainPermissions.SUPER_USER));
+
+      // the batches only close once they are full, so each batch holds exactly the checks made concurrently
+      enableCheckCoalescing(5, 1, TimeUnit.MINUTES);
+      final ExecutorService executorService = Executors.newFixedThreadPool(5);
+      try {
+         final List<Future<Boolean>> checks = new ArrayList<>();
+         for (final Resource document : Arrays.asList(grantedDocument,
+                                                      Resources.getInstance("inheritedDoc"),
+                                                      ungrantedDocument,
+                                                      superUserDocument,
+                                                      Resources.getInstance(-999L))) {
+            checks.add(executorService.submit(new Callable<Boolean>() {
+               @Override
+               public Boolean call() {
+                  return newAuthenticatedAccessControlContext().hasResourcePermissions(user, document, view);
+               }
+            }));
+         }
+
+         assertThat(checks.get(0).get(), is(true));
+         assertThat(checks.get(1).get(), is(true));
+         assertThat(checks.get(2).get(), is(false));
+         assertThat(checks.get(3).get(), is(true));
+         try {
+            checks.get(4).get();
+            fail("checking permissions on a non-existent resource should have failed");
+         }
+         catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage().toLowerCase(), containsString("not found"));
+         }
+      }
+      finally {
+         executorService.shutdown();
+         disableCheckCoalescing();
+      }
+
+      // a lone check does not wait for the window to elapse, since no other check could join its batch
+      enableCheckCoalescing(5, 1, TimeUnit.MINUTES);
+      try {
+         final long startNanos = System.nanoTime();
+         assertThat(accessControlContext.hasResourcePermissions(user, grantedDocument, view), is(true));
+         assertThat(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(30), is(true));
+      }
+      finally {
+         disableCheckCoalescing();
+      }
+   }
+}
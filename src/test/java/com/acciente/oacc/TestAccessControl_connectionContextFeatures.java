@@ -0,0 +1,146 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import com.acciente.oacc.helper.TestConfigLoader;
+import com.acciente.oacc.sql.SQLAccessControlContextFactory;
+import com.acciente.oacc.sql.internal.PasswordHashingExecutor;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_connectionContextFeatures extends TestAccessControlBase {
+   private static final byte[] SECRET_KEY = "0123456789abcdef0123456789abcdef".getBytes();
+
+   private Connection connection;
+
+   @BeforeClass
+   public static void setUpClass() {
+      // contexts built on a connection only exist for SQL stores
+      Assume.assumeTrue(!TestConfigLoader.isMemoryStore());
+   }
+
+   @Before
+   public void openConnection() throws Exception {
+      connection = TestConfigLoader.getDataSource().getConnection();
+   }
+
+   @After
+   public void closeConnection() throws Exception {
+      SQLAccessControlContextFactory.disableTokenAuthentication(connection);
+      SQLAccessControlContextFactory.disablePasswordHashingLimit(connection);
+      SQLAccessControlContextFactory.disableTokenAuthentication(TestConfigLoader.getDataSource());
+      connection.close();
+   }
+
+   @Test
+   public void tokenAuthentication_enabledForConnection_issuesAndAcceptsTokens() {
+      final char[] password = generateUniquePassword();
+      final Resource resource = generateAuthenticatableResource(password);
+
+      SQLAccessControlContextFactory.enableTokenAuthentication(connection, SECRET_KEY, 1, TimeUnit.HOURS);
+      final AccessControlContext passwordContext = newConnectionAccessControlContext();
+      passwordContext.authenticate(resource, PasswordCredentials.newInstance(password));
+      final TokenCredentials tokenCredentials = SQLAccessControlContextFactory.getTokenCredentials(passwordContext);
+      assertThat(tokenCredentials, is(notNullValue()));
+
+      final AccessControlContext tokenContext = newConnectionAccessControlContext();
+      tokenContext.authenticate(resource, tokenCredentials);
+      assertThat(tokenContext.getAuthenticatedResource(), is(resource));
+   }
+
+   @Test
+   public void tokenAuthentication_enabledForDataSource_isNotUsedByConnectionContext() {
+      final char[] password = generateUniquePassword();
+      final Resource resource = generateAuthenticatableResource(password);
+
+      SQLAccessControlContextFactory.enableTokenAuthentication(TestConfigLoader.getDataSource(),
+                                                               SECRET_KEY,
+                                                               1,
+                                                               TimeUnit.HOURS);
+      final AccessControlContext passwordContext = newConnectionAccessControlContext();
+      passwordContext.authenticate(resource, PasswordCredentials.newInstance(password));
+      assertThat(SQLAccessControlContextFactory.getTokenCredentials(passwordContext), is(nullValue()));
+   }
+
+   @Test
+   public void passwordHashingLimit_enabledForConnection_boundsConnectionContext() throws Exception {
+      final char[] password = generateUniquePassword();
+      final Resource resource = generateAuthenticatableResource(password);
+
+      SQLAccessControlContextFactory.enablePasswordHashingLimit(connection, 1, 0);
+      final ExecutorService executorService = Executors.newSingleThreadExecutor();
+      try {
+         // occupy the only hashing thread
+         final CountDownLatch hashStarted = new CountDownLatch(1);
+         final CountDownLatch hashReleased = new CountDownLatch(1);
+         final Future<Boolean> blockingHash = executorService.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+               return PasswordHashingExecutor.getInstance(connection).execute(new Callable<Boolean>() {
+                  @Override
+                  public Boolean call() throws InterruptedException {
+                     hashStarted.countDown();
+                     return hashReleased.await(1, TimeUnit.MINUTES);
+                  }
+               });
+            }
+         });
+         assertThat(hashStarted.await(1, TimeUnit.MINUTES), is(true));
+
+         try {
+            newConnectionAccessControlContext().authenticate(resource, PasswordCredentials.newInstance(password));
+            fail("authenticating while password hashing is overloaded should have failed");
+         }
+         catch (RejectedExecutionException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("password hashing overloaded"));
+         }
+         finally {
+            hashReleased.countDown();
+         }
+         assertThat(blockingHash.get(), is(true));
+      }
+      finally {
+         executorService.shutdown();
+      }
+   }
+
+   private AccessControlContext newConnectionAccessControlContext() {
+      return SQLAccessControlContextFactory.getAccessControlContext(connection,
+                                                                    TestConfigLoader.getDatabaseSchema(),
+                                                                    TestConfigLoader.getSQLProfile());
+   }
+}
@@ -23,7 +23,9 @@ import com.acciente.oacc.sql.SQLDialect;
 import com.acciente.oacc.sql.SQLProfile;
 import com.acciente.oacc.sql.internal.SQLPasswordAuthenticationProvider;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
 
 import javax.sql.DataSource;
@@ -48,6 +50,12 @@ public class TestAccessControl_customAuthenticationProvider extends TestAccessCo
    private static String               strictResourceClass;
    private static int                  strictMinPasswordLength = 16;
 
+   @BeforeClass
+   public static void setUpClass() {
+      // the custom authentication provider stores its credentials in the database
+      Assume.assumeTrue(!TestConfigLoader.isMemoryStore());
+   }
+
    @Before
    public void setUpTest() throws Exception {
       guestResource = generateAuthenticatableResource(GUEST_PASSWORD, generateDomain());
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_deduplicatedLoads extends TestAccessControlBase {
+   @Test
+   public void deduplicatedLoads_shareConcurrentMissesOfTheSameEntry() throws Exception {
+      final ResourcePermission inherit = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createDomain("flightDomain");
+      final Resource group = accessControlContext.createResource("group", "flightDomain");
+      final Resource document = accessControlContext.createResource("document", "flightDomain");
+      final List<Resource> users = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+         final Resource user = accessControlContext.createResource("group", "flightDomain");
+         accessControlContext.grantResourcePermissions(user, group, inherit);
+         users.add(user);
+      }
+
+      enableInheritedPermissionCache(100);
+      enableGrantSummary();
+      final ExecutorService executorService = Executors.newFixedThreadPool(users.size());
+      try {
+         // a check that does not overlap with any other never waits for another's load
+         assertThat(accessControlContext.hasResourcePermissions(users.get(0), document, view), is(false));
+         assertThat(getDeduplicatedLoadCount(), is(0L));
+
+         // every member of the group misses the evicted entry of the group at once, and sees the new grant
+         accessControlContext.grantResourcePermissions(group, document, view);
+         final List<Future<Boolean>> checks = new ArrayList<>();
+         for (final Resource user : users) {
+            checks.add(executorService.submit(new Callable<Boolean>() {
+               @Override
+               public Boolean call() {
+                  return newAuthenticatedAccessControlContext().hasResourcePermissions(user, document, view);
+               }
+            }));
+         }
+         for (Future<Boolean> check : checks) {
+            assertThat(check.get(), is(true));
+         }
+      }
+      finally {
+         executorService.shutdown();
+         disableInheritedPermissionCache();
+         disableGrantSummary();
+      }
+      assertThat(getDeduplicatedLoadCount(), is(0L));
+   }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static junit.framework.TestCase.fail;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_deleteResources extends TestAccessControlBase {
+   @Test
+   public void deleteResources_validAsSystemResource() {
+      authenticateSystemResource();
+
+      final String domainName = generateDomain();
+      final String resourceClassName = generateResourceClass(false, false);
+
+      // create resources, one of them with an external id
+      final Resource resource1 = accessControlContext.createResource(resourceClassName, domainName);
+      final Resource resource2 = accessControlContext.createResource(resourceClassName,
+                                                                     domainName,
+                                                                     generateUniqueExternalId());
+      final Resource resource3 = accessControlContext.createResource(resourceClassName, domainName);
+      final Resource accessorResource = generateUnauthenticatableResource();
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  resource3,
+                                                  setOf(ResourcePermissions.getInstance(ResourcePermissions.INHERIT)));
+
+      Set<Resource> resourcesByPermission
+            = accessControlContext.getResourcesByResourcePermissions(SYS_RESOURCE,
+                                                                     resourceClassName,
+                                                                     ResourcePermissions
+                                                                           .getInstance(ResourcePermissions.INHERIT));
+      assertThat(resourcesByPermission, is(setOf(resource1, resource2, resource3)));
+
+      // delete resources by resource id, by external id, and including a non-existent reference
+      assertThat(accessControlContext.deleteResources(setOf(Resources.getInstance(resource1.getId()),
+                                                            Resources.getInstance(resource2.getExternalId()),
+                                                            resource3,
+                                                            Resources.getInstance(-999L))),
+                 is(true));
+
+      // verify
+      Set<Resource> resourcesByPermission_postDelete
+            = accessControlContext.getResourcesByResourcePermissions(SYS_RESOURCE,
+                                                                     resourceClassName,
+                                                                     ResourcePermissions
+                                                                           .getInstance(ResourcePermissions.INHERIT));
+      assertThat(resourcesByPermission_postDelete.isEmpty(), is(true));
+      assertThat(accessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                        resourceClassName,
+                                                                        ResourcePermissions
+                                                                              .getInstance(ResourcePermissions.INHERIT))
+                       .isEmpty(),
+                 is(true));
+
+      for (Resource resource : setOf(resource1, resource2, resource3)) {
+         try {
+            accessControlContext.getDomainNameByResource(Resources.getInstance(resource.getId()));
+            fail("getting domain name for resource after deletion should have failed");
+         }
+         catch (IllegalArgumentException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("not found"));
+         }
+      }
+
+      // delete resources again and verify
+      assertThat(accessControlContext.deleteResources(setOf(resource1,
+                                                            Resources.getInstance(resource2.getId()),
+                                                            resource3)),
+                 is(false));
+   }
+
+   @Test
+   public void deleteResources_validAsAuthorized() {
+      final String domainName = generateDomain();
+      final String resourceClassName = generateResourceClass(false, false);
+
+      // set up an authenticatable resource with resource class create permission
+      final Resource authenticatedResource = generateResourceAndAuthenticate();
+      final String permissionName = generateResourceClassPermission(resourceClassName);
+      final ResourcePermission grantedResourcePermission = ResourcePermissions.getInstance(permissionName);
+      grantResourceCreatePermission(authenticatedResource, resourceClassName, domainName, permissionName, ResourcePermissions.DELETE);
+
+      // create resources
+      final Resource resource1 = accessControlContext.createResource(resourceClassName, domainName);
+      final Resource resource2 = accessControlContext.createResource(resourceClassName, domainName);
+      final Resource resource3 = accessControlContext.createResource(resourceClassName, domainName);
+
+      Set<Resource> resourcesByPermission = accessControlContext.getResourcesByResourcePermissions(authenticatedResource,
+                                                                                                   resourceClassName,
+                                                                                                   grantedResourcePermission);
+      assertThat(resourcesByPermission, is(setOf(resource1, resource2, resource3)));
+
+      // delete resources and verify
+      assertThat(accessControlContext.deleteResources(setOf(resource1, resource2)), is(true));
+
+      Set<Resource> resourcesByPermission_postDelete
+            = accessControlContext.getResourcesByResourcePermissions(authenticatedResource,
+                                                                     resourceClassName,
+                                                                     grantedResourcePermission);
+      assertThat(resourcesByPermission_postDelete, is(setOf(resource3)));
+   }
+
+   @Test
+   public void deleteResources_authenticatedResource_shouldSucceed() {
+      authenticateSystemResource();
+
+      final String domainName = generateDomain();
+      final String resourceClassName = generateResourceClass(true, false);
+
+      // set up an authenticatable resource that may delete itself and another resource
+      final char[] password = generateUniquePassword();
+      final Resource authenticatedResource
+            = accessControlContext.createResource(resourceClassName,
+                                                  domainName,
+                                                  PasswordCredentials.newInstance(password));
+      final Resource otherResource
+            = accessControlContext.createResource(resourceClassName,
+                                                  domainName,
+                                                  PasswordCredentials.newInstance(generateUniquePassword()));
+      accessControlContext.grantResourcePermissionsInBulk(setOf(authenticatedResource),
+                                                          setOf(authenticatedResource, otherResource),
+                                                          setOf(ResourcePermissions
+                                                                      .getInstance(ResourcePermissions.DELETE)));
+
+      // authenticate
+      accessControlContext.authenticate(authenticatedResource, PasswordCredentials.newInstance(password));
+      assertThat(accessControlContext.getAuthenticatedResource(), is(authenticatedResource));
+
+      // delete resources and verify
+      assertThat(accessControlContext.deleteResources(setOf(authenticatedResource, otherResource)), is(true));
+
+      try {
+         accessControlContext.getAuthenticatedResource();
+         fail("getting authenticated resource after its deletion should have failed");
+      }
+      catch (NotAuthenticatedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("session not authenticated"));
+      }
+
+      // verify as system resource
+      authenticateSystemResource();
+
+      for (Resource resource : setOf(authenticatedResource, otherResource)) {
+         try {
+            accessControlContext.getResourceClassInfoByResource(resource);
+            fail("getting resource class info for resource after deletion should have failed");
+         }
+         catch (IllegalArgumentException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("not found"));
+         }
+      }
+   }
+
+   @Test
+   public void deleteResources_validAsGloballyAuthorized() {
+      authenticateSystemResource();
+
+      final String domainName = generateDomain();
+      final String resourceClassName = generateResourceClass(true, false);
+
+      // create authenticatable resources
+      final char[] password = generateUniquePassword();
+      final Resource resource1
+            = accessControlContext.createResource(resourceClassName,
+                                                  domainName,
+                                                  PasswordCredentials.newInstance(password));
+      final Resource resource2
+            = accessControlContext.createResource(resourceClassName,
+                                                  domainName,
+                                                  PasswordCredentials.newInstance(generateUniquePassword()));
+
+      // set up an authenticatable resource with global *DELETE permission on the resources, and also
+      // with direct *DELETE permission on only one of them
+      final char[] accessorPassword = generateUniquePassword();
+      final Resource accessorResource = generateAuthenticatableResource(accessorPassword);
+      accessControlContext.setGlobalResourcePermissions(accessorResource,
+                                                        resourceClassName,
+                                                        domainName,
+                                                        setOf(ResourcePermissions
+                                                                    .getInstance(ResourcePermissions.DELETE)));
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  resource1,
+                                                  setOf(ResourcePermissions
+                                                              .getInstanceWithGrantOption(ResourcePermissions.DELETE)));
+
+      // authenticate, delete resources and verify
+      accessControlContext.authenticate(accessorResource, PasswordCredentials.newInstance(accessorPassword));
+      assertThat(accessControlContext.deleteResources(setOf(resource1, resource2)), is(true));
+
+      authenticateSystemResource();
+
+      for (Resource resource : setOf(resource1, resource2)) {
+         try {
+            accessControlContext.getResourceClassInfoByResource(resource);
+            fail("getting resource class info for resource after deletion should have failed");
+         }
+         catch (IllegalArgumentException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("not found"));
+         }
+      }
+
+      // verify the credentials of the deleted resources are gone, too
+      try {
+         accessControlContext.authenticate(resource1, PasswordCredentials.newInstance(password));
+         fail("authenticating as a resource after its deletion should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not found"));
+      }
+   }
+
+   @Test
+   public void deleteResources_nulls_shouldFail() {
+      authenticateSystemResource();
+
+      try {
+         accessControlContext.deleteResources(null);
+         fail("deleting resources with null set should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("set of resources required"));
+      }
+      try {
+         accessControlContext.deleteResources(setOf(generateUnauthenticatableResource(), null));
+         fail("deleting resources with null element should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("contains null element"));
+      }
+      try {
+         accessControlContext.deleteResources(Collections.<Resource>emptySet());
+         fail("deleting resources with empty set should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("empty set specified"));
+      }
+   }
+
+   @Test
+   public void deleteResources_nonExistentReferences_shouldSucceed() {
+      authenticateSystemResource();
+
+      assertThat(accessControlContext.deleteResources(setOf(Resources.getInstance(-999L),
+                                                            Resources.getInstance("invalid"))),
+                 is(false));
+   }
+
+   @Test
+   public void deleteResources_notAuthorizedOnAnyResource_shouldFail() {
+      final String domainName = generateDomain();
+      final String resourceClassName = generateResourceClass(false, false);
+
+      // set up an authenticatable resource that may only delete resources it creates
+      final Resource authenticatedResource = generateResourceAndAuthenticate();
+      grantResourceCreatePermission(authenticatedResource, resourceClassName, domainName, ResourcePermissions.DELETE);
+
+      final Resource deletableResource = accessControlContext.createResource(resourceClassName, domainName);
+      final Resource obsoleteResource = generateUnauthenticatableResource();
+
+      // attempt to delete both resources without authorization on one of them
+      try {
+         accessControlContext.deleteResources(setOf(deletableResource, obsoleteResource));
+         fail("deleting resources without authorization on any one of them should fail");
+      }
+      catch (NotAuthorizedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString(String.valueOf(authenticatedResource).toLowerCase()
+                                                                       + " is not authorized to delete resource"));
+      }
+
+      // verify nothing was deleted
+      assertThat(accessControlContext.getResourcesByResourcePermissions(authenticatedResource,
+                                                                        resourceClassName,
+                                                                        ResourcePermissions
+                                                                              .getInstance(ResourcePermissions.DELETE)),
+                 is(setOf(deletableResource)));
+   }
+}
@@ -1403,6 +1403,67 @@ public class TestAccessControl_grantResourcePermissions extends TestAccessContro
       }
    }
 
+   @Test
+   public void grantResourcePermissions_inheritanceCycle_acrossMultipleResources_shouldFail() {
+      authenticateSystemResource();
+
+      final Resource resourceA = generateUnauthenticatableResource();
+      final Resource resourceB = generateUnauthenticatableResource();
+      final Resource resourceC = generateUnauthenticatableResource();
+      final Resource resourceD = generateUnauthenticatableResource();
+
+      // set up an inheritance chain of C --INHERIT-> B --INHERIT-> A, and an unrelated D --INHERIT-> A
+      accessControlContext.grantResourcePermissions(resourceB,
+                                                    resourceA,
+                                                    ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      accessControlContext.grantResourcePermissions(resourceC,
+                                                    resourceB,
+                                                    ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      accessControlContext.grantResourcePermissions(resourceD,
+                                                    resourceA,
+                                                    ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+
+      // granting A --INHERIT-> D does not close the C-B-A chain, but does close a cycle with D
+      try {
+         accessControlContext.grantResourcePermissions(resourceA,
+                                                       resourceD,
+                                                       ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+         fail("granting direct resource permissions that would create an inherit cycle should have failed");
+      }
+      catch (OaccException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("will cause a cycle"));
+      }
+
+      // attempt to close the cycle across the chain
+      try {
+         accessControlContext.grantResourcePermissions(resourceA,
+                                                       resourceC,
+                                                       ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+         fail("granting direct resource permissions that would create an inherit cycle should have failed");
+      }
+      catch (OaccException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("will cause a cycle"));
+      }
+      try {
+         accessControlContext.setResourcePermissions(resourceA,
+                                                     resourceC,
+                                                     setOf(ResourcePermissions
+                                                                 .getInstance(ResourcePermissions.INHERIT)));
+         fail("setting direct resource permissions that would create an inherit cycle should have failed");
+      }
+      catch (OaccException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("will cause a cycle"));
+      }
+
+      // inheriting in the same direction as the chain is fine
+      accessControlContext.grantResourcePermissions(resourceC,
+                                                    resourceA,
+                                                    ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      accessControlContext.assertResourcePermissions(resourceC,
+                                                     resourceA,
+                                                     ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+   }
+
    @Test
    public void grantResourcePermissions_duplicatePermissionNames_shouldFail() {
       authenticateSystemResource();
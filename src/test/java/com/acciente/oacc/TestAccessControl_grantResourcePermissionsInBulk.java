@@ -0,0 +1,226 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_grantResourcePermissionsInBulk extends TestAccessControlBase {
+   @Test
+   public void grantResourcePermissionsInBulk_validAsSystemResource() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final Resource accessorResource1 = generateUnauthenticatableResource();
+      final Resource accessorResource2 = generateUnauthenticatableResource();
+      final Resource accessedResource1 = accessControlContext.createResource(resourceClassName, generateDomain());
+      final Resource accessedResource2 = accessControlContext.createResource(resourceClassName, generateDomain());
+
+      Set<ResourcePermission> permissions_pre = new HashSet<>();
+      permissions_pre.add(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      permissions_pre.add(ResourcePermissions.getInstance(customPermissionName));
+
+      // grant permissions and verify
+      accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource1, accessorResource2),
+                                                          setOf(accessedResource1, accessedResource2),
+                                                          permissions_pre);
+
+      for (Resource accessorResource : setOf(accessorResource1, accessorResource2)) {
+         for (Resource accessedResource : setOf(accessedResource1, accessedResource2)) {
+            assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource),
+                       is(permissions_pre));
+         }
+      }
+   }
+
+   @Test
+   public void grantResourcePermissionsInBulk_withExtId() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final String accessorExternalId = generateUniqueExternalId();
+      final Resource accessorResource = generateUnauthenticatableResourceWithExtId(accessorExternalId);
+      final String accessedExternalId = generateUniqueExternalId();
+      final Resource accessedResource = accessControlContext.createResource(resourceClassName,
+                                                                            generateDomain(),
+                                                                            accessedExternalId);
+
+      final Set<ResourcePermission> permissions_pre = setOf(ResourcePermissions.getInstance(customPermissionName));
+
+      // grant permissions and verify
+      accessControlContext.grantResourcePermissionsInBulk(setOf(Resources.getInstance(accessorExternalId)),
+                                                          setOf(Resources.getInstance(accessedExternalId)),
+                                                          permissions_pre);
+
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource), is(permissions_pre));
+   }
+
+   @Test
+   public void grantResourcePermissionsInBulk_addAndUpgradePermissions() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final Resource accessorResource1 = generateUnauthenticatableResource();
+      final Resource accessorResource2 = generateUnauthenticatableResource();
+      final Resource accessedResource = accessControlContext.createResource(resourceClassName, generateDomain());
+
+      // grant a subset to one of the accessors first, so that the bulk grant has to both add and upgrade permissions
+      accessControlContext.grantResourcePermissions(accessorResource1,
+                                                    accessedResource,
+                                                    ResourcePermissions.getInstance(customPermissionName));
+
+      Set<ResourcePermission> permissions_pre = new HashSet<>();
+      permissions_pre.add(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      permissions_pre.add(ResourcePermissions.getInstanceWithGrantOption(customPermissionName));
+
+      accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource1, accessorResource2),
+                                                          setOf(accessedResource),
+                                                          permissions_pre);
+
+      assertThat(accessControlContext.getResourcePermissions(accessorResource1, accessedResource), is(permissions_pre));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource2, accessedResource), is(permissions_pre));
+   }
+
+   @Test
+   public void grantResourcePermissionsInBulk_unauthorizedOnAnyAccessedResource_shouldFail() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final Resource accessorResource1 = generateUnauthenticatableResource();
+      final Resource accessorResource2 = generateUnauthenticatableResource();
+      final Resource accessedResource1 = accessControlContext.createResource(resourceClassName, generateDomain());
+      final Resource accessedResource2 = accessControlContext.createResource(resourceClassName, generateDomain());
+
+      // set up an authenticatable resource with grant permission on only one of the accessed resources
+      final char[] password = generateUniquePassword();
+      final Resource grantorResource = generateAuthenticatableResource(password);
+      accessControlContext.grantResourcePermissions(grantorResource,
+                                                    accessedResource1,
+                                                    ResourcePermissions.getInstanceWithGrantOption(customPermissionName));
+
+      // authenticate grantor resource
+      accessControlContext.authenticate(grantorResource, PasswordCredentials.newInstance(password));
+
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource1, accessorResource2),
+                                                             setOf(accessedResource1, accessedResource2),
+                                                             setOf(ResourcePermissions.getInstance(customPermissionName)));
+         fail("granting permissions on an accessed resource without authorization should have failed");
+      }
+      catch (NotAuthorizedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString(String.valueOf(grantorResource).toLowerCase()
+                                                                       + " is not authorized"));
+      }
+
+      // verify that none of the permissions were granted
+      authenticateSystemResource();
+      for (Resource accessorResource : setOf(accessorResource1, accessorResource2)) {
+         assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource1).isEmpty(),
+                    is(true));
+         assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource2).isEmpty(),
+                    is(true));
+      }
+   }
+
+   @Test
+   public void grantResourcePermissionsInBulk_inheritanceCycle_shouldFail() {
+      authenticateSystemResource();
+      final Resource accessorResource1 = generateUnauthenticatableResource();
+      final Resource accessorResource2 = generateUnauthenticatableResource();
+      final Resource accessedResource = generateUnauthenticatableResource();
+
+      // accessed resource already inherits from one of the accessors, so granting inherit back would close a cycle
+      accessControlContext.grantResourcePermissions(accessedResource,
+                                                    accessorResource2,
+                                                    ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource1, accessorResource2),
+                                                             setOf(accessedResource),
+                                                             setOf(ResourcePermissions.getInstance(ResourcePermissions.INHERIT)));
+         fail("granting inherit permission that would constitute a cycle should have failed");
+      }
+      catch (OaccException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("cycle"));
+      }
+      assertThat(accessControlContext.getResourcePermissions(accessorResource1, accessedResource).isEmpty(), is(true));
+
+      // an accessor that is also an accessed resource would inherit from itself
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource1),
+                                                             setOf(accessorResource1, accessedResource),
+                                                             setOf(ResourcePermissions.getInstance(ResourcePermissions.INHERIT)));
+         fail("granting inherit permission to itself would constitute a cycle and should have failed");
+      }
+      catch (OaccException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("cycle"));
+      }
+   }
+
+   @Test
+   public void grantResourcePermissionsInBulk_nullsAndEmpty_shouldFail() {
+      authenticateSystemResource();
+      final Resource accessorResource = generateUnauthenticatableResource();
+      final Resource accessedResource = generateUnauthenticatableResource();
+      final Set<ResourcePermission> resourcePermissions
+            = setOf(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(null, setOf(accessedResource), resourcePermissions);
+         fail("granting permissions for null set of accessor resources should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("set of resources required"));
+      }
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource, null),
+                                                             setOf(accessedResource),
+                                                             resourcePermissions);
+         fail("granting permissions for set of accessor resources with null element should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("contains null element"));
+      }
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource),
+                                                             Collections.<Resource>emptySet(),
+                                                             resourcePermissions);
+         fail("granting permissions for empty set of accessed resources should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("empty set specified"));
+      }
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(setOf(accessorResource),
+                                                             setOf(accessedResource),
+                                                             Collections.<ResourcePermission>emptySet());
+         fail("granting empty set of permissions should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("empty set specified"));
+      }
+   }
+}
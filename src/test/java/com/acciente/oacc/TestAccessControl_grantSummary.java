@@ -0,0 +1,69 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_grantSummary extends TestAccessControlBase {
+   @Test
+   public void grantSummary_followsGrantsMadeThroughAnyContext() {
+      final ResourcePermission inherit = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+      final DomainPermission superUser = DomainPermissions.getInstance(DomainPermissions.SUPER_USER);
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createDomain("summaryDomain");
+      final Resource group = accessControlContext.createResource("group", "summaryDomain");
+      final Resource user = accessControlContext.createResource("group", "summaryDomain");
+      final Resource document = accessControlContext.createResource("document", "summaryDomain");
+
+      enableGrantSummary();
+      try {
+         final AccessControlContext summarizingAccessControlContext = newAuthenticatedAccessControlContext();
+
+         // nothing has been granted yet, which the summary now records
+         assertThat(summarizingAccessControlContext.hasResourcePermissions(user, document, view), is(false));
+         assertThat(summarizingAccessControlContext.hasDomainPermissions(user, "summaryDomain", superUser), is(false));
+
+         // the first global and non-system grants on the class are noticed
+         accessControlContext.setGlobalResourcePermissions(group, "document", "summaryDomain", Collections.singleton(view));
+         accessControlContext.grantResourcePermissions(user, group, inherit);
+         assertThat(summarizingAccessControlContext.hasResourcePermissions(user, document, view), is(true));
+         accessControlContext.revokeGlobalResourcePermissions(group, "document", "summaryDomain", view);
+         accessControlContext.grantResourcePermissions(user, document, view);
+         assertThat(summarizingAccessControlContext.hasResourcePermissions(user, document, view), is(true));
+
+         // and so are domain grants to a resource the accessor inherits from
+         accessControlContext.grantDomainPermissions(group, "summaryDomain", superUser);
+         assertThat(summarizingAccessControlContext.hasDomainPermissions(user, "summaryDomain", superUser), is(true));
+         accessControlContext.revokeResourcePermissions(user, group, inherit);
+         assertThat(summarizingAccessControlContext.hasDomainPermissions(user, "summaryDomain", superUser), is(false));
+      }
+      finally {
+         disableGrantSummary();
+      }
+   }
+}
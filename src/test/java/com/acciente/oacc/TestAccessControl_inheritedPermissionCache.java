@@ -0,0 +1,79 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_inheritedPermissionCache extends TestAccessControlBase {
+   @Test
+   public void inheritedPermissionCache_followsGrantsToInheritedResource() {
+      final ResourcePermission inherit = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+      final ResourcePermission edit = ResourcePermissions.getInstance("EDIT");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createResourcePermission("document", "EDIT");
+      accessControlContext.createDomain("parentDomain");
+      accessControlContext.createDomain("childDomain", "parentDomain");
+      final Resource outerGroup = accessControlContext.createResource("group", "parentDomain");
+      final Resource innerGroup = accessControlContext.createResource("group", "parentDomain");
+      final Resource user = accessControlContext.createResource("group", "parentDomain");
+      final Resource document = accessControlContext.createResource("document", "childDomain");
+      accessControlContext.setResourcePermissions(user, innerGroup, Collections.singleton(inherit));
+      accessControlContext.setResourcePermissions(innerGroup, outerGroup, Collections.singleton(inherit));
+      accessControlContext.setGlobalResourcePermissions(outerGroup,
+                                                        "document",
+                                                        "parentDomain",
+                                                        Collections.singleton(view));
+
+      enableInheritedPermissionCache(100);
+      try {
+         final AccessControlContext cachingAccessControlContext = newAuthenticatedAccessControlContext();
+
+         // global permissions on an ancestor domain are inherited through each level of groups
+         assertThat(cachingAccessControlContext.hasResourcePermissions(user, document, view), is(true));
+         assertThat(cachingAccessControlContext.hasGlobalResourcePermissions(user, "document", "childDomain", view),
+                    is(true));
+         assertThat(cachingAccessControlContext.hasResourcePermissions(user, document, edit), is(false));
+
+         // changes to the grants of a group, made through any context of the store, evict its entries
+         accessControlContext.grantResourcePermissions(innerGroup, document, edit);
+         assertThat(cachingAccessControlContext.hasResourcePermissions(user, document, edit), is(true));
+
+         accessControlContext.revokeGlobalResourcePermissions(outerGroup, "document", "parentDomain", view);
+         assertThat(cachingAccessControlContext.hasResourcePermissions(user, document, view), is(false));
+         assertThat(cachingAccessControlContext.hasGlobalResourcePermissions(user, "document", "childDomain", view),
+                    is(false));
+
+         // the inheritance set itself is never cached
+         accessControlContext.revokeResourcePermissions(user, innerGroup, inherit);
+         assertThat(cachingAccessControlContext.hasResourcePermissions(user, document, edit), is(false));
+      }
+      finally {
+         disableInheritedPermissionCache();
+      }
+   }
+}
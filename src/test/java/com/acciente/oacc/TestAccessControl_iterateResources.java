@@ -0,0 +1,105 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_iterateResources extends TestAccessControlBase {
+   @Test
+   public void iterateResourcesByResourcePermissions_readsLargeResultsInAscendingBatches() {
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+      final ResourcePermission edit = ResourcePermissions.getInstance("EDIT");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createResourcePermission("document", "EDIT");
+      accessControlContext.createDomain("streamDomain");
+      accessControlContext.createDomain("streamChildDomain", "streamDomain");
+      final Resource user = accessControlContext.createResource("group", "streamDomain");
+      accessControlContext.setGlobalResourcePermissions(user, "document", "streamDomain", Collections.singleton(view));
+
+      // more documents than fit into a single batch, every third of which may also be edited
+      final List<Resource> documents = new ArrayList<>();
+      final List<Resource> editableDocuments = new ArrayList<>();
+      for (int i = 0; i < 2500; i++) {
+         final Resource document = accessControlContext.createResource("document", "streamChildDomain");
+         documents.add(document);
+         if (i % 3 == 0) {
+            accessControlContext.grantResourcePermissions(user, document, edit);
+            editableDocuments.add(document);
+         }
+      }
+
+      assertThat(toList(accessControlContext.iterateResourcesByResourcePermissions(user, "document", view)),
+                 is(documents));
+      assertThat(toList(accessControlContext.iterateResourcesByResourcePermissions(user, "document", view, edit)),
+                 is(editableDocuments));
+      assertThat(toList(accessControlContext.iterateAccessorResourcesByResourcePermissions(documents.get(0),
+                                                                                           "document",
+                                                                                           edit)),
+                 is(Collections.singletonList(user)));
+      assertThat(toList(accessControlContext.iterateDomainDescendants("streamDomain")).size(), is(2));
+      assertThat(new HashSet<>(toList(accessControlContext.iterateDomainDescendants("streamDomain"))),
+                 is(accessControlContext.getDomainDescendants("streamDomain")));
+
+      // the query is validated when the iterator is created, not when it is advanced
+      try {
+         accessControlContext.iterateResourcesByResourcePermissions(user,
+                                                                    "document",
+                                                                    ResourcePermissions.getInstance("INVALID"));
+         fail("iterating resources by an undefined permission should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not defined for resource class"));
+      }
+
+      final Resource otherUser = accessControlContext.createResource("group", "streamDomain");
+      final Iterator<Resource> emptyIterator
+            = accessControlContext.iterateResourcesByResourcePermissions(otherUser, "document", edit);
+      assertThat(emptyIterator.hasNext(), is(false));
+      try {
+         emptyIterator.next();
+         fail("advancing an exhausted iterator should have failed");
+      }
+      catch (NoSuchElementException e) {
+         // expected
+      }
+   }
+
+   private static <T> List<T> toList(Iterator<T> iterator) {
+      final List<T> elements = new ArrayList<>();
+      while (iterator.hasNext()) {
+         elements.add(iterator.next());
+      }
+      return elements;
+   }
+}
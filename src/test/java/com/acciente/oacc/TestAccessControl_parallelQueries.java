@@ -0,0 +1,149 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import com.acciente.oacc.helper.TestConfigLoader;
+import com.acciente.oacc.sql.SQLAccessControlContextFactory;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_parallelQueries extends TestAccessControlBase {
+   @BeforeClass
+   public static void setUpClass() {
+      // the queries of a memory store are not run on connections of their own, so they are never forked
+      Assume.assumeTrue(!TestConfigLoader.isMemoryStore());
+   }
+
+   @Test
+   public void parallelQueries_answerChecksAsSequentialQueries() {
+      final ResourcePermission inherit = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+      final ResourcePermission edit = ResourcePermissions.getInstance("EDIT");
+      final ResourceCreatePermission createView = ResourceCreatePermissions.getInstance(view);
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("group", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createResourcePermission("document", "EDIT");
+      accessControlContext.createDomain("parallelDomain");
+      accessControlContext.createDomain("parallelChildDomain", "parallelDomain");
+      final Resource group = accessControlContext.createResource("group", "parallelDomain");
+      final Resource user = accessControlContext.createResource("group", "parallelDomain");
+      final Resource document = accessControlContext.createResource("document", "parallelChildDomain");
+      accessControlContext.grantResourcePermissions(user, group, inherit);
+      accessControlContext.grantResourcePermissions(user, document, edit);
+      accessControlContext.setGlobalResourcePermissions(group,
+                                                        "document",
+                                                        "parallelDomain",
+                                                        Collections.singleton(view));
+      accessControlContext.setResourceCreatePermissions(group,
+                                                        "document",
+                                                        "parallelDomain",
+                                                        setOf(ResourceCreatePermissions
+                                                                    .getInstance(ResourceCreatePermissions.CREATE),
+                                                              createView));
+
+      // an executor that counts the queries it was handed
+      final AtomicInteger forkedQueryCount = new AtomicInteger();
+      final ExecutorService executorService = Executors.newFixedThreadPool(3);
+      final Executor executor = new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            forkedQueryCount.incrementAndGet();
+            executorService.execute(command);
+         }
+      };
+      SQLAccessControlContextFactory.enableParallelQueries(TestConfigLoader.getDataSource(), 3, executor);
+      try {
+         final AccessControlContext parallelAccessControlContext = newAuthenticatedAccessControlContext();
+
+         // direct, inherited and global grants are all found when the queries for them run concurrently
+         assertThat(parallelAccessControlContext.hasResourcePermissions(user, document, view, edit), is(true));
+         assertThat(parallelAccessControlContext.getEffectiveResourcePermissions(user, document),
+                    is(setOf(view, edit)));
+         assertThat(parallelAccessControlContext.getEffectiveGlobalResourcePermissions(user,
+                                                                                       "document",
+                                                                                       "parallelChildDomain"),
+                    is(Collections.singleton(view)));
+         assertThat(parallelAccessControlContext.getEffectiveResourceCreatePermissions(user,
+                                                                                       "document",
+                                                                                       "parallelChildDomain"),
+                    is(setOf(ResourceCreatePermissions.getInstance(ResourceCreatePermissions.CREATE),
+                             createView)));
+         assertThat(forkedQueryCount.get() > 0, is(true));
+
+         // a change is seen by the next check, since the forked queries read the committed grants
+         accessControlContext.revokeGlobalResourcePermissions(group, "document", "parallelDomain", view);
+         assertThat(parallelAccessControlContext.hasResourcePermissions(user, document, view), is(false));
+         assertThat(parallelAccessControlContext.getEffectiveResourcePermissions(user, document),
+                    is(Collections.singleton(edit)));
+      }
+      finally {
+         SQLAccessControlContextFactory.disableParallelQueries(TestConfigLoader.getDataSource());
+         executorService.shutdown();
+      }
+   }
+
+   @Test
+   public void parallelQueries_rejectedByExecutor_shouldRunOnConnectionOfCheck() {
+      final ResourcePermission view = ResourcePermissions.getInstance("VIEW");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "VIEW");
+      accessControlContext.createDomain("parallelDomain");
+      final Resource user = accessControlContext.createResource("document", "parallelDomain");
+      final Resource document = accessControlContext.createResource("document", "parallelDomain");
+      final Resource otherDocument = accessControlContext.createResource("document", "parallelDomain");
+      accessControlContext.grantResourcePermissions(user, document, view);
+
+      // an executor that is saturated
+      final AtomicInteger rejectedQueryCount = new AtomicInteger();
+      final Executor executor = new Executor() {
+         @Override
+         public void execute(Runnable command) {
+            rejectedQueryCount.incrementAndGet();
+            throw new RejectedExecutionException("saturated");
+         }
+      };
+      SQLAccessControlContextFactory.enableParallelQueries(TestConfigLoader.getDataSource(), 3, executor);
+      try {
+         final AccessControlContext parallelAccessControlContext = newAuthenticatedAccessControlContext();
+         assertThat(parallelAccessControlContext.hasResourcePermissions(user, document, view), is(true));
+         assertThat(parallelAccessControlContext.hasResourcePermissions(user, otherDocument, view), is(false));
+         assertThat(parallelAccessControlContext.getEffectiveResourcePermissions(user, document),
+                    is(Collections.singleton(view)));
+         assertThat(rejectedQueryCount.get() > 0, is(true));
+      }
+      finally {
+         SQLAccessControlContextFactory.disableParallelQueries(TestConfigLoader.getDataSource());
+      }
+   }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import com.acciente.oacc.sql.internal.PasswordHashingExecutor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_passwordHashingLimit extends TestAccessControlBase {
+   @Test
+   public void passwordHashingLimit_rejectsHashesBeyondQueueAndAuthenticatesAsynchronously() throws Exception {
+      final char[] password = "userSecret".toCharArray();
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("hashingDomain");
+      final Resource user
+            = accessControlContext.createResource("user", "hashingDomain", PasswordCredentials.newInstance(password));
+
+      enablePasswordHashingLimit(1, 0);
+      final ExecutorService executorService = Executors.newSingleThreadExecutor();
+      try {
+         // occupy the only hashing thread
+         final CountDownLatch hashStarted = new CountDownLatch(1);
+         final CountDownLatch hashReleased = new CountDownLatch(1);
+         final Future<Boolean> blockingHash = executorService.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+               return PasswordHashingExecutor.getInstance(getStoreKey()).execute(new Callable<Boolean>() {
+                  @Override
+                  public Boolean call() throws InterruptedException {
+                     hashStarted.countDown();
+                     return hashReleased.await(1, TimeUnit.MINUTES);
+                  }
+               });
+            }
+         });
+         assertThat(hashStarted.await(1, TimeUnit.MINUTES), is(true));
+
+         // with no room to queue, a login fails fast instead of waiting
+         final AccessControlContext userContext = newAccessControlContext();
+         try {
+            userContext.authenticate(user, PasswordCredentials.newInstance(password));
+            fail("authenticating while password hashing is overloaded should have failed");
+         }
+         catch (RejectedExecutionException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("password hashing overloaded"));
+         }
+         hashReleased.countDown();
+         assertThat(blockingHash.get(), is(true));
+
+         // an asynchronous login authenticates the owning context once it completes
+         enablePasswordHashingLimit(1, 10);
+         final AsyncAccessControlContext asyncAccessControlContext = getAsyncAccessControlContext(userContext);
+         asyncAccessControlContext.authenticate(user, PasswordCredentials.newInstance(password)).get();
+         assertThat(userContext.getAuthenticatedResource(), is(user));
+         try {
+            asyncAccessControlContext.authenticate(user, PasswordCredentials.newInstance("wrong".toCharArray())).get();
+            fail("authenticating with an incorrect password should have failed");
+         }
+         catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof IncorrectCredentialsException, is(true));
+         }
+      }
+      finally {
+         executorService.shutdown();
+         disablePasswordHashingLimit();
+      }
+   }
+
+   @Test
+   public void passwordHashingLimit_appliesToBulkCredentials() throws Exception {
+      final char[] password = "userSecret".toCharArray();
+      final char[] newPassword = "newSecret".toCharArray();
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("hashingDomain");
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      for (int i = 0; i < 5; i++) {
+         newCredentialsByResource.put(accessControlContext.createResource("user",
+                                                                          "hashingDomain",
+                                                                          PasswordCredentials.newInstance(password)),
+                                      PasswordCredentials.newInstance(newPassword));
+      }
+
+      enablePasswordHashingLimit(2, 0);
+      final ExecutorService executorService = Executors.newFixedThreadPool(2);
+      try {
+         // occupy both hashing threads
+         final CountDownLatch hashesStarted = new CountDownLatch(2);
+         final CountDownLatch hashesReleased = new CountDownLatch(1);
+         final List<Future<Boolean>> blockingHashes = new ArrayList<>();
+         for (int i = 0; i < 2; i++) {
+            blockingHashes.add(executorService.submit(new Callable<Boolean>() {
+               @Override
+               public Boolean call() {
+                  return PasswordHashingExecutor.getInstance(getStoreKey()).execute(new Callable<Boolean>() {
+                     @Override
+                     public Boolean call() throws InterruptedException {
+                        hashesStarted.countDown();
+                        return hashesReleased.await(1, TimeUnit.MINUTES);
+                     }
+                  });
+               }
+            }));
+         }
+         assertThat(hashesStarted.await(1, TimeUnit.MINUTES), is(true));
+
+         // a bulk update hashes on the same bounded threads as the logins
+         try {
+            accessControlContext.setCredentials(newCredentialsByResource);
+            fail("setting credentials in bulk while password hashing is overloaded should have failed");
+         }
+         catch (RejectedExecutionException e) {
+            assertThat(e.getMessage().toLowerCase(), containsString("password hashing overloaded"));
+         }
+         hashesReleased.countDown();
+         for (Future<Boolean> blockingHash : blockingHashes) {
+            assertThat(blockingHash.get(), is(true));
+         }
+
+         // a bulk update larger than the pool and its queue completes, since it only submits a hash per thread
+         enablePasswordHashingLimit(2, 2);
+         accessControlContext.setCredentials(newCredentialsByResource);
+         for (Resource resource : newCredentialsByResource.keySet()) {
+            newAccessControlContext().authenticate(resource, PasswordCredentials.newInstance(newPassword));
+         }
+      }
+      finally {
+         executorService.shutdown();
+         disablePasswordHashingLimit();
+      }
+   }
+}
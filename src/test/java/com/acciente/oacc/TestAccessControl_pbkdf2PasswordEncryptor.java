@@ -0,0 +1,102 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import com.acciente.oacc.sql.internal.PBKDF2CleanablePasswordEncryptor;
+import org.jasypt.contrib.org.apache.commons.codec_1_3.binary.Base64;
+import org.junit.Test;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_pbkdf2PasswordEncryptor extends TestAccessControlBase {
+   @Test
+   public void pbkdf2PasswordEncryptor_rehashesLegacyDigestOnceOnLogin() throws GeneralSecurityException {
+      final char[] password = "userSecret".toCharArray();
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("pbkdf2Domain");
+      final Resource user
+            = accessControlContext.createResource("user", "pbkdf2Domain", PasswordCredentials.newInstance(password));
+
+      // a session token is bound to the digest of the password, which lets us observe when it is rehashed
+      enableTokenAuthentication("0123456789abcdef0123456789abcdef".getBytes(), 1, TimeUnit.HOURS);
+      try {
+         final AccessControlContext userContext = newAccessControlContext();
+         userContext.authenticate(user, PasswordCredentials.newInstance(password));
+         final TokenCredentials legacyDigestToken = getTokenCredentials(userContext);
+
+         enablePBKDF2PasswordEncryptor(1000);
+         userContext.authenticate(user, legacyDigestToken);
+
+         // the first login checks the legacy digest and replaces it
+         userContext.authenticate(user, PasswordCredentials.newInstance(password));
+         assertIncorrectCredentials(user, legacyDigestToken);
+         final TokenCredentials pbkdf2DigestToken = getTokenCredentials(userContext);
+
+         // later logins leave the digest as is
+         userContext.authenticate(user, PasswordCredentials.newInstance(password));
+         userContext.authenticate(user, pbkdf2DigestToken);
+         assertIncorrectCredentials(user, PasswordCredentials.newInstance("wrong".toCharArray()));
+
+         // a rehashed digest is still checked after switching back
+         disablePBKDF2PasswordEncryptor();
+         userContext.authenticate(user, PasswordCredentials.newInstance(password));
+         userContext.authenticate(user, pbkdf2DigestToken);
+      }
+      finally {
+         disablePBKDF2PasswordEncryptor();
+         disableTokenAuthentication();
+      }
+
+      // the digest is that of the JDK's PBKDF2 implementation
+      final String encryptedPassword = new PBKDF2CleanablePasswordEncryptor(1000).encryptPassword(password);
+      final String[] encryptedPasswordParts = encryptedPassword.split("\\$");
+      assertThat(encryptedPasswordParts[1], is("pbkdf2-sha256"));
+      assertThat(encryptedPasswordParts[2], is("1000"));
+      final Base64 base64 = new Base64();
+      final byte[] salt = base64.decode(encryptedPasswordParts[3].getBytes(StandardCharsets.US_ASCII));
+      final byte[] expectedHash
+            = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+                  .generateSecret(new PBEKeySpec(password, salt, 1000, 256))
+                  .getEncoded();
+      assertThat(Arrays.equals(base64.decode(encryptedPasswordParts[4].getBytes(StandardCharsets.US_ASCII)),
+                               expectedHash),
+                 is(true));
+   }
+
+   private static void assertIncorrectCredentials(Resource resource, Credentials credentials) {
+      try {
+         newAccessControlContext().authenticate(resource, credentials);
+         fail("authenticating with incorrect credentials should have failed");
+      }
+      catch (IncorrectCredentialsException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("invalid"));
+      }
+   }
+}
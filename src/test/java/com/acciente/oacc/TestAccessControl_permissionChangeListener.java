@@ -0,0 +1,134 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_permissionChangeListener extends TestAccessControlBase {
+   @Test
+   public void permissionChangeListener_receivesChanges() throws InterruptedException {
+      final ResourcePermission permission = ResourcePermissions.getInstance("READ");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "READ");
+      accessControlContext.createDomain("listenerDomain");
+      final Resource accessorResource = accessControlContext.createResource("document", "listenerDomain");
+
+      final RecordingPermissionChangeListener listener = new RecordingPermissionChangeListener();
+      addPermissionChangeListener(listener);
+      try {
+         final Resource accessedResource = accessControlContext.createResource("document", "listenerDomain");
+         accessControlContext.grantResourcePermissions(accessorResource,
+                                                       accessedResource,
+                                                       Collections.singleton(permission));
+         // granting a permission that is already held is not a change
+         accessControlContext.grantResourcePermissions(accessorResource,
+                                                       accessedResource,
+                                                       Collections.singleton(permission));
+         accessControlContext.revokeResourcePermissions(accessorResource,
+                                                        accessedResource,
+                                                        Collections.singleton(permission));
+         accessControlContext.deleteResource(accessedResource);
+
+         assertThat(listener.nextChange(), is("created " + accessedResource + " document listenerDomain"));
+         assertThat(listener.nextChange(),
+                    is("changed " + accessorResource + " " + accessedResource + " [READ] []"));
+         assertThat(listener.nextChange(),
+                    is("changed " + accessorResource + " " + accessedResource + " [] [READ]"));
+         assertThat(listener.nextChange(), is("deleted " + accessedResource));
+      }
+      finally {
+         removePermissionChangeListener(listener);
+      }
+   }
+
+   private static class RecordingPermissionChangeListener implements PermissionChangeListener {
+      private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+      String nextChange() throws InterruptedException {
+         return changes.poll(10, TimeUnit.SECONDS);
+      }
+
+      @Override
+      public void resourceCreated(Resource resource, String resourceClassName, String domainName) {
+         changes.add("created " + resource + " " + resourceClassName + " " + domainName);
+      }
+
+      @Override
+      public void resourceDeleted(Resource resource) {
+         changes.add("deleted " + resource);
+      }
+
+      @Override
+      public void resourcePermissionsChanged(Resource accessorResource,
+                                             Resource accessedResource,
+                                             Set<ResourcePermission> addedPermissions,
+                                             Set<ResourcePermission> removedPermissions) {
+         changes.add("changed " + accessorResource + " " + accessedResource
+                           + " " + addedPermissions + " " + removedPermissions);
+      }
+
+      @Override
+      public void globalResourcePermissionsChanged(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> addedPermissions,
+                                                   Set<ResourcePermission> removedPermissions) {
+         changes.add("global " + accessorResource);
+      }
+
+      @Override
+      public void resourceCreatePermissionsChanged(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourceCreatePermission> addedPermissions,
+                                                   Set<ResourceCreatePermission> removedPermissions) {
+         changes.add("create " + accessorResource);
+      }
+
+      @Override
+      public void domainPermissionsChanged(Resource accessorResource,
+                                           String domainName,
+                                           Set<DomainPermission> addedPermissions,
+                                           Set<DomainPermission> removedPermissions) {
+         changes.add("domain " + accessorResource);
+      }
+
+      @Override
+      public void domainCreatePermissionsChanged(Resource accessorResource,
+                                                 Set<DomainCreatePermission> addedPermissions,
+                                                 Set<DomainCreatePermission> removedPermissions) {
+         changes.add("domainCreate " + accessorResource);
+      }
+
+      @Override
+      public void changesDiscarded(int discardedChangeCount) {
+         changes.add("discarded " + discardedChangeCount);
+      }
+   }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_revokeResourcePermissionsInBulk extends TestAccessControlBase {
+   @Test
+   public void revokeResourcePermissionsInBulk_validAsSystemResource() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final Resource accessorResource1 = generateUnauthenticatableResource();
+      final Resource accessorResource2 = generateUnauthenticatableResource();
+      final Resource accessedResource1 = accessControlContext.createResource(resourceClassName, generateDomain());
+      final Resource accessedResource2 = accessControlContext.createResource(resourceClassName, generateDomain());
+
+      Set<ResourcePermission> permissions_pre = new HashSet<>();
+      permissions_pre.add(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      permissions_pre.add(ResourcePermissions.getInstance(customPermissionName));
+
+      accessControlContext.setResourcePermissions(accessorResource1, accessedResource1, permissions_pre);
+      accessControlContext.setResourcePermissions(accessorResource1, accessedResource2, permissions_pre);
+      accessControlContext.setResourcePermissions(accessorResource2, accessedResource1, permissions_pre);
+
+      // revoke permissions, incl. ungranted ones between accessorResource2 and accessedResource2, and verify
+      accessControlContext.revokeResourcePermissionsInBulk(setOf(accessorResource1, accessorResource2),
+                                                           setOf(accessedResource1, accessedResource2),
+                                                           setOf(ResourcePermissions.getInstanceWithGrantOption(customPermissionName)));
+
+      final Set<ResourcePermission> permissions_post = setOf(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource1, accessedResource1), is(permissions_post));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource1, accessedResource2), is(permissions_post));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource2, accessedResource1), is(permissions_post));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource2, accessedResource2).isEmpty(), is(true));
+   }
+
+   @Test
+   public void revokeResourcePermissionsInBulk_unauthorizedOnAnyAccessedResource_shouldFail() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final String customPermissionName = generateResourceClassPermission(resourceClassName);
+      final Resource accessorResource = generateUnauthenticatableResource();
+      final Resource accessedResource1 = accessControlContext.createResource(resourceClassName, generateDomain());
+      final Resource accessedResource2 = accessControlContext.createResource(resourceClassName, generateDomain());
+      final Set<ResourcePermission> resourcePermissions = setOf(ResourcePermissions.getInstance(customPermissionName));
+
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource1, resourcePermissions);
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource2, resourcePermissions);
+
+      // set up an authenticatable resource with grant permission on only one of the accessed resources
+      final char[] password = generateUniquePassword();
+      final Resource grantorResource = generateAuthenticatableResource(password);
+      accessControlContext.grantResourcePermissions(grantorResource,
+                                                    accessedResource1,
+                                                    ResourcePermissions.getInstanceWithGrantOption(customPermissionName));
+
+      // authenticate grantor resource
+      accessControlContext.authenticate(grantorResource, PasswordCredentials.newInstance(password));
+
+      try {
+         accessControlContext.revokeResourcePermissionsInBulk(setOf(accessorResource),
+                                                              setOf(accessedResource1, accessedResource2),
+                                                              resourcePermissions);
+         fail("revoking permissions on an accessed resource without authorization should have failed");
+      }
+      catch (NotAuthorizedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString(String.valueOf(grantorResource).toLowerCase()
+                                                                       + " is not authorized"));
+      }
+
+      // verify that none of the permissions were revoked
+      authenticateSystemResource();
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource1), is(resourcePermissions));
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource2), is(resourcePermissions));
+   }
+}
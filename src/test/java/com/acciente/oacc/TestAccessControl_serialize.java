@@ -104,4 +104,46 @@ public class TestAccessControl_serialize extends TestAccessControlBase {
                                                                                              .getOaccRootPassword()));
       }
    }
+
+   @Test
+   public void serialize_whileImpersonating_shouldPreserveSession() throws IOException, ClassNotFoundException {
+      authenticateSystemResource();
+      final Resource impersonatedResource = generateAuthenticatableResource(generateUniquePassword());
+      accessControlContext.impersonate(impersonatedResource);
+
+      if (accessControlContext instanceof SQLAccessControlContext) {
+         final String domainName = accessControlContext.getDomainNameByResource(impersonatedResource);
+         SQLAccessControlContext.preSerialize(accessControlContext);
+
+         // serialize and deserialize
+         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+         final ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
+         try {
+            objectOutputStream.writeObject(accessControlContext);
+         }
+         finally {
+            objectOutputStream.close();
+         }
+         final ObjectInputStream objectInputStream
+               = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+         final AccessControlContext deserializedAccessControlContext;
+         try {
+            deserializedAccessControlContext = (AccessControlContext) objectInputStream.readObject();
+         }
+         finally {
+            objectInputStream.close();
+         }
+
+         SQLAccessControlContext.postDeserialize(deserializedAccessControlContext, TestConfigLoader.getDataSource());
+
+         // verify the session was preserved, and that the rebound persisters are usable
+         Assert.assertThat(deserializedAccessControlContext.getAuthenticatedResource(), is(getSystemResource()));
+         Assert.assertThat(deserializedAccessControlContext.getSessionResource(), is(impersonatedResource));
+         Assert.assertThat(deserializedAccessControlContext.getDomainNameByResource(impersonatedResource),
+                           is(domainName));
+
+         deserializedAccessControlContext.unimpersonate();
+         Assert.assertThat(deserializedAccessControlContext.getSessionResource(), is(getSystemResource()));
+      }
+   }
 }
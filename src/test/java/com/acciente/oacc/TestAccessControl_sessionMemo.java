@@ -0,0 +1,64 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestAccessControl_sessionMemo extends TestAccessControlBase {
+   @Test
+   public void sessionMemo_isDiscardedOnChangeThroughContext() {
+      final DomainPermission permission = DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN);
+      final char[] password = "memoPassword".toCharArray();
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("memoDomain");
+      final Resource userResource = accessControlContext.createResource("user",
+                                                                        "memoDomain",
+                                                                        PasswordCredentials.newInstance(password));
+      accessControlContext.setDomainPermissions(userResource, "memoDomain", Collections.singleton(permission));
+      accessControlContext.setDomainCreatePermissions(userResource,
+                                                      Collections.singleton(DomainCreatePermissions
+                                                                                  .getInstance(DomainCreatePermissions.CREATE)));
+
+      setSessionMemoMaxAge(1, TimeUnit.HOURS);
+      try {
+         final AccessControlContext userAccessControlContext = newAccessControlContext();
+         userAccessControlContext.authenticate(userResource, PasswordCredentials.newInstance(password));
+
+         // a change made through another context goes unnoticed while the memo is fresh...
+         accessControlContext.revokeDomainPermissions(userResource, "memoDomain", permission);
+         assertThat(userAccessControlContext.hasDomainPermissions(userResource, "memoDomain", permission),
+                    is(true));
+
+         // ...but any change made through the memoizing context discards it
+         userAccessControlContext.createDomain("userDomain");
+         assertThat(userAccessControlContext.hasDomainPermissions(userResource, "memoDomain", permission),
+                    is(false));
+      }
+      finally {
+         setSessionMemoMaxAge(0, TimeUnit.HOURS);
+      }
+   }
+}
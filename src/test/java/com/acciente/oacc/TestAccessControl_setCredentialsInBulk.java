@@ -0,0 +1,233 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_setCredentialsInBulk extends TestAccessControlBase {
+   @Test
+   public void setCredentialsInBulk_validAsSystemResource() {
+      authenticateSystemResource();
+
+      // set up authenticatable resources, one of them with an external id
+      final char[] password1 = generateUniquePassword();
+      final Resource resource1 = generateAuthenticatableResource(password1);
+      final char[] password2 = generateUniquePassword();
+      final String externalId2 = generateUniqueExternalId();
+      final Resource resource2 = generateAuthenticatableResourceWithExtId(password2, externalId2);
+      final char[] password3 = generateUniquePassword();
+      final Resource resource3 = generateAuthenticatableResource(password3);
+
+      // set credentials by resource id and by external id, and verify
+      final char[] newPassword1 = (String.valueOf(password1) + "_modified").toCharArray();
+      final char[] newPassword2 = (String.valueOf(password2) + "_modified").toCharArray();
+      final char[] newPassword3 = (String.valueOf(password3) + "_modified").toCharArray();
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(Resources.getInstance(resource1.getId()),
+                                   PasswordCredentials.newInstance(newPassword1));
+      newCredentialsByResource.put(Resources.getInstance(externalId2),
+                                   PasswordCredentials.newInstance(newPassword2));
+      newCredentialsByResource.put(resource3, PasswordCredentials.newInstance(newPassword3));
+      accessControlContext.setCredentials(newCredentialsByResource);
+      accessControlContext.unauthenticate();
+
+      assertCredentialsChanged(resource1, password1, newPassword1);
+      assertCredentialsChanged(resource2, password2, newPassword2);
+      assertCredentialsChanged(resource3, password3, newPassword3);
+   }
+
+   @Test
+   public void setCredentialsInBulk_ownAndAuthorized() {
+      authenticateSystemResource();
+
+      final char[] password = generateUniquePassword();
+      final Resource authenticatableResource = generateAuthenticatableResource(password);
+      final char[] accessorPassword = generateUniquePassword();
+      final Resource accessorResource = generateAuthenticatableResource(accessorPassword);
+
+      // set up reset-credentials authorization : accessor --RESET_CREDENTIALS-> authenticatable resource
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  authenticatableResource,
+                                                  setOf(ResourcePermissions
+                                                              .getInstance(ResourcePermissions.RESET_CREDENTIALS)));
+
+      // authenticate and set both the accessor's own and the other resource's credentials
+      accessControlContext.authenticate(accessorResource, PasswordCredentials.newInstance(accessorPassword));
+
+      final char[] newPassword = (String.valueOf(password) + "_modified").toCharArray();
+      final char[] newAccessorPassword = (String.valueOf(accessorPassword) + "_modified").toCharArray();
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(authenticatableResource, PasswordCredentials.newInstance(newPassword));
+      newCredentialsByResource.put(accessorResource, PasswordCredentials.newInstance(newAccessorPassword));
+      accessControlContext.setCredentials(newCredentialsByResource);
+      accessControlContext.unauthenticate();
+
+      assertCredentialsChanged(authenticatableResource, password, newPassword);
+      assertCredentialsChanged(accessorResource, accessorPassword, newAccessorPassword);
+   }
+
+   @Test
+   public void setCredentialsInBulk_withoutResetAuthorizationOnAnyResource_shouldFail() {
+      authenticateSystemResource();
+
+      final char[] password = generateUniquePassword();
+      final Resource authenticatableResource = generateAuthenticatableResource(password);
+      final char[] accessorPassword = generateUniquePassword();
+      final Resource accessorResource = generateAuthenticatableResource(accessorPassword);
+
+      // authenticate and attempt to set credentials without authorization on one of the resources
+      accessControlContext.authenticate(accessorResource, PasswordCredentials.newInstance(accessorPassword));
+
+      final char[] newAccessorPassword = (String.valueOf(accessorPassword) + "_modified").toCharArray();
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(accessorResource, PasswordCredentials.newInstance(newAccessorPassword));
+      newCredentialsByResource.put(authenticatableResource,
+                                   PasswordCredentials.newInstance(generateUniquePassword()));
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials without authorization on any one resource should have failed");
+      }
+      catch (NotAuthorizedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("reset credentials"));
+      }
+
+      // verify no credentials were changed
+      accessControlContext.authenticate(accessorResource, PasswordCredentials.newInstance(accessorPassword));
+      accessControlContext.authenticate(authenticatableResource, PasswordCredentials.newInstance(password));
+   }
+
+   @Test
+   public void setCredentialsInBulk_invalidCredentialsOnAnyResource_shouldFail() {
+      authenticateSystemResource();
+
+      final char[] password1 = generateUniquePassword();
+      final Resource resource1 = generateAuthenticatableResource(password1);
+      final char[] password2 = generateUniquePassword();
+      final Resource resource2 = generateAuthenticatableResource(password2);
+
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(resource1, PasswordCredentials.newInstance(generateUniquePassword()));
+      newCredentialsByResource.put(resource2, PasswordCredentials.newInstance("\t ".toCharArray()));
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials with blank password for any one resource should have failed");
+      }
+      catch (InvalidCredentialsException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("password cannot be blank"));
+      }
+
+      // verify no credentials were changed
+      accessControlContext.authenticate(resource1, PasswordCredentials.newInstance(password1));
+      accessControlContext.authenticate(resource2, PasswordCredentials.newInstance(password2));
+   }
+
+   @Test
+   public void setCredentialsInBulk_unauthenticatableOrDuplicateResource_shouldFail() {
+      authenticateSystemResource();
+
+      final char[] password = generateUniquePassword();
+      final String externalId = generateUniqueExternalId();
+      final Resource authenticatableResource = generateAuthenticatableResourceWithExtId(password, externalId);
+
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(generateUnauthenticatableResource(),
+                                   PasswordCredentials.newInstance(generateUniquePassword()));
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials for unauthenticatable resource should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("unauthenticatable resource"));
+      }
+
+      newCredentialsByResource.clear();
+      newCredentialsByResource.put(Resources.getInstance(authenticatableResource.getId()),
+                                   PasswordCredentials.newInstance(generateUniquePassword()));
+      newCredentialsByResource.put(Resources.getInstance(externalId),
+                                   PasswordCredentials.newInstance(generateUniquePassword()));
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials with more than one entry for the same resource should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("more than one entry"));
+      }
+
+      accessControlContext.authenticate(authenticatableResource, PasswordCredentials.newInstance(password));
+   }
+
+   @Test
+   public void setCredentialsInBulk_nulls_shouldFail() {
+      authenticateSystemResource();
+
+      try {
+         accessControlContext.setCredentials(null);
+         fail("setting credentials with null map should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("map of credentials required"));
+      }
+
+      final Map<Resource, Credentials> newCredentialsByResource = new HashMap<>();
+      newCredentialsByResource.put(null, PasswordCredentials.newInstance(generateUniquePassword()));
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials with null resource should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("contains null resource"));
+      }
+
+      newCredentialsByResource.clear();
+      newCredentialsByResource.put(generateAuthenticatableResource(generateUniquePassword()), null);
+      try {
+         accessControlContext.setCredentials(newCredentialsByResource);
+         fail("setting credentials with null credentials should have failed");
+      }
+      catch (NullPointerException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("credentials required"));
+      }
+
+      try {
+         accessControlContext.setCredentials(Collections.<Resource, Credentials>emptyMap());
+         fail("setting credentials with empty map should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("empty map specified"));
+      }
+   }
+
+   private void assertCredentialsChanged(Resource resource, char[] oldPassword, char[] newPassword) {
+      try {
+         accessControlContext.authenticate(resource, PasswordCredentials.newInstance(oldPassword));
+         fail("authenticating with old credentials should have failed");
+      }
+      catch (IncorrectCredentialsException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("invalid password"));
+      }
+      accessControlContext.authenticate(resource, PasswordCredentials.newInstance(newPassword));
+   }
+}
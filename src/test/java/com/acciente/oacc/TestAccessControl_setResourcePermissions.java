@@ -190,6 +190,41 @@ public class TestAccessControl_setResourcePermissions extends TestAccessControlB
       assertThat(permissions_post3.isEmpty(), is(true));
    }
 
+   @Test
+   public void setResourcePermission_addUpdateRemoveAndKeepPermissions() {
+      authenticateSystemResource();
+      final String resourceClassName = generateResourceClass(false, false);
+      final Resource accessorResource = generateUnauthenticatableResource();
+      final Resource accessedResource = accessControlContext.createResource(resourceClassName, generateDomain());
+      final String keptPermissionName = generateResourceClassPermission(resourceClassName);
+      final String updatedPermissionName = generateResourceClassPermission(resourceClassName);
+      final String removedPermissionName = generateResourceClassPermission(resourceClassName);
+      final String addedPermissionName = generateResourceClassPermission(resourceClassName);
+
+      Set<ResourcePermission> permissions_pre1 = new HashSet<>();
+      permissions_pre1.add(ResourcePermissions.getInstance(keptPermissionName));
+      permissions_pre1.add(ResourcePermissions.getInstance(updatedPermissionName));
+      permissions_pre1.add(ResourcePermissions.getInstance(removedPermissionName));
+      permissions_pre1.add(ResourcePermissions.getInstanceWithGrantOption(ResourcePermissions.INHERIT));
+
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, permissions_pre1);
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource), is(permissions_pre1));
+
+      // keep one permission, change the granting rights of two others, remove one and add another, all in one call
+      Set<ResourcePermission> permissions_pre2 = new HashSet<>();
+      permissions_pre2.add(ResourcePermissions.getInstance(keptPermissionName));
+      permissions_pre2.add(ResourcePermissions.getInstanceWithGrantOption(updatedPermissionName));
+      permissions_pre2.add(ResourcePermissions.getInstance(addedPermissionName));
+      permissions_pre2.add(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, permissions_pre2);
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource), is(permissions_pre2));
+
+      // setting the same permissions again should leave them unchanged
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, permissions_pre2);
+      assertThat(accessControlContext.getResourcePermissions(accessorResource, accessedResource), is(permissions_pre2));
+   }
+
    @Test
    public void setResourcePermission_addPermission_withAndWithoutGrant_shouldFail() {
       authenticateSystemResource();
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestAccessControl_tokenAuthentication extends TestAccessControlBase {
+   @Test
+   public void tokenAuthentication_reauthenticatesUntilCredentialsChange() throws InterruptedException {
+      final byte[] secretKey = "0123456789abcdef0123456789abcdef".getBytes();
+      final char[] password = "userSecret".toCharArray();
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext();
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("tokenDomain");
+      final Resource user
+            = accessControlContext.createResource("user", "tokenDomain", PasswordCredentials.newInstance(password));
+      final Resource otherUser
+            = accessControlContext.createResource("user", "tokenDomain", PasswordCredentials.newInstance(password));
+
+      // no token is issued unless token authentication is enabled
+      final AccessControlContext passwordContext = newAccessControlContext();
+      passwordContext.authenticate(user, PasswordCredentials.newInstance(password));
+      assertThat(getTokenCredentials(passwordContext) == null, is(true));
+
+      enableTokenAuthentication(secretKey, 1, TimeUnit.HOURS);
+      try {
+         passwordContext.authenticate(user, PasswordCredentials.newInstance(password));
+         final TokenCredentials tokenCredentials = getTokenCredentials(passwordContext);
+
+         final AccessControlContext tokenContext = newAccessControlContext();
+         tokenContext.authenticate(user, tokenCredentials);
+         assertThat(tokenContext.getAuthenticatedResource(), is(user));
+         // a token does not renew itself
+         assertThat(getTokenCredentials(tokenContext) == null, is(true));
+
+         // the token is bound to its resource and its signature
+         assertIncorrectCredentials(otherUser, tokenCredentials);
+         assertIncorrectCredentials(user, TokenCredentials.newInstance(tokenCredentials.getToken() + "x"));
+         assertIncorrectCredentials(user, TokenCredentials.newInstance("garbage"));
+
+         // changing the credentials revokes the outstanding tokens
+         accessControlContext.setCredentials(user, PasswordCredentials.newInstance("newSecret".toCharArray()));
+         assertIncorrectCredentials(user, tokenCredentials);
+
+         // tokens expire
+         enableTokenAuthentication(secretKey, 1, TimeUnit.MILLISECONDS);
+         passwordContext.authenticate(otherUser, PasswordCredentials.newInstance(password));
+         final TokenCredentials expiringTokenCredentials = getTokenCredentials(passwordContext);
+         Thread.sleep(10);
+         assertIncorrectCredentials(otherUser, expiringTokenCredentials);
+      }
+      finally {
+         disableTokenAuthentication();
+      }
+
+      try {
+         newAccessControlContext().authenticate(user, TokenCredentials.newInstance("garbage"));
+         fail("authenticating with a token while token authentication is disabled should have failed");
+      }
+      catch (UnsupportedCredentialsException e) {
+         // ignore - this is the expected exception
+      }
+   }
+
+   private static void assertIncorrectCredentials(Resource resource, Credentials credentials) {
+      try {
+         newAccessControlContext().authenticate(resource, credentials);
+         fail("authenticating with incorrect credentials should have failed");
+      }
+      catch (IncorrectCredentialsException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("invalid"));
+      }
+   }
+}
@@ -66,6 +66,13 @@ public class TestAccessControl_unauthenticatedApiCalls extends TestAccessControl
       catch (NotAuthenticatedException e) {
          assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
       }
+      try {
+         accessControlContext.setCredentials(null);
+         fail("operation should have failed from unauthenticated context");
+      }
+      catch (NotAuthenticatedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
+      }
 
       // verify create methods
       try {
@@ -142,6 +149,13 @@ public class TestAccessControl_unauthenticatedApiCalls extends TestAccessControl
       catch (NotAuthenticatedException e) {
          assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
       }
+      try {
+         accessControlContext.deleteResources(null);
+         fail("operation should have failed from unauthenticated context");
+      }
+      catch (NotAuthenticatedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
+      }
 
       // verify getters
       try {
@@ -574,6 +588,13 @@ public class TestAccessControl_unauthenticatedApiCalls extends TestAccessControl
       catch (NotAuthenticatedException e) {
          assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
       }
+      try {
+         accessControlContext.grantResourcePermissionsInBulk(null, null, null);
+         fail("operation should have failed from unauthenticated context");
+      }
+      catch (NotAuthenticatedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
+      }
 
       try {
          accessControlContext.revokeDomainCreatePermissions(null, (DomainCreatePermission) null);
@@ -645,6 +666,13 @@ public class TestAccessControl_unauthenticatedApiCalls extends TestAccessControl
       catch (NotAuthenticatedException e) {
          assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
       }
+      try {
+         accessControlContext.revokeResourcePermissionsInBulk(null, null, null);
+         fail("operation should have failed from unauthenticated context");
+      }
+      catch (NotAuthenticatedException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("not authenticated"));
+      }
    }
 
    @Test
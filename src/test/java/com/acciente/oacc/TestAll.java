@@ -18,6 +18,8 @@
 package com.acciente.oacc;
 
 import com.acciente.oacc.helper.Test_OACC_Resource;
+import com.acciente.oacc.memory.TestMemoryStore;
+import com.acciente.oacc.snapshot.TestSnapshotStore;
 import com.acciente.oacc.sql.TestSQLAccessControlSystemInitializerSuite;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -29,6 +31,8 @@ import static org.junit.runners.Suite.SuiteClasses;
       TestSQLAccessControlSystemInitializerSuite.class,
       TestResourcePermission.class,
       TestDomainPermission.class,
-      TestAccessControlSuite.class})
+      TestAccessControlSuite.class,
+      TestMemoryStore.class,
+      TestSnapshotStore.class})
 public class TestAll {
 }
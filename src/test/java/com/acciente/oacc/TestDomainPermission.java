@@ -19,9 +19,16 @@ package com.acciente.oacc;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -169,4 +176,40 @@ public class TestDomainPermission {
          assertThat(e.getMessage().toLowerCase(), containsString("invalid system permission name"));
       }
    }
+
+   @Test
+   public void construct_isShared() throws Exception {
+      for (String systemPermissionName : DomainPermissions.getSysPermissionNames()) {
+         final DomainPermission domainPermission = DomainPermissions.getInstance(systemPermissionName);
+         final DomainPermission grantableDomainPermission
+               = DomainPermissions.getInstanceWithGrantOption(systemPermissionName);
+
+         assertThat(DomainPermissions.getInstance(systemPermissionName), is(sameInstance(domainPermission)));
+         assertThat(DomainPermissions.getInstance(" " + systemPermissionName + "\t"), is(sameInstance(domainPermission)));
+         assertThat(DomainPermissions.getInstanceWithGrantOption(systemPermissionName),
+                    is(sameInstance(grantableDomainPermission)));
+         assertThat(serializeAndDeserialize(domainPermission), is(sameInstance(domainPermission)));
+
+         final DomainCreatePermission domainCreatePermission
+               = DomainCreatePermissions.getInstanceWithGrantOption(grantableDomainPermission);
+         assertThat(DomainCreatePermissions.getInstanceWithGrantOption(grantableDomainPermission),
+                    is(sameInstance(domainCreatePermission)));
+         assertThat(serializeAndDeserialize(domainCreatePermission), is(sameInstance(domainCreatePermission)));
+      }
+
+      assertThat(DomainCreatePermissions.getInstance(DomainCreatePermissions.CREATE),
+                 is(sameInstance(DomainCreatePermissions.getInstance(DomainCreatePermissions.CREATE))));
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+         objectOutputStream.writeObject(object);
+      }
+      try (ObjectInputStream objectInputStream
+                 = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+         return (T) objectInputStream.readObject();
+      }
+   }
 }
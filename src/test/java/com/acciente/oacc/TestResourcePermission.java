@@ -19,9 +19,17 @@ package com.acciente.oacc;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -184,4 +192,69 @@ public class TestResourcePermission {
          assertThat(e.getMessage().toLowerCase(), containsString("invalid system permission name"));
       }
    }
+
+   @Test
+   public void constructPermission_isShared() throws Exception {
+      // a non-system permission is only shared once it has been read back from a store
+      ResourcePermissions.getInternedInstance("this_is_a_shared_permission_name", false);
+      ResourcePermissions.getInternedInstance("this_is_a_shared_permission_name", true);
+
+      for (String permissionName : new String[]{ResourcePermissions.INHERIT, "this_is_a_shared_permission_name"}) {
+         final ResourcePermission resourcePermission = ResourcePermissions.getInstance(permissionName);
+         final ResourcePermission grantableResourcePermission
+               = ResourcePermissions.getInstanceWithGrantOption(permissionName);
+
+         assertThat(ResourcePermissions.getInternedInstance(permissionName, false), is(sameInstance(resourcePermission)));
+
+         assertThat(ResourcePermissions.getInstance(permissionName), is(sameInstance(resourcePermission)));
+         assertThat(ResourcePermissions.getInstance(" " + permissionName + "\t"), is(sameInstance(resourcePermission)));
+         assertThat(ResourcePermissions.getInstanceWithGrantOption(permissionName),
+                    is(sameInstance(grantableResourcePermission)));
+         assertThat(grantableResourcePermission, is(not(sameInstance(resourcePermission))));
+         assertThat(grantableResourcePermission.equals(resourcePermission), is(false));
+
+         // deserialized permissions resolve to the shared instance
+         assertThat(serializeAndDeserialize(resourcePermission), is(sameInstance(resourcePermission)));
+         assertThat(serializeAndDeserialize(grantableResourcePermission), is(sameInstance(grantableResourcePermission)));
+
+         final ResourceCreatePermission resourceCreatePermission
+               = ResourceCreatePermissions.getInstance(resourcePermission);
+         assertThat(ResourceCreatePermissions.getInstance(resourcePermission), is(sameInstance(resourceCreatePermission)));
+         assertThat(serializeAndDeserialize(resourceCreatePermission), is(sameInstance(resourceCreatePermission)));
+      }
+
+      assertThat(ResourceCreatePermissions.getInstance(ResourceCreatePermissions.CREATE),
+                 is(sameInstance(ResourceCreatePermissions.getInstance(ResourceCreatePermissions.CREATE))));
+   }
+
+   @Test
+   public void constructPermission_fromCaller_isNotShared() throws Exception {
+      final String permissionName = "this_is_a_permission_name_never_read_from_a_store";
+      final ResourcePermission resourcePermission = ResourcePermissions.getInstance(permissionName);
+
+      assertThat(ResourcePermissions.getInstance(permissionName), is(not(sameInstance(resourcePermission))));
+      assertThat(ResourcePermissions.getInstance(permissionName), is(resourcePermission));
+      assertThat(ResourcePermissions.isInternedInstance(resourcePermission), is(false));
+
+      final ResourcePermission deserializedResourcePermission = serializeAndDeserialize(resourcePermission);
+      assertThat(deserializedResourcePermission, is(resourcePermission));
+      assertThat(deserializedResourcePermission.hashCode(), is(resourcePermission.hashCode()));
+      assertThat(ResourcePermissions.isInternedInstance(deserializedResourcePermission), is(false));
+
+      // nor are the create permissions that have it as their post-create permission
+      assertThat(ResourceCreatePermissions.getInstance(resourcePermission),
+                 is(not(sameInstance(ResourceCreatePermissions.getInstance(resourcePermission)))));
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+         objectOutputStream.writeObject(object);
+      }
+      try (ObjectInputStream objectInputStream
+                 = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+         return (T) objectInputStream.readObject();
+      }
+   }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class TestResources {
+   @Test
+   public void equalsAndHashCode_byResourceId() {
+      assertThat(Resources.getInstance(1L), is(Resources.getInstance(1L)));
+      assertThat(Resources.getInstance(1L).hashCode(), is(Resources.getInstance(1L).hashCode()));
+      assertThat(Resources.getInstance(1L), is(not(Resources.getInstance(2L))));
+
+      // the resource id identifies the resource, so an external id it is paired with is not compared
+      assertThat(Resources.getInstance(1L, "ext-1"), is(Resources.getInstance(1L)));
+      assertThat(Resources.getInstance(1L, "ext-1").hashCode(), is(Resources.getInstance(1L).hashCode()));
+   }
+
+   @Test
+   public void equalsAndHashCode_byExternalIdOnly() {
+      assertThat(Resources.getInstance("ext-1"), is(Resources.getInstance("ext-1")));
+      assertThat(Resources.getInstance("ext-1").hashCode(), is(Resources.getInstance("ext-1").hashCode()));
+      assertThat(Resources.getInstance("ext-1"), is(not(Resources.getInstance("ext-2"))));
+
+      // without a resource id, a reference can't be matched to one that has a resource id
+      assertThat(Resources.getInstance("ext-1"), is(not(Resources.getInstance(1L, "ext-1"))));
+      assertThat(Resources.getInstance(1L, "ext-1"), is(not(Resources.getInstance("ext-1"))));
+   }
+
+   @Test
+   public void hashSet_mixedReferences() {
+      final Set<Resource> resources = new HashSet<>();
+      resources.add(Resources.getInstance(1L));
+      resources.add(Resources.getInstance("ext-1"));
+      resources.add(Resources.getInstance("ext-1"));
+      resources.add(Resources.getInstance(1L, "ext-1"));
+
+      assertThat(resources.size(), is(2));
+      assertThat(resources.contains(Resources.getInstance("ext-1")), is(true));
+      assertThat(resources.contains(Resources.getInstance(1L)), is(true));
+      assertThat(resources.contains(Resources.getInstance("ext-2")), is(false));
+   }
+}
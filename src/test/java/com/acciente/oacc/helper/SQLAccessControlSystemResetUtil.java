@@ -49,6 +49,9 @@ public class SQLAccessControlSystemResetUtil {
       try {
          final String schemaNameAndTablePrefix = dbSchema != null ? dbSchema + ".OAC_" : "OAC_";
 
+         statement = connection.prepareStatement("DELETE FROM " + schemaNameAndTablePrefix + "ChangeLog");
+         statement.executeUpdate();
+         statement.close();
          statement = connection.prepareStatement("DELETE FROM " + schemaNameAndTablePrefix + "Grant_DomPerm_Sys");
          statement.executeUpdate();
          statement.close();
@@ -31,11 +31,13 @@ public class TestConfigLoader {
    private static SQLProfile sqlProfile;
    private static String     databaseSchema;
    private static char[]     oaccRootPwd;
+   private static boolean    isMemoryStore;
 
    public static final String PROP_DATA_SOURCE_CLASS = "dataSourceClass";
    public static final String PROP_SQL_PROFILE       = "sqlProfile";
    public static final String PROP_DB_SCHEMA         = "dbSchema";
    public static final String PROP_OACC_ROOT_PWD     = "oaccRootPwd";
+   public static final String PROP_MEMORY_STORE      = "memoryStore";
 
    static {
       try {
@@ -53,30 +55,38 @@ public class TestConfigLoader {
 
          final Properties properties = new Properties();
          properties.load(inputStream);
-         final Class<?> dataSourceClass = Class.forName(properties.getProperty(PROP_DATA_SOURCE_CLASS));
-         final DataSource vendorSpecificDataSource = (DataSource) dataSourceClass.newInstance();
-
-         final String sqlTypeName = properties.getProperty(PROP_SQL_PROFILE);
-         if (sqlTypeName==null) {
-            throw new RuntimeException("no sqlType property specified in database configuration property file");
-         }
-         sqlProfile = SQLProfile.valueOf(sqlTypeName);
-
-         for (String propertyName : properties.stringPropertyNames()) {
-            if (!(PROP_DATA_SOURCE_CLASS.equals(propertyName)
-                  || PROP_SQL_PROFILE.equals(propertyName)
-                  || PROP_DB_SCHEMA.equals(propertyName)
-                  || PROP_OACC_ROOT_PWD.equals(propertyName))) {
-               setDataSourceProperty(vendorSpecificDataSource, propertyName, properties.getProperty(propertyName));
-            }
-         }
-         dataSource = vendorSpecificDataSource;
-         databaseSchema = properties.getProperty(PROP_DB_SCHEMA);
          if (properties.getProperty(PROP_OACC_ROOT_PWD) != null)
          {
             oaccRootPwd = properties.getProperty(PROP_OACC_ROOT_PWD).toCharArray();
          }
-         isDatabaseCaseSensitive = CaseSensitiveChecker.isDatabaseCaseSensitive(dataSource);
+
+         // the in-memory store needs neither a data source nor a SQL profile, and is always case sensitive
+         isMemoryStore = Boolean.parseBoolean(properties.getProperty(PROP_MEMORY_STORE));
+         if (isMemoryStore) {
+            isDatabaseCaseSensitive = true;
+         }
+         else {
+            final Class<?> dataSourceClass = Class.forName(properties.getProperty(PROP_DATA_SOURCE_CLASS));
+            final DataSource vendorSpecificDataSource = (DataSource) dataSourceClass.newInstance();
+
+            final String sqlTypeName = properties.getProperty(PROP_SQL_PROFILE);
+            if (sqlTypeName==null) {
+               throw new RuntimeException("no sqlType property specified in database configuration property file");
+            }
+            sqlProfile = SQLProfile.valueOf(sqlTypeName);
+
+            for (String propertyName : properties.stringPropertyNames()) {
+               if (!(PROP_DATA_SOURCE_CLASS.equals(propertyName)
+                     || PROP_SQL_PROFILE.equals(propertyName)
+                     || PROP_DB_SCHEMA.equals(propertyName)
+                     || PROP_OACC_ROOT_PWD.equals(propertyName))) {
+                  setDataSourceProperty(vendorSpecificDataSource, propertyName, properties.getProperty(propertyName));
+               }
+            }
+            dataSource = vendorSpecificDataSource;
+            databaseSchema = properties.getProperty(PROP_DB_SCHEMA);
+            isDatabaseCaseSensitive = CaseSensitiveChecker.isDatabaseCaseSensitive(dataSource);
+         }
       }
       catch (Exception e) {
          throw new RuntimeException(e);
@@ -139,6 +149,10 @@ public class TestConfigLoader {
       return oaccRootPwd;
    }
 
+   public static boolean isMemoryStore() {
+      return isMemoryStore;
+   }
+
    public static boolean isDatabaseCaseSensitive() {
       return isDatabaseCaseSensitive;
    }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.memory;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.DomainCreatePermission;
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.PasswordCredentials;
+import com.acciente.oacc.PermissionChangeListener;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourceCreatePermission;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestMemoryStore {
+   private static final char[]   OACC_ROOT_PWD = "toomanysecrets".toCharArray();
+   private static final Resource SYS_RESOURCE  = Resources.getInstance(0);
+
+   private MemoryStore memoryStore;
+
+   @Before
+   public void setUpTest() {
+      memoryStore = MemoryStore.newInstance();
+      MemoryAccessControlSystemInitializer.initializeOACC(memoryStore, OACC_ROOT_PWD);
+   }
+
+   @Test
+   public void initializeOACC_alreadyInitialized_shouldFail() {
+      try {
+         MemoryAccessControlSystemInitializer.initializeOACC(memoryStore, OACC_ROOT_PWD);
+         fail("initializing an already initialized store should have failed");
+      }
+      catch (IllegalStateException e) {
+         // ignore - this is the expected exception
+      }
+   }
+
+   @Test
+   public void contexts_shareStore() {
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext(memoryStore);
+      accessControlContext.createDomain("memoryDomain");
+
+      final AccessControlContext otherAccessControlContext = newAuthenticatedAccessControlContext(memoryStore);
+      assertThat(otherAccessControlContext.getDomainDescendants("memoryDomain"),
+                 is(Collections.singleton("memoryDomain")));
+   }
+
+   @Test
+   public void snapshot_roundTrip() throws IOException {
+      final ResourcePermission permission = ResourcePermissions.getInstance("READ");
+
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext(memoryStore);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "READ");
+      accessControlContext.createDomain("memoryDomain");
+      final Resource accessorResource = accessControlContext.createResource("document", "memoryDomain", "ext-1");
+      final Resource accessedResource = accessControlContext.createResource("document", "memoryDomain");
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  accessedResource,
+                                                  Collections.singleton(permission));
+
+      final File snapshotFile = File.createTempFile("oacc", ".snapshot");
+      try {
+         memoryStore.writeSnapshot(snapshotFile);
+
+         final AccessControlContext restoredAccessControlContext
+               = newAuthenticatedAccessControlContext(MemoryStore.readSnapshot(snapshotFile));
+         assertThat(restoredAccessControlContext.hasResourcePermissions(accessorResource, accessedResource, permission),
+                    is(true));
+         assertThat(restoredAccessControlContext.getResourcesByResourcePermissions(accessorResource,
+                                                                                   "document",
+                                                                                   permission),
+                    is(Collections.singleton(accessedResource)));
+         assertThat(restoredAccessControlContext.getDomainNameByResource(Resources.getInstance("ext-1")),
+                    is("memoryDomain"));
+
+         // resource ids keep being unique after the restore
+         final Resource newResource = restoredAccessControlContext.createResource("document", "memoryDomain");
+         assertThat(newResource.getId() > accessedResource.getId(), is(true));
+      }
+      finally {
+         snapshotFile.delete();
+      }
+   }
+
+   @Test
+   public void permissionChangeListener_isNotNotifiedOfOtherStores() throws InterruptedException {
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext(memoryStore);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createDomain("memoryDomain");
+
+      final MemoryStore otherMemoryStore = MemoryStore.newInstance();
+      MemoryAccessControlSystemInitializer.initializeOACC(otherMemoryStore, OACC_ROOT_PWD);
+      final AccessControlContext otherAccessControlContext = newAuthenticatedAccessControlContext(otherMemoryStore);
+      otherAccessControlContext.createResourceClass("document", false, false);
+      otherAccessControlContext.createDomain("memoryDomain");
+
+      final RecordingPermissionChangeListener listener = new RecordingPermissionChangeListener();
+      MemoryAccessControlContextFactory.addPermissionChangeListener(memoryStore, listener);
+      try {
+         // changes to another store are not reported to the listeners of this one
+         otherAccessControlContext.createResource("document", "memoryDomain");
+
+         final Resource resource = accessControlContext.createResource("document", "memoryDomain");
+         assertThat(listener.nextChange(), is("created " + resource + " document memoryDomain"));
+      }
+      finally {
+         MemoryAccessControlContextFactory.removePermissionChangeListener(memoryStore, listener);
+      }
+   }
+
+   @Test
+   public void sessionMemo_isNotEnabledForOtherStores() {
+      final DomainPermission permission = DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN);
+      final char[] password = "memoPassword".toCharArray();
+
+      final MemoryStore otherMemoryStore = MemoryStore.newInstance();
+      MemoryAccessControlSystemInitializer.initializeOACC(otherMemoryStore, OACC_ROOT_PWD);
+      final AccessControlContext accessControlContext = newAuthenticatedAccessControlContext(otherMemoryStore);
+      accessControlContext.createResourceClass("user", true, false);
+      accessControlContext.createDomain("memoryDomain");
+      final Resource userResource = accessControlContext.createResource("user",
+                                                                        "memoryDomain",
+                                                                        PasswordCredentials.newInstance(password));
+      accessControlContext.setDomainPermissions(userResource, "memoryDomain", Collections.singleton(permission));
+
+      MemoryAccessControlContextFactory.setSessionMemoMaxAge(memoryStore, 1, TimeUnit.HOURS);
+      try {
+         final AccessControlContext userAccessControlContext
+               = MemoryAccessControlContextFactory.getAccessControlContext(otherMemoryStore);
+         userAccessControlContext.authenticate(userResource, PasswordCredentials.newInstance(password));
+         assertThat(userAccessControlContext.hasDomainPermissions(userResource, "memoryDomain", permission),
+                    is(true));
+
+         // the other store does not memoize, so a change made through another context is seen right away
+         accessControlContext.revokeDomainPermissions(userResource, "memoryDomain", permission);
+         assertThat(userAccessControlContext.hasDomainPermissions(userResource, "memoryDomain", permission),
+                    is(false));
+      }
+      finally {
+         MemoryAccessControlContextFactory.setSessionMemoMaxAge(memoryStore, 0, TimeUnit.HOURS);
+      }
+   }
+
+   private static class RecordingPermissionChangeListener implements PermissionChangeListener {
+      private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+      String nextChange() throws InterruptedException {
+         return changes.poll(10, TimeUnit.SECONDS);
+      }
+
+      @Override
+      public void resourceCreated(Resource resource, String resourceClassName, String domainName) {
+         changes.add("created " + resource + " " + resourceClassName + " " + domainName);
+      }
+
+      @Override
+      public void resourceDeleted(Resource resource) {
+         changes.add("deleted " + resource);
+      }
+
+      @Override
+      public void resourcePermissionsChanged(Resource accessorResource,
+                                             Resource accessedResource,
+                                             Set<ResourcePermission> addedPermissions,
+                                             Set<ResourcePermission> removedPermissions) {
+         changes.add("changed " + accessorResource + " " + accessedResource
+                           + " " + addedPermissions + " " + removedPermissions);
+      }
+
+      @Override
+      public void globalResourcePermissionsChanged(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourcePermission> addedPermissions,
+                                                   Set<ResourcePermission> removedPermissions) {
+         changes.add("global " + accessorResource);
+      }
+
+      @Override
+      public void resourceCreatePermissionsChanged(Resource accessorResource,
+                                                   String resourceClassName,
+                                                   String domainName,
+                                                   Set<ResourceCreatePermission> addedPermissions,
+                                                   Set<ResourceCreatePermission> removedPermissions) {
+         changes.add("create " + accessorResource);
+      }
+
+      @Override
+      public void domainPermissionsChanged(Resource accessorResource,
+                                           String domainName,
+                                           Set<DomainPermission> addedPermissions,
+                                           Set<DomainPermission> removedPermissions) {
+         changes.add("domain " + accessorResource);
+      }
+
+      @Override
+      public void domainCreatePermissionsChanged(Resource accessorResource,
+                                                 Set<DomainCreatePermission> addedPermissions,
+                                                 Set<DomainCreatePermission> removedPermissions) {
+         changes.add("domainCreate " + accessorResource);
+      }
+
+      @Override
+      public void changesDiscarded(int discardedChangeCount) {
+         changes.add("discarded " + discardedChangeCount);
+      }
+   }
+
+   private static AccessControlContext newAuthenticatedAccessControlContext(MemoryStore memoryStore) {
+      final AccessControlContext accessControlContext
+            = MemoryAccessControlContextFactory.getAccessControlContext(memoryStore);
+      accessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+      return accessControlContext;
+   }
+}
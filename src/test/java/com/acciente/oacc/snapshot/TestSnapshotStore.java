@@ -0,0 +1,272 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.snapshot;
+
+import com.acciente.oacc.AccessControlContext;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.PasswordCredentials;
+import com.acciente.oacc.Resource;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import com.acciente.oacc.Resources;
+import com.acciente.oacc.memory.MemoryAccessControlContextFactory;
+import com.acciente.oacc.memory.MemoryAccessControlSystemInitializer;
+import com.acciente.oacc.memory.MemoryStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestSnapshotStore {
+   private static final char[]             OACC_ROOT_PWD = "toomanysecrets".toCharArray();
+   private static final Resource           SYS_RESOURCE  = Resources.getInstance(0);
+   private static final ResourcePermission READ          = ResourcePermissions.getInstance("READ");
+   private static final ResourcePermission WRITE         = ResourcePermissions.getInstance("WRITE");
+   private static final ResourcePermission INHERIT       = ResourcePermissions.getInstance(ResourcePermissions.INHERIT);
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   private MemoryStore          memoryStore;
+   private AccessControlContext accessControlContext;
+
+   @Before
+   public void setUpTest() {
+      memoryStore = MemoryStore.newInstance();
+      MemoryAccessControlSystemInitializer.initializeOACC(memoryStore, OACC_ROOT_PWD);
+
+      accessControlContext = MemoryAccessControlContextFactory.getAccessControlContext(memoryStore);
+      accessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+      accessControlContext.createResourceClass("user", false, false);
+      accessControlContext.createResourceClass("document", false, false);
+      accessControlContext.createResourcePermission("document", "READ");
+      accessControlContext.createResourcePermission("document", "WRITE");
+      accessControlContext.createDomain("parentDomain");
+      accessControlContext.createDomain("childDomain", "parentDomain");
+   }
+
+   @Test
+   public void resourcePermissions_matchUnderlyingStore() {
+      final Resource user = accessControlContext.createResource("user", "childDomain", "user");
+      final Resource group = accessControlContext.createResource("user", "childDomain");
+      final Resource role = accessControlContext.createResource("user", "parentDomain");
+      final Resource admin = accessControlContext.createResource("user", "parentDomain");
+      final Resource document = accessControlContext.createResource("document", "childDomain", "document");
+      final Resource otherDocument = accessControlContext.createResource("document", "parentDomain");
+
+      // user inherits from group, which inherits from role, which holds a global permission on the parent domain
+      accessControlContext.setResourcePermissions(user, group, Collections.singleton(INHERIT));
+      accessControlContext.setResourcePermissions(group, role, Collections.singleton(INHERIT));
+      accessControlContext.setResourcePermissions(group,
+                                                  document,
+                                                  Collections.singleton(ResourcePermissions
+                                                                              .getInstanceWithGrantOption("WRITE")));
+      accessControlContext.setGlobalResourcePermissions(role,
+                                                        "document",
+                                                        "parentDomain",
+                                                        Collections.singleton(READ));
+      accessControlContext.setDomainPermissions(admin,
+                                                "childDomain",
+                                                Collections.singleton(DomainPermissions
+                                                                            .getInstance(DomainPermissions.SUPER_USER)));
+
+      final AccessControlContext snapshotAccessControlContext = newAuthenticatedSnapshotAccessControlContext();
+      final List<Resource> resources = Arrays.asList(user, group, role, admin, document, otherDocument);
+      for (Resource accessorResource : resources) {
+         for (Resource accessedResource : resources) {
+            assertThat(accessorResource + " -> " + accessedResource,
+                       snapshotAccessControlContext.getEffectiveResourcePermissions(accessorResource, accessedResource),
+                       is(accessControlContext.getEffectiveResourcePermissions(accessorResource, accessedResource)));
+         }
+      }
+
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(user, document, READ, WRITE), is(true));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(Resources.getInstance("user"),
+                                                                     Resources.getInstance("document"),
+                                                                     ResourcePermissions.getInstanceWithGrantOption("WRITE")),
+                 is(true));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(user,
+                                                                     document,
+                                                                     ResourcePermissions.getInstanceWithGrantOption("READ")),
+                 is(false));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(user, otherDocument, READ), is(true));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(user, otherDocument, WRITE), is(false));
+
+      // super-user permission applies to the domain and its descendants only
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(admin, document, READ, WRITE), is(true));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(admin, otherDocument, READ), is(false));
+
+      try {
+         snapshotAccessControlContext.hasResourcePermissions(user,
+                                                             document,
+                                                             ResourcePermissions.getInstance(ResourcePermissions.IMPERSONATE));
+         fail("checking a permission not valid for the resource class should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase().contains("not valid for unauthenticatable resource class"), is(true));
+      }
+   }
+
+   @Test
+   public void refresh_swapsInChanges() {
+      final Resource accessorResource = accessControlContext.createResource("user", "childDomain");
+      final Resource accessedResource = accessControlContext.createResource("document", "childDomain");
+
+      final SnapshotStore snapshotStore = SnapshotStore.newInstance(memoryStore);
+      final AccessControlContext snapshotAccessControlContext
+            = SnapshotAccessControlContextFactory.getAccessControlContext(snapshotStore);
+      snapshotAccessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, Collections.singleton(READ));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, accessedResource, READ),
+                 is(false));
+
+      snapshotStore.refresh();
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, accessedResource, READ),
+                 is(true));
+      assertThat(snapshotAccessControlContext.getEffectiveResourcePermissions(accessorResource, accessedResource),
+                 is(Collections.singleton(READ)));
+   }
+
+   @Test
+   public void refreshIfChanged_swapsInChangesOfOtherContexts() {
+      final Resource accessorResource = accessControlContext.createResource("user", "childDomain");
+      final Resource accessedResource = accessControlContext.createResource("document", "childDomain");
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, Collections.singleton(READ));
+
+      final SnapshotStore snapshotStore = SnapshotStore.newInstance(memoryStore);
+      final AccessControlContext snapshotAccessControlContext
+            = SnapshotAccessControlContextFactory.getAccessControlContext(snapshotStore);
+      snapshotAccessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+      assertThat(snapshotStore.refreshIfChanged(), is(false));
+
+      // setting the permissions the accessor already has does not change anything
+      accessControlContext.setResourcePermissions(accessorResource, accessedResource, Collections.singleton(READ));
+      assertThat(snapshotStore.refreshIfChanged(), is(false));
+
+      // a change made through another context on the same store
+      final AccessControlContext otherAccessControlContext
+            = MemoryAccessControlContextFactory.getAccessControlContext(memoryStore);
+      otherAccessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+      otherAccessControlContext.grantResourcePermissions(accessorResource, accessedResource, WRITE);
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, accessedResource, WRITE),
+                 is(false));
+
+      assertThat(snapshotStore.refreshIfChanged(), is(true));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, accessedResource, READ, WRITE),
+                 is(true));
+      assertThat(snapshotStore.refreshIfChanged(), is(false));
+
+      otherAccessControlContext.revokeResourcePermissions(accessorResource, accessedResource, READ);
+      assertThat(snapshotStore.refreshIfChanged(), is(true));
+      assertThat(snapshotAccessControlContext.getEffectiveResourcePermissions(accessorResource, accessedResource),
+                 is(Collections.singleton(WRITE)));
+   }
+
+   @Test
+   public void mappedSnapshotFile_matchesExportedSnapshot() {
+      final Resource accessorResource = accessControlContext.createResource("user", "childDomain", "accessor-\u00e9");
+      final Resource accessedResource = accessControlContext.createResource("document", "childDomain", "accessed");
+      final Resource otherResource = accessControlContext.createResource("document", "parentDomain");
+      accessControlContext.setResourcePermissions(accessorResource,
+                                                  accessedResource,
+                                                  new HashSet<>(Arrays.asList(READ,
+                                                                              ResourcePermissions
+                                                                                    .getInstanceWithGrantOption("WRITE"))));
+      accessControlContext.setGlobalResourcePermissions(accessorResource,
+                                                        "document",
+                                                        "parentDomain",
+                                                        Collections.singleton(READ));
+
+      final File snapshotFile = new File(temporaryFolder.getRoot(), "oacc.snapshot");
+      SnapshotStore.newInstance(memoryStore).exportSnapshot(snapshotFile);
+
+      final SnapshotStore mappedSnapshotStore = SnapshotStore.newInstance(memoryStore, snapshotFile);
+      final AccessControlContext snapshotAccessControlContext
+            = SnapshotAccessControlContextFactory.getAccessControlContext(mappedSnapshotStore);
+      snapshotAccessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+
+      for (Resource resource : Arrays.asList(accessedResource, otherResource)) {
+         assertThat(snapshotAccessControlContext.getEffectiveResourcePermissions(accessorResource, resource),
+                    is(accessControlContext.getEffectiveResourcePermissions(accessorResource, resource)));
+      }
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(Resources.getInstance("accessor-\u00e9"),
+                                                                     Resources.getInstance("accessed"),
+                                                                     READ),
+                 is(true));
+
+      // the mapped store only sees changes once they are exported and the file is mapped again
+      accessControlContext.setResourcePermissions(accessorResource, otherResource, Collections.singleton(WRITE));
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, otherResource, WRITE),
+                 is(false));
+
+      SnapshotStore.newInstance(memoryStore).exportSnapshot(snapshotFile);
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, otherResource, WRITE),
+                 is(false));
+
+      mappedSnapshotStore.refresh();
+      assertThat(snapshotAccessControlContext.hasResourcePermissions(accessorResource, otherResource, WRITE),
+                 is(true));
+      assertThat(snapshotAccessControlContext.getEffectiveResourcePermissions(accessorResource, otherResource),
+                 is(accessControlContext.getEffectiveResourcePermissions(accessorResource, otherResource)));
+   }
+
+   @Test
+   public void mutations_shouldFail() {
+      final Resource accessorResource = accessControlContext.createResource("user", "childDomain");
+      final Resource accessedResource = accessControlContext.createResource("document", "childDomain");
+      final AccessControlContext snapshotAccessControlContext = newAuthenticatedSnapshotAccessControlContext();
+
+      try {
+         snapshotAccessControlContext.createDomain("otherDomain");
+         fail("creating a domain through a read-only context should have failed");
+      }
+      catch (UnsupportedOperationException e) {
+         assertThat(e.getMessage().toLowerCase().contains("read-only"), is(true));
+      }
+      try {
+         snapshotAccessControlContext.grantResourcePermissions(accessorResource,
+                                                               accessedResource,
+                                                               new HashSet<>(Arrays.asList(READ, WRITE)));
+         fail("granting permissions through a read-only context should have failed");
+      }
+      catch (UnsupportedOperationException e) {
+         assertThat(e.getMessage().toLowerCase().contains("read-only"), is(true));
+      }
+
+      // queries not answered from the snapshot still work
+      assertThat(snapshotAccessControlContext.getDomainNameByResource(accessedResource), is("childDomain"));
+   }
+
+   private AccessControlContext newAuthenticatedSnapshotAccessControlContext() {
+      final AccessControlContext snapshotAccessControlContext
+            = SnapshotAccessControlContextFactory.getAccessControlContext(SnapshotStore.newInstance(memoryStore));
+      snapshotAccessControlContext.authenticate(SYS_RESOURCE, PasswordCredentials.newInstance(OACC_ROOT_PWD));
+      return snapshotAccessControlContext;
+   }
+}
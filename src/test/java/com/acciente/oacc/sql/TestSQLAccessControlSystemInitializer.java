@@ -39,7 +39,9 @@ import com.acciente.oacc.helper.OACC_ResourcePassword;
 import com.acciente.oacc.helper.SQLAccessControlSystemResetUtil;
 import com.acciente.oacc.helper.TestConfigLoader;
 import org.junit.AfterClass;
+import org.junit.Assume;
 import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.sql.Connection;
@@ -53,18 +55,18 @@ import static org.hamcrest.MatcherAssert.assertThat;
 public class TestSQLAccessControlSystemInitializer {
    private static Connection con;
 
-   static {
-      try {
-         con = TestConfigLoader.getDataSource().getConnection();
-      }
-      catch (SQLException e) {
-         throw new RuntimeException(e);
-      }
+   @BeforeClass
+   public static void setUpOnce() throws Exception {
+      // the initializer sets up a database schema, which a memory store does not have
+      Assume.assumeTrue(!TestConfigLoader.isMemoryStore());
+      con = TestConfigLoader.getDataSource().getConnection();
    }
 
    @AfterClass
    public static void tearDownOnce() throws Exception {
-      con.close();
+      if (con != null) {
+         con.close();
+      }
    }
 
    @Before
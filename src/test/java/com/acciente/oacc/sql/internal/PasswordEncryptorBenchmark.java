@@ -0,0 +1,108 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the password verify throughput of a single core, for the PBKDF2 encryptor and the jasypt-based one,
+ * and for the JDK's PBKDF2WithHmacSHA256 key factory (which is not available on Java 7) as a reference.
+ * <p/>
+ * All of them are run with the same iteration count (the jasypt-based encryptor uses 100000 iterations of
+ * SHA-256), so the scores compare the cost per iteration; an HMAC iteration digests about four SHA-256 blocks,
+ * where a jasypt iteration digests one. The allocation rate of a check can be compared with the
+ * <code>-prof gc</code> profiler. Run with a Java 8 or later runtime, e.g.:
+ * <pre>
+ *    mvn -Dmaven.test.skip=false test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *    java -cp target/test-classes-jdk1_7:target/classes-jdk1_7:$(cat target/cp.txt) \
+ *         com.acciente.oacc.sql.internal.PasswordEncryptorBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordEncryptorBenchmark {
+   @Param({"100000"})
+   private int iterations;
+
+   private char[]                           password;
+   private PBKDF2CleanablePasswordEncryptor pbkdf2PasswordEncryptor;
+   private String                           pbkdf2EncryptedPassword;
+   private StrongCleanablePasswordEncryptor jasyptPasswordEncryptor;
+   private String                           jasyptEncryptedPassword;
+   private SecretKeyFactory                 jdkKeyFactory;
+   private byte[]                           salt;
+
+   @Setup
+   public void setUp() throws GeneralSecurityException {
+      password = "benchmark-password".toCharArray();
+      pbkdf2PasswordEncryptor = new PBKDF2CleanablePasswordEncryptor(iterations);
+      pbkdf2EncryptedPassword = pbkdf2PasswordEncryptor.encryptPassword(password);
+      jasyptPasswordEncryptor = new StrongCleanablePasswordEncryptor();
+      jasyptEncryptedPassword = jasyptPasswordEncryptor.encryptPassword(password);
+      jdkKeyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+      salt = new byte[16];
+   }
+
+   @Benchmark
+   public boolean checkPBKDF2Password() {
+      return pbkdf2PasswordEncryptor.checkPassword(password, pbkdf2EncryptedPassword);
+   }
+
+   @Benchmark
+   public boolean checkJasyptPassword() {
+      return jasyptPasswordEncryptor.checkPassword(password, jasyptEncryptedPassword);
+   }
+
+   @Benchmark
+   public byte[] deriveJdkPBKDF2Hash() throws GeneralSecurityException {
+      return jdkKeyFactory.generateSecret(new PBEKeySpec(password, salt, iterations, 256)).getEncoded();
+   }
+
+   // the JMH command line options are accepted, e.g. -prof gc
+   public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+      new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                       .include(PasswordEncryptorBenchmark.class.getSimpleName())
+                       .build()).run();
+   }
+}
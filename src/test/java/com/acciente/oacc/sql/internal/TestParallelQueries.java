@@ -0,0 +1,207 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.sql.internal.persister.SQLConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestParallelQueries {
+   private static final int QUERY_COUNT = 8;
+
+   private Object          storeKey;
+   private ExecutorService executor;
+   private AtomicInteger   openConnectionCount;
+
+   @Before
+   public void setUpStore() {
+      storeKey = new Object();
+      executor = Executors.newFixedThreadPool(4);
+      openConnectionCount = new AtomicInteger();
+   }
+
+   @After
+   public void tearDownStore() {
+      ParallelQueries.disable(storeKey);
+      executor.shutdownNow();
+   }
+
+   @Test
+   public void execute_shouldMatchSequentialExecution() {
+      ParallelQueries.enable(storeKey, QUERY_COUNT, executor);
+      final List<ParallelQueries.Query<Integer>> queries = newSquareQueries();
+      final SQLConnection checkConnection = new SQLConnection(newConnection());
+
+      final List<Integer> sequentialResults = ParallelQueries.executeSequentially(checkConnection, queries);
+      final List<Integer> parallelResults
+            = ParallelQueries.getInstance(storeKey).execute(newDataSource(false), checkConnection, queries);
+
+      assertThat(parallelResults, is(sequentialResults));
+      assertThat(openConnectionCount.get(), is(0));
+   }
+
+   @Test
+   public void execute_fewerConnectionsThanQueries_shouldMatchSequentialExecution() {
+      ParallelQueries.enable(storeKey, 1, executor);
+      final List<ParallelQueries.Query<Integer>> queries = newSquareQueries();
+      final SQLConnection checkConnection = new SQLConnection(newConnection());
+
+      // the queries that cannot borrow a connection run on the connection of the check, in order
+      final List<Integer> sequentialResults = ParallelQueries.executeSequentially(checkConnection, queries);
+      for (int i = 0; i < 3; i++) {
+         assertThat(ParallelQueries.getInstance(storeKey).execute(newDataSource(false), checkConnection, queries),
+                    is(sequentialResults));
+      }
+      assertThat(openConnectionCount.get(), is(0));
+   }
+
+   @Test
+   public void execute_connectionUnavailable_shouldMatchSequentialExecution() {
+      ParallelQueries.enable(storeKey, QUERY_COUNT, executor);
+      final List<ParallelQueries.Query<Integer>> queries = newSquareQueries();
+      final SQLConnection checkConnection = new SQLConnection(newConnection());
+
+      final List<Integer> sequentialResults = ParallelQueries.executeSequentially(checkConnection, queries);
+      final List<Integer> parallelResults
+            = ParallelQueries.getInstance(storeKey).execute(newDataSource(true), checkConnection, queries);
+
+      assertThat(parallelResults, is(sequentialResults));
+   }
+
+   @Test
+   public void execute_failingForkedQuery_shouldPropagateToCaller() {
+      ParallelQueries.enable(storeKey, QUERY_COUNT, executor);
+      final IllegalStateException queryFailure = new IllegalStateException("query failed");
+      final List<ParallelQueries.Query<Integer>> queries = newSquareQueries();
+      queries.set(QUERY_COUNT - 1, new ParallelQueries.Query<Integer>() {
+         @Override
+         Integer execute(SQLConnection connection) {
+            throw queryFailure;
+         }
+      });
+
+      try {
+         ParallelQueries.getInstance(storeKey).execute(newDataSource(false),
+                                                       new SQLConnection(newConnection()),
+                                                       queries);
+         fail("executing queries of which one fails should have failed");
+      }
+      catch (IllegalStateException e) {
+         assertThat(e, is(sameInstance(queryFailure)));
+      }
+
+      // the borrowed connections were returned, and so were the permits to borrow them
+      assertThat(openConnectionCount.get(), is(0));
+      assertThat(ParallelQueries.getInstance(storeKey).execute(newDataSource(false),
+                                                               new SQLConnection(newConnection()),
+                                                               newSquareQueries()),
+                 is(ParallelQueries.executeSequentially(new SQLConnection(newConnection()), newSquareQueries())));
+   }
+
+   @Test
+   public void execute_failingForkedQueryWithError_shouldPropagateToCaller() {
+      ParallelQueries.enable(storeKey, QUERY_COUNT, executor);
+      final List<ParallelQueries.Query<Integer>> queries = newSquareQueries();
+      queries.set(1, new ParallelQueries.Query<Integer>() {
+         @Override
+         Integer execute(SQLConnection connection) {
+            throw new AssertionError("query failed");
+         }
+      });
+
+      try {
+         ParallelQueries.getInstance(storeKey).execute(newDataSource(false),
+                                                       new SQLConnection(newConnection()),
+                                                       queries);
+         fail("executing queries of which one fails should have failed");
+      }
+      catch (AssertionError e) {
+         assertThat(e.getMessage(), is("query failed"));
+      }
+   }
+
+   private static List<ParallelQueries.Query<Integer>> newSquareQueries() {
+      final List<ParallelQueries.Query<Integer>> queries = new ArrayList<>(QUERY_COUNT);
+      for (int i = 0; i < QUERY_COUNT; i++) {
+         final int value = i;
+         queries.add(new ParallelQueries.Query<Integer>() {
+            @Override
+            Integer execute(SQLConnection connection) {
+               if (connection == null) {
+                  throw new NullPointerException("Connection required, none specified");
+               }
+               return value * value;
+            }
+         });
+      }
+      return queries;
+   }
+
+   // returns a data source whose connections only count how many of them are open
+   private DataSource newDataSource(final boolean isUnavailable) {
+      return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                 new Class<?>[]{DataSource.class},
+                                                 new InvocationHandler() {
+                                                    @Override
+                                                    public Object invoke(Object proxy, Method method, Object[] args)
+                                                          throws SQLException {
+                                                       if (!method.getName().equals("getConnection")) {
+                                                          throw new UnsupportedOperationException(method.getName());
+                                                       }
+                                                       if (isUnavailable) {
+                                                          throw new SQLException("connection unavailable");
+                                                       }
+                                                       openConnectionCount.incrementAndGet();
+                                                       return newConnection();
+                                                    }
+                                                 });
+   }
+
+   private Connection newConnection() {
+      return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                 new Class<?>[]{Connection.class},
+                                                 new InvocationHandler() {
+                                                    @Override
+                                                    public Object invoke(Object proxy, Method method, Object[] args) {
+                                                       if (method.getName().equals("close")) {
+                                                          openConnectionCount.decrementAndGet();
+                                                          return null;
+                                                       }
+                                                       throw new UnsupportedOperationException(method.getName());
+                                                    }
+                                                 });
+   }
+}
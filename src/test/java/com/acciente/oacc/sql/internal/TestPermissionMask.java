@@ -0,0 +1,243 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal;
+
+import com.acciente.oacc.DomainPermission;
+import com.acciente.oacc.DomainPermissions;
+import com.acciente.oacc.ResourcePermission;
+import com.acciente.oacc.ResourcePermissions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestPermissionMask {
+   private static final String RESOURCE_CLASS_NAME = "document";
+
+   private Object                                  storeKey;
+   private ConcurrentMap<String, PermissionLayout> resourcePermissionLayouts;
+
+   @Before
+   public void setUpStore() {
+      storeKey = new Object();
+      resourcePermissionLayouts = PermissionLayout.getResourcePermissionLayouts(storeKey);
+   }
+
+   @Test
+   public void getResourcePermissionLayouts_shouldBeScopedToStore() {
+      assertThat(PermissionLayout.getResourcePermissionLayouts(storeKey), is(sameInstance(resourcePermissionLayouts)));
+
+      final ConcurrentMap<String, PermissionLayout> otherResourcePermissionLayouts
+            = PermissionLayout.getResourcePermissionLayouts(new Object());
+      assertThat(otherResourcePermissionLayouts, is(not(sameInstance(resourcePermissionLayouts))));
+
+      // the same resource class name in another store has a layout of its own
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.add("READ", false);
+      final PermissionMask otherPermissionMask
+            = PermissionMask.newResourcePermissionMask(otherResourcePermissionLayouts, RESOURCE_CLASS_NAME);
+      otherPermissionMask.add("WRITE", false);
+
+      assertThat(PermissionLayout.getResourcePermissionLayout(resourcePermissionLayouts, RESOURCE_CLASS_NAME).findBit("WRITE"),
+                 is(-1));
+      assertThat(PermissionLayout.getResourcePermissionLayout(otherResourcePermissionLayouts, RESOURCE_CLASS_NAME).findBit("READ"),
+                 is(-1));
+   }
+
+   @Test
+   public void getBit_shouldAssignSysPermissionsLowestBits() {
+      final PermissionLayout permissionLayout
+            = PermissionLayout.getResourcePermissionLayout(resourcePermissionLayouts, RESOURCE_CLASS_NAME);
+      final int sysPermissionCount = ResourcePermissions.getSysPermissionNames().size();
+
+      for (String sysPermissionName : ResourcePermissions.getSysPermissionNames()) {
+         assertThat(permissionLayout.findBit(sysPermissionName) < sysPermissionCount, is(true));
+      }
+
+      final int bit = permissionLayout.getBit("READ");
+      assertThat(bit, is(sysPermissionCount));
+      assertThat(permissionLayout.getBit("READ"), is(bit));
+      assertThat(permissionLayout.getPermissionName(bit), is("READ"));
+   }
+
+   @Test
+   public void findBit_shouldNotAssignBit() {
+      final PermissionLayout permissionLayout
+            = PermissionLayout.getResourcePermissionLayout(resourcePermissionLayouts, RESOURCE_CLASS_NAME);
+
+      assertThat(permissionLayout.findBit("UNDEFINED"), is(-1));
+      assertThat(permissionLayout.findBit("UNDEFINED"), is(-1));
+   }
+
+   @Test
+   public void isPermissible_withUndefinedPermission_shouldNotAssignBit() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.add("READ", true);
+
+      assertThat(permissionMask.isPermissible("UNDEFINED", false), is(false));
+      assertThat(permissionMask.isPermissibleResourcePermissions(Arrays.asList(ResourcePermissions.getInstance("READ"),
+                                                                               ResourcePermissions.getInstance("UNDEFINED"))),
+                 is(false));
+      assertThat(PermissionLayout.getResourcePermissionLayout(resourcePermissionLayouts, RESOURCE_CLASS_NAME).findBit("UNDEFINED"),
+                 is(-1));
+   }
+
+   @Test
+   public void isPermissible_withGrantOption_shouldImplyWithout() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.add("READ", true);
+      permissionMask.add("WRITE", false);
+
+      assertThat(permissionMask.isPermissible(ResourcePermissions.getInstance("READ")), is(true));
+      assertThat(permissionMask.isPermissible(ResourcePermissions.getInstanceWithGrantOption("READ")), is(true));
+      assertThat(permissionMask.isPermissible(ResourcePermissions.getInstance("WRITE")), is(true));
+      assertThat(permissionMask.isPermissible(ResourcePermissions.getInstanceWithGrantOption("WRITE")), is(false));
+      assertThat(permissionMask.isPermissible(ResourcePermissions.getInstance(ResourcePermissions.DELETE)), is(false));
+   }
+
+   @Test
+   public void isPermissibleResourcePermissions() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.add("READ", true);
+      permissionMask.add("WRITE", false);
+
+      assertThat(permissionMask.isPermissibleResourcePermissions(Arrays.asList(ResourcePermissions.getInstanceWithGrantOption("READ"),
+                                                                               ResourcePermissions.getInstance("WRITE"))),
+                 is(true));
+      assertThat(permissionMask.isPermissibleResourcePermissions(Arrays.asList(ResourcePermissions.getInstance("READ"),
+                                                                               ResourcePermissions.getInstanceWithGrantOption("WRITE"))),
+                 is(false));
+      assertThat(permissionMask.isPermissibleResourcePermissions(new HashSet<ResourcePermission>()), is(true));
+   }
+
+   @Test
+   public void isPermissibleDomainPermissions() {
+      final PermissionMask permissionMask = PermissionMask.newDomainPermissionMask();
+      permissionMask.add(DomainPermissions.CREATE_CHILD_DOMAIN, true);
+
+      assertThat(permissionMask.isPermissibleDomainPermissions(Arrays.asList(DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN))),
+                 is(true));
+      assertThat(permissionMask.isPermissibleDomainPermissions(Arrays.asList(DomainPermissions.getInstance(DomainPermissions.SUPER_USER))),
+                 is(false));
+   }
+
+   @Test
+   public void isPermissible_withMask() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.add("READ", true);
+      permissionMask.add("WRITE", false);
+
+      final PermissionMask requestedPermissionMask = __newResourcePermissionMask();
+      requestedPermissionMask.add("READ", true);
+      requestedPermissionMask.add("WRITE", false);
+      assertThat(permissionMask.isPermissible(requestedPermissionMask), is(true));
+
+      requestedPermissionMask.add("WRITE", true);
+      assertThat(permissionMask.isPermissible(requestedPermissionMask), is(false));
+
+      // a requested mask with more words than the held mask
+      final PermissionMask widePermissionMask = __newResourcePermissionMask();
+      for (int i = 0; i < 100; i++) {
+         widePermissionMask.add("PERMISSION_" + i, false);
+      }
+      assertThat(permissionMask.isPermissible(widePermissionMask), is(false));
+      assertThat(widePermissionMask.isPermissible(__newResourcePermissionMask()), is(true));
+   }
+
+   @Test
+   public void isPermissible_withMaskOfDifferentLayout_shouldFail() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      final PermissionMask otherPermissionMask
+            = PermissionMask.newResourcePermissionMask(resourcePermissionLayouts, "other");
+
+      try {
+         permissionMask.isPermissible(otherPermissionMask);
+         fail("comparing permission masks of different layouts should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("different layouts"));
+      }
+
+      try {
+         permissionMask.isPermissible(PermissionMask.newDomainPermissionMask());
+         fail("comparing a resource permission mask to a domain permission mask should have failed");
+      }
+      catch (IllegalArgumentException e) {
+         assertThat(e.getMessage().toLowerCase(), containsString("different layouts"));
+      }
+   }
+
+   @Test
+   public void toResourcePermissions_shouldCollapse() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      permissionMask.addResourcePermissions(Arrays.asList(ResourcePermissions.getInstance("READ"),
+                                                          ResourcePermissions.getInstanceWithGrantOption("READ"),
+                                                          ResourcePermissions.getInstance("WRITE"),
+                                                          ResourcePermissions.getInstance(ResourcePermissions.INHERIT)));
+
+      final Set<ResourcePermission> expectedResourcePermissions = new HashSet<>();
+      expectedResourcePermissions.add(ResourcePermissions.getInstanceWithGrantOption("READ"));
+      expectedResourcePermissions.add(ResourcePermissions.getInstance("WRITE"));
+      expectedResourcePermissions.add(ResourcePermissions.getInstance(ResourcePermissions.INHERIT));
+
+      assertThat(permissionMask.toResourcePermissions(), is(expectedResourcePermissions));
+      assertThat(permissionMask.isEmpty(), is(false));
+      assertThat(__newResourcePermissionMask().isEmpty(), is(true));
+   }
+
+   @Test
+   public void toDomainPermissions_shouldCollapse() {
+      final PermissionMask permissionMask = PermissionMask.newDomainPermissionMask();
+      permissionMask.addDomainPermissions(Arrays.asList(DomainPermissions.getInstance(DomainPermissions.SUPER_USER),
+                                                        DomainPermissions.getInstanceWithGrantOption(DomainPermissions.SUPER_USER),
+                                                        DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN)));
+
+      final Set<DomainPermission> expectedDomainPermissions = new HashSet<>();
+      expectedDomainPermissions.add(DomainPermissions.getInstanceWithGrantOption(DomainPermissions.SUPER_USER));
+      expectedDomainPermissions.add(DomainPermissions.getInstance(DomainPermissions.CREATE_CHILD_DOMAIN));
+
+      assertThat(permissionMask.toDomainPermissions(), is(expectedDomainPermissions));
+   }
+
+   @Test
+   public void toResourcePermissions_acrossWords() {
+      final PermissionMask permissionMask = __newResourcePermissionMask();
+      final Set<ResourcePermission> expectedResourcePermissions = new HashSet<>();
+      for (int i = 0; i < 200; i += 3) {
+         final ResourcePermission resourcePermission = ResourcePermissions.getInstance("PERMISSION_" + i);
+         permissionMask.addResourcePermissions(Arrays.asList(resourcePermission));
+         expectedResourcePermissions.add(resourcePermission);
+      }
+
+      assertThat(permissionMask.toResourcePermissions(), is(expectedResourcePermissions));
+   }
+
+   private PermissionMask __newResourcePermissionMask() {
+      return PermissionMask.newResourcePermissionMask(resourcePermissionLayouts, RESOURCE_CLASS_NAME);
+   }
+}
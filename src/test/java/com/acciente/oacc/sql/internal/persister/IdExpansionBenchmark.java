@@ -0,0 +1,171 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import com.acciente.oacc.sql.internal.persister.id.DomainId;
+import com.acciente.oacc.sql.internal.persister.id.Id;
+import com.acciente.oacc.sql.internal.persister.id.ResourceId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of expanding an accessor inheritance graph or a domain hierarchy into a set of ids, the way
+ * the non-recursive persisters do, into a {@link LongHashSet} that doubles as the queue of the breadth-first
+ * search, and into the boxed <code>HashSet</code> and <code>LinkedHashSet</code> of <code>Id</code> objects with
+ * a frontier set per level that the persisters used before.
+ * <p/>
+ * The direct descendants of each id are read from arrays instead of from the database, so that the scores only
+ * include the work on the ids: the statements and result sets of the persisters cost the same either way. The
+ * inheritance graph has each resource inherit from three others, one of which it shares with its neighbour, so
+ * that the expansions also come across ids they already hold. The allocation per expansion is reported by the
+ * <code>-prof gc</code> profiler (as <code>gc.alloc.rate.norm</code>). Run with a Java 8 or later runtime, e.g.:
+ * <pre>
+ *    mvn -Dmaven.test.skip=false test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *    java -cp target/test-classes-jdk1_7:target/classes-jdk1_7:$(cat target/cp.txt) \
+ *         com.acciente.oacc.sql.internal.persister.IdExpansionBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdExpansionBenchmark {
+   private static final long FIRST_ID = 1000;
+
+   @Param({"16", "1024"})
+   private int hierarchySize;
+
+   private long[][] inheritedResourceIds;
+   private long[][] childDomainIds;
+
+   @Setup
+   public void setUp() {
+      inheritedResourceIds = new long[hierarchySize][];
+      childDomainIds = new long[hierarchySize][];
+      for (int i = 0; i < hierarchySize; i++) {
+         inheritedResourceIds[i] = idsOf(2 * i + 1, 2 * i + 4);
+         childDomainIds[i] = idsOf(4 * i + 1, 4 * i + 5);
+      }
+   }
+
+   @Benchmark
+   public LongHashSet expandInheritanceIntoLongHashSet() {
+      final LongHashSet allResourceIds = new LongHashSet();
+      allResourceIds.add(FIRST_ID);
+
+      for (int i = 0; i < allResourceIds.size(); i++) {
+         for (long resourceId : inheritedResourceIds[(int) (allResourceIds.get(i) - FIRST_ID)]) {
+            allResourceIds.add(resourceId);
+         }
+      }
+      return allResourceIds;
+   }
+
+   @Benchmark
+   public Set<Id<ResourceId>> expandInheritanceIntoIdHashSet() {
+      final Set<Id<ResourceId>> allResourceIds = new HashSet<>();
+      allResourceIds.add(Id.<ResourceId>from(FIRST_ID));
+      Set<Id<ResourceId>> previousResourceIds = new HashSet<>(allResourceIds);
+
+      while (!previousResourceIds.isEmpty()) {
+         final Set<Id<ResourceId>> newestResourceIds = new HashSet<>();
+
+         for (Id<ResourceId> previousResourceId : previousResourceIds) {
+            for (long resourceId : inheritedResourceIds[(int) (previousResourceId.getValue() - FIRST_ID)]) {
+               newestResourceIds.add(Id.<ResourceId>from(resourceId));
+            }
+         }
+         allResourceIds.addAll(newestResourceIds);
+         previousResourceIds = newestResourceIds;
+      }
+      return allResourceIds;
+   }
+
+   @Benchmark
+   public LongHashSet expandDomainsIntoLongHashSet() {
+      final LongHashSet allDomainIds = new LongHashSet();
+      allDomainIds.add(FIRST_ID);
+
+      for (int i = 0; i < allDomainIds.size(); i++) {
+         for (long domainId : childDomainIds[(int) (allDomainIds.get(i) - FIRST_ID)]) {
+            allDomainIds.add(domainId);
+         }
+      }
+      return allDomainIds;
+   }
+
+   @Benchmark
+   public Set<Id<DomainId>> expandDomainsIntoIdLinkedHashSet() {
+      final Set<Id<DomainId>> allDomainIds = new LinkedHashSet<>();
+      allDomainIds.add(Id.<DomainId>from(FIRST_ID));
+      Set<Id<DomainId>> previousDomainIds = new HashSet<>(allDomainIds);
+
+      while (!previousDomainIds.isEmpty()) {
+         final Set<Id<DomainId>> newestDomainIds = new HashSet<>();
+
+         for (Id<DomainId> previousDomainId : previousDomainIds) {
+            for (long domainId : childDomainIds[(int) (previousDomainId.getValue() - FIRST_ID)]) {
+               newestDomainIds.add(Id.<DomainId>from(domainId));
+            }
+         }
+         allDomainIds.addAll(newestDomainIds);
+         previousDomainIds = newestDomainIds;
+      }
+      return allDomainIds;
+   }
+
+   // returns the ids of the nodes from the specified start (inclusive) to end (exclusive) that are in the hierarchy
+   private long[] idsOf(int startNode, int endNode) {
+      final int nodeCount = Math.max(0, Math.min(endNode, hierarchySize) - startNode);
+      final long[] ids = new long[nodeCount];
+      for (int i = 0; i < nodeCount; i++) {
+         ids[i] = FIRST_ID + startNode + i;
+      }
+      return ids;
+   }
+
+   // the JMH command line options are accepted, e.g. -prof gc
+   public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+      new Runner(new OptionsBuilder().parent(new CommandLineOptions(args))
+                       .include(IdExpansionBenchmark.class.getSimpleName())
+                       .build()).run();
+   }
+}
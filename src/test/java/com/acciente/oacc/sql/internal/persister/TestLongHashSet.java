@@ -0,0 +1,167 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestLongHashSet {
+   // values that could be mistaken for markers of empty slots or missing values
+   static final long[] EDGE_VALUES = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE};
+
+   @Test
+   public void add_withEdgeValues() {
+      final LongHashSet longHashSet = new LongHashSet(1);
+
+      for (long value : EDGE_VALUES) {
+         assertThat(longHashSet.contains(value), is(false));
+         assertThat(longHashSet.indexOf(value), is(-1));
+         assertThat(longHashSet.add(value), is(true));
+      }
+      for (int i = 0; i < EDGE_VALUES.length; i++) {
+         assertThat(longHashSet.add(EDGE_VALUES[i]), is(false));
+         assertThat(longHashSet.contains(EDGE_VALUES[i]), is(true));
+         assertThat(longHashSet.indexOf(EDGE_VALUES[i]), is(i));
+         assertThat(longHashSet.get(i), is(EDGE_VALUES[i]));
+      }
+      assertThat(longHashSet.size(), is(EDGE_VALUES.length));
+   }
+
+   @Test
+   public void of_withEdgeValues() {
+      for (long value : EDGE_VALUES) {
+         final LongHashSet longHashSet = LongHashSet.of(value);
+
+         assertThat(longHashSet.size(), is(1));
+         assertThat(longHashSet.get(0), is(value));
+         assertThat(longHashSet.add(value), is(false));
+         assertThat(longHashSet.add(value + 1), is(true));
+      }
+   }
+
+   @Test
+   public void add_withCollidingValues() {
+      // folding the high word into the low word gives all of these values the same hash, and so the same slot
+      final LongHashSet longHashSet = new LongHashSet();
+      final long baseValue = 42;
+
+      for (long i = 0; i < 1000; i++) {
+         assertThat(longHashSet.add(baseValue ^ (i << 32 | i)), is(true));
+      }
+      for (long i = 0; i < 1000; i++) {
+         assertThat(longHashSet.add(baseValue ^ (i << 32 | i)), is(false));
+         assertThat(longHashSet.indexOf(baseValue ^ (i << 32 | i)), is((int) i));
+      }
+      assertThat(longHashSet.contains(baseValue + 1), is(false));
+      assertThat(longHashSet.size(), is(1000));
+   }
+
+   @Test
+   public void add_shouldResizeAndKeepInsertionOrder() {
+      final LongHashSet longHashSet = new LongHashSet(1);
+      for (long value = 100000; value > 0; value -= 7) {
+         longHashSet.add(value);
+      }
+
+      int index = 0;
+      for (long value = 100000; value > 0; value -= 7) {
+         assertThat(longHashSet.get(index++), is(value));
+      }
+      assertThat(longHashSet.size(), is(index));
+   }
+
+   @Test
+   public void addAll() {
+      final LongHashSet longHashSet = new LongHashSet();
+      longHashSet.add(3);
+      longHashSet.add(1);
+
+      final LongHashSet otherLongHashSet = new LongHashSet();
+      otherLongHashSet.add(1);
+      otherLongHashSet.add(2);
+
+      longHashSet.addAll(otherLongHashSet);
+      assertThat(longHashSet.toString(), is("[3, 1, 2]"));
+   }
+
+   @Test
+   public void get_beyondSize_shouldFail() {
+      final LongHashSet longHashSet = new LongHashSet(16);
+      longHashSet.add(1);
+
+      try {
+         longHashSet.get(1);
+         fail("getting a value beyond the size of the set should have failed");
+      }
+      catch (IndexOutOfBoundsException e) {
+         // expected
+      }
+   }
+
+   @Test
+   public void randomized_shouldMatchLinkedHashSet() {
+      final Random random = new Random(20151029L);
+
+      for (int round = 0; round < 50; round++) {
+         final LongHashSet longHashSet = new LongHashSet(random.nextInt(16));
+         final Set<Long> expectedSet = new LinkedHashSet<>();
+         // draw from a small range in most rounds, so that values repeat
+         final int range = round % 2 == 0 ? 200 : Integer.MAX_VALUE;
+
+         for (int i = 0, count = random.nextInt(2000); i < count; i++) {
+            final long value = nextValue(random, range);
+            assertThat(longHashSet.add(value), is(expectedSet.add(value)));
+            assertThat(longHashSet.size(), is(expectedSet.size()));
+         }
+
+         final List<Long> expectedValues = new ArrayList<>(expectedSet);
+         for (int i = 0; i < expectedValues.size(); i++) {
+            assertThat(longHashSet.get(i), is(expectedValues.get(i)));
+            assertThat(longHashSet.indexOf(expectedValues.get(i)), is(i));
+         }
+         for (int i = 0; i < 1000; i++) {
+            final long value = nextValue(random, range);
+            assertThat(longHashSet.contains(value), is(expectedSet.contains(value)));
+         }
+         assertThat(longHashSet.isEmpty(), is(expectedSet.isEmpty()));
+      }
+   }
+
+   // returns a random value, which is either from the specified range or one of the edge values, or
+   // collides with one of those in the table
+   static long nextValue(Random random, int range) {
+      switch (random.nextInt(10)) {
+         case 0:
+            return EDGE_VALUES[random.nextInt(EDGE_VALUES.length)];
+         case 1:
+            final long collidingBits = random.nextInt(range) & 0xFFFFFFFFL;
+            return random.nextInt(range) ^ (collidingBits << 32 | collidingBits);
+         default:
+            return random.nextInt(range);
+      }
+   }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2009-2015, Acciente LLC
+ *
+ * Acciente LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.oacc.sql.internal.persister;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TestLongLongHashMap {
+   @Test
+   public void putIfAbsent_withEdgeValues() {
+      final LongLongHashMap longLongHashMap = new LongLongHashMap(1);
+
+      for (long key : TestLongHashSet.EDGE_VALUES) {
+         assertThat(longLongHashMap.containsKey(key), is(false));
+         assertThat(longLongHashMap.get(key, 7), is(7L));
+         assertThat(longLongHashMap.putIfAbsent(key, ~key), is(true));
+      }
+      for (long key : TestLongHashSet.EDGE_VALUES) {
+         assertThat(longLongHashMap.putIfAbsent(key, 0), is(false));
+         assertThat(longLongHashMap.containsKey(key), is(true));
+         assertThat(longLongHashMap.get(key, 7), is(~key));
+      }
+      assertThat(longLongHashMap.size(), is(TestLongHashSet.EDGE_VALUES.length));
+   }
+
+   @Test
+   public void randomized_shouldMatchLinkedHashMap() {
+      final Random random = new Random(20151030L);
+
+      for (int round = 0; round < 50; round++) {
+         final LongLongHashMap longLongHashMap = new LongLongHashMap(random.nextInt(16));
+         final Map<Long, Long> expectedMap = new LinkedHashMap<>();
+         final int range = round % 2 == 0 ? 200 : Integer.MAX_VALUE;
+
+         for (int i = 0, count = random.nextInt(2000); i < count; i++) {
+            final long key = TestLongHashSet.nextValue(random, range);
+            final long value = random.nextLong();
+            final boolean expectedAbsent = !expectedMap.containsKey(key);
+            if (expectedAbsent) {
+               expectedMap.put(key, value);
+            }
+            assertThat(longLongHashMap.putIfAbsent(key, value), is(expectedAbsent));
+         }
+
+         assertThat(longLongHashMap.size(), is(expectedMap.size()));
+         for (Map.Entry<Long, Long> expectedEntry : expectedMap.entrySet()) {
+            assertThat(longLongHashMap.get(expectedEntry.getKey(), 0), is(expectedEntry.getValue()));
+         }
+
+         final Set<Long> missingKeys = new HashSet<>();
+         for (int i = 0; i < 1000; i++) {
+            final long key = TestLongHashSet.nextValue(random, range);
+            if (!expectedMap.containsKey(key)) {
+               missingKeys.add(key);
+            }
+         }
+         for (Long missingKey : missingKeys) {
+            assertThat(longLongHashMap.containsKey(missingKey), is(false));
+            assertThat(longLongHashMap.get(missingKey, -7), is(-7L));
+         }
+      }
+   }
+}